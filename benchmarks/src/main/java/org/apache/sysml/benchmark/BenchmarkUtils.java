@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.benchmark;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.functionobjects.Multiply;
+import org.apache.sysml.runtime.functionobjects.Plus;
+import org.apache.sysml.runtime.functionobjects.SwapIndex;
+import org.apache.sysml.runtime.instructions.InstructionUtils;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+import org.apache.sysml.runtime.matrix.operators.AggregateBinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.AggregateOperator;
+import org.apache.sysml.runtime.matrix.operators.AggregateUnaryOperator;
+import org.apache.sysml.runtime.matrix.operators.ReorgOperator;
+
+/**
+ * Shared utilities for creating benchmark inputs and operators.
+ */
+public class BenchmarkUtils 
+{
+	public static final long SEED = 7;
+	
+	/**
+	 * Creates a random matrix with uniformly distributed values in [0,1]
+	 * and the given sparsity. The matrix is in its preferred representation
+	 * (dense or sparse) and non-zeros are maintained.
+	 * 
+	 * @param rows number of rows
+	 * @param cols number of columns
+	 * @param sparsity fraction of non-zeros
+	 * @return random matrix block
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock createRandomMatrix(int rows, int cols, double sparsity) 
+		throws DMLRuntimeException
+	{
+		MatrixBlock ret = MatrixBlock.randOperations(rows, cols, sparsity, 0, 1, "uniform", SEED);
+		ret.recomputeNonZeros();
+		ret.examSparsity();
+		return ret;
+	}
+	
+	/**
+	 * Creates a random matrix with the given sparse block type (if sparse).
+	 * 
+	 * @param rows number of rows
+	 * @param cols number of columns
+	 * @param sparsity fraction of non-zeros
+	 * @param type sparse block type
+	 * @return random matrix block
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock createRandomMatrix(int rows, int cols, double sparsity, SparseBlock.Type type) 
+		throws DMLRuntimeException
+	{
+		MatrixBlock in = createRandomMatrix(rows, cols, sparsity);
+		return in.isInSparseFormat() ? new MatrixBlock(in, type, true) : in;
+	}
+	
+	/**
+	 * Creates a random matrix with few distinct values per column, i.e., 
+	 * a matrix that is amenable to compression.
+	 * 
+	 * @param rows number of rows
+	 * @param cols number of columns
+	 * @param sparsity fraction of non-zeros
+	 * @param distinct number of distinct values per column
+	 * @return random matrix block
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock createRandomCompressibleMatrix(int rows, int cols, double sparsity, int distinct) 
+		throws DMLRuntimeException
+	{
+		MatrixBlock ret = createRandomMatrix(rows, cols, sparsity);
+		if( ret.isInSparseFormat() ) {
+			SparseBlock sblock = ret.getSparseBlock();
+			for( int i=0; i<rows; i++ ) {
+				if( sblock.isEmpty(i) ) continue;
+				int apos = sblock.pos(i);
+				int alen = sblock.size(i);
+				double[] avals = sblock.values(i);
+				for( int j=apos; j<apos+alen; j++ )
+					avals[j] = Math.ceil(avals[j] * distinct);
+			}
+		}
+		else {
+			double[] a = ret.getDenseBlock();
+			for( int i=0; i<a.length; i++ )
+				a[i] = Math.ceil(a[i] * distinct);
+		}
+		return ret;
+	}
+	
+	public static AggregateBinaryOperator createMatMultOperator(int k) {
+		AggregateOperator agg = new AggregateOperator(0, Plus.getPlusFnObject());
+		return new AggregateBinaryOperator(Multiply.getMultiplyFnObject(), agg, k);
+	}
+	
+	public static AggregateUnaryOperator createAggUnaryOperator(String opcode, int k) {
+		AggregateUnaryOperator op = InstructionUtils.parseBasicAggregateUnaryOperator(opcode);
+		return new AggregateUnaryOperator(op.aggOp, op.indexFn, k);
+	}
+	
+	public static ReorgOperator createTransposeOperator(int k) {
+		return new ReorgOperator(SwapIndex.getSwapIndexFnObject(), k);
+	}
+}
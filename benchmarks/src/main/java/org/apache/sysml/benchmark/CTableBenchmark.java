@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.benchmark;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.sysml.runtime.matrix.data.CTableMap;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Benchmarks of the ctable hash group-by over the primitive long-long-double 
+ * hash map (incl conversion to a matrix block) and java.util.HashMap as 
+ * baseline, for numbers of distinct cells below and above a resize boundary.
+ * For memory comparisons, run with -prof gc or a fixed heap size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CTableBenchmark 
+{
+	private static final int COLS = 1000;
+	
+	@Param({"10000000"})
+	public int rows;
+	
+	@Param({"3700000", "6300000"})
+	public int cells;
+	
+	private long[] _rix;
+	private long[] _cix;
+	
+	@Setup
+	public void setup() {
+		//scattered (row, col) pairs over all distinct cells
+		_rix = new long[rows];
+		_cix = new long[rows];
+		for( int i=0; i<rows; i++ ) {
+			int cell = (int)(((long)i * 7919) % cells);
+			_rix[i] = cell / COLS + 1;
+			_cix[i] = cell % COLS + 1;
+		}
+	}
+	
+	@Benchmark
+	public CTableMap ctableMap() {
+		CTableMap map = new CTableMap();
+		for( int i=0; i<rows; i++ )
+			map.aggregate(_rix[i], _cix[i], 1);
+		return map;
+	}
+	
+	@Benchmark
+	public MatrixBlock ctableMatrix() {
+		CTableMap map = ctableMap();
+		return map.toMatrixBlock((int)map.getMaxRow(), (int)map.getMaxColumn());
+	}
+	
+	@Benchmark
+	public HashMap<Long,Double> javaHashMap() {
+		HashMap<Long,Double> map = new HashMap<Long,Double>();
+		for( int i=0; i<rows; i++ ) {
+			Long key = (_rix[i]-1) * COLS + _cix[i]-1;
+			Double old = map.get(key);
+			map.put(key, (old!=null) ? old + 1 : 1);
+		}
+		return map;
+	}
+}
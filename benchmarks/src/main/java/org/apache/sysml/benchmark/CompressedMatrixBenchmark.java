@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.sysml.lops.MMTSJ.MMTSJType;
+import org.apache.sysml.lops.MapMultChain.ChainType;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysml.runtime.instructions.InstructionUtils;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
+import org.apache.sysml.runtime.matrix.operators.AggregateBinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.AggregateUnaryOperator;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+
+/**
+ * Benchmarks of compression and the operations over compressed matrix 
+ * blocks, with inputs of few distinct values per column.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressedMatrixBenchmark 
+{
+	@Param({"100000"})
+	public int rows;
+	
+	@Param({"100"})
+	public int cols;
+	
+	@Param({"1.0", "0.1"})
+	public double sparsity;
+	
+	@Param({"1", "8"})
+	public int threads;
+	
+	//number of distinct values per column
+	@Param({"8", "256"})
+	public int distinct;
+	
+	private MatrixBlock _X;
+	private CompressedMatrixBlock _cX;
+	private MatrixBlock _v;
+	private MatrixBlock _vt;
+	private AggregateBinaryOperator _mmop;
+	private AggregateUnaryOperator _aggop;
+	private ScalarOperator _sop;
+	
+	@Setup
+	public void setup() throws DMLRuntimeException {
+		_X = BenchmarkUtils.createRandomCompressibleMatrix(rows, cols, sparsity, distinct);
+		_cX = new CompressedMatrixBlock(_X);
+		_cX.compress();
+		_v = BenchmarkUtils.createRandomMatrix(cols, 1, 1.0);
+		_vt = BenchmarkUtils.createRandomMatrix(1, rows, 1.0);
+		_mmop = BenchmarkUtils.createMatMultOperator(threads);
+		_aggop = BenchmarkUtils.createAggUnaryOperator("uak+", threads);
+		_sop = InstructionUtils.parseScalarBinaryOperator("*", false, 7);
+	}
+	
+	@Benchmark
+	public MatrixBlock compress() throws DMLRuntimeException {
+		CompressedMatrixBlock ret = new CompressedMatrixBlock(_X);
+		ret.compress();
+		return ret;
+	}
+	
+	@Benchmark
+	public MatrixBlock decompress() throws DMLRuntimeException {
+		return _cX.decompress();
+	}
+	
+	@Benchmark
+	public MatrixBlock rightMatrixVector() throws DMLRuntimeException {
+		return (MatrixBlock)_cX.aggregateBinaryOperations(_cX, _v, new MatrixBlock(), _mmop);
+	}
+	
+	@Benchmark
+	public MatrixBlock leftVectorMatrix() throws DMLRuntimeException {
+		return (MatrixBlock)_cX.aggregateBinaryOperations(_vt, _cX, new MatrixBlock(), _mmop);
+	}
+	
+	@Benchmark
+	public MatrixBlock tsmm() throws DMLRuntimeException {
+		return _cX.transposeSelfMatrixMultOperations(new MatrixBlock(), MMTSJType.LEFT, threads);
+	}
+	
+	@Benchmark
+	public MatrixBlock mmchain() throws DMLRuntimeException {
+		return _cX.chainMatrixMultOperations(_v, null, new MatrixBlock(), ChainType.XtXv, threads);
+	}
+	
+	@Benchmark
+	public MatrixBlock sum() throws DMLRuntimeException {
+		return (MatrixBlock)_cX.aggregateUnaryOperations(_aggop, new MatrixBlock(), rows, cols, new MatrixIndexes(1, 1), true);
+	}
+	
+	@Benchmark
+	public MatrixBlock scalarMult() throws DMLRuntimeException {
+		return (MatrixBlock)_cX.scalarOperations(_sop, new MatrixBlock());
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
+import org.apache.sysml.runtime.matrix.operators.AggregateUnaryOperator;
+
+/**
+ * Benchmarks of the LibMatrixAgg kernels for full, row, and column 
+ * aggregates over dense and sparse inputs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MatrixAggBenchmark 
+{
+	@Param({"100000"})
+	public int rows;
+	
+	@Param({"100"})
+	public int cols;
+	
+	@Param({"1.0", "0.1", "0.001"})
+	public double sparsity;
+	
+	@Param({"1", "8"})
+	public int threads;
+	
+	//sum, rowSums, colSums, max, rowMaxs
+	@Param({"uak+", "uark+", "uack+", "uamax", "uarmax"})
+	public String opcode;
+	
+	private MatrixBlock _X;
+	private AggregateUnaryOperator _op;
+	
+	@Setup
+	public void setup() throws DMLRuntimeException {
+		_X = BenchmarkUtils.createRandomMatrix(rows, cols, sparsity);
+		_op = BenchmarkUtils.createAggUnaryOperator(opcode, threads);
+	}
+	
+	@Benchmark
+	public MatrixBlock aggregate() throws DMLRuntimeException {
+		return (MatrixBlock)_X.aggregateUnaryOperations(_op, new MatrixBlock(), rows, cols, new MatrixIndexes(1, 1), true);
+	}
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.instructions.InstructionUtils;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+
+/**
+ * Benchmarks of the LibMatrixBincell kernels for matrix-scalar, matrix-vector, 
+ * and matrix-matrix cellwise operations, invoked via the matrix block operations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MatrixBincellBenchmark 
+{
+	@Param({"10000"})
+	public int rows;
+	
+	@Param({"1000"})
+	public int cols;
+	
+	@Param({"1.0", "0.1", "0.001"})
+	public double sparsity;
+	
+	@Param({"1", "8"})
+	public int threads;
+	
+	@Param({"+", "*"})
+	public String opcode;
+	
+	private MatrixBlock _X;
+	private MatrixBlock _Y;
+	private MatrixBlock _v;
+	private BinaryOperator _bop;
+	private ScalarOperator _sop;
+	
+	@Setup
+	public void setup() throws DMLRuntimeException {
+		_X = BenchmarkUtils.createRandomMatrix(rows, cols, sparsity);
+		_Y = BenchmarkUtils.createRandomMatrix(rows, cols, sparsity);
+		_v = BenchmarkUtils.createRandomMatrix(rows, 1, 1.0);
+		_bop = InstructionUtils.parseBinaryOperator(opcode);
+		_bop.setNumThreads(threads);
+		_sop = InstructionUtils.parseScalarBinaryOperator(opcode, false, 7);
+		_sop.setNumThreads(threads);
+	}
+	
+	@Benchmark
+	public MatrixBlock matrixScalar() throws DMLRuntimeException {
+		return (MatrixBlock)_X.scalarOperations(_sop, new MatrixBlock());
+	}
+	
+	@Benchmark
+	public MatrixBlock matrixColVector() throws DMLRuntimeException {
+		return (MatrixBlock)_X.binaryOperations(_bop, _v, new MatrixBlock());
+	}
+	
+	@Benchmark
+	public MatrixBlock matrixMatrix() throws DMLRuntimeException {
+		return (MatrixBlock)_X.binaryOperations(_bop, _Y, new MatrixBlock());
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.sysml.lops.MMTSJ.MMTSJType;
+import org.apache.sysml.lops.MapMultChain.ChainType;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.LibMatrixMult;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.operators.AggregateBinaryOperator;
+
+/**
+ * Benchmarks of the LibMatrixMult kernels for matrix-vector, matrix-matrix,
+ * transpose-self and matrix multiplication chains over dense, sparse, and 
+ * ultra-sparse inputs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MatrixMultBenchmark 
+{
+	@Param({"10000"})
+	public int rows;
+	
+	@Param({"1000"})
+	public int cols;
+	
+	@Param({"1.0", "0.1", "0.0001"})
+	public double sparsity;
+	
+	@Param({"1", "8"})
+	public int threads;
+	
+	//number of columns of the right-hand-side matrix
+	@Param({"16"})
+	public int rcols;
+	
+	private MatrixBlock _X;
+	private MatrixBlock _v;
+	private MatrixBlock _Y;
+	private AggregateBinaryOperator _op;
+	
+	@Setup
+	public void setup() throws DMLRuntimeException {
+		_X = BenchmarkUtils.createRandomMatrix(rows, cols, sparsity);
+		_v = BenchmarkUtils.createRandomMatrix(cols, 1, 1.0);
+		_Y = BenchmarkUtils.createRandomMatrix(cols, rcols, 1.0);
+		_op = BenchmarkUtils.createMatMultOperator(threads);
+	}
+	
+	@Benchmark
+	public MatrixBlock matrixVector() throws DMLRuntimeException {
+		MatrixBlock ret = new MatrixBlock(rows, 1, false);
+		LibMatrixMult.matrixMult(_X, _v, ret, threads);
+		return ret;
+	}
+	
+	@Benchmark
+	public MatrixBlock matrixMatrix() throws DMLRuntimeException {
+		MatrixBlock ret = new MatrixBlock(rows, rcols, false);
+		LibMatrixMult.matrixMult(_X, _Y, ret, threads);
+		return ret;
+	}
+	
+	@Benchmark
+	public MatrixBlock matrixMatrixOperation() throws DMLRuntimeException {
+		//incl output allocation and selection of the kernel
+		return (MatrixBlock)_X.aggregateBinaryOperations(_X, _Y, new MatrixBlock(), _op);
+	}
+	
+	@Benchmark
+	public MatrixBlock tsmm() throws DMLRuntimeException {
+		return _X.transposeSelfMatrixMultOperations(new MatrixBlock(), MMTSJType.LEFT, threads);
+	}
+	
+	@Benchmark
+	public MatrixBlock mmchain() throws DMLRuntimeException {
+		return _X.chainMatrixMultOperations(_v, null, new MatrixBlock(), ChainType.XtXv, threads);
+	}
+}
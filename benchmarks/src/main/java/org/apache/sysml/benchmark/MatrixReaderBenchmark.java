@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.sysml.conf.CompilerConfig;
+import org.apache.sysml.conf.CompilerConfig.ConfigType;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.io.MatrixReader;
+import org.apache.sysml.runtime.io.MatrixReaderFactory;
+import org.apache.sysml.runtime.io.MatrixWriterFactory;
+import org.apache.sysml.runtime.matrix.data.InputInfo;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.OutputInfo;
+import org.apache.sysml.runtime.util.MapReduceTool;
+
+/**
+ * Benchmarks of the sequential and parallel binary-block and CSV readers
+ * over files in the local file system. The parallel readers use the 
+ * default read parallelism (number of virtual cores).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MatrixReaderBenchmark 
+{
+	@Param({"100000"})
+	public int rows;
+	
+	@Param({"100"})
+	public int cols;
+	
+	@Param({"1.0", "0.01"})
+	public double sparsity;
+	
+	@Param({"binary", "csv"})
+	public String format;
+	
+	@Param({"false", "true"})
+	public boolean parallel;
+	
+	private File _dir;
+	private String _fname;
+	private MatrixReader _reader;
+	private int _blen;
+	private long _nnz;
+	
+	@Setup
+	public void setup() throws DMLRuntimeException, IOException {
+		boolean binary = format.equals("binary");
+		InputInfo iinfo = binary ? InputInfo.BinaryBlockInputInfo : InputInfo.CSVInputInfo;
+		OutputInfo oinfo = binary ? OutputInfo.BinaryBlockOutputInfo : OutputInfo.CSVOutputInfo;
+		
+		//configure sequential or parallel readers and writers
+		CompilerConfig cconf = new CompilerConfig();
+		ConfigType ctype = binary ? ConfigType.PARALLEL_CP_READ_BINARYFORMATS : ConfigType.PARALLEL_CP_READ_TEXTFORMATS;
+		cconf.set(ctype, parallel);
+		ConfigurationManager.setLocalConfig(cconf);
+		
+		//write input file 
+		MatrixBlock mb = BenchmarkUtils.createRandomMatrix(rows, cols, sparsity);
+		_blen = ConfigurationManager.getBlocksize();
+		_nnz = mb.getNonZeros();
+		_dir = Files.createTempDirectory("sysml-bench").toFile();
+		_fname = new File(_dir, "X").getAbsolutePath();
+		MatrixWriterFactory.createMatrixWriter(oinfo)
+			.writeMatrixToHDFS(mb, _fname, rows, cols, _blen, _blen, _nnz);
+		
+		_reader = MatrixReaderFactory.createMatrixReader(iinfo);
+	}
+	
+	@TearDown
+	public void tearDown() throws IOException {
+		MapReduceTool.deleteFileIfExistOnHDFS(_dir.getAbsolutePath());
+	}
+	
+	@Benchmark
+	public MatrixBlock read() throws DMLRuntimeException, IOException {
+		return _reader.readMatrixFromHDFS(_fname, rows, cols, _blen, _blen, _nnz);
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.LibMatrixReorg;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * Benchmarks of the LibMatrixReorg kernels for transpose and sort 
+ * (by column, with values and index return).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MatrixReorgBenchmark 
+{
+	@Param({"100000"})
+	public int rows;
+	
+	@Param({"100"})
+	public int cols;
+	
+	@Param({"1.0", "0.1", "0.001"})
+	public double sparsity;
+	
+	@Param({"1", "8"})
+	public int threads;
+	
+	private MatrixBlock _X;
+	
+	@Setup
+	public void setup() throws DMLRuntimeException {
+		_X = BenchmarkUtils.createRandomMatrix(rows, cols, sparsity);
+	}
+	
+	@Benchmark
+	public MatrixBlock transpose() throws DMLRuntimeException {
+		MatrixBlock ret = new MatrixBlock(cols, rows, _X.isInSparseFormat());
+		return LibMatrixReorg.transpose(_X, ret, threads);
+	}
+	
+	@Benchmark
+	public MatrixBlock sortValues() throws DMLRuntimeException {
+		return LibMatrixReorg.sort(_X, new MatrixBlock(), 1, false, false, threads);
+	}
+	
+	@Benchmark
+	public MatrixBlock sortIndexes() throws DMLRuntimeException {
+		return LibMatrixReorg.sort(_X, new MatrixBlock(), 1, true, true, threads);
+	}
+}
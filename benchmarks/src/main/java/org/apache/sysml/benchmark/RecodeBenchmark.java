@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.benchmark;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.FrameBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.transform.encode.Encoder;
+import org.apache.sysml.runtime.transform.encode.EncoderFactory;
+import org.apache.sysml.runtime.util.StringLongHashMap;
+
+/**
+ * Benchmarks of recode build and apply (first occurrence defines the code,
+ * followed by a lookup per token) over the primitive string-long hash map, 
+ * java.util.HashMap as baseline, and the end-to-end transform encode of a 
+ * single recoded frame column.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecodeBenchmark 
+{
+	private static final String SPEC = "{\"ids\": true, \"recode\": [1]}";
+	
+	@Param({"10000000"})
+	public int rows;
+	
+	@Param({"1000", "1000000"})
+	public int distinct;
+	
+	private String[] _tokens;
+	private FrameBlock _frame;
+	
+	@Setup
+	public void setup() {
+		//distinct string objects per token (as read from file)
+		Random rand = new Random(BenchmarkUtils.SEED);
+		_tokens = new String[rows];
+		String[][] data = new String[rows][];
+		for( int i=0; i<rows; i++ ) {
+			_tokens[i] = new String("val" + rand.nextInt(distinct));
+			data[i] = new String[]{_tokens[i]};
+		}
+		_frame = new FrameBlock(Collections.singletonList(ValueType.STRING), data);
+	}
+	
+	@Benchmark
+	public long stringLongHashMap() {
+		StringLongHashMap map = new StringLongHashMap();
+		for( int i=0; i<rows; i++ )
+			map.putIfAbsent(_tokens[i], map.size()+1);
+		long sum = 0;
+		for( int i=0; i<rows; i++ )
+			sum += map.get(_tokens[i]);
+		return sum;
+	}
+	
+	@Benchmark
+	public long javaHashMap() {
+		HashMap<String,Long> map = new HashMap<String,Long>();
+		for( int i=0; i<rows; i++ )
+			if( !map.containsKey(_tokens[i]) )
+				map.put(_tokens[i], (long)map.size()+1);
+		long sum = 0;
+		for( int i=0; i<rows; i++ )
+			sum += map.get(_tokens[i]);
+		return sum;
+	}
+	
+	@Benchmark
+	public MatrixBlock transformEncode() throws DMLRuntimeException {
+		Encoder encoder = EncoderFactory.createEncoder(SPEC, _frame.getColumnNames(), 1, null);
+		return encoder.encode(_frame, new MatrixBlock(rows, 1, false));
+	}
+}
@@ -0,0 +1,58 @@
+#!/bin/bash
+#-------------------------------------------------------------
+#
+# Licensed to the Apache Software Foundation (ASF) under one
+# or more contributor license agreements.  See the NOTICE file
+# distributed with this work for additional information
+# regarding copyright ownership.  The ASF licenses this file
+# to you under the Apache License, Version 2.0 (the
+# "License"); you may not use this file except in compliance
+# with the License.  You may obtain a copy of the License at
+# 
+#   http://www.apache.org/licenses/LICENSE-2.0
+# 
+# Unless required by applicable law or agreed to in writing,
+# software distributed under the License is distributed on an
+# "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+# KIND, either express or implied.  See the License for the
+# specific language governing permissions and limitations
+# under the License.
+#
+#-------------------------------------------------------------
+
+# Compares the buffer pool replacement policies (fifo, lru, cost) w.r.t. cache
+# hit rates and execution time of iterative algorithms. Requires the binomial 
+# data of genBinomialData.sh and a SystemML-config.xml in the current directory.
+
+if [ "$1" == "" -o "$2" == "" ]; then  echo "Usage: $0 <hdfsDataDir> <MR | SPARK | ECHO>   e.g. $0 perftest SPARK" ; exit 1 ; fi
+if [ "$2" == "SPARK" ]; then CMD="./sparkDML.sh "; DASH="-"; elif [ "$2" == "MR" ]; then CMD="hadoop jar SystemML.jar " ; else CMD="echo " ; fi
+
+BASE=$1/binomial
+MAXITR=20
+
+# small heap to enforce evictions from the buffer pool
+export HADOOP_CLIENT_OPTS="-Xmx512m -Xms512m -Xmn64m"
+
+echo $2" RUN CACHE POLICY EXPERIMENTS: "$(date) >> times.txt;
+
+if [ ! -d logs ]; then mkdir logs ; fi
+
+for p in "fifo" "lru" "cost"
+do
+   # create policy-specific configuration
+   CONF=SystemML-config-${p}.xml
+   grep -v "cache.policy" SystemML-config.xml | sed "s|</root>|   <cache.policy>${p}</cache.policy>\n</root>|" > ${CONF}
+
+   for d in "10k_1k_dense" "10k_1k_sparse"
+   do
+      tstart=$SECONDS
+      ${CMD} -f ../algorithms/l2-svm.dml -config=${CONF} $DASH-stats $DASH-nvargs X=${BASE}/X${d} Y=${BASE}/y${d} icpt=0 tol=0.0001 reg=0.01 maxiter=${MAXITR} model=${BASE}/b Log=${BASE}/debug_output fmt="csv" &> logs/l2svm_${p}_${d}.out
+      echo "L2SVM cache.policy="${p}" on "${d}": "$(($SECONDS - $tstart - 3)) >> times.txt
+      grep "Cache hits\|Cache writes" logs/l2svm_${p}_${d}.out >> times.txt
+
+      tstart=$SECONDS
+      ${CMD} -f ../algorithms/LinearRegCG.dml -config=${CONF} $DASH-stats $DASH-nvargs X=${BASE}/X${d} Y=${BASE}/y${d} B=${BASE}/b icpt=0 fmt="csv" maxi=${MAXITR} tol=0.0001 reg=0.01 &> logs/linregcg_${p}_${d}.out
+      echo "LinRegCG cache.policy="${p}" on "${d}": "$(($SECONDS - $tstart - 3)) >> times.txt
+      grep "Cache hits\|Cache writes" logs/linregcg_${p}_${d}.out >> times.txt
+   done
+done
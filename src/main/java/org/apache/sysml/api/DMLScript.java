@@ -54,6 +54,7 @@ import org.apache.sysml.debug.DMLDebuggerProgramInfo;
 import org.apache.sysml.hops.HopsException;
 import org.apache.sysml.hops.OptimizerUtils;
 import org.apache.sysml.hops.OptimizerUtils.OptimizationLevel;
+import org.apache.sysml.hops.codegen.SpoofCompiler;
 import org.apache.sysml.hops.globalopt.GlobalOptimizerWrapper;
 import org.apache.sysml.lops.Lop;
 import org.apache.sysml.lops.LopsException;
@@ -907,6 +908,10 @@ public class DMLScript
 		//3) cleanup systemml-internal working dirs
 		CacheableData.cleanupCacheDir(); //might be local/hdfs
 		LocalFileUtils.cleanupWorkingDirectory();
+		
+		//4) cleanup generated operators (plan cache and compiled classes)
+		if( config.getBooleanValue(DMLConfig.CODEGEN) )
+			SpoofCompiler.cleanupCodeGenerator();
 	}
 
 	
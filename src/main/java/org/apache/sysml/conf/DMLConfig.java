@@ -71,6 +71,11 @@ public class DMLConfig
 	public static final String CP_PARALLEL_MATRIXMULT = "cp.parallel.matrixmult";
 	public static final String CP_PARALLEL_TEXTIO   = "cp.parallel.textio";
 	public static final String COMPRESSED_LINALG    = "compressed.linalg";
+	public static final String CODEGEN              = "codegen.enabled"; //boolean
+	public static final String CACHING_POLICY       = "cache.policy"; //fifo, lru, cost
+	public static final String FLOATING_POINT_PRECISION = "floating.point.precision"; //double, single
+	public static final String CACHING_REUSE_POOL   = "cache.reuse.pool"; //boolean
+	public static final String CACHING_LINEAGE      = "cache.lineage"; //boolean
 
 	// supported prefixes for custom map/reduce configurations
 	public static final String PREFIX_MAPRED = "mapred";
@@ -102,6 +107,11 @@ public class DMLConfig
 		_defaultVals.put(CP_PARALLEL_MATRIXMULT, "true" );
 		_defaultVals.put(CP_PARALLEL_TEXTIO,     "true" );
 		_defaultVals.put(COMPRESSED_LINALG,      "false" );
+		_defaultVals.put(CODEGEN,                "false" );
+		_defaultVals.put(CACHING_POLICY,         "fifo" );
+		_defaultVals.put(FLOATING_POINT_PRECISION, "double" );
+		_defaultVals.put(CACHING_REUSE_POOL,     "false" );
+		_defaultVals.put(CACHING_LINEAGE,        "false" );
 	}
 	
 	public DMLConfig()
@@ -401,6 +401,12 @@ public class AggBinaryOp extends Hop implements MultiThreadedHop
 		return true;
 	}
 	
+	@Override
+	protected boolean supportsLargeDenseBlocks() {
+		//mm, tsmm, and mmchain (w/o permutation matrix mult)
+		return isMatrixMultiply() && !_hasLeftPMInput;
+	}
+	
 	@Override
 	protected ExecType optFindExecType() 
 		throws HopsException 
@@ -398,6 +398,13 @@ public class AggUnaryOp extends Hop implements MultiThreadedHop
 	}
 	
 
+	@Override
+	protected boolean supportsLargeDenseBlocks() {
+		//unary aggregates and ternary aggregates over row blocks 
+		//(w/o trace, and w/o outer vector aggregates)
+		return _op != AggOp.TRACE && !isUnaryAggregateOuterCPRewriteApplicable();
+	}
+	
 	@Override
 	protected ExecType optFindExecType() throws HopsException {
 		
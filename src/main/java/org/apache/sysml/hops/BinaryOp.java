@@ -20,6 +20,7 @@
 package org.apache.sysml.hops;
 
 import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.hops.Hop.MultiThreadedHop;
 import org.apache.sysml.hops.rewrite.HopRewriteUtils;
 import org.apache.sysml.lops.Aggregate;
 import org.apache.sysml.lops.AppendGAlignedSP;
@@ -62,14 +63,20 @@ import org.apache.sysml.runtime.matrix.mapred.DistributedCacheInput;
  * 		Semantic: align indices (sort), then perform operation
  */
 
-public class BinaryOp extends Hop 
+public class BinaryOp extends Hop implements MultiThreadedHop
 {
 	
 	//we use the full remote memory budget (but reduced by sort buffer), 
 	public static final double APPEND_MEM_MULTIPLIER = 1.0;
 	
+	private static final OpOp2[] LOOKUP_LARGE_DENSE = new OpOp2[]{OpOp2.PLUS, OpOp2.MINUS, OpOp2.MULT, 
+		OpOp2.DIV, OpOp2.MODULUS, OpOp2.INTDIV, OpOp2.LESS, OpOp2.LESSEQUAL, OpOp2.GREATER, OpOp2.GREATEREQUAL, 
+		OpOp2.EQUAL, OpOp2.NOTEQUAL, OpOp2.MIN, OpOp2.MAX, OpOp2.AND, OpOp2.OR, OpOp2.LOG, OpOp2.POW, 
+		OpOp2.MINUS_NZ, OpOp2.LOG_NZ, OpOp2.MINUS1_MULT};
+	
 	private Hop.OpOp2 op;
 	private boolean outer = false;
+	private int _maxNumThreads = -1; //-1 for unlimited
 	
 	public static AppendMethod FORCED_APPEND_METHOD = null;
 	public enum AppendMethod { 
@@ -123,6 +130,16 @@ public class BinaryOp extends Hop
 		return outer;
 	}
 	
+	@Override
+	public void setMaxNumThreads( int k ) {
+		_maxNumThreads = k;
+	}
+	
+	@Override
+	public int getMaxNumThreads() {
+		return _maxNumThreads;
+	}
+	
 	@Override
 	public Lop constructLops() 
 		throws HopsException, LopsException 
@@ -251,6 +268,8 @@ public class BinaryOp extends Hop
 					getInput().get(1).constructLops(), 
 					SortKeys.OperationTypes.WithWeights, 
 					getInput().get(0).getDataType(), getInput().get(0).getValueType(), et);
+			if( et == ExecType.CP )
+				sort.setNumThreads(OptimizerUtils.getConstrainedNumThreads(_maxNumThreads));
 			sort.getOutputParameters().setDimensions(
 					getInput().get(0).getDim1(),
 					getInput().get(0).getDim2(), 
@@ -318,6 +337,8 @@ public class BinaryOp extends Hop
 					getInput().get(1).constructLops(), 
 					SortKeys.OperationTypes.WithWeights, 
 					getInput().get(0).getDataType(), getInput().get(0).getValueType(), et);
+			if( et == ExecType.CP )
+				sort.setNumThreads(OptimizerUtils.getConstrainedNumThreads(_maxNumThreads));
 			sort.getOutputParameters().setDimensions(
 					getInput().get(0).getDim1(),
 					getInput().get(0).getDim2(),
@@ -465,12 +486,26 @@ public class BinaryOp extends Hop
 
 			setLops(pick);
 		}
+		else if( et == ExecType.CP && pick_op == PickByCount.OperationTypes.VALUEPICK
+			&& getInput().get(1).getDataType() == DataType.SCALAR
+			&& UnaryOp.isSelectionApplicable(getInput().get(0)) ) 
+		{
+			//selection-based quantile over the unsorted column vector (no sort)
+			PickByCount pick = new PickByCount( getInput().get(0).constructLops(), 
+					getInput().get(1).constructLops(), getDataType(), getValueType(), pick_op, et, true);
+
+			setOutputDimensions(pick);
+			setLineNumbers(pick);
+			setLops(pick);
+		}
 		else //CP/SPARK 
 		{
 			SortKeys sort = SortKeys.constructSortByValueLop(
 								getInput().get(0).constructLops(), 
 								SortKeys.OperationTypes.WithoutWeights, 
 								DataType.MATRIX, ValueType.DOUBLE, et );
+			if( et == ExecType.CP )
+				sort.setNumThreads(OptimizerUtils.getConstrainedNumThreads(_maxNumThreads));
 			sort.getOutputParameters().setDimensions(
 					getInput().get(0).getDim1(),
 					getInput().get(0).getDim2(),
@@ -587,8 +622,11 @@ public class BinaryOp extends Hop
 				ot = HopsOpOp2LopsU.get(op);
 			
 			
+			//multi-threaded cp matrix-scalar arithmetic operations
+			int k = (et == ExecType.CP) ? OptimizerUtils.getConstrainedNumThreads( _maxNumThreads ) : 1;
+			
 			Unary unary1 = new Unary(getInput().get(0).constructLops(),
-						   getInput().get(1).constructLops(), ot, getDataType(), getValueType(), et);
+						   getInput().get(1).constructLops(), ot, getDataType(), getValueType(), et, k);
 		
 			setOutputDimensions(unary1);
 			setLineNumbers(unary1);
@@ -601,8 +639,10 @@ public class BinaryOp extends Hop
 			ExecType et = optFindExecType();
 			if ( et == ExecType.CP ) 
 			{
+				//multi-threaded cp matrix-matrix arithmetic operations
+				int k = OptimizerUtils.getConstrainedNumThreads( _maxNumThreads );
 				Binary binary = new Binary(getInput().get(0).constructLops(), getInput().get(1).constructLops(), HopsOpOp2LopsB.get(op),
-						getDataType(), getValueType(), et);
+						getDataType(), getValueType(), et, k);
 				
 				setOutputDimensions(binary);
 				setLineNumbers(binary);
@@ -928,6 +968,12 @@ public class BinaryOp extends Hop
 		return true;
 	}
 	
+	@Override
+	protected boolean supportsLargeDenseBlocks() {
+		//cell-wise binary operations only (w/o outer vector operations)
+		return HopRewriteUtils.isValidOp(op, LOOKUP_LARGE_DENSE) && !outer;
+	}
+	
 	@Override
 	protected ExecType optFindExecType() throws HopsException {
 		
@@ -1530,6 +1576,7 @@ public class BinaryOp extends Hop
 		//copy specific attributes
 		ret.op = op;
 		ret.outer = outer;
+		ret._maxNumThreads = _maxNumThreads;
 		
 		return ret;
 	}
@@ -1543,6 +1590,7 @@ public class BinaryOp extends Hop
 		BinaryOp that2 = (BinaryOp)that;
 		return (   op == that2.op
 				&& outer == that2.outer
+				&& _maxNumThreads == that2._maxNumThreads
 				&& getInput().get(0) == that2.getInput().get(0)
 				&& getInput().get(1) == that2.getInput().get(1));
 	}
@@ -271,6 +271,11 @@ public class DataGenOp extends Hop implements MultiThreadedHop
 		return null;
 	}
 
+	@Override
+	protected boolean supportsLargeDenseBlocks() {
+		return (_op == DataGenMethod.RAND);
+	}
+	
 	@Override
 	protected ExecType optFindExecType() throws HopsException {
 		
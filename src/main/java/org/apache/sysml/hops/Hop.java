@@ -207,6 +207,16 @@ public abstract class Hop
 			_etypeForced = ExecType.SPARK;
 	}
 	
+	/**
+	 * Indicates if the CP runtime of this operator supports large dense 
+	 * blocks (more than 2^31-1 cells) for its output and all inputs. 
+	 * 
+	 * @return true if the dense size limit of CP does not apply
+	 */
+	protected boolean supportsLargeDenseBlocks() {
+		return false;
+	}
+	
 	/**
 	 * 
 	 */
@@ -215,18 +225,19 @@ public abstract class Hop
 		if( _etype == ExecType.CP )
 		{
 			boolean invalid = false;
+			boolean large = supportsLargeDenseBlocks();
 			
 			//Step 1: check dimensions of output and all inputs (INTEGER)
 			invalid |= !OptimizerUtils.isValidCPDimensions(_dim1, _dim2);
 			for( Hop in : getInput() )
 				invalid |= !OptimizerUtils.isValidCPDimensions(in._dim1, in._dim2);
 			
-			//Step 2: check valid output and input sizes for cp (<16GB for DENSE)
+			//Step 2: check valid output and input sizes for cp (<16GB for DENSE, unless large dense blocks supported)
 			//(if the memory estimate is smaller than max_numcells we are guaranteed to have it in sparse representation)
-			invalid |= !(  OptimizerUtils.isValidCPMatrixSize(_dim1, _dim2, OptimizerUtils.getSparsity(_dim1, _dim2, _nnz))
+			invalid |= !(  large || OptimizerUtils.isValidCPMatrixSize(_dim1, _dim2, OptimizerUtils.getSparsity(_dim1, _dim2, _nnz))
 					    || getOutputMemEstimate() < OptimizerUtils.MAX_NUMCELLS_CP_DENSE );
 			for( Hop in : getInput() )
-				invalid |= !(   OptimizerUtils.isValidCPMatrixSize(in._dim1, in._dim2, OptimizerUtils.getSparsity(in._dim1, in._dim2, in._nnz))
+				invalid |= !(   large || OptimizerUtils.isValidCPMatrixSize(in._dim1, in._dim2, OptimizerUtils.getSparsity(in._dim1, in._dim2, in._nnz))
 						     || in.getOutputMemEstimate() < OptimizerUtils.MAX_NUMCELLS_CP_DENSE);
 			
 			//force exec type mr if necessary
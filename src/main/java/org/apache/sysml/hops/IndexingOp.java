@@ -335,6 +335,11 @@ public class IndexingOp extends Hop
 		return HopRewriteUtils.getIntValueSafe(c);
 	}
 
+	@Override
+	protected boolean supportsLargeDenseBlocks() {
+		return true;
+	}
+	
 	@Override
 	protected ExecType optFindExecType() throws HopsException {
 		
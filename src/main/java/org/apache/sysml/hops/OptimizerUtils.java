@@ -179,6 +179,13 @@ public class OptimizerUtils
 	 */
 	public static boolean ALLOW_LOOP_UPDATE_IN_PLACE = true;
 	
+	/**
+	 * Enables the reuse of recompiled instructions of statement blocks, keyed by the 
+	 * scalar values and size information of their inputs. This avoids redundant
+	 * recompilation of loop bodies whose inputs do not change across iterations.
+	 */
+	public static boolean ALLOW_RECOMPILE_PLAN_CACHE = true;
+	
 	
 	/**
 	 * Specifies a multiplier computing the degree of parallelism of parallel
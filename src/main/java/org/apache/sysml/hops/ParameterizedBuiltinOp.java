@@ -204,10 +204,19 @@ public class ParameterizedBuiltinOp extends Hop implements MultiThreadedHop
 				setLops(pbilop);
 				break;
 			}
+			case REPLACE: 
+			case TRANSFORMAPPLY: {
+				ExecType et = optFindExecType();
+				int k = OptimizerUtils.getConstrainedNumThreads( _maxNumThreads );
+				ParameterizedBuiltin pbilop = new ParameterizedBuiltin(inputlops,
+						HopsParameterizedBuiltinLops.get(_op), getDataType(), getValueType(), et, k);
+				setOutputDimensions(pbilop);
+				setLineNumbers(pbilop);
+				setLops(pbilop);
+				break;
+			}
 			case CDF:
 			case INVCDF: 
-			case REPLACE:
-			case TRANSFORMAPPLY: 
 			case TRANSFORMDECODE: 
 			case TRANSFORMMETA: 
 			case TOSTRING: {
@@ -436,7 +445,8 @@ public class ParameterizedBuiltinOp extends Hop implements MultiThreadedHop
 		
 		if( et == ExecType.CP || et == ExecType.CP_FILE )
 		{
-			ParameterizedBuiltin pbilop = new ParameterizedBuiltin(inputlops,HopsParameterizedBuiltinLops.get(_op), getDataType(), getValueType(), et);
+			int k = OptimizerUtils.getConstrainedNumThreads( _maxNumThreads );
+			ParameterizedBuiltin pbilop = new ParameterizedBuiltin(inputlops,HopsParameterizedBuiltinLops.get(_op), getDataType(), getValueType(), et, k);
 			setOutputDimensions(pbilop);
 			setLineNumbers(pbilop);
 			setLops(pbilop);
@@ -798,8 +808,9 @@ public class ParameterizedBuiltinOp extends Hop implements MultiThreadedHop
 	{
 		if( et == ExecType.CP || et == ExecType.SPARK )
 		{
+			int k = OptimizerUtils.getConstrainedNumThreads( _maxNumThreads );
 			ParameterizedBuiltin pbilop = new ParameterizedBuiltin(inputlops, 
-					HopsParameterizedBuiltinLops.get(_op), getDataType(), getValueType(), et);
+					HopsParameterizedBuiltinLops.get(_op), getDataType(), getValueType(), et, k);
 			setOutputDimensions(pbilop);
 			setLineNumbers(pbilop);
 			setLops(pbilop);
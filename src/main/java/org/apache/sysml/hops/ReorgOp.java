@@ -291,7 +291,8 @@ public class ReorgOp extends Hop implements MultiThreadedHop
 						voutput = new ReorgOp("tmp3", getDataType(), getValueType(), ReOrgOp.SORT, sinputs); 
 						HopRewriteUtils.copyLineNumbers(this, voutput);	
 						//explicitly construct CP lop; otherwise there is danger of infinite recursion if forced runtime platform.
-						voutput.setLops( constructCPOrSparkSortLop(vinput, sinputs.get(1), sinputs.get(2), sinputs.get(3), ExecType.CP, false) );
+						voutput.setLops( constructCPOrSparkSortLop(vinput, sinputs.get(1), sinputs.get(2), sinputs.get(3), ExecType.CP, false, 
+								OptimizerUtils.getConstrainedNumThreads(_maxNumThreads)) );
 						voutput.getLops().getOutputParameters().setDimensions(vinput.getDim1(), vinput.getDim2(), vinput.getRowsInBlock(), vinput.getColsInBlock(), vinput.getNnz());
 						setLops( voutput.constructLops() );								
 					}
@@ -331,7 +332,8 @@ public class ReorgOp extends Hop implements MultiThreadedHop
 					if( et==ExecType.SPARK && !FORCE_DIST_SORT_INDEXES)
 						bSortSPRewriteApplicable = isSortSPRewriteApplicable();
 					
-					Lop transform1 = constructCPOrSparkSortLop(input, by, desc, ixret, et, bSortSPRewriteApplicable);
+					int k = OptimizerUtils.getConstrainedNumThreads(_maxNumThreads);
+					Lop transform1 = constructCPOrSparkSortLop(input, by, desc, ixret, et, bSortSPRewriteApplicable, k);
 					setOutputDimensions(transform1);
 					setLineNumbers(transform1);
 					
@@ -350,11 +352,11 @@ public class ReorgOp extends Hop implements MultiThreadedHop
 		return getLops();
 	}
 
-	private static Lop constructCPOrSparkSortLop( Hop input, Hop by, Hop desc, Hop ixret, ExecType et, boolean bSortIndInMem ) 
+	private static Lop constructCPOrSparkSortLop( Hop input, Hop by, Hop desc, Hop ixret, ExecType et, boolean bSortIndInMem, int k ) 
 		throws HopsException, LopsException
 	{
 		Transform transform1 = new Transform( input.constructLops(), HopsTransf2Lops.get(ReOrgOp.SORT), 
-				     input.getDataType(), input.getValueType(), et, bSortIndInMem);
+				     input.getDataType(), input.getValueType(), et, bSortIndInMem, k);
 		
 		for( Hop c : new Hop[]{by,desc,ixret} ) {
 			Lop ltmp = c.constructLops();
@@ -484,6 +486,11 @@ public class ReorgOp extends Hop implements MultiThreadedHop
 		return true;
 	}
 	
+	@Override
+	protected boolean supportsLargeDenseBlocks() {
+		return (op == ReOrgOp.TRANSPOSE);
+	}
+	
 	@Override
 	protected ExecType optFindExecType() throws HopsException {
 		
@@ -23,6 +23,7 @@ import java.util.ArrayList;
 
 import org.apache.sysml.conf.ConfigurationManager;
 import org.apache.sysml.hops.Hop.MultiThreadedHop;
+import org.apache.sysml.hops.rewrite.HopRewriteUtils;
 import org.apache.sysml.lops.Aggregate;
 import org.apache.sysml.lops.Aggregate.OperationTypes;
 import org.apache.sysml.lops.CombineUnary;
@@ -51,6 +52,10 @@ import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
 
 public class UnaryOp extends Hop implements MultiThreadedHop
 {
+	private static final OpOp1[] LOOKUP_LARGE_DENSE = new OpOp1[]{OpOp1.NOT, OpOp1.ABS, OpOp1.SIN, OpOp1.COS, 
+		OpOp1.TAN, OpOp1.ASIN, OpOp1.ACOS, OpOp1.ATAN, OpOp1.SIGN, OpOp1.SQRT, OpOp1.LOG, OpOp1.EXP, OpOp1.ROUND, 
+		OpOp1.CEIL, OpOp1.FLOOR, OpOp1.SPROP, OpOp1.SIGMOID, OpOp1.SELP, OpOp1.LOG_NZ};
+	
 	private OpOp1 _op = null;
 	
 	private int _maxNumThreads = -1; //-1 for unlimited
@@ -226,11 +231,29 @@ public class UnaryOp extends Hop implements MultiThreadedHop
 
 			return pick;
 		}
+		else if( et == ExecType.CP && isSelectionApplicable(getInput().get(0)) ) {
+			//selection-based median over the unsorted column vector (no sort)
+			PickByCount pick = new PickByCount(
+					getInput().get(0).constructLops(),
+					Data.createLiteralLop(ValueType.DOUBLE, Double.toString(0.5)),
+					getDataType(),
+					getValueType(),
+					PickByCount.OperationTypes.MEDIAN, et, true);
+
+			pick.getOutputParameters().setDimensions(getDim1(),
+					getDim2(), getRowsInBlock(), getColsInBlock(), getNnz());
+			setLineNumbers(pick);
+			setLops(pick);
+			
+			return pick;
+		}
 		else {
 			SortKeys sort = SortKeys.constructSortByValueLop(
 								getInput().get(0).constructLops(), 
 								SortKeys.OperationTypes.WithoutWeights, 
 								DataType.MATRIX, ValueType.DOUBLE, et );
+			if( et == ExecType.CP )
+				sort.setNumThreads(OptimizerUtils.getConstrainedNumThreads(_maxNumThreads));
 			sort.getOutputParameters().setDimensions(
 					getInput().get(0).getDim1(),
 					getInput().get(0).getDim2(),
@@ -253,6 +276,19 @@ public class UnaryOp extends Hop implements MultiThreadedHop
 		}
 	}
 	
+	/**
+	 * Indicates if a quantile can be computed via selection over the unsorted
+	 * input, which is the case for column vectors without other consumers 
+	 * that could share the sorted intermediate.
+	 * 
+	 * @param input
+	 * @return
+	 */
+	public static boolean isSelectionApplicable(Hop input) {
+		return input.getDim2() == 1 
+			&& input.getParent().size() == 1;
+	}
+	
 	private Lop constructLopsIQM() 
 		throws HopsException, LopsException
 	{
@@ -340,6 +376,8 @@ public class UnaryOp extends Hop implements MultiThreadedHop
 					input.constructLops(), 
 					SortKeys.OperationTypes.WithoutWeights, 
 					DataType.MATRIX, ValueType.DOUBLE, et );
+			if( et == ExecType.CP )
+				sort.setNumThreads(OptimizerUtils.getConstrainedNumThreads(_maxNumThreads));
 			sort.getOutputParameters().setDimensions(
 					input.getDim1(),
 					input.getDim2(),
@@ -641,6 +679,12 @@ public class UnaryOp extends Hop implements MultiThreadedHop
 				|| _op == OpOp1.CAST_AS_INT    );
 	}
 	
+	@Override
+	protected boolean supportsLargeDenseBlocks() {
+		//cell-wise unary operations only
+		return HopRewriteUtils.isValidOp(_op, LOOKUP_LARGE_DENSE);
+	}
+	
 	@Override
 	protected ExecType optFindExecType() 
 		throws HopsException 
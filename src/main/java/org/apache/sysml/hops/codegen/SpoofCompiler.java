@@ -0,0 +1,497 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.hops.codegen;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
+import org.apache.sysml.hops.AggUnaryOp;
+import org.apache.sysml.hops.BinaryOp;
+import org.apache.sysml.hops.Hop;
+import org.apache.sysml.hops.Hop.AggOp;
+import org.apache.sysml.hops.Hop.Direction;
+import org.apache.sysml.hops.Hop.OpOp1;
+import org.apache.sysml.hops.Hop.OpOp2;
+import org.apache.sysml.hops.HopsException;
+import org.apache.sysml.hops.LiteralOp;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.hops.UnaryOp;
+import org.apache.sysml.hops.codegen.cplan.CNode;
+import org.apache.sysml.hops.codegen.cplan.CNodeBinary;
+import org.apache.sysml.hops.codegen.cplan.CNodeBinary.BinType;
+import org.apache.sysml.hops.codegen.cplan.CNodeCell;
+import org.apache.sysml.hops.codegen.cplan.CNodeData;
+import org.apache.sysml.hops.codegen.cplan.CNodeData.InputType;
+import org.apache.sysml.hops.codegen.cplan.CNodeUnary;
+import org.apache.sysml.hops.codegen.cplan.CNodeUnary.UnaryType;
+import org.apache.sysml.hops.rewrite.HopRewriteUtils;
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.codegen.CodegenUtils;
+import org.apache.sysml.runtime.codegen.SpoofCellwise.CellType;
+import org.apache.sysml.runtime.controlprogram.parfor.util.IDSequence;
+import org.apache.sysml.utils.Statistics;
+
+/**
+ * Operator fusion compiler: identifies chains of cell-wise operations in
+ * a HOP DAG (optionally followed by a full or row sum), constructs a cplan
+ * for each chain, generates and compiles a fused operator class, and
+ * replaces the chain by a single SpoofFusedOp. Generated classes are
+ * reused across DAGs and recompilations via a plan cache, which is keyed
+ * by the generated source code (without class name).
+ *
+ * Fused operators only exist for the control program; chains whose
+ * inputs and output do not fit into the local memory budget are left
+ * unchanged and hence retain their distributed operators.
+ */
+public class SpoofCompiler
+{
+	private static final Log LOG = LogFactory.getLog(SpoofCompiler.class.getName());
+
+	//minimum number of fused cell-wise operations, which leaves single
+	//operations and fused operators like tak+* or wsloss untouched
+	public static final int MIN_FUSED_OPS = 2;
+
+	//plan cache of generated classes (source code -> class)
+	private static final HashMap<String, Class<?>> _planCache = new HashMap<String, Class<?>>();
+	private static final IDSequence _classID = new IDSequence();
+
+	/**
+	 * Applies operator fusion to the given DAG roots. Roots that are
+	 * themselves fused are replaced in the given list.
+	 *
+	 * @param roots list of dag roots
+	 * @throws HopsException
+	 */
+	public static void optimize(ArrayList<Hop> roots)
+		throws HopsException
+	{
+		if( roots == null || !isValidExecutionMode() )
+			return;
+
+		Hop.resetVisitStatus(roots);
+		for( int i=0; i<roots.size(); i++ ) {
+			Hop root = roots.get(i);
+			if( root.getVisited() != Hop.VisitStatus.DONE && isValidCellRoot(root) ) {
+				Hop hnew = constructFusedOperator(root);
+				if( hnew != null ) {
+					roots.set(i, hnew);
+					root = hnew;
+				}
+			}
+			rFuseOperators(root);
+		}
+		Hop.resetVisitStatus(roots);
+	}
+
+	/**
+	 * Clears the plan cache and the cache of compiled classes.
+	 */
+	public static void cleanupCodeGenerator() {
+		synchronized( _planCache ) {
+			_planCache.clear();
+		}
+		CodegenUtils.clearClassCache();
+	}
+
+	/**
+	 *
+	 * @param hop
+	 * @throws HopsException
+	 */
+	private static void rFuseOperators(Hop hop)
+		throws HopsException
+	{
+		if( hop.getVisited() == Hop.VisitStatus.DONE )
+			return;
+
+		for( int i=0; i<hop.getInput().size(); i++ )
+		{
+			Hop hi = hop.getInput().get(i);
+
+			//top-down fusion (largest chains first)
+			if( hi.getVisited() != Hop.VisitStatus.DONE && isValidCellRoot(hi) )
+			{
+				Hop hnew = constructFusedOperator(hi);
+				if( hnew != null ) {
+					//replace the fused root in all parents (incl current hop)
+					ArrayList<Hop> parents = new ArrayList<Hop>(hi.getParent());
+					for( Hop p : parents ) {
+						int pos = HopRewriteUtils.getChildReferencePos(p, hi);
+						while( pos >= 0 ) {
+							HopRewriteUtils.removeChildReferenceByPos(p, hi, pos);
+							HopRewriteUtils.addChildReference(p, hnew, pos);
+							pos = HopRewriteUtils.getChildReferencePos(p, hi);
+						}
+					}
+					hi = hnew;
+				}
+			}
+
+			rFuseOperators(hi);
+		}
+
+		hop.setVisited(Hop.VisitStatus.DONE);
+	}
+
+	/**
+	 * Constructs, generates and compiles a fused operator for the given
+	 * cell root. The fused interior operators are disconnected from their
+	 * inputs, while the caller is responsible for replacing the root in
+	 * its parents.
+	 *
+	 * @param root cell root
+	 * @return fused operator or null if fusion is not applicable
+	 * @throws HopsException
+	 */
+	private static Hop constructFusedOperator(Hop root)
+		throws HopsException
+	{
+		//determine cell type and root of the cell-wise expression
+		CellType type = CellType.NO_AGG;
+		Hop croot = root;
+		if( root instanceof AggUnaryOp ) {
+			type = (((AggUnaryOp)root).getDirection()==Direction.Row) ?
+				CellType.ROW_AGG : CellType.FULL_AGG;
+			croot = root.getInput().get(0);
+		}
+
+		//construct cplan (w/ memoization of shared sub expressions)
+		HashMap<Long, CNode> memo = new HashMap<Long, CNode>();
+		ArrayList<Hop> inHops = new ArrayList<Hop>();
+		ArrayList<Hop> interior = new ArrayList<Hop>();
+		CNode out = rConstructCellPlan(croot, croot, memo, inHops, interior);
+		if( out == null || interior.size() < MIN_FUSED_OPS )
+			return null;
+
+		//select main input (sparse-safe if possible) and assign positions
+		Hop main = null;
+		boolean sparseSafe = false;
+		for( Hop in : inHops ) {
+			CNodeData data = (CNodeData) memo.get(in.getHopID());
+			if( data.getInputType() == InputType.MATRIX && rIsSparseSafe(out, data) ) {
+				main = in;
+				sparseSafe = true;
+				break;
+			}
+		}
+		for( int i=0; i<inHops.size() && main==null; i++ )
+			if( ((CNodeData)memo.get(inHops.get(i).getHopID())).getInputType() == InputType.MATRIX )
+				main = inHops.get(i);
+		if( main == null )
+			return null;
+
+		//memory constraints for the control program
+		double mem = OptimizerUtils.estimateSize(croot.getDim1(), croot.getDim2()) //main input
+			+ ((type==CellType.NO_AGG) ? OptimizerUtils.estimateSize(croot.getDim1(), croot.getDim2()) :
+			   (type==CellType.ROW_AGG) ? OptimizerUtils.estimateSize(croot.getDim1(), 1) : 0);
+		for( Hop in : inHops )
+			if( in != main && in.getDataType() == DataType.MATRIX )
+				mem += OptimizerUtils.estimateSize(in.getDim1(), in.getDim2());
+		if( mem > OptimizerUtils.getLocalMemBudget() )
+			return null;
+
+		ArrayList<Hop> inputs = new ArrayList<Hop>();
+		inputs.add(main);
+		((CNodeData)memo.get(main.getHopID())).setInputType(InputType.MAIN);
+		int posMatrix = 0, posScalar = 0;
+		for( Hop in : inHops )
+			if( in != main && in.getDataType() == DataType.MATRIX ) {
+				((CNodeData)memo.get(in.getHopID())).setPosition(posMatrix++);
+				inputs.add(in);
+			}
+		for( Hop in : inHops )
+			if( in.getDataType() == DataType.SCALAR ) {
+				((CNodeData)memo.get(in.getHopID())).setPosition(posScalar++);
+				inputs.add(in);
+			}
+
+		//generate and compile operator class (w/ reuse of existing classes)
+		CNodeCell cplan = new CNodeCell(out, type, sparseSafe);
+		Class<?> cla = null;
+		try {
+			cla = compileCellPlan(cplan);
+		}
+		catch(DMLRuntimeException ex) {
+			LOG.warn("Failed to compile fused operator, fallback to basic operators.", ex);
+			return null;
+		}
+
+		//construct fused operator and cleanup fused operators
+		Hop hnew = new SpoofFusedOp(root.getName(), root.getDataType(),
+			ValueType.DOUBLE, cla, cplan, inputs);
+		if( root.getDataType() == DataType.SCALAR )
+			HopRewriteUtils.setOutputParametersForScalar(hnew);
+		else
+			HopRewriteUtils.setOutputBlocksizes(hnew, root.getRowsInBlock(), root.getColsInBlock());
+		HopRewriteUtils.copyLineNumbers(root, hnew);
+		if( root != croot )
+			HopRewriteUtils.removeAllChildReferences(root);
+		for( Hop h : interior )
+			HopRewriteUtils.removeAllChildReferences(h);
+
+		if( LOG.isDebugEnabled() )
+			LOG.debug("Applied operator fusion: "+root.getOpString()+" ("+type+", "
+				+interior.size()+" ops, sparse-safe="+sparseSafe+") -> "+hnew.getOpString());
+
+		return hnew;
+	}
+
+	/**
+	 *
+	 * @param cplan
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static Class<?> compileCellPlan(CNodeCell cplan)
+		throws DMLRuntimeException
+	{
+		String src = cplan.codegen();
+		Statistics.incrementCodegenPlanCompile(1);
+
+		synchronized( _planCache ) {
+			Class<?> cla = _planCache.get(src);
+			if( cla != null ) {
+				Statistics.incrementCodegenPlanCacheHits();
+				return cla;
+			}
+
+			String name = "TMP" + _classID.getNextID();
+			cla = CodegenUtils.compileClass(name,
+				src.replace(CNodeCell.CLASSNAME_PLACEHOLDER, name));
+			_planCache.put(src, cla);
+			return cla;
+		}
+	}
+
+	/**
+	 *
+	 * @param hop
+	 * @param croot
+	 * @param memo
+	 * @param inHops
+	 * @param interior
+	 * @return cplan node or null if the expression cannot be fused
+	 * @throws HopsException
+	 */
+	private static CNode rConstructCellPlan(Hop hop, Hop croot, HashMap<Long, CNode> memo,
+		ArrayList<Hop> inHops, ArrayList<Hop> interior)
+		throws HopsException
+	{
+		if( memo.containsKey(hop.getHopID()) )
+			return memo.get(hop.getHopID());
+
+		CNode ret = null;
+
+		//fused cell-wise operation (single consumer, same size as root)
+		if( isFusableCellOp(hop) && (hop == croot || (hop.getParent().size() == 1
+			&& hop.getDim1() == croot.getDim1() && hop.getDim2() == croot.getDim2())) )
+		{
+			CNode[] cin = new CNode[hop.getInput().size()];
+			for( int i=0; i<cin.length; i++ ) {
+				cin[i] = rConstructCellPlan(hop.getInput().get(i), croot, memo, inHops, interior);
+				if( cin[i] == null )
+					return null;
+			}
+
+			if( hop instanceof UnaryOp ) {
+				ret = new CNodeUnary(cin[0], getUnaryType(((UnaryOp)hop).getOp()));
+			}
+			else {
+				OpOp2 op = ((BinaryOp)hop).getOp();
+				Hop in2 = hop.getInput().get(1);
+				if( op == OpOp2.POW && in2 instanceof LiteralOp
+					&& HopRewriteUtils.getDoubleValueSafe((LiteralOp)in2) == 2 )
+					ret = new CNodeBinary(cin[0], cin[1], BinType.POW2);
+				else
+					ret = new CNodeBinary(cin[0], cin[1], getBinaryType(op));
+			}
+			interior.add(hop);
+		}
+		//literal inputs
+		else if( hop instanceof LiteralOp ) {
+			ret = new CNodeData(HopRewriteUtils.getDoubleValue((LiteralOp)hop));
+		}
+		//scalar inputs
+		else if( hop.getDataType() == DataType.SCALAR ) {
+			ret = new CNodeData(InputType.SCALAR);
+			inHops.add(hop);
+		}
+		//matrix inputs (matrix, or broadcast row/column vectors)
+		else if( hop.getDataType() == DataType.MATRIX ) {
+			if( hop.getDim1() == croot.getDim1() && hop.getDim2() == croot.getDim2() )
+				ret = new CNodeData(InputType.MATRIX);
+			else if( hop.getDim1() == croot.getDim1() && hop.getDim2() == 1 )
+				ret = new CNodeData(InputType.COL_VECTOR);
+			else if( hop.getDim1() == 1 && hop.getDim2() == croot.getDim2() )
+				ret = new CNodeData(InputType.ROW_VECTOR);
+			else
+				return null;
+			inHops.add(hop);
+		}
+		else {
+			return null;
+		}
+
+		memo.put(hop.getHopID(), ret);
+		return ret;
+	}
+
+	/**
+	 * Indicates if the given expression evaluates to zero whenever the
+	 * given input is zero, i.e., if the expression can be evaluated over
+	 * the non-zero cells of this input.
+	 *
+	 * @param node cplan node
+	 * @param main candidate main input
+	 * @return true if sparse-safe w.r.t. the given input
+	 */
+	private static boolean rIsSparseSafe(CNode node, CNodeData main)
+	{
+		if( node == main )
+			return true;
+
+		if( node instanceof CNodeUnary ) {
+			CNodeUnary unary = (CNodeUnary) node;
+			return unary.getType().isSparseSafe()
+				&& rIsSparseSafe(unary.getInput().get(0), main);
+		}
+		else if( node instanceof CNodeBinary ) {
+			CNodeBinary binary = (CNodeBinary) node;
+			CNode in1 = binary.getInput().get(0);
+			CNode in2 = binary.getInput().get(1);
+			switch( binary.getType() ) {
+				case MULT:
+				case AND:
+					return rIsSparseSafe(in1, main) || rIsSparseSafe(in2, main);
+				case POW2:
+					return rIsSparseSafe(in1, main);
+				case POW:
+					return in2 instanceof CNodeData
+						&& ((CNodeData)in2).getInputType() == InputType.LITERAL
+						&& ((CNodeData)in2).getLiteralValue() > 0
+						&& rIsSparseSafe(in1, main);
+				default:
+					return false;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 *
+	 * @param hop
+	 * @return
+	 */
+	private static boolean isValidCellRoot(Hop hop)
+	{
+		//full or row sum over a fusable cell-wise expression
+		if( hop instanceof AggUnaryOp ) {
+			AggUnaryOp agg = (AggUnaryOp) hop;
+			Hop in = hop.getInput().get(0);
+			return agg.getOp() == AggOp.SUM
+				&& (agg.getDirection() == Direction.RowCol
+				    || agg.getDirection() == Direction.Row)
+				&& isFusableCellOp(in) && in.getParent().size() == 1;
+		}
+
+		//plain cell-wise expression
+		return isFusableCellOp(hop);
+	}
+
+	/**
+	 *
+	 * @param hop
+	 * @return
+	 */
+	private static boolean isFusableCellOp(Hop hop)
+	{
+		if( hop.getDataType() != DataType.MATRIX || !hop.dimsKnown() )
+			return false;
+
+		if( hop instanceof UnaryOp )
+			return getUnaryType(((UnaryOp)hop).getOp()) != null;
+		else if( hop instanceof BinaryOp )
+			return getBinaryType(((BinaryOp)hop).getOp()) != null
+				&& !((BinaryOp)hop).isOuterVectorOperator();
+
+		return false;
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	private static boolean isValidExecutionMode() {
+		return DMLScript.rtplatform == RUNTIME_PLATFORM.SINGLE_NODE
+			|| OptimizerUtils.isHybridExecutionMode();
+	}
+
+	private static UnaryType getUnaryType(OpOp1 op) {
+		switch( op ) {
+			case EXP:     return UnaryType.EXP;
+			case LOG:     return UnaryType.LOG;
+			case ABS:     return UnaryType.ABS;
+			case SQRT:    return UnaryType.SQRT;
+			case ROUND:   return UnaryType.ROUND;
+			case CEIL:    return UnaryType.CEIL;
+			case FLOOR:   return UnaryType.FLOOR;
+			case SIGN:    return UnaryType.SIGN;
+			case SIN:     return UnaryType.SIN;
+			case COS:     return UnaryType.COS;
+			case TAN:     return UnaryType.TAN;
+			case ASIN:    return UnaryType.ASIN;
+			case ACOS:    return UnaryType.ACOS;
+			case ATAN:    return UnaryType.ATAN;
+			case SIGMOID: return UnaryType.SIGMOID;
+			case SPROP:   return UnaryType.SPROP;
+			case SELP:    return UnaryType.SELP;
+			case NOT:     return UnaryType.NOT;
+			default:      return null;
+		}
+	}
+
+	private static BinType getBinaryType(OpOp2 op) {
+		switch( op ) {
+			case PLUS:         return BinType.PLUS;
+			case MINUS:        return BinType.MINUS;
+			case MULT:         return BinType.MULT;
+			case DIV:          return BinType.DIV;
+			case MIN:          return BinType.MIN;
+			case MAX:          return BinType.MAX;
+			case POW:          return BinType.POW;
+			case LESS:         return BinType.LESS;
+			case LESSEQUAL:    return BinType.LESSEQUAL;
+			case GREATER:      return BinType.GREATER;
+			case GREATEREQUAL: return BinType.GREATEREQUAL;
+			case EQUAL:        return BinType.EQUAL;
+			case NOTEQUAL:     return BinType.NOTEQUAL;
+			case AND:          return BinType.AND;
+			case OR:           return BinType.OR;
+			default:           return null;
+		}
+	}
+}
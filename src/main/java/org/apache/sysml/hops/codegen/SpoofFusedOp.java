@@ -0,0 +1,326 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.hops.codegen;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import org.apache.sysml.hops.BinaryOp;
+import org.apache.sysml.hops.Hop;
+import org.apache.sysml.hops.HopsException;
+import org.apache.sysml.hops.LiteralOp;
+import org.apache.sysml.hops.MemoTable;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.hops.Hop.MultiThreadedHop;
+import org.apache.sysml.hops.codegen.cplan.CNode;
+import org.apache.sysml.hops.codegen.cplan.CNodeBinary;
+import org.apache.sysml.hops.codegen.cplan.CNodeBinary.BinType;
+import org.apache.sysml.hops.codegen.cplan.CNodeCell;
+import org.apache.sysml.hops.codegen.cplan.CNodeData;
+import org.apache.sysml.hops.codegen.cplan.CNodeUnary;
+import org.apache.sysml.hops.rewrite.HopRewriteUtils;
+import org.apache.sysml.lops.Lop;
+import org.apache.sysml.lops.LopsException;
+import org.apache.sysml.lops.SpoofFused;
+import org.apache.sysml.lops.LopProperties.ExecType;
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.codegen.SpoofCellwise.CellType;
+
+/**
+ * Hop of a fused operator, whose implementation is a class generated and
+ * compiled by the SpoofCompiler. The first input is the main input; the
+ * output size is derived from the main input and the cell type. Generated
+ * operators only exist for the control program; if the operator is forced 
+ * to or does not fit into the control program (e.g., on recompilation with 
+ * larger sizes), lops are constructed from the equivalent basic operators, 
+ * obtained from the retained cplan.
+ */
+public class SpoofFusedOp extends Hop implements MultiThreadedHop
+{
+	private Class<?> _class = null;
+	private CellType _type = null;
+	private CNodeCell _cplan = null;
+	private int _numThreads = -1;
+
+	public SpoofFusedOp() {
+		//default constructor for clone
+	}
+
+	public SpoofFusedOp(String name, DataType dt, ValueType vt, Class<?> cla, CNodeCell cplan, ArrayList<Hop> inputs) {
+		super(name, dt, vt);
+		_class = cla;
+		_type = cplan.getCellType();
+		_cplan = cplan;
+		for( Hop in : inputs ) {
+			getInput().add(in);
+			in.getParent().add(this);
+		}
+
+		//compute unknown dims and nnz
+		refreshSizeInformation();
+	}
+
+	public Class<?> getGeneratedClass() {
+		return _class;
+	}
+
+	public CellType getCellType() {
+		return _type;
+	}
+	
+	public CNodeCell getCPlan() {
+		return _cplan;
+	}
+
+	@Override
+	public void setMaxNumThreads(int k) {
+		_numThreads = k;
+	}
+
+	@Override
+	public int getMaxNumThreads() {
+		return _numThreads;
+	}
+
+	@Override
+	public boolean allowsAllExecTypes() {
+		return false;
+	}
+
+	@Override
+	protected double computeOutputMemEstimate(long dim1, long dim2, long nnz) {
+		double sparsity = OptimizerUtils.getSparsity(dim1, dim2, nnz);
+		return OptimizerUtils.estimateSizeExactSparsity(dim1, dim2, sparsity);
+	}
+
+	@Override
+	protected double computeIntermediateMemEstimate(long dim1, long dim2, long nnz) {
+		//sparse side inputs are converted to dense arrays
+		double ret = 0;
+		for( int i=1; i<getInput().size(); i++ ) {
+			Hop in = getInput().get(i);
+			if( in.getDataType() == DataType.MATRIX && in.getNnz() != in.getDim1()*in.getDim2() )
+				ret += OptimizerUtils.estimateSize(in.getDim1(), in.getDim2());
+		}
+		return ret;
+	}
+
+	@Override
+	protected long[] inferOutputCharacteristics(MemoTable memo) {
+		//output sizes are always known at construction
+		return null;
+	}
+
+	@Override
+	public Lop constructLops()
+		throws HopsException, LopsException
+	{
+		//return already created lops
+		if( getLops() != null )
+			return getLops();
+
+		ExecType et = optFindExecType();
+		
+		//fallback to basic operators for non-CP execution types
+		if( et != ExecType.CP ) {
+			ArrayList<Hop> tmp = new ArrayList<Hop>();
+			Hop basic = constructBasicOperators(tmp);
+			Lop lop = basic.constructLops();
+			//remove temporary operators from the parents of the inputs
+			for( Hop h : tmp )
+				HopRewriteUtils.removeAllChildReferences(h);
+			setLops(lop);
+			return lop;
+		}
+
+		ArrayList<Lop> inputs = new ArrayList<Lop>();
+		for( Hop c : getInput() )
+			inputs.add(c.constructLops());
+
+		int k = OptimizerUtils.getConstrainedNumThreads(_numThreads);
+		SpoofFused lop = new SpoofFused(inputs, getDataType(), getValueType(), _class, et, k);
+		setOutputDimensions(lop);
+		setLineNumbers(lop);
+		setLops(lop);
+
+		//add reblock/checkpoint lops if necessary
+		constructAndSetLopsDataFlowProperties();
+
+		return lop;
+	}
+
+	@Override
+	protected ExecType optFindExecType() throws HopsException {
+		checkAndSetForcedPlatform();
+		
+		if( _etypeForced != null ) {
+			_etype = _etypeForced;
+		}
+		else {
+			//fused operators are only created if they fit into the local memory
+			//budget, hence we use CP if memory estimates are not available
+			_etype = OptimizerUtils.isMemoryBasedOptLevel() ?
+				findExecTypeByMemEstimate() : ExecType.CP;
+			checkAndSetInvalidCPDimsAndSize();
+		}
+		
+		return _etype;
+	}
+	
+	/**
+	 * Constructs the DAG of basic operators that is equivalent to the cplan
+	 * of this fused operator, over the inputs of this fused operator. 
+	 * 
+	 * @param tmp list to collect all created (temporary) operators
+	 * @return root of the basic operators
+	 * @throws HopsException if the construction fails
+	 */
+	private Hop constructBasicOperators(ArrayList<Hop> tmp) 
+		throws HopsException
+	{
+		HashMap<CNode, Hop> memo = new HashMap<CNode, Hop>();
+		Hop out = rConstructBasicOperators(_cplan.getOutput(), memo, tmp);
+		if( _type != CellType.NO_AGG ) {
+			out = (_type == CellType.ROW_AGG) ? 
+				HopRewriteUtils.createAggUnaryOp(out, AggOp.SUM, Direction.Row) :
+				HopRewriteUtils.createSum(out);
+			tmp.add(out);
+		}
+		
+		//set line numbers, parallelism, and memory estimates (bottom-up)
+		for( Hop h : tmp ) {
+			HopRewriteUtils.copyLineNumbers(this, h);
+			if( h instanceof MultiThreadedHop )
+				((MultiThreadedHop)h).setMaxNumThreads(_numThreads);
+			h.computeMemEstimate(new MemoTable());
+		}
+		
+		return out;
+	}
+	
+	private Hop rConstructBasicOperators(CNode node, HashMap<CNode, Hop> memo, ArrayList<Hop> tmp) 
+		throws HopsException
+	{
+		if( memo.containsKey(node) )
+			return memo.get(node);
+		
+		Hop ret = null;
+		if( node instanceof CNodeData ) {
+			CNodeData data = (CNodeData) node;
+			switch( data.getInputType() ) {
+				case MAIN:
+					ret = getInput().get(0); break;
+				case MATRIX:
+				case COL_VECTOR:
+				case ROW_VECTOR:
+					ret = getInput().get(1 + data.getPosition()); break;
+				case SCALAR:
+					ret = getInput().get(1 + getNumMatrixSideInputs() + data.getPosition()); break;
+				case LITERAL:
+					ret = new LiteralOp(data.getLiteralValue()); break;
+			}
+		}
+		else if( node instanceof CNodeUnary ) {
+			//note: unary types are named after the corresponding hop types
+			Hop in = rConstructBasicOperators(node.getInput().get(0), memo, tmp);
+			ret = HopRewriteUtils.createUnary(in, OpOp1.valueOf(((CNodeUnary)node).getType().name()));
+			tmp.add(ret);
+		}
+		else if( node instanceof CNodeBinary ) {
+			//note: binary types are named after the corresponding hop types
+			BinType type = ((CNodeBinary)node).getType();
+			Hop in1 = rConstructBasicOperators(node.getInput().get(0), memo, tmp);
+			Hop in2 = (type == BinType.POW2) ? new LiteralOp(2) :
+				rConstructBasicOperators(node.getInput().get(1), memo, tmp);
+			OpOp2 op = (type == BinType.POW2) ? OpOp2.POW : OpOp2.valueOf(type.name());
+			ret = new BinaryOp(getName(), DataType.MATRIX, ValueType.DOUBLE, op, in1, in2);
+			HopRewriteUtils.setOutputBlocksizes(ret, getRowsInBlock(), getColsInBlock());
+			ret.refreshSizeInformation();
+			tmp.add(ret);
+		}
+		else {
+			throw new HopsException("Unsupported cplan node: "+node);
+		}
+		
+		memo.put(node, ret);
+		return ret;
+	}
+	
+	private int getNumMatrixSideInputs() {
+		int ret = 0;
+		for( int i=1; i<getInput().size(); i++ )
+			ret += (getInput().get(i).getDataType() == DataType.MATRIX) ? 1 : 0;
+		return ret;
+	}
+
+	@Override
+	public String getOpString() {
+		return "spoof(" + _class.getSimpleName() + ")";
+	}
+
+	@Override
+	public void refreshSizeInformation()
+	{
+		if( getDataType() == DataType.SCALAR )
+			return; //always known
+
+		Hop in = getInput().get(0);
+		setDim1( in.getDim1() );
+		setDim2( (_type == CellType.ROW_AGG) ? 1 : in.getDim2() );
+	}
+
+	@Override
+	public Object clone() throws CloneNotSupportedException
+	{
+		SpoofFusedOp ret = new SpoofFusedOp();
+
+		//copy generic attributes
+		ret.clone(this, false);
+
+		//copy specific attributes
+		ret._class = _class;
+		ret._type = _type;
+		ret._cplan = _cplan;
+		ret._numThreads = _numThreads;
+
+		return ret;
+	}
+
+	@Override
+	public boolean compare(Hop that)
+	{
+		if( !(that instanceof SpoofFusedOp) )
+			return false;
+
+		SpoofFusedOp that2 = (SpoofFusedOp)that;
+		boolean ret = ( _class == that2._class
+				&& _type == that2._type
+				&& _numThreads == that2._numThreads
+				&& getInput().size() == that2.getInput().size());
+
+		if( ret ) {
+			for( int i=0; i<getInput().size(); i++ )
+				ret &= (getInput().get(i) == that2.getInput().get(i));
+		}
+
+		return ret;
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.hops.codegen.cplan;
+
+import java.util.ArrayList;
+
+import org.apache.sysml.runtime.controlprogram.parfor.util.IDSequence;
+
+/**
+ * Base class of all nodes of a code generation plan (cplan), which is a
+ * DAG of scalar expressions that is compiled into a single fused operator.
+ */
+public abstract class CNode
+{
+	protected ArrayList<CNode> _inputs = null;
+	protected String _genVar = null;
+	protected boolean _generated = false;
+
+	protected CNode() {
+		_inputs = new ArrayList<CNode>();
+	}
+
+	public ArrayList<CNode> getInput() {
+		return _inputs;
+	}
+
+	/**
+	 * Gets the variable name or expression that holds the result
+	 * of this node in the generated code (valid after codegen).
+	 *
+	 * @return variable name
+	 */
+	public String getVarname() {
+		return _genVar;
+	}
+
+	public boolean isGenerated() {
+		return _generated;
+	}
+
+	/**
+	 * Resets the generated flags of this node and all its inputs,
+	 * which allows generating code for the same plan again.
+	 */
+	public void resetGenerated() {
+		//note: no early abort on !_generated because inputs might have 
+		//been generated by other (e.g., shared) parents or previous plans
+		for( CNode c : _inputs )
+			c.resetGenerated();
+		_generated = false;
+	}
+
+	/**
+	 * Generates the code of this node and all its not yet generated inputs.
+	 * Variable names are obtained from the given sequence, which makes the
+	 * generated code deterministic for structurally equivalent plans.
+	 *
+	 * @param seq sequence of variable ids
+	 * @return generated code
+	 */
+	public abstract String codegen(IDSequence seq);
+
+	/**
+	 * Creates the signature of this node for debugging and explain output.
+	 *
+	 * @return signature
+	 */
+	public abstract String toString();
+
+	protected String createVarname(IDSequence seq) {
+		return "TMP" + seq.getNextID();
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.hops.codegen.cplan;
+
+import org.apache.sysml.runtime.controlprogram.parfor.util.IDSequence;
+
+/**
+ * Scalar binary operation of a cplan. The templates follow the semantics
+ * of the corresponding value function objects.
+ */
+public class CNodeBinary extends CNode
+{
+	public enum BinType {
+		PLUS, MINUS, MULT, DIV, MIN, MAX, POW, POW2,
+		LESS, LESSEQUAL, GREATER, GREATEREQUAL, EQUAL, NOTEQUAL,
+		AND, OR;
+
+		public String getTemplate() {
+			switch( this ) {
+				case PLUS:         return "%IN1% + %IN2%";
+				case MINUS:        return "%IN1% - %IN2%";
+				case MULT:         return "%IN1% * %IN2%";
+				case DIV:          return "%IN1% / %IN2%";
+				case MIN:          return "(%IN1% <= %IN2%) ? %IN1% : %IN2%";
+				case MAX:          return "(%IN1% >= %IN2%) ? %IN1% : %IN2%";
+				case POW:          return "Math.pow(%IN1%, %IN2%)";
+				case POW2:         return "%IN1% * %IN1%";
+				case LESS:         return "(%IN1% < %IN2%) ? 1 : 0";
+				case LESSEQUAL:    return "(%IN1% <= %IN2%) ? 1 : 0";
+				case GREATER:      return "(%IN1% > %IN2%) ? 1 : 0";
+				case GREATEREQUAL: return "(%IN1% >= %IN2%) ? 1 : 0";
+				case EQUAL:        return "(%IN1% == %IN2%) ? 1 : 0";
+				case NOTEQUAL:     return "(%IN1% != %IN2%) ? 1 : 0";
+				case AND:          return "(%IN1% != 0 && %IN2% != 0) ? 1 : 0";
+				case OR:           return "(%IN1% != 0 || %IN2% != 0) ? 1 : 0";
+				default:
+					throw new RuntimeException("Unsupported binary type: "+this);
+			}
+		}
+	}
+
+	private final BinType _type;
+
+	public CNodeBinary(CNode in1, CNode in2, BinType type) {
+		_inputs.add(in1);
+		_inputs.add(in2);
+		_type = type;
+	}
+
+	public BinType getType() {
+		return _type;
+	}
+
+	@Override
+	public String codegen(IDSequence seq) {
+		if( _generated )
+			return "";
+
+		StringBuilder sb = new StringBuilder();
+		sb.append(_inputs.get(0).codegen(seq));
+		sb.append(_inputs.get(1).codegen(seq));
+
+		//generate binary operation
+		_genVar = createVarname(seq);
+		String expr = _type.getTemplate()
+			.replace("%IN1%", _inputs.get(0).getVarname())
+			.replace("%IN2%", _inputs.get(1).getVarname());
+		sb.append("    double "+_genVar+" = "+expr+";\n");
+
+		_generated = true;
+		return sb.toString();
+	}
+
+	@Override
+	public String toString() {
+		return "b(" + _type.name().toLowerCase() + ")";
+	}
+}
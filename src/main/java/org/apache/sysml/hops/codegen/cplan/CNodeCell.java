@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.hops.codegen.cplan;
+
+import org.apache.sysml.runtime.codegen.CodegenUtils;
+import org.apache.sysml.runtime.codegen.SpoofCellwise.CellType;
+import org.apache.sysml.runtime.controlprogram.parfor.util.IDSequence;
+
+/**
+ * Root of a cell-wise cplan, which generates a subclass of SpoofCellwise
+ * whose per-cell expression is given by the output node.
+ */
+public class CNodeCell extends CNode
+{
+	//placeholder of the class name in the generated source
+	public static final String CLASSNAME_PLACEHOLDER = "%TMP%";
+
+	private static final String TEMPLATE =
+		  "package " + CodegenUtils.PACKAGE_NAME + ";\n"
+		+ "\n"
+		+ "import org.apache.commons.math3.util.FastMath;\n"
+		+ "import org.apache.sysml.runtime.codegen.SpoofCellwise;\n"
+		+ "import org.apache.sysml.runtime.codegen.SpoofCellwise.CellType;\n"
+		+ "\n"
+		+ "public final class " + CLASSNAME_PLACEHOLDER + " extends SpoofCellwise {\n"
+		+ "  private static final long serialVersionUID = 1L;\n"
+		+ "\n"
+		+ "  public " + CLASSNAME_PLACEHOLDER + "() {\n"
+		+ "    super(CellType.%TYPE%, %SPARSE_SAFE%);\n"
+		+ "  }\n"
+		+ "\n"
+		+ "  @Override\n"
+		+ "  protected double genexec(double a, double[][] b, double[] scalars, int n, int rix, int cix) {\n"
+		+ "%BODY%"
+		+ "    return %OUT%;\n"
+		+ "  }\n"
+		+ "}\n";
+
+	private final CellType _type;
+	private final boolean _sparseSafe;
+
+	public CNodeCell(CNode output, CellType type, boolean sparseSafe) {
+		_inputs.add(output);
+		_type = type;
+		_sparseSafe = sparseSafe;
+	}
+
+	public CNode getOutput() {
+		return _inputs.get(0);
+	}
+
+	public CellType getCellType() {
+		return _type;
+	}
+
+	public boolean isSparseSafe() {
+		return _sparseSafe;
+	}
+
+	/**
+	 * Generates the source code of the fused operator class with the
+	 * class name placeholder, i.e., the result is the signature of the
+	 * plan and can be used as key for reusing compiled classes.
+	 *
+	 * @return generated source code
+	 */
+	public String codegen() {
+		return codegen(new IDSequence());
+	}
+
+	@Override
+	public String codegen(IDSequence seq) {
+		//generate the expression body (deterministic variable names)
+		resetGenerated();
+		String body = getOutput().codegen(seq);
+		_generated = true;
+
+		//fill in the class template
+		String src = TEMPLATE;
+		src = src.replace("%TYPE%", _type.name());
+		src = src.replace("%SPARSE_SAFE%", String.valueOf(_sparseSafe));
+		src = src.replace("%BODY%", body);
+		src = src.replace("%OUT%", getOutput().getVarname());
+		return src;
+	}
+
+	@Override
+	public String toString() {
+		return "cell(" + _type + "," + _sparseSafe + ")";
+	}
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.hops.codegen.cplan;
+
+import org.apache.sysml.runtime.controlprogram.parfor.util.IDSequence;
+
+/**
+ * Leaf node of a cplan, which refers to an input of the fused operator:
+ * the main input (streamed cell by cell), a dense side input (matrix, row
+ * or column vector), a scalar input, or a literal that is inlined into
+ * the generated code.
+ */
+public class CNodeData extends CNode
+{
+	public enum InputType {
+		MAIN,
+		MATRIX,
+		COL_VECTOR,
+		ROW_VECTOR,
+		SCALAR,
+		LITERAL;
+
+		public boolean isMatrix() {
+			return this != SCALAR && this != LITERAL;
+		}
+	}
+
+	private InputType _type = null;
+	private int _pos = -1;
+	private final String _literal;
+	private final double _value;
+
+	/**
+	 * Creates a matrix or scalar input, whose position within the side
+	 * inputs or scalars is assigned once the main input is known.
+	 *
+	 * @param type input type
+	 */
+	public CNodeData(InputType type) {
+		_type = type;
+		_literal = null;
+		_value = Double.NaN;
+	}
+
+	/**
+	 * Creates a literal input.
+	 *
+	 * @param value literal value
+	 */
+	public CNodeData(double value) {
+		_type = InputType.LITERAL;
+		_literal = getLiteralString(value);
+		_value = value;
+	}
+
+	public InputType getInputType() {
+		return _type;
+	}
+
+	public void setInputType(InputType type) {
+		_type = type;
+	}
+
+	public double getLiteralValue() {
+		return _value;
+	}
+
+	public int getPosition() {
+		return _pos;
+	}
+
+	public void setPosition(int pos) {
+		_pos = pos;
+	}
+
+	@Override
+	public String codegen(IDSequence seq) {
+		if( !_generated ) {
+			switch( _type ) {
+				case MAIN:       _genVar = "a"; break;
+				case MATRIX:     _genVar = "b["+_pos+"][rix*n+cix]"; break;
+				case COL_VECTOR: _genVar = "b["+_pos+"][rix]"; break;
+				case ROW_VECTOR: _genVar = "b["+_pos+"][cix]"; break;
+				case SCALAR:     _genVar = "scalars["+_pos+"]"; break;
+				case LITERAL:    _genVar = _literal; break;
+			}
+			_generated = true;
+		}
+		//no code, the variable name is the access expression
+		return "";
+	}
+
+	@Override
+	public String toString() {
+		return "data(" + _type + ((_type==InputType.LITERAL) ? ","+_literal : ","+_pos) + ")";
+	}
+
+	/**
+	 *
+	 * @param value
+	 * @return
+	 */
+	private static String getLiteralString(double value) {
+		if( Double.isNaN(value) )
+			return "Double.NaN";
+		else if( Double.isInfinite(value) )
+			return (value > 0) ? "Double.POSITIVE_INFINITY" : "Double.NEGATIVE_INFINITY";
+		else
+			return "(" + Double.toString(value) + ")";
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.hops.codegen.cplan;
+
+import org.apache.sysml.runtime.controlprogram.parfor.util.IDSequence;
+
+/**
+ * Scalar unary operation of a cplan. The templates follow the semantics
+ * of the corresponding builtin function objects.
+ */
+public class CNodeUnary extends CNode
+{
+	public enum UnaryType {
+		EXP, LOG, ABS, SQRT, ROUND, CEIL, FLOOR, SIGN,
+		SIN, COS, TAN, ASIN, ACOS, ATAN,
+		SIGMOID, SPROP, SELP, NOT;
+
+		public String getTemplate() {
+			switch( this ) {
+				case EXP:     return "FastMath.exp(%IN1%)";
+				case LOG:     return "FastMath.log(%IN1%)";
+				case ABS:     return "Math.abs(%IN1%)";
+				case SQRT:    return "Math.sqrt(%IN1%)";
+				case ROUND:   return "Math.round(%IN1%)";
+				case CEIL:    return "FastMath.ceil(%IN1%)";
+				case FLOOR:   return "FastMath.floor(%IN1%)";
+				case SIGN:    return "FastMath.signum(%IN1%)";
+				case SIN:     return "FastMath.sin(%IN1%)";
+				case COS:     return "FastMath.cos(%IN1%)";
+				case TAN:     return "FastMath.tan(%IN1%)";
+				case ASIN:    return "FastMath.asin(%IN1%)";
+				case ACOS:    return "FastMath.acos(%IN1%)";
+				case ATAN:    return "Math.atan(%IN1%)";
+				case SIGMOID: return "1 / (1 + FastMath.exp(-%IN1%))";
+				case SPROP:   return "%IN1% * (1 - %IN1%)";
+				case SELP:    return "(%IN1% > 0) ? %IN1% : 0";
+				case NOT:     return "(%IN1% == 0) ? 1 : 0";
+				default:
+					throw new RuntimeException("Unsupported unary type: "+this);
+			}
+		}
+
+		/**
+		 * Indicates if the operation maps zero to zero.
+		 *
+		 * @return true if sparse-safe
+		 */
+		public boolean isSparseSafe() {
+			return this==ABS || this==SQRT || this==ROUND || this==CEIL || this==FLOOR
+				|| this==SIGN || this==SIN || this==TAN || this==ASIN || this==ATAN
+				|| this==SPROP || this==SELP;
+		}
+	}
+
+	private final UnaryType _type;
+
+	public CNodeUnary(CNode in1, UnaryType type) {
+		_inputs.add(in1);
+		_type = type;
+	}
+
+	public UnaryType getType() {
+		return _type;
+	}
+
+	@Override
+	public String codegen(IDSequence seq) {
+		if( _generated )
+			return "";
+
+		StringBuilder sb = new StringBuilder();
+		sb.append(_inputs.get(0).codegen(seq));
+
+		//generate unary operation
+		_genVar = createVarname(seq);
+		String expr = _type.getTemplate().replace("%IN1%", _inputs.get(0).getVarname());
+		sb.append("    double "+_genVar+" = "+expr+";\n");
+
+		_generated = true;
+		return sb.toString();
+	}
+
+	@Override
+	public String toString() {
+		return "u(" + _type.name().toLowerCase() + ")";
+	}
+}
@@ -1162,6 +1162,11 @@ public class CostEstimatorStaticRuntime extends CostEstimator
 					}					
 					return 0;
 				
+				case SpoofFused: //opcodes: spoof
+					//single pass over the main input, constant per-cell costs
+					//(the number of fused operations is unknown here)
+					return 2 * d1m * d1n * (leftSparse ? d1s : 1);
+				
 				case Partition:
 					return d1m * d1n * d1s + //partitioning costs
 						   (inMR ? 0 : //include write cost if in CP  	
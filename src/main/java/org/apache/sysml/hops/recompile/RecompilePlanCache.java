@@ -0,0 +1,310 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.hops.recompile;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.hops.AggUnaryOp;
+import org.apache.sysml.hops.BinaryOp;
+import org.apache.sysml.hops.DataOp;
+import org.apache.sysml.hops.Hop;
+import org.apache.sysml.hops.Hop.DataOpTypes;
+import org.apache.sysml.hops.Hop.MultiThreadedHop;
+import org.apache.sysml.hops.Hop.OpOp1;
+import org.apache.sysml.hops.IndexingOp;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.hops.UnaryOp;
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.runtime.controlprogram.LocalVariableMap;
+import org.apache.sysml.runtime.controlprogram.caching.CacheableData;
+import org.apache.sysml.runtime.instructions.Instruction;
+import org.apache.sysml.runtime.instructions.cp.Data;
+import org.apache.sysml.runtime.instructions.cp.ScalarObject;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+
+/**
+ * Cache of recompiled instruction lists of a single statement block. 
+ * 
+ * Dynamic recompilation of a hop DAG is deterministic with regard to the 
+ * values of scalar inputs, the size information of matrix/frame inputs, 
+ * and the memory budget. Hence, a block that is recompiled in every iteration 
+ * of a loop with unchanged (or only slightly changed) input characteristics
+ * can reuse a previously generated plan. The plans are keyed by a signature 
+ * of these inputs, where the number of non-zeros is rounded to sparsity 
+ * buckets, and the cache keeps the most recently used plans only. The 
+ * signature further includes the hop-level configurations that affect the
+ * generated plans (forced execution types and degrees of parallelism, e.g., 
+ * set by the parfor optimizer), and the thread-local configuration of 
+ * parallel matrix operations.
+ * 
+ * Scalar inputs that are only consumed at runtime (by scalar operations, 
+ * matrix-scalar operations, and transient writes) are excluded from the 
+ * signature, and thus, not replaced by literals for cacheable plans. This 
+ * allows reuse across loop iterations with changing scalars (e.g., loop 
+ * counters or step sizes), while scalars that might affect sizes or plan 
+ * choices (e.g., dimensions of data generation, indexing ranges) are part 
+ * of the signature and replaced by literals.
+ * 
+ * Hop DAGs whose plans depend on the contents of small matrices (via literal 
+ * replacement) or on file metadata of persistent reads with unknown size, 
+ * are not cacheable.
+ */
+public class RecompilePlanCache 
+{
+	//maximum number of cached plans per statement block
+	public static final int MAX_CACHED_PLANS = 4;
+	
+	//number of sparsity buckets for the nnz signature
+	private static final int SPARSITY_BUCKETS = 100;
+	
+	private final LinkedHashMap<String, ArrayList<Instruction>> _plans;
+	
+	//lazily collected inputs of the hop dag (transient reads)
+	private ArrayList<InputVar> _inputs = null;
+	private boolean _cacheable = true;
+	
+	public RecompilePlanCache() {
+		_plans = new LinkedHashMap<String, ArrayList<Instruction>>(MAX_CACHED_PLANS, 0.75f, true) {
+			private static final long serialVersionUID = -3496285377421906512L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, ArrayList<Instruction>> eldest) {
+				return size() > MAX_CACHED_PLANS;
+			}
+		};
+	}
+	
+	/**
+	 * Creates the signature of the given hop dag for the current variables,
+	 * or null if the plan of this hop dag is not cacheable. 
+	 * 
+	 * @param hops hop dag roots of the statement block
+	 * @param vars current variables
+	 * @return signature or null
+	 */
+	public synchronized String getSignature(ArrayList<Hop> hops, LocalVariableMap vars) 
+	{
+		//collect inputs on first use 
+		if( _inputs == null ) {
+			_inputs = new ArrayList<InputVar>();
+			HashSet<Long> memo = new HashSet<Long>();
+			for( Hop hopRoot : hops )
+				rCollectInputs(hopRoot, memo);
+		}
+		if( !_cacheable )
+			return null;
+		
+		StringBuilder sb = new StringBuilder();
+		sb.append(DMLScript.rtplatform);
+		sb.append('|');
+		sb.append(OptimizerUtils.getLocalMemBudget());
+		sb.append('|');
+		sb.append(ConfigurationManager.isParallelMatrixOperations());
+		
+		//hop-level configurations (forced exec types, num threads)
+		HashSet<Long> memo = new HashSet<Long>();
+		for( Hop hopRoot : hops )
+			rAppendHopConfig(hopRoot, memo, sb);
+		
+		for( InputVar in : _inputs ) {
+			sb.append('|');
+			sb.append(in.name);
+			sb.append('=');
+			Data dat = vars.get(in.name);
+			if( dat == null ) {
+				sb.append("null");
+			}
+			else if( dat instanceof ScalarObject ) {
+				sb.append(dat.getValueType());
+				//scalar values that might affect the generated plan
+				if( in.content ) {
+					sb.append(':');
+					sb.append(((ScalarObject)dat).getStringValue());
+				}
+			}
+			else if( dat instanceof CacheableData<?> ) {
+				MatrixCharacteristics mc = ((CacheableData<?>)dat).getMatrixCharacteristics();
+				//matrix contents of small matrices are used for literal replacement
+				if( in.content && mc.getRows()*mc.getCols() < LiteralReplacement.REPLACE_LITERALS_MAX_MATRIX_SIZE )
+					return null;
+				sb.append(dat.getDataType());
+				sb.append(':');
+				sb.append(mc.getRows());
+				sb.append(',');
+				sb.append(mc.getCols());
+				sb.append(',');
+				sb.append(mc.getRowsPerBlock());
+				sb.append(',');
+				sb.append(mc.getColsPerBlock());
+				sb.append(',');
+				sb.append(getSparsityBucket(mc));
+			}
+			else {
+				sb.append(dat.getDataType());
+			}
+		}
+		
+		return sb.toString();
+	}
+	
+	/**
+	 * Obtains the variables for literal replacement of cacheable plans, 
+	 * which excludes scalar inputs that are not part of the signature.
+	 * This method requires a prior call to getSignature.
+	 * 
+	 * @param vars current variables
+	 * @return variables for literal replacement
+	 */
+	public synchronized LocalVariableMap getLiteralReplacementVars(LocalVariableMap vars) 
+	{
+		LocalVariableMap ret = new LocalVariableMap(vars);
+		for( InputVar in : _inputs )
+			if( !in.content && vars.get(in.name) instanceof ScalarObject )
+				ret.remove(in.name);
+		return ret;
+	}
+	
+	public synchronized ArrayList<Instruction> get(String signature) {
+		return _plans.get(signature);
+	}
+	
+	public synchronized void put(String signature, ArrayList<Instruction> inst) {
+		_plans.put(signature, inst);
+	}
+	
+	public synchronized int size() {
+		return _plans.size();
+	}
+	
+	/**
+	 * Removes all cached plans, which is required whenever the underlying
+	 * hop dag is modified (e.g., on inplace recompilation).
+	 */
+	public synchronized void clear() {
+		_plans.clear();
+		_inputs = null;
+		_cacheable = true;
+	}
+	
+	private void rCollectInputs(Hop hop, HashSet<Long> memo)
+	{
+		if( memo.contains(hop.getHopID()) )
+			return;
+		
+		if( hop instanceof DataOp ) {
+			DataOp dop = (DataOp) hop;
+			if( dop.getDataOpType() == DataOpTypes.TRANSIENTREAD ) {
+				_inputs.add(new InputVar(dop.getName(), 
+					(dop.getDataType()==DataType.MATRIX && isContentDependent(dop))
+					|| (dop.getDataType()==DataType.SCALAR && isValueDependent(dop))));
+			}
+			else if( dop.getDataOpType() == DataOpTypes.PERSISTENTREAD 
+				&& (hop.getDim1() <= 0 || hop.getDim2() <= 0) ) {
+				//size obtained from file metadata during recompile
+				_cacheable = false;
+			}
+		}
+		
+		for( Hop in : hop.getInput() )
+			rCollectInputs(in, memo);
+		memo.add(hop.getHopID());
+	}
+	
+	private static void rAppendHopConfig(Hop hop, HashSet<Long> memo, StringBuilder sb)
+	{
+		if( memo.contains(hop.getHopID()) )
+			return;
+		
+		//append configurations that deviate from the defaults
+		if( hop.getForcedExecType() != null || hop instanceof MultiThreadedHop ) {
+			sb.append('|');
+			sb.append(hop.getHopID());
+			sb.append(':');
+			sb.append(hop.getForcedExecType());
+			if( hop instanceof MultiThreadedHop ) {
+				sb.append(',');
+				sb.append(((MultiThreadedHop)hop).getMaxNumThreads());
+			}
+		}
+		
+		for( Hop in : hop.getInput() )
+			rAppendHopConfig(in, memo, sb);
+		memo.add(hop.getHopID());
+	}
+	
+	private static boolean isContentDependent(Hop hop) 
+	{
+		//conservative check for the literal replacement patterns of
+		//cast_as_scalar, full aggregates, and (aggregated) right indexing
+		for( Hop p : hop.getParent() ) {
+			if( (p instanceof UnaryOp && ((UnaryOp)p).getOp()==OpOp1.CAST_AS_SCALAR)
+				|| p instanceof AggUnaryOp || p instanceof IndexingOp )
+				return true;
+		}
+		return false;
+	}
+	
+	private static boolean isValueDependent(Hop hop) 
+	{
+		//conservative check for scalars whose values might affect the plan 
+		//via literal replacement (e.g., sizes of data generation, indexing 
+		//ranges, reshape), where values consumed by (chains of) scalar ops,
+		//matrix-scalar operations, and transient writes are runtime operands
+		for( Hop p : hop.getParent() ) {
+			if( p.getDataType() == DataType.SCALAR ) {
+				if( p instanceof DataOp ) {
+					if( ((DataOp)p).getDataOpType() != DataOpTypes.TRANSIENTWRITE )
+						return true;
+				}
+				else if( !(p instanceof BinaryOp || p instanceof UnaryOp) 
+					|| isValueDependent(p) )
+					return true;
+			}
+			else if( !(p instanceof BinaryOp) )
+				return true;
+		}
+		return false;
+	}
+	
+	private static long getSparsityBucket(MatrixCharacteristics mc) 
+	{
+		//keep unknown and empty as is, distinguish fully dense
+		long nnz = mc.getNonZeros();
+		if( nnz <= 0 || !mc.dimsKnown() )
+			return nnz;
+		double sp = OptimizerUtils.getSparsity(mc.getRows(), mc.getCols(), nnz);
+		return 1 + (long)Math.floor(sp * SPARSITY_BUCKETS);
+	}
+	
+	private static class InputVar
+	{
+		private final String name;
+		private final boolean content; //matrix contents or scalar values used
+		
+		public InputVar(String vname, boolean content) {
+			this.name = vname;
+			this.content = content;
+		}
+	}
+}
@@ -103,6 +103,7 @@ import org.apache.sysml.runtime.util.MapReduceTool;
 import org.apache.sysml.utils.Explain;
 import org.apache.sysml.utils.Explain.ExplainType;
 import org.apache.sysml.utils.JSONHelper;
+import org.apache.sysml.utils.Statistics;
 
 /**
  * Dynamic recompilation of hop dags to runtime instructions, which includes the 
@@ -159,6 +160,7 @@ public class Recompiler
 		throws DMLRuntimeException, HopsException, LopsException, IOException
 	{
 		ArrayList<Instruction> newInst = null;
+		boolean cached = false;
 
 		//need for synchronization as we do temp changes in shared hops/lops
 		//however, we create deep copies for most dags to allow for concurrent recompile
@@ -167,62 +169,102 @@ public class Recompiler
 			LOG.debug ("\n**************** Optimizer (Recompile) *************\nMemory Budget = " + 
 					   OptimizerUtils.toMB(OptimizerUtils.getLocalMemBudget()) + " MB");
 	
-			// prepare hops dag for recompile
-			if( !inplace ){ 
-				// deep copy hop dag (for non-reversable rewrites)
-				hops = deepCopyHopsDag(hops);
-			}
-			else {
-				// clear existing lops
-				Hop.resetVisitStatus(hops);
-				for( Hop hopRoot : hops )
-					rClearLops( hopRoot );
+			// probe plan cache for previously generated instructions 
+			// (inplace recompile modifies the shared hops, invalidating all plans)
+			RecompilePlanCache cache = null;
+			String signature = null;
+			// (not for gpu instructions, which cannot be deep copied)
+			if( sb != null && OptimizerUtils.ALLOW_RECOMPILE_PLAN_CACHE && !DMLScript.USE_ACCELERATOR ) {
+				cache = sb.getRecompilePlanCache();
+				if( inplace || status != null ) {
+					if( inplace )
+						cache.clear();
+					cache = null;
+				}
+				else if( (signature = cache.getSignature(hops, vars)) != null ) {
+					newInst = cache.get(signature);
+					if( newInst != null ) {
+						//deep copy of cached plan (incl thread id replacement) 
+						//because instructions are not guaranteed to be immutable
+						newInst = ProgramConverter.createDeepCopyInstructionSet(
+							newInst, tid, -1, null, null, null, false, false);
+						cached = true;
+					}
+					if( DMLScript.STATISTICS ) {
+						if( cached )
+							Statistics.incrementHOPRecompileCacheHits();
+						else
+							Statistics.incrementHOPRecompileCacheMisses();
+					}
+				}
 			}
+		
+			if( !cached ) {
+				// prepare hops dag for recompile
+				if( !inplace ){ 
+					// deep copy hop dag (for non-reversable rewrites)
+					hops = deepCopyHopsDag(hops);
+				}
+				else {
+					// clear existing lops
+					Hop.resetVisitStatus(hops);
+					for( Hop hopRoot : hops )
+						rClearLops( hopRoot );
+				}
 
-			// replace scalar reads with literals 
-			if( !inplace ) {
+				// replace scalar reads with literals (for cacheable plans,
+				// only scalars whose values are part of the signature)
+				if( !inplace ) {
+					LocalVariableMap lvars = (signature != null) ? 
+						cache.getLiteralReplacementVars(vars) : vars;
+					Hop.resetVisitStatus(hops);
+					for( Hop hopRoot : hops )
+						rReplaceLiterals( hopRoot, lvars );
+				}
+			
+				// refresh matrix characteristics (update stats)			
 				Hop.resetVisitStatus(hops);
 				for( Hop hopRoot : hops )
-					rReplaceLiterals( hopRoot, vars );
-			}
+					rUpdateStatistics( hopRoot, vars );
 			
-			// refresh matrix characteristics (update stats)			
-			Hop.resetVisitStatus(hops);
-			for( Hop hopRoot : hops )
-				rUpdateStatistics( hopRoot, vars );
+				// dynamic hop rewrites
+				if( !inplace )
+					_rewriter.get().rewriteHopDAGs( hops, null );
 			
-			// dynamic hop rewrites
-			if( !inplace )
-				_rewriter.get().rewriteHopDAGs( hops, null );
+				// refresh memory estimates (based on updated stats,
+				// before: init memo table with propagated worst-case estimates,
+				// after: extract worst-case estimates from memo table 
+				Hop.resetVisitStatus(hops);
+				MemoTable memo = new MemoTable();
+				memo.init(hops, status);
+				Hop.resetVisitStatus(hops);
+				for( Hop hopRoot : hops )
+					hopRoot.refreshMemEstimates(memo); 
+				memo.extract(hops, status);
 			
-			// refresh memory estimates (based on updated stats,
-			// before: init memo table with propagated worst-case estimates,
-			// after: extract worst-case estimates from memo table 
-			Hop.resetVisitStatus(hops);
-			MemoTable memo = new MemoTable();
-			memo.init(hops, status);
-			Hop.resetVisitStatus(hops);
-			for( Hop hopRoot : hops )
-				hopRoot.refreshMemEstimates(memo); 
-			memo.extract(hops, status);
+				// construct lops			
+				Dag<Lop> dag = new Dag<Lop>();
+				for( Hop hopRoot : hops ){
+					Lop lops = hopRoot.constructLops();
+					lops.addToDag(dag);	
+				}		
 			
-			// construct lops			
-			Dag<Lop> dag = new Dag<Lop>();
-			for( Hop hopRoot : hops ){
-				Lop lops = hopRoot.constructLops();
-				lops.addToDag(dag);	
-			}		
+				// generate runtime instructions (incl piggybacking)
+				newInst = dag.getJobs(sb, ConfigurationManager.getDMLConfig());	
 			
-			// generate runtime instructions (incl piggybacking)
-			newInst = dag.getJobs(sb, ConfigurationManager.getDMLConfig());	
+				// keep deep copy of generated instructions for reuse 
+				if( signature != null )
+					cache.put(signature, ProgramConverter.createDeepCopyInstructionSet(
+						newInst, 0, -1, null, null, null, false, false));
+			}
 		}
 		
 		// replace thread ids in new instructions
-		if( tid != 0 ) //only in parfor context
+		if( tid != 0 && !cached ) //only in parfor context
 			newInst = ProgramConverter.createDeepCopyInstructionSet(newInst, tid, -1, null, null, null, false, false);
 		
 		// explain recompiled hops / instructions
-		if( DMLScript.EXPLAIN == ExplainType.RECOMPILE_HOPS ){
+		if( DMLScript.EXPLAIN == ExplainType.RECOMPILE_HOPS && !cached ){
 			LOG.info("EXPLAIN RECOMPILE \nGENERIC (lines "+sb.getBeginLine()+"-"+sb.getEndLine()+"):\n" + 
 		    Explain.explainHops(hops, 1));
 		}
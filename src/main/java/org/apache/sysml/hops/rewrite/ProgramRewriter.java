@@ -135,6 +135,7 @@ public class ProgramRewriter
 			//(2) newly introduced operators potentially created redundancy (incl leaf merge to allow for cse)
 			if( OptimizerUtils.ALLOW_COMMON_SUBEXPRESSION_ELIMINATION )             
 				_dagRuleSet.add( new RewriteCommonSubexpressionElimination(true) ); //dependency: simplifications 			
+			_dagRuleSet.add(     new RewriteOperatorFusion()                      ); //dependency: cse, simplifications
 		}
 	}
 	
@@ -23,9 +23,11 @@ import java.util.ArrayList;
 
 import org.apache.sysml.api.DMLScript;
 import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
+import org.apache.sysml.hops.BinaryOp;
 import org.apache.sysml.hops.DataOp;
 import org.apache.sysml.hops.Hop;
 import org.apache.sysml.hops.Hop.OpOp1;
+import org.apache.sysml.hops.Hop.OpOp2;
 import org.apache.sysml.hops.HopsException;
 import org.apache.sysml.hops.LeftIndexingOp;
 import org.apache.sysml.hops.UnaryOp;
@@ -41,7 +43,7 @@ import org.apache.sysml.parser.Expression.DataType;
 
 /**
  * Rule: Mark loop variables that are only read/updated through cp left indexing
- * for update in-place.
+ * or cbind/rbind appends (e.g., R = rbind(R, row)) for update in-place.
  * 
  */
 public class RewriteMarkLoopVariablesUpdateInPlace extends StatementBlockRewriteRule
@@ -142,22 +144,34 @@ public class RewriteMarkLoopVariablesUpdateInPlace extends StatementBlockRewrite
 		if( !hop.getName().equals(varname) )
 			return true;
 	
-		//valid if read/updated by leftindexing 
+		//valid if read/updated by leftindexing or append (as first input)
 		//CP exec type not evaluated here as no lops generated yet 
-		boolean validLix = hop instanceof DataOp 
-			&& hop.getInput().get(0) instanceof LeftIndexingOp
-			&& hop.getInput().get(0).getInput().get(0) instanceof DataOp
-			&& hop.getInput().get(0).getInput().get(0).getName().equals(varname);
+		Hop update = (hop instanceof DataOp) ? hop.getInput().get(0) : null;
+		boolean valid = update != null 
+			&& (update instanceof LeftIndexingOp || isAppend(update))
+			&& update.getInput().get(0) instanceof DataOp
+			&& update.getInput().get(0).getName().equals(varname);
 		
-		//valid if only safe consumers of left indexing input
-		if( validLix ) {
-			for( Hop p : hop.getInput().get(0).getInput().get(0).getParent() ) {
-				validLix &= ( p == hop.getInput().get(0)  //lix
+		//valid if only safe consumers of left indexing / append input
+		if( valid ) {
+			for( Hop p : update.getInput().get(0).getParent() ) {
+				valid &= ( p == update  //lix/append
 						|| (p instanceof UnaryOp && ((UnaryOp)p).getOp()==OpOp1.NROW)
 						|| (p instanceof UnaryOp && ((UnaryOp)p).getOp()==OpOp1.NCOL));
 			} 
 		}
 		
-		return validLix;
+		return valid;
+	}
+	
+	/**
+	 * 
+	 * @param hop
+	 * @return
+	 */
+	private static boolean isAppend( Hop hop ) {
+		return hop instanceof BinaryOp 
+			&& (((BinaryOp)hop).getOp()==OpOp2.CBIND || ((BinaryOp)hop).getOp()==OpOp2.RBIND)
+			&& hop.getDataType()==DataType.MATRIX;
 	}
 }
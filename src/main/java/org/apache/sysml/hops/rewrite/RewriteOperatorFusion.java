@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.hops.rewrite;
+
+import java.util.ArrayList;
+
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.conf.DMLConfig;
+import org.apache.sysml.hops.Hop;
+import org.apache.sysml.hops.HopsException;
+import org.apache.sysml.hops.codegen.SpoofCompiler;
+
+/**
+ * Rule: OperatorFusion: If config codegen.enabled is enabled, we replace
+ * chains of cell-wise operations (optionally followed by a full or row sum)
+ * with generated fused operators, which avoids the materialization of
+ * intermediates.
+ */
+public class RewriteOperatorFusion extends HopRewriteRule
+{
+	
+	@Override
+	public ArrayList<Hop> rewriteHopDAGs(ArrayList<Hop> roots, ProgramRewriteStatus state)
+		throws HopsException
+	{
+		if( roots == null )
+			return null;
+		
+		if( isEnabled() )
+			SpoofCompiler.optimize(roots);
+		
+		return roots;
+	}
+
+	@Override
+	public Hop rewriteHopDAG(Hop root, ProgramRewriteStatus state) 
+		throws HopsException
+	{
+		if( root == null || !isEnabled() )
+			return root;
+		
+		ArrayList<Hop> roots = new ArrayList<Hop>();
+		roots.add(root);
+		SpoofCompiler.optimize(roots);
+		
+		return roots.get(0);
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	private static boolean isEnabled() {
+		return ConfigurationManager.getDMLConfig()
+				.getBooleanValue(DMLConfig.CODEGEN);
+	}
+}
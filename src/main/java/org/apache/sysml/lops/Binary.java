@@ -22,6 +22,10 @@ package org.apache.sysml.lops;
 import org.apache.sysml.lops.LopProperties.ExecLocation;
 import org.apache.sysml.lops.LopProperties.ExecType;
 import org.apache.sysml.lops.compile.JobType;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.instructions.CPInstructionParser;
+import org.apache.sysml.runtime.instructions.Instruction;
+import org.apache.sysml.runtime.instructions.InstructionUtils;
 import org.apache.sysml.parser.Expression.*;
 
 
@@ -41,7 +45,7 @@ public class Binary extends Lop
 	};	
 
 	private OperationTypes operation;
-	private int numThreads = -1;
+	private int numThreads = 1;
 	boolean isLeftTransposed; boolean isRightTransposed; // Used for GPU matmult operation
 	
 	/**
@@ -188,8 +192,9 @@ public class Binary extends Lop
 		
 		sb.append( this.prepOutputOperand(output));
 		
-		//append degree of parallelism for matrix multiplications
-		if( operation == OperationTypes.MATMULT && getExecType()==ExecType.CP ) {
+		//append degree of parallelism for matrix multiplications and arithmetic ops
+		if( (operation == OperationTypes.MATMULT || InstructionUtils.isArithmeticOpcode(getOpcode())) 
+			&& getExecType()==ExecType.CP ) {
 			sb.append( OPERAND_DELIMITOR );
 			sb.append( numThreads );
 		}
@@ -203,6 +208,24 @@ public class Binary extends Lop
 		return sb.toString();
 	}
 	
+	@Override
+	public Instruction getInstruction(String instString) 
+		throws LopsException 
+	{
+		//direct construction of cp arithmetic and relational instructions
+		if( getExecType() != ExecType.CP )
+			return null;
+		
+		int k = InstructionUtils.isArithmeticOpcode(getOpcode()) ? numThreads : 1;
+		try {
+			return CPInstructionParser.createBinaryInstruction(getOpcode(), 
+				prepInputCPOperand(0), prepInputCPOperand(1), prepOutputCPOperand(), k, instString);
+		}
+		catch(DMLRuntimeException ex) {
+			throw new LopsException(printErrorLocation() + "Failed to create instruction: " + instString, ex);
+		}
+	}
+	
 	@Override
 	public String getInstructions(int input_index1, int input_index2, int output_index) throws LopsException
 	{
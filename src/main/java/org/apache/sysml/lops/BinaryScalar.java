@@ -24,6 +24,9 @@ package org.apache.sysml.lops;
 import org.apache.sysml.lops.LopProperties.ExecLocation;
 import org.apache.sysml.lops.LopProperties.ExecType;
 import org.apache.sysml.lops.compile.JobType;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.instructions.CPInstructionParser;
+import org.apache.sysml.runtime.instructions.Instruction;
 import org.apache.sysml.parser.Expression.*;
 
 /**
@@ -121,6 +124,23 @@ public class BinaryScalar extends Lop
 		return sb.toString();
 	}
 	
+	@Override
+	public Instruction getInstruction(String instString) 
+		throws LopsException 
+	{
+		//direct construction of cp arithmetic and relational instructions
+		if( getExecType() != ExecType.CP )
+			return null;
+		
+		try {
+			return CPInstructionParser.createBinaryInstruction(getOpcode(operation), 
+				prepInputCPOperand(0), prepInputCPOperand(1), prepOutputCPOperand(), 1, instString);
+		}
+		catch(DMLRuntimeException ex) {
+			throw new LopsException(printErrorLocation() + "Failed to create instruction: " + instString, ex);
+		}
+	}
+	
 	@Override
 	public Lop.SimpleInstType getSimpleInstructionType()
 	{
@@ -41,11 +41,19 @@ public class FunctionCallCP extends Lop
 	private String _fname;
 	private String[] _outputs;
 	private ArrayList<Lop> _outputLops = null;
+	private int _numThreads = 1;
 
 	public FunctionCallCP(ArrayList<Lop> inputs, String fnamespace, String fname, String[] outputs, ArrayList<Hop> outputHops, ExecType et) 
 		throws HopsException, LopsException 
+	{
+		this(inputs, fnamespace, fname, outputs, outputHops, et, 1);
+	}
+	
+	public FunctionCallCP(ArrayList<Lop> inputs, String fnamespace, String fname, String[] outputs, ArrayList<Hop> outputHops, ExecType et, int k) 
+		throws HopsException, LopsException 
 	{
 		this(inputs, fnamespace, fname, outputs, et);
+		_numThreads = k;
 		if(outputHops != null) {
 			_outputLops = new ArrayList<Lop>();
 			for(Hop h : outputHops)
@@ -102,6 +110,12 @@ public class FunctionCallCP extends Lop
 			sb.append(_outputs[i]);
 		}
 		
+		//append degree of parallelism (ignored by single-threaded builtins)
+		if( getExecType()==ExecType.CP ) {
+			sb.append(Lop.OPERAND_DELIMITOR);
+			sb.append(_numThreads);
+		}
+		
 		return sb.toString();
 	}
 	
@@ -29,6 +29,8 @@ import org.apache.sysml.lops.LopProperties.ExecType;
 import org.apache.sysml.lops.compile.Dag;
 import org.apache.sysml.parser.Expression.DataType;
 import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.instructions.Instruction;
+import org.apache.sysml.runtime.instructions.cp.CPOperand;
 
 
 /**
@@ -60,6 +62,7 @@ public abstract class Lop
 		SortKeys, PickValues,
 		Checkpoint, 										//Spark persist into storage level
 		PlusMult, MinusMult,								//CP
+		SpoofFused,                                         //CP generated fused operators
 	};
 
 	/**
@@ -479,6 +482,11 @@ public abstract class Lop
 		throw new LopsException(this.printErrorLocation() + "Should never be invoked in Baseclass");
 	}
 
+	/** Method should be overridden if needed **/
+	public String getInstructions(String[] inputs, String output) throws LopsException {
+		throw new LopsException(this.printErrorLocation() + "Should never be invoked in Baseclass");
+	}
+
 	/** Method should be overridden if needed **/
 	public String getInstructions(String[] inputs, String[] outputs) throws LopsException {
 		throw new LopsException(this.printErrorLocation() + "Should never be invoked in Baseclass");
@@ -489,6 +497,21 @@ public abstract class Lop
 		throw new LopsException(this.printErrorLocation() + "Should never be invoked in Baseclass");
 	}
 
+	/**
+	 * Method should be overridden if needed. Lops that support it construct 
+	 * their CP instruction directly from resolved input and output operands,
+	 * which avoids re-parsing the given instruction string. The instruction 
+	 * string is still attached to the instruction for explain and remote 
+	 * execution. Returns null if not supported.
+	 * 
+	 * @param instString generated instruction string
+	 * @return instruction object, or null
+	 * @throws LopsException
+	 */
+	public Instruction getInstruction(String instString) throws LopsException {
+		return null;
+	}
+
 	/** Method should be overridden if needed **/
 	public SimpleInstType getSimpleInstructionType() throws LopsException {
 		throw new LopsException(this.printErrorLocation() + "Should never be invoked in Baseclass");
@@ -723,6 +746,31 @@ public abstract class Lop
 		}
 	}
 	
+	/**
+	 * Method to prepare a resolved CP operand of the given input, equivalent 
+	 * to parsing the output of prepInputOperand for the input label.
+	 * 
+	 * @param index input index
+	 * @return CP operand
+	 */
+	public CPOperand prepInputCPOperand(int index) {
+		Lop in = getInputs().get(index);
+		boolean literal = in.getDataType() != DataType.MATRIX 
+			&& in.getExecLocation() == ExecLocation.Data && ((Data)in).isLiteral();
+		return new CPOperand(in.getOutputParameters().getLabel(), 
+			in.getValueType(), in.getDataType(), literal);
+	}
+	
+	/**
+	 * Method to prepare a resolved CP operand of the output, equivalent
+	 * to parsing the output of prepOutputOperand.
+	 * 
+	 * @return CP operand
+	 */
+	public CPOperand prepOutputCPOperand() {
+		return new CPOperand(getOutputParameters().getLabel(), getValueType(), getDataType());
+	}
+	
 	/**
 	 * Method to check if a LOP expects an input from the Distributed Cache.
 	 * The method in parent class always returns <code>false</code> (default).
@@ -40,6 +40,7 @@ public class SortKeys extends Lop
 	
 	private OperationTypes operation;
 	private boolean descending = false;
+	private int _numThreads = 1;
 	
 	public OperationTypes getOpType() {
 		return operation;
@@ -66,6 +67,10 @@ public class SortKeys extends Lop
 		init(input1, input2, op, et);
 	}
 	
+	public void setNumThreads(int k) {
+		_numThreads = k;
+	}
+	
 	private void init(Lop input1, Lop input2, OperationTypes op, ExecType et) {
 		this.addInput(input1);
 		input1.addOutput(this);
@@ -124,6 +129,10 @@ public class SortKeys extends Lop
 			sb.append( OPERAND_DELIMITOR );
 			sb.append( descending );
 		}
+		else if( getExecType() == ExecType.CP ) {
+			sb.append( OPERAND_DELIMITOR );
+			sb.append( _numThreads );
+		}
 		
 		return sb.toString();
 	}
@@ -141,6 +150,11 @@ public class SortKeys extends Lop
 		sb.append( Lop.OPERAND_DELIMITOR );
 		sb.append( this.prepOutputOperand(output));
 		
+		if( getExecType() == ExecType.CP ) {
+			sb.append( OPERAND_DELIMITOR );
+			sb.append( _numThreads );
+		}
+		
 		return sb.toString();
 	}
 	
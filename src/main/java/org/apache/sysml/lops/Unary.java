@@ -22,6 +22,10 @@ package org.apache.sysml.lops;
 import org.apache.sysml.lops.LopProperties.ExecLocation;
 import org.apache.sysml.lops.LopProperties.ExecType;
 import org.apache.sysml.lops.compile.JobType;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.instructions.CPInstructionParser;
+import org.apache.sysml.runtime.instructions.Instruction;
+import org.apache.sysml.runtime.instructions.InstructionUtils;
 import org.apache.sysml.parser.Expression.DataType;
 import org.apache.sysml.parser.Expression.ValueType;
 
@@ -66,6 +70,12 @@ public class Unary extends Lop
 		init(input1, input2, op, dt, vt, et);
 	}
 	
+	public Unary(Lop input1, Lop input2, OperationTypes op, DataType dt, ValueType vt, ExecType et, int numThreads) {
+		super(Lop.Type.UNARY, dt, vt);
+		init(input1, input2, op, dt, vt, et);
+		_numThreads = numThreads;
+	}
+	
 	public Unary(Lop input1, Lop input2, OperationTypes op, DataType dt, ValueType vt) {
 		super(Lop.Type.UNARY, dt, vt);
 		init(input1, input2, op, dt, vt, ExecType.MR);
@@ -414,9 +424,35 @@ public class Unary extends Lop
 		
 		sb.append( this.prepOutputOperand(output));
 		
+		//num threads for cp matrix-scalar arithmetic ops
+		if( getExecType() == ExecType.CP && InstructionUtils.isArithmeticOpcode(getOpcode()) 
+			&& (getInputs().get(0).getDataType() == DataType.MATRIX 
+				|| getInputs().get(1).getDataType() == DataType.MATRIX) ) {
+			sb.append( OPERAND_DELIMITOR );
+			sb.append( _numThreads );
+		}
+		
 		return sb.toString();
 	}
 	
+	@Override
+	public Instruction getInstruction(String instString) 
+		throws LopsException 
+	{
+		//direct construction of cp scalar-matrix arithmetic and relational instructions
+		if( getExecType() != ExecType.CP || getInputs().size() != 2 )
+			return null;
+		
+		int k = InstructionUtils.isArithmeticOpcode(getOpcode()) ? _numThreads : 1;
+		try {
+			return CPInstructionParser.createBinaryInstruction(getOpcode(), 
+				prepInputCPOperand(0), prepInputCPOperand(1), prepOutputCPOperand(), k, instString);
+		}
+		catch(DMLRuntimeException ex) {
+			throw new LopsException(printErrorLocation() + "Failed to create instruction: " + instString, ex);
+		}
+	}
+	
 	@Override
 	public String getInstructions(int inputIndex1, int inputIndex2,
 			int outputIndex) throws LopsException {
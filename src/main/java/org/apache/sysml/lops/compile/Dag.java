@@ -1407,6 +1407,15 @@ public class Dag<N extends Lop>
 					
 					inst_string = node.getInstructions(inputs, outputs);
 				}
+				// Lops with arbitrary number of inputs and a single output
+				else if ( node.getType() == Lop.Type.SpoofFused )
+				{
+					String[] inputs = new String[node.getInputs().size()];
+					for( int j=0; j<node.getInputs().size(); j++ )
+						inputs[j] = node.getInputs().get(j).getOutputParameters().getLabel();
+					
+					inst_string = node.getInstructions(inputs, node.getOutputParameters().getLabel());
+				}
 				else {
 					if ( node.getInputs().isEmpty() ) {
 						// currently, such a case exists only for Rand lop
@@ -1513,7 +1522,9 @@ public class Dag<N extends Lop>
 				try {
 					if( LOG.isTraceEnabled() )
 						LOG.trace("Generating instruction - "+ inst_string);
-					Instruction currInstr = InstructionParser.parseSingleInstruction(inst_string);
+					Instruction currInstr = node.getInstruction(inst_string);
+					if( currInstr == null ) //default: parse instruction string
+						currInstr = InstructionParser.parseSingleInstruction(inst_string);
 					if(currInstr == null) {
 						 throw new LopsException("Error parsing the instruction:" + inst_string);
 					}
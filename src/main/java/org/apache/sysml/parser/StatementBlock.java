@@ -30,6 +30,7 @@ import org.apache.sysml.api.MLContextProxy;
 import org.apache.sysml.conf.ConfigurationManager;
 import org.apache.sysml.hops.Hop;
 import org.apache.sysml.hops.HopsException;
+import org.apache.sysml.hops.recompile.RecompilePlanCache;
 import org.apache.sysml.hops.recompile.Recompiler;
 import org.apache.sysml.lops.Lop;
 import org.apache.sysml.parser.Expression.DataType;
@@ -55,6 +56,7 @@ public class StatementBlock extends LiveVariableAnalysis
 	
 	private ArrayList<String> _updateInPlaceVars = null;
 	private boolean _requiresRecompile = false;
+	private RecompilePlanCache _planCache = null;
 	
 	public StatementBlock() {
 		_dmlProg = null;
@@ -149,6 +151,8 @@ public class StatementBlock extends LiveVariableAnalysis
 
 	public void set_hops(ArrayList<Hop> hops) {
 		_hops = hops;
+		if( _planCache != null )
+			_planCache.clear();
 	}
 
 	public void setLops(ArrayList<Lop> lops) {
@@ -1062,6 +1066,12 @@ public class StatementBlock extends LiveVariableAnalysis
 		return _requiresRecompile;
 	}
 	
+	public synchronized RecompilePlanCache getRecompilePlanCache() {
+		if( _planCache == null )
+			_planCache = new RecompilePlanCache();
+		return _planCache;
+	}
+	
 	public ArrayList<String> getUpdateInPlaceVars() {
 		return _updateInPlaceVars;
 	}
@@ -0,0 +1,327 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.codegen;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.security.CodeSource;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.JavaFileObject.Kind;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.io.IOUtilFunctions;
+import org.apache.sysml.utils.Statistics;
+
+/**
+ * Utilities for compiling generated operator classes in-process via the
+ * JDK compiler API. The source is compiled in memory (without any temporary
+ * files) and loaded by a dedicated class loader. All compiled classes are
+ * registered by name, which allows instructions to reference them.
+ */
+public class CodegenUtils
+{
+	//package of all generated classes
+	public static final String PACKAGE_NAME = "codegen";
+
+	//registry of compiled classes (name -> class) and their sources (name -> source),
+	//where the latter allows shipping generated classes to remote workers
+	private static HashMap<String, Class<?>> _cache = new HashMap<String,Class<?>>();
+	private static HashMap<String, String> _src = new HashMap<String,String>();
+
+	//lazily created classpath for the compiler
+	private static String _classpath = null;
+
+	/**
+	 * Compiles the given java source code of a class with the given name,
+	 * loads the class and registers it under its name. An existing class of
+	 * the same name is only reused if it was compiled from the same source,
+	 * otherwise (e.g., classes of different drivers in a reused remote worker)
+	 * the class is compiled again and replaces the registered class.
+	 *
+	 * @param name class name (without package)
+	 * @param src java source code
+	 * @return compiled and loaded class
+	 * @throws DMLRuntimeException
+	 */
+	public static synchronized Class<?> compileClass(String name, String src)
+		throws DMLRuntimeException
+	{
+		//reuse existing class (e.g., on repeated compilation)
+		if( _cache.containsKey(name) && src.equals(_src.get(name)) )
+			return _cache.get(name);
+
+		long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		if( compiler == null )
+			throw new DMLRuntimeException("Java compiler not available (code generation requires a JDK).");
+
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+		InMemoryFileManager fm = new InMemoryFileManager(
+			compiler.getStandardFileManager(diagnostics, null, null));
+		
+		try
+		{
+			//compile source in memory
+			List<String> options = Arrays.asList("-classpath", getClasspath(), "-g:none");
+			List<JavaFileObject> units = Arrays.asList((JavaFileObject)new SourceFile(name, src));
+
+			boolean success = compiler.getTask(null, fm, diagnostics, options, null, units).call();
+			if( !success ) {
+				StringBuilder sb = new StringBuilder();
+				for( Diagnostic<? extends JavaFileObject> d : diagnostics.getDiagnostics() )
+					sb.append(d.toString()).append("\n");
+				throw new DMLRuntimeException("Failed to compile generated class '"+name+"':\n"+sb.toString()+"\n"+src);
+			}
+
+			//load compiled class
+			String fullname = PACKAGE_NAME + "." + name;
+			ByteClassLoader loader = new ByteClassLoader(CodegenUtils.class.getClassLoader());
+			Class<?> ret = loader.defineClass(fullname, fm.getClassBytes(fullname));
+			_cache.put(name, ret);
+			_src.put(name, src);
+
+			if( DMLScript.STATISTICS ) {
+				Statistics.incrementCodegenClassCompile();
+				Statistics.incrementCodegenCompileTime(System.nanoTime()-t0);
+			}
+
+			return ret;
+		}
+		catch(DMLRuntimeException ex) {
+			throw ex;
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		finally {
+			//close file manager (incl open jar files) on success and failure
+			IOUtilFunctions.closeSilently(fm);
+		}
+	}
+
+	/**
+	 * Obtains a previously compiled class by name.
+	 *
+	 * @param name class name (without package)
+	 * @return compiled class
+	 * @throws DMLRuntimeException if no class with the given name exists
+	 */
+	public static synchronized Class<?> getClass(String name)
+		throws DMLRuntimeException
+	{
+		Class<?> ret = _cache.get(name);
+		if( ret == null )
+			throw new DMLRuntimeException("Generated class '"+name+"' not found.");
+		return ret;
+	}
+
+	/**
+	 * Obtains the source code of a previously compiled class by name.
+	 *
+	 * @param name class name (without package)
+	 * @return source code
+	 * @throws DMLRuntimeException if no class with the given name exists
+	 */
+	public static synchronized String getClassSource(String name)
+		throws DMLRuntimeException
+	{
+		String ret = _src.get(name);
+		if( ret == null )
+			throw new DMLRuntimeException("Generated class '"+name+"' not found.");
+		return ret;
+	}
+
+	/**
+	 * Encodes the given source code into a hex string, which is free of
+	 * any instruction or program serialization delimiters.
+	 *
+	 * @param src source code
+	 * @return hex-encoded source code
+	 */
+	public static String encodeSource(String src) {
+		byte[] b = src.getBytes(Charset.forName("UTF-8"));
+		StringBuilder sb = new StringBuilder(2*b.length);
+		for( int i=0; i<b.length; i++ ) {
+			sb.append(Character.forDigit((b[i]>>4) & 0xF, 16));
+			sb.append(Character.forDigit(b[i] & 0xF, 16));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Decodes a hex string created by {@link #encodeSource(String)}.
+	 *
+	 * @param hex hex-encoded source code
+	 * @return source code
+	 */
+	public static String decodeSource(String hex) {
+		byte[] b = new byte[hex.length()/2];
+		for( int i=0; i<b.length; i++ )
+			b[i] = (byte)((Character.digit(hex.charAt(2*i), 16) << 4)
+				+ Character.digit(hex.charAt(2*i+1), 16));
+		return new String(b, Charset.forName("UTF-8"));
+	}
+
+	/**
+	 * Creates a new operator instance of the given generated class.
+	 *
+	 * @param cla generated class
+	 * @return operator instance
+	 * @throws DMLRuntimeException
+	 */
+	public static SpoofOperator createInstance(Class<?> cla)
+		throws DMLRuntimeException
+	{
+		try {
+			return (SpoofOperator) cla.newInstance();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+
+	/**
+	 * Removes all compiled classes from the registry.
+	 */
+	public static synchronized void clearClassCache() {
+		_cache.clear();
+		_src.clear();
+	}
+
+	/**
+	 * Obtains the classpath for compiling generated classes, which is the
+	 * JVM classpath plus the location of the runtime classes if they were 
+	 * loaded from a different location (e.g., a separate jar).
+	 *
+	 * @return classpath string
+	 */
+	private static String getClasspath()
+	{
+		if( _classpath == null ) {
+			StringBuilder sb = new StringBuilder(System.getProperty("java.class.path"));
+			//append location of runtime classes (e.g., if loaded from a separate jar)
+			CodeSource cs = SpoofOperator.class.getProtectionDomain().getCodeSource();
+			if( cs != null && cs.getLocation() != null ) {
+				sb.append(File.pathSeparator);
+				sb.append(new File(cs.getLocation().getPath()).getAbsolutePath());
+			}
+			_classpath = sb.toString();
+		}
+		return _classpath;
+	}
+
+	/**
+	 * Java source file object backed by an in-memory string.
+	 */
+	private static class SourceFile extends SimpleJavaFileObject
+	{
+		private final String _src;
+
+		public SourceFile(String name, String src) {
+			super(URI.create("string:///" + PACKAGE_NAME + "/" + name + Kind.SOURCE.extension), Kind.SOURCE);
+			_src = src;
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return _src;
+		}
+	}
+
+	/**
+	 * Java class file object backed by an in-memory byte array.
+	 */
+	private static class ClassFile extends SimpleJavaFileObject
+	{
+		private final ByteArrayOutputStream _bytes = new ByteArrayOutputStream();
+
+		public ClassFile(String name) {
+			super(URI.create("bytes:///" + name.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+		}
+
+		@Override
+		public OutputStream openOutputStream() {
+			return _bytes;
+		}
+
+		public byte[] getBytes() {
+			return _bytes.toByteArray();
+		}
+	}
+
+	/**
+	 * File manager that redirects all class outputs into memory.
+	 */
+	private static class InMemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager>
+	{
+		private final HashMap<String, ClassFile> _classes = new HashMap<String, ClassFile>();
+
+		public InMemoryFileManager(StandardJavaFileManager fm) {
+			super(fm);
+		}
+
+		@Override
+		public JavaFileObject getJavaFileForOutput(Location location, String className, Kind kind, FileObject sibling) {
+			ClassFile ret = new ClassFile(className);
+			_classes.put(className, ret);
+			return ret;
+		}
+
+		public byte[] getClassBytes(String className)
+			throws DMLRuntimeException
+		{
+			ClassFile cf = _classes.get(className);
+			if( cf == null )
+				throw new DMLRuntimeException("No compiled class output for '"+className+"'.");
+			return cf.getBytes();
+		}
+	}
+
+	/**
+	 * Class loader for defining classes from compiled byte arrays.
+	 */
+	private static class ByteClassLoader extends ClassLoader
+	{
+		public ByteClassLoader(ClassLoader parent) {
+			super(parent);
+		}
+
+		public Class<?> defineClass(String name, byte[] b) {
+			return defineClass(name, b, 0, b.length);
+		}
+	}
+}
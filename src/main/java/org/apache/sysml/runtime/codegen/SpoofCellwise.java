@@ -0,0 +1,508 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.codegen;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.compress.ColGroup;
+import org.apache.sysml.runtime.compress.ColGroupBitmap;
+import org.apache.sysml.runtime.compress.ColGroupDDC;
+import org.apache.sysml.runtime.compress.ColGroupUncompressed;
+import org.apache.sysml.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysml.runtime.functionobjects.KahanPlus;
+import org.apache.sysml.runtime.instructions.cp.DoubleObject;
+import org.apache.sysml.runtime.instructions.cp.KahanObject;
+import org.apache.sysml.runtime.instructions.cp.ScalarObject;
+import org.apache.sysml.runtime.matrix.data.IJV;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+import org.apache.sysml.runtime.util.CommonThreadPool;
+
+/**
+ * Base class of generated cell-wise operators, which evaluate a fused
+ * expression per cell of the main input and optionally aggregate the
+ * results per row (rowSums) or over all cells (sum). Generated subclasses
+ * only implement the scalar per-cell expression {@link #genexec}; this
+ * class provides the single-pass kernels over dense, sparse and compressed
+ * main inputs.
+ *
+ * If the expression is sparse-safe w.r.t. the main input (i.e., it is
+ * zero for zero inputs), only non-zero cells of sparse and compressed
+ * inputs are processed. Compressed inputs of sparse-unsafe expressions
+ * are decompressed.
+ */
+public abstract class SpoofCellwise extends SpoofOperator
+{
+	private static final long serialVersionUID = 3442528770573293590L;
+
+	//internal configuration
+	private static final long PAR_NUMCELL_THRESHOLD = 1024*1024; //Min 1M elements
+
+	public enum CellType {
+		NO_AGG,
+		FULL_AGG,
+		ROW_AGG,
+	}
+
+	private final CellType _type;
+	private final boolean _sparseSafe;
+
+	public SpoofCellwise(CellType type, boolean sparseSafe) {
+		_type = type;
+		_sparseSafe = sparseSafe;
+	}
+
+	public CellType getCellType() {
+		return _type;
+	}
+
+	public boolean isSparseSafe() {
+		return _sparseSafe;
+	}
+
+	/**
+	 * Generated per-cell expression.
+	 *
+	 * @param a value of the main input
+	 * @param b dense side inputs
+	 * @param scalars scalar inputs
+	 * @param n number of columns of the main input
+	 * @param rix row index
+	 * @param cix column index
+	 * @return result value
+	 */
+	protected abstract double genexec(double a, double[][] b, double[] scalars, int n, int rix, int cix);
+
+	@Override
+	public ScalarObject execute(ArrayList<MatrixBlock> inputs, ArrayList<ScalarObject> scalarObjects, int k)
+		throws DMLRuntimeException
+	{
+		if( _type != CellType.FULL_AGG )
+			throw new DMLRuntimeException("Invalid scalar output for cell type "+_type+".");
+		if( inputs == null || inputs.isEmpty() )
+			throw new DMLRuntimeException("Missing main input of cellwise operator.");
+
+		//prepare inputs
+		MatrixBlock a = prepMainInput(inputs.get(0));
+		double[][] b = prepInputMatrices(inputs);
+		double[] scalars = prepInputScalars(scalarObjects);
+		int m = a.getNumRows();
+		int n = a.getNumColumns();
+
+		KahanObject kbuff = new KahanObject(0, 0);
+		if( isCompressed(a) ) {
+			executeCompressed((CompressedMatrixBlock)a, b, scalars, null, kbuff, n);
+		}
+		else if( k <= 1 || (long)m*n < PAR_NUMCELL_THRESHOLD || m < 2 ) {
+			executeRange(a, b, scalars, null, kbuff, n, 0, m);
+		}
+		else {
+			//multi-threaded execution with partial aggregates per task
+			try {
+				ExecutorService pool = CommonThreadPool.get(k);
+				ArrayList<CellwiseTask> tasks = new ArrayList<CellwiseTask>();
+				int blklen = (int)(Math.ceil((double)m/k));
+				for( int i=0; i<k & i*blklen<m; i++ )
+					tasks.add(new CellwiseTask(a, b, scalars, null, n, i*blklen, Math.min((i+1)*blklen, m)));
+				List<Future<KahanObject>> taskret = pool.invokeAll(tasks);
+				pool.shutdown();
+				KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
+				for( Future<KahanObject> task : taskret ) {
+					KahanObject tmp = task.get();
+					kplus.execute(kbuff, tmp._sum, tmp._correction);
+				}
+			}
+			catch(Exception ex) {
+				throw new DMLRuntimeException(ex);
+			}
+		}
+
+		return new DoubleObject(kbuff._sum);
+	}
+
+	@Override
+	public MatrixBlock execute(ArrayList<MatrixBlock> inputs, ArrayList<ScalarObject> scalarObjects, MatrixBlock out, int k)
+		throws DMLRuntimeException
+	{
+		if( _type == CellType.FULL_AGG )
+			throw new DMLRuntimeException("Invalid matrix output for cell type "+_type+".");
+		if( inputs == null || inputs.isEmpty() )
+			throw new DMLRuntimeException("Missing main input of cellwise operator.");
+
+		//prepare inputs
+		MatrixBlock a = prepMainInput(inputs.get(0));
+		double[][] b = prepInputMatrices(inputs);
+		double[] scalars = prepInputScalars(scalarObjects);
+		int m = a.getNumRows();
+		int n = a.getNumColumns();
+
+		//prepare output (sparse output only for sparse-safe ops over sparse inputs)
+		boolean sparseOut = _type == CellType.NO_AGG && _sparseSafe
+			&& a.isInSparseFormat() && !isCompressed(a);
+		out.reset(m, (_type==CellType.NO_AGG) ? n : 1, sparseOut);
+		if( sparseOut )
+			out.allocateSparseRowsBlock();
+		else
+			out.allocateDenseBlock();
+
+		long lnnz = 0;
+		if( isCompressed(a) ) {
+			executeCompressed((CompressedMatrixBlock)a, b, scalars, out, null, n);
+			out.recomputeNonZeros();
+			lnnz = out.getNonZeros();
+		}
+		else if( k <= 1 || (long)m*n < PAR_NUMCELL_THRESHOLD || m < 2
+			|| (sparseOut && !out.getSparseBlock().isThreadSafe()) ) {
+			lnnz = executeRange(a, b, scalars, out, null, n, 0, m);
+		}
+		else {
+			//multi-threaded execution over disjoint row partitions
+			try {
+				ExecutorService pool = CommonThreadPool.get(k);
+				ArrayList<CellwiseTask> tasks = new ArrayList<CellwiseTask>();
+				int blklen = (int)(Math.ceil((double)m/k));
+				for( int i=0; i<k & i*blklen<m; i++ )
+					tasks.add(new CellwiseTask(a, b, scalars, out, n, i*blklen, Math.min((i+1)*blklen, m)));
+				List<Future<KahanObject>> taskret = pool.invokeAll(tasks);
+				pool.shutdown();
+				for( Future<KahanObject> task : taskret )
+					lnnz += (long)task.get()._sum;
+			}
+			catch(Exception ex) {
+				throw new DMLRuntimeException(ex);
+			}
+		}
+
+		//post-processing
+		out.setNonZeros(lnnz);
+		out.examSparsity();
+		return out;
+	}
+
+	/**
+	 *
+	 * @param a
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private MatrixBlock prepMainInput(MatrixBlock a)
+		throws DMLRuntimeException
+	{
+		//sparse-unsafe operations touch all cells anyway
+		if( isCompressed(a) && !_sparseSafe )
+			return ((CompressedMatrixBlock)a).decompress();
+		return a;
+	}
+	
+	/**
+	 * 
+	 * @param a
+	 * @return
+	 */
+	private static boolean isCompressed(MatrixBlock a) {
+		return (a instanceof CompressedMatrixBlock 
+			&& ((CompressedMatrixBlock)a).isCompressed());
+	}
+
+	/**
+	 * Executes the operator over the row range [rl, ru). For full aggregation,
+	 * the result is added to the given kahan buffer, otherwise it is written to
+	 * the given output and the number of non-zeros is returned.
+	 *
+	 * @param a main input
+	 * @param b side inputs
+	 * @param scalars scalar inputs
+	 * @param out output matrix block or null for full aggregation
+	 * @param kbuff aggregation buffer or null
+	 * @param n number of columns
+	 * @param rl row lower bound
+	 * @param ru row upper bound
+	 * @return number of non-zeros in the output range
+	 */
+	private long executeRange(MatrixBlock a, double[][] b, double[] scalars, MatrixBlock out, KahanObject kbuff, int n, int rl, int ru)
+	{
+		if( a.isEmptyBlock(false) && _sparseSafe )
+			return 0;
+
+		if( !a.isInSparseFormat() )
+			return executeDense(a.getDenseBlock(), b, scalars, out, kbuff, n, rl, ru);
+		else
+			return executeSparse(a.getSparseBlock(), b, scalars, out, kbuff, n, rl, ru);
+	}
+
+	/**
+	 *
+	 * @param a
+	 * @param b
+	 * @param scalars
+	 * @param out
+	 * @param kbuff
+	 * @param n
+	 * @param rl
+	 * @param ru
+	 * @return
+	 */
+	private long executeDense(double[] a, double[][] b, double[] scalars, MatrixBlock out, KahanObject kbuff, int n, int rl, int ru)
+	{
+		KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
+		long lnnz = 0;
+
+		if( _type == CellType.NO_AGG ) {
+			double[] c = out.getDenseBlock();
+			for( int i=rl, ix=rl*n; i<ru; i++ )
+				for( int j=0; j<n; j++, ix++ ) {
+					double aval = (a != null) ? a[ix] : 0;
+					if( aval != 0 || !_sparseSafe ) {
+						c[ix] = genexec(aval, b, scalars, n, i, j);
+						lnnz += (c[ix]!=0) ? 1 : 0;
+					}
+				}
+		}
+		else if( _type == CellType.ROW_AGG ) {
+			double[] c = out.getDenseBlock();
+			KahanObject kbuff2 = new KahanObject(0, 0);
+			for( int i=rl, ix=rl*n; i<ru; i++ ) {
+				kbuff2.set(0, 0);
+				for( int j=0; j<n; j++, ix++ ) {
+					double aval = (a != null) ? a[ix] : 0;
+					if( aval != 0 || !_sparseSafe )
+						kplus.execute2(kbuff2, genexec(aval, b, scalars, n, i, j));
+				}
+				c[i] = kbuff2._sum;
+				lnnz += (c[i]!=0) ? 1 : 0;
+			}
+		}
+		else { //FULL_AGG
+			for( int i=rl, ix=rl*n; i<ru; i++ )
+				for( int j=0; j<n; j++, ix++ ) {
+					double aval = (a != null) ? a[ix] : 0;
+					if( aval != 0 || !_sparseSafe )
+						kplus.execute2(kbuff, genexec(aval, b, scalars, n, i, j));
+				}
+		}
+
+		return lnnz;
+	}
+
+	/**
+	 *
+	 * @param sblock
+	 * @param b
+	 * @param scalars
+	 * @param out
+	 * @param kbuff
+	 * @param n
+	 * @param rl
+	 * @param ru
+	 * @return
+	 */
+	private long executeSparse(SparseBlock sblock, double[][] b, double[] scalars, MatrixBlock out, KahanObject kbuff, int n, int rl, int ru)
+	{
+		KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
+		KahanObject kbuff2 = (_type == CellType.ROW_AGG) ? new KahanObject(0, 0) : kbuff;
+		SparseBlock c = (out != null && out.isInSparseFormat()) ? out.getSparseBlock() : null;
+		double[] cvals = (out != null && !out.isInSparseFormat()) ? out.getDenseBlock() : null;
+		long lnnz = 0;
+
+		for( int i=rl; i<ru; i++ ) {
+			boolean empty = (sblock == null || sblock.isEmpty(i));
+			if( empty && _sparseSafe )
+				continue;
+			int apos = empty ? 0 : sblock.pos(i);
+			int alen = empty ? 0 : sblock.size(i);
+			int[] aix = empty ? null : sblock.indexes(i);
+			double[] avals = empty ? null : sblock.values(i);
+			if( _type == CellType.ROW_AGG )
+				kbuff2.set(0, 0);
+
+			if( _sparseSafe ) {
+				//process non-zero cells only
+				if( c != null ) //NO_AGG (sparse output)
+					c.allocate(i, alen);
+				for( int k=apos; k<apos+alen; k++ ) {
+					double val = genexec(avals[k], b, scalars, n, i, aix[k]);
+					if( _type == CellType.NO_AGG ) {
+						if( c != null && val != 0 )
+							c.append(i, aix[k], val);
+						else if( c == null )
+							cvals[i*n+aix[k]] = val;
+						lnnz += (val!=0) ? 1 : 0;
+					}
+					else
+						kplus.execute2(kbuff2, val);
+				}
+			}
+			else {
+				//process all cells, incl zeros
+				for( int j=0, k=apos; j<n; j++ ) {
+					double aval = (k<apos+alen && aix[k]==j) ? avals[k++] : 0;
+					double val = genexec(aval, b, scalars, n, i, j);
+					if( _type == CellType.NO_AGG ) {
+						cvals[i*n+j] = val;
+						lnnz += (val!=0) ? 1 : 0;
+					}
+					else
+						kplus.execute2(kbuff2, val);
+				}
+			}
+
+			if( _type == CellType.ROW_AGG ) {
+				cvals[i] = kbuff2._sum;
+				lnnz += (cvals[i]!=0) ? 1 : 0;
+			}
+		}
+
+		return lnnz;
+	}
+
+	/**
+	 * Executes a sparse-safe operator over the non-zero values of all column
+	 * groups of a compressed main input (single-threaded).
+	 *
+	 * @param a
+	 * @param b
+	 * @param scalars
+	 * @param out
+	 * @param kbuff
+	 * @param n
+	 */
+	private void executeCompressed(CompressedMatrixBlock a, double[][] b, double[] scalars, MatrixBlock out, KahanObject kbuff, int n)
+	{
+		double[] c = (out != null) ? out.getDenseBlock() : null;
+		double[] corr = (_type == CellType.ROW_AGG) ? new double[a.getNumRows()] : null;
+
+		for( ColGroup grp : a.getColGroups() ) {
+			int[] cols = grp.getColIndices();
+			if( grp instanceof ColGroupUncompressed ) {
+				MatrixBlock data = ((ColGroupUncompressed)grp).getData();
+				if( data.isEmptyBlock(false) )
+					continue;
+				if( data.isInSparseFormat() ) {
+					Iterator<IJV> iter = data.getSparseBlockIterator();
+					while( iter.hasNext() ) {
+						IJV cell = iter.next();
+						processCompressedCell(cell.getV(), b, scalars, c, corr, kbuff, n, cell.getI(), cols[cell.getJ()]);
+					}
+				}
+				else {
+					double[] dvals = data.getDenseBlock();
+					int dn = data.getNumColumns();
+					for( int i=0, ix=0; i<data.getNumRows(); i++ )
+						for( int j=0; j<dn; j++, ix++ )
+							if( dvals[ix] != 0 )
+								processCompressedCell(dvals[ix], b, scalars, c, corr, kbuff, n, i, cols[j]);
+				}
+			}
+			else if( grp instanceof ColGroupDDC ) {
+				ColGroupDDC dgrp = (ColGroupDDC) grp;
+				double[] values = dgrp.getValues();
+				int numCols = cols.length;
+				for( int i=0; i<dgrp.getNumRows(); i++ ) {
+					int valOff = dgrp.getCode(i) * numCols;
+					for( int j=0; j<numCols; j++ )
+						if( values[valOff+j] != 0 )
+							processCompressedCell(values[valOff+j], b, scalars, c, corr, kbuff, n, i, cols[j]);
+				}
+			}
+			else {
+				ColGroupBitmap bgrp = (ColGroupBitmap) grp;
+				double[] values = bgrp.getValues();
+				int numCols = cols.length;
+				for( int k=0; k<bgrp.getNumValues(); k++ ) {
+					Iterator<Integer> iter = bgrp.getDecodeIterator(k);
+					while( iter.hasNext() ) {
+						int i = iter.next();
+						for( int j=0; j<numCols; j++ )
+							if( values[k*numCols+j] != 0 )
+								processCompressedCell(values[k*numCols+j], b, scalars, c, corr, kbuff, n, i, cols[j]);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @param aval
+	 * @param b
+	 * @param scalars
+	 * @param c
+	 * @param corr
+	 * @param kbuff
+	 * @param n
+	 * @param i
+	 * @param j
+	 */
+	private void processCompressedCell(double aval, double[][] b, double[] scalars, double[] c, double[] corr, KahanObject kbuff, int n, int i, int j)
+	{
+		double val = genexec(aval, b, scalars, n, i, j);
+		if( _type == CellType.NO_AGG ) {
+			c[i*n+j] = val;
+		}
+		else if( _type == CellType.ROW_AGG ) {
+			//kahan summation w/ separate correction terms per row
+			double correction = val + corr[i];
+			double sum = c[i] + correction;
+			corr[i] = correction - (sum - c[i]);
+			c[i] = sum;
+		}
+		else { //FULL_AGG
+			KahanPlus.getKahanPlusFnObject().execute2(kbuff, val);
+		}
+	}
+
+	/**
+	 * Task for executing the operator over a row partition. The task returns
+	 * the partial aggregate (full aggregation) or the number of non-zeros.
+	 */
+	private class CellwiseTask implements Callable<KahanObject>
+	{
+		private final MatrixBlock _a;
+		private final double[][] _b;
+		private final double[] _scalars;
+		private final MatrixBlock _out;
+		private final int _n;
+		private final int _rl;
+		private final int _ru;
+
+		protected CellwiseTask(MatrixBlock a, double[][] b, double[] scalars, MatrixBlock out, int n, int rl, int ru) {
+			_a = a;
+			_b = b;
+			_scalars = scalars;
+			_out = out;
+			_n = n;
+			_rl = rl;
+			_ru = ru;
+		}
+
+		@Override
+		public KahanObject call() throws DMLRuntimeException {
+			KahanObject kbuff = new KahanObject(0, 0);
+			long lnnz = executeRange(_a, _b, _scalars, _out, (_out==null) ? kbuff : null, _n, _rl, _ru);
+			return (_out==null) ? kbuff : new KahanObject(lnnz, 0);
+		}
+	}
+}
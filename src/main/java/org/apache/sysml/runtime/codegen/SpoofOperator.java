@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.codegen;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysml.runtime.instructions.cp.ScalarObject;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.DataConverter;
+
+/**
+ * Base class of all generated (fused) operators. A generated operator
+ * consumes a main input, an arbitrary number of side inputs, and scalars.
+ */
+public abstract class SpoofOperator implements Serializable
+{
+	private static final long serialVersionUID = 3834006998853573319L;
+
+	/**
+	 * Executes the operator with a matrix output.
+	 *
+	 * @param inputs matrix inputs (main input first)
+	 * @param scalars scalar inputs
+	 * @param out output matrix block
+	 * @param k degree of parallelism
+	 * @return output matrix block
+	 * @throws DMLRuntimeException
+	 */
+	public abstract MatrixBlock execute(ArrayList<MatrixBlock> inputs, ArrayList<ScalarObject> scalars, MatrixBlock out, int k)
+		throws DMLRuntimeException;
+
+	/**
+	 * Executes the operator with a scalar output.
+	 *
+	 * @param inputs matrix inputs (main input first)
+	 * @param scalars scalar inputs
+	 * @param k degree of parallelism
+	 * @return scalar output
+	 * @throws DMLRuntimeException
+	 */
+	public ScalarObject execute(ArrayList<MatrixBlock> inputs, ArrayList<ScalarObject> scalars, int k)
+		throws DMLRuntimeException
+	{
+		throw new DMLRuntimeException("Invalid invocation of scalar execute on "+getClass().getSimpleName()+".");
+	}
+
+	/**
+	 * Converts all side inputs (all inputs except the main input) into
+	 * dense linearized arrays. Dense side inputs are used without copy.
+	 *
+	 * @param inputs matrix inputs
+	 * @return dense side inputs
+	 * @throws DMLRuntimeException
+	 */
+	protected static double[][] prepInputMatrices(ArrayList<MatrixBlock> inputs)
+		throws DMLRuntimeException
+	{
+		double[][] b = new double[inputs.size()-1][];
+		for( int i=1; i<inputs.size(); i++ ) {
+			MatrixBlock in = inputs.get(i);
+			if( in instanceof CompressedMatrixBlock && ((CompressedMatrixBlock)in).isCompressed() )
+				in = ((CompressedMatrixBlock)in).decompress();
+			if( !in.isInSparseFormat() && in.getDenseBlock() != null && in.getNonZeros() > 0 )
+				b[i-1] = in.getDenseBlock();
+			else
+				b[i-1] = DataConverter.convertToDoubleVector(in);
+		}
+		return b;
+	}
+
+	/**
+	 * Converts all scalar inputs into an array of doubles.
+	 *
+	 * @param scalars scalar inputs
+	 * @return scalar values
+	 */
+	protected static double[] prepInputScalars(ArrayList<ScalarObject> scalars)
+	{
+		double[] ret = new double[scalars.size()];
+		for( int i=0; i<scalars.size(); i++ )
+			ret[i] = scalars.get(i).getDoubleValue();
+		return ret;
+	}
+}
@@ -28,6 +28,7 @@ import java.util.List;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.operators.AggregateUnaryOperator;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
 import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
 
 /**
@@ -42,7 +43,9 @@ public abstract class ColGroup implements Serializable
 	public enum CompressionType  {
 		UNCOMPRESSED,   //uncompressed sparse/dense 
 		RLE_BITMAP,     //RLE bitmap
-		OLE_BITMAP;  //OLE bitmap
+		OLE_BITMAP,     //OLE bitmap
+		DDC1,           //DDC 1-byte codes
+		DDC2;           //DDC 2-byte codes
 	}
 	
 	/**
@@ -241,6 +244,21 @@ public abstract class ColGroup implements Serializable
 	public abstract ColGroup scalarOperation(ScalarOperator op)
 			throws DMLRuntimeException;
 
+	/**
+	 * Perform the specified binary operation with a row vector (broadcast
+	 * over all rows) directly on the compressed column group, without 
+	 * decompressing individual cells if possible.
+	 * 
+	 * @param op
+	 *            operation to perform
+	 * @param v
+	 *            dense row vector of the entire matrix block width
+	 * @return version of this column group with the operation applied
+	 * @throws DMLRuntimeException
+	 */
+	public abstract ColGroup binaryRowVectorOperation(BinaryOperator op, double[] v)
+			throws DMLRuntimeException;
+
 	/**
 	 * 
 	 * @param op
@@ -31,6 +31,7 @@ import java.util.Map.Entry;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.compress.utils.LinearAlgebraUtils;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
 import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
 
 
@@ -355,6 +356,58 @@ public abstract class ColGroupBitmap extends ColGroup
 		return ret;
 	}
 
+	/**
+	 * Indicates if the given binary row vector operation maps zero to zero
+	 * for all columns of this group, i.e., if the bitmaps remain unchanged.
+	 * 
+	 * @param op
+	 * @param v
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	protected boolean isSparseSafeRowOp(BinaryOperator op, double[] v)
+			throws DMLRuntimeException 
+	{
+		for( int j=0; j<_colIndexes.length; j++ )
+			if( op.fn.execute(0, v[_colIndexes[j]]) != 0 )
+				return false;
+		return true;
+	}
+	
+	/**
+	 * Method for use by subclasses. Applies a binary row vector operation 
+	 * to the value metadata stored in the superclass, and optionally adds
+	 * the result tuple for rows of zeros at the end.
+	 * 
+	 * @param op
+	 *            binary operation to perform
+	 * @param v
+	 *            dense row vector of the entire matrix block width
+	 * @param inclZeros
+	 *            append tuple of op(0, v) for rows not covered by bitmaps
+	 * @return transformed copy of value metadata for this column group
+	 * @throws DMLRuntimeException
+	 */
+	protected double[] applyBinaryRowOp(BinaryOperator op, double[] v, boolean inclZeros)
+			throws DMLRuntimeException 
+	{
+		final int numCols = getNumCols();
+		final int len = _values.length;
+		
+		//scan over linearized values
+		double[] ret = new double[inclZeros ? len+numCols : len];
+		for( int i=0; i<len; i+=numCols )
+			for( int j=0; j<numCols; j++ )
+				ret[i+j] = op.fn.execute(_values[i+j], v[_colIndexes[j]]);
+		
+		//add new value to the end
+		if( inclZeros )
+			for( int j=0; j<numCols; j++ )
+				ret[len+j] = op.fn.execute(0, v[_colIndexes[j]]);
+		
+		return ret;
+	}
+
 	/**
 	 * @return the number of distinct sets of values associated with the bitmaps
 	 *         in this column group
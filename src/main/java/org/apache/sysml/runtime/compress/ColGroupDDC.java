@@ -0,0 +1,502 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.compress;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.functionobjects.KahanFunction;
+import org.apache.sysml.runtime.functionobjects.KahanPlus;
+import org.apache.sysml.runtime.functionobjects.KahanPlusSq;
+import org.apache.sysml.runtime.functionobjects.ReduceAll;
+import org.apache.sysml.runtime.functionobjects.ReduceCol;
+import org.apache.sysml.runtime.functionobjects.ReduceRow;
+import org.apache.sysml.runtime.instructions.cp.KahanObject;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.operators.AggregateUnaryOperator;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+
+/**
+ * Base class for column groups encoded with dense dictionary coding (DDC),
+ * i.e., a dictionary of distinct value tuples and one fixed-size code per 
+ * row that refers into this dictionary. In contrast to OLE and RLE, DDC 
+ * also encodes zero tuples (as a regular dictionary entry), which makes it 
+ * a good fit for dense columns with few distinct values and allows for 
+ * tight, branch-free loops over the codes.
+ * 
+ * The concrete subclasses differ in the width of the codes only, see
+ * {@link ColGroupDDC1} and {@link ColGroupDDC2}.
+ */
+public abstract class ColGroupDDC extends ColGroup 
+{
+	private static final long serialVersionUID = -3204391646123465004L;
+	
+	/** Distinct value tuples, incl zero tuple if required. */
+	protected double[] _values; //linearized <numcol vals> <numcol vals>
+	
+	protected ColGroupDDC(CompressionType type) {
+		super(type, (int[]) null, -1);
+	}
+	
+	/**
+	 * Main constructor. Extracts the dictionary of distinct value tuples, 
+	 * where an additional zero tuple is prepended if the given bitmaps do 
+	 * not cover all rows. The codes are created by the subclasses via
+	 * {@link #setCode(int, int)}.
+	 * 
+	 * @param type
+	 *            concrete DDC compression type
+	 * @param colIndices
+	 *            indices (within the block) of the columns included in this
+	 *            column
+	 * @param numRows
+	 *            total number of rows in the parent block
+	 * @param ubm
+	 *            Uncompressed bitmap representation of the block
+	 */
+	protected ColGroupDDC(CompressionType type, int[] colIndices, int numRows, UncompressedBitmap ubm) 
+	{
+		super(type, colIndices, numRows);
+		
+		final int numCols = ubm.getNumColumns();
+		final int numVals = ubm.getNumValues();
+		
+		//determine if zero tuple is needed (rows w/o offsets)
+		int zoff = (ubm.getNumOffsets() < numRows) ? 1 : 0;
+		
+		//extract distinct values, where the zero tuple
+		//is located at code 0 (default of allocated codes)
+		_values = new double[(numVals+zoff)*numCols];
+		for( int i=0; i<numVals; i++ ) {
+			//note: deep copied internally on getValues
+			double[] tmp = ubm.getValues(i);
+			System.arraycopy(tmp, 0, _values, (i+zoff)*numCols, numCols);
+		}
+	}
+	
+	/**
+	 * Constructor for subclass methods that need to create shallow copies
+	 * 
+	 * @param type
+	 * @param colIndices
+	 * @param numRows
+	 * @param values
+	 */
+	protected ColGroupDDC(CompressionType type, int[] colIndices, int numRows, double[] values) {
+		super(type, colIndices, numRows);
+		_values = values;
+	}
+	
+	/**
+	 * Populates the codes of all rows from the given bitmaps, assuming 
+	 * the dictionary layout created by the main constructor.
+	 * 
+	 * @param ubm
+	 */
+	protected void setCodes(UncompressedBitmap ubm) {
+		final int numVals = ubm.getNumValues();
+		final int zoff = getNumValues() - numVals;
+		for( int k=0; k<numVals; k++ ) {
+			int[] list = ubm.getOffsetsList(k);
+			for( int i=0; i<list.length; i++ )
+				setCode(list[i], k+zoff);
+		}
+	}
+	
+	/**
+	 * @param r  row index
+	 * @return dictionary code of the given row
+	 */
+	public abstract int getCode(int r);
+	
+	/**
+	 * @param r     row index
+	 * @param code  dictionary code 
+	 */
+	protected abstract void setCode(int r, int code);
+	
+	/**
+	 * Serializes the codes of all rows.
+	 * 
+	 * @param out
+	 * @throws IOException
+	 */
+	protected abstract void writeCodes(DataOutput out) 
+		throws IOException;
+	
+	/**
+	 * Deserializes the codes of all rows (allocates the code array).
+	 * 
+	 * @param in
+	 * @throws IOException
+	 */
+	protected abstract void readCodes(DataInput in) 
+		throws IOException;
+	
+	/**
+	 * @return size of a single code in bytes
+	 */
+	protected abstract int getCodeSize();
+	
+	/**
+	 * @return the number of distinct value tuples in the dictionary
+	 */
+	public int getNumValues() {
+		return _values.length / _colIndexes.length;
+	}
+
+	/**
+	 * 
+	 * @return
+	 */
+	public double[] getValues() {
+		return _values;
+	}
+	
+	@Override
+	public long estimateInMemorySize() {
+		long size = super.estimateInMemorySize();
+		
+		// adding the size of values
+		size += 8; //array reference
+		if (_values != null) {
+			size += 32 + _values.length * 8; //values
+		}
+		
+		// adding the size of codes
+		size += 8; //array reference
+		size += 32 + (long)_numRows * getCodeSize();
+		
+		return size;
+	}
+	
+	@Override
+	public void decompressToBlock(MatrixBlock target) 
+	{
+		final int numCols = getNumCols();
+		final int n = getNumRows();
+		
+		for( int i=0; i<n; i++ ) {
+			int valOff = getCode(i) * numCols;
+			for( int j=0; j<numCols; j++ )
+				if( _values[valOff+j] != 0 )
+					target.appendValue(i, _colIndexes[j], _values[valOff+j]);
+		}
+	}
+
+	@Override
+	public void decompressToBlock(MatrixBlock target, int[] colIndexTargets) 
+	{
+		final int numCols = getNumCols();
+		final int n = getNumRows();
+		
+		//prepare target col indexes
+		int[] cix = new int[numCols];
+		for( int j=0; j<numCols; j++ )
+			cix[j] = colIndexTargets[_colIndexes[j]];
+		
+		for( int i=0; i<n; i++ ) {
+			int valOff = getCode(i) * numCols;
+			for( int j=0; j<numCols; j++ )
+				target.quickSetValue(i, cix[j], _values[valOff+j]);
+		}
+	}
+
+	@Override
+	public void decompressToBlock(MatrixBlock target, int colpos) 
+	{
+		final int numCols = getNumCols();
+		final int n = getNumRows();
+		double[] c = target.getDenseBlock();
+		
+		for( int i=0; i<n; i++ )
+			c[i] = _values[getCode(i)*numCols+colpos];
+		
+		target.recomputeNonZeros();
+	}
+	
+	@Override
+	public void readFields(DataInput in) 
+		throws IOException 
+	{
+		_numRows = in.readInt();
+		int numCols = in.readInt();
+		int numVals = in.readInt();
+		
+		//read col indices
+		_colIndexes = new int[ numCols ];
+		for( int i=0; i<numCols; i++ )
+			_colIndexes[i] = in.readInt();
+		
+		//read distinct values
+		_values = new double[numVals*numCols];
+		for( int i=0; i<numVals*numCols; i++ )
+			_values[i] = in.readDouble();
+		
+		//read codes
+		readCodes(in);
+	}
+	
+	@Override
+	public void write(DataOutput out) 
+		throws IOException 
+	{
+		int numCols = getNumCols();
+		int numVals = getNumValues();
+		out.writeInt(_numRows);
+		out.writeInt(numCols);
+		out.writeInt(numVals);
+		
+		//write col indices
+		for( int i=0; i<_colIndexes.length; i++ )
+			out.writeInt( _colIndexes[i] );
+		
+		//write distinct values
+		for( int i=0; i<_values.length; i++ )
+			out.writeDouble(_values[i]);
+		
+		//write codes
+		writeCodes(out);
+	}
+
+	@Override
+	public long getExactSizeOnDisk() {
+		long ret = 12; //header
+		//col indices
+		ret += 4 * _colIndexes.length; 
+		//distinct values (groups of values)
+		ret += 8 * _values.length;
+		//codes
+		ret += (long)_numRows * getCodeSize();
+		
+		return ret;
+	}
+	
+	/**
+	 * Pre-aggregates the dictionary with the given reduced right-hand side
+	 * vector, i.e., computes one partial dot product per value tuple.
+	 * 
+	 * @param sb  reduced rhs vector (values of the columns of this group) 
+	 * @return partial dot products per value tuple
+	 */
+	protected double[] preaggValues(double[] sb) {
+		final int numVals = getNumValues();
+		final int numCols = getNumCols();
+		double[] ret = new double[numVals];
+		for( int k=0, off=0; k<numVals; k++, off+=numCols ) {
+			double val = 0;
+			for( int j=0; j<numCols; j++ )
+				val += _values[off+j] * sb[j];
+			ret[k] = val;
+		}
+		return ret;
+	}
+	
+	/**
+	 * Scales the given partial results per value tuple by the dictionary 
+	 * and adds them to the output vector.
+	 * 
+	 * @param cvals  partial results per value tuple
+	 * @param c      dense output vector
+	 */
+	protected void postScaleValues(double[] cvals, double[] c) {
+		final int numVals = getNumValues();
+		final int numCols = getNumCols();
+		for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols )
+			if( cvals[k] != 0 )
+				for( int j=0; j<numCols; j++ )
+					c[ _colIndexes[j] ] += cvals[k] * _values[valOff+j];
+	}
+	
+	/**
+	 * Method for use by subclasses. Applies a scalar operation to the 
+	 * dictionary. Since zero tuples are explicitly encoded, this is correct 
+	 * for both sparse-safe and sparse-unsafe operations and the codes can 
+	 * be shared with the input.
+	 * 
+	 * @param op
+	 *            scalar operation to perform
+	 * @return transformed copy of the dictionary of this column group
+	 * @throws DMLRuntimeException
+	 */
+	protected double[] applyScalarOp(ScalarOperator op)
+		throws DMLRuntimeException 
+	{
+		//scan over linearized values
+		double[] ret = new double[_values.length];
+		for (int i = 0; i < _values.length; i++) {
+			ret[i] = op.executeScalar(_values[i]);
+		}
+
+		return ret;
+	}
+	
+	/**
+	 * Method for use by subclasses. Applies a binary row vector operation 
+	 * to the dictionary. As with scalar operations, this is correct for 
+	 * both sparse-safe and sparse-unsafe operations.
+	 * 
+	 * @param op
+	 *            binary operation to perform
+	 * @param v
+	 *            dense row vector of the entire matrix block width
+	 * @return transformed copy of the dictionary of this column group
+	 * @throws DMLRuntimeException
+	 */
+	protected double[] applyBinaryRowOp(BinaryOperator op, double[] v)
+		throws DMLRuntimeException 
+	{
+		final int numCols = getNumCols();
+		
+		//scan over linearized values
+		double[] ret = new double[_values.length];
+		for( int i=0; i<_values.length; i+=numCols )
+			for( int j=0; j<numCols; j++ )
+				ret[i+j] = op.fn.execute(_values[i+j], v[_colIndexes[j]]);
+		
+		return ret;
+	}
+	
+	/**
+	 * @return number of rows per dictionary code
+	 */
+	protected int[] getCounts() {
+		final int n = getNumRows();
+		int[] counts = new int[getNumValues()];
+		for( int i=0; i<n; i++ )
+			counts[getCode(i)]++;
+		return counts;
+	}
+
+	@Override
+	public void unaryAggregateOperations(AggregateUnaryOperator op, MatrixBlock result) 
+		throws DMLRuntimeException 
+	{
+		KahanFunction kplus = (op.aggOp.increOp.fn instanceof KahanPlus) ?
+				KahanPlus.getKahanPlusFnObject() : KahanPlusSq.getKahanPlusSqFnObject();
+		
+		if( op.indexFn instanceof ReduceAll )
+			computeSum(result, kplus);
+		else if( op.indexFn instanceof ReduceCol )
+			computeRowSums(result, kplus);
+		else if( op.indexFn instanceof ReduceRow )
+			computeColSums(result, kplus);
+	}
+	
+	/**
+	 * 
+	 * @param result
+	 * @param kplus
+	 */
+	private void computeSum(MatrixBlock result, KahanFunction kplus)
+	{
+		KahanObject kbuff = new KahanObject(result.quickGetValue(0, 0), result.quickGetValue(0, 1));
+		final int numVals = getNumValues();
+		final int numCols = getNumCols();
+		int[] counts = getCounts();
+		
+		//scale counts by all values
+		for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols )
+			if( counts[k] > 0 )
+				for( int j=0; j<numCols; j++ )
+					kplus.execute3(kbuff, _values[valOff+j], counts[k]);
+		
+		result.quickSetValue(0, 0, kbuff._sum);
+		result.quickSetValue(0, 1, kbuff._correction);
+	}
+	
+	/**
+	 * 
+	 * @param result
+	 * @param kplus
+	 */
+	private void computeRowSums(MatrixBlock result, KahanFunction kplus)
+	{
+		KahanObject kbuff = new KahanObject(0, 0);
+		KahanPlus kplus2 = KahanPlus.getKahanPlusFnObject();
+		final int numVals = getNumValues();
+		final int numCols = getNumCols();
+		final int n = getNumRows();
+		
+		//pre-aggregate (squared) values per value tuple
+		double[] vals = new double[numVals];
+		for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols ) {
+			kbuff.set(0, 0);
+			for( int j=0; j<numCols; j++ )
+				kplus.execute2(kbuff, _values[valOff+j]);
+			vals[k] = kbuff._sum;
+		}
+		
+		//add pre-aggregated values to all rows
+		for( int i=0; i<n; i++ ) {
+			double val = vals[getCode(i)];
+			if( val != 0 ) {
+				kbuff.set(result.quickGetValue(i, 0), result.quickGetValue(i, 1));
+				kplus2.execute2(kbuff, val);
+				result.quickSetValue(i, 0, kbuff._sum);
+				result.quickSetValue(i, 1, kbuff._correction);
+			}
+		}
+	}
+	
+	/**
+	 * 
+	 * @param result
+	 * @param kplus
+	 */
+	private void computeColSums(MatrixBlock result, KahanFunction kplus)
+	{
+		KahanObject kbuff = new KahanObject(0, 0);
+		final int numVals = getNumValues();
+		final int numCols = getNumCols();
+		int[] counts = getCounts();
+		
+		//scale counts by all values
+		for( int j=0; j<numCols; j++ ) {
+			kbuff.set(result.quickGetValue(0, _colIndexes[j]),result.quickGetValue(1, _colIndexes[j]));
+			for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols )
+				if( counts[k] > 0 )
+					kplus.execute3(kbuff, _values[valOff+j], counts[k]);
+			result.quickSetValue(0, _colIndexes[j], kbuff._sum);
+			result.quickSetValue(1, _colIndexes[j], kbuff._correction);
+		}
+	}
+	
+	@Override
+	protected void countNonZerosPerRow(int[] rnnz)
+	{
+		final int numVals = getNumValues();
+		final int numCols = getNumCols();
+		final int n = getNumRows();
+		
+		//count non-zeros per value tuple
+		int[] nnz = new int[numVals];
+		for( int k=0, valOff=0; k<numVals; k++, valOff+=numCols )
+			for( int j=0; j<numCols; j++ )
+				nnz[k] += (_values[valOff+j]!=0) ? 1 : 0;
+		
+		for( int i=0; i<n; i++ )
+			rnnz[i] += nnz[getCode(i)];
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.compress;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.compress.utils.ConverterUtils;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+
+/**
+ * Class to encapsulate information about a column group that is encoded with
+ * dense dictionary encoding (DDC) using 1-byte codes, i.e., for at most 255
+ * distinct value tuples (incl the zero tuple).
+ */
+public class ColGroupDDC1 extends ColGroupDDC 
+{
+	private static final long serialVersionUID = 5204955589230760157L;
+	
+	public static final int MAX_NUM_VALUES = 255;
+	
+	private byte[] _data; //codes per row
+	
+	public ColGroupDDC1() {
+		super(CompressionType.DDC1);
+	}
+	
+	/**
+	 * Main constructor. Constructs and stores the dictionary and codes.
+	 * 
+	 * @param colIndices
+	 *            indices (within the block) of the columns included in this
+	 *            column
+	 * @param numRows
+	 *            total number of rows in the parent block
+	 * @param ubm
+	 *            Uncompressed bitmap representation of the block
+	 */
+	public ColGroupDDC1(int[] colIndices, int numRows, UncompressedBitmap ubm) 
+	{
+		super(CompressionType.DDC1, colIndices, numRows, ubm);
+		_data = new byte[numRows];
+		setCodes(ubm);
+	}
+	
+	/**
+	 * Constructor for internal use.
+	 */
+	public ColGroupDDC1(int[] colIndices, int numRows, double[] values, byte[] data) {
+		super(CompressionType.DDC1, colIndices, numRows, values);
+		_data = data;
+	}
+	
+	public byte[] getData() {
+		return _data;
+	}
+	
+	@Override
+	public int getCode(int r) {
+		return _data[r] & 0xFF;
+	}
+	
+	@Override
+	protected void setCode(int r, int code) {
+		_data[r] = (byte)code;
+	}
+	
+	@Override
+	protected int getCodeSize() {
+		return 1;
+	}
+	
+	@Override
+	protected void writeCodes(DataOutput out) 
+		throws IOException 
+	{
+		out.write(_data);
+	}
+	
+	@Override
+	protected void readCodes(DataInput in) 
+		throws IOException 
+	{
+		_data = new byte[_numRows];
+		in.readFully(_data);
+	}
+	
+	@Override
+	public ColGroup scalarOperation(ScalarOperator op)
+		throws DMLRuntimeException 
+	{
+		//fast path for sparse-safe and -unsafe operations
+		//(zero tuples are encoded, codes are shallow-copied)
+		return new ColGroupDDC1(_colIndexes, _numRows, applyScalarOp(op), _data);
+	}
+
+	@Override
+	public ColGroup binaryRowVectorOperation(BinaryOperator op, double[] v)
+		throws DMLRuntimeException 
+	{
+		//operation on dictionary only (codes are shallow-copied)
+		return new ColGroupDDC1(_colIndexes, _numRows, applyBinaryRowOp(op, v), _data);
+	}
+	
+	@Override
+	public void rightMultByVector(MatrixBlock vector, MatrixBlock result, int rl, int ru)
+		throws DMLRuntimeException 
+	{
+		double[] b = ConverterUtils.getDenseVector(vector);
+		double[] c = result.getDenseBlock();
+		final int numCols = getNumCols();
+		
+		//prepare reduced rhs w/ relevant values
+		double[] sb = new double[numCols];
+		for (int j = 0; j < numCols; j++) {
+			sb[j] = b[_colIndexes[j]];
+		}
+		
+		//pre-aggregate values per dictionary entry
+		double[] vals = preaggValues(sb);
+		
+		//iterate over codes and add pre-aggregated values
+		for( int i=rl; i<ru; i++ )
+			c[i] += vals[_data[i] & 0xFF];
+	}
+	
+	@Override
+	public void leftMultByRowVector(MatrixBlock vector, MatrixBlock result)
+		throws DMLRuntimeException 
+	{
+		double[] a = ConverterUtils.getDenseVector(vector);
+		double[] c = result.getDenseBlock();
+		final int n = getNumRows();
+		
+		//iterate over codes and pre-aggregate inputs per code
+		double[] cvals = new double[getNumValues()];
+		for( int i=0; i<n; i++ )
+			cvals[_data[i] & 0xFF] += a[i];
+		
+		//scale partial results by values and write to global output
+		postScaleValues(cvals, c);
+	}
+}
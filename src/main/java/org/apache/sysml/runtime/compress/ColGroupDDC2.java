@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.compress;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.compress.utils.ConverterUtils;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+
+/**
+ * Class to encapsulate information about a column group that is encoded with
+ * dense dictionary encoding (DDC) using 2-byte codes, i.e., for at most 65535
+ * distinct value tuples (incl the zero tuple).
+ */
+public class ColGroupDDC2 extends ColGroupDDC 
+{
+	private static final long serialVersionUID = 7811462013547938521L;
+	
+	public static final int MAX_NUM_VALUES = 65535;
+	
+	private char[] _data; //codes per row
+	
+	public ColGroupDDC2() {
+		super(CompressionType.DDC2);
+	}
+	
+	/**
+	 * Main constructor. Constructs and stores the dictionary and codes.
+	 * 
+	 * @param colIndices
+	 *            indices (within the block) of the columns included in this
+	 *            column
+	 * @param numRows
+	 *            total number of rows in the parent block
+	 * @param ubm
+	 *            Uncompressed bitmap representation of the block
+	 */
+	public ColGroupDDC2(int[] colIndices, int numRows, UncompressedBitmap ubm) 
+	{
+		super(CompressionType.DDC2, colIndices, numRows, ubm);
+		_data = new char[numRows];
+		setCodes(ubm);
+	}
+	
+	/**
+	 * Constructor for internal use.
+	 */
+	public ColGroupDDC2(int[] colIndices, int numRows, double[] values, char[] data) {
+		super(CompressionType.DDC2, colIndices, numRows, values);
+		_data = data;
+	}
+	
+	public char[] getData() {
+		return _data;
+	}
+	
+	@Override
+	public int getCode(int r) {
+		return _data[r];
+	}
+	
+	@Override
+	protected void setCode(int r, int code) {
+		_data[r] = (char)code;
+	}
+	
+	@Override
+	protected int getCodeSize() {
+		return 2;
+	}
+	
+	@Override
+	protected void writeCodes(DataOutput out) 
+		throws IOException 
+	{
+		for( int i=0; i<_numRows; i++ )
+			out.writeChar(_data[i]);
+	}
+	
+	@Override
+	protected void readCodes(DataInput in) 
+		throws IOException 
+	{
+		_data = new char[_numRows];
+		for( int i=0; i<_numRows; i++ )
+			_data[i] = in.readChar();
+	}
+	
+	@Override
+	public ColGroup scalarOperation(ScalarOperator op)
+		throws DMLRuntimeException 
+	{
+		//fast path for sparse-safe and -unsafe operations
+		//(zero tuples are encoded, codes are shallow-copied)
+		return new ColGroupDDC2(_colIndexes, _numRows, applyScalarOp(op), _data);
+	}
+
+	@Override
+	public ColGroup binaryRowVectorOperation(BinaryOperator op, double[] v)
+		throws DMLRuntimeException 
+	{
+		//operation on dictionary only (codes are shallow-copied)
+		return new ColGroupDDC2(_colIndexes, _numRows, applyBinaryRowOp(op, v), _data);
+	}
+	
+	@Override
+	public void rightMultByVector(MatrixBlock vector, MatrixBlock result, int rl, int ru)
+		throws DMLRuntimeException 
+	{
+		double[] b = ConverterUtils.getDenseVector(vector);
+		double[] c = result.getDenseBlock();
+		final int numCols = getNumCols();
+		
+		//prepare reduced rhs w/ relevant values
+		double[] sb = new double[numCols];
+		for (int j = 0; j < numCols; j++) {
+			sb[j] = b[_colIndexes[j]];
+		}
+		
+		//pre-aggregate values per dictionary entry
+		double[] vals = preaggValues(sb);
+		
+		//iterate over codes and add pre-aggregated values
+		for( int i=rl; i<ru; i++ )
+			c[i] += vals[_data[i]];
+	}
+	
+	@Override
+	public void leftMultByRowVector(MatrixBlock vector, MatrixBlock result)
+		throws DMLRuntimeException 
+	{
+		double[] a = ConverterUtils.getDenseVector(vector);
+		double[] c = result.getDenseBlock();
+		final int n = getNumRows();
+		
+		//iterate over codes and pre-aggregate inputs per code
+		double[] cvals = new double[getNumValues()];
+		for( int i=0; i<n; i++ )
+			cvals[_data[i]] += a[i];
+		
+		//scale partial results by values and write to global output
+		postScaleValues(cvals, c);
+	}
+}
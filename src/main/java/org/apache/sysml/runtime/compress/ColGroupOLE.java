@@ -34,6 +34,7 @@ import org.apache.sysml.runtime.functionobjects.ReduceRow;
 import org.apache.sysml.runtime.instructions.cp.KahanObject;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.operators.AggregateUnaryOperator;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
 import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
 
 /**
@@ -263,6 +264,37 @@ public class ColGroupOLE extends ColGroupBitmap
 				rvalues, rbitmaps, rbitmapOffs);
 	}
 
+	@Override
+	public ColGroup binaryRowVectorOperation(BinaryOperator op, double[] v)
+		throws DMLRuntimeException 
+	{
+		//fast path: sparse-safe operations
+		// Note that bitmaps don't change and are shallow-copied
+		if( isSparseSafeRowOp(op, v) ) {
+			return new ColGroupOLE(_colIndexes, _numRows, 
+					applyBinaryRowOp(op, v, false), _data, _ptr);
+		}
+		
+		//slow path: sparse-unsafe operations (potentially create new bitmap)
+		//note: for efficiency, we currently don't drop values that become 0
+		boolean[] lind = computeZeroIndicatorVector();
+		int[] loff = computeOffsets(lind);
+		if( loff.length==0 ) { //empty offset list: go back to fast path
+			return new ColGroupOLE(_colIndexes, _numRows, 
+					applyBinaryRowOp(op, v, false), _data, _ptr);
+		}
+		
+		double[] rvalues = applyBinaryRowOp(op, v, true);
+		char[] lbitmap = BitmapEncoder.genOffsetBitmap(loff);
+		char[] rbitmaps = Arrays.copyOf(_data, _data.length+lbitmap.length);
+		System.arraycopy(lbitmap, 0, rbitmaps, _data.length, lbitmap.length);
+		int[] rbitmapOffs = Arrays.copyOf(_ptr, _ptr.length+1);
+		rbitmapOffs[rbitmapOffs.length-1] = rbitmaps.length; 
+		
+		return new ColGroupOLE(_colIndexes, _numRows, 
+				rvalues, rbitmaps, rbitmapOffs);
+	}
+
 	@Override
 	public void rightMultByVector(MatrixBlock vector, MatrixBlock result, int rl, int ru)
 			throws DMLRuntimeException 
@@ -32,6 +32,7 @@ import org.apache.sysml.runtime.matrix.data.LibMatrixAgg;
 import org.apache.sysml.runtime.matrix.data.LibMatrixMult;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.operators.AggregateUnaryOperator;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
 import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
 import org.apache.sysml.runtime.util.SortUtils;
 
@@ -307,6 +308,27 @@ public class ColGroupUncompressed extends ColGroup
 		//construct new uncompressed column group
 		return new ColGroupUncompressed(getColIndices(), _data.getNumRows(), retContent);
 	}
+
+	@Override
+	public ColGroup binaryRowVectorOperation(BinaryOperator op, double[] v)
+			throws DMLRuntimeException 
+	{
+		//extract relevant part of the row vector
+		final int numCols = getNumCols();
+		MatrixBlock vect = new MatrixBlock(1, numCols, false);
+		vect.allocateDenseBlock();
+		double[] a = vect.getDenseBlock();
+		for( int j=0; j<numCols; j++ )
+			a[j] = v[_colIndexes[j]];
+		vect.recomputeNonZeros();
+		
+		//execute binary operations
+		MatrixBlock retContent = (MatrixBlock) _data
+				.binaryOperations(op, vect, new MatrixBlock());
+
+		//construct new uncompressed column group
+		return new ColGroupUncompressed(getColIndices(), _data.getNumRows(), retContent);
+	}
 	
 	@Override
 	public void unaryAggregateOperations(AggregateUnaryOperator op, MatrixBlock ret)
@@ -33,7 +33,6 @@ import java.util.List;
 import java.util.PriorityQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import org.apache.commons.logging.Log;
@@ -57,6 +56,7 @@ import org.apache.sysml.runtime.functionobjects.Multiply;
 import org.apache.sysml.runtime.functionobjects.ReduceRow;
 import org.apache.sysml.runtime.instructions.cp.KahanObject;
 import org.apache.sysml.runtime.matrix.data.LibMatrixBincell;
+import org.apache.sysml.runtime.matrix.data.LibMatrixBincell.BinaryAccessType;
 import org.apache.sysml.runtime.matrix.data.LibMatrixReorg;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
@@ -66,6 +66,7 @@ import org.apache.sysml.runtime.matrix.operators.AggregateBinaryOperator;
 import org.apache.sysml.runtime.matrix.operators.AggregateUnaryOperator;
 import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
 import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+import org.apache.sysml.runtime.util.CommonThreadPool;
 
 /**
  * Experimental version of MatrixBlock that allows a compressed internal
@@ -79,6 +80,7 @@ public class CompressedMatrixBlock extends MatrixBlock implements Externalizable
 	public static final int MAX_NUMBER_COCODING_COLUMNS = 1000;
 	public static final double MIN_COMPRESSION_RATIO = 2.0;
 	public static final double MIN_RLE_RATIO = 1.0; // Minimum additional compression (non-RLE size / RLE size) before we switch to run-length encoding.
+	public static final boolean ALLOW_DDC_ENCODING = true; // Allow dense dictionary coding if smaller than OLE and RLE.
 	public static final boolean TRANSPOSE_INPUT = true;
 	public static final boolean MATERIALIZE_ZEROS = false;
 	public static final long MIN_PAR_AGG_THRESHOLD = 16*1024*1024; //16MB
@@ -355,9 +357,18 @@ public class CompressedMatrixBlock extends MatrixBlock implements Externalizable
 				continue;
 			long rleNumBytes = bitmapSizeInfo.getRLESize();
 			long offsetNumBytes = bitmapSizeInfo.getOLESize();
+			long ddcNumBytes = bitmapSizeInfo.getDDCSize();
 			double rleRatio = (double) offsetNumBytes / (double) rleNumBytes;
 
-			if (rleRatio > MIN_RLE_RATIO) {
+			if (ALLOW_DDC_ENCODING && ddcNumBytes < Math.min(rleNumBytes, offsetNumBytes)) {
+				//note: DDC1 if dictionary (incl zero tuple) fits into 1-byte codes
+				int numVals = ubm.getNumValues() + ((ubm.getNumOffsets() < numRows) ? 1 : 0);
+				ColGroupDDC compressedGroup = (numVals <= ColGroupDDC1.MAX_NUM_VALUES) ?
+					new ColGroupDDC1(groupIndices, numRows, ubm) :
+					new ColGroupDDC2(groupIndices, numRows, ubm);
+				_colGroups.add(compressedGroup);
+			}
+			else if (rleRatio > MIN_RLE_RATIO) {
 				ColGroupRLE compressedGroup = new ColGroupRLE(groupIndices,
 						numRows, ubm);
 				_colGroups.add(compressedGroup);
@@ -531,6 +542,10 @@ public class CompressedMatrixBlock extends MatrixBlock implements Externalizable
 					grp = new ColGroupOLE(); break;
 				case RLE_BITMAP:
 					grp = new ColGroupRLE(); break;
+				case DDC1:
+					grp = new ColGroupDDC1(); break;
+				case DDC2:
+					grp = new ColGroupDDC2(); break;
 			}
 			
 			//deserialize and add column group
@@ -626,6 +641,87 @@ public class CompressedMatrixBlock extends MatrixBlock implements Externalizable
 		return ret;
 	}
 
+	@Override
+	public MatrixValue binaryOperations(BinaryOperator op, MatrixValue thatValue, MatrixValue result) 
+		throws DMLRuntimeException
+	{
+		MatrixBlock that = (MatrixBlock) thatValue;
+		if( that instanceof CompressedMatrixBlock )
+			that = ((CompressedMatrixBlock) that).decompress();
+		
+		//call uncompressed binary operation if necessary
+		if( !isCompressed() ) {
+			return super.binaryOperations(op, that, result);
+		}
+		
+		if( !LibMatrixBincell.isValidDimensionsBinary(this, that) ) {
+			throw new DMLRuntimeException("Block sizes are not matched for binary " +
+					"cell operations: "+rlen+"x"+clen+" vs "+ that.getNumRows()+"x"+that.getNumColumns());
+		}
+		
+		BinaryAccessType atype = LibMatrixBincell.getBinaryAccessType(this, that);
+		
+		//matrix-row vector: apply the operation to each of the column groups,
+		//which mostly modifies the dictionaries but keeps the data compressed
+		if( atype == BinaryAccessType.MATRIX_ROW_VECTOR ) {
+			//allocate the output matrix block
+			CompressedMatrixBlock ret = null;
+			if( result==null || !(result instanceof CompressedMatrixBlock) )
+				ret = new CompressedMatrixBlock(getNumRows(), getNumColumns(), sparse);
+			else {
+				ret = (CompressedMatrixBlock) result;
+				ret.reset(rlen, clen);
+			}
+			
+			double[] v = that.isEmptyBlock(false) ? new double[clen] :
+				ConverterUtils.getDenseVector(that);
+			ArrayList<ColGroup> newColGroups = new ArrayList<ColGroup>();
+			for (ColGroup grp : _colGroups) {
+				newColGroups.add(grp.binaryRowVectorOperation(op, v));
+			}
+			ret._colGroups = newColGroups;
+			ret.setNonZeros(rlen*clen);
+			
+			return ret;
+		}
+		
+		//matrix-column vector: values depend on the row, hence we compute the
+		//output group by group (only one decompressed group at a time)
+		if( atype == BinaryAccessType.MATRIX_COL_VECTOR ) {
+			MatrixBlock ret = new MatrixBlock(rlen, clen, false);
+			ret.allocateDenseBlock();
+			double[] c = ret.getDenseBlock();
+			for (ColGroup grp : _colGroups) {
+				ColGroupUncompressed ucgrp = (grp instanceof ColGroupUncompressed) ? 
+					(ColGroupUncompressed) grp : new ColGroupUncompressed(new ArrayList<ColGroup>(Arrays.asList(grp)));
+				MatrixBlock tmp = (MatrixBlock) ucgrp.getData()
+					.binaryOperations(op, that, new MatrixBlock());
+				int[] cols = ucgrp.getColIndices();
+				if( !tmp.isEmptyBlock(false) )
+					for( int i=0, cix=0; i<rlen; i++, cix+=clen )
+						for( int j=0; j<cols.length; j++ )
+							c[cix+cols[j]] = tmp.quickGetValue(i, j);
+			}
+			ret.recomputeNonZeros();
+			ret.examSparsity();
+			return ret;
+		}
+		
+		//other binary operations (e.g., matrix-matrix) on uncompressed block
+		MatrixBlock tmp = decompress();
+		return tmp.binaryOperations(op, that, result);
+	}
+
+	@Override
+	public MatrixBlock appendOperationsInPlace(MatrixBlock that, boolean cbind) 
+		throws DMLRuntimeException
+	{
+		//no in-place append of compressed blocks (column groups are immutable)
+		if( isCompressed() )
+			return appendOperations(that, new MatrixBlock(), cbind);
+		return super.appendOperationsInPlace(that, cbind);
+	}
+	
 	@Override
 	public MatrixBlock appendOperations(MatrixBlock that, MatrixBlock ret) 
 		throws DMLRuntimeException
@@ -861,7 +957,7 @@ public class CompressedMatrixBlock extends MatrixBlock implements Externalizable
 			ColGroupUncompressed uc = getUncompressedColGroup();
 			try {
 				//compute all compressed column groups
-				ExecutorService pool = Executors.newFixedThreadPool( op.getNumThreads() );
+				ExecutorService pool = CommonThreadPool.get( op.getNumThreads() );
 				ArrayList<UnaryAggregateTask> tasks = new ArrayList<UnaryAggregateTask>();
 				for( ArrayList<ColGroup> grp : grpParts )
 					tasks.add(new UnaryAggregateTask(grp, ret, op));
@@ -977,7 +1073,7 @@ public class CompressedMatrixBlock extends MatrixBlock implements Externalizable
 		if( !isEmptyBlock(false) ) {
 			//compute matrix mult
 			try {
-				ExecutorService pool = Executors.newFixedThreadPool( k );
+				ExecutorService pool = CommonThreadPool.get( k );
 				ArrayList<MatrixMultTransposeTask> tasks = new ArrayList<MatrixMultTransposeTask>();
 				int blklen = (int)(Math.ceil((double)clen/(2*k)));
 				for( int i=0; i<2*k & i*blklen<clen; i++ )
@@ -1045,7 +1141,7 @@ public class CompressedMatrixBlock extends MatrixBlock implements Externalizable
 
 		//multi-threaded execution of all groups
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			int rlen = getNumRows();
 			int seqsz = BitmapEncoder.BITMAP_BLOCK_SZ;
 			int blklen = (int)(Math.ceil((double)rlen/k));
@@ -1124,7 +1220,7 @@ public class CompressedMatrixBlock extends MatrixBlock implements Externalizable
 
 		//multi-threaded execution
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( Math.min(colGroups.size(), k) );
+			ExecutorService pool = CommonThreadPool.get( Math.min(colGroups.size(), k) );
 			ArrayList<LeftMatrixMultTask> tasks = new ArrayList<LeftMatrixMultTask>();
 			for( ColGroup grp : colGroups )
 				tasks.add(new LeftMatrixMultTask(grp, rowVector, result, kuc));
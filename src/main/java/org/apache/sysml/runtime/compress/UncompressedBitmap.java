@@ -24,7 +24,7 @@ import java.util.Arrays;
 import org.apache.sysml.runtime.compress.utils.DblArrayIntListHashMap;
 import org.apache.sysml.runtime.compress.utils.DoubleIntListHashMap;
 import org.apache.sysml.runtime.compress.utils.DblArrayIntListHashMap.DArrayIListEntry;
-import org.apache.sysml.runtime.compress.utils.DoubleIntListHashMap.DIListEntry;
+import org.apache.sysml.runtime.compress.utils.DoubleIntListHashMap.DIListIterator;
 
 /** 
  * Uncompressed representation of one or more columns in bitmap format. 
@@ -63,9 +63,11 @@ public final class UncompressedBitmap
 		_values = new double[numVals];
 		_offsetsLists = new int[numVals][];
 		int bitmapIx = 0;
-		for(DIListEntry val : distinctVals.extractValues()) {
-			_values[bitmapIx] = val.key;
-			_offsetsLists[bitmapIx++] = val.value.extractValues();
+		DIListIterator iter = distinctVals.getIterator();
+		while( iter.hasNext() ) {
+			iter.next();
+			_values[bitmapIx] = iter.getKey();
+			_offsetsLists[bitmapIx++] = iter.getValue().extractValues();
 		}
 		_numCols = 1;
 	}
@@ -98,4 +100,15 @@ public final class UncompressedBitmap
 	public int[] getOffsetsList(int ix) {
 		return _offsetsLists[ix];
 	}
+	
+	/**
+	 * @return total number of offsets over all distinct values, i.e.,
+	 *         the number of rows with non-zero value tuples
+	 */
+	public int getNumOffsets() {
+		int ret = 0;
+		for( int[] offlist : _offsetsLists )
+			ret += offlist.length;
+		return ret;
+	}
 }
@@ -20,6 +20,8 @@
 package org.apache.sysml.runtime.compress.estim;
 
 import org.apache.sysml.runtime.compress.BitmapEncoder;
+import org.apache.sysml.runtime.compress.ColGroupDDC2;
+import org.apache.sysml.runtime.compress.CompressedMatrixBlock;
 import org.apache.sysml.runtime.compress.UncompressedBitmap;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 
@@ -29,9 +31,12 @@ import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 public abstract class CompressedSizeEstimator 
 {
 	protected MatrixBlock _data;
+	protected final int _numRows;
 
 	public CompressedSizeEstimator(MatrixBlock data) {
 		_data = data;
+		_numRows = CompressedMatrixBlock.TRANSPOSE_INPUT ? 
+				_data.getNumColumns() : _data.getNumRows();
 	}
 
 	/**
@@ -124,6 +129,26 @@ public abstract class CompressedSizeEstimator
 		return ret;
 	}
 	
+	/**
+	 * Estimates the number of bytes needed to encode this column group 
+	 * in DDC1 or DDC2 format, depending on the number of distinct values.
+	 * 
+	 * @param numVals  number of distinct value tuples, incl zero tuple
+	 * @param numRows
+	 * @param numCols
+	 * @return
+	 */
+	protected static long getDDCSize(int numVals, int numRows, int numCols) {
+		if( numVals > ColGroupDDC2.MAX_NUM_VALUES )
+			return Long.MAX_VALUE;
+		long ret = 0;
+		//distinct value tuples [double per col]
+		ret += 8L * numVals * numCols;
+		//codes per row [1 or 2 byte]
+		ret += (long)numRows * ((numVals > 255) ? 2 : 1);
+		return ret;
+	}
+	
 	/**
 	 * 
 	 */
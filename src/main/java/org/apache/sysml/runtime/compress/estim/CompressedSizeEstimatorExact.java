@@ -45,9 +45,12 @@ public class CompressedSizeEstimatorExact extends CompressedSizeEstimator
 		//compute size estimation factors
 		SizeEstimationFactors fact = computeSizeEstimationFactors(ubm, true);
 		
+		int numZeroTuples = (fact.numOffs < _numRows) ? 1 : 0;
+		
 		//construct new size info summary
 		return new CompressedSizeInfo(fact.numVals,
 				getRLESize(fact.numVals, fact.numRuns, ubm.getNumColumns()),
-				getOLESize(fact.numVals, fact.numOffs, fact.numSegs, ubm.getNumColumns()));
+				getOLESize(fact.numVals, fact.numOffs, fact.numSegs, ubm.getNumColumns()),
+				getDDCSize(fact.numVals+numZeroTuples, _numRows, ubm.getNumColumns()));
 	}
 }
@@ -46,7 +46,6 @@ public class CompressedSizeEstimatorSample extends CompressedSizeEstimator
 
 	private int[] _sampleRows = null;
 	private RandomDataGenerator _rng = null;
-	private int _numRows = -1;
 	
 	/**
 	 * 
@@ -57,8 +56,6 @@ public class CompressedSizeEstimatorSample extends CompressedSizeEstimator
 		super(data);
 		_sampleRows = sampleRows;
 		_rng = new RandomDataGenerator();
-		_numRows = CompressedMatrixBlock.TRANSPOSE_INPUT ? 
-				_data.getNumColumns() : _data.getNumRows();
 	}
 
 	/**
@@ -130,11 +127,13 @@ public class CompressedSizeEstimatorSample extends CompressedSizeEstimator
 				/ BitmapEncoder.BITMAP_BLOCK_SZ);
 		int totalNumSeg = fact.numSegs + numUnseenSeg;
 		int totalNumRuns = getNumRuns(ubm, sampleSize, _numRows) + unseen;
-
+		int numZeroTuples = (totalNumOffs < _numRows) ? 1 : 0;
+		
 		//construct new size info summary
 		return new CompressedSizeInfo(totalCardinality,
 				getRLESize(totalCardinality, totalNumRuns, colIndexes.length),
-				getOLESize(totalCardinality, totalNumOffs, totalNumSeg, colIndexes.length));
+				getOLESize(totalCardinality, totalNumOffs, totalNumSeg, colIndexes.length),
+				getDDCSize(totalCardinality+numZeroTuples, _numRows, colIndexes.length));
 	}
 
 	@Override
@@ -143,10 +142,13 @@ public class CompressedSizeEstimatorSample extends CompressedSizeEstimator
 		//compute size estimation factors
 		SizeEstimationFactors fact = computeSizeEstimationFactors(ubm, true);
 		
+		int numZeroTuples = (fact.numOffs < _numRows) ? 1 : 0;
+		
 		//construct new size info summary
 		return new CompressedSizeInfo(fact.numVals,
 				getRLESize(fact.numVals, fact.numRuns, ubm.getNumColumns()),
-				getOLESize(fact.numVals, fact.numOffs, fact.numSegs, ubm.getNumColumns()));
+				getOLESize(fact.numVals, fact.numOffs, fact.numSegs, ubm.getNumColumns()),
+				getDDCSize(fact.numVals+numZeroTuples, _numRows, ubm.getNumColumns()));
 	}
 	
 	/**
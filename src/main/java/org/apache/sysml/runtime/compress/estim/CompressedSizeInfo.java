@@ -28,15 +28,17 @@ public class CompressedSizeInfo
 	private int _estCard = -1;
 	private long _rleSize = -1; 
 	private long _oleSize = -1;
+	private long _ddcSize = -1;
 
 	public CompressedSizeInfo() {
 		
 	}
 
-	public CompressedSizeInfo(int estCard, long rleSize, long oleSize) {
+	public CompressedSizeInfo(int estCard, long rleSize, long oleSize, long ddcSize) {
 		_estCard = estCard;
 		_rleSize = rleSize;
 		_oleSize = oleSize;
+		_ddcSize = ddcSize;
 	}
 
 	public void setRLESize(long rleSize) {
@@ -55,8 +57,16 @@ public class CompressedSizeInfo
 		return _oleSize;
 	}
 
+	public void setDDCSize(long ddcSize) {
+		_ddcSize = ddcSize;
+	}
+
+	public long getDDCSize() {
+		return _ddcSize;
+	}
+
 	public long getMinSize() {
-		return Math.min(_rleSize, _oleSize);
+		return Math.min(Math.min(_rleSize, _oleSize), _ddcSize);
 	}
 
 	public void setEstCardinality(int estCard) {
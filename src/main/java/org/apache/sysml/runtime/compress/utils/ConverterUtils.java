@@ -23,6 +23,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 
 import org.apache.sysml.runtime.compress.ColGroup;
+import org.apache.sysml.runtime.compress.ColGroupDDC1;
+import org.apache.sysml.runtime.compress.ColGroupDDC2;
 import org.apache.sysml.runtime.compress.ColGroupOLE;
 import org.apache.sysml.runtime.compress.ColGroupRLE;
 import org.apache.sysml.runtime.compress.ColGroupUncompressed;
@@ -60,6 +62,14 @@ public class ConverterUtils
 			ret = new ColGroupOLE(colIndices, in.getNumRows(), in.getValues(), 
 					in.getBitmaps(), in.getBitmapOffsets());
 		}
+		else if( group instanceof ColGroupDDC1 ) {
+			ColGroupDDC1 in = (ColGroupDDC1) group;
+			ret = new ColGroupDDC1(colIndices, in.getNumRows(), in.getValues(), in.getData());
+		}
+		else if( group instanceof ColGroupDDC2 ) {
+			ColGroupDDC2 in = (ColGroupDDC2) group;
+			ret = new ColGroupDDC2(colIndices, in.getNumRows(), in.getValues(), in.getData());
+		}
 		
 		return ret;
 	}
@@ -17,13 +17,16 @@
  * under the License.
  */
 
+
 package org.apache.sysml.runtime.compress.utils;
 
 import java.util.ArrayList;
 
 /**
  * This class provides a memory-efficient replacement for
- * HashMap<Double,IntArrayList> for restricted use cases.
+ * HashMap<Double,IntArrayList> for restricted use cases. It uses
+ * open addressing with linear probing over parallel arrays of keys 
+ * and values, where empty slots are marked by null values.
  * 
  */
 public class DoubleIntListHashMap 
@@ -32,11 +35,13 @@ public class DoubleIntListHashMap
 	private static final int RESIZE_FACTOR = 2;
 	private static final float LOAD_FACTOR = 0.75f;
 
-	private DIListEntry[] _data = null;
+	private double[] _keys = null;
+	private IntArrayList[] _values = null;
 	private int _size = -1;
 
 	public DoubleIntListHashMap() {
-		_data = new DIListEntry[INIT_CAPACITY];
+		_keys = new double[INIT_CAPACITY];
+		_values = new IntArrayList[INIT_CAPACITY];
 		_size = 0;
 	}
 
@@ -58,38 +63,39 @@ public class DoubleIntListHashMap
 		if( _size == 0 )
 			return null;
 
-		// compute entry index position
-		int hash = hash(key);
-		int ix = indexFor(hash, _data.length);
-
-		// find entry
-		for( DIListEntry e = _data[ix]; e != null; e = e.next ) {
-			if( e.key == key ) {
-				return e.value;
-			}
+		// probe for existing entry
+		int mask = _keys.length - 1;
+		int ix = hash(key) & mask;
+		while( _values[ix] != null ) {
+			if( _keys[ix] == key )
+				return _values[ix];
+			ix = (ix + 1) & mask;
 		}
 
 		return null;
 	}
 
 	/**
+	 * Appends a new key - value pair, where the key is assumed to
+	 * be non-existing and the value must not be null.
 	 * 
 	 * @param key
 	 * @param value
 	 */
 	public void appendValue(double key, IntArrayList value) {
-		// compute entry index position
-		int hash = hash(key);
-		int ix = indexFor(hash, _data.length);
-
-		// add new table entry (constant time)
-		DIListEntry enew = new DIListEntry(key, value);
-		enew.next = _data[ix]; // colliding entries / null
-		_data[ix] = enew;
+		// find empty slot (linear probing)
+		int mask = _keys.length - 1;
+		int ix = hash(key) & mask;
+		while( _values[ix] != null )
+			ix = (ix + 1) & mask;
+
+		// add new table entry
+		_keys[ix] = key;
+		_values[ix] = value;
 		_size++;
 
 		// resize if necessary
-		if( _size >= LOAD_FACTOR * _data.length )
+		if( _size >= LOAD_FACTOR * _keys.length )
 			resize();
 	}
 
@@ -98,43 +104,42 @@ public class DoubleIntListHashMap
 	 * @return
 	 */
 	public ArrayList<DIListEntry> extractValues() {
-		ArrayList<DIListEntry> ret = new ArrayList<DIListEntry>();
-		for( DIListEntry e : _data ) {
-			if (e != null) {
-				while( e.next != null ) {
-					ret.add(e);
-					e = e.next;
-				}
-				ret.add(e);
-			}
-		}
-
+		ArrayList<DIListEntry> ret = new ArrayList<DIListEntry>(_size);
+		for( int i=0; i<_keys.length; i++ )
+			if( _values[i] != null )
+				ret.add(new DIListEntry(_keys[i], _values[i]));
 		return ret;
 	}
+	
+	/**
+	 * Returns an allocation-free iterator over all entries in hash order.
+	 * 
+	 * @return
+	 */
+	public DIListIterator getIterator() {
+		return new DIListIterator();
+	}
 
 	/**
      * 
      */
 	private void resize() {
 		// check for integer overflow on resize
-		if( _data.length > Integer.MAX_VALUE / RESIZE_FACTOR )
+		if( _keys.length > Integer.MAX_VALUE / RESIZE_FACTOR ) {
+			if( _size >= _keys.length-1 )
+				throw new RuntimeException("Exceeded maximum hash map capacity: "+_size);
 			return;
+		}
 
-		// resize data array and copy existing contents
-		DIListEntry[] olddata = _data;
-		_data = new DIListEntry[_data.length * RESIZE_FACTOR];
+		// resize data arrays and reinsert existing entries
+		double[] okeys = _keys;
+		IntArrayList[] ovalues = _values;
+		_keys = new double[okeys.length * RESIZE_FACTOR];
+		_values = new IntArrayList[okeys.length * RESIZE_FACTOR];
 		_size = 0;
-
-		// rehash all entries
-		for( DIListEntry e : olddata ) {
-			if( e != null ) {
-				while( e.next != null ) {
-					appendValue(e.key, e.value);
-					e = e.next;
-				}
-				appendValue(e.key, e.value);
-			}
-		}
+		for( int i=0; i<okeys.length; i++ )
+			if( ovalues[i] != null )
+				appendValue(okeys[i], ovalues[i]);
 	}
 
 	/**
@@ -154,28 +159,54 @@ public class DoubleIntListHashMap
 		return h ^ (h >>> 7) ^ (h >>> 4);
 	}
 
-	/**
-	 * 
-	 * @param h
-	 * @param length
-	 * @return
-	 */
-	private static int indexFor(int h, int length) {
-		return h & (length - 1);
-	}
-
 	/**
 	 *
 	 */
-	public class DIListEntry {
+	public static class DIListEntry {
 		public double key = Double.MAX_VALUE;
 		public IntArrayList value = null;
-		public DIListEntry next = null;
 
 		public DIListEntry(double ekey, IntArrayList evalue) {
 			key = ekey;
 			value = evalue;
-			next = null;
+		}
+	}
+	
+	/**
+	 * Allocation-free iterator over the map entries, where next
+	 * advances to the next entry that is then accessible via 
+	 * getKey and getValue. 
+	 */
+	public class DIListIterator 
+	{
+		private int _ix = -1;
+		private int _next = -1;
+		
+		protected DIListIterator() {
+			_next = nextSlot(0);
+		}
+		
+		public boolean hasNext() {
+			return _next < _keys.length;
+		}
+		
+		public void next() {
+			_ix = _next;
+			_next = nextSlot(_ix+1);
+		}
+		
+		public double getKey() {
+			return _keys[_ix];
+		}
+		
+		public IntArrayList getValue() {
+			return _values[_ix];
+		}
+		
+		private int nextSlot(int ix) {
+			while( ix < _keys.length && _values[ix] == null )
+				ix++;
+			return ix;
 		}
 	}
 }
@@ -28,6 +28,7 @@ import org.apache.sysml.parser.ForStatementBlock;
 import org.apache.sysml.parser.Expression.ValueType;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.DMLScriptException;
+import org.apache.sysml.runtime.controlprogram.caching.CacheableData;
 import org.apache.sysml.runtime.controlprogram.caching.MatrixObject.UpdateType;
 import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysml.runtime.instructions.Instruction;
@@ -132,11 +133,15 @@ public class ForProgramBlock extends ProgramBlock
 			throw new DMLRuntimeException(this.printBlockErrorLocation() + "Expression for increment of variable '" + iterVarName + "' must evaluate to a non-zero value.");
 		
 		// execute for loop
+		ArrayList<CacheableData<?>> reads = null;
 		try 
 		{
 			// prepare update in-place variables
 			UpdateType[] flags = prepareUpdateInPlaceVariables(ec, _tid);
 			
+			// prepare reuse hints of variables read in the loop body
+			reads = prepareLoopReuseHints(ec);
+			
 			// run for loop body for each instance of predicate sequence 
 			SequenceIterator seqIter = new SequenceIterator(iterVarName, from, to, incr);
 			for( IntObject iterVar : seqIter ) 
@@ -161,6 +166,10 @@ public class ForProgramBlock extends ProgramBlock
 		catch (Exception e) {
 			throw new DMLRuntimeException(printBlockErrorLocation() + "Error evaluating for program block", e);
 		}
+		finally {
+			// reset reuse hints (also on errors and stop calls)
+			resetLoopReuseHints(reads);
+		}
 		
 		//execute exit instructions
 		try {
@@ -20,6 +20,7 @@
 package org.apache.sysml.runtime.controlprogram;
 
 import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.controlprogram.caching.CacheableData;
 import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
 import org.apache.sysml.runtime.controlprogram.parfor.ProgramConverter;
 import org.apache.sysml.runtime.controlprogram.parfor.util.IDSequence;
@@ -27,6 +28,7 @@ import org.apache.sysml.runtime.instructions.cp.Data;
 import org.apache.sysml.runtime.instructions.spark.data.LineageObject;
 
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.StringTokenizer;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -35,6 +37,9 @@ import java.util.Set;
  * Replaces <code>HashMap&lang;String, Data&rang;</code> as the table of
  * variable names and references.  No longer supports global consistency.
  * 
+ * The map maintains reference counts of its matrix and frame objects (i.e., 
+ * the number of variable names bound to the same object), which allows 
+ * constant-time reference checks on rmvar and cleanup. 
  */
 public class LocalVariableMap implements Cloneable
 {	
@@ -42,18 +47,24 @@ public class LocalVariableMap implements Cloneable
 	private static String ELEMENT_DELIM = org.apache.sysml.runtime.controlprogram.parfor.ProgramConverter.ELEMENT_DELIM;
 	private static IDSequence _seq = new IDSequence();
 	
+	//consistency check of reference counts against full scans (for tests)
+	public static boolean CHECK_REFERENCE_COUNTS = false;
+	
 	private HashMap <String, Data> localMap = null;
+	private IdentityHashMap <Data, Integer> refCounts = null; 
 	private final long localID;
 	
 	public LocalVariableMap()
 	{
 		localMap = new HashMap <String, Data>();
+		refCounts = new IdentityHashMap <Data, Integer>();
 		localID = _seq.getNextID();
 	}
 	
 	public LocalVariableMap(LocalVariableMap vars)
 	{
 		localMap = new HashMap <String, Data>(vars.localMap);
+		refCounts = new IdentityHashMap <Data, Integer>(vars.refCounts);
 		localID = _seq.getNextID();
 	}
 	
@@ -86,7 +97,11 @@ public class LocalVariableMap implements Cloneable
 	 */
 	public void put(String name, Data val)
 	{
-		localMap.put( name, val );
+		Data old = localMap.put( name, val );
+		if( old != val ) {
+			decrementReferences( old );
+			incrementReferences( val );
+		}
 	}
 
 	/**
@@ -97,7 +112,8 @@ public class LocalVariableMap implements Cloneable
 	{
 		if( vars == this || vars == null )
 			return;
-		localMap.putAll (vars.localMap);
+		for( Entry<String, Data> e : vars.localMap.entrySet() )
+			put( e.getKey(), e.getValue() );
 	}
 	
 	/**
@@ -106,7 +122,9 @@ public class LocalVariableMap implements Cloneable
 	 */
 	public Data remove( String name )
 	{
-		return localMap.remove( name );
+		Data ret = localMap.remove( name );
+		decrementReferences( ret );
+		return ret;
 	}
 	
 	/**
@@ -115,6 +133,7 @@ public class LocalVariableMap implements Cloneable
 	public void removeAll()
 	{
 		localMap.clear();
+		refCounts.clear();
 	}
 	
 	/**
@@ -124,7 +143,14 @@ public class LocalVariableMap implements Cloneable
 	 */
 	public boolean hasReferences( Data d )
 	{
-		return localMap.containsValue(d);
+		//linear scan for scalars, which are not reference counted
+		if( !(d instanceof CacheableData<?>) )
+			return localMap.containsValue(d);
+		
+		boolean ret = refCounts.containsKey(d);
+		if( CHECK_REFERENCE_COUNTS )
+			checkReferenceCount(d, ret ? refCounts.get(d) : 0);
+		return ret;
 	}
 
 	/**
@@ -134,7 +160,8 @@ public class LocalVariableMap implements Cloneable
 	 */
 	public boolean hasReferences( LineageObject bo )
 	{
-		for( Data tmpdat : localMap.values() ) 
+		//scan distinct matrix objects only
+		for( Data tmpdat : refCounts.keySet() ) 
 			if ( tmpdat instanceof MatrixObject ) {
 				MatrixObject mo = (MatrixObject)tmpdat; 
 				if( mo.getBroadcastHandle()==bo || mo.getRDDHandle()==bo )
@@ -154,6 +181,15 @@ public class LocalVariableMap implements Cloneable
 		if ( d == null )
 			return 0;
 		
+		//constant-time lookup for matrix and frame objects
+		if( d instanceof CacheableData<?> ) {
+			Integer cnt = refCounts.get(d);
+			int refCount = (cnt != null) ? cnt : 0;
+			if( CHECK_REFERENCE_COUNTS )
+				checkReferenceCount(d, refCount);
+			return refCount;
+		}
+		
 		int refCount = 0;		
 		for( Data tmpdat : localMap.values() ) 
 			if ( tmpdat == d ) 
@@ -163,6 +199,52 @@ public class LocalVariableMap implements Cloneable
 		return refCount;		
 	}
 	
+	/**
+	 * 
+	 * @param d
+	 */
+	private void incrementReferences( Data d )
+	{
+		if( d instanceof CacheableData<?> ) {
+			Integer cnt = refCounts.get(d);
+			refCounts.put(d, (cnt != null) ? cnt+1 : 1);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param d
+	 */
+	private void decrementReferences( Data d )
+	{
+		if( d instanceof CacheableData<?> ) {
+			Integer cnt = refCounts.get(d);
+			if( cnt == null || cnt <= 1 )
+				refCounts.remove(d);
+			else
+				refCounts.put(d, cnt-1);
+		}
+	}
+	
+	/**
+	 * Compares the maintained reference count of the given data object
+	 * with the number of references obtained by a full scan.
+	 * 
+	 * @param d
+	 * @param refCount
+	 */
+	private void checkReferenceCount( Data d, int refCount )
+	{
+		int scanCount = 0;
+		for( Data tmpdat : localMap.values() ) 
+			if ( tmpdat == d ) 
+				scanCount++;
+		
+		if( scanCount != refCount )
+			throw new RuntimeException("Inconsistent reference count in variable map "
+					+ localID + ": " + refCount + " (expected " + scanCount + ").");
+	}
+	
 	/**
 	 * 
 	 * @return
@@ -209,6 +209,8 @@ public class ParForProgramBlock extends ForProgramBlock
 	public static final boolean USE_PB_CACHE                = false; // reuse copied program blocks whenever possible, not there can be issues related to recompile
 	public static       boolean USE_RANGE_TASKS_IF_USEFUL   = true;   	// use range tasks whenever size>3, false, otherwise wrong split order in remote 
 	public static final boolean USE_STREAMING_TASK_CREATION = true;  	// start working while still creating tasks, prevents blocking due to too small task queue
+	public static final boolean USE_WORK_STEALING           = true;   // local parworkers read task batches into local deques and steal from each other
+	public static final int     WORK_STEALING_BATCH_SIZE    = 8;      // max number of tasks read at once from the shared task queue
 	public static final boolean ALLOW_NESTED_PARALLELISM	= true;    // if not, transparently change parfor to for on program conversions (local,remote)
 	public static       boolean ALLOW_REUSE_MR_JVMS         = true;    // potential benefits: less setup costs per task, NOTE> cannot be used MR4490 in Hadoop 1.0.3, still not fixed in 1.1.1
 	public static       boolean ALLOW_REUSE_MR_PAR_WORKER   = ALLOW_REUSE_MR_JVMS; //potential benefits: less initialization, reuse in-memory objects and result consolidation!
@@ -725,6 +727,11 @@ public class ParForProgramBlock extends ForProgramBlock
 				threads[i].setPriority(Thread.MAX_PRIORITY); 
 			}
 			
+			//enable work stealing across local parworkers
+			if( USE_WORK_STEALING && _numThreads > 1 )
+				for( LocalParWorker pw : workers )
+					pw.setWorkStealing(workers, WORK_STEALING_BATCH_SIZE);
+			
 			// start threads (from now on waiting for tasks)
 			for( Thread thread : threads )
 				thread.start();
@@ -764,19 +771,26 @@ public class ParForProgramBlock extends ForProgramBlock
 			for( Thread thread : threads )
 				thread.join();
 			
-			if( _monitor ) 
+			if( _monitor ) {
 				StatisticMonitor.putPFStat(_ID, Stat.PARFOR_WAIT_EXEC_T, time.stop());
-				
+				StatisticMonitor.putPFStat(_ID, Stat.PARFOR_QUEUE_READWAITS, queue.getNumReadWaits());
+				StatisticMonitor.putPFStat(_ID, Stat.PARFOR_QUEUE_WRITEWAITS, queue.getNumWriteWaits());
+				StatisticMonitor.putPFStat(_ID, Stat.PARFOR_QUEUE_WAIT_T, queue.getWaitTime());
+			}
 				
 			// Step 4) collecting results from each parallel worker
 			//obtain results
 			LocalVariableMap [] localVariables = new LocalVariableMap [_numThreads]; 
+			long numStolenTasks = 0;
 			for( int i=0; i<_numThreads; i++ )
 			{
 				localVariables[i] = workers[i].getVariables();
 				numExecutedTasks += workers[i].getExecutedTasks();
-				numExecutedIterations += workers[i].getExecutedIterations();			
+				numExecutedIterations += workers[i].getExecutedIterations();
+				numStolenTasks += workers[i].getNumStolenTasks();
 			}
+			if( _monitor )
+				StatisticMonitor.putPFStat(_ID, Stat.PARFOR_NUMSTEALS, numStolenTasks);
 			//consolidate results into global symbol table
 			consolidateAndCheckResults( ec, numIterations, numCreatedTasks, numExecutedIterations, numExecutedTasks, 
 					                    localVariables );
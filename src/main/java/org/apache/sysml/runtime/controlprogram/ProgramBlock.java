@@ -34,6 +34,9 @@ import org.apache.sysml.parser.StatementBlock;
 import org.apache.sysml.parser.Expression.ValueType;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.DMLScriptException;
+import org.apache.sysml.runtime.controlprogram.caching.CacheableData;
+import org.apache.sysml.runtime.controlprogram.caching.LineageCache;
+import org.apache.sysml.runtime.controlprogram.caching.LineageItem;
 import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
 import org.apache.sysml.runtime.controlprogram.caching.MatrixObject.UpdateType;
 import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
@@ -301,8 +304,14 @@ public class ProgramBlock
 			// pre-process instruction (debug state, inst patching, listeners)
 			Instruction tmp = currInst.preprocessInstruction( ec );
 			
-			// process actual instruction
-			tmp.processInstruction( ec );
+			// process actual instruction, unless its output is reused 
+			// from the lineage cache (if enabled)
+			LineageItem li = LineageCache.trace( tmp, ec );
+			if( li == null || !LineageCache.reuse( li, tmp, ec ) ) {
+				long t1 = (li != null) ? System.nanoTime() : 0;
+				tmp.processInstruction( ec );
+				LineageCache.put( li, tmp, ec, t1 );
+			}
 			
 			// post-process instruction (debug) 
 			tmp.postprocessInstruction( ec );
@@ -399,6 +408,45 @@ public class ProgramBlock
 			}
 	}
 	
+	/**
+	 * Marks all cacheable data objects that are read in the loop body as
+	 * reused, which serves as hint for the cost-based eviction.
+	 * 
+	 * @param ec
+	 * @return marked data objects
+	 */
+	protected ArrayList<CacheableData<?>> prepareLoopReuseHints(ExecutionContext ec) 
+	{
+		if( _sb == null || _sb.variablesRead() == null )
+			return null;
+		
+		ArrayList<CacheableData<?>> ret = new ArrayList<CacheableData<?>>();
+		for( String varname : _sb.variablesRead().getVariableNames() ) {
+			Data dat = ec.getVariable(varname);
+			if( dat instanceof CacheableData ) {
+				CacheableData<?> cd = (CacheableData<?>) dat;
+				cd.incrementLoopReads();
+				ret.add(cd);
+			}
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * 
+	 * @param vars
+	 */
+	protected void resetLoopReuseHints(ArrayList<CacheableData<?>> vars) 
+	{
+		if( vars == null )
+			return;
+		
+		//reset reuse hints to pre-loop status
+		for( CacheableData<?> cd : vars )
+			cd.decrementLoopReads();
+	}
+	
 	/**
 	 * 
 	 * @param inst
@@ -27,6 +27,7 @@ import org.apache.sysml.parser.WhileStatementBlock;
 import org.apache.sysml.parser.Expression.ValueType;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.DMLScriptException;
+import org.apache.sysml.runtime.controlprogram.caching.CacheableData;
 import org.apache.sysml.runtime.controlprogram.caching.MatrixObject.UpdateType;
 import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysml.runtime.instructions.Instruction;
@@ -155,11 +156,15 @@ public class WhileProgramBlock extends ProgramBlock
 	public void execute(ExecutionContext ec) throws DMLRuntimeException 
 	{
 		//execute while loop
+		ArrayList<CacheableData<?>> reads = null;
 		try 
 		{
 			// prepare update in-place variables
 			UpdateType[] flags = prepareUpdateInPlaceVariables(ec, _tid);
 			
+			// prepare reuse hints of variables read in the loop body
+			reads = prepareLoopReuseHints(ec);
+			
 			//run loop body until predicate becomes false
 			while( executePredicate(ec).getBooleanValue() )
 			{		
@@ -180,6 +185,10 @@ public class WhileProgramBlock extends ProgramBlock
 		catch (Exception e) {
 			throw new DMLRuntimeException(printBlockErrorLocation() + "Error evaluating while program block", e);
 		}
+		finally {
+			// reset reuse hints (also on errors and stop calls)
+			resetLoopReuseHints(reads);
+		}
 		
 		//execute exit instructions
 		try {
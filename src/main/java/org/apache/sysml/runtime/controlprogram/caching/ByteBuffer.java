@@ -22,6 +22,7 @@ package org.apache.sysml.runtime.controlprogram.caching;
 import java.io.DataOutput;
 import java.io.IOException;
 
+import org.apache.sysml.runtime.matrix.data.LibMatrixFP32;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.util.LocalFileUtils;
 
@@ -29,15 +30,33 @@ import org.apache.sysml.runtime.util.LocalFileUtils;
  * Wrapper for WriteBuffer byte array per matrix/frame in order to
  * support matrix/frame serialization outside global lock.
  * 
+ * Readers pin the buffer while deserializing, which defers a concurrent
+ * free (e.g., by the background evictor) until the last reader unpinned 
+ * the buffer. Once freed, the buffer cannot be pinned anymore and readers 
+ * fall back to the evicted file.
  */
 public class ByteBuffer
 {
-	private boolean _serialized;	
+	private volatile boolean _serialized;	
 	private boolean _shallow;
 	private long _size;
 	
+	//eviction hints (reuse by active loops, restore cost per byte)
+	private int _loopReads = 0;
+	private double _restoreCost = 1;
+	
+	//number of active readers, and free status (guarded by this)
+	private int _pins = 0;
+	private boolean _freePending = false;
+	private boolean _freed = false;
+	
 	protected byte[]     _bdata = null; //sparse matrix
 	protected CacheBlock _cdata = null; //dense matrix/frame
+	protected float[][]  _fdata = null; //dense matrix (single precision)
+	
+	//meta data of single-precision dense matrix
+	private int _rlen = -1;
+	private int _clen = -1;
 	
 	public ByteBuffer( long size )
 	{
@@ -52,6 +71,21 @@ public class ByteBuffer
 	 */
 	public void serializeBlock( CacheBlock cb ) 
 		throws IOException
+	{
+		serializeBlock(cb, null);
+	}
+	
+	/**
+	 * Serializes the given cache block into this buffer, where dense matrix
+	 * blocks with given single-precision float arrays (see LibMatrixFP32) 
+	 * are kept in single precision.
+	 * 
+	 * @param cb cache block
+	 * @param fdata float arrays per row block, or null
+	 * @throws IOException
+	 */
+	public void serializeBlock( CacheBlock cb, float[][] fdata ) 
+		throws IOException
 	{	
 		_shallow = cb.isShallowSerialize();
 		
@@ -67,6 +101,13 @@ public class ByteBuffer
 				DataOutput dout = new CacheDataOutput(_bdata);
 				cb.write(dout);
 			}
+			else if( fdata != null ) //DENSE -> DENSE FP32
+			{
+				//keep converted single-precision arrays
+				_rlen = cb.getNumRows();
+				_clen = cb.getNumColumns();
+				_fdata = fdata;
+			}
 			else //SPARSE/DENSE -> DENSE
 			{
 				//shallow serialize
@@ -95,6 +136,9 @@ public class ByteBuffer
 			ret = new MatrixBlock();
 			ret.readFields(din);
 		}
+		else if( _fdata != null ) { //dense matrix (single precision)
+			ret = LibMatrixFP32.toDoublePrecision(_fdata, _rlen, _clen);
+		}
 		else { //dense matrix/frame
 			ret = _cdata;
 		}
@@ -114,6 +158,10 @@ public class ByteBuffer
 			//write out byte serialized array
 			LocalFileUtils.writeByteArrayToLocal(fname, _bdata);
 		}
+		else if( _fdata != null ) {
+			//write single-precision dense block
+			LocalFileUtils.writeMappedMatrixBlockToLocal(fname, _fdata, _rlen, _clen);
+		}
 		else {
 			//serialize cache block to output stream
 			LocalFileUtils.writeCacheBlockToLocal(fname, _cdata);
@@ -129,6 +177,25 @@ public class ByteBuffer
 		return _size;
 	}
 	
+	/**
+	 * Sets the hints for cost-based eviction.
+	 * 
+	 * @param loopReads number of active loops reading the block
+	 * @param restoreCost relative restore cost per byte
+	 */
+	public void setEvictionHints(int loopReads, double restoreCost) {
+		_loopReads = loopReads;
+		_restoreCost = restoreCost;
+	}
+	
+	public int getLoopReads() {
+		return _loopReads;
+	}
+	
+	public double getRestoreCost() {
+		return _restoreCost;
+	}
+	
 	/**
 	 * 
 	 * @return
@@ -137,8 +204,46 @@ public class ByteBuffer
 		return _shallow;
 	}
 	
-	public void freeMemory()
+	/**
+	 * Pins the buffer for reading, which defers concurrent frees until
+	 * the buffer is unpinned.
+	 * 
+	 * @return true if pinned, false if the buffer has already been freed
+	 */
+	public synchronized boolean pin() {
+		if( _freed || _freePending )
+			return false;
+		_pins++;
+		return true;
+	}
+	
+	/**
+	 * Unpins the buffer and frees its memory if a free was requested 
+	 * while the buffer was pinned.
+	 */
+	public synchronized void unpin() {
+		_pins--;
+		if( _pins == 0 && _freePending )
+			freeMemoryInternal();
+	}
+	
+	/**
+	 * Frees the memory of the buffer, deferred until the last reader
+	 * unpinned the buffer.
+	 */
+	public synchronized void freeMemory()
+	{
+		if( _pins > 0 )
+			_freePending = true;
+		else
+			freeMemoryInternal();
+	}
+	
+	private void freeMemoryInternal()
 	{
+		_freePending = false;
+		_freed = true;
+		
 		//clear strong references to buffer/matrix
 		if( !_shallow ) {
 			if( CacheableData.CACHING_BUFFER_PAGECACHE )
@@ -147,6 +252,7 @@ public class ByteBuffer
 		}
 		else {
 			_cdata = null;
+			_fdata = null;
 		}
 	}
 	
@@ -165,6 +271,33 @@ public class ByteBuffer
 		}
 	}
 	
+	/**
+	 * Obtains the buffer size in bytes required for the given cache block, which
+	 * is the serialized size, except for single-precision dense matrix blocks.
+	 * 
+	 * @param cb
+	 * @return
+	 */
+	public static long getBufferSize( CacheBlock cb ) {
+		if( isSinglePrecisionBlock(cb) )
+			return LibMatrixFP32.estimateSizeInMemory(cb.getNumRows(), cb.getNumColumns());
+		return cb.getExactSerializedSize();
+	}
+	
+	/**
+	 * Indicates if the given cache block is a candidate for single precision, 
+	 * i.e., an uncompressed dense matrix block with enabled single-precision
+	 * caching. Blocks with values outside the float range are nevertheless
+	 * kept in double precision.
+	 * 
+	 * @param cb
+	 * @return
+	 */
+	static boolean isSinglePrecisionBlock( CacheBlock cb ) {
+		return CacheableData.isSinglePrecision() && cb instanceof MatrixBlock 
+			&& cb.isShallowSerialize() && LibMatrixFP32.isValidSinglePrecisionBlock((MatrixBlock)cb);
+	}
+	
 	/**
 	 * Determines if byte buffer can hold the given size given this specific cache block.
 	 * This call is consistent with 'serializeBlock' and allows for internal optimization
@@ -48,6 +48,8 @@ public class CacheStatistics
 		CACHE_TIME_ACQM, //acquire read
 		CACHE_TIME_RLS, //release
 		CACHE_TIME_EXP, //export 
+		CACHE_TIME_LOCK, //write buffer lock wait
+		CACHE_TIME_EVICT, //write buffer eviction
 	}
 	
 	//hit statistics (for acquire read)
@@ -67,6 +69,21 @@ public class CacheStatistics
 	private static AtomicLong _ctimeAcquireM   = null; //in nano sec
 	private static AtomicLong _ctimeRelease    = null; //in nano sec
 	private static AtomicLong _ctimeExport     = null; //in nano sec
+	
+	//time statistics write buffer
+	private static AtomicLong _ctimeLockWait   = null; //in nano sec
+	private static AtomicLong _ctimeEviction   = null; //in nano sec
+	
+	//reuse pool hits/misses/puts
+	private static AtomicLong _numReuseHits    = null;
+	private static AtomicLong _numReuseMisses  = null;
+	private static AtomicLong _numReusePuts    = null;
+	
+	//lineage cache hits/misses and saved compute time
+	private static AtomicLong _numLineageHitsInst  = null;
+	private static AtomicLong _numLineageHitsFcall = null;
+	private static AtomicLong _numLineageMisses    = null;
+	private static AtomicLong _ctimeLineageSaved   = null; //in nano sec
 
 	static
 	{
@@ -89,6 +106,18 @@ public class CacheStatistics
 		_ctimeAcquireM = new AtomicLong(0);
 		_ctimeRelease = new AtomicLong(0);
 		_ctimeExport = new AtomicLong(0);
+		
+		_ctimeLockWait = new AtomicLong(0);
+		_ctimeEviction = new AtomicLong(0);
+		
+		_numReuseHits = new AtomicLong(0);
+		_numReuseMisses = new AtomicLong(0);
+		_numReusePuts = new AtomicLong(0);
+		
+		_numLineageHitsInst = new AtomicLong(0);
+		_numLineageHitsFcall = new AtomicLong(0);
+		_numLineageMisses = new AtomicLong(0);
+		_ctimeLineageSaved = new AtomicLong(0);
 	}
 	
 	public static void incrementTotalHits()
@@ -252,6 +281,26 @@ public class CacheStatistics
 		return _ctimeExport.get();
 	}
 	
+	public static void incrementLockWaitTime(long delta)
+	{
+		_ctimeLockWait.addAndGet(delta);
+	}
+	
+	public static long getLockWaitTime()
+	{
+		return _ctimeLockWait.get();
+	}
+	
+	public static void incrementEvictionTime(long delta)
+	{
+		_ctimeEviction.addAndGet(delta);
+	}
+	
+	public static long getEvictionTime()
+	{
+		return _ctimeEviction.get();
+	}
+	
 
 	public static String displayHits()
 	{	
@@ -297,5 +346,102 @@ public class CacheStatistics
 		return sb.toString();
 	}
 	
+	public static void incrementReuseHits()
+	{
+		_numReuseHits.incrementAndGet();
+	}
+	
+	public static long getReuseHits()
+	{
+		return _numReuseHits.get();
+	}
+	
+	public static void incrementReuseMisses()
+	{
+		_numReuseMisses.incrementAndGet();
+	}
+	
+	public static long getReuseMisses()
+	{
+		return _numReuseMisses.get();
+	}
+	
+	public static void incrementReusePuts()
+	{
+		_numReusePuts.incrementAndGet();
+	}
+	
+	public static long getReusePuts()
+	{
+		return _numReusePuts.get();
+	}
+	
+	public static void incrementLineageInstHits()
+	{
+		_numLineageHitsInst.incrementAndGet();
+	}
+	
+	public static void incrementLineageFcallHits()
+	{
+		_numLineageHitsFcall.incrementAndGet();
+	}
+	
+	public static long getLineageHits()
+	{
+		return _numLineageHitsInst.get() + _numLineageHitsFcall.get();
+	}
+	
+	public static void incrementLineageMisses()
+	{
+		_numLineageMisses.incrementAndGet();
+	}
+	
+	public static long getLineageMisses()
+	{
+		return _numLineageMisses.get();
+	}
+	
+	public static void incrementLineageSavedTime(long delta)
+	{
+		_ctimeLineageSaved.addAndGet(delta);
+	}
+	
+	public static String displayBufferTime()
+	{	
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%.3f", ((double)_ctimeLockWait.get())/1000000000)); //in sec
+		sb.append("/");
+		sb.append(String.format("%.3f", ((double)_ctimeEviction.get())/1000000000)); //in sec
+		
+		return sb.toString();
+	}
+	
+	public static String displayReuse()
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numReuseHits.get());
+		sb.append("/");
+		sb.append(_numReuseMisses.get());
+		sb.append("/");
+		sb.append(_numReusePuts.get());
+		
+		return sb.toString();
+	}
 	
+	public static String displayLineage()
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append(_numLineageHitsInst.get());
+		sb.append("/");
+		sb.append(_numLineageHitsFcall.get());
+		sb.append("/");
+		sb.append(_numLineageMisses.get());
+		
+		return sb.toString();
+	}
+	
+	public static String displayLineageTime()
+	{
+		return String.format("%.3f", ((double)_ctimeLineageSaved.get())/1000000000); //in sec
+	}
 }
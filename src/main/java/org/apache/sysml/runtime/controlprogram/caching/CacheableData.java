@@ -22,6 +22,7 @@ package org.apache.sysml.runtime.controlprogram.caching;
 import java.io.File;
 import java.io.IOException;
 import java.lang.ref.SoftReference;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang.mutable.MutableBoolean;
 import org.apache.commons.logging.Log;
@@ -29,6 +30,7 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.sysml.api.DMLScript;
 import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
 import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.conf.DMLConfig;
 import org.apache.sysml.parser.Expression.DataType;
 import org.apache.sysml.parser.Expression.ValueType;
 import org.apache.sysml.runtime.DMLRuntimeException;
@@ -44,6 +46,8 @@ import org.apache.sysml.runtime.matrix.MatrixFormatMetaData;
 import org.apache.sysml.runtime.matrix.MetaData;
 import org.apache.sysml.runtime.matrix.data.FileFormatProperties;
 import org.apache.sysml.runtime.matrix.data.InputInfo;
+import org.apache.sysml.runtime.matrix.data.LibMatrixFP32;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.data.OutputInfo;
 import org.apache.sysml.runtime.util.LocalFileUtils;
 import org.apache.sysml.runtime.util.MapReduceTool;
@@ -68,12 +72,16 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 	// global constant configuration parameters
 	public static final long 	CACHING_THRESHOLD = 4*1024; //obj not s.t. caching if below threshold [in bytes]
 	public static final double 	CACHING_BUFFER_SIZE = 0.15; 
-	public static final RPolicy CACHING_BUFFER_POLICY = RPolicy.FIFO; 
+	public static final RPolicy CACHING_BUFFER_POLICY = RPolicy.FIFO; //default, see config
 	public static final boolean CACHING_BUFFER_PAGECACHE = false; 
 	public static final boolean CACHING_WRITE_CACHE_ON_READ = false;	
 	public static final String  CACHING_COUNTER_GROUP_NAME    = "SystemML Caching Counters";
 	public static final String  CACHING_EVICTION_FILEEXTENSION = ".dat";
 	public static final boolean CACHING_ASYNC_FILECLEANUP = true;
+	public static final boolean CACHING_ASYNC_EVICTION = true;
+	public static final boolean CACHING_EVICTION_MMAP = true;
+	public static final double  CACHING_REUSE_POOL_SIZE = 0.25; //fraction of buffer pool, see config
+	public static final double  CACHING_LINEAGE_SIZE = 0.25; //fraction of buffer pool, see config
     
 	/**
 	 * Defines all possible cache status types for a data blob.
@@ -101,6 +109,9 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 	/** Global flag indicating if caching is enabled (controls eviction) */
 	private static boolean _activeFlag = false;
 	
+	/** Global flag indicating single-precision matrix values (set during init) */
+	private static boolean _singlePrecision = false;
+	
 	/** Global sequence for generating unique ids. */
 	private static IDSequence _seq = null;   
 
@@ -173,6 +184,7 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 	private String  _cacheFileName = null; //local eviction file name
 	private boolean _requiresLocalWrite = false; //flag if local write for read obj
 	private boolean _isAcquireFromEmpty = false; //flag if read from status empty 
+	private final AtomicInteger _loopReads = new AtomicInteger(0); //number of active loops reading this obj
 	
 	//spark-specific handles
 	//note: we use the abstraction of LineageObjects for two reasons: (1) to keep track of cleanup
@@ -229,6 +241,30 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 		return _cleanupFlag;
 	}
 	
+	/**
+	 * Marks this data object as read by an active loop (reuse hint
+	 * for the cost-based eviction of the write buffer).
+	 */
+	public void incrementLoopReads() {
+		_loopReads.incrementAndGet();
+	}
+	
+	/**
+	 * Unmarks this data object as read by an active loop.
+	 */
+	public void decrementLoopReads() {
+		_loopReads.decrementAndGet();
+	}
+	
+	/**
+	 * Returns the number of active (nested) loops reading this data object.
+	 * 
+	 * @return
+	 */
+	public int getLoopReads() {
+		return _loopReads.get();
+	}
+	
 	/**
 	 * 
 	 * @param s
@@ -468,6 +504,9 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 				throw new CacheException("Reading of " + _hdfsFileName + " ("+getVarName()+") failed.", e);
 			}
 			
+			//round read data to single precision if configured
+			roundToSinglePrecision();
+			
 			_isAcquireFromEmpty = true;
 		}
 		else if( DMLScript.STATISTICS )
@@ -615,6 +654,9 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 			write = true;
 			setDirty(true);
 			
+			//round modified data to single precision if configured
+			roundToSinglePrecision();
+			
 			//update meta data
 			refreshMetaData();
 		}
@@ -628,14 +670,15 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 		
 		if(    isCachingActive() //only if caching is enabled (otherwise keep everything in mem)
 			&& isCached(true)    //not empty and not read/modify
-			&& !isBelowCachingThreshold() ) //min size for caching
+			&& !isBelowCachingThreshold() //min size for caching
+			&& !isSharedData() ) //no data shared with other objects
 		{
 			if( write || _requiresLocalWrite ) 
 			{
 				//evict blob
 				String filePath = getCacheFilePathAndName();
 				try {
-					LazyWriteBuffer.writeBlock(filePath, _data);
+					LazyWriteBuffer.writeBlock(filePath, _data, getLoopReads());
 				}
 				catch (Exception e)
 				{
@@ -658,8 +701,47 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 		}
 	}
 	
+	/**
+	 * Obtains the in-memory data (pinned or referenced by the cache soft 
+	 * reference) without acquiring it, i.e., without restoring evicted data.
+	 * 
+	 * @return in-memory data or null if not available
+	 */
+	protected synchronized T getDataIfInMemory() {
+		if( _data != null )
+			return _data;
+		return (_cache != null) ? _cache.get() : null;
+	}
+	
+	/**
+	 * Hands the buffers of the in-memory data to the reuse pool, which is 
+	 * only invoked on clearing the data of dead variables.
+	 */
 	protected void clearReusableData() {}
 	
+	/**
+	 * Rounds the values of the cache block in-place to single precision, if 
+	 * configured. This keeps all matrix values in the buffer pool representable
+	 * as float (except values beyond the float range), independent of eviction,
+	 * which allows for lossless single-precision eviction.
+	 */
+	private void roundToSinglePrecision() {
+		if( _singlePrecision && _data instanceof MatrixBlock 
+			&& !((MatrixBlock)_data).isView() ) //views share rounded data
+			LibMatrixFP32.roundToSinglePrecision((MatrixBlock)_data);
+	}
+	
+	/**
+	 * Indicates if the in-memory data is shared with other cacheable data 
+	 * (e.g., zero-copy views), which pins the data in memory, i.e., prevents
+	 * its eviction until the sharing objects are cleared.
+	 * 
+	 * @return
+	 */
+	protected boolean isSharedData() {
+		return false;
+	}
+	
 	/**
 	 * Sets the cache block reference to <code>null</code>, abandons the old block.
 	 * Makes the "envelope" empty.  Run it to finalize the object (otherwise the
@@ -671,6 +753,20 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 	 */
 	public synchronized void clearData() 
 		throws CacheException
+	{
+		clearData(false);
+	}
+	
+	/**
+	 * Sets the cache block reference to <code>null</code>, and optionally
+	 * recycles its buffers via the reuse pool. Reuse requires that the data 
+	 * is dead, i.e., not referenced by any live variable (e.g., on rmvar).
+	 * 
+	 * @param reuse if true, recycle the buffers of the in-memory data
+	 * @throws CacheException
+	 */
+	public synchronized void clearData(boolean reuse) 
+		throws CacheException
 	{
 		if( LOG.isTraceEnabled() )
 			LOG.trace("Clear data "+getVarName());
@@ -683,12 +779,15 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 					+ "modify. Status = " + getStatusAsString() + ".");
 		
 		// clear existing WB / FS representation (but prevent unnecessary probes)
+		boolean evicting = false;
 		if( !(isEmpty(true)||(_data!=null && isBelowCachingThreshold()) 
 			  ||(_data!=null && !isCachingActive()) )) //additional condition for JMLC
-			freeEvictedBlob();	
+			evicting = freeEvictedBlob();	
 		
-		// clear the in-memory data
-		clearReusableData();
+		// clear the in-memory data (no reuse of buffers that might 
+		// still be serialized by a pending eviction)
+		if( reuse && !evicting && ReusePool.isEnabled() )
+			clearReusableData();
 		_data = null;	
 		clearCache();
 		
@@ -942,18 +1041,22 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 	 * Low-level cache I/O method that deletes the file containing the
 	 * evicted data blob, without reading it.
 	 * Must be defined by a subclass, never called by users.
+	 * 
+	 * @return true if the blob was still being evicted
 	 */
-	protected void freeEvictedBlob() {
+	protected boolean freeEvictedBlob() {
 		String cacheFilePathAndName = getCacheFilePathAndName();
 		long begin = LOG.isTraceEnabled() ? System.currentTimeMillis() : 0;
 		if( LOG.isTraceEnabled() )
 			LOG.trace("CACHE: Freeing evicted matrix...  " + getVarName() + "  HDFS path: " + 
 						(_hdfsFileName == null ? "null" : _hdfsFileName) + " Eviction path: " + cacheFilePathAndName);
 		
-		LazyWriteBuffer.deleteBlock(cacheFilePathAndName);
+		boolean evicting = LazyWriteBuffer.deleteBlock(cacheFilePathAndName);
 		
 		if( LOG.isTraceEnabled() )
 			LOG.trace("Freeing evicted matrix - COMPLETED ... " + (System.currentTimeMillis()-begin) + " msec.");		
+		
+		return evicting;
 	}
 	
 	/**
@@ -1340,8 +1443,10 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 	 * 
 	 */
 	public synchronized static void cleanupCacheDir() {
-		//cleanup remaining cached writes
+		//cleanup remaining cached writes, pooled buffers, and cached intermediates
 		LazyWriteBuffer.cleanup();
+		ReusePool.clear();
+		LineageCache.clear();
 		
 		//delete cache dir and files
 		cleanupCacheDir(true);
@@ -1405,9 +1510,25 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 			throw new IOException(e);
 		}
 	
+		//obtain configured floating point precision
+		_singlePrecision = "single".equalsIgnoreCase(ConfigurationManager
+			.getDMLConfig().getTextValue(DMLConfig.FLOATING_POINT_PRECISION));
+		
 		//init write-ahead buffer
 		LazyWriteBuffer.init();
 		
+		//init reuse pool of dead intermediates (if configured)
+		if( ConfigurationManager.getDMLConfig().getBooleanValue(DMLConfig.CACHING_REUSE_POOL) )
+			ReusePool.init((long)(CACHING_REUSE_POOL_SIZE * LazyWriteBuffer.getWriteBufferSize()));
+		else
+			ReusePool.clear();
+		
+		//init lineage cache of intermediates (if configured)
+		if( ConfigurationManager.getDMLConfig().getBooleanValue(DMLConfig.CACHING_LINEAGE) )
+			LineageCache.init((long)(CACHING_LINEAGE_SIZE * LazyWriteBuffer.getWriteBufferSize()));
+		else
+			LineageCache.clear();
+		
 		_activeFlag = true; //turn on caching
 	}
 	
@@ -1415,6 +1536,10 @@ public abstract class CacheableData<T extends CacheBlock> extends Data
 		return _activeFlag;
 	}
 	
+	public static boolean isSinglePrecision() {
+		return _singlePrecision;
+	}
+	
 	public static synchronized void disableCaching() {
 		_activeFlag = false;
 	}
@@ -23,33 +23,92 @@ import java.io.IOException;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.conf.DMLConfig;
+import org.apache.sysml.runtime.compress.CompressedMatrixBlock;
 import org.apache.sysml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
+import org.apache.sysml.runtime.matrix.data.LibMatrixFP32;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.util.LocalFileUtils;
 
 /**
+ * Write buffer of serialized cache blocks, shared by all threads of the 
+ * control program (incl local parfor workers).
  * 
- * 
+ * The buffer pool is organized as (1) a concurrent index of buffered entries
+ * for lock-free probes on read and delete, and (2) an eviction queue that 
+ * is guarded by a separate lock, which is only held for constant-time 
+ * bookkeeping. Victims are removed from the eviction queue and written to 
+ * the local file system by a background evictor, while the writing thread 
+ * proceeds. Until their write completed, victims remain readable from the 
+ * in-memory buffer; the number of bytes of pending evictions is bounded by 
+ * the buffer limit (back pressure).
  */
 public class LazyWriteBuffer 
 {
 	public enum RPolicy {
 		FIFO, //first-in, first-out eviction
-		LRU   //least recently used eviction
+		LRU,  //least recently used eviction
+		COST  //cost-based eviction (reuse by active loops, restore cost)
 	}
 	
+	//number of least recently used entries considered as victims by the 
+	//cost-based eviction, and weight of reads by active loops 
+	private static final int COST_EVICTION_WINDOW = 32;
+	private static final double COST_LOOP_READ_WEIGHT = 8;
+	
+	//relative restore costs per byte (by bulk-copy, deserialization, or
+	//deserialization of compressed column groups and frames)
+	private static final double COST_RESTORE_MAPPED = 1;
+	private static final double COST_RESTORE_SERIALIZED = 2;
+	private static final double COST_RESTORE_STREAM = 4;
+	
+	private static final Log LOG = LogFactory.getLog(LazyWriteBuffer.class.getName());
+	
 	//global size limit in bytes
-	private static long _limit; 
+	private static volatile long _limit; 
+	
+	//replacement policy (configured on init)
+	private static RPolicy _policy = CacheableData.CACHING_BUFFER_POLICY;
 	
-	//current size in bytes
-	private static long _size;  
+	//current size in bytes (buffered entries, and pending evictions)
+	private static AtomicLong _size = new AtomicLong(0);
+	private static AtomicLong _evictSize = new AtomicLong(0);
+	
+	//index of buffered entries for lock-free probes 
+	private static ConcurrentHashMap<String, ByteBuffer> _mIndex;
 	
 	//eviction queue of <filename,buffer> pairs (implemented via linked hash map 
-	//for (1) queue semantics and (2) constant time get/insert/delete operations)
+	//for (1) queue semantics and (2) constant time get/insert/delete operations),
+	//guarded by the queue lock. We use a single lock instead of striped queues 
+	//because all replacement policies select victims by a global order (FIFO, 
+	//LRU, or cost over the LRU window); probes are lock-free via the index, and 
+	//the lock is only held for constant-time bookkeeping (no I/O or serialization).
 	private static EvictionQueue _mQueue;
+	private static final ReentrantLock _mLock = new ReentrantLock();
+	
+	//victims with pending (asynchronous) writes to the local file system
+	private static ConcurrentHashMap<String, ByteBuffer> _mEvicting;
+	
+	//indicator for failed evictions, which move victims back into the queue
+	//(after that, probes that miss both maps are repeated under the lock)
+	private static volatile boolean _evictFailed = false;
+	
+	//background evictor for synchronous or asynchronous eviction
+	private static Evictor _evict;
 	
 	//file cleaner for synchronous or asynchronous delete of evicted files
 	private static FileCleaner _fClean;
@@ -68,56 +127,84 @@ public class LazyWriteBuffer
 	 */
 	public static void writeBlock( String fname, CacheBlock cb ) 
 		throws IOException
+	{
+		writeBlock(fname, cb, 0);
+	}
+	
+	/**
+	 * 
+	 * @param fname
+	 * @param cb
+	 * @param loopReads number of active loops reading the block (reuse hint)
+	 * @throws IOException
+	 */
+	public static void writeBlock( String fname, CacheBlock cb, int loopReads ) 
+		throws IOException
 	{	
 		//obtain basic meta data of cache block
-		long lSize = cb.getExactSerializedSize();  
+		long lSize = ByteBuffer.getBufferSize(cb);  
 		boolean requiresWrite = (   lSize > _limit  //global buffer limit
 			|| !ByteBuffer.isValidCapacity(lSize, cb) ); //local buffer limit
+		
+		//convert dense blocks to single precision if configured (before the
+		//reservation, because blocks w/ values beyond float range stay double)
+		float[][] fdata = null;
+		if( !requiresWrite && ByteBuffer.isSinglePrecisionBlock(cb) ) {
+			fdata = LibMatrixFP32.toSinglePrecision((MatrixBlock)cb);
+			if( fdata == null ) {
+				lSize = cb.getExactSerializedSize();
+				requiresWrite = (lSize > _limit || !ByteBuffer.isValidCapacity(lSize, cb));
+			}
+		}
 	
 		//handle caching/eviction if it fits in writebuffer
 		if( !requiresWrite ) 
 		{			
-			ByteBuffer bbuff = null;
+			//create buffer (reserve mem)
+			ByteBuffer bbuff = new ByteBuffer( lSize );
+			bbuff.setEvictionHints(loopReads, getRestoreCost(cb));
 			
 			//modify buffer pool
-			synchronized( _mQueue )
+			lockQueue();
+			try
 			{
-				//evict matrices to make room (by default FIFO)
-				while( _size+lSize >= _limit )
+				//evict matrices to make room (by default FIFO), the actual 
+				//write to local FS happens outside the critical section
+				while( _size.get()+lSize >= _limit && !_mQueue.isEmpty() )
 				{
-					//remove first entry from eviction queue
-					Entry<String, ByteBuffer> entry = _mQueue.removeFirst();
+					//remove victim from eviction queue
+					Entry<String, ByteBuffer> entry = (_policy == RPolicy.COST) ?
+						_mQueue.removeMinCost(COST_EVICTION_WINDOW) : _mQueue.removeFirst();
 					String ftmp = entry.getKey();
 					ByteBuffer tmp = entry.getValue();
 					
-					if( tmp != null ) 
-					{
-						//wait for pending serialization
-						tmp.checkSerialized();
-						
-						//evict matrix
-						tmp.evictBuffer(ftmp);
-						tmp.freeMemory();
-						_size-=tmp.getSize();
-						
-						if( DMLScript.STATISTICS )
-							CacheStatistics.incrementFSWrites();
+					if( tmp != null ) {
+						//hand over to evictor (still readable until written)
+						_mEvicting.put(ftmp, tmp);
+						_mIndex.remove(ftmp);
+						_size.addAndGet(-tmp.getSize());
+						_evictSize.addAndGet(tmp.getSize());
+						_evict.evict(ftmp, tmp);
 					}
 				}
 				
-				//create buffer (reserve mem), and lock
-				bbuff = new ByteBuffer( lSize );
-				
 				//put placeholder into buffer pool 
 				_mQueue.addLast(fname, bbuff);
-				_size += lSize;	
+				_mIndex.put(fname, bbuff);
+				_size.addAndGet(lSize);	
+			}
+			finally {
+				_mLock.unlock();
 			}
 			
 			//serialize matrix (outside synchronized critical path)
-			bbuff.serializeBlock(cb); 
+			bbuff.serializeBlock(cb, fdata); 
 			
 			if( DMLScript.STATISTICS )
 				CacheStatistics.incrementFSBuffWrites();
+			
+			//back pressure on too many pending evictions
+			_evict.waitForCapacity();
 		}	
 		else
 		{
@@ -131,18 +218,37 @@ public class LazyWriteBuffer
 	/**
 	 * 
 	 * @param fname
+	 * @return true if a pending eviction was removed, i.e., the evictor 
+	 *   might still serialize the in-memory block of this file
 	 */
-	public static void deleteBlock( String fname )
+	public static boolean deleteBlock( String fname )
 	{
 		boolean requiresDelete = true;
+		boolean evicting = false;
 		
-		synchronized( _mQueue )
+		//remove queue entry or pending eviction (lock-free probes in the order 
+		//of hand-over to the evictor, locked if entries might have moved back)
+		if( _mIndex.containsKey(fname) || _mEvicting.containsKey(fname) || _evictFailed )
 		{
-			//remove queue entry 
-			ByteBuffer ldata = _mQueue.remove(fname);
+			ByteBuffer ldata = null;
+			lockQueue();
+			try {
+				ldata = _mQueue.remove(fname);
+				if( ldata != null ) 
+					_mIndex.remove(fname);
+				//remove pending eviction (evictor deletes the file once written)
+				else if( _mEvicting.remove(fname) != null ) {
+					requiresDelete = false;
+					evicting = true;
+				}
+			}
+			finally {
+				_mLock.unlock();
+			}
 			if( ldata != null ) {
-				_size -= ldata.getSize(); 
+				_size.addAndGet(-ldata.getSize()); 
 				requiresDelete = false;
+				ldata.checkSerialized();
 				ldata.freeMemory(); //cleanup
 			}
 		}
@@ -150,6 +256,8 @@ public class LazyWriteBuffer
 		//delete from FS if required
 		if( requiresDelete )
 			_fClean.deleteFile(fname);
+		
+		return evicting;
 	}
 	
 	/**
@@ -162,27 +270,55 @@ public class LazyWriteBuffer
 		throws IOException
 	{
 		CacheBlock cb = null;
-		ByteBuffer ldata = null;
 		
-		//probe write buffer
-		synchronized( _mQueue )
+		//probe write buffer (lock-free) 
+		ByteBuffer ldata = _mIndex.get(fname);
+		
+		//modify eviction order (accordingly to access)
+		if(    (_policy == RPolicy.LRU || _policy == RPolicy.COST)
+			&& ldata != null )
 		{
-			ldata = _mQueue.get(fname);
-			
-			//modify eviction order (accordingly to access)
-			if(    CacheableData.CACHING_BUFFER_POLICY == RPolicy.LRU 
-				&& ldata != null )
-			{
+			lockQueue();
+			try {
 				//reinsert entry at end of eviction queue
-				_mQueue.remove( fname );
-				_mQueue.addLast( fname, ldata );
+				if( _mQueue.remove( fname ) != null )
+					_mQueue.addLast( fname, ldata );
+			}
+			finally {
+				_mLock.unlock();
 			}
 		}
 		
-		//deserialize or read from FS if required
-		if( ldata != null )
+		//probe pending evictions
+		if( ldata == null )
+			ldata = _mEvicting.get(fname);
+		
+		//probe again under the lock, if a failed eviction moved the entry 
+		//back into the queue in between (rare, otherwise it's on the local FS)
+		if( ldata == null && _evictFailed ) {
+			lockQueue();
+			try {
+				ldata = _mIndex.get(fname);
+				if( ldata == null )
+					ldata = _mEvicting.get(fname);
+			}
+			finally {
+				_mLock.unlock();
+			}
+		}
+		
+		//deserialize or read from FS if required (the buffer is pinned
+		//to prevent concurrent frees by the evictor during deserialization,
+		//if already freed, the block has been written to the local FS)
+		if( ldata != null && ldata.pin() )
 		{
-			cb = ldata.deserializeBlock();
+			try {
+				ldata.checkSerialized();
+				cb = ldata.deserializeBlock();
+			}
+			finally {
+				ldata.unpin();
+			}
 			if( DMLScript.STATISTICS )
 				CacheStatistics.incrementFSBuffHits();
 		}
@@ -201,8 +337,14 @@ public class LazyWriteBuffer
 	 */
 	public static void init() {
 		_mQueue = new EvictionQueue();
+		_mIndex = new ConcurrentHashMap<String, ByteBuffer>();
+		_mEvicting = new ConcurrentHashMap<String, ByteBuffer>();
+		_evict = new Evictor();
 		_fClean = new FileCleaner();
-		_size = 0;
+		_size.set(0);
+		_evictSize.set(0);
+		_evictFailed = false;
+		_policy = getReplacementPolicy();
 		if( CacheableData.CACHING_BUFFER_PAGECACHE )
 			PageCache.init();
 	}
@@ -211,8 +353,14 @@ public class LazyWriteBuffer
 	 * 
 	 */
 	public static void cleanup() {
+		if( _evict != null )
+			_evict.close();
 		if( _mQueue != null )
 			_mQueue.clear();
+		if( _mIndex != null )
+			_mIndex.clear();
+		if( _mEvicting != null )
+			_mEvicting.clear();
 		if( _fClean != null )
 			_fClean.close();
 		if( CacheableData.CACHING_BUFFER_PAGECACHE )
@@ -228,6 +376,27 @@ public class LazyWriteBuffer
 		return (long)(CacheableData.CACHING_BUFFER_SIZE * maxMem);
 	}
 	
+	/**
+	 * Indicates if the given block is buffered, i.e., neither evicted
+	 * nor pending eviction.
+	 * 
+	 * @param fname
+	 * @return
+	 */
+	public static boolean isBuffered(String fname) {
+		return _mIndex.containsKey(fname);
+	}
+	
+	/**
+	 * Sets the global size limit of the write buffer in bytes, which
+	 * allows to force evictions for small blocks (for testing).
+	 * 
+	 * @param limit
+	 */
+	public static void setWriteBufferLimit(long limit) {
+		_limit = limit;
+	}
+	
 	/**
 	 * 
 	 */
@@ -235,24 +404,93 @@ public class LazyWriteBuffer
 	{
 		System.out.println("WRITE BUFFER STATUS ("+position+") --");
 		
-		//print buffer meta data
-		System.out.println("\tWB: Buffer Meta Data: " +
-				     "limit="+_limit+", " +
-				     "size[bytes]="+_size+", " +
-				     "size[elements]="+_mQueue.size()+"/"+_mQueue.size());
-		
-		//print current buffer entries
-		int count = _mQueue.size();
-		for( Entry<String, ByteBuffer> entry : _mQueue.entrySet() )
+		lockQueue();
+		try
 		{
-			String fname = entry.getKey();
-			ByteBuffer bbuff = entry.getValue();
+			//print buffer meta data
+			System.out.println("\tWB: Buffer Meta Data: " +
+					     "limit="+_limit+", " +
+					     "size[bytes]="+_size.get()+", " +
+					     "size[elements]="+_mQueue.size()+"/"+_mIndex.size()+", " +
+					     "evicting[bytes]="+_evictSize.get());
 			
-			System.out.println("\tWB: buffer element ("+count+"): "+fname+", "+bbuff.getSize()+", "+bbuff.isShallow());
-			count--;
+			//print current buffer entries
+			int count = _mQueue.size();
+			for( Entry<String, ByteBuffer> entry : _mQueue.entrySet() )
+			{
+				String fname = entry.getKey();
+				ByteBuffer bbuff = entry.getValue();
+				
+				System.out.println("\tWB: buffer element ("+count+"): "+fname+", "+bbuff.getSize()+", "+bbuff.isShallow());
+				count--;
+			}
+		}
+		finally {
+			_mLock.unlock();
+		}
+	}
+	
+	/**
+	 * Obtains the configured replacement policy, with fallback to the 
+	 * default policy for invalid configurations.
+	 * 
+	 * @return
+	 */
+	private static RPolicy getReplacementPolicy() {
+		String policy = ConfigurationManager.getDMLConfig()
+			.getTextValue(DMLConfig.CACHING_POLICY);
+		try {
+			return RPolicy.valueOf(policy.trim().toUpperCase());
+		}
+		catch(Exception ex) {
+			return CacheableData.CACHING_BUFFER_POLICY;
 		}
 	}
 	
+	/**
+	 * Estimates the relative restore cost per byte of the given block. Dense
+	 * matrix blocks are restored via bulk copies from mapped files, sparse 
+	 * matrix blocks are deserialized, and compressed matrix blocks or frames
+	 * require a full stream deserialization.
+	 * 
+	 * @param cb
+	 * @return
+	 */
+	private static double getRestoreCost(CacheBlock cb) {
+		if( cb instanceof CompressedMatrixBlock || !(cb instanceof MatrixBlock) )
+			return COST_RESTORE_STREAM;
+		return cb.isShallowSerialize() ? 
+			COST_RESTORE_MAPPED : COST_RESTORE_SERIALIZED;
+	}
+	
+	/**
+	 * Computes the retention score of a buffered block, i.e., the expected 
+	 * cost of restoring the block per freed byte. The cost-based eviction 
+	 * selects the entry with minimal score as victim.
+	 * 
+	 * @param bbuff
+	 * @return
+	 */
+	private static double getRetentionScore(ByteBuffer bbuff) {
+		return bbuff.getRestoreCost() * (1 + COST_LOOP_READ_WEIGHT * bbuff.getLoopReads());
+	}
+	
+	/**
+	 * Acquires the eviction queue lock and maintains the lock wait 
+	 * time statistics if the lock is contended.
+	 */
+	private static void lockQueue() 
+	{
+		if( _mLock.tryLock() )
+			return;
+		
+		//contended lock acquire 
+		long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+		_mLock.lock();
+		if( DMLScript.STATISTICS )
+			CacheStatistics.incrementLockWaitTime(System.nanoTime()-t0);
+	}
+	
 	/**
 	 * Extended LinkedHashMap with convenience methods for adding and removing 
 	 * last/first entries.
@@ -278,6 +516,189 @@ public class LazyWriteBuffer
 			
 			return entry;
 		}
+		
+		public Entry<String, ByteBuffer> removeMinCost( int window ) 
+		{
+			//find entry w/ min retention score among the first entries
+			//(ties resolved by queue order, i.e., first-in or least recent)
+			Iterator<Entry<String, ByteBuffer>> iter = entrySet().iterator();
+			Entry<String, ByteBuffer> minEntry = null;
+			double minScore = Double.MAX_VALUE;
+			for( int i=0; i<window && iter.hasNext(); i++ ) {
+				Entry<String, ByteBuffer> entry = iter.next();
+				double score = getRetentionScore(entry.getValue());
+				if( score < minScore ) {
+					minEntry = entry;
+					minScore = score;
+				}
+			}
+			
+			//remove selected entry
+			remove(minEntry.getKey());
+			
+			return minEntry;
+		}
+	}
+	
+	/**
+	 * Eviction service for synchronous or asynchronous writes of victims
+	 * to the local file system. The asynchronous evictor uses a single 
+	 * background thread (terminated if idle), which is sufficient because 
+	 * evictions are bound by the local disk bandwidth.
+	 */
+	private static class Evictor
+	{
+		private ThreadPoolExecutor _pool = null;
+		private final Object _lock = new Object();
+		
+		public Evictor() {
+			//create single-threaded pool for async eviction
+			if( CacheableData.CACHING_ASYNC_EVICTION ) {
+				_pool = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS, 
+					new LinkedBlockingQueue<Runnable>(), new EvictorThreadFactory());
+				_pool.allowCoreThreadTimeOut(true);
+			}
+		}
+		
+		public void evict(String fname, ByteBuffer bbuff) 
+			throws IOException 
+		{
+			//sync or async eviction
+			if( CacheableData.CACHING_ASYNC_EVICTION )
+				_pool.execute(new EvictorTask(fname, bbuff));
+			else
+				evictBuffer(fname, bbuff);
+		}
+		
+		public void waitForCapacity() 
+		{
+			if( !CacheableData.CACHING_ASYNC_EVICTION )
+				return;
+			
+			//wait until pending evictions fit into the buffer limit 
+			synchronized( _lock ) {
+				while( _evictSize.get() > _limit ) {
+					try { _lock.wait(); } 
+					catch(InterruptedException e) {}
+				}
+			}
+		}
+		
+		public void close() {
+			//discard pending evictions (the cache dir is removed 
+			//on cleanup) and shutdown pool
+			if( CacheableData.CACHING_ASYNC_EVICTION ) {
+				_pool.shutdownNow();
+				try {
+					//wait for a running eviction to finish its write
+					_pool.awaitTermination(60, TimeUnit.SECONDS);
+				}
+				catch(InterruptedException e) {}
+				synchronized( _lock ) {
+					_lock.notifyAll();
+				}
+			}
+		}
+		
+		private void evictBuffer(String fname, ByteBuffer bbuff) 
+			throws IOException
+		{
+			long t0 = DMLScript.STATISTICS ? System.nanoTime() : 0;
+			boolean success = false;
+			
+			try {
+				//wait for pending serialization
+				bbuff.checkSerialized();
+				
+				//evict matrix
+				bbuff.evictBuffer(fname);
+				
+				//remove pending eviction, or delete file if 
+				//the block was deleted in the meantime
+				if( !_mEvicting.remove(fname, bbuff) )
+					LocalFileUtils.deleteFileIfExists(fname, true);
+				bbuff.freeMemory();
+				success = true;
+			}
+			finally {
+				//on failure, remove the partially written file and put the 
+				//block back into the queue (accounted, readable, and evicted
+				//again on demand), unless it was deleted in the meantime
+				if( !success ) {
+					LocalFileUtils.deleteFileIfExists(fname, true);
+					requeueBuffer(fname, bbuff);
+				}
+				_evictSize.addAndGet(-bbuff.getSize());
+				synchronized( _lock ) {
+					_lock.notifyAll();
+				}
+			}
+			
+			if( DMLScript.STATISTICS ) {
+				CacheStatistics.incrementFSWrites();
+				CacheStatistics.incrementEvictionTime(System.nanoTime()-t0);
+			}
+		}
+		
+		private void requeueBuffer(String fname, ByteBuffer bbuff) 
+		{
+			boolean requeued = false;
+			lockQueue();
+			try {
+				//set indicator before moving the entry for consistent probes
+				_evictFailed = true;
+				if( _mEvicting.get(fname) == bbuff ) {
+					_mQueue.addLast(fname, bbuff);
+					_mIndex.put(fname, bbuff);
+					_size.addAndGet(bbuff.getSize());
+					_mEvicting.remove(fname);
+					requeued = true;
+				}
+			}
+			finally {
+				_mLock.unlock();
+			}
+			
+			//cleanup deleted block
+			if( !requeued )
+				bbuff.freeMemory();
+		}
+		
+		private class EvictorTask implements Runnable {
+			private String _fname = null;
+			private ByteBuffer _bbuff = null;
+			
+			public EvictorTask( String fname, ByteBuffer bbuff ) {
+				_fname = fname;
+				_bbuff = bbuff;
+			}
+			
+			@Override
+			public void run() {
+				try {
+					evictBuffer(_fname, _bbuff);
+				}
+				catch(Exception ex) {
+					//the block has been put back into the queue
+					LOG.error("Failed to evict buffer "+_fname+".", ex);
+				}
+			}			
+		}
+	}
+	
+	/**
+	 * Thread factory for daemon evictor threads, which do not block 
+	 * the shutdown of the JVM.
+	 */
+	private static class EvictorThreadFactory implements ThreadFactory
+	{
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread t = Executors.defaultThreadFactory().newThread(r);
+			t.setName("LazyWriteBuffer-Evictor");
+			t.setDaemon(true);
+			return t;
+		}
 	}
 	
 	/**
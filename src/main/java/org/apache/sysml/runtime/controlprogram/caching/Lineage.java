@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.controlprogram.caching;
+
+import java.util.HashMap;
+
+import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysml.runtime.instructions.Instruction;
+import org.apache.sysml.runtime.instructions.cp.Data;
+import org.apache.sysml.runtime.instructions.cp.ScalarObject;
+import org.apache.sysml.runtime.instructions.cp.VariableCPInstruction;
+
+/**
+ * Lineage of the live variables of an execution context. Each entry binds
+ * a variable name to the lineage item of the data object it referred to at 
+ * the time of tracing. Entries are only valid for the very same data object, 
+ * which guarantees that variables (re)assigned by untraced instructions 
+ * obtain a new leaf item instead of a stale lineage. Scalars are traced by 
+ * value, i.e., independent of the variable.
+ */
+public class Lineage 
+{
+	private final HashMap<String, LineageEntry> _map = new HashMap<String, LineageEntry>();
+	
+	/**
+	 * Obtains the lineage item of the given variable and data object, 
+	 * where unknown lineage of matrices is initialized with new leaf items.
+	 * 
+	 * @param varname variable name (or null for unbound data)
+	 * @param dat data object of the variable
+	 * @return lineage item
+	 */
+	public LineageItem get(String varname, Data dat) 
+	{
+		//scalars are traced by value
+		if( dat instanceof ScalarObject ) {
+			ScalarObject so = (ScalarObject) dat;
+			return new LineageItem(so.getValueType()+":"+so.getStringValue());
+		}
+		
+		//valid lineage of same data object or new leaf
+		LineageEntry e = (varname != null) ? _map.get(varname) : null;
+		if( e != null && e.data == dat )
+			return e.item;
+		LineageItem ret = new LineageItem();
+		if( varname != null )
+			_map.put(varname, new LineageEntry(dat, ret));
+		return ret;
+	}
+	
+	/**
+	 * Binds the lineage item of the given variable and data object.
+	 * 
+	 * @param varname variable name
+	 * @param dat data object of the variable
+	 * @param li lineage item
+	 */
+	public void set(String varname, Data dat, LineageItem li) 
+	{
+		//truncate too deep lineage to bound comparison costs and memory
+		if( dat == null || li.getDepth() > LineageItem.MAX_DEPTH )
+			_map.remove(varname);
+		else
+			_map.put(varname, new LineageEntry(dat, li));
+	}
+	
+	public void remove(String varname) {
+		_map.remove(varname);
+	}
+	
+	/**
+	 * Maintains the lineage of variables on copy, move, and remove 
+	 * variable instructions, which retains the lineage of renamed outputs 
+	 * (e.g., tmp variables of loop iterations).
+	 * 
+	 * @param inst executed instruction
+	 * @param ec execution context
+	 */
+	public void maintain(Instruction inst, ExecutionContext ec) 
+	{
+		if( !(inst instanceof VariableCPInstruction) )
+			return;
+		
+		VariableCPInstruction vinst = (VariableCPInstruction) inst;
+		String opcode = vinst.getOpcode();
+		if( opcode.equals("cpvar") || opcode.equals("mvvar") ) {
+			if( vinst.getInput3() != null )
+				return; //mvvar to file 
+			String src = vinst.getInput1().getName();
+			String tgt = vinst.getInput2().getName();
+			LineageEntry e = _map.get(src);
+			if( e != null && e.data == ec.getVariable(tgt) )
+				_map.put(tgt, e);
+			else
+				_map.remove(tgt);
+			if( opcode.equals("mvvar") )
+				_map.remove(src);
+		}
+		else if( opcode.equals("rmvar") ) {
+			_map.remove(vinst.getInput1().getName());
+		}
+	}
+	
+	private static class LineageEntry
+	{
+		private final Data data;
+		private final LineageItem item;
+		
+		public LineageEntry(Data data, LineageItem item) {
+			this.data = data;
+			this.item = item;
+		}
+	}
+}
@@ -0,0 +1,662 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.controlprogram.caching;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.WeakHashMap;
+
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.lops.DataGen;
+import org.apache.sysml.lops.Lop;
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.controlprogram.ExternalFunctionProgramBlock;
+import org.apache.sysml.runtime.controlprogram.ForProgramBlock;
+import org.apache.sysml.runtime.controlprogram.FunctionProgramBlock;
+import org.apache.sysml.runtime.controlprogram.IfProgramBlock;
+import org.apache.sysml.runtime.controlprogram.Program;
+import org.apache.sysml.runtime.controlprogram.ProgramBlock;
+import org.apache.sysml.runtime.controlprogram.WhileProgramBlock;
+import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysml.runtime.controlprogram.parfor.util.IDSequence;
+import org.apache.sysml.runtime.instructions.Instruction;
+import org.apache.sysml.runtime.instructions.InstructionUtils;
+import org.apache.sysml.runtime.instructions.cp.CPInstruction;
+import org.apache.sysml.runtime.instructions.cp.CPInstruction.CPINSTRUCTION_TYPE;
+import org.apache.sysml.runtime.instructions.cp.CPOperand;
+import org.apache.sysml.runtime.instructions.cp.ComputationCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.Data;
+import org.apache.sysml.runtime.instructions.cp.FunctionCallCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.ScalarObject;
+import org.apache.sysml.runtime.instructions.cp.VariableCPInstruction;
+import org.apache.sysml.runtime.matrix.MatrixCharacteristics;
+import org.apache.sysml.runtime.matrix.MatrixFormatMetaData;
+import org.apache.sysml.runtime.matrix.data.InputInfo;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.OutputInfo;
+
+/**
+ * Cache of intermediates and function call results by lineage. Before the
+ * execution of a deterministic CP instruction (e.g., matrix multiplications, 
+ * aggregates, transpose) or call of a deterministic function, the lineage of 
+ * its outputs is derived from the lineage of its inputs, and equivalent cached 
+ * outputs are bound instead of recomputing them. This allows reusing identical
+ * intermediates across loop iterations and function calls with equivalent 
+ * arguments (e.g., t(X) %*% X, colMeans(X)).
+ * 
+ * Cached matrix blocks are shared with the output matrix objects, which are 
+ * excluded from buffer reuse (see ReusePool). Cached blocks are held by matrix
+ * objects of the cache, i.e., they are subject to the buffer pool accounting 
+ * and eviction to local disk like any other intermediate. The total size of 
+ * cached values (in memory or evicted) is capped to a fraction of the buffer 
+ * pool budget, where full caches drop the least recently used entries.
+ * 
+ * NOTE: The cache is only enabled with activated caching (see initCaching), 
+ * and thus not in JMLC, where inputs are blocks owned by the caller.
+ */
+public class LineageCache 
+{
+	//instruction types of deterministic and side-effect-free operations
+	private static final EnumSet<CPINSTRUCTION_TYPE> REUSABLE_TYPES = EnumSet.of(
+		CPINSTRUCTION_TYPE.AggregateBinary, CPINSTRUCTION_TYPE.MMTSJ, CPINSTRUCTION_TYPE.MMChain,
+		CPINSTRUCTION_TYPE.AggregateUnary, CPINSTRUCTION_TYPE.Reorg, CPINSTRUCTION_TYPE.ArithmeticBinary, 
+		CPINSTRUCTION_TYPE.RelationalBinary, CPINSTRUCTION_TYPE.BuiltinBinary, CPINSTRUCTION_TYPE.BuiltinUnary);
+	
+	//approximate size of cached scalars
+	private static final long SCALAR_SIZE = 64;
+	
+	private static boolean _enabled = false;
+	private static long _limit = 0;
+	private static long _size = 0;
+	private static LinkedHashMap<LineageItem, CacheEntry> _cache = null; //lru order
+	private static WeakHashMap<FunctionProgramBlock, Boolean> _deterministic = null;
+	private static WeakHashMap<Instruction, String> _signatures = null;
+	private static final IDSequence _seq = new IDSequence();
+	
+	/**
+	 * Enables the cache with the given maximum size of cached values.
+	 * 
+	 * @param limit maximum size in bytes
+	 */
+	public static synchronized void init(long limit) {
+		_cache = new LinkedHashMap<LineageItem, CacheEntry>(16, 0.75f, true);
+		_deterministic = new WeakHashMap<FunctionProgramBlock, Boolean>();
+		_signatures = new WeakHashMap<Instruction, String>();
+		_limit = limit;
+		_size = 0;
+		_enabled = (limit > 0);
+	}
+	
+	/**
+	 * Disables the cache and releases all cached values, whose evicted 
+	 * representations are removed with the cleanup of the buffer pool.
+	 */
+	public static synchronized void clear() {
+		_enabled = false;
+		_cache = null;
+		_deterministic = null;
+		_signatures = null;
+		_size = 0;
+	}
+	
+	public static boolean isEnabled() {
+		return _enabled;
+	}
+	
+	public static synchronized long getSize() {
+		return _size;
+	}
+	
+	/**
+	 * Derives the lineage of the output of the given instruction, if the 
+	 * instruction is reusable and lineage is traced in the given context.
+	 * 
+	 * @param inst instruction
+	 * @param ec execution context
+	 * @return lineage item of the output or null if not reusable
+	 * @throws DMLRuntimeException
+	 */
+	public static LineageItem trace(Instruction inst, ExecutionContext ec) 
+		throws DMLRuntimeException
+	{
+		Lineage lineage = ec.getLineage();
+		if( lineage == null || !isReusable(inst) )
+			return null;
+		
+		ComputationCPInstruction cinst = (ComputationCPInstruction) inst;
+		CPOperand[] inputs = getInputs(cinst);
+		String opcode = getSignature(cinst);
+		if( opcode == null )
+			return null;
+		
+		//obtain lineage of all inputs (by value for scalars)
+		LineageItem[] items = new LineageItem[inputs.length];
+		for( int i=0; i<inputs.length; i++ ) {
+			CPOperand in = inputs[i];
+			Data dat = in.isLiteral() ? 
+				ec.getScalarInput(in.getName(), in.getValueType(), true) : 
+				ec.getVariable(in.getName());
+			if( dat == null )
+				return null;
+			items[i] = lineage.get(in.isLiteral() ? null : in.getName(), dat);
+		}
+		
+		return new LineageItem(opcode, items);
+	}
+	
+	/**
+	 * Binds the cached output of the given lineage item to the output of 
+	 * the given instruction, if available.
+	 * 
+	 * @param li lineage item of the instruction output
+	 * @param inst instruction
+	 * @param ec execution context
+	 * @return true if the output was reused, i.e., the instruction can be skipped
+	 * @throws DMLRuntimeException
+	 */
+	public static boolean reuse(LineageItem li, Instruction inst, ExecutionContext ec) 
+		throws DMLRuntimeException
+	{
+		CacheEntry e = get(li);
+		Object value = (e != null) ? getValue(e) : null;
+		if( value == null ) {
+			if( DMLScript.STATISTICS )
+				CacheStatistics.incrementLineageMisses();
+			return false;
+		}
+		
+		//bind cached output and its (shared) lineage
+		String out = ((ComputationCPInstruction) inst).output.getName();
+		if( value instanceof MatrixBlock ) {
+			ec.setMatrixOutput(out, (MatrixBlock) value);
+			ec.getMatrixObject(out).setLineageCached(true);
+		}
+		else 
+			ec.setScalarOutput(out, (ScalarObject) value);
+		ec.getLineage().set(out, ec.getVariable(out), e.key);
+		
+		if( DMLScript.STATISTICS ) {
+			CacheStatistics.incrementLineageInstHits();
+			CacheStatistics.incrementLineageSavedTime(e.computeTime);
+		}
+		return true;
+	}
+	
+	/**
+	 * Maintains the lineage of the outputs of the given executed instruction,
+	 * and puts the output into the cache, if the instruction is reusable.
+	 * 
+	 * @param li lineage item of the instruction output (or null if not reusable)
+	 * @param inst executed instruction
+	 * @param ec execution context
+	 * @param t0 start time of instruction execution in nano sec
+	 * @throws DMLRuntimeException
+	 */
+	public static void put(LineageItem li, Instruction inst, ExecutionContext ec, long t0) 
+		throws DMLRuntimeException
+	{
+		Lineage lineage = ec.getLineage();
+		if( lineage == null )
+			return;
+		
+		//maintain lineage of renamed/removed variables
+		if( li == null ) {
+			lineage.maintain(inst, ec);
+			return;
+		}
+		
+		//maintain lineage of instruction output and cache output
+		String out = ((ComputationCPInstruction) inst).output.getName();
+		Data dat = ec.getVariable(out);
+		lineage.set(out, dat, li);
+		put(li, dat, System.nanoTime()-t0);
+	}
+	
+	/**
+	 * Obtains the cached outputs of a function call with the given output 
+	 * lineage, if all outputs are available.
+	 * 
+	 * @param items lineage items of all function outputs
+	 * @return data objects of function outputs, or null if not available
+	 * @throws DMLRuntimeException
+	 */
+	public static Data[] reuse(LineageItem[] items) 
+		throws DMLRuntimeException
+	{
+		//probe all outputs (no partial reuse)
+		CacheEntry[] entries = new CacheEntry[items.length];
+		Object[] values = new Object[items.length];
+		for( int i=0; i<items.length; i++ ) {
+			entries[i] = get(items[i]);
+			values[i] = (entries[i] != null) ? getValue(entries[i]) : null;
+			if( values[i] == null ) {
+				if( DMLScript.STATISTICS )
+					CacheStatistics.incrementLineageMisses();
+				return null;
+			}
+		}
+		
+		//create output data objects of cached values
+		Data[] ret = new Data[items.length];
+		for( int i=0; i<items.length; i++ )
+			ret[i] = (values[i] instanceof MatrixBlock) ? 
+				createMatrixObject((MatrixBlock)values[i]) : (ScalarObject)values[i];
+		
+		if( DMLScript.STATISTICS ) {
+			CacheStatistics.incrementLineageFcallHits();
+			CacheStatistics.incrementLineageSavedTime(entries[0].computeTime);
+		}
+		return ret;
+	}
+	
+	/**
+	 * Puts the given outputs of a function call into the cache, where the 
+	 * compute time of the call is attributed to the first output.
+	 * 
+	 * @param items lineage items of all function outputs
+	 * @param outputs data objects of function outputs
+	 * @param computeTime execution time of the function call in nano sec
+	 * @throws DMLRuntimeException
+	 */
+	public static void put(LineageItem[] items, Data[] outputs, long computeTime) 
+		throws DMLRuntimeException
+	{
+		for( int i=0; i<items.length; i++ )
+			put(items[i], outputs[i], (i==0) ? computeTime : 0);
+	}
+	
+	/**
+	 * Indicates if the given function is deterministic and side-effect-free,
+	 * i.e., if its outputs can be reused for calls with equivalent inputs. 
+	 * This excludes functions with (transitive) calls of external functions, 
+	 * random data generation (except constant matrices), print/stop, reads 
+	 * and writes of persistent files, and non-CP instructions.
+	 * 
+	 * @param fpb function program block
+	 * @param prog runtime program
+	 * @return true if the function outputs are reusable
+	 * @throws DMLRuntimeException
+	 */
+	public static synchronized boolean isDeterministic(FunctionProgramBlock fpb, Program prog) 
+		throws DMLRuntimeException
+	{
+		if( !_enabled )
+			return false;
+		
+		Boolean ret = _deterministic.get(fpb);
+		if( ret == null ) {
+			ret = rIsDeterministic(fpb, prog, new HashSet<FunctionProgramBlock>());
+			_deterministic.put(fpb, ret);
+		}
+		return ret;
+	}
+	
+	private static void put(LineageItem li, Data dat, long computeTime) 
+		throws DMLRuntimeException
+	{
+		if( dat instanceof MatrixObject ) {
+			//cache in-memory blocks of cp outputs (no views of other blocks),
+			//but never restore already evicted outputs just for caching
+			MatrixObject mo = (MatrixObject) dat;
+			if( mo.getRDDHandle() != null || mo.getBroadcastHandle() != null )
+				return;
+			MatrixBlock mb = mo.getDataIfInMemory();
+			if( mb == null || mb.isView() || mb.getInMemorySize() > _limit )
+				return;
+			MatrixObject cmo = createMatrixObject(mb);
+			if( put(li, cmo, mb.getInMemorySize(), computeTime) )
+				mo.setLineageCached(true);
+			else
+				cmo.clearData();
+		}
+		else if( dat instanceof ScalarObject ) {
+			put(li, dat, SCALAR_SIZE, computeTime);
+		}
+	}
+	
+	private static synchronized CacheEntry get(LineageItem li) {
+		return _enabled ? _cache.get(li) : null;
+	}
+	
+	/**
+	 * Obtains the cached value of the given entry, where cached matrices
+	 * are restored from the buffer pool or local disk if evicted.
+	 * 
+	 * @param e cache entry
+	 * @return matrix block, scalar object, or null if dropped in the meantime
+	 * @throws DMLRuntimeException
+	 */
+	private static Object getValue(CacheEntry e) 
+		throws DMLRuntimeException
+	{
+		if( !(e.value instanceof MatrixObject) )
+			return e.value;
+		
+		MatrixObject cmo = (MatrixObject) e.value;
+		synchronized( cmo ) {
+			if( e.dropped )
+				return null;
+			MatrixBlock mb = cmo.acquireRead();
+			cmo.release();
+			return mb;
+		}
+	}
+	
+	private static boolean put(LineageItem li, Data value, long size, long computeTime) 
+		throws DMLRuntimeException
+	{
+		ArrayList<CacheEntry> dropped = new ArrayList<CacheEntry>();
+		boolean ret = false;
+		
+		synchronized( LineageCache.class ) {
+			if( _enabled && size <= _limit ) {
+				//replace existing entry (e.g., concurrent put)
+				CacheEntry old = _cache.remove(li);
+				if( old != null ) {
+					_size -= old.size;
+					dropped.add(old);
+				}
+				
+				//make room by dropping least recently used entries
+				if( _size + size > _limit )
+					evict(_size + size - _limit, dropped);
+				
+				_cache.put(li, new CacheEntry(li, value, size, computeTime));
+				_size += size;
+				ret = true;
+			}
+		}
+		
+		//release cached matrices of dropped entries (outside the 
+		//cache lock to avoid lock inversion with pending reads)
+		for( CacheEntry e : dropped )
+			if( e.value instanceof MatrixObject ) {
+				MatrixObject cmo = (MatrixObject) e.value;
+				synchronized( cmo ) {
+					e.dropped = true;
+					cmo.clearData();
+				}
+			}
+		return ret;
+	}
+	
+	private static void evict(long required, ArrayList<CacheEntry> dropped) 
+	{
+		long freed = 0;
+		Iterator<CacheEntry> iter = _cache.values().iterator();
+		while( iter.hasNext() && freed < required ) {
+			CacheEntry e = iter.next();
+			iter.remove();
+			_size -= e.size;
+			freed += e.size;
+			dropped.add(e);
+		}
+	}
+	
+	private static boolean isReusable(Instruction inst) 
+	{
+		if( !(inst instanceof ComputationCPInstruction) )
+			return false;
+		
+		//deterministic operations w/o side effects
+		ComputationCPInstruction cinst = (ComputationCPInstruction) inst;
+		if( !REUSABLE_TYPES.contains(cinst.getCPInstructionType())
+			|| cinst.getOpcode().equals("print") || cinst.getOpcode().equals("stop") )
+			return false;
+		
+		//matrix/scalar operands with at least one matrix
+		boolean matrix = (cinst.output.getDataType() == DataType.MATRIX);
+		if( !matrix && cinst.output.getDataType() != DataType.SCALAR )
+			return false;
+		for( CPOperand in : getInputs(cinst) ) {
+			if( in.getDataType() != DataType.MATRIX && in.getDataType() != DataType.SCALAR )
+				return false;
+			matrix |= (in.getDataType() == DataType.MATRIX);
+		}
+		return matrix;
+	}
+	
+	private static CPOperand[] getInputs(ComputationCPInstruction inst) 
+	{
+		ArrayList<CPOperand> ret = new ArrayList<CPOperand>();
+		if( inst.input1 != null )
+			ret.add(inst.input1);
+		if( inst.input2 != null )
+			ret.add(inst.input2);
+		if( inst.input3 != null )
+			ret.add(inst.input3);
+		return ret.toArray(new CPOperand[0]);
+	}
+	
+	/**
+	 * Obtains the signature of the given instruction, which is created once 
+	 * per instruction object and reused for all its executions.
+	 * 
+	 * @param inst instruction
+	 * @return signature or null if not reusable
+	 */
+	private static String getSignature(ComputationCPInstruction inst) 
+	{
+		String ret = null;
+		synchronized( LineageCache.class ) {
+			if( _signatures == null )
+				return null;
+			ret = _signatures.get(inst);
+		}
+		if( ret == null ) {
+			ret = createSignature(inst, getInputs(inst));
+			synchronized( LineageCache.class ) {
+				if( _signatures != null )
+					_signatures.put(inst, (ret != null) ? ret : "");
+			}
+		}
+		return (ret != null && !ret.isEmpty()) ? ret : null;
+	}
+	
+	/**
+	 * Creates the signature of the given instruction, i.e., the instruction
+	 * string where input and output variable names are replaced by positions. 
+	 * Instructions with other (untraced) variable operands are not reusable.
+	 * 
+	 * @param inst instruction
+	 * @param inputs traced inputs
+	 * @return signature or null if not reusable
+	 */
+	private static String createSignature(ComputationCPInstruction inst, CPOperand[] inputs) 
+	{
+		String[] parts = inst.toString().split(Lop.OPERAND_DELIMITOR);
+		StringBuilder sb = new StringBuilder();
+		for( int i=0; i<parts.length; i++ ) {
+			String[] opr = parts[i].split(Lop.VALUETYPE_PREFIX);
+			if( isVariable(opr) ) {
+				String pos = getPosition(opr[0], inst.output, inputs);
+				if( pos == null )
+					return null;
+				sb.append(pos);
+				sb.append(parts[i].substring(opr[0].length()));
+			}
+			else
+				sb.append(parts[i]);
+			sb.append(Lop.OPERAND_DELIMITOR);
+		}
+		return sb.toString();
+	}
+	
+	private static boolean isVariable(String[] opr) 
+	{
+		if( opr.length < 3 || (opr.length == 4 && Boolean.parseBoolean(opr[3])) )
+			return false; //no operand or literal
+		for( DataType dt : DataType.values() )
+			if( dt.name().equals(opr[1]) )
+				return true;
+		return false;
+	}
+	
+	private static String getPosition(String name, CPOperand output, CPOperand[] inputs) 
+	{
+		for( int i=0; i<inputs.length; i++ )
+			if( !inputs[i].isLiteral() && inputs[i].getName().equals(name) )
+				return "#" + i;
+		return output.getName().equals(name) ? "#o" : null;
+	}
+	
+	private static MatrixObject createMatrixObject(MatrixBlock mb) 
+		throws DMLRuntimeException
+	{
+		MatrixCharacteristics mc = new MatrixCharacteristics(mb.getNumRows(), mb.getNumColumns(), 
+			ConfigurationManager.getBlocksize(), ConfigurationManager.getBlocksize(), mb.getNonZeros());
+		String fname = ConfigurationManager.getScratchSpace() + Lop.FILE_SEPARATOR + Lop.PROCESS_PREFIX 
+			+ DMLScript.getUUID() + Lop.FILE_SEPARATOR + "lineage" + _seq.getNextID();
+		MatrixObject mo = new MatrixObject(ValueType.DOUBLE, fname, new MatrixFormatMetaData(
+			mc, OutputInfo.BinaryBlockOutputInfo, InputInfo.BinaryBlockInputInfo));
+		mo.acquireModify(mb);
+		mo.release();
+		mo.setLineageCached(true);
+		return mo;
+	}
+	
+	private static boolean rIsDeterministic(FunctionProgramBlock fpb, Program prog, HashSet<FunctionProgramBlock> memo) 
+		throws DMLRuntimeException
+	{
+		if( fpb instanceof ExternalFunctionProgramBlock )
+			return false;
+		if( !memo.add(fpb) )
+			return true; //recursive call, already in progress
+		return rIsDeterministic(fpb.getChildBlocks(), prog, memo);
+	}
+	
+	private static boolean rIsDeterministic(ArrayList<ProgramBlock> pbs, Program prog, HashSet<FunctionProgramBlock> memo) 
+		throws DMLRuntimeException
+	{
+		boolean ret = true;
+		for( ProgramBlock pb : pbs ) {
+			if( pb instanceof WhileProgramBlock ) {
+				WhileProgramBlock wpb = (WhileProgramBlock) pb;
+				ret &= isDeterministic(wpb.getPredicate(), prog, memo)
+					&& rIsDeterministic(wpb.getChildBlocks(), prog, memo);
+			}
+			else if( pb instanceof IfProgramBlock ) {
+				IfProgramBlock ipb = (IfProgramBlock) pb;
+				ret &= isDeterministic(ipb.getPredicate(), prog, memo)
+					&& rIsDeterministic(ipb.getChildBlocksIfBody(), prog, memo)
+					&& rIsDeterministic(ipb.getChildBlocksElseBody(), prog, memo);
+			}
+			else if( pb instanceof ForProgramBlock ) { //incl parfor
+				ForProgramBlock fpb = (ForProgramBlock) pb;
+				ret &= isDeterministic(fpb.getFromInstructions(), prog, memo)
+					&& isDeterministic(fpb.getToInstructions(), prog, memo)
+					&& isDeterministic(fpb.getIncrementInstructions(), prog, memo)
+					&& rIsDeterministic(fpb.getChildBlocks(), prog, memo);
+			}
+			else if( pb instanceof FunctionProgramBlock ) {
+				ret &= rIsDeterministic((FunctionProgramBlock)pb, prog, memo);
+			}
+			else {
+				ret &= isDeterministic(pb.getInstructions(), prog, memo);
+			}
+			
+			//early abort if not deterministic
+			if( !ret ) break;
+		}
+		return ret;
+	}
+	
+	private static boolean isDeterministic(ArrayList<Instruction> insts, Program prog, HashSet<FunctionProgramBlock> memo) 
+		throws DMLRuntimeException
+	{
+		if( insts == null )
+			return true;
+		
+		for( Instruction inst : insts ) {
+			if( !(inst instanceof CPInstruction) )
+				return false; //distributed instructions (w/o cp outputs)
+			CPInstruction cpinst = (CPInstruction) inst;
+			String opcode = cpinst.getOpcode();
+			switch( cpinst.getCPInstructionType() ) {
+				case Rand:
+					if( !opcode.equals(DataGen.SEQ_OPCODE) && !isConstantRand(cpinst) )
+						return false;
+					break;
+				case BuiltinUnary:
+					if( opcode.equals("print") || opcode.equals("stop") )
+						return false;
+					break;
+				case Variable:
+					//writes and reads of persistent files (may change across calls)
+					if( opcode.equals("write") || opcode.equals("read") 
+						|| isPersistentCreateVar((VariableCPInstruction)cpinst) )
+						return false;
+					break;
+				case External:
+					if( !(inst instanceof FunctionCallCPInstruction) )
+						return false;
+					FunctionCallCPInstruction finst = (FunctionCallCPInstruction) inst;
+					if( !rIsDeterministic(prog.getFunctionProgramBlock(
+						finst.getNamespace(), finst.getFunctionName()), prog, memo) )
+						return false;
+					break;
+				default:
+					//deterministic w/o side effects
+			}
+		}
+		return true;
+	}
+	
+	private static boolean isPersistentCreateVar(VariableCPInstruction inst) 
+	{
+		//createvar of existing file (no generated unique filename of temporaries)
+		return inst.getOpcode().equals("createvar") && inst.getInput3() != null
+			&& !Boolean.parseBoolean(inst.getInput3().getName());
+	}
+	
+	private static boolean isConstantRand(CPInstruction inst) 
+		throws DMLRuntimeException
+	{
+		//constant matrices, e.g., matrix(7, rows, cols) w/ min=max (literal 
+		//or same variable) and either dense or zero values
+		String[] parts = InstructionUtils.getInstructionPartsWithValueType(inst.toString());
+		return parts[0].equals(DataGen.RAND_OPCODE) && parts[5].equals(parts[6])
+			&& (Double.parseDouble(parts[7]) == 1 || (!parts[5].contains(Lop.VARIABLE_NAME_PLACEHOLDER) 
+				&& Double.parseDouble(parts[5]) == 0));
+	}
+	
+	private static class CacheEntry
+	{
+		private final LineageItem key;
+		private final Data value; //matrix object of cache or scalar
+		private final long size;
+		private final long computeTime;
+		private boolean dropped = false; //guarded by value
+		
+		public CacheEntry(LineageItem key, Data value, long size, long computeTime) {
+			this.key = key;
+			this.value = value;
+			this.size = size;
+			this.computeTime = computeTime;
+		}
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.controlprogram.caching;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.WeakHashMap;
+
+import org.apache.sysml.runtime.controlprogram.parfor.util.IDSequence;
+
+/**
+ * Node of the lineage DAG of a data object, which is either a leaf (input
+ * matrix or scalar value) or an operation (instruction signature or function
+ * name) over the lineage of its inputs. Equivalent lineage implies equivalent
+ * data, which allows the lineage cache to reuse results of deterministic 
+ * operations. Leaf items of matrices carry a unique id (i.e., only equal to 
+ * themselves), while scalar leaves are compared by value.
+ * 
+ * Inputs are hash-consed on construction, i.e., structurally equal inputs 
+ * are replaced by a single canonical item. Hence, items are equal if their
+ * opcodes and ids are equal and their inputs are identical, which makes the 
+ * comparison independent of the lineage depth.
+ */
+public class LineageItem 
+{
+	//maximum depth of lineage DAGs (deeper items are truncated to new leafs)
+	public static final int MAX_DEPTH = 64;
+	
+	private static final LineageItem[] EMPTY_INPUTS = new LineageItem[0];
+	private static final IDSequence _seq = new IDSequence();
+	private static final WeakHashMap<LineageItem, WeakReference<LineageItem>> _canonical 
+		= new WeakHashMap<LineageItem, WeakReference<LineageItem>>();
+	
+	private final long _id;
+	private final String _opcode;
+	private final LineageItem[] _inputs;
+	private final int _depth;
+	private final int _hash;
+	
+	/**
+	 * Creates a new leaf item with unique id (e.g., for matrices w/o 
+	 * known lineage).
+	 */
+	public LineageItem() {
+		this(_seq.getNextID(), "leaf", EMPTY_INPUTS);
+	}
+	
+	/**
+	 * Creates a new leaf item of the given scalar value.
+	 * 
+	 * @param value string representation of value and value type
+	 */
+	public LineageItem(String value) {
+		this(0, value, EMPTY_INPUTS);
+	}
+	
+	/**
+	 * Creates a new item of the given operation over the given inputs.
+	 * 
+	 * @param opcode operation signature
+	 * @param inputs lineage of operation inputs
+	 */
+	public LineageItem(String opcode, LineageItem[] inputs) {
+		this(0, opcode, inputs);
+	}
+	
+	private LineageItem(long id, String opcode, LineageItem[] inputs) {
+		_id = id;
+		_opcode = opcode;
+		_inputs = new LineageItem[inputs.length];
+		for( int i=0; i<inputs.length; i++ )
+			_inputs[i] = canonical(inputs[i]);
+		
+		int depth = 0;
+		for( LineageItem in : inputs )
+			depth = Math.max(depth, in._depth + 1);
+		_depth = depth;
+		
+		int hash = 31 * Long.valueOf(id).hashCode() + opcode.hashCode();
+		_hash = 31 * hash + Arrays.hashCode(_inputs);
+	}
+	
+	public String getOpcode() {
+		return _opcode;
+	}
+	
+	public LineageItem[] getInputs() {
+		return _inputs;
+	}
+	
+	public int getDepth() {
+		return _depth;
+	}
+	
+	public boolean isLeaf() {
+		return _inputs.length == 0;
+	}
+	
+	@Override
+	public int hashCode() {
+		return _hash;
+	}
+	
+	@Override
+	public boolean equals(Object o) 
+	{
+		if( this == o )
+			return true;
+		if( !(o instanceof LineageItem) )
+			return false;
+		
+		//compare attributes and inputs by identity (canonical inputs)
+		LineageItem that = (LineageItem) o;
+		if( _hash != that._hash || _id != that._id 
+			|| _inputs.length != that._inputs.length
+			|| !_opcode.equals(that._opcode) )
+			return false;
+		for( int i=0; i<_inputs.length; i++ )
+			if( _inputs[i] != that._inputs[i] )
+				return false;
+		return true;
+	}
+	
+	/**
+	 * Obtains the canonical item of the given item, where the given item
+	 * becomes canonical if no structurally equal item exists. Unique leaf
+	 * items are canonical by definition.
+	 * 
+	 * @param li lineage item
+	 * @return canonical lineage item
+	 */
+	private static LineageItem canonical(LineageItem li) 
+	{
+		if( li._id > 0 )
+			return li;
+		
+		synchronized( _canonical ) {
+			WeakReference<LineageItem> ref = _canonical.get(li);
+			LineageItem ret = (ref != null) ? ref.get() : null;
+			if( ret == null ) {
+				_canonical.put(li, new WeakReference<LineageItem>(li));
+				ret = li;
+			}
+			return ret;
+		}
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(_opcode);
+		if( _id > 0 ) {
+			sb.append("#");
+			sb.append(_id);
+		}
+		if( _inputs.length > 0 ) {
+			sb.append("(");
+			for( int i=0; i<_inputs.length; i++ ) {
+				if( i > 0 )
+					sb.append(",");
+				sb.append(_inputs[i].toString());
+			}
+			sb.append(")");
+		}
+		return sb.toString();
+	}
+}
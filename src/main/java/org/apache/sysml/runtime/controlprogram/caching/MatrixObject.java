@@ -41,13 +41,13 @@ import org.apache.sysml.runtime.matrix.MatrixFormatMetaData;
 import org.apache.sysml.runtime.matrix.MetaData;
 import org.apache.sysml.runtime.matrix.data.FileFormatProperties;
 import org.apache.sysml.runtime.matrix.data.InputInfo;
-import org.apache.sysml.runtime.matrix.data.LibMatrixDNN;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.data.NumItemsByEachReducerMetaData;
 import org.apache.sysml.runtime.matrix.data.OutputInfo;
 import org.apache.sysml.runtime.util.DataConverter;
 import org.apache.sysml.runtime.util.IndexRange;
 import org.apache.sysml.runtime.util.MapReduceTool;
+import org.apache.sysml.utils.Statistics;
 
 
 /**
@@ -76,6 +76,14 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 	//additional matrix-specific flags
 	private UpdateType _updateType = UpdateType.COPY; 
 	
+	//zero-copy row-range views: number of views that share the data of this
+	//object, and parent object whose data is shared by this object's view
+	private int _numViews = 0;
+	private MatrixObject _viewParent = null;
+	
+	//indicator if the data is shared with the lineage cache
+	private boolean _lineageCached = false;
+	
 	//information relevant to partitioned matrices.
 	private boolean _partitioned = false; //indicates if obj partitioned
 	private PDataPartitionFormat _partitionFormat = null; //indicates how obj partitioned
@@ -143,6 +151,63 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 		return _updateType;
 	}
 	
+	/**
+	 * Registers the in-memory data of this matrix object as row-range view 
+	 * of the given parent, which pins the parent in memory (no eviction, no 
+	 * reuse of its arrays) until the data of this object is cleared.
+	 * 
+	 * @param parent
+	 */
+	public synchronized void setViewParent(MatrixObject parent) {
+		releaseViewParent();
+		//views of views share the data of the root parent
+		if( parent != null && parent._viewParent != null )
+			parent = parent._viewParent;
+		if( parent != null && parent != this ) {
+			parent.addView();
+			_viewParent = parent;
+		}
+	}
+	
+	/**
+	 * Indicates if row-range views share the data of this matrix object, 
+	 * which prohibits in-place updates of its data.
+	 * 
+	 * @return
+	 */
+	public synchronized boolean hasViews() {
+		return _numViews > 0;
+	}
+	
+	/**
+	 * Indicates if the data of this matrix object is shared with the lineage
+	 * cache, which prohibits in-place updates and reuse of its buffers.
+	 * 
+	 * @return
+	 */
+	public boolean isLineageCached() {
+		return _lineageCached;
+	}
+	
+	public void setLineageCached(boolean flag) {
+		_lineageCached = flag;
+	}
+	
+	private synchronized void addView() {
+		_numViews++;
+	}
+	
+	private synchronized void removeView() {
+		_numViews--;
+	}
+	
+	private void releaseViewParent() {
+		if( _viewParent != null ) {
+			_viewParent.removeView();
+			_viewParent = null;
+		}
+	}
+	
 	@Override
 	public void updateMatrixCharacteristics (MatrixCharacteristics mc) {
 		((MatrixDimensionsMetaData)_metaData).setMatrixCharacteristics( mc );
@@ -221,18 +286,68 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 	}
 	
 	@Override
-	protected void clearReusableData() {
-		if(DMLScript.REUSE_NONZEROED_OUTPUT) {
-			if(_data == null) {
-				getCache();
-			}
-			if(_data != null &&  
-					// Not a column vector
-					_data.getNumRows() != 1 && _data.getNumColumns() != 1) {
-				double[] arr = _data.getDenseBlock();
-				LibMatrixDNN.cacheReuseableData(arr);
-			}
+	public synchronized MatrixBlock acquireRead() 
+		throws CacheException
+	{
+		return acquireRead(true);
+	}
+	
+	/**
+	 * Acquires the in-memory data for read, where dense row-range views at 
+	 * a row offset are materialized (and the parent unpinned) unless the
+	 * caller only creates row-range views of the data.
+	 * 
+	 * @param materializeViews
+	 * @return
+	 * @throws CacheException
+	 */
+	public synchronized MatrixBlock acquireRead(boolean materializeViews) 
+		throws CacheException
+	{
+		MatrixBlock ret = super.acquireRead();
+		if( materializeViews && ret != null && ret.isOffsetView() ) {
+			ret.materializeView();
+			releaseViewParent();
+			if( DMLScript.STATISTICS )
+				Statistics.incrementTotalRowsViewsMaterialized();
 		}
+		return ret;
+	}
+	
+	@Override
+	public synchronized void release() 
+		throws CacheException
+	{
+		//unpin the parent of a view materialized by in-place updates
+		if( _viewParent != null && (_data == null || !_data.isView()) )
+			releaseViewParent();
+		
+		super.release();
+	}
+	
+	@Override
+	public synchronized void clearData(boolean reuse) 
+		throws CacheException
+	{
+		super.clearData(reuse);
+		
+		//unpin the parent of a cleared view
+		if( _data == null )
+			releaseViewParent();
+	}
+	
+	@Override
+	protected void clearReusableData() {
+		//no reuse of buffers shared with views or the lineage cache, in-place updated
+		//outputs, or lazily evaluated rdds, broadcasts, and device copies
+		if( isSharedData() || _lineageCached || getUpdateType().isInPlace() || getRDDHandle() != null 
+			|| getBroadcastHandle() != null || getGPUObject() != null )
+			return;
+		
+		if( _data == null )
+			getCache();
+		if( _data != null )
+			ReusePool.putBlock(_data);
 	}
 	
 	@Override
@@ -511,6 +626,11 @@ public class MatrixObject extends CacheableData<MatrixBlock>
 			|| getUpdateType() == UpdateType.INPLACE_PINNED;
 	}
 	
+	@Override
+	protected boolean isSharedData() {
+		return _numViews > 0 || _viewParent != null;
+	}
+	
 	@Override
 	protected MatrixBlock readBlobFromCache(String fname) throws IOException {
 		return (MatrixBlock)LazyWriteBuffer.readBlock(fname, true);
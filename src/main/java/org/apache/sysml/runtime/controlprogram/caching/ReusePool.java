@@ -0,0 +1,284 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.controlprogram.caching;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Map.Entry;
+
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlockMCSR;
+import org.apache.sysml.runtime.matrix.data.SparseRow;
+
+/**
+ * Pool of dense and sparse buffers of dead intermediates for reuse across
+ * loop iterations. On rmvar, the buffers of unshared matrix blocks are put
+ * into size classes (dense arrays by length, MCSR blocks by number of rows)
+ * and handed out again on the allocation of same-sized outputs, which 
+ * reduces GC churn for iterative scripts. Pooled buffers are held via soft 
+ * references and the total pool size is capped to a fraction of the buffer 
+ * pool budget, where full pools first drop cleared entries and other size 
+ * classes (oldest first) before rejecting new buffers.
+ * 
+ * NOTE: The pool is only enabled with activated caching (see initCaching), 
+ * and thus not in JMLC, where inputs are blocks owned by the caller.
+ */
+public class ReusePool 
+{
+	//minimum size of pooled buffers (smaller buffers are cheap to allocate)
+	private static final int MIN_SIZE = (int)(CacheableData.CACHING_THRESHOLD / 8);
+	
+	//approximate size of a sparse row excl arrays (object, array headers)
+	private static final long SPARSE_ROW_OVERHEAD = 64;
+	
+	private static boolean _enabled = false;
+	private static long _limit = 0;
+	private static long _size = 0;
+	private static HashMap<Integer, LinkedList<PoolEntry>> _dense = null;
+	private static HashMap<Integer, LinkedList<PoolEntry>> _sparse = null;
+	
+	/**
+	 * Enables the pool with the given maximum size of pooled buffers.
+	 * 
+	 * @param limit maximum size in bytes
+	 */
+	public static synchronized void init(long limit) {
+		_dense = new HashMap<Integer, LinkedList<PoolEntry>>();
+		_sparse = new HashMap<Integer, LinkedList<PoolEntry>>();
+		_limit = limit;
+		_size = 0;
+		_enabled = (limit > 0);
+	}
+	
+	/**
+	 * Disables the pool and releases all pooled buffers.
+	 */
+	public static synchronized void clear() {
+		_enabled = false;
+		_dense = null;
+		_sparse = null;
+		_size = 0;
+	}
+	
+	public static boolean isEnabled() {
+		return _enabled;
+	}
+	
+	public static synchronized long getSize() {
+		return _size;
+	}
+	
+	/**
+	 * Puts the dense array or MCSR sparse block of the given dead matrix 
+	 * block into the pool, and detaches it from the block. The caller is
+	 * responsible that the block is not referenced by any live variable.
+	 * 
+	 * @param mb matrix block of a dead variable
+	 */
+	public static void putBlock(MatrixBlock mb) 
+	{
+		if( !_enabled || mb == null || mb.isView() )
+			return;
+		
+		boolean pooled = false;
+		if( !mb.isInSparseFormat() && mb.getDenseBlock() != null ) {
+			double[] a = mb.getDenseBlock();
+			if( a.length >= MIN_SIZE )
+				pooled = put(a.length, a, 8L*a.length, false);
+		}
+		else if( mb.isInSparseFormat() && mb.getSparseBlock() instanceof SparseBlockMCSR ) {
+			SparseBlockMCSR a = (SparseBlockMCSR) mb.getSparseBlock();
+			if( a.numRows() >= MIN_SIZE )
+				pooled = put(a.numRows(), a, estimateSize(a), true);
+		}
+		
+		//detach pooled buffers to prevent any access via the dead block
+		if( pooled ) {
+			mb.cleanupBlock(true, true);
+			if( DMLScript.STATISTICS )
+				CacheStatistics.incrementReusePuts();
+		}
+	}
+	
+	/**
+	 * Obtains a pooled dense array of exactly the given length, if available.
+	 * 
+	 * @param len number of cells
+	 * @param zeroOut if true, the returned array is zero-initialized
+	 * @return dense array or null if no array of this size class is pooled
+	 */
+	public static double[] getDenseBlock(long len, boolean zeroOut) 
+	{
+		if( !_enabled || len < MIN_SIZE || len > Integer.MAX_VALUE )
+			return null;
+		
+		double[] ret = (double[]) get((int)len, false);
+		if( ret != null && zeroOut )
+			Arrays.fill(ret, 0);
+		return ret;
+	}
+	
+	/**
+	 * Obtains a pooled and empty MCSR sparse block of exactly the given 
+	 * number of rows, if available. Allocated sparse rows are retained 
+	 * in order to reuse their arrays.
+	 * 
+	 * @param rlen number of rows
+	 * @return sparse block or null if no block of this size class is pooled
+	 */
+	public static SparseBlock getSparseBlock(int rlen) 
+	{
+		if( !_enabled || rlen < MIN_SIZE )
+			return null;
+		
+		SparseBlockMCSR ret = (SparseBlockMCSR) get(rlen, true);
+		if( ret != null )
+			ret.reset();
+		return ret;
+	}
+	
+	private static synchronized boolean put(int key, Object buff, long size, boolean sparse) 
+	{
+		if( !_enabled || size > _limit )
+			return false;
+		
+		//make room by dropping cleared entries and other size classes
+		if( _size + size > _limit )
+			evict(_size + size - _limit, key, sparse);
+		if( _size + size > _limit )
+			return false;
+		
+		HashMap<Integer, LinkedList<PoolEntry>> pool = sparse ? _sparse : _dense;
+		LinkedList<PoolEntry> list = pool.get(key);
+		if( list == null ) {
+			list = new LinkedList<PoolEntry>();
+			pool.put(key, list);
+		}
+		list.addLast(new PoolEntry(buff, size));
+		_size += size;
+		return true;
+	}
+	
+	private static synchronized Object get(int key, boolean sparse) 
+	{
+		if( !_enabled )
+			return null;
+		
+		Object ret = null;
+		HashMap<Integer, LinkedList<PoolEntry>> pool = sparse ? _sparse : _dense;
+		LinkedList<PoolEntry> list = pool.get(key);
+		while( list != null && !list.isEmpty() && ret == null ) {
+			PoolEntry entry = list.removeLast(); //most recently pooled
+			_size -= entry.size;
+			ret = entry.ref.get();
+		}
+		if( list != null && list.isEmpty() )
+			pool.remove(key);
+		
+		if( DMLScript.STATISTICS ) {
+			if( ret != null )
+				CacheStatistics.incrementReuseHits();
+			else
+				CacheStatistics.incrementReuseMisses();
+		}
+		return ret;
+	}
+	
+	private static void evict(long required, int key, boolean sparse) 
+	{
+		//drop entries cleared by the garbage collector
+		long freed = purge(_dense) + purge(_sparse);
+		
+		//drop other size classes (oldest entries first)
+		if( freed < required )
+			freed += evict(_dense, required - freed, sparse ? -1 : key);
+		if( freed < required )
+			freed += evict(_sparse, required - freed, sparse ? key : -1);
+	}
+	
+	private static long evict(HashMap<Integer, LinkedList<PoolEntry>> pool, long required, int skip) 
+	{
+		long freed = 0;
+		Iterator<Entry<Integer, LinkedList<PoolEntry>>> iter = pool.entrySet().iterator();
+		while( iter.hasNext() && freed < required ) {
+			Entry<Integer, LinkedList<PoolEntry>> e = iter.next();
+			if( e.getKey() == skip )
+				continue;
+			LinkedList<PoolEntry> list = e.getValue();
+			while( !list.isEmpty() && freed < required ) {
+				PoolEntry entry = list.removeFirst();
+				_size -= entry.size;
+				freed += entry.size;
+			}
+			if( list.isEmpty() )
+				iter.remove();
+		}
+		return freed;
+	}
+	
+	private static long purge(HashMap<Integer, LinkedList<PoolEntry>> pool) 
+	{
+		long freed = 0;
+		Iterator<LinkedList<PoolEntry>> iter = pool.values().iterator();
+		while( iter.hasNext() ) {
+			LinkedList<PoolEntry> list = iter.next();
+			Iterator<PoolEntry> iter2 = list.iterator();
+			while( iter2.hasNext() ) {
+				PoolEntry entry = iter2.next();
+				if( entry.ref.get() == null ) {
+					iter2.remove();
+					_size -= entry.size;
+					freed += entry.size;
+				}
+			}
+			if( list.isEmpty() )
+				iter.remove();
+		}
+		return freed;
+	}
+	
+	private static long estimateSize(SparseBlockMCSR sblock) 
+	{
+		long size = 8L * sblock.numRows();
+		for( int i=0; i<sblock.numRows(); i++ ) {
+			SparseRow row = sblock.get(i);
+			if( row != null )
+				size += SPARSE_ROW_OVERHEAD + 12L * row.capacity();
+		}
+		return size;
+	}
+	
+	private static class PoolEntry
+	{
+		private final SoftReference<Object> ref;
+		private final long size;
+		
+		public PoolEntry(Object buff, long size) {
+			this.ref = new SoftReference<Object>(buff);
+			this.size = size;
+		}
+	}
+}
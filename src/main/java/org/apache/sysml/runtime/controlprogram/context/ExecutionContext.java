@@ -35,6 +35,8 @@ import org.apache.sysml.runtime.controlprogram.Program;
 import org.apache.sysml.runtime.controlprogram.caching.CacheException;
 import org.apache.sysml.runtime.controlprogram.caching.CacheableData;
 import org.apache.sysml.runtime.controlprogram.caching.FrameObject;
+import org.apache.sysml.runtime.controlprogram.caching.Lineage;
+import org.apache.sysml.runtime.controlprogram.caching.LineageCache;
 import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
 import org.apache.sysml.runtime.controlprogram.caching.MatrixObject.UpdateType;
 import org.apache.sysml.runtime.instructions.Instruction;
@@ -70,6 +72,9 @@ public class ExecutionContext
 	
 	protected GPUContext _gpuCtx = null;
 	
+	//lineage of live variables (if lineage cache enabled)
+	protected Lineage _lineage = null;
+	
 	protected ExecutionContext()
 	{
 		//protected constructor to force use of ExecutionContextFactory
@@ -97,6 +102,8 @@ public class ExecutionContext
 		else
 			_variables = null;
 		_prog = prog;
+		if( LineageCache.isEnabled() )
+			_lineage = new Lineage();
 		if (DMLScript.ENABLE_DEBUG_MODE){
 			_dbState = DebugState.getInstance();
 		}
@@ -114,6 +121,10 @@ public class ExecutionContext
 		_variables = vars;
 	}
 	
+	public Lineage getLineage() {
+		return _lineage;
+	}
+	
 	public void destroyGPUContext() throws DMLRuntimeException {
 		if(_gpuCtx != null)
 			_gpuCtx.destroy();
@@ -240,6 +251,22 @@ public class ExecutionContext
 		return mo.acquireRead();
 	}
 	
+	/**
+	 * Pins a matrix variable into memory without materializing dense row-range
+	 * views at a row offset, which is only valid for callers that create
+	 * row-range views of the returned block.
+	 * 
+	 * @param varName
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public MatrixBlock getMatrixInputView(String varName) 
+		throws DMLRuntimeException 
+	{	
+		MatrixObject mo = getMatrixObject(varName);
+		return mo.acquireRead(false);
+	}
+	
 	public void setMetaData(String varName, long nrows, long ncols) 
 		throws DMLRuntimeException  
 	{
@@ -394,6 +421,25 @@ public class ExecutionContext
 	    setVariable(varName, mo);
 	}
 	
+	/**
+	 * Sets a zero-copy row-range view of the given parent as output, where
+	 * the parent is pinned in memory until the data of the output is cleared.
+	 * 
+	 * @param varName
+	 * @param view
+	 * @param parent
+	 * @throws DMLRuntimeException
+	 */
+	public void setMatrixOutputView(String varName, MatrixBlock view, MatrixObject parent) 
+		throws DMLRuntimeException 
+	{
+		MatrixObject mo = getMatrixObject(varName);
+		mo.acquireModify(view);
+		mo.setViewParent(parent);
+		mo.release();
+		setVariable(varName, mo);
+	}
+	
 	/**
 	 * 
 	 * @param varName
@@ -527,8 +573,8 @@ public class ExecutionContext
 			{
 				//compute ref count only if matrix cleanup actually necessary
 				if ( !getVariables().hasReferences(mo) ) {
-					//clean cached data	
-					mo.clearData(); 
+					//clean cached data (w/ reuse of dead buffers)
+					mo.clearData(true); 
 					if( mo.isHDFSFileExists() )
 					{
 						//clean hdfs data
@@ -20,6 +20,7 @@
 package org.apache.sysml.runtime.controlprogram.parfor;
 
 import java.util.Collection;
+import java.util.concurrent.ConcurrentLinkedDeque;
 
 import org.apache.sysml.conf.CompilerConfig;
 import org.apache.sysml.conf.ConfigurationManager;
@@ -35,12 +36,24 @@ import org.apache.sysml.runtime.controlprogram.parfor.stat.Timing;
  * 
  * Resiliency approach: retry on computation error, abort on task queue error
  * 
+ * Load balancing approach: each worker reads small batches of tasks from the shared task queue
+ * into a local deque, which it processes from the head. Idle workers, i.e., workers that find
+ * the shared queue and their local deque empty, steal tasks from the tail of other workers' 
+ * deques. This rebalances skewed iterations without re-partitioning or additional accesses 
+ * to the shared queue.
+ * 
  * 
  */
 public class LocalParWorker extends ParWorker implements Runnable
 {
 	protected LocalTaskQueue<Task> _taskQueue   = null;
 	
+	//local task deque and peer workers for work stealing
+	protected final ConcurrentLinkedDeque<Task> _localTasks = new ConcurrentLinkedDeque<Task>();
+	protected LocalParWorker[] _peers = null;
+	protected int _batchSize = 1;
+	protected long _numSteals = 0;
+	
 	protected Collection<String> _fnNames = null;
 	
 	protected CompilerConfig _cconf  = null;
@@ -74,6 +87,22 @@ public class LocalParWorker extends ParWorker implements Runnable
 		return _fnNames;
 	}
 	
+	/**
+	 * Enables work stealing across the given workers (including this worker), 
+	 * where each worker reads up to batchSize tasks at once from the shared queue.
+	 * 
+	 * @param peers all workers sharing the task queue
+	 * @param batchSize maximum number of tasks per read from the shared queue
+	 */
+	public void setWorkStealing(LocalParWorker[] peers, int batchSize) {
+		_peers = peers;
+		_batchSize = Math.max(batchSize, 1);
+	}
+	
+	public long getNumStolenTasks() {
+		return _numSteals;
+	}
+	
 	@Override
 	public void run() 
 	{
@@ -97,7 +126,7 @@ public class LocalParWorker extends ParWorker implements Runnable
 			//dequeue the next task (abort on NO_MORE_TASKS or error)
 			try
 			{
-				lTask = _taskQueue.dequeueTask();
+				lTask = getNextTask();
 				
 				if( lTask == LocalTaskQueue.NO_MORE_TASKS ) // task queue closed (no more tasks)
 					break; //normal end of parallel worker
@@ -149,9 +178,59 @@ public class LocalParWorker extends ParWorker implements Runnable
 		if( _monitor ) {
 			StatisticMonitor.putPWStat(_workerID, Stat.PARWRK_NUMTASKS, _numTasks);
 			StatisticMonitor.putPWStat(_workerID, Stat.PARWRK_NUMITERS, _numIters);
+			StatisticMonitor.putPWStat(_workerID, Stat.PARWRK_NUMSTEALS, _numSteals);
 			StatisticMonitor.putPWStat(_workerID, Stat.PARWRK_EXEC_T, time1.stop());
 		}
 	}
-}
-
 	
+	/**
+	 * Gets the next task from (1) the local deque, (2) the shared task queue, or 
+	 * (3) the deques of other workers, in this order. 
+	 * 
+	 * @return next task or NO_MORE_TASKS if all tasks have been consumed
+	 * @throws InterruptedException
+	 */
+	private Task getNextTask() 
+		throws InterruptedException
+	{
+		//without work stealing, read directly from shared queue
+		if( _peers == null )
+			return _taskQueue.dequeueTask();
+		
+		//read from the head of the local deque
+		Task lTask = _localTasks.pollFirst();
+		if( lTask != null )
+			return lTask;
+		
+		//read a batch of tasks from the shared queue (blocking until
+		//tasks are available or the queue input has been closed)
+		int batch = Math.max(1, Math.min(_batchSize, _taskQueue.size()/_peers.length));
+		if( _taskQueue.dequeueTasks(_localTasks, batch) > 0 )
+			return _localTasks.pollFirst();
+		
+		//steal from the tail of other workers' deques (the owner of remaining
+		//tasks always processes them itself, hence this worker can stop if there 
+		//are no more tasks to steal)
+		lTask = stealTask();
+		if( lTask != null )
+			return lTask;
+		
+		return (Task)LocalTaskQueue.NO_MORE_TASKS;
+	}
+	
+	private Task stealTask() {
+		//find own position to start stealing from the next worker
+		int pos = 0;
+		while( pos < _peers.length && _peers[pos] != this )
+			pos++;
+		
+		for( int i=1; i<_peers.length; i++ ) {
+			Task lTask = _peers[(pos+i) % _peers.length]._localTasks.pollLast();
+			if( lTask != null ) {
+				_numSteals++;
+				return lTask;
+			}
+		}
+		return null;
+	}
+}
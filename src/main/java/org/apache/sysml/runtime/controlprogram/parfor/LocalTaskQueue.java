@@ -19,7 +19,10 @@
 
 package org.apache.sysml.runtime.controlprogram.parfor;
 
-import java.util.LinkedList;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -30,11 +33,12 @@ import org.apache.commons.logging.LogFactory;
  * for achieving dynamic load balancing. A good load balance between parallel workers is crucial
  * with regard to the overall speedup of parallelization (see Amdahl's law).
  * 
- * From a technical perspective, a thread monitor concept is used for blocking of waiting writers
- * and readers. Synchronized writes and reads ensure that each task is only read by exactly one
- * reader. Furthermore, the queue is implemented as a simple FIFO.
+ * From a technical perspective, the queue is a bounded multi-producer/multi-consumer FIFO.
+ * Enqueue and dequeue are lock-free on a non-blocking linked queue, which ensures that each task 
+ * is only read by exactly one reader. Only readers of an empty queue and writers of a full queue 
+ * block on a monitor, and writers/readers signal this monitor only if there are blocked threads. 
+ * The number and duration of such blocking waits is maintained as queue contention statistics.
  * 
- *
  */
 public class LocalTaskQueue<T> 
 {
@@ -42,89 +46,167 @@ public class LocalTaskQueue<T>
 	public static final int    MAX_SIZE      = 100000; //main memory constraint
 	public static final Object NO_MORE_TASKS = null; //object to signal NO_MORE_TASKS
 	
-	private LinkedList<T>  _data        = null;
-	private boolean 	   _closedInput = false; 
+	private final ConcurrentLinkedQueue<T> _data;
+	private final AtomicInteger _size;
+	private volatile boolean _closedInput = false; 
+	
+	//monitor for blocking readers/writers
+	private final Object _lock = new Object();
+	private final AtomicInteger _waitingReaders = new AtomicInteger(0);
+	private final AtomicInteger _waitingWriters = new AtomicInteger(0);
+	
+	//contention statistics
+	private final AtomicLong _numReadWaits = new AtomicLong(0);
+	private final AtomicLong _numWriteWaits = new AtomicLong(0);
+	private final AtomicLong _waitTime = new AtomicLong(0); //in ns
+	
 	private static final Log LOG = LogFactory.getLog(LocalTaskQueue.class.getName());
 	
 	public LocalTaskQueue()
 	{
-		_data        = new LinkedList<T>();
+		_data        = new ConcurrentLinkedQueue<T>();
+		_size        = new AtomicInteger(0);
 		_closedInput = false;
 	}
 	
 	/**
-	 * Synchronized insert of a new task to the end of the FIFO queue.
+	 * Insert of a new task to the end of the FIFO queue. This call only blocks 
+	 * if the queue reached its maximum size.
 	 * 
 	 * @param t
 	 * @throws InterruptedException
 	 */
-	public synchronized void enqueueTask( T t ) 
+	public void enqueueTask( T t ) 
 		throws InterruptedException
 	{
-		while( _data.size() + 1 > MAX_SIZE )
-		{
+		//wait for readers if max constraint reached
+		if( _size.get() >= MAX_SIZE ) {
 			LOG.warn("MAX_SIZE of task queue reached.");
-			wait(); //max constraint reached, wait for read
+			long t0 = System.nanoTime();
+			synchronized( _lock ) {
+				_waitingWriters.incrementAndGet();
+				try {
+					while( _size.get() >= MAX_SIZE )
+						_lock.wait();
+				}
+				finally {
+					_waitingWriters.decrementAndGet();
+				}
+			}
+			_numWriteWaits.incrementAndGet();
+			_waitTime.addAndGet(System.nanoTime()-t0);
 		}
 		
-		_data.addLast( t );
+		_size.incrementAndGet();
+		_data.offer( t );
 		
-		notify(); //notify waiting readers
+		//notify waiting readers
+		if( _waitingReaders.get() > 0 )
+			signalAll();
 	}
 	
 	/**
-	 * Synchronized read and delete from the top of the FIFO queue.
+	 * Read and delete from the top of the FIFO queue. This call blocks 
+	 * until a task is available or the input has been closed.
 	 * 
-	 * @return
+	 * @return task or NO_MORE_TASKS if queue is empty and closed
 	 * @throws InterruptedException
 	 */
-	@SuppressWarnings("unchecked")
-	public synchronized T dequeueTask() 
+	public T dequeueTask() 
 		throws InterruptedException
 	{
-		while( _data.isEmpty() )
-		{
-			if( !_closedInput )
-				wait(); // wait for writers
-			else
-				return (T)NO_MORE_TASKS; 
-		}
-		
-		T t = _data.removeFirst();
+		T t = _data.poll();
+		if( t == null )
+			t = waitForTask();
+		if( t != null )
+			onDequeue(1);
+		return t;
+	}
+	
+	/**
+	 * Read and delete up to maxTasks tasks from the top of the FIFO queue
+	 * into the given collection. This call blocks until at least one task is 
+	 * available or the input has been closed. Reading multiple tasks at once 
+	 * reduces the number of accesses to the shared queue for fine-grained tasks.
+	 * 
+	 * @param out collection of dequeued tasks
+	 * @param maxTasks maximum number of dequeued tasks
+	 * @return number of dequeued tasks, 0 if queue is empty and closed
+	 * @throws InterruptedException
+	 */
+	public int dequeueTasks( Collection<T> out, int maxTasks ) 
+		throws InterruptedException
+	{
+		T t = dequeueTask();
+		if( t == NO_MORE_TASKS )
+			return 0;
+		out.add(t);
 		
-		notify(); // notify waiting writers
+		//non-blocking read of additional available tasks
+		int count = 1;
+		for( ; count < maxTasks && (t = _data.poll()) != null; count++ )
+			out.add(t);
+		if( count > 1 )
+			onDequeue(count-1);
 		
-		return t;
+		return count;
 	}
 	
 	/**
-	 * Synchronized (logical) insert of a NO_MORE_TASKS symbol at the end of the FIFO queue in order to
+	 * (Logical) insert of a NO_MORE_TASKS symbol at the end of the FIFO queue in order to
 	 * mark that no more tasks will be inserted into the queue.
 	 */
-	public synchronized void closeInput()
+	public void closeInput()
 	{
 		_closedInput = true;
-		notifyAll(); //notify all waiting readers
+		signalAll(); //notify all waiting readers
 	}
 	
 	/**
-	 * Synchronized read of the current number of tasks in the queue.
+	 * Read of the current number of tasks in the queue.
 	 * 
-	 * @return
+	 * @return number of tasks
 	 * @throws InterruptedException
 	 */
-	public synchronized int size()
+	public int size()
 		throws InterruptedException
 	{
-		return _data.size();
+		return _size.get();
+	}
+	
+	/**
+	 * Gets the number of blocking waits of readers on an empty queue.
+	 * 
+	 * @return number of read waits
+	 */
+	public long getNumReadWaits() {
+		return _numReadWaits.get();
+	}
+	
+	/**
+	 * Gets the number of blocking waits of writers on a full queue.
+	 * 
+	 * @return number of write waits
+	 */
+	public long getNumWriteWaits() {
+		return _numWriteWaits.get();
+	}
+	
+	/**
+	 * Gets the total time of blocking waits of readers and writers in ms.
+	 * 
+	 * @return wait time in ms
+	 */
+	public double getWaitTime() {
+		return ((double)_waitTime.get()) / 1000000;
 	}
 
 	@Override
-	public synchronized String toString() 
+	public String toString() 
 	{
 		StringBuilder sb = new StringBuilder();
 		sb.append("TASK QUEUE (size=");
-		sb.append(_data.size());
+		sb.append(_size.get());
 		sb.append(",close=");
 		sb.append(_closedInput);
 		sb.append(")\n");
@@ -143,4 +225,51 @@ public class LocalTaskQueue<T>
 		
 		return sb.toString();
 	}
+	
+	/**
+	 * Blocking wait of a reader on an empty queue. The reader is registered
+	 * before re-checking the queue, which guarantees that a concurrent writer
+	 * either sees the waiting reader or the reader sees the new task.
+	 * 
+	 * @return task or NO_MORE_TASKS if queue is empty and closed
+	 * @throws InterruptedException
+	 */
+	private T waitForTask() 
+		throws InterruptedException
+	{
+		T t = null;
+		long t0 = System.nanoTime();
+		synchronized( _lock ) {
+			_waitingReaders.incrementAndGet();
+			try {
+				while( (t = _data.poll()) == null && !_closedInput )
+					_lock.wait(); // wait for writers
+				
+				//re-check after close (tasks enqueued before close)
+				if( t == null )
+					t = _data.poll();
+			}
+			finally {
+				_waitingReaders.decrementAndGet();
+			}
+		}
+		_numReadWaits.incrementAndGet();
+		_waitTime.addAndGet(System.nanoTime()-t0);
+		
+		return t;
+	}
+	
+	private void onDequeue( int numTasks ) {
+		_size.addAndGet(-numTasks);
+		
+		//notify waiting writers
+		if( _waitingWriters.get() > 0 )
+			signalAll();
+	}
+	
+	private void signalAll() {
+		synchronized( _lock ) {
+			_lock.notifyAll();
+		}
+	}
 }
@@ -73,6 +73,7 @@ import org.apache.sysml.runtime.instructions.cp.DoubleObject;
 import org.apache.sysml.runtime.instructions.cp.FunctionCallCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.IntObject;
 import org.apache.sysml.runtime.instructions.cp.ScalarObject;
+import org.apache.sysml.runtime.instructions.cp.SpoofCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.StringObject;
 import org.apache.sysml.runtime.instructions.cp.VariableCPInstruction;
 import org.apache.sysml.runtime.instructions.mr.MRInstruction;
@@ -1087,7 +1088,11 @@ public class ProgramConverter
 			if( count > 0 )
 				sb.append( ELEMENT_DELIM );
 			
-			sb.append( checkAndReplaceLiterals( linst.toString() ) );
+			//ship source code of generated operators, which are only 
+			//registered in the local class cache of the driver
+			String str = (linst instanceof SpoofCPInstruction) ?
+				((SpoofCPInstruction)linst).getInstructionStringWithSource() : linst.toString();
+			sb.append( checkAndReplaceLiterals( str ) );
 			count++;
 		}
 		
@@ -204,6 +204,8 @@ public class RemoteDPParForMR
 				CacheStatistics.incrementAcquireMTime(cgroup.getCounter( CacheStatistics.Stat.CACHE_TIME_ACQM.toString() ));
 				CacheStatistics.incrementReleaseTime(cgroup.getCounter( CacheStatistics.Stat.CACHE_TIME_RLS.toString() ));
 				CacheStatistics.incrementExportTime(cgroup.getCounter( CacheStatistics.Stat.CACHE_TIME_EXP.toString() ));
+				CacheStatistics.incrementLockWaitTime(cgroup.getCounter( CacheStatistics.Stat.CACHE_TIME_LOCK.toString() ));
+				CacheStatistics.incrementEvictionTime(cgroup.getCounter( CacheStatistics.Stat.CACHE_TIME_EVICT.toString() ));
 			}
 				
 			// read all files of result variables and prepare for return
@@ -38,10 +38,12 @@ import org.apache.sysml.hops.AggBinaryOp;
 import org.apache.sysml.hops.DataGenOp;
 import org.apache.sysml.hops.DataOp;
 import org.apache.sysml.hops.FunctionOp;
+import org.apache.sysml.hops.FunctionOp.FunctionType;
 import org.apache.sysml.hops.Hop;
 import org.apache.sysml.hops.AggBinaryOp.MMultMethod;
 import org.apache.sysml.hops.Hop.DataOpTypes;
 import org.apache.sysml.hops.Hop.MultiThreadedHop;
+import org.apache.sysml.hops.Hop.OpOp1;
 import org.apache.sysml.hops.Hop.ParamBuiltinOp;
 import org.apache.sysml.hops.Hop.ReOrgOp;
 import org.apache.sysml.hops.HopsException;
@@ -1536,12 +1538,19 @@ public class OptimizerRuleBased extends Optimizer
 					Hop h = OptTreeConverter.getAbstractPlanMapping().getMappedHop(c.getID());
 					if(    ConfigurationManager.isParallelMatrixOperations() 
 						&& h instanceof MultiThreadedHop //abop, datagenop, qop, paramop
-						&& !( h instanceof ParameterizedBuiltinOp //only paramop-grpagg
-							 && ((ParameterizedBuiltinOp)h).getOp()!=ParamBuiltinOp.GROUPEDAGG)
-						&& !( h instanceof UnaryOp //only unaryop-cumulativeagg
-							 && !((UnaryOp)h).isCumulativeUnaryOperation() )
-						&& !( h instanceof ReorgOp //only reorgop-transpose
-							 && ((ReorgOp)h).getOp() != ReOrgOp.TRANSPOSE ))
+						&& !( h instanceof ParameterizedBuiltinOp //only paramop-grpagg/rmempty/rexpand/replace/tfapply
+							 && ((ParameterizedBuiltinOp)h).getOp()!=ParamBuiltinOp.GROUPEDAGG
+							 && ((ParameterizedBuiltinOp)h).getOp()!=ParamBuiltinOp.RMEMPTY
+							 && ((ParameterizedBuiltinOp)h).getOp()!=ParamBuiltinOp.REXPAND
+							 && ((ParameterizedBuiltinOp)h).getOp()!=ParamBuiltinOp.REPLACE
+							 && ((ParameterizedBuiltinOp)h).getOp()!=ParamBuiltinOp.TRANSFORMAPPLY)
+						&& !( h instanceof UnaryOp //only unaryop-cumulativeagg/median/iqm
+							 && !((UnaryOp)h).isCumulativeUnaryOperation()
+							 && ((UnaryOp)h).getOp() != OpOp1.MEDIAN
+							 && ((UnaryOp)h).getOp() != OpOp1.IQM )
+						&& !( h instanceof ReorgOp //only reorgop-transpose/sort
+							 && ((ReorgOp)h).getOp() != ReOrgOp.TRANSPOSE
+							 && ((ReorgOp)h).getOp() != ReOrgOp.SORT ))
 					{
 						MultiThreadedHop mhop = (MultiThreadedHop) h;
 						mhop.setMaxNumThreads(opsK); //set max constraint in hop
@@ -1550,6 +1559,16 @@ public class OptimizerRuleBased extends Optimizer
 						recompileSB = true;	
 					}
 				}
+				else if( c.getNodeType() == NodeType.FUNCCALL && isMultiReturnBuiltinCall(c) )
+				{
+					//set degree of parallelism for multi-return builtins (e.g., transformencode),
+					//which have no function body and hence no hop nodes of their own
+					FunctionOp fop = (FunctionOp) OptTreeConverter.getAbstractPlanMapping().getMappedHop(c.getID());
+					int tmpK = ConfigurationManager.isParallelMatrixOperations() ? opsK : 1;
+					fop.setMaxNumThreads(tmpK); //set max constraint in hop
+					c.setK(tmpK); //set optnode k (for explain)
+					recompileSB = true;
+				}
 				else
 					rAssignRemainingParallelism(c, parforK, opsK);
 			}
@@ -1569,6 +1588,12 @@ public class OptimizerRuleBased extends Optimizer
 	}
 
 	
+	private static boolean isMultiReturnBuiltinCall( OptNode n ) {
+		Hop h = OptTreeConverter.getAbstractPlanMapping().getMappedHop(n.getID());
+		return ( h instanceof FunctionOp 
+			&& ((FunctionOp)h).getFunctionType() == FunctionType.MULTIRETURN_BUILTIN );
+	}
+	
 	///////
 	//REWRITE set task partitioner
 	///
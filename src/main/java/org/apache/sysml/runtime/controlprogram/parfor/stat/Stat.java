@@ -49,10 +49,15 @@ public enum Stat
 	PARFOR_INIT_TASKS_T,
 	PARFOR_WAIT_EXEC_T,
 	PARFOR_WAIT_RESULTS_T,
+	PARFOR_QUEUE_READWAITS,
+	PARFOR_QUEUE_WRITEWAITS,
+	PARFOR_QUEUE_WAIT_T,
+	PARFOR_NUMSTEALS,
 	
 	//parallel worker statistics
 	PARWRK_NUMTASKS,
 	PARWRK_NUMITERS,
+	PARWRK_NUMSTEALS,
 	PARWRK_TASKSIZE,
 	PARWRK_ITER_T,
 	PARWRK_TASK_T,
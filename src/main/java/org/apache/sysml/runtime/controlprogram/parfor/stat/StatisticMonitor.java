@@ -190,6 +190,14 @@ public class StatisticMonitor
 				sb.append("  Time WAIT EXEC    = "+stats.get(Stat.PARFOR_WAIT_EXEC_T).get(i)+"ms\n");
 				sb.append("  Time WAIT RESULT  = "+stats.get(Stat.PARFOR_WAIT_RESULTS_T).get(i)+"ms\n");
 				
+				if( stats.containsKey(Stat.PARFOR_QUEUE_READWAITS) )
+				{
+					sb.append("  Queue Read Waits  = "+(long)(double)stats.get(Stat.PARFOR_QUEUE_READWAITS).get(i)+"\n");
+					sb.append("  Queue Write Waits = "+(long)(double)stats.get(Stat.PARFOR_QUEUE_WRITEWAITS).get(i)+"\n");
+					sb.append("  Time QUEUE WAIT   = "+stats.get(Stat.PARFOR_QUEUE_WAIT_T).get(i)+"ms\n");
+					sb.append("  Num Stolen Tasks  = "+(long)(double)stats.get(Stat.PARFOR_NUMSTEALS).get(i)+"\n");
+				}
+				
 				//foreach parworker of this parfor
 				
 				int count2=1;
@@ -208,6 +216,8 @@ public class StatisticMonitor
 						sb.append("   --- ParWorker #"+count2+" (ID="+ pid +") Execution Statistics:\n");						
 						sb.append("       Num Tasks = "+ntasks+"\n");
 						sb.append("       Num Iters = "+niters+"\n");
+						if( stats2.containsKey(Stat.PARWRK_NUMSTEALS) )
+							sb.append("       Num Steals = "+(long)(double)stats2.get(Stat.PARWRK_NUMSTEALS).get(0)+"\n");
 						sb.append("       Time EXEC = "+stats2.get(Stat.PARWRK_EXEC_T).get(0)+"ms\n");
 						
 						LinkedList<Double> taskexec = stats2.get(Stat.PARWRK_TASK_T);
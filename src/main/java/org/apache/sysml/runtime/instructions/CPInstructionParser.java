@@ -36,6 +36,7 @@ import org.apache.sysml.runtime.instructions.cp.BooleanUnaryCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.BuiltinBinaryCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.BuiltinUnaryCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.CPInstruction;
+import org.apache.sysml.runtime.instructions.cp.CPOperand;
 import org.apache.sysml.runtime.instructions.cp.CentralMomentCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.CompressionCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.ConvolutionCPInstruction;
@@ -58,6 +59,7 @@ import org.apache.sysml.runtime.instructions.cp.QuantileSortCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.QuaternaryCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.RelationalBinaryCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.ReorgCPInstruction;
+import org.apache.sysml.runtime.instructions.cp.SpoofCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.StringInitCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.TernaryCPInstruction;
 import org.apache.sysml.runtime.instructions.cp.UaggOuterChainCPInstruction;
@@ -268,6 +270,7 @@ public class CPInstructionParser extends InstructionParser
 		
 		String2CPInstructionType.put( "partition", CPINSTRUCTION_TYPE.Partition);
 		String2CPInstructionType.put( "compress", CPINSTRUCTION_TYPE.Compression);
+		String2CPInstructionType.put( "spoof", CPINSTRUCTION_TYPE.SpoofFused);
 		
 		//CP FILE instruction
 		String2CPFileInstructionType = new HashMap<String, CPINSTRUCTION_TYPE>();
@@ -290,6 +293,43 @@ public class CPInstructionParser extends InstructionParser
 		return cpinst;
 	}
 	
+	/**
+	 * Creates a binary CP instruction (arithmetic or relational) from already 
+	 * resolved operands. This is used by lops to construct instructions directly 
+	 * during compilation and recompilation, without splitting and re-parsing the 
+	 * instruction string, which is only kept for explain and remote execution.
+	 * 
+	 * @param opcode
+	 * @param in1
+	 * @param in2
+	 * @param out
+	 * @param k
+	 * @param str
+	 * @return instruction, or null if the opcode is not supported by this path
+	 * @throws DMLRuntimeException
+	 */
+	public static CPInstruction createBinaryInstruction( String opcode, CPOperand in1, CPOperand in2, CPOperand out, int k, String str ) 
+		throws DMLRuntimeException 
+	{
+		CPINSTRUCTION_TYPE cptype = String2CPInstructionType.get(opcode);
+		if( cptype == null )
+			return null;
+		
+		switch( cptype ) 
+		{
+			case ArithmeticBinary:
+				if( opcode.equals("+*") || opcode.equals("-*") )
+					return null;
+				return ArithmeticBinaryCPInstruction.createInstruction(opcode, in1, in2, out, k, str);
+			
+			case RelationalBinary:
+				return RelationalBinaryCPInstruction.createInstruction(opcode, in1, in2, out, str);
+				
+			default:
+				return null;
+		}
+	}
+	
 	public static CPInstruction parseSingleInstruction ( CPINSTRUCTION_TYPE cptype, String str ) 
 		throws DMLRuntimeException 
 	{
@@ -421,6 +461,9 @@ public class CPInstructionParser extends InstructionParser
 	
 			case Compression:
 				return (CPInstruction) CompressionCPInstruction.parseInstruction(str);	
+			
+			case SpoofFused:
+				return SpoofCPInstruction.parseInstruction(str);
 				
 			case CentralMoment:
 				return CentralMomentCPInstruction.parseInstruction(str);
@@ -283,6 +283,20 @@ public class InstructionUtils
 		return (bfc != null);
 	}
 	
+	/**
+	 * Indicates if the given opcode refers to a cell-wise arithmetic operation,
+	 * whose CP instructions over matrix inputs carry a degree of parallelism.
+	 * 
+	 * @param opcode instruction opcode
+	 * @return true if arithmetic opcode
+	 */
+	public static boolean isArithmeticOpcode( String opcode ) {
+		return opcode.equals("+") || opcode.equals("-") || opcode.equals("-nz")
+			|| opcode.equals("*") || opcode.equals("*2") || opcode.equals("1-*")
+			|| opcode.equals("/") || opcode.equals("%%") || opcode.equals("%/%")
+			|| opcode.equals("^") || opcode.equals("^2");
+	}
+	
 	public static boolean isOperand(String str) {
 		//note: split required for empty tokens
 		String[] parts = str.split(Instruction.DATATYPE_PREFIX);
@@ -23,7 +23,9 @@ import org.apache.sysml.parser.Expression.DataType;
 import org.apache.sysml.parser.Expression.ValueType;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.instructions.InstructionUtils;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
 import org.apache.sysml.runtime.matrix.operators.Operator;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
 
 
 public abstract class ArithmeticBinaryCPInstruction extends BinaryCPInstruction 
@@ -46,8 +48,36 @@ public abstract class ArithmeticBinaryCPInstruction extends BinaryCPInstruction
 		CPOperand in1 = new CPOperand("", ValueType.UNKNOWN, DataType.UNKNOWN);
 		CPOperand in2 = new CPOperand("", ValueType.UNKNOWN, DataType.UNKNOWN);
 		CPOperand out = new CPOperand("", ValueType.UNKNOWN, DataType.UNKNOWN);
-		String opcode = parseBinaryInstruction(str, in1, in2, out);
 		
+		//parse instruction parts (incl optional degree of parallelism for matrix ops)
+		String[] parts = InstructionUtils.getInstructionPartsWithValueType(str);
+		InstructionUtils.checkNumFields ( parts, 3, 4 );
+		String opcode = parts[0];
+		in1.split(parts[1]);
+		in2.split(parts[2]);
+		out.split(parts[3]);
+		int k = (parts.length > 4) ? Integer.parseInt(parts[4]) : 1;
+		
+		return createInstruction(opcode, in1, in2, out, k, str);
+	}
+	
+	/**
+	 * Creates an arithmetic binary instruction from already parsed or resolved 
+	 * operands, which allows lops to construct instructions without re-parsing 
+	 * their instruction strings.
+	 * 
+	 * @param opcode
+	 * @param in1
+	 * @param in2
+	 * @param out
+	 * @param k
+	 * @param str
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static ArithmeticBinaryCPInstruction createInstruction( String opcode, CPOperand in1, CPOperand in2, CPOperand out, int k, String str ) 
+		throws DMLRuntimeException 
+	{
 		// Arithmetic operations must be performed on DOUBLE or INT
 		ValueType vt1 = in1.getValueType();
 		DataType dt1 = in1.getDataType();
@@ -103,10 +133,14 @@ public abstract class ArithmeticBinaryCPInstruction extends BinaryCPInstruction
 												  + " and "
 												  + out.getName());
 				
-			if(dt1 == DataType.MATRIX && dt2 == DataType.MATRIX)
+			if(dt1 == DataType.MATRIX && dt2 == DataType.MATRIX) {
+				((BinaryOperator)operator).setNumThreads(k);
 				return new MatrixMatrixArithmeticCPInstruction(operator, in1, in2, out, opcode, str);
-			else
-				return new ScalarMatrixArithmeticCPInstruction(operator, in1, in2, out, opcode, str);	
+			}
+			else {
+				((ScalarOperator)operator).setNumThreads(k);
+				return new ScalarMatrixArithmeticCPInstruction(operator, in1, in2, out, opcode, str);
+			}
 		}
 		
 		return null;
@@ -34,6 +34,9 @@ import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.DMLScriptException;
 import org.apache.sysml.runtime.controlprogram.FunctionProgramBlock;
 import org.apache.sysml.runtime.controlprogram.LocalVariableMap;
+import org.apache.sysml.runtime.controlprogram.caching.Lineage;
+import org.apache.sysml.runtime.controlprogram.caching.LineageCache;
+import org.apache.sysml.runtime.controlprogram.caching.LineageItem;
 import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
 import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysml.runtime.controlprogram.context.ExecutionContextFactory;
@@ -136,6 +139,8 @@ public class FunctionCallCPInstruction extends CPInstruction
 		// create bindings to formal parameters for given function call
 		// These are the bindings passed to the FunctionProgramBlock for function execution 
 		LocalVariableMap functionVariables = new LocalVariableMap();		
+		Lineage lineage = ec.getLineage();
+		LineageItem[] inItems = (lineage != null) ? new LineageItem[fpb.getInputParams().size()] : null;
 		for( int i=0; i<fpb.getInputParams().size(); i++) 
 		{				
 			DataIdentifier currFormalParam = fpb.getInputParams().get(i);
@@ -160,6 +165,30 @@ public class FunctionCallCPInstruction extends CPInstruction
 			}
 				
 			functionVariables.put(currFormalParamName,currFormalParamValue);						
+			
+			// trace lineage of function inputs (scalars by value)
+			if( lineage != null )
+				inItems[i] = lineage.get((currFormalParamValue instanceof ScalarObject) ? 
+					null : _boundInputParamNames.get(i), currFormalParamValue);
+		}
+		
+		// reuse cached outputs of deterministic functions with equivalent inputs
+		LineageItem[] outItems = null;
+		if( lineage != null && !fpb.getOutputParams().isEmpty()
+			&& LineageCache.isDeterministic(fpb, ec.getProgram()) ) 
+		{
+			String fname = _namespace + "::" + _functionName;
+			outItems = new LineageItem[fpb.getOutputParams().size()];
+			for( int i=0; i<outItems.length; i++ )
+				outItems[i] = new LineageItem(fname + Lop.OPERAND_DELIMITOR + i, inItems);
+			Data[] outputs = LineageCache.reuse(outItems);
+			if( outputs != null ) {
+				for( int i=0; i<outputs.length; i++ ) {
+					bindOutput(ec, _boundOutputParamNames.get(i), outputs[i]);
+					lineage.set(_boundOutputParamNames.get(i), outputs[i], outItems[i]);
+				}
+				return;
+			}
 		}
 		
 		// Pin the input variables so that they do not get deleted 
@@ -170,8 +199,14 @@ public class FunctionCallCPInstruction extends CPInstruction
 		// and copy the function arguments into the created table. 
 		ExecutionContext fn_ec = ExecutionContextFactory.createContext(false, ec.getProgram());
 		fn_ec.setVariables(functionVariables);
+		if( lineage != null && fn_ec.getLineage() != null )
+			for( int i=0; i<inItems.length; i++ ) {
+				String name = fpb.getInputParams().get(i).getName();
+				fn_ec.getLineage().set(name, functionVariables.get(name), inItems[i]);
+			}
 		
 		// execute the function block
+		long t0 = (lineage != null) ? System.nanoTime() : 0;
 		try {
 			fpb.execute(fn_ec);
 		}
@@ -203,24 +238,48 @@ public class FunctionCallCPInstruction extends CPInstruction
 		ec.unpinVariables(_boundInputParamNames, pinStatus);
 		
 		// add the updated binding for each return variable to the variables in original symbol table
+		Data[] outputs = new Data[fpb.getOutputParams().size()];
 		for (int i=0; i< fpb.getOutputParams().size(); i++){
 		
 			String boundVarName = _boundOutputParamNames.get(i); 
-			Data boundValue = retVars.get(fpb.getOutputParams().get(i).getName());
+			String retVarName = fpb.getOutputParams().get(i).getName();
+			Data boundValue = retVars.get(retVarName);
 			if (boundValue == null)
 				throw new DMLRuntimeException(boundVarName + " was not assigned a return value");
-
-			//cleanup existing data bound to output variable name
-			Data exdata = ec.removeVariable(boundVarName);
-			if ( exdata != null && exdata instanceof MatrixObject && exdata != boundValue ) {
-				ec.cleanupMatrixObject( (MatrixObject)exdata );
-			}
+			bindOutput(ec, boundVarName, boundValue);
+			outputs[i] = boundValue;
 			
-			//add/replace data in symbol table
-			if( boundValue instanceof MatrixObject )
-				((MatrixObject) boundValue).setVarName(boundVarName);
-			ec.setVariable(boundVarName, boundValue);
+			// maintain lineage of outputs (function call or function-internal lineage)
+			if( lineage != null )
+				lineage.set(boundVarName, boundValue, (outItems != null) ? outItems[i] : 
+					(fn_ec.getLineage() != null) ? fn_ec.getLineage().get(retVarName, boundValue) : new LineageItem());
+		}
+		
+		// cache outputs of deterministic functions
+		if( outItems != null )
+			LineageCache.put(outItems, outputs, System.nanoTime()-t0);
+	}
+	
+	/**
+	 * 
+	 * @param ec
+	 * @param boundVarName
+	 * @param boundValue
+	 * @throws DMLRuntimeException
+	 */
+	private void bindOutput(ExecutionContext ec, String boundVarName, Data boundValue) 
+		throws DMLRuntimeException
+	{
+		//cleanup existing data bound to output variable name
+		Data exdata = ec.removeVariable(boundVarName);
+		if ( exdata != null && exdata instanceof MatrixObject && exdata != boundValue ) {
+			ec.cleanupMatrixObject( (MatrixObject)exdata );
 		}
+		
+		//add/replace data in symbol table
+		if( boundValue instanceof MatrixObject )
+			((MatrixObject) boundValue).setVarName(boundVarName);
+		ec.setVariable(boundVarName, boundValue);
 	}
 
 	@Override
@@ -19,13 +19,20 @@
 
 package org.apache.sysml.runtime.instructions.cp;
 
+import org.apache.sysml.api.DMLScript;
 import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysml.runtime.controlprogram.caching.MatrixObject.UpdateType;
 import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.operators.Operator;
+import org.apache.sysml.utils.Statistics;
 
 public final class MatrixAppendCPInstruction extends AppendCPInstruction
 {	
+	//flag for disabling in-place appends of update-in-place loop variables (for testing)
+	public static boolean ALLOW_INPLACE_APPEND = true;
+	
 	public MatrixAppendCPInstruction(Operator op, CPOperand in1, CPOperand in2, CPOperand in3, CPOperand out, AppendType type, String opcode, String istr) {
 		super(op, in1, in2, in3, out, type, opcode, istr);
 	}
@@ -34,6 +41,14 @@ public final class MatrixAppendCPInstruction extends AppendCPInstruction
 	public void processInstruction(ExecutionContext ec)
 		throws DMLRuntimeException 
 	{
+		//determine update type of lhs input (loop variables grown by append)
+		MatrixObject mo = ec.getMatrixObject(input1.getName());
+		UpdateType updateType = ALLOW_INPLACE_APPEND ? mo.getUpdateType() : UpdateType.COPY;
+		
+		//no in-place update of data shared with row-range views or the lineage cache
+		if( updateType.isInPlace() && (mo.hasViews() || mo.isLineageCached()) )
+			updateType = UpdateType.COPY;
+		
 		//get inputs
 		MatrixBlock matBlock1 = ec.getMatrixInput(input1.getName());
 		MatrixBlock matBlock2 = ec.getMatrixInput(input2.getName());
@@ -48,12 +63,22 @@ public final class MatrixAppendCPInstruction extends AppendCPInstruction
 					+ " with different number of columns: "+matBlock1.getNumColumns()+" vs "+matBlock2.getNumColumns());
 		} 
 			
-		//execute append operations (append both inputs to initially empty output)
-		MatrixBlock ret = matBlock1.appendOperations(matBlock2, new MatrixBlock(), _type==AppendType.CBIND);
+		//execute append operations (in-place append into over-allocated lhs input, 
+		//or append both inputs to initially empty output)
+		MatrixBlock ret = updateType.isInPlace() ?
+			matBlock1.appendOperationsInPlace(matBlock2, _type==AppendType.CBIND) :
+			matBlock1.appendOperations(matBlock2, new MatrixBlock(), _type==AppendType.CBIND);
+		
+		if( DMLScript.STATISTICS ) {
+			if( ret == matBlock1 ) //in-place w/o fallback
+				Statistics.incrementTotalAppendUIP();
+			Statistics.incrementTotalAppend();
+		}
 		
-		//set output and release inputs 
-		ec.setMatrixOutput(output.getName(), ret);
+		//release inputs and set output (lhs input released first as it
+		//might share its data with the output on in-place appends)
 		ec.releaseMatrixInput(input1.getName());
 		ec.releaseMatrixInput(input2.getName());
+		ec.setMatrixOutput(output.getName(), ret, updateType);
 	}
 }
@@ -33,6 +33,9 @@ import org.apache.sysml.utils.Statistics;
 
 public final class MatrixIndexingCPInstruction extends IndexingCPInstruction
 {	
+	//enables zero-copy row-range views for right indexing of all columns
+	public static boolean ALLOW_ROWS_VIEW = true;
+	
 	public MatrixIndexingCPInstruction(Operator op, CPOperand in, CPOperand rl, CPOperand ru, CPOperand cl, CPOperand cu, CPOperand out, String opcode, String istr){
 		super(op, in, rl, ru, cl, cu, out, opcode, istr);
 	}
@@ -58,6 +61,27 @@ public final class MatrixIndexingCPInstruction extends IndexingCPInstruction
 			
 			if( mo.isPartitioned() ) //via data partitioning
 				resultBlock = mo.readMatrixPartition(ixrange.add(1));
+			else if( ALLOW_ROWS_VIEW && ixrange.colStart == 0 
+				&& ixrange.colEnd == mo.getNumColumns()-1
+				&& ec.getVariable(output.getName()) != mo ) //via row-range view
+			{
+				//obtain zero-copy view if supported, otherwise sliced copy
+				//(input views at a row offset are sliced w/o materialization)
+				MatrixBlock matBlock = ec.getMatrixInputView(input1.getName());
+				resultBlock = matBlock.sliceRowsView((int)ixrange.rowStart, (int)ixrange.rowEnd);
+				
+				//set view output and pin input before unpinning the input
+				//(views are kept in their representation to prevent copies)
+				if( resultBlock.isView() ) {
+					ec.setMatrixOutputView(output.getName(), resultBlock, mo);
+					if( DMLScript.STATISTICS )
+						Statistics.incrementTotalRowsViews();
+					ec.releaseMatrixInput(input1.getName());
+					return;
+				}
+				ec.releaseMatrixInput(input1.getName());
+				resultBlock.examSparsity();
+			}
 			else //via slicing the in-memory matrix
 			{
 				//execute right indexing operation
@@ -79,6 +103,11 @@ public final class MatrixIndexingCPInstruction extends IndexingCPInstruction
 		else if ( opcode.equalsIgnoreCase("leftIndex"))
 		{
 			UpdateType updateType = mo.getUpdateType();
+			
+			//no in-place update of data shared with row-range views or the lineage cache
+			if( updateType.isInPlace() && (mo.hasViews() || mo.isLineageCached()) )
+				updateType = UpdateType.COPY;
+			
 			if(DMLScript.STATISTICS)
 			{
 				if( updateType.isInPlace() )
@@ -37,11 +37,17 @@ import org.apache.sysml.runtime.transform.encode.EncoderFactory;
 public class MultiReturnParameterizedBuiltinCPInstruction extends ComputationCPInstruction 
 {
 	protected ArrayList<CPOperand> _outputs;
+	private final int _numThreads;
 	
 	public MultiReturnParameterizedBuiltinCPInstruction(Operator op, CPOperand input1, CPOperand input2, ArrayList<CPOperand> outputs, String opcode, String istr ) {
+		this(op, input1, input2, outputs, 1, opcode, istr);
+	}
+	
+	public MultiReturnParameterizedBuiltinCPInstruction(Operator op, CPOperand input1, CPOperand input2, ArrayList<CPOperand> outputs, int k, String opcode, String istr ) {
 		super(op, input1, input2, outputs.get(0), opcode, istr);
 		_cptype = CPINSTRUCTION_TYPE.MultiReturnBuiltin;
 		_outputs = outputs;
+		_numThreads = k;
 	}
 	
 	public CPOperand getOutput(int i) {
@@ -67,7 +73,8 @@ public class MultiReturnParameterizedBuiltinCPInstruction extends ComputationCPI
 			CPOperand in2 = new CPOperand(parts[2]);
 			outputs.add ( new CPOperand(parts[3], ValueType.DOUBLE, DataType.MATRIX) );
 			outputs.add ( new CPOperand(parts[4], ValueType.STRING, DataType.FRAME) );
-			return new MultiReturnParameterizedBuiltinCPInstruction(null, in1, in2, outputs, opcode, str);
+			int k = (parts.length > 5) ? Integer.parseInt(parts[5]) : 1;
+			return new MultiReturnParameterizedBuiltinCPInstruction(null, in1, in2, outputs, k, opcode, str);
 		}
 		else {
 			throw new DMLRuntimeException("Invalid opcode in MultiReturnBuiltin instruction: " + opcode);
@@ -86,7 +93,7 @@ public class MultiReturnParameterizedBuiltinCPInstruction extends ComputationCPI
 		
 		//execute block transform encode
 		Encoder encoder = EncoderFactory.createEncoder(spec, colnames, fin.getNumColumns(), null);
-		MatrixBlock data = encoder.encode(fin, new MatrixBlock(fin.getNumRows(), fin.getNumColumns(), false)); //build and apply
+		MatrixBlock data = encoder.encode(fin, new MatrixBlock(fin.getNumRows(), fin.getNumColumns(), false), _numThreads); //build and apply
 		FrameBlock meta = encoder.getMetaData(new FrameBlock(fin.getNumColumns(), ValueType.STRING));
 		meta.setColumnNames(colnames);
 		
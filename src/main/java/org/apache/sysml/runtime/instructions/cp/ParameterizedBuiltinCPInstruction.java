@@ -82,6 +82,17 @@ public class ParameterizedBuiltinCPInstruction extends ComputationCPInstruction
 		return getParameterMap().get(key);
 	}
 	
+	/**
+	 * Returns the number of threads (optional parameter k), 
+	 * with a default of 1 if not specified.
+	 * 
+	 * @return number of threads
+	 */
+	private int getNumThreads() {
+		return params.containsKey("k") ? 
+			Integer.parseInt(params.get("k")) : 1;
+	}
+	
 	public static HashMap<String, String> constructParameterMap(String[] params) {
 		// process all elements in "params" except first(opcode) and last(output)
 		HashMap<String,String> paramMap = new HashMap<String,String>();
@@ -214,11 +225,12 @@ public class ParameterizedBuiltinCPInstruction extends ComputationCPInstruction
 			
 			// compute the result
 			String margin = params.get("margin");
+			int k = getNumThreads();
 			MatrixBlock soresBlock = null;
 			if( margin.equals("rows") )
-				soresBlock = target.removeEmptyOperations(new MatrixBlock(), true, select);
+				soresBlock = target.removeEmptyOperations(new MatrixBlock(), true, select, k);
 			else if( margin.equals("cols") ) 
-				soresBlock = target.removeEmptyOperations(new MatrixBlock(), false, select);
+				soresBlock = target.removeEmptyOperations(new MatrixBlock(), false, select, k);
 			else
 				throw new DMLRuntimeException("Unspupported margin identifier '"+margin+"'.");
 			
@@ -235,7 +247,7 @@ public class ParameterizedBuiltinCPInstruction extends ComputationCPInstruction
 			// compute the result
 			double pattern = Double.parseDouble( params.get("pattern") );
 			double replacement = Double.parseDouble( params.get("replacement") );
-			MatrixBlock ret = (MatrixBlock) target.replaceOperations(new MatrixBlock(), pattern, replacement);
+			MatrixBlock ret = (MatrixBlock) target.replaceOperations(new MatrixBlock(), pattern, replacement, getNumThreads());
 			
 			//release locks
 			ec.setMatrixOutput(output.getName(), ret);
@@ -250,7 +262,7 @@ public class ParameterizedBuiltinCPInstruction extends ComputationCPInstruction
 			boolean dirVal = params.get("dir").equals("rows");
 			boolean cast = Boolean.parseBoolean(params.get("cast"));
 			boolean ignore = Boolean.parseBoolean(params.get("ignore"));
-			MatrixBlock ret = (MatrixBlock) target.rexpandOperations(new MatrixBlock(), maxVal, dirVal, cast, ignore);
+			MatrixBlock ret = (MatrixBlock) target.rexpandOperations(new MatrixBlock(), maxVal, dirVal, cast, ignore, getNumThreads());
 			
 			//release locks
 			ec.setMatrixOutput(output.getName(), ret);
@@ -274,7 +286,7 @@ public class ParameterizedBuiltinCPInstruction extends ComputationCPInstruction
 			
 			//compute transformapply
 			Encoder encoder = EncoderFactory.createEncoder(params.get("spec"), colNames, data.getNumColumns(), meta);
-			MatrixBlock mbout = encoder.apply(data, new MatrixBlock(data.getNumRows(), data.getNumColumns(), false));
+			MatrixBlock mbout = encoder.apply(data, new MatrixBlock(data.getNumRows(), data.getNumColumns(), false), getNumThreads());
 			
 			//release locks
 			ec.setMatrixOutput(output.getName(), mbout);
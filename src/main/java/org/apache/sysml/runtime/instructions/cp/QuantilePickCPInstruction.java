@@ -115,7 +115,9 @@ public class QuantilePickCPInstruction extends BinaryCPInstruction
 
 					if ( input2.getDataType() == DataType.SCALAR ) {
 						ScalarObject quantile = ec.getScalarInput(input2.getName(), input2.getValueType(), input2.isLiteral());
-						double picked = matBlock.pickValue(quantile.getDoubleValue());
+						double picked = (matBlock.getNumColumns() == 1) ? //unsorted input
+								matBlock.pickValueUnsorted(quantile.getDoubleValue(), false) :
+								matBlock.pickValue(quantile.getDoubleValue());
 						ec.setScalarOutput(output.getName(), new DoubleObject(picked));
 					} 
 					else {
@@ -151,7 +153,9 @@ public class QuantilePickCPInstruction extends BinaryCPInstruction
 			case MEDIAN:
 				if( _inmem ) //INMEM MEDIAN
 				{
-					double picked = ec.getMatrixInput(input1.getName()).median();
+					MatrixBlock matBlock = ec.getMatrixInput(input1.getName());
+					double picked = (matBlock.getNumColumns() == 1) ? //unsorted input
+							matBlock.pickValueUnsorted(0.5, true) : matBlock.median();
 					ec.setScalarOutput(output.getName(), new DoubleObject(picked));
 					ec.releaseMatrixInput(input1.getName());
 					break;
@@ -28,6 +28,7 @@ import org.apache.sysml.runtime.instructions.InstructionUtils;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.operators.Operator;
 import org.apache.sysml.runtime.matrix.operators.SimpleOperator;
+import org.apache.sysml.runtime.util.UtilFunctions;
 
 public class QuantileSortCPInstruction extends UnaryCPInstruction
 {
@@ -36,18 +37,26 @@ public class QuantileSortCPInstruction extends UnaryCPInstruction
 	 * This class supports two variants of sort operation on a 1-dimensional input matrix. 
 	 * The two variants are <code> weighted </code> and <code> unweighted </code>.
 	 * Example instructions: 
-	 *     sort:mVar1:mVar2 (input=mVar1, output=mVar2)
-	 *     sort:mVar1:mVar2:mVar3 (input=mVar1, weights=mVar2, output=mVar3)
-	 *  
+	 *     sort:mVar1:mVar2:k (input=mVar1, output=mVar2, num threads=k)
+	 *     sort:mVar1:mVar2:mVar3:k (input=mVar1, weights=mVar2, output=mVar3, num threads=k)
+	 * The number of threads is optional (default 1) for compatibility with 
+	 * existing instruction strings.
 	 */
 	
-	public QuantileSortCPInstruction(Operator op, CPOperand in, CPOperand out, String opcode, String istr){
-		this(op, in, null, out, opcode, istr);
+	private int _numThreads = 1;
+	
+	public QuantileSortCPInstruction(Operator op, CPOperand in, CPOperand out, int k, String opcode, String istr){
+		this(op, in, null, out, k, opcode, istr);
 	}
 	
-	public QuantileSortCPInstruction(Operator op, CPOperand in1, CPOperand in2, CPOperand out, String opcode, String istr){
+	public QuantileSortCPInstruction(Operator op, CPOperand in1, CPOperand in2, CPOperand out, int k, String opcode, String istr){
 		super(op, in1, in2, out, opcode, istr);
 		_cptype = CPINSTRUCTION_TYPE.QSort;
+		_numThreads = k;
+	}
+	
+	public int getNumThreads() {
+		return _numThreads;
 	}
 	
 	public static QuantileSortCPInstruction parseInstruction ( String str ) 
@@ -60,17 +69,25 @@ public class QuantileSortCPInstruction extends UnaryCPInstruction
 		String[] parts = InstructionUtils.getInstructionPartsWithValueType(str);
 		String opcode = parts[0];
 		
+		//optional num threads (operands are never plain integers)
+		boolean withK = UtilFunctions.isIntegerNumber(parts[parts.length-1]);
+		int k = withK ? Integer.parseInt(parts[parts.length-1]) : 1;
+		int numOperands = parts.length - (withK ? 2 : 1);
+		
 		if ( opcode.equalsIgnoreCase(SortKeys.OPCODE) ) {
-			if ( parts.length == 3 ) {
-				// Example: sort:mVar1:mVar2 (input=mVar1, output=mVar2)
-				parseUnaryInstruction(str, in1, out);
-				return new QuantileSortCPInstruction(new SimpleOperator(null), in1, out, opcode, str);
+			if ( numOperands == 2 ) {
+				// Example: sort:mVar1:mVar2[:k] (input=mVar1, output=mVar2, num threads=k)
+				in1.split(parts[1]);
+				out.split(parts[2]);
+				return new QuantileSortCPInstruction(new SimpleOperator(null), in1, out, k, opcode, str);
 			}
-			else if ( parts.length == 4 ) {
-				// Example: sort:mVar1:mVar2:mVar3 (input=mVar1, weights=mVar2, output=mVar3)
+			else if ( numOperands == 3 ) {
+				// Example: sort:mVar1:mVar2:mVar3[:k] (input=mVar1, weights=mVar2, output=mVar3, num threads=k)
 				in2 = new CPOperand("", ValueType.UNKNOWN, DataType.UNKNOWN);
-				parseUnaryInstruction(str, in1, in2, out);
-				return new QuantileSortCPInstruction(new SimpleOperator(null), in1, in2, out, opcode, str);
+				in1.split(parts[1]);
+				in2.split(parts[2]);
+				out.split(parts[3]);
+				return new QuantileSortCPInstruction(new SimpleOperator(null), in1, in2, out, k, opcode, str);
 			}
 			else {
 				throw new DMLRuntimeException("Invalid number of operands in instruction: " + str);
@@ -93,7 +110,7 @@ public class QuantileSortCPInstruction extends UnaryCPInstruction
 		}
 		
  		//process core instruction
-		MatrixBlock resultBlock = (MatrixBlock) matBlock.sortOperations(wtBlock, new MatrixBlock());
+		MatrixBlock resultBlock = (MatrixBlock) matBlock.sortOperations(wtBlock, new MatrixBlock(), _numThreads);
 		
 		//release inputs
 		ec.releaseMatrixInput(input1.getName());
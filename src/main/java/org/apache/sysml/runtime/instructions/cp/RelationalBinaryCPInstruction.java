@@ -42,6 +42,25 @@ public abstract class RelationalBinaryCPInstruction extends BinaryCPInstruction
 		CPOperand out = new CPOperand("", ValueType.UNKNOWN, DataType.UNKNOWN);
 		String opcode = parseBinaryInstruction(str, in1, in2, out);
 		
+		return createInstruction(opcode, in1, in2, out, str);
+	}
+	
+	/**
+	 * Creates a relational binary instruction from already parsed or resolved 
+	 * operands, which allows lops to construct instructions without re-parsing 
+	 * their instruction strings.
+	 * 
+	 * @param opcode
+	 * @param in1
+	 * @param in2
+	 * @param out
+	 * @param str
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static RelationalBinaryCPInstruction createInstruction( String opcode, CPOperand in1, CPOperand in2, CPOperand out, String str ) 
+		throws DMLRuntimeException 
+	{
 		// TODO: Relational operations need not have value type checking
 		ValueType vt1 = in1.getValueType();
 		DataType dt1 = in1.getDataType();
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.instructions.cp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.codegen.CodegenUtils;
+import org.apache.sysml.runtime.codegen.SpoofOperator;
+import org.apache.sysml.runtime.controlprogram.context.ExecutionContext;
+import org.apache.sysml.runtime.instructions.InstructionUtils;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+
+/**
+ * CP instruction of a generated fused operator. The instruction refers to
+ * the generated class by name and passes all matrix inputs (main input
+ * first) and scalar inputs in order. For shipping to remote workers (e.g.,
+ * remote parfor), the instruction string is extended by the hex-encoded 
+ * source code of the generated class, which is compiled on parsing if the 
+ * class does not exist in the worker yet.
+ */
+public class SpoofCPInstruction extends ComputationCPInstruction
+{
+	//prefix of the optional, trailing operand w/ the hex-encoded source code
+	public static final String SOURCE_PREFIX = "src:";
+	
+	private final Class<?> _class;
+	private final int _numThreads;
+	private final CPOperand[] _in;
+
+	public SpoofCPInstruction(Class<?> cla, int k, CPOperand[] in, CPOperand out, String opcode, String str) {
+		super(null, null, null, out, opcode, str);
+		_cptype = CPINSTRUCTION_TYPE.SpoofFused;
+		_class = cla;
+		_numThreads = k;
+		_in = in;
+	}
+
+	/**
+	 * Parses a spoof instruction, optionally with shipped source code.
+	 *
+	 * @param str instruction string
+	 * @return spoof instruction
+	 * @throws DMLRuntimeException if the instruction is invalid or the class
+	 *         neither exists nor can be compiled from the shipped source
+	 */
+	public static SpoofCPInstruction parseInstruction(String str)
+		throws DMLRuntimeException
+	{
+		String[] parts = InstructionUtils.getInstructionPartsWithValueType(str);
+		
+		//strip and decode optional source code (shipped to remote workers)
+		String src = null;
+		if( parts[parts.length-1].startsWith(SOURCE_PREFIX) ) {
+			src = CodegenUtils.decodeSource(parts[parts.length-1].substring(SOURCE_PREFIX.length()));
+			parts = Arrays.copyOf(parts, parts.length-1);
+			str = str.substring(0, str.lastIndexOf(OPERAND_DELIM));
+		}
+		
+		if( parts.length < 5 )
+			throw new DMLRuntimeException("Invalid number of fields for spoof instruction: "+str);
+
+		//opcode, class name, inputs, output, num threads
+		String opcode = parts[0];
+		Class<?> cla = (src != null) ? CodegenUtils.compileClass(parts[1], src) 
+			: CodegenUtils.getClass(parts[1]);
+		CPOperand[] in = new CPOperand[parts.length-4];
+		for( int i=0; i<in.length; i++ )
+			in[i] = new CPOperand(parts[i+2]);
+		CPOperand out = new CPOperand(parts[parts.length-2]);
+		int k = Integer.parseInt(parts[parts.length-1]);
+
+		return new SpoofCPInstruction(cla, k, in, out, opcode, str);
+	}
+
+	/**
+	 * Gets the instruction string with the appended, hex-encoded source code
+	 * of the generated class, which allows remote workers to compile the class.
+	 * 
+	 * @return instruction string with source code
+	 * @throws DMLRuntimeException if the class is not registered
+	 */
+	public String getInstructionStringWithSource() 
+		throws DMLRuntimeException
+	{
+		String src = CodegenUtils.getClassSource(_class.getSimpleName());
+		return toString() + OPERAND_DELIM + SOURCE_PREFIX + CodegenUtils.encodeSource(src);
+	}
+	
+	@Override
+	public void processInstruction(ExecutionContext ec)
+		throws DMLRuntimeException
+	{
+		SpoofOperator op = CodegenUtils.createInstance(_class);
+
+		//get matrix and scalar inputs
+		ArrayList<MatrixBlock> inputs = new ArrayList<MatrixBlock>();
+		ArrayList<ScalarObject> scalars = new ArrayList<ScalarObject>();
+		for( CPOperand input : _in ) {
+			if( input.getDataType()==DataType.MATRIX )
+				inputs.add(ec.getMatrixInput(input.getName()));
+			else if( input.getDataType()==DataType.SCALAR )
+				scalars.add(ec.getScalarInput(input.getName(), input.getValueType(), input.isLiteral()));
+		}
+
+		//execute fused operator and set output
+		if( output.getDataType() == DataType.MATRIX ) {
+			MatrixBlock out = op.execute(inputs, scalars, new MatrixBlock(), _numThreads);
+			ec.setMatrixOutput(output.getName(), out);
+		}
+		else {
+			ScalarObject out = op.execute(inputs, scalars, _numThreads);
+			ec.setScalarOutput(output.getName(), out);
+		}
+
+		//release matrix inputs
+		for( CPOperand input : _in )
+			if( input.getDataType()==DataType.MATRIX )
+				ec.releaseMatrixInput(input.getName());
+	}
+}
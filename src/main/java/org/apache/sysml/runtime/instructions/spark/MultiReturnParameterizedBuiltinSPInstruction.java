@@ -65,6 +65,8 @@ import org.apache.sysml.runtime.transform.encode.EncoderComposite;
 import org.apache.sysml.runtime.transform.encode.EncoderFactory;
 import org.apache.sysml.runtime.transform.meta.TfMetaUtils;
 import org.apache.sysml.runtime.transform.meta.TfOffsetMap;
+import org.apache.sysml.runtime.util.StringLongHashMap;
+import org.apache.sysml.runtime.util.StringLongHashMap.StringLongIterator;
 
 import scala.Tuple2;
 
@@ -238,10 +240,14 @@ public class MultiReturnParameterizedBuiltinSPInstruction extends ComputationSPI
 				for( Encoder cEncoder : ((EncoderComposite)_encoder).getEncoders() )
 					if( cEncoder instanceof RecodeAgent ) {
 						RecodeAgent ra = (RecodeAgent) cEncoder;
-						HashMap<Integer,HashMap<String,Long>> tmp = ra.getCPRecodeMaps();
-						for( Entry<Integer,HashMap<String,Long>> e1 : tmp.entrySet() )
-							for( String token : e1.getValue().keySet() )
-								ret.add(new Tuple2<Integer,String>(e1.getKey(), token));
+						HashMap<Integer,StringLongHashMap> tmp = ra.getCodeMaps();
+						for( Entry<Integer,StringLongHashMap> e1 : tmp.entrySet() ) {
+							StringLongIterator iter2 = e1.getValue().getIterator();
+							while( iter2.hasNext() ) {
+								iter2.next();
+								ret.add(new Tuple2<Integer,String>(e1.getKey(), iter2.getKey()));
+							}
+						}
 					}
 				
 			return ret;
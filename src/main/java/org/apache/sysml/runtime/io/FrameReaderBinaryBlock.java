@@ -70,6 +70,9 @@ public class FrameReaderBinaryBlock extends FrameReader
 		//core read (sequential/parallel)
 		readBinaryBlockFrameFromHDFS(path, job, fs, ret, rlen, clen);
 		
+		//dictionary-encode string columns of low cardinality
+		ret.compactStringColumns();
+		
 		return ret;
 	}
 	
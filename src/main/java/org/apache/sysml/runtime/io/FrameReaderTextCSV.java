@@ -95,6 +95,9 @@ public class FrameReaderTextCSV extends FrameReader
 		//core read (sequential/parallel) 
 		readCSVFrameFromHDFS(path, job, fs, ret, lschema, lnames, rlen, clen);
 		
+		//dictionary-encode string columns of low cardinality
+		ret.compactStringColumns();
+		
 		return ret;
 	}
 
@@ -79,6 +79,9 @@ public class FrameReaderTextCell extends FrameReader
 		//core read (sequential/parallel)
 		readTextCellFrameFromHDFS(path, job, fs, ret, lschema, lnames, rlen, clen);
 		
+		//dictionary-encode string columns of low cardinality
+		ret.compactStringColumns();
+		
 		return ret;
 	}
 
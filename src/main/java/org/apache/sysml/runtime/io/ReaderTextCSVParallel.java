@@ -23,7 +23,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.hadoop.fs.FileSystem;
@@ -42,6 +41,7 @@ import org.apache.sysml.hops.OptimizerUtils;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.matrix.data.CSVFileFormatProperties;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.CommonThreadPool;
 
 /**
  * Parallel version of ReaderTextCSV.java. To summarize, we do two passes in
@@ -136,7 +136,7 @@ public class ReaderTextCSVParallel extends MatrixReader
 		TextInputFormat informat = new TextInputFormat();
 		informat.configure(job);
 
-		ExecutorService pool = Executors.newFixedThreadPool(_numThreads);
+		ExecutorService pool = CommonThreadPool.get(_numThreads);
 
 		try 
 		{
@@ -205,7 +205,7 @@ public class ReaderTextCSVParallel extends MatrixReader
 		// count rows in parallel per split
 		try 
 		{
-			ExecutorService pool = Executors.newFixedThreadPool(_numThreads);
+			ExecutorService pool = CommonThreadPool.get(_numThreads);
 			ArrayList<CountRowsTask> tasks = new ArrayList<CountRowsTask>();
 			for (InputSplit split : splits) {
 				tasks.add(new CountRowsTask(split, informat, job, hasHeader));
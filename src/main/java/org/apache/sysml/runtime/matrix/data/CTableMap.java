@@ -23,6 +23,7 @@ import java.util.ArrayList;
 
 import org.apache.sysml.runtime.util.LongLongDoubleHashMap;
 import org.apache.sysml.runtime.util.LongLongDoubleHashMap.LLDoubleEntry;
+import org.apache.sysml.runtime.util.LongLongDoubleHashMap.LLDoubleIterator;
 
 /**
  * Ctable map is an abstraction for the hashmap used for ctable's hash group-by
@@ -111,11 +112,13 @@ public class CTableMap
 		if( sparse ) //SPARSE <- cells
 		{
 			//append cells to sparse target (prevent shifting)
-			for( LLDoubleEntry e : _map.extractValues() ) 
+			LLDoubleIterator iter = _map.getIterator();
+			while( iter.hasNext() ) 
 			{
-				double value = e.value;
-				int rix = (int)e.key1;
-				int cix = (int)e.key2;
+				iter.next();
+				double value = iter.getValue();
+				int rix = (int)iter.getKey1();
+				int cix = (int)iter.getKey2();
 				if( value != 0 && rix<=rlen && cix<=clen )
 					mb.appendValue( rix-1, cix-1, value );
 			}
@@ -126,11 +129,13 @@ public class CTableMap
 		else  //DENSE <- cells
 		{
 			//directly insert cells into dense target 
-			for( LLDoubleEntry e : _map.extractValues() ) 
+			LLDoubleIterator iter = _map.getIterator();
+			while( iter.hasNext() ) 
 			{
-				double value = e.value;
-				int rix = (int)e.key1;
-				int cix = (int)e.key2;
+				iter.next();
+				double value = iter.getValue();
+				int rix = (int)iter.getKey1();
+				int cix = (int)iter.getKey2();
 				if( value != 0 && rix<=rlen && cix<=clen )
 					mb.quickSetValue( rix-1, cix-1, value );
 			}
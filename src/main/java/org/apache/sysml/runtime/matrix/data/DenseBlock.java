@@ -0,0 +1,265 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.matrix.data;
+
+import java.io.Serializable;
+
+/**
+ * This DenseBlock is an abstraction for different dense, row-major 
+ * matrix formats. Since java arrays are limited to 2^31-1 elements, 
+ * dense matrices with more cells need to be backed by multiple arrays. 
+ * Hence, we split dense matrices into row blocks, where each row block 
+ * is a contiguous array of complete rows. All operations over large 
+ * dense blocks are supposed to be implemented against this abstraction 
+ * in order to enable variability/extensibility.
+ * 
+ * Example dense formats are DRB (single dense row block) and LDRB 
+ * (large dense row blocks, i.e., multiple row blocks).
+ * 
+ */
+public abstract class DenseBlock implements Serializable
+{
+	private static final long serialVersionUID = -4012376952006079198L;
+
+	public enum Type {
+		DRB, //single dense row block
+		LDRB, //large dense row blocks
+	}
+	
+	
+	////////////////////////
+	//basic allocation
+	
+	/**
+	 * Resets the dense block by deleting non-zero values. After this
+	 * call all countNonZeros() calls are guaranteed to return 0.
+	 */
+	public abstract void reset();
+	
+	/**
+	 * Resets the dense block by deleting non-zero values. After this
+	 * call all countNonZeros() calls are guaranteed to return 0. If
+	 * the new dimensions exceed the current capacity, the underlying
+	 * storage is extended accordingly.
+	 * 
+	 * @param rlen number of rows
+	 * @param clen number of columns
+	 */
+	public abstract void reset(int rlen, int clen);
+	
+	
+	////////////////////////
+	//obtain basic meta data
+	
+	/**
+	 * Get the number of rows.
+	 * 
+	 * @return number of rows
+	 */
+	public abstract int numRows();
+	
+	/**
+	 * Get the number of columns.
+	 * 
+	 * @return number of columns
+	 */
+	public abstract int numCols();
+	
+	/**
+	 * Get the number of allocated row blocks.
+	 * 
+	 * @return number of row blocks
+	 */
+	public abstract int numBlocks();
+	
+	/**
+	 * Get the number of rows per row block, except the last row block.
+	 * 
+	 * @return number of rows per row block
+	 */
+	public abstract int blockSize();
+	
+	/**
+	 * Get the number of rows of the given row block.
+	 * 
+	 * @param bix  row block index starting at 0
+	 * @return number of rows of the row block
+	 */
+	public abstract int blockSize(int bix);
+	
+	/**
+	 * Indicates if the dense block is backed by a single contiguous 
+	 * array, which can be exploited for more efficient operations.
+	 * 
+	 * @return true if backed by a single array
+	 */
+	public abstract boolean isContiguous();
+	
+	/**
+	 * Get the number of cells of the dense block.
+	 * 
+	 * @return number of cells
+	 */
+	public long size() {
+		return (long)numRows() * numCols();
+	}
+	
+	/**
+	 * Get the number of cells of the given row block.
+	 * 
+	 * @param bix  row block index starting at 0
+	 * @return number of cells of the row block
+	 */
+	public int size(int bix) {
+		return blockSize(bix) * numCols();
+	}
+	
+	/**
+	 * Get the total number of allocated cells of the dense block.
+	 * 
+	 * @return number of allocated cells
+	 */
+	public abstract long capacity();
+	
+	/**
+	 * Computes the number of non-zero values of the entire dense block.
+	 * 
+	 * @return number of non-zeros
+	 */
+	public abstract long countNonZeros();
+	
+	/**
+	 * Computes the number of non-zero values of the given range.
+	 * 
+	 * @param rl  row lower index, inclusive
+	 * @param ru  row upper index, exclusive
+	 * @param cl  column lower index, inclusive
+	 * @param cu  column upper index, exclusive
+	 * @return number of non-zeros of the range
+	 */
+	public long countNonZeros(int rl, int ru, int cl, int cu) {
+		long nnz = 0;
+		for( int i=rl; i<ru; i++ ) {
+			double[] a = values(i);
+			int ix = pos(i);
+			for( int j=cl; j<cu; j++ )
+				nnz += (a[ix+j]!=0) ? 1 : 0;
+		}
+		return nnz;
+	}
+	
+	
+	////////////////////////
+	//obtain indexes/values
+	
+	/**
+	 * Get the array of the given row block.
+	 * 
+	 * @param bix  row block index starting at 0
+	 * @return array of the row block
+	 */
+	public abstract double[] valuesAt(int bix);
+	
+	/**
+	 * Get the array holding the values of row r.
+	 * 
+	 * @param r  row index starting at 0
+	 * @return array of the row
+	 */
+	public abstract double[] values(int r);
+	
+	/**
+	 * Get the row block index of row r.
+	 * 
+	 * @param r  row index starting at 0
+	 * @return row block index
+	 */
+	public abstract int index(int r);
+	
+	/**
+	 * Get the starting position of row r in the array returned
+	 * by values(r).
+	 * 
+	 * @param r  row index starting at 0
+	 * @return position of the row in its array
+	 */
+	public abstract int pos(int r);
+	
+	
+	////////////////////////
+	//update operations
+	
+	/**
+	 * Set the given value for the entire dense block (fill).
+	 * 
+	 * @param v  value
+	 */
+	public abstract void set(double v);
+	
+	/**
+	 * Set the given value for a given row and column.
+	 * 
+	 * @param r  row index starting at 0
+	 * @param c  column index starting at 0
+	 * @param v  value
+	 */
+	public void set(int r, int c, double v) {
+		values(r)[pos(r)+c] = v;
+	}
+	
+	/**
+	 * Copy the values of the given dense block with equal 
+	 * dimensions into this dense block.
+	 * 
+	 * @param that  dense block
+	 */
+	public void set(DenseBlock that) {
+		final int clen = numCols();
+		for( int i=0; i<numRows(); i++ )
+			System.arraycopy(that.values(i), that.pos(i), values(i), pos(i), clen);
+	}
+	
+	/**
+	 * Get the value for a given row and column.
+	 * 
+	 * @param r  row index starting at 0
+	 * @param c  column index starting at 0
+	 * @return value
+	 */
+	public double get(int r, int c) {
+		return values(r)[pos(r)+c];
+	}
+	
+	@Override 
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(getClass().getSimpleName());
+		sb.append(": rlen=");
+		sb.append(numRows());
+		sb.append(", clen=");
+		sb.append(numCols());
+		sb.append(", blocks=");
+		sb.append(numBlocks());
+		sb.append(", blen=");
+		sb.append(blockSize());
+		return sb.toString();
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.matrix.data;
+
+import java.util.Arrays;
+
+/**
+ * Dense row block (DRB), i.e., a dense block backed by a single 
+ * contiguous array of rlen*clen values in row-major order, which
+ * limits the number of cells to the maximum java array length.
+ */
+public class DenseBlockDRB extends DenseBlock
+{
+	private static final long serialVersionUID = 8546237533952424562L;
+
+	private double[] _data;
+	private int _rlen;
+	private int _clen;
+	
+	public DenseBlockDRB(int rlen, int clen) {
+		reset(rlen, clen);
+	}
+	
+	/**
+	 * Creates a dense block over the given array (no copy).
+	 * 
+	 * @param data  row-major array of at least rlen*clen values
+	 * @param rlen  number of rows
+	 * @param clen  number of columns
+	 */
+	public DenseBlockDRB(double[] data, int rlen, int clen) {
+		_data = data;
+		_rlen = rlen;
+		_clen = clen;
+	}
+	
+	@Override
+	public void reset() {
+		Arrays.fill(_data, 0, _rlen*_clen, 0);
+	}
+	
+	@Override
+	public void reset(int rlen, int clen) {
+		int len = rlen * clen;
+		if( _data == null || len > _data.length )
+			_data = new double[len];
+		else
+			Arrays.fill(_data, 0, len, 0);
+		_rlen = rlen;
+		_clen = clen;
+	}
+
+	@Override
+	public int numRows() {
+		return _rlen;
+	}
+
+	@Override
+	public int numCols() {
+		return _clen;
+	}
+	
+	@Override
+	public int numBlocks() {
+		return 1;
+	}
+
+	@Override
+	public int blockSize() {
+		return _rlen;
+	}
+
+	@Override
+	public int blockSize(int bix) {
+		return _rlen;
+	}
+	
+	@Override
+	public boolean isContiguous() {
+		return true;
+	}
+
+	@Override
+	public long capacity() {
+		return (_data!=null) ? _data.length : -1;
+	}
+
+	@Override
+	public long countNonZeros() {
+		final int len = _rlen * _clen;
+		double[] a = _data;
+		int nnz = 0;
+		for( int i=0; i<len; i++ )
+			nnz += (a[i]!=0) ? 1 : 0;
+		return nnz;
+	}
+
+	@Override
+	public double[] valuesAt(int bix) {
+		return _data;
+	}
+	
+	@Override
+	public double[] values(int r) {
+		return _data;
+	}
+
+	@Override
+	public int index(int r) {
+		return 0;
+	}
+
+	@Override
+	public int pos(int r) {
+		return r * _clen;
+	}
+
+	@Override
+	public void set(double v) {
+		Arrays.fill(_data, 0, _rlen*_clen, v);
+	}
+
+	@Override
+	public void set(int r, int c, double v) {
+		_data[r*_clen+c] = v;
+	}
+	
+	@Override
+	public void set(DenseBlock that) {
+		if( that.isContiguous() )
+			System.arraycopy(that.valuesAt(0), 0, _data, 0, _rlen*_clen);
+		else
+			super.set(that);
+	}
+
+	@Override
+	public double get(int r, int c) {
+		return _data[r*_clen+c];
+	}
+}
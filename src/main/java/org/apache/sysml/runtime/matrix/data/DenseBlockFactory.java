@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.matrix.data;
+
+public abstract class DenseBlockFactory
+{
+	//maximum number of cells of a single dense array, which is given by
+	//the maximum java array length, where some JVMs reserve header words
+	//in arrays
+	public static final long DEFAULT_MAX_DENSE_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+	
+	//current maximum array size (only modified for testing large blocks)
+	private static long _maxDenseArraySize = DEFAULT_MAX_DENSE_ARRAY_SIZE;
+	
+	/**
+	 * Get the maximum number of cells of a single dense array.
+	 * 
+	 * @return maximum number of cells
+	 */
+	public static long getMaxDenseArraySize() {
+		return _maxDenseArraySize;
+	}
+	
+	/**
+	 * Set the maximum number of cells of a single dense array, which 
+	 * allows testing large dense blocks with small dimensions. This 
+	 * is only intended for tests, see resetMaxDenseArraySize. 
+	 * 
+	 * @param size  maximum number of cells
+	 */
+	public static void setMaxDenseArraySize(long size) {
+		if( size <= 0 || size > DEFAULT_MAX_DENSE_ARRAY_SIZE )
+			throw new RuntimeException("Invalid maximum dense array size: "+size);
+		_maxDenseArraySize = size;
+	}
+	
+	/**
+	 * Reset the maximum number of cells of a single dense array 
+	 * to the default given by the maximum java array length.
+	 */
+	public static void resetMaxDenseArraySize() {
+		_maxDenseArraySize = DEFAULT_MAX_DENSE_ARRAY_SIZE;
+	}
+	
+	/**
+	 * Creates a dense block of the type required by the given dimensions.
+	 * 
+	 * @param rlen  number of rows
+	 * @param clen  number of columns
+	 * @return dense block
+	 */
+	public static DenseBlock createDenseBlock(int rlen, int clen) {
+		return createDenseBlock(getDenseBlockType(rlen, clen), rlen, clen);
+	}
+	
+	/**
+	 * Creates a dense block of the given type.
+	 * 
+	 * @param type  dense block type
+	 * @param rlen  number of rows
+	 * @param clen  number of columns
+	 * @return dense block
+	 */
+	public static DenseBlock createDenseBlock(DenseBlock.Type type, int rlen, int clen) {
+		switch( type ) {
+			case DRB: return new DenseBlockDRB(rlen, clen);
+			case LDRB: return new DenseBlockLDRB(rlen, clen);
+			default:
+				throw new RuntimeException("Unexpected dense block type: "+type.toString());
+		}
+	}
+	
+	/**
+	 * Get the dense block type required by the given dimensions.
+	 * 
+	 * @param rlen  number of rows
+	 * @param clen  number of columns
+	 * @return dense block type
+	 */
+	public static DenseBlock.Type getDenseBlockType(long rlen, long clen) {
+		return isLargeDenseBlock(rlen, clen) ? 
+			DenseBlock.Type.LDRB : DenseBlock.Type.DRB;
+	}
+	
+	/**
+	 * Indicates if a dense block of the given dimensions exceeds the 
+	 * maximum array size and hence requires multiple row blocks.
+	 * 
+	 * @param rlen  number of rows
+	 * @param clen  number of columns
+	 * @return true if multiple row blocks are required
+	 */
+	public static boolean isLargeDenseBlock(long rlen, long clen) {
+		return rlen * clen > _maxDenseArraySize;
+	}
+}
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.matrix.data;
+
+import java.util.Arrays;
+
+/**
+ * Large dense row blocks (LDRB), i.e., a dense block backed by multiple
+ * arrays, where each array holds a row block of blen complete rows in 
+ * row-major order. This allows dense blocks with more than 2^31-1 cells, 
+ * as long as a single row fits into one array. All row blocks except the 
+ * last one have exactly blen rows.
+ */
+public class DenseBlockLDRB extends DenseBlock
+{
+	private static final long serialVersionUID = -3620467911412378271L;
+
+	private double[][] _data;
+	private int _rlen;
+	private int _clen;
+	private int _blen;
+	
+	public DenseBlockLDRB(int rlen, int clen) {
+		this(rlen, clen, getDefaultBlockSize(clen));
+	}
+	
+	public DenseBlockLDRB(int rlen, int clen, int blen) {
+		_blen = blen;
+		reset(rlen, clen);
+	}
+	
+	/**
+	 * Obtains the default number of rows per row block, such that each 
+	 * row block fits into the maximum supported array size.
+	 * 
+	 * @param clen  number of columns
+	 * @return number of rows per row block
+	 */
+	public static int getDefaultBlockSize(int clen) {
+		return (int)Math.max(DenseBlockFactory.getMaxDenseArraySize() / Math.max(clen, 1), 1);
+	}
+	
+	@Override
+	public void reset() {
+		for( int bix=0; bix<numBlocks(); bix++ )
+			Arrays.fill(_data[bix], 0, size(bix), 0);
+	}
+	
+	@Override
+	public void reset(int rlen, int clen) {
+		int nblocks = (int)(((long)rlen + _blen - 1) / _blen);
+		if( _data != null && clen == _clen && nblocks > 0 && nblocks <= _data.length
+			&& blockSizeUnchecked(rlen, nblocks-1) * clen <= _data[nblocks-1].length ) 
+		{
+			//reuse allocated row blocks
+			_rlen = rlen;
+			reset();
+		}
+		else {
+			//allocate new row blocks (w/ block size adjusted to new number of columns)
+			if( (long)_blen * clen > DenseBlockFactory.getMaxDenseArraySize() ) {
+				_blen = getDefaultBlockSize(clen);
+				nblocks = (int)(((long)rlen + _blen - 1) / _blen);
+			}
+			_data = new double[nblocks][];
+			for( int bix=0; bix<nblocks; bix++ )
+				_data[bix] = new double[blockSizeUnchecked(rlen, bix) * clen];
+			_rlen = rlen;
+			_clen = clen;
+		}
+	}
+
+	@Override
+	public int numRows() {
+		return _rlen;
+	}
+
+	@Override
+	public int numCols() {
+		return _clen;
+	}
+	
+	@Override
+	public int numBlocks() {
+		return (int)(((long)_rlen + _blen - 1) / _blen);
+	}
+
+	@Override
+	public int blockSize() {
+		return _blen;
+	}
+
+	@Override
+	public int blockSize(int bix) {
+		return blockSizeUnchecked(_rlen, bix);
+	}
+	
+	@Override
+	public boolean isContiguous() {
+		return numBlocks() == 1;
+	}
+
+	@Override
+	public long capacity() {
+		long cap = 0;
+		for( double[] a : _data )
+			cap += a.length;
+		return cap;
+	}
+
+	@Override
+	public long countNonZeros() {
+		long nnz = 0;
+		for( int bix=0; bix<numBlocks(); bix++ ) {
+			double[] a = _data[bix];
+			final int len = size(bix);
+			for( int i=0; i<len; i++ )
+				nnz += (a[i]!=0) ? 1 : 0;
+		}
+		return nnz;
+	}
+
+	@Override
+	public double[] valuesAt(int bix) {
+		return _data[bix];
+	}
+	
+	@Override
+	public double[] values(int r) {
+		return _data[r / _blen];
+	}
+
+	@Override
+	public int index(int r) {
+		return r / _blen;
+	}
+
+	@Override
+	public int pos(int r) {
+		return (r % _blen) * _clen;
+	}
+
+	@Override
+	public void set(double v) {
+		for( int bix=0; bix<numBlocks(); bix++ )
+			Arrays.fill(_data[bix], 0, size(bix), v);
+	}
+
+	@Override
+	public void set(int r, int c, double v) {
+		_data[r / _blen][(r % _blen) * _clen + c] = v;
+	}
+	
+	@Override
+	public void set(DenseBlock that) {
+		if( that.blockSize() == _blen ) {
+			//copy of aligned row blocks
+			for( int bix=0; bix<numBlocks(); bix++ )
+				System.arraycopy(that.valuesAt(bix), 0, _data[bix], 0, size(bix));
+		}
+		else
+			super.set(that);
+	}
+
+	@Override
+	public double get(int r, int c) {
+		return _data[r / _blen][(r % _blen) * _clen + c];
+	}
+	
+	private int blockSizeUnchecked(int rlen, int bix) {
+		return Math.min(_blen, rlen - bix * _blen);
+	}
+}
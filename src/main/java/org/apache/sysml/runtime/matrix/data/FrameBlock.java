@@ -41,6 +41,8 @@ import org.apache.sysml.parser.Expression.ValueType;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.controlprogram.caching.CacheBlock;
 import org.apache.sysml.runtime.util.IndexRange;
+import org.apache.sysml.runtime.util.StringLongHashMap;
+import org.apache.sysml.runtime.util.StringLongHashMap.StringLongIterator;
 import org.apache.sysml.runtime.util.UtilFunctions;
 
 /**
@@ -56,6 +58,12 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 	//internal configuration
 	private static final boolean REUSE_RECODE_MAPS = true;
 	
+	//min number of rows and max ratio of distinct values for dictionary-encoded string columns
+	private static final int DICT_MIN_ROWS = 1024;
+	private static final double DICT_MAX_CARDINALITY_RATIO = 0.1;
+	//flag in the serialized value type of dictionary-encoded string columns
+	private static final int DICT_ENCODED_FLAG = 0x40;
+	
 	/** The number of rows of the FrameBlock */
 	private int _numRows = -1;
 	
@@ -71,7 +79,7 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 	private List<Array> _coldata = null;
 	
 	/** Cache for recode maps from frame meta data, indexed by column 0-based */
-	private Map<Integer, SoftReference<HashMap<String,Long>>> _rcdMapCache = null;
+	private Map<Integer, SoftReference<StringLongHashMap>> _rcdMapCache = null;
 	
 	public FrameBlock() {
 		_numRows = 0;
@@ -80,7 +88,7 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 		_colmeta = new ArrayList<ColumnMetadata>();
 		_coldata = new ArrayList<Array>();
 		if( REUSE_RECODE_MAPS )
-			_rcdMapCache = new HashMap<Integer, SoftReference<HashMap<String,Long>>>();
+			_rcdMapCache = new HashMap<Integer, SoftReference<StringLongHashMap>>();
 	}
 	
 	public FrameBlock(FrameBlock that) {
@@ -120,7 +128,7 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 		for( int i=0; i<data.length; i++ )
 			appendRow(data[i]);
 		if( REUSE_RECODE_MAPS )
-			_rcdMapCache = new HashMap<Integer, SoftReference<HashMap<String,Long>>>();
+			_rcdMapCache = new HashMap<Integer, SoftReference<StringLongHashMap>>();
 	}
 	
 	/**
@@ -446,11 +454,15 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 	}
 	
 	/**
+	 * Get the native array of column c. Note that dictionary-encoded 
+	 * string columns are decoded into a new string array.
 	 * 
 	 * @param c
 	 * @return
 	 */
 	public Object getColumn(int c) {
+		if( _coldata.get(c) instanceof DictStringArray )
+			return ((DictStringArray)_coldata.get(c)).decode();
 		switch(_schema.get(c)) {
 			case STRING:  return ((StringArray)_coldata.get(c))._data; 
 			case BOOLEAN: return ((BooleanArray)_coldata.get(c))._data;
@@ -460,6 +472,57 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 	 	}
 	}
 	
+	/**
+	 * Indicates if column c is a dictionary-encoded string column.
+	 * 
+	 * @param c
+	 * @return
+	 */
+	public boolean isDictionaryEncoded(int c) {
+		return _coldata.get(c) instanceof DictStringArray;
+	}
+	
+	/**
+	 * Get the dictionary of distinct values of the dictionary-encoded 
+	 * column c, where code i (1-based) refers to position i-1.
+	 * 
+	 * @param c
+	 * @return
+	 */
+	public String[] getColumnDictionary(int c) {
+		return ((DictStringArray)_coldata.get(c)).getDictionary();
+	}
+	
+	/**
+	 * Get the codes per row of the dictionary-encoded column c, where
+	 * code 0 represents null values. The returned array is not copied
+	 * and might be larger than the number of rows.
+	 * 
+	 * @param c
+	 * @return
+	 */
+	public int[] getColumnCodes(int c) {
+		return ((DictStringArray)_coldata.get(c))._codes;
+	}
+	
+	/**
+	 * Converts all string columns of low cardinality into dictionary-encoded
+	 * columns, which store an int code per row and every distinct value only 
+	 * once. Columns with too many distinct values are left unchanged.
+	 */
+	public void compactStringColumns() {
+		if( _numRows < DICT_MIN_ROWS )
+			return;
+		int maxDistinct = (int)(_numRows * DICT_MAX_CARDINALITY_RATIO);
+		for( int j=0; j<getNumColumns(); j++ )
+			if( _coldata.get(j) instanceof StringArray ) {
+				DictStringArray tmp = DictStringArray.encode(
+					(StringArray)_coldata.get(j), maxDistinct);
+				if( tmp != null )
+					_coldata.set(j, tmp);
+			}
+	}
+	
 	/**
 	 * Get a row iterator over the frame where all fields are encoded
 	 * as strings independent of their value types.  
@@ -514,7 +577,8 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 		out.writeInt(getNumColumns());
 		//write columns (value type, data)
 		for( int j=0; j<getNumColumns(); j++ ) {
-			out.writeByte(_schema.get(j).ordinal());
+			boolean dict = (_coldata.get(j) instanceof DictStringArray);
+			out.writeByte(_schema.get(j).ordinal() | (dict ? DICT_ENCODED_FLAG : 0));
 			out.writeUTF(_colnames.get(j));
 			out.writeLong(_colmeta.get(j).getNumDistinct());
 			out.writeUTF( (_colmeta.get(j).getMvValue()!=null) ? 
@@ -533,13 +597,16 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 		_colmeta.clear();
 		_coldata.clear();
 		for( int j=0; j<numCols; j++ ) {
-			ValueType vt = ValueType.values()[in.readByte()];
+			byte type = in.readByte();
+			boolean dict = (type & DICT_ENCODED_FLAG) != 0;
+			ValueType vt = ValueType.values()[type & ~DICT_ENCODED_FLAG];
 			String name = in.readUTF();
 			long ndistinct = in.readLong();
 			String mvvalue = in.readUTF();
 			Array arr = null;
 			switch( vt ) {
-				case STRING:  arr = new StringArray(new String[_numRows]); break;
+				case STRING:  arr = dict ? new DictStringArray(new int[_numRows]) :
+					new StringArray(new String[_numRows]); break;
 				case BOOLEAN: arr = new BooleanArray(new boolean[_numRows]); break;
 				case INT:     arr = new LongArray(new long[_numRows]); break;
 				case DOUBLE:  arr = new DoubleArray(new double[_numRows]); break;
@@ -704,8 +771,15 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 			for( int j=cl; j<=cu; j++ )
 				ret._coldata.add(_coldata.get(j).slice(rl,ru));
 		else
-			for( int j=cl; j<=cu; j++ )
-				ret._coldata.get(j-cl).set(0, ru-rl, _coldata.get(j), rl);	
+			for( int j=cl; j<=cu; j++ ) {
+				//slice dictionary-encoded columns in order to keep the encoding
+				//and a dictionary restricted to the values of the row range
+				Array src = _coldata.get(j);
+				if( src instanceof DictStringArray || src.getClass() != ret._coldata.get(j-cl).getClass() )
+					ret._coldata.set(j-cl, src.slice(rl, ru));
+				else
+					ret._coldata.get(j-cl).set(0, ru-rl, src, rl);
+			}
 		
 		return ret;
 	}
@@ -858,15 +932,33 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 	 * @return
 	 */
 	public HashMap<String,Long> getRecodeMap(int col) {
+		StringLongHashMap map = getStringLongRecodeMap(col);
+		HashMap<String,Long> ret = new HashMap<String,Long>();
+		StringLongIterator iter = map.getIterator();
+		while( iter.hasNext() ) {
+			iter.next();
+			ret.put(iter.getKey(), iter.getValue());
+		}
+		return ret;
+	}
+	
+	/**
+	 * Obtains the recode map of the given column as a primitive 
+	 * string-long map, which is cached for repeated transform apply.
+	 * 
+	 * @param col
+	 * @return
+	 */
+	public StringLongHashMap getStringLongRecodeMap(int col) {
 		//probe cache for existing map
 		if( REUSE_RECODE_MAPS ) {
-			SoftReference<HashMap<String,Long>> tmp = _rcdMapCache.get(col);
-			HashMap<String,Long> map = (tmp!=null) ? tmp.get() : null;
+			SoftReference<StringLongHashMap> tmp = _rcdMapCache.get(col);
+			StringLongHashMap map = (tmp!=null) ? tmp.get() : null;
 			if( map != null ) return map;
 		}
 		
 		//construct recode map
-		HashMap<String,Long> map = new HashMap<String,Long>();
+		StringLongHashMap map = new StringLongHashMap();
 		Array ldata = _coldata.get(col); 
 		for( int i=0; i<getNumRows(); i++ ) {
 			Object val = ldata.get(i);
@@ -878,7 +970,7 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 		
 		//put created map into cache
 		if( REUSE_RECODE_MAPS ) {
-			_rcdMapCache.put(col, new SoftReference<HashMap<String,Long>>(map));
+			_rcdMapCache.put(col, new SoftReference<StringLongHashMap>(map));
 		}
 		
 		return map;
@@ -1102,7 +1194,11 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 			set(rl, ru, value, 0);
 		}
 		public void set(int rl, int ru, Array value, int rlSrc) {
-			System.arraycopy(((StringArray)value)._data, rlSrc, _data, rl, ru-rl+1);
+			if( value instanceof StringArray )
+				System.arraycopy(((StringArray)value)._data, rlSrc, _data, rl, ru-rl+1);
+			else //e.g., dictionary-encoded strings
+				for( int i=rl; i<=ru; i++ )
+					_data[i] = (String)value.get(rlSrc+i-rl);
 		}
 		public void append(String value) {
 			if( _data.length <= _size )
@@ -1128,6 +1224,161 @@ public class FrameBlock implements Writable, CacheBlock, Externalizable
 		}
 	}
 	
+	/**
+	 * Dictionary-encoded string array for columns of low cardinality, which
+	 * stores an int code per row (0 for null) and every distinct value once. 
+	 * The value-code map is only materialized on updates.
+	 */
+	private static class DictStringArray extends Array<String> {
+		private int[] _codes = null;   //code per row, 1-based
+		private String[] _dict = null; //distinct values (size: >=dsize)
+		private int _dsize = 0;        //number of distinct values
+		private HashMap<String,Integer> _map = null; //value-code map
+		
+		public DictStringArray(int[] codes) {
+			this(codes, new String[4], 0);
+		}
+		public DictStringArray(int[] codes, String[] dict, int dsize) {
+			_codes = codes;
+			_dict = dict;
+			_dsize = dsize;
+			_size = _codes.length;
+		}
+		public static DictStringArray encode(StringArray arr, int maxDistinct) {
+			HashMap<String,Integer> map = new HashMap<String,Integer>();
+			int[] codes = new int[arr._size];
+			String[] dict = new String[4];
+			for( int i=0; i<arr._size; i++ ) {
+				String val = arr._data[i];
+				if( val == null ) 
+					continue;
+				Integer code = map.get(val);
+				if( code == null ) {
+					if( map.size() >= maxDistinct )
+						return null; //too many distinct values
+					if( dict.length <= map.size() )
+						dict = Arrays.copyOf(dict, dict.length*2);
+					dict[map.size()] = val;
+					code = map.size()+1;
+					map.put(val, code);
+				}
+				codes[i] = code;
+			}
+			DictStringArray ret = new DictStringArray(codes, dict, map.size());
+			return ret;
+		}
+		public String get(int index) {
+			int code = _codes[index];
+			return (code > 0) ? _dict[code-1] : null;
+		}
+		public void set(int index, String value) {
+			_codes[index] = getOrAddCode(value);
+		}
+		public void set(int rl, int ru, Array value) {
+			set(rl, ru, value, 0);
+		}
+		public void set(int rl, int ru, Array value, int rlSrc) {
+			if( value instanceof DictStringArray ) {
+				//translate codes once per distinct value of the source
+				DictStringArray dvalue = (DictStringArray)value;
+				int[] codemap = new int[dvalue._dsize+1];
+				Arrays.fill(codemap, 1, codemap.length, -1);
+				for( int i=rl; i<=ru; i++ ) {
+					int scode = dvalue._codes[rlSrc+i-rl];
+					if( codemap[scode] < 0 )
+						codemap[scode] = getOrAddCode(dvalue._dict[scode-1]);
+					_codes[i] = codemap[scode];
+				}
+			}
+			else {
+				for( int i=rl; i<=ru; i++ )
+					_codes[i] = getOrAddCode((String)value.get(rlSrc+i-rl));
+			}
+		}
+		public void append(String value) {
+			if( _codes.length <= _size )
+				_codes = Arrays.copyOf(_codes, newSize());
+			_codes[_size++] = getOrAddCode(value);
+		}
+		public void write(DataOutput out) throws IOException {
+			out.writeInt(_dsize);
+			for( int i=0; i<_dsize; i++ )
+				out.writeUTF(_dict[i]);
+			for( int i=0; i<_size; i++ )
+				out.writeInt(_codes[i]);
+		}
+		public void readFields(DataInput in) throws IOException {
+			_dsize = in.readInt();
+			_dict = new String[Math.max(_dsize, 4)];
+			for( int i=0; i<_dsize; i++ )
+				_dict[i] = in.readUTF();
+			_map = null;
+			_size = _codes.length;
+			for( int i=0; i<_size; i++ )
+				_codes[i] = in.readInt();
+		}
+		public Array clone() {
+			return new DictStringArray(Arrays.copyOf(_codes, _size), 
+				Arrays.copyOf(_dict, Math.max(_dsize, 4)), _dsize);
+		}
+		public Array slice(int rl, int ru) {
+			//compact dictionary to distinct values in [rl,ru], where
+			//we use a hash map if the dictionary exceeds the slice 
+			int[] codes = new int[ru-rl+1];
+			String[] dict = new String[4];
+			int dsize = 0;
+			int[] codemap = (_dsize <= codes.length) ? new int[_dsize+1] : null;
+			HashMap<Integer,Integer> hcodemap = (codemap==null) ? new HashMap<Integer,Integer>() : null;
+			for( int i=rl; i<=ru; i++ ) {
+				int scode = _codes[i];
+				if( scode == 0 )
+					continue;
+				int code = (codemap != null) ? codemap[scode] :
+					hcodemap.containsKey(scode) ? hcodemap.get(scode) : 0;
+				if( code == 0 ) {
+					if( dict.length <= dsize )
+						dict = Arrays.copyOf(dict, dict.length*2);
+					dict[dsize] = _dict[scode-1];
+					code = ++dsize;
+					if( codemap != null )
+						codemap[scode] = code;
+					else
+						hcodemap.put(scode, code);
+				}
+				codes[i-rl] = code;
+			}
+			return new DictStringArray(codes, dict, dsize);
+		}
+		public String[] getDictionary() {
+			return Arrays.copyOf(_dict, _dsize);
+		}
+		public String[] decode() {
+			String[] ret = new String[_size];
+			for( int i=0; i<_size; i++ )
+				ret[i] = get(i);
+			return ret;
+		}
+		private int getOrAddCode(String value) {
+			if( value == null )
+				return 0;
+			//materialize value-code map on demand
+			if( _map == null ) {
+				_map = new HashMap<String,Integer>();
+				for( int i=0; i<_dsize; i++ )
+					_map.put(_dict[i], i+1);
+			}
+			Integer code = _map.get(value);
+			if( code == null ) {
+				if( _dict.length <= _dsize )
+					_dict = Arrays.copyOf(_dict, Math.max(_dict.length*2, 4));
+				_dict[_dsize] = value;
+				code = ++_dsize;
+				_map.put(value, code);
+			}
+			return code;
+		}
+	}
+	
 	/**
 	 * 
 	 */
@@ -24,7 +24,6 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import org.apache.sysml.lops.PartialAggregate.CorrectionLocationType;
@@ -53,6 +52,7 @@ import org.apache.sysml.runtime.matrix.operators.CMOperator;
 import org.apache.sysml.runtime.matrix.operators.CMOperator.AggregateOperationTypes;
 import org.apache.sysml.runtime.matrix.operators.Operator;
 import org.apache.sysml.runtime.matrix.operators.UnaryOperator;
+import org.apache.sysml.runtime.util.CommonThreadPool;
 import org.apache.sysml.runtime.util.DataConverter;
 import org.apache.sysml.runtime.util.UtilFunctions;
 
@@ -187,6 +187,12 @@ public class LibMatrixAgg
 	public static void aggregateUnaryMatrix(MatrixBlock in, MatrixBlock out, AggregateUnaryOperator uaop) 
 		throws DMLRuntimeException
 	{
+		//aggregate over row blocks of large dense blocks
+		if( in.isInLargeDenseFormat() ) {
+			aggregateUnaryMatrixLargeDense(in, out, uaop, 1);
+			return;
+		}
+		
 		//prepare meta data 
 		AggType aggtype = getAggType(uaop);
 		final int m = in.rlen;
@@ -228,6 +234,12 @@ public class LibMatrixAgg
 	public static void aggregateUnaryMatrix(MatrixBlock in, MatrixBlock out, AggregateUnaryOperator uaop, int k) 
 		throws DMLRuntimeException
 	{
+		//aggregate over row blocks of large dense blocks
+		if( in.isInLargeDenseFormat() ) {
+			aggregateUnaryMatrixLargeDense(in, out, uaop, k);
+			return;
+		}
+		
 		//fall back to sequential version if necessary
 		if(    k <= 1 || (long)in.rlen*in.clen < PAR_NUMCELL_THRESHOLD || in.rlen <= k
 			|| (!(uaop.indexFn instanceof ReduceCol) &&  out.clen*8*k > PAR_INTERMEDIATE_SIZE_THRESHOLD ) || 
@@ -261,7 +273,7 @@ public class LibMatrixAgg
 		//core multi-threaded unary aggregate computation
 		//(currently: always parallelization over number of rows)
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			ArrayList<AggTask> tasks = new ArrayList<AggTask>();
 			int blklen = (int)(Math.ceil((double)m/k));
 			for( int i=0; i<k & i*blklen<m; i++ ) {
@@ -299,6 +311,10 @@ public class LibMatrixAgg
 	public static MatrixBlock cumaggregateUnaryMatrix(MatrixBlock in, MatrixBlock out, UnaryOperator uop) 
 		throws DMLRuntimeException
 	{
+		//sanity check for unsupported large dense blocks
+		if( in.isInLargeDenseFormat() )
+			throw new DMLRuntimeException("Cumulative aggregates not supported over large dense blocks.");
+		
 		//prepare meta data 
 		AggType aggtype = getAggType(uop);
 		final int m = in.rlen;
@@ -342,6 +358,10 @@ public class LibMatrixAgg
 	public static MatrixBlock cumaggregateUnaryMatrix(MatrixBlock in, MatrixBlock out, UnaryOperator uop, int k) 
 		throws DMLRuntimeException
 	{
+		//sanity check for unsupported large dense blocks
+		if( in.isInLargeDenseFormat() )
+			throw new DMLRuntimeException("Cumulative aggregates not supported over large dense blocks.");
+		
 		AggregateUnaryOperator uaop = InstructionUtils.parseBasicCumulativeAggregateUnaryOperator(uop);
 		
 		//fall back to sequential if necessary or agg not supported
@@ -371,7 +391,7 @@ public class LibMatrixAgg
 		//core multi-threaded unary aggregate computation
 		//(currently: always parallelization over number of rows)
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			int blklen = (int)(Math.ceil((double)m/k));
 			
 			//step 1: compute aggregates per row partition
@@ -455,6 +475,12 @@ public class LibMatrixAgg
 	public static double aggregateTernary(MatrixBlock in1, MatrixBlock in2, MatrixBlock in3, int k) 
 		throws DMLRuntimeException
 	{		
+		//aggregate over row blocks of large dense blocks
+		if( in1.isInLargeDenseFormat() || in2.isInLargeDenseFormat() 
+			|| (in3 != null && in3.isInLargeDenseFormat()) ) {
+			return aggregateTernaryLargeDense(in1, in2, in3, k);
+		}
+		
 		//fall back to sequential version if necessary
 		if( k <= 1 || in1.rlen/3 < PAR_NUMCELL_THRESHOLD ) {
 			return aggregateTernary(in1, in2, in3);
@@ -469,7 +495,7 @@ public class LibMatrixAgg
 		
 		double val = -1;
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			ArrayList<AggTernaryTask> tasks = new ArrayList<AggTernaryTask>();
 			int blklen = (int)(Math.ceil((double)in1.rlen/k));
 			for( int i=0; i<k & i*blklen<in1.rlen; i++ )
@@ -561,7 +587,7 @@ public class LibMatrixAgg
 		//core multi-threaded grouped aggregate computation
 		//(currently: parallelization over columns to avoid additional memory requirements)
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			ArrayList<GrpAggTask> tasks = new ArrayList<GrpAggTask>();
 			int blklen = (int)(Math.ceil((double)target.clen/k));
 			for( int i=0; i<k & i*blklen<target.clen; i++ )
@@ -710,6 +736,97 @@ public class LibMatrixAgg
 	 * @return
 	 * @throws DMLRuntimeException 
 	 */
+	/**
+	 * Unary aggregates over large dense blocks, which are computed row block by 
+	 * row block over zero-copy views. Row aggregates write disjoint rows of the 
+	 * output, while column and full aggregates incrementally combine the partial 
+	 * aggregates (incl corrections) similar to the multi-threaded aggregation.
+	 * 
+	 * @param in  input matrix
+	 * @param out  output matrix
+	 * @param uaop  aggregate unary operator
+	 * @param k  degree of parallelism
+	 * @throws DMLRuntimeException
+	 */
+	private static void aggregateUnaryMatrixLargeDense(MatrixBlock in, MatrixBlock out, AggregateUnaryOperator uaop, int k) 
+		throws DMLRuntimeException
+	{
+		if( uaop.indexFn instanceof ReduceDiag )
+			throw new DMLRuntimeException("Diagonal aggregates not supported over large dense blocks.");
+		
+		final int m2 = out.rlen;
+		final int n2 = out.clen;
+		
+		//filter empty input blocks (incl special handling for sparse-unsafe operations)
+		if( in.isEmptyBlock(false) ){
+			aggregateUnaryMatrixEmpty(in, out, getAggType(uaop), uaop.indexFn);
+			return;
+		}
+		
+		DenseBlock a = in.getDenseBlockObject();
+		if( uaop.indexFn instanceof ReduceCol ) //ROW AGGREGATES
+		{
+			out.reset(m2, n2, false); //always dense
+			out.allocateDenseBlock();
+			for( int bix=0; bix<a.numBlocks(); bix++ ) {
+				int rl = bix * a.blockSize();
+				MatrixBlock view = in.getRowBlockView(bix, true);
+				MatrixBlock partout = new MatrixBlock(view.rlen, n2, false);
+				aggregateUnaryMatrix(view, partout, uaop, k);
+				out.copy(rl, rl+view.rlen-1, 0, n2-1, partout, false);
+			}
+		}
+		else //COLUMN/FULL AGGREGATES
+		{
+			for( int bix=0; bix<a.numBlocks(); bix++ ) {
+				MatrixBlock view = in.getRowBlockView(bix, true);
+				MatrixBlock partout = new MatrixBlock(m2, n2, false);
+				aggregateUnaryMatrix(view, partout, uaop, k);
+				if( bix == 0 )
+					out.copy(partout); //for init
+				else
+					aggregateFinalResult(uaop.aggOp, out, partout);
+			}
+		}
+		
+		//cleanup output and change representation (if necessary)
+		out.recomputeNonZeros();
+		out.examSparsity();
+	}
+	
+	/**
+	 * Ternary aggregate over large dense blocks, computed as sum of 
+	 * the partial aggregates of all row blocks.
+	 * 
+	 * @param in1  first input matrix
+	 * @param in2  second input matrix
+	 * @param in3  third input matrix, or null
+	 * @param k  degree of parallelism
+	 * @return sum of cell-wise products
+	 * @throws DMLRuntimeException
+	 */
+	private static double aggregateTernaryLargeDense(MatrixBlock in1, MatrixBlock in2, MatrixBlock in3, int k) 
+		throws DMLRuntimeException
+	{
+		//early abort if any block is empty
+		if( in1.isEmptyBlock(false) || in2.isEmptyBlock(false) || in3!=null&&in3.isEmptyBlock(false) ) {
+			return 0;
+		}
+		
+		KahanObject kbuff = new KahanObject(0, 0);
+		KahanPlus kplus = KahanPlus.getKahanPlusFnObject();
+		final int m = in1.rlen;
+		final int blen = (in1.isInLargeDenseFormat() ? in1 : in2.isInLargeDenseFormat() ? 
+			in2 : in3).getDenseBlockObject().blockSize(); //row blocks of large input
+		for( int rl=0; rl<m; rl+=blen ) {
+			int ru = Math.min(rl+blen, m);
+			double val = aggregateTernary(in1.sliceRowBlock(rl, ru), in2.sliceRowBlock(rl, ru),
+				(in3 != null) ? in3.sliceRowBlock(rl, ru) : null, k);
+			kplus.execute2(kbuff, val);
+		}
+		return kbuff._sum;
+	}
+	
 	private static void aggregateFinalResult( AggregateOperator aop, MatrixBlock out, MatrixBlock partout ) 
 		throws DMLRuntimeException
 	{
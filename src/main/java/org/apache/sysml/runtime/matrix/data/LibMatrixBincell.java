@@ -19,7 +19,12 @@
 
 package org.apache.sysml.runtime.matrix.data;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.functionobjects.Divide;
@@ -36,7 +41,9 @@ import org.apache.sysml.runtime.functionobjects.Or;
 import org.apache.sysml.runtime.functionobjects.Plus;
 import org.apache.sysml.runtime.functionobjects.Power2;
 import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.Operator;
 import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+import org.apache.sysml.runtime.util.CommonThreadPool;
 import org.apache.sysml.runtime.util.DataConverter;
 import org.apache.sysml.runtime.util.SortUtils;
 
@@ -54,6 +61,8 @@ import org.apache.sysml.runtime.util.SortUtils;
  */
 public class LibMatrixBincell 
 {
+	//internal configuration
+	private static final long PAR_NUMCELL_THRESHOLD = 1024*1024;   //Min 1M elements
 
 	public enum BinaryAccessType {
 		MATRIX_MATRIX,
@@ -82,6 +91,12 @@ public class LibMatrixBincell
 	public static void bincellOp(MatrixBlock m1, MatrixBlock ret, ScalarOperator op) 
 		throws DMLRuntimeException
 	{
+		//execute over row blocks of large dense blocks
+		if( isLargeDenseBincell(m1, null, ret) ) {
+			bincellOpLargeDense(m1, null, ret, op, 1);
+			return;
+		}
+		
 		//check internal assumptions 
 		if(   (op.sparseSafe && m1.isInSparseFormat()!=ret.isInSparseFormat())
 			||(!op.sparseSafe && ret.isInSparseFormat()) ) {
@@ -111,6 +126,12 @@ public class LibMatrixBincell
 	public static void bincellOp(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op) 
 		throws DMLRuntimeException
 	{
+		//execute over row blocks of large dense blocks
+		if( isLargeDenseBincell(m1, m2, ret) ) {
+			bincellOpLargeDense(m1, m2, ret, op, 1);
+			return;
+		}
+		
 		//execute binary cell operations
 		if(op.sparseSafe || isSparseSafeDivide(op, m2))
 			safeBinary(m1, m2, ret, op);
@@ -123,6 +144,140 @@ public class LibMatrixBincell
 			ret.examSparsity();
 	}
 	
+	/**
+	 * Multi-threaded matrix-scalar, scalar-matrix binary operations. The rows of the 
+	 * input are partitioned into disjoint ranges, where each task writes its rows of
+	 * the output and maintains the number of non-zeros of its range. 
+	 * 
+	 * @param m1 matrix input
+	 * @param ret output matrix block (dense or sparse according to the operator)
+	 * @param op scalar operator, incl the scalar operand
+	 * @param k maximum degree of parallelism
+	 * @throws DMLRuntimeException if the output representation is invalid or a task fails
+	 */
+	public static void bincellOp(MatrixBlock m1, MatrixBlock ret, ScalarOperator op, int k) 
+		throws DMLRuntimeException
+	{
+		//execute over row blocks of large dense blocks
+		if( isLargeDenseBincell(m1, null, ret) ) {
+			bincellOpLargeDense(m1, null, ret, op, k);
+			return;
+		}
+		
+		//fallback to sequential computation for small inputs or empty blocks
+		if(    k <= 1 || (long)m1.rlen*m1.clen < PAR_NUMCELL_THRESHOLD || m1.rlen <= k
+			|| m1.isEmptyBlock(false) || !ret.isThreadSafe() ) {
+			bincellOp(m1, ret, op);
+			return;
+		}
+		
+		//check internal assumptions 
+		if(   (op.sparseSafe && m1.isInSparseFormat()!=ret.isInSparseFormat())
+			||(!op.sparseSafe && ret.isInSparseFormat()) ) {
+			throw new DMLRuntimeException("Wrong output representation for safe="+op.sparseSafe+": "+m1.isInSparseFormat()+", "+ret.isInSparseFormat());
+		}
+		
+		//allocate output once in order to prevent synchronization
+		if( ret.sparse )
+			ret.allocateSparseRowsBlock();
+		else
+			ret.allocateDenseBlock();
+		
+		//core multi-threaded binary scalar operation
+		//(currently: always parallelization over number of rows)
+		try {
+			ExecutorService pool = CommonThreadPool.get( k );
+			ArrayList<BincellScalarTask> tasks = new ArrayList<BincellScalarTask>();
+			int blklen = (int)(Math.ceil((double)m1.rlen/k));
+			for( int i=0; i<k & i*blklen<m1.rlen; i++ )
+				tasks.add(new BincellScalarTask(m1, ret, op, i*blklen, Math.min((i+1)*blklen, m1.rlen)));
+			List<Future<Long>> taskret = pool.invokeAll(tasks);
+			pool.shutdown();
+			//aggregate partial nnz
+			long nnz = 0;
+			for( Future<Long> task : taskret )
+				nnz += task.get();
+			ret.nonZeros = nnz;
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		
+		//ensure empty results sparse representation 
+		//(no additional memory requirements)
+		if( ret.isEmptyBlock(false) )
+			ret.examSparsity();
+	}
+	
+	/**
+	 * Multi-threaded matrix-matrix binary operations, MM, MV, and outer VV. The rows
+	 * of the output are partitioned into disjoint ranges, where each task writes its
+	 * rows of the output and maintains the number of non-zeros of its range.
+	 * 
+	 * @param m1 left matrix input
+	 * @param m2 right matrix input (matrix, row or column vector)
+	 * @param ret output matrix block
+	 * @param op binary operator
+	 * @param k maximum degree of parallelism
+	 * @throws DMLRuntimeException if a task fails
+	 */
+	public static void bincellOp(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, BinaryOperator op, int k) 
+		throws DMLRuntimeException
+	{
+		//execute over row blocks of large dense blocks
+		if( isLargeDenseBincell(m1, m2, ret) ) {
+			bincellOpLargeDense(m1, m2, ret, op, k);
+			return;
+		}
+		
+		BinaryAccessType atype = getBinaryAccessType(m1, m2);
+		
+		//fallback to sequential computation for small inputs, empty blocks, 
+		//or outer comparisons (which are handled via sorted rhs vectors)
+		if(    k <= 1 || (long)ret.rlen*ret.clen < PAR_NUMCELL_THRESHOLD || ret.rlen <= k
+			|| atype == BinaryAccessType.INVALID || m1.isEmptyBlock(false) || m2.isEmptyBlock(false) 
+			|| (atype == BinaryAccessType.OUTER_VECTOR_VECTOR && LibMatrixOuterAgg.isCompareOperator(op))
+			|| !ret.isThreadSafe() ) {
+			bincellOp(m1, m2, ret, op);
+			return;
+		}
+		
+		//allocate output once in order to prevent synchronization
+		if( ret.sparse )
+			ret.allocateSparseRowsBlock();
+		else
+			ret.allocateDenseBlock();
+		
+		//prepare replicated vector (dense, independent of input representation)
+		double[] vect = (atype != BinaryAccessType.MATRIX_MATRIX) ?
+			DataConverter.convertToDoubleVector(m2) : null;
+		
+		//core multi-threaded binary cell operation
+		//(currently: always parallelization over number of rows)
+		try {
+			ExecutorService pool = CommonThreadPool.get( k );
+			ArrayList<BincellTask> tasks = new ArrayList<BincellTask>();
+			int blklen = (int)(Math.ceil((double)ret.rlen/k));
+			for( int i=0; i<k & i*blklen<ret.rlen; i++ )
+				tasks.add(new BincellTask(m1, m2, vect, ret, op, atype, i*blklen, Math.min((i+1)*blklen, ret.rlen)));
+			List<Future<Long>> taskret = pool.invokeAll(tasks);
+			pool.shutdown();
+			//aggregate partial nnz
+			long nnz = 0;
+			for( Future<Long> task : taskret )
+				nnz += task.get();
+			ret.nonZeros = nnz;
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		
+		//ensure empty results sparse representation 
+		//(no additional memory requirements)
+		if( ret.isEmptyBlock(false) )
+			ret.examSparsity();
+	}
+	
 	/**
 	 * NOTE: operations in place always require m1 and m2 to be of equal dimensions
 	 * 
@@ -134,6 +289,20 @@ public class LibMatrixBincell
 	public static void bincellOpInPlace(MatrixBlock m1ret, MatrixBlock m2, BinaryOperator op) 
 		throws DMLRuntimeException
 	{
+		//execute in-place over row blocks of large dense blocks
+		if( m1ret.isInLargeDenseFormat() && m1ret.isAllocated() ) {
+			long nnz = 0;
+			DenseBlock a = m1ret.getDenseBlockObject();
+			for( int bix=0; bix<a.numBlocks(); bix++ ) {
+				int rl = bix * a.blockSize();
+				MatrixBlock view = m1ret.getRowBlockView(bix, true);
+				bincellOpInPlace(view, m2.sliceRowBlock(rl, rl+a.blockSize(bix)), op);
+				nnz += m1ret.setRowBlockView(bix, view);
+			}
+			m1ret.nonZeros = nnz;
+			return;
+		}
+		
 		//execute binary cell operations
 		if(op.sparseSafe || isSparseSafeDivide(op, m2))
 			safeBinaryInPlace(m1ret, m2, op);
@@ -214,6 +383,79 @@ public class LibMatrixBincell
 	// private sparse-safe/sparse-unsafe implementations
 	///////////////////////////////////
 
+	/**
+	 * Indicates if any input or the dense output is a large dense block,
+	 * which requires processing row block by row block.
+	 * 
+	 * @param m1  left input matrix
+	 * @param m2  right input matrix, or null for matrix-scalar operations
+	 * @param ret  output matrix
+	 * @return true if processed row block by row block
+	 */
+	private static boolean isLargeDenseBincell(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret) {
+		return m1.isInLargeDenseFormat() || ret.isInLargeDenseFormat()
+			|| (m2 != null && m2.isInLargeDenseFormat());
+	}
+	
+	/**
+	 * Binary cell operations (matrix-scalar if m2 is null) over large dense blocks. 
+	 * The rows are processed block by block, where large dense inputs and outputs 
+	 * are accessed via zero-copy row block views, while all other inputs are 
+	 * sliced accordingly. Each row block is computed by the (multi-threaded) 
+	 * kernels of regular matrix blocks.
+	 * 
+	 * @param m1  left input matrix
+	 * @param m2  right input matrix, or null for matrix-scalar operations
+	 * @param ret  output matrix
+	 * @param op  binary or scalar operator
+	 * @param k  degree of parallelism
+	 * @throws DMLRuntimeException
+	 */
+	private static void bincellOpLargeDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, Operator op, int k) 
+		throws DMLRuntimeException
+	{
+		BinaryAccessType atype = (m2 != null) ? getBinaryAccessType(m1, m2) : null;
+		boolean sliceM2 = (atype == BinaryAccessType.MATRIX_MATRIX 
+			|| atype == BinaryAccessType.MATRIX_COL_VECTOR);
+		final int m = ret.rlen;
+		final int n = ret.clen;
+		
+		//allocate output once (dense output with same row blocks)
+		if( ret.sparse )
+			ret.allocateSparseRowsBlock();
+		else
+			ret.allocateDenseBlock();
+		
+		//row blocks aligned with the output (or the large dense input)
+		final int blen = !ret.sparse ? ret.getDenseBlockObject().blockSize() :
+			m1.isInLargeDenseFormat() ? m1.getDenseBlockObject().blockSize() :
+			m2.getDenseBlockObject().blockSize();
+		
+		long nnz = 0;
+		for( int bix=0, rl=0; rl<m; bix++, rl+=blen ) {
+			int ru = Math.min(rl+blen, m);
+			MatrixBlock a = m1.sliceRowBlock(rl, ru);
+			MatrixBlock b = sliceM2 ? m2.sliceRowBlock(rl, ru) : m2;
+			MatrixBlock c = ret.sparse ? new MatrixBlock(ru-rl, n, true) : ret.getRowBlockView(bix, false);
+			
+			//core binary cell operation of row block
+			if( m2 == null )
+				bincellOp(a, c, (ScalarOperator)op, k);
+			else
+				bincellOp(a, b, c, (BinaryOperator)op, k);
+			
+			//write back output row block
+			if( ret.sparse )
+				ret.copy(rl, ru-1, 0, n-1, c, false);
+			nnz += ret.sparse ? c.getNonZeros() : ret.setRowBlockView(bix, c);
+		}
+		ret.nonZeros = nnz;
+		
+		//ensure empty results sparse representation 
+		if( ret.isEmptyBlock(false) )
+			ret.examSparsity();
+	}
+	
 	/**
 	 * 
 	 * @param m1
@@ -1338,5 +1580,366 @@ public class LibMatrixBincell
 		}
 	}
 	
-}
+	/**
+	 * Matrix-scalar operation over the row range [rl,ru) of a sparse or dense input. 
+	 * The output is expected to be allocated in the representation required by the
+	 * sparse-safeness of the operator.
+	 * 
+	 * @param m1 matrix input
+	 * @param ret allocated output matrix block
+	 * @param op scalar operator
+	 * @param rl row lower bound, inclusive
+	 * @param ru row upper bound, exclusive
+	 * @return number of non-zeros in the given row range of the output
+	 * @throws DMLRuntimeException if the operator fails
+	 */
+	private static long bincellScalarRange(MatrixBlock m1, MatrixBlock ret, ScalarOperator op, int rl, int ru)
+		throws DMLRuntimeException
+	{
+		final int n = m1.clen;
+		long lnnz = 0;
+		
+		if( m1.sparse && ret.sparse ) //SPARSE <- SPARSE (sparse-safe)
+		{
+			SparseBlock a = m1.sparseBlock;
+			SparseBlock c = ret.sparseBlock;
+			for( int i=rl; i<ru; i++ ) {
+				if( a.isEmpty(i) )
+					continue;
+				int apos = a.pos(i);
+				int alen = a.size(i);
+				int[] aix = a.indexes(i);
+				double[] avals = a.values(i);
+				c.allocate(i, alen);
+				for( int j=apos; j<apos+alen; j++ )
+					c.append(i, aix[j], op.executeScalar(avals[j]));
+				lnnz += c.size(i);
+			}
+		}
+		else if( m1.sparse ) //DENSE <- SPARSE (sparse-unsafe)
+		{
+			SparseBlock a = m1.sparseBlock;
+			double[] c = ret.denseBlock;
+			double cval0 = op.executeScalar(0);
+			for( int i=rl, cix=rl*n; i<ru; i++, cix+=n ) {
+				//init dense row with unsafe 0-value
+				Arrays.fill(c, cix, cix+n, cval0);
+				if( !a.isEmpty(i) ) {
+					int apos = a.pos(i);
+					int alen = a.size(i);
+					int[] aix = a.indexes(i);
+					double[] avals = a.values(i);
+					for( int j=apos; j<apos+alen; j++ )
+						c[cix+aix[j]] = op.executeScalar(avals[j]);
+				}
+				lnnz += countNonZeros(c, cix, n);
+			}
+		}
+		else //DENSE <- DENSE
+		{
+			double[] a = m1.denseBlock;
+			double[] c = ret.denseBlock;
+			for( int i=rl*n; i<ru*n; i++ ) {
+				c[i] = op.executeScalar(a[i]);
+				if( c[i] != 0 )
+					lnnz++;
+			}
+		}
+		
+		return lnnz;
+	}
+	
+	/**
+	 * Binary cell operation over the row range [rl,ru) of the output for all combinations
+	 * of dense/sparse inputs and access types. Sparse-safe operations over sparse inputs
+	 * and sparse outputs are computed via merge of non-zeros; all other cases via 
+	 * temporary dense rows, which is asymptotically optimal for dense outputs.
+	 * 
+	 * @param m1 left matrix input
+	 * @param m2 right matrix input
+	 * @param vect dense replicated vector for MV and outer VV, otherwise null
+	 * @param ret allocated output matrix block
+	 * @param op binary operator
+	 * @param atype binary access type of m1 and m2
+	 * @param rl row lower bound, inclusive
+	 * @param ru row upper bound, exclusive
+	 * @return number of non-zeros in the given row range of the output
+	 * @throws DMLRuntimeException if the access type is unsupported or the operator fails
+	 */
+	private static long bincellRange(MatrixBlock m1, MatrixBlock m2, double[] vect, MatrixBlock ret, 
+			BinaryOperator op, BinaryAccessType atype, int rl, int ru)
+		throws DMLRuntimeException
+	{
+		final int n = ret.clen;
+		final boolean safe = op.sparseSafe || isSparseSafeDivide(op, m2);
+		final boolean mergeSparse = ret.sparse && safe 
+			&& atype == BinaryAccessType.MATRIX_MATRIX && m1.sparse && m2.sparse;
+		final boolean multSparse = ret.sparse && m1.sparse && op.fn instanceof Multiply
+			&& (atype == BinaryAccessType.MATRIX_COL_VECTOR || atype == BinaryAccessType.MATRIX_ROW_VECTOR);
+		
+		//temporary dense rows for sparse inputs and outputs
+		double[] ta = m1.sparse ? new double[m1.clen] : null;
+		double[] tb = (m2.sparse && atype == BinaryAccessType.MATRIX_MATRIX) ? new double[n] : null;
+		double[] tc = ret.sparse ? new double[n] : null;
+		long lnnz = 0;
+		
+		for( int i=rl; i<ru; i++ )
+		{
+			//special case: sparse-safe merge of sparse rows
+			if( mergeSparse ) {
+				lnnz += mergeSparseRows(m1.sparseBlock, m2.sparseBlock, ret.sparseBlock, op, i);
+				continue;
+			}
+			//special case: sparse matrix-vector multiply (only non-zeros)
+			else if( multSparse ) {
+				lnnz += multSparseRowVector(m1.sparseBlock, vect, ret.sparseBlock, atype, i);
+				continue;
+			}
+			
+			//prepare dense left input row
+			double[] a = ta; 
+			int apos = 0;
+			if( m1.sparse )
+				expandSparseRow(m1.sparseBlock, i, ta);
+			else {
+				a = m1.denseBlock;
+				apos = i * m1.clen;
+			}
+			
+			//prepare output row
+			double[] c = ret.sparse ? tc : ret.denseBlock;
+			int cpos = ret.sparse ? 0 : i * n;
+			
+			//compute output row
+			switch( atype ) {
+				case MATRIX_MATRIX: {
+					double[] b = tb;
+					int bpos = 0;
+					if( m2.sparse )
+						expandSparseRow(m2.sparseBlock, i, tb);
+					else {
+						b = m2.denseBlock;
+						bpos = i * n;
+					}
+					for( int j=0; j<n; j++ )
+						c[cpos+j] = op.fn.execute(a[apos+j], b[bpos+j]);
+					break;
+				}
+				case MATRIX_COL_VECTOR: {
+					double v2 = vect[i]; //replicated value
+					for( int j=0; j<n; j++ )
+						c[cpos+j] = op.fn.execute(a[apos+j], v2);
+					break;
+				}
+				case MATRIX_ROW_VECTOR: {
+					for( int j=0; j<n; j++ )
+						c[cpos+j] = op.fn.execute(a[apos+j], vect[j]);
+					break;
+				}
+				case OUTER_VECTOR_VECTOR: {
+					double v1 = a[apos]; //replicated value
+					for( int j=0; j<n; j++ )
+						c[cpos+j] = op.fn.execute(v1, vect[j]);
+					break;
+				}
+				default:
+					throw new DMLRuntimeException("Unsupported binary access type: "+atype);
+			}
+			
+			//maintain nnz and sparse output row
+			int lnnzi = countNonZeros(c, cpos, n);
+			if( ret.sparse && lnnzi > 0 ) {
+				SparseBlock cblock = ret.sparseBlock;
+				cblock.allocate(i, lnnzi);
+				for( int j=0; j<n; j++ )
+					cblock.append(i, j, c[j]);
+			}
+			lnnz += lnnzi;
+		}
+		
+		return lnnz;
+	}
+	
+	/**
+	 * Sparse-safe binary operation over row i of two sparse inputs via a merge 
+	 * of their sorted column indexes, appending the results to row i of c.
+	 * 
+	 * @param a left sparse block
+	 * @param b right sparse block
+	 * @param c sparse output block
+	 * @param op sparse-safe binary operator
+	 * @param i row index
+	 * @return number of non-zeros in output row i
+	 * @throws DMLRuntimeException if the operator fails
+	 */
+	private static int mergeSparseRows(SparseBlock a, SparseBlock b, SparseBlock c, BinaryOperator op, int i)
+		throws DMLRuntimeException
+	{
+		boolean aempty = a.isEmpty(i);
+		boolean bempty = b.isEmpty(i);
+		if( aempty && bempty )
+			return 0;
+		
+		int apos = aempty ? 0 : a.pos(i);
+		int alen = aempty ? 0 : a.size(i);
+		int[] aix = aempty ? null : a.indexes(i);
+		double[] avals = aempty ? null : a.values(i);
+		int bpos = bempty ? 0 : b.pos(i);
+		int blen = bempty ? 0 : b.size(i);
+		int[] bix = bempty ? null : b.indexes(i);
+		double[] bvals = bempty ? null : b.values(i);
+		
+		//merge non-zeros like a merge sort
+		c.allocate(i, alen+blen);
+		int p1 = apos, p2 = bpos;
+		while( p1 < apos+alen && p2 < bpos+blen ) {
+			if( aix[p1] < bix[p2] ) {
+				c.append(i, aix[p1], op.fn.execute(avals[p1], 0));
+				p1++;
+			}
+			else if( aix[p1] == bix[p2] ) {
+				c.append(i, aix[p1], op.fn.execute(avals[p1], bvals[p2]));
+				p1++; p2++;
+			}
+			else {
+				c.append(i, bix[p2], op.fn.execute(0, bvals[p2]));
+				p2++;
+			}
+		}
+		//add left over
+		for( ; p1 < apos+alen; p1++ )
+			c.append(i, aix[p1], op.fn.execute(avals[p1], 0));
+		for( ; p2 < bpos+blen; p2++ )
+			c.append(i, bix[p2], op.fn.execute(0, bvals[p2]));
+		
+		return c.size(i);
+	}
+	
+	/**
+	 * Multiplication of sparse row i with a column or row vector, which only
+	 * processes the non-zeros of the sparse row.
+	 * 
+	 * @param a sparse matrix input
+	 * @param vect dense vector
+	 * @param c sparse output block
+	 * @param atype access type (MATRIX_COL_VECTOR or MATRIX_ROW_VECTOR)
+	 * @param i row index
+	 * @return number of non-zeros in output row i
+	 */
+	private static int multSparseRowVector(SparseBlock a, double[] vect, SparseBlock c, BinaryAccessType atype, int i)
+	{
+		if( a.isEmpty(i) )
+			return 0;
+		
+		int apos = a.pos(i);
+		int alen = a.size(i);
+		int[] aix = a.indexes(i);
+		double[] avals = a.values(i);
+		c.allocate(i, alen);
+		if( atype == BinaryAccessType.MATRIX_COL_VECTOR ) {
+			double v2 = vect[i];
+			for( int j=apos; j<apos+alen; j++ )
+				c.append(i, aix[j], avals[j] * v2);
+		}
+		else { //MATRIX_ROW_VECTOR
+			for( int j=apos; j<apos+alen; j++ )
+				c.append(i, aix[j], avals[j] * vect[aix[j]]);
+		}
+		
+		return c.size(i);
+	}
+	
+	/**
+	 * Expands sparse row i into the given dense temporary row, which is reset 
+	 * to zeros beforehand.
+	 * 
+	 * @param a sparse block
+	 * @param i row index
+	 * @param tmp dense temporary row of length ncol
+	 */
+	private static void expandSparseRow(SparseBlock a, int i, double[] tmp)
+	{
+		Arrays.fill(tmp, 0);
+		if( !a.isEmpty(i) ) {
+			int apos = a.pos(i);
+			int alen = a.size(i);
+			int[] aix = a.indexes(i);
+			double[] avals = a.values(i);
+			for( int j=apos; j<apos+alen; j++ )
+				tmp[aix[j]] = avals[j];
+		}
+	}
+	
+	/**
+	 * Counts the non-zeros in the range [ai, ai+len) of a dense array.
+	 * 
+	 * @param a dense array
+	 * @param ai start position
+	 * @param len number of cells
+	 * @return number of non-zeros
+	 */
+	private static int countNonZeros(double[] a, int ai, int len)
+	{
+		int lnnz = 0;
+		for( int i=ai; i<ai+len; i++ )
+			lnnz += (a[i] != 0) ? 1 : 0;
+		return lnnz;
+	}
+	
+	/**
+	 * Task of multi-threaded matrix-scalar operations over a row range.
+	 */
+	private static class BincellScalarTask implements Callable<Long> 
+	{
+		private final MatrixBlock _m1;
+		private final MatrixBlock _ret;
+		private final ScalarOperator _op;
+		private final int _rl;
+		private final int _ru;
 
+		protected BincellScalarTask( MatrixBlock m1, MatrixBlock ret, ScalarOperator op, int rl, int ru ) {
+			_m1 = m1;
+			_ret = ret;
+			_op = op;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Long call() throws DMLRuntimeException {
+			return bincellScalarRange(_m1, _ret, _op, _rl, _ru);
+		}
+	}
+	
+	/**
+	 * Task of multi-threaded matrix-matrix operations over a row range.
+	 */
+	private static class BincellTask implements Callable<Long> 
+	{
+		private final MatrixBlock _m1;
+		private final MatrixBlock _m2;
+		private final double[] _vect;
+		private final MatrixBlock _ret;
+		private final BinaryOperator _op;
+		private final BinaryAccessType _atype;
+		private final int _rl;
+		private final int _ru;
+
+		protected BincellTask( MatrixBlock m1, MatrixBlock m2, double[] vect, MatrixBlock ret, 
+				BinaryOperator op, BinaryAccessType atype, int rl, int ru ) {
+			_m1 = m1;
+			_m2 = m2;
+			_vect = vect;
+			_ret = ret;
+			_op = op;
+			_atype = atype;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Long call() throws DMLRuntimeException {
+			return bincellRange(_m1, _m2, _vect, _ret, _op, _atype, _rl, _ru);
+		}
+	}
+}
@@ -18,16 +18,13 @@
  */
 package org.apache.sysml.runtime.matrix.data;
 
-import java.lang.ref.SoftReference;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -36,6 +33,7 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.sysml.api.DMLScript;
 import org.apache.sysml.hops.OptimizerUtils;
 import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.util.CommonThreadPool;
 import org.apache.sysml.runtime.util.ConvolutionUtils;
 
 public class LibMatrixDNN {
@@ -43,27 +41,6 @@ public class LibMatrixDNN {
 	protected static final Log LOG =  LogFactory.getLog(LibMatrixDNN.class.getName());
 	
 	public static final boolean ALLOW_MULTI_THREADED_OPS = true;
-	// Using hashmap to avoid any performance impacts of multimap
-	private static final ConcurrentHashMap<Integer, SoftReference<double[]>> non_zeroed_double_arr = new ConcurrentHashMap<Integer, SoftReference<double[]>>();
-	private static final int NON_ZEROED_DOUBLE_ARR_THRESHOLD = 100;
-	public static void cacheReuseableData(double[] arr) {
-		if(arr != null && arr.length >= NON_ZEROED_DOUBLE_ARR_THRESHOLD) {
-			// Put the last recently removed arrays into the NON_ZEROED_DOUBLE_ARR as 
-			// it has lower probability of being garbage collected
-			// new Integer(arr.length) can be avoided here as autoboxing will do the trick
-			non_zeroed_double_arr.put(arr.length, new SoftReference<double[]>(arr));
-		}
-	}
-	public static double[] getReuseableData(long length) {
-		if(length >= NON_ZEROED_DOUBLE_ARR_THRESHOLD) {
-			// Explicit "new Integer" required here for HashMap.remove
-			SoftReference<double[]> arr = non_zeroed_double_arr.remove(new Integer((int) length));
-			if(arr != null) {
-				return arr.get();
-			}
-		}
-		return null;
-	}
 	
 	enum TaskType {
 		ReshapeCol, Rotate180, Im2Col, Col2Im, MaxPooling_Forward, MaxPooling_Backward, 
@@ -1198,7 +1175,7 @@ public class LibMatrixDNN {
 		}
 		LOG.debug("Reduce number of tasks from " + (NSize*Z)  + "(" + NSize + "," + Z + ") to " + tasks.size());
 
-		ExecutorService pool = Executors.newFixedThreadPool( Math.min(constrainedNumThreads, tasks.size()) );
+		ExecutorService pool = CommonThreadPool.get( Math.min(constrainedNumThreads, tasks.size()) );
 		List<Future<Object>> taskret;
 		try {
 			taskret = pool.invokeAll(tasks);
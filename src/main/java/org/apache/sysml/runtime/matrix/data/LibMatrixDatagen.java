@@ -26,7 +26,6 @@ import java.util.List;
 import java.util.Random;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import org.apache.commons.logging.Log;
@@ -35,6 +34,7 @@ import org.apache.commons.math3.random.Well1024a;
 import org.apache.sysml.hops.DataGenOp;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.controlprogram.parfor.util.IDSequence;
+import org.apache.sysml.runtime.util.CommonThreadPool;
 import org.apache.sysml.runtime.util.NormalPRNGenerator;
 import org.apache.sysml.runtime.util.PRNGenerator;
 import org.apache.sysml.runtime.util.PoissonPRNGenerator;
@@ -433,7 +433,7 @@ public class LibMatrixDatagen
 		
 		try 
 		{
-			ExecutorService pool = Executors.newFixedThreadPool(k);
+			ExecutorService pool = CommonThreadPool.get(k);
 			ArrayList<RandTask> tasks = new ArrayList<RandTask>();
 			int blklen = ((int)(Math.ceil((double)parnb/k)));
 			for( int i=0; i<k & i*blklen<parnb; i++ ) {
@@ -691,11 +691,13 @@ public class LibMatrixDatagen
 				}
 				else {
 					if (sparsity == 1.0) {
-						double[] c = out.denseBlock;
-						int cix = rowoffset*cols + coloffset;
-						for(int ii = 0; ii < blockrows; ii++, cix+=cols)
+						DenseBlock c = out.getDenseBlockObject();
+						for(int ii = 0; ii < blockrows; ii++) {
+							double[] cvals = c.values(rowoffset+ii);
+							int cix = c.pos(rowoffset+ii) + coloffset;
 							for(int jj = 0; jj < blockcols; jj++)
-								c[cix+jj] = min + (range * valuePRNG.nextDouble());
+								cvals[cix+jj] = min + (range * valuePRNG.nextDouble());
+						}
 					}
 					else {
 						if (out.sparse ) {
@@ -719,12 +721,14 @@ public class LibMatrixDatagen
 							}
 						}
 						else {
-							double[] c = out.denseBlock;
-							int cix = rowoffset*cols + coloffset;
-							for(int ii = 0; ii < blockrows; ii++, cix+=cols)
+							DenseBlock c = out.getDenseBlockObject();
+							for(int ii = 0; ii < blockrows; ii++) {
+								double[] cvals = c.values(rowoffset+ii);
+								int cix = c.pos(rowoffset+ii) + coloffset;
 								for(int jj = 0; jj < blockcols; jj++)
 									if(nnzPRNG.nextDouble() <= sparsity)
-										c[cix+jj] =  min + (range * valuePRNG.nextDouble());
+										cvals[cix+jj] =  min + (range * valuePRNG.nextDouble());
+							}
 						}
 					}
 				} // sparse or dense 
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.matrix.data;
+
+import org.apache.sysml.runtime.compress.CompressedMatrixBlock;
+
+/**
+ * Library for single-precision (float32) storage of dense matrix blocks in the
+ * buffer pool, i.e., in the write buffer and memory-mapped eviction files. All 
+ * operations compute in double precision over double dense and sparse blocks,
+ * but values are rounded to float32 at a single boundary, i.e., whenever data 
+ * enters the buffer pool (on release after modification and on reads from 
+ * HDFS or RDDs). Hence, results are independent of eviction, and dense blocks 
+ * can be evicted losslessly. Values beyond the float range are not rounded, 
+ * and dense blocks with such values are evicted in double precision. The float
+ * arrays are organized per row block of the dense block (see DenseBlock) and 
+ * hence, require half the size of the double dense block.
+ */
+public class LibMatrixFP32 
+{
+	private LibMatrixFP32() {
+		//prevent instantiation via private constructor
+	}
+	
+	/**
+	 * Rounds all values of the given matrix block in-place to single precision,
+	 * except values beyond the float range, which would overflow to infinity.
+	 * Values that underflow to zero are removed from sparse blocks and the 
+	 * number of non-zeros. Compressed matrix blocks are left unchanged.
+	 * 
+	 * @param mb matrix block
+	 */
+	public static void roundToSinglePrecision(MatrixBlock mb) 
+	{
+		if( mb instanceof CompressedMatrixBlock || mb.isEmptyBlock(false) )
+			return;
+		
+		long nzeros = 0;
+		if( mb.isInSparseFormat() ) {
+			SparseBlock a = mb.getSparseBlock();
+			for( int i=0; i<mb.getNumRows(); i++ ) {
+				if( a.isEmpty(i) ) continue;
+				int apos = a.pos(i);
+				int alen = a.size(i);
+				int[] aix = a.indexes(i);
+				double[] avals = a.values(i);
+				int lnzeros = 0;
+				for( int j=apos; j<apos+alen; j++ ) {
+					avals[j] = round(avals[j]);
+					lnzeros += (avals[j] == 0) ? 1 : 0;
+				}
+				//remove underflows (backwards to keep positions valid)
+				for( int j=apos+alen-1; j>=apos && lnzeros>0; j-- )
+					if( avals[j] == 0 ) {
+						a.set(i, aix[j], 0);
+						lnzeros--;
+						nzeros++;
+					}
+			}
+		}
+		else {
+			DenseBlock a = mb.getDenseBlockObject();
+			for( int bix=0; bix<a.numBlocks(); bix++ ) {
+				double[] avals = a.valuesAt(bix);
+				int alen = a.size(bix);
+				for( int j=0; j<alen; j++ ) {
+					double aval = avals[j];
+					avals[j] = round(aval);
+					nzeros += (aval != 0 && avals[j] == 0) ? 1 : 0;
+				}
+			}
+		}
+		
+		//maintain nnz (only necessary on underflow)
+		if( nzeros > 0 )
+			mb.recomputeNonZeros();
+	}
+	
+	/**
+	 * Converts the dense block of the given matrix block into single-precision
+	 * float arrays, one per row block of the dense block. If any finite value
+	 * exceeds the float range (and would overflow to infinity), the conversion 
+	 * is aborted and the block needs to be kept in double precision.
+	 * 
+	 * @param mb dense matrix block
+	 * @return float arrays per row block, or null if not representable
+	 */
+	public static float[][] toSinglePrecision(MatrixBlock mb) 
+	{
+		DenseBlock a = mb.getDenseBlockObject();
+		float[][] ret = new float[a.numBlocks()][];
+		for( int bix=0; bix<a.numBlocks(); bix++ ) {
+			double[] avals = a.valuesAt(bix);
+			float[] cvals = new float[a.size(bix)];
+			for( int j=0; j<cvals.length; j++ ) {
+				cvals[j] = (float) avals[j];
+				if( Float.isInfinite(cvals[j]) && !Double.isInfinite(avals[j]) )
+					return null; //abort on overflow
+			}
+			ret[bix] = cvals;
+		}
+		return ret;
+	}
+	
+	/**
+	 * Converts the given single-precision float arrays (one per row block) into 
+	 * a new dense matrix block of the given dimensions. The number of non-zeros
+	 * is maintained during the copy because small values might have underflowed
+	 * to zero.
+	 * 
+	 * @param data float arrays per row block
+	 * @param rlen number of rows
+	 * @param clen number of columns
+	 * @return dense matrix block
+	 */
+	public static MatrixBlock toDoublePrecision(float[][] data, int rlen, int clen) 
+	{
+		MatrixBlock ret = new MatrixBlock(rlen, clen, false);
+		ret.allocateDenseBlock();
+		DenseBlock c = ret.getDenseBlockObject();
+		long nnz = 0;
+		for( int bix=0; bix<c.numBlocks(); bix++ ) {
+			float[] avals = data[bix];
+			double[] cvals = c.valuesAt(bix);
+			for( int j=0; j<avals.length; j++ ) {
+				cvals[j] = avals[j];
+				nnz += (avals[j] != 0) ? 1 : 0;
+			}
+		}
+		ret.setNonZeros(nnz);
+		return ret;
+	}
+	
+	/**
+	 * Indicates if all finite values of the given dense matrix block are
+	 * within the float range, i.e., do not overflow to infinity if stored
+	 * in single precision.
+	 * 
+	 * @param mb dense matrix block
+	 * @return true if the block can be stored in single precision
+	 */
+	public static boolean isInSinglePrecisionRange(MatrixBlock mb) 
+	{
+		DenseBlock a = mb.getDenseBlockObject();
+		for( int bix=0; bix<a.numBlocks(); bix++ ) {
+			double[] avals = a.valuesAt(bix);
+			int alen = a.size(bix);
+			for( int j=0; j<alen; j++ )
+				if( Math.abs(avals[j]) > Float.MAX_VALUE && !Double.isInfinite(avals[j]) )
+					return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Rounds the given value to single precision, if within float range.
+	 * 
+	 * @param v value
+	 * @return rounded value
+	 */
+	private static double round(double v) {
+		return (Math.abs(v) <= Float.MAX_VALUE) ? (float) v : v;
+	}
+	
+	/**
+	 * Indicates if the given matrix block is an uncompressed dense matrix 
+	 * block, which can be stored in single precision.
+	 * 
+	 * @param mb matrix block
+	 * @return true if the block can be converted into float arrays
+	 */
+	public static boolean isValidSinglePrecisionBlock(MatrixBlock mb) {
+		return !(mb instanceof CompressedMatrixBlock)
+			&& !mb.isInSparseFormat() && mb.isAllocated();
+	}
+	
+	/**
+	 * Estimates the in-memory size of the single-precision float arrays 
+	 * of a dense block with the given dimensions.
+	 * 
+	 * @param rlen number of rows
+	 * @param clen number of columns
+	 * @return size in bytes
+	 */
+	public static long estimateSizeInMemory(long rlen, long clen) {
+		long nblocks = 1 + (rlen * clen) / DenseBlockFactory.getMaxDenseArraySize();
+		return 16 + 16 * nblocks + 4 * rlen * clen;
+	}
+}
@@ -26,7 +26,6 @@ import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import org.apache.commons.math3.util.FastMath;
@@ -37,9 +36,12 @@ import org.apache.sysml.lops.WeightedSigmoid.WSigmoidType;
 import org.apache.sysml.lops.WeightedSquaredLoss.WeightsType;
 import org.apache.sysml.lops.WeightedUnaryMM.WUMMType;
 import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.functionobjects.Plus;
 import org.apache.sysml.runtime.functionobjects.SwapIndex;
 import org.apache.sysml.runtime.functionobjects.ValueFunction;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
 import org.apache.sysml.runtime.matrix.operators.ReorgOperator;
+import org.apache.sysml.runtime.util.CommonThreadPool;
 import org.apache.sysml.runtime.util.UtilFunctions;
 
 /**
@@ -95,6 +97,13 @@ public class LibMatrixMult
 	public static void matrixMult(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret) 
 		throws DMLRuntimeException
 	{	
+		//large dense inputs or outputs are processed per row block
+		if( m1.isInLargeDenseFormat() || m2.isInLargeDenseFormat() 
+			|| DenseBlockFactory.isLargeDenseBlock(m1.rlen, m2.clen) ) {
+			matrixMultLargeDense(m1, m2, ret, 1);
+			return;
+		}
+		
 		matrixMult(m1, m2, ret, 0, m1.rlen);
 	}
 	
@@ -170,6 +179,13 @@ public class LibMatrixMult
 			return;
 		}
 		
+		//large dense inputs or outputs are processed per row block
+		if( m1.isInLargeDenseFormat() || m2.isInLargeDenseFormat() 
+			|| DenseBlockFactory.isLargeDenseBlock(m1.rlen, m2.clen) ) {
+			matrixMultLargeDense(m1, m2, ret, k);
+			return;
+		}
+		
 		//check too high additional vector-matrix memory requirements (fallback to sequential)
 		//check too small workload in terms of flops (fallback to sequential too)
 		if( m1.rlen == 1 && (8L * m2.clen * k > MEM_OVERHEAD_THRESHOLD || !LOW_LEVEL_OPTIMIZATION || m2.clen==1 || m1.isUltraSparse() || m2.isUltraSparse()) 
@@ -204,7 +220,7 @@ public class LibMatrixMult
 		//core multi-threaded matrix mult computation
 		//(currently: always parallelization over number of rows)
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			ArrayList<MatrixMultTask> tasks = new ArrayList<MatrixMultTask>();
 			int nk = (pm2r||pm2c) ? k : UtilFunctions.roundToNext(Math.min(8*k,num/32), k);
 			ArrayList<Integer> blklens = getBalancedBlockSizes(num, nk);
@@ -256,6 +272,12 @@ public class LibMatrixMult
 			ret.examSparsity(); //turn empty dense into sparse
 			return;
 		}
+		
+		//large dense inputs are processed per row block
+		if( mX.isInLargeDenseFormat() ) {
+			matrixMultChainLargeDense(mX, mV, mW, ret, ct, 1);
+			return;
+		}
 
 		//Timing time = new Timing(true);
 				
@@ -301,6 +323,12 @@ public class LibMatrixMult
 			return;
 		}
 		
+		//large dense inputs are processed per row block
+		if( mX.isInLargeDenseFormat() ) {
+			matrixMultChainLargeDense(mX, mV, mW, ret, ct, k);
+			return;
+		}
+		
 		//check too high additional memory requirements (fallback to sequential)
 		//check too small workload in terms of flops (fallback to sequential too)
 		if( 8L * mV.rlen * k > MEM_OVERHEAD_THRESHOLD 
@@ -319,7 +347,7 @@ public class LibMatrixMult
 		//core matrix mult chain computation
 		//(currently: always parallelization over number of rows)
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			ArrayList<MatrixMultChainTask> tasks = new ArrayList<MatrixMultChainTask>();
 			int blklen = (int)(Math.ceil((double)mX.rlen/k));
 			blklen += (blklen%24 != 0)?24-blklen%24:0;
@@ -360,6 +388,13 @@ public class LibMatrixMult
 			return;
 		}
 		
+		//large dense inputs or outputs are processed per row block
+		int n = leftTranspose ? m1.clen : m1.rlen;
+		if( m1.isInLargeDenseFormat() || DenseBlockFactory.isLargeDenseBlock(n, n) ) {
+			matrixMultTransposeSelfLargeDense(m1, ret, leftTranspose, 1);
+			return;
+		}
+		
 		//Timing time = new Timing(true);
 		
 		//pre-processing
@@ -397,6 +432,13 @@ public class LibMatrixMult
 			return;
 		}
 		
+		//large dense inputs or outputs are processed per row block
+		int n = leftTranspose ? m1.clen : m1.rlen;
+		if( m1.isInLargeDenseFormat() || DenseBlockFactory.isLargeDenseBlock(n, n) ) {
+			matrixMultTransposeSelfLargeDense(m1, ret, leftTranspose, k);
+			return;
+		}
+		
 		//check no parallelization benefit (fallback to sequential)
 		//check too small workload in terms of flops (fallback to sequential too)
 		if( ret.rlen == 1 
@@ -416,7 +458,7 @@ public class LibMatrixMult
 	
 		//core multi-threaded matrix mult computation
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			ArrayList<MatrixMultTransposeTask> tasks = new ArrayList<MatrixMultTransposeTask>();
 			//load balance via #tasks=2k due to triangular shape 
 			int blklen = (int)(Math.ceil((double)ret.rlen/(2*k)));
@@ -510,7 +552,7 @@ public class LibMatrixMult
 		
 		try
 		{
-			ExecutorService pool = Executors.newFixedThreadPool(k);
+			ExecutorService pool = CommonThreadPool.get(k);
 			ArrayList<MatrixMultPermuteTask> tasks = new ArrayList<MatrixMultPermuteTask>();
 			int blklen = (int)(Math.ceil((double)pm1.rlen/k));
 			for( int i=0; i<k & i*blklen<pm1.rlen; i++ )
@@ -602,7 +644,7 @@ public class LibMatrixMult
 		
 		try 
 		{			
-			ExecutorService pool = Executors.newFixedThreadPool(k);
+			ExecutorService pool = CommonThreadPool.get(k);
 			ArrayList<MatrixMultWSLossTask> tasks = new ArrayList<MatrixMultWSLossTask>();
 			int blklen = (int)(Math.ceil((double)mX.rlen/k));
 			for( int i=0; i<k & i*blklen<mX.rlen; i++ )
@@ -693,7 +735,7 @@ public class LibMatrixMult
 		
 		try 
 		{			
-			ExecutorService pool = Executors.newFixedThreadPool(k);
+			ExecutorService pool = CommonThreadPool.get(k);
 			ArrayList<MatrixMultWSigmoidTask> tasks = new ArrayList<MatrixMultWSigmoidTask>();
 			int blklen = (int)(Math.ceil((double)mW.rlen/k));
 			for( int i=0; i<k & i*blklen<mW.rlen; i++ )
@@ -806,7 +848,7 @@ public class LibMatrixMult
 		
 		try 
 		{			
-			ExecutorService pool = Executors.newFixedThreadPool(k);
+			ExecutorService pool = CommonThreadPool.get(k);
 			ArrayList<MatrixMultWDivTask> tasks = new ArrayList<MatrixMultWDivTask>();			
 			//create tasks (for wdivmm-left, parallelization over columns;
 			//for wdivmm-right, parallelization over rows; both ensure disjoint results)
@@ -904,7 +946,7 @@ public class LibMatrixMult
 		
 		try 
 		{			
-			ExecutorService pool = Executors.newFixedThreadPool(k);
+			ExecutorService pool = CommonThreadPool.get(k);
 			ArrayList<MatrixMultWCeTask> tasks = new ArrayList<MatrixMultWCeTask>();
 			int blklen = (int)(Math.ceil((double)mW.rlen/k));
 			for( int i=0; i<k & i*blklen<mW.rlen; i++ )
@@ -995,7 +1037,7 @@ public class LibMatrixMult
 		
 		try 
 		{			
-			ExecutorService pool = Executors.newFixedThreadPool(k);
+			ExecutorService pool = CommonThreadPool.get(k);
 			ArrayList<MatrixMultWuTask> tasks = new ArrayList<MatrixMultWuTask>();
 			int blklen = (int)(Math.ceil((double)mW.rlen/k));
 			for( int i=0; i<k & i*blklen<mW.rlen; i++ )
@@ -1019,6 +1061,151 @@ public class LibMatrixMult
 		//                   "("+mV.isInSparseFormat()+","+mV.getNumRows()+","+mV.getNumColumns()+","+mV.getNonZeros()+") in "+time.stop() + ".");
 	}
 	
+	//////////////////////////////////////////
+	// large dense matrix mult              //
+	//////////////////////////////////////////
+	
+	/**
+	 * Matrix multiplication with large dense inputs or outputs, computed per row 
+	 * block via zero-copy views. For a large left input or output, the row blocks 
+	 * of the output are computed independently (aligned with the row blocks of the
+	 * output); for a large right input, the output is the sum of partial products 
+	 * of left column blocks and right row blocks.
+	 * 
+	 * @param m1  left input matrix
+	 * @param m2  right input matrix
+	 * @param ret  output matrix
+	 * @param k  degree of parallelism
+	 * @throws DMLRuntimeException
+	 */
+	private static void matrixMultLargeDense(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, int k) 
+		throws DMLRuntimeException
+	{
+		//check inputs / outputs
+		if( m1.isEmptyBlock(false) || m2.isEmptyBlock(false) ) {
+			ret.examSparsity(); //turn empty dense into sparse
+			return;
+		}
+		
+		final int m = m1.rlen, n = m2.clen;
+		ret.reset(m, n, false);
+		ret.allocateDenseBlock();
+		
+		if( !m2.isInLargeDenseFormat() ) {
+			//row blocks of left input -> disjoint row blocks of output
+			//(with row ranges split further if output row blocks are smaller)
+			DenseBlock a = m1.isInLargeDenseFormat() ? m1.getDenseBlockObject() : null;
+			int blen = ret.isInLargeDenseFormat() ? ret.getDenseBlockObject().blockSize() : m;
+			int numBlocks = (a != null) ? a.numBlocks() : 1;
+			for( int bix=0, rl=0; bix<numBlocks; bix++ ) {
+				MatrixBlock view = (a != null) ? m1.getRowBlockView(bix, true) : m1;
+				for( int rl2=0; rl2<view.rlen; rl2+=blen ) {
+					int ru2 = Math.min(rl2+blen, view.rlen);
+					MatrixBlock lhs = (rl2==0 && ru2==view.rlen) ? view : 
+						view.sliceOperations(rl2, ru2-1, 0, view.clen-1, new MatrixBlock());
+					MatrixBlock part = new MatrixBlock(ru2-rl2, n, false);
+					matrixMult(lhs, m2, part, k);
+					ret.copy(rl+rl2, rl+ru2-1, 0, n-1, part, false);
+				}
+				rl += view.rlen;
+			}
+			ret.recomputeNonZeros();
+		}
+		else {
+			//row blocks of right input -> aggregation of partial products
+			DenseBlock b = m2.getDenseBlockObject();
+			BinaryOperator plus = new BinaryOperator(Plus.getPlusFnObject());
+			for( int bix=0, rl=0; bix<b.numBlocks(); rl+=b.blockSize(bix), bix++ ) {
+				MatrixBlock view = m2.getRowBlockView(bix, true);
+				MatrixBlock m1part = m1.sliceOperations(0, m-1, rl, rl+view.rlen-1, new MatrixBlock());
+				MatrixBlock part = new MatrixBlock(m, n, false);
+				matrixMult(m1part, view, part, k);
+				ret.binaryOperationsInPlace(plus, part);
+			}
+		}
+		
+		ret.examSparsity();
+	}
+	
+	/**
+	 * Matrix multiplication chain with large dense input X, where 
+	 * t(X)%*%(w*(X%*%v)) is the sum of t(X_i)%*%(w_i*(X_i%*%v)) over 
+	 * all row blocks X_i (and similarly for the other chain types).
+	 * 
+	 * @param mX  large dense input matrix X
+	 * @param mV  input vector v
+	 * @param mW  input vector w, or null
+	 * @param ret  output vector
+	 * @param ct  chain type
+	 * @param k  degree of parallelism
+	 * @throws DMLRuntimeException
+	 */
+	private static void matrixMultChainLargeDense(MatrixBlock mX, MatrixBlock mV, MatrixBlock mW, MatrixBlock ret, ChainType ct, int k) 
+		throws DMLRuntimeException
+	{
+		ret.reset(mX.clen, 1, false);
+		ret.allocateDenseBlock();
+		
+		DenseBlock a = mX.getDenseBlockObject();
+		BinaryOperator plus = new BinaryOperator(Plus.getPlusFnObject());
+		for( int bix=0, rl=0; bix<a.numBlocks(); rl+=a.blockSize(bix), bix++ ) {
+			MatrixBlock view = mX.getRowBlockView(bix, true);
+			MatrixBlock wpart = (mW != null) ? mW.sliceRowBlock(rl, rl+view.rlen) : null;
+			MatrixBlock part = new MatrixBlock(mX.clen, 1, false);
+			if( k > 1 )
+				matrixMultChain(view, mV, wpart, part, ct, k);
+			else
+				matrixMultChain(view, mV, wpart, part, ct);
+			ret.binaryOperationsInPlace(plus, part);
+		}
+		
+		ret.examSparsity();
+	}
+	
+	/**
+	 * Transpose-self matrix multiplication with large dense input or output, 
+	 * where t(X)%*%X is the sum of t(X_i)%*%X_i over all row blocks X_i, and 
+	 * X%*%t(X) or large outputs are computed via an explicit transpose.
+	 * 
+	 * @param m1  input matrix
+	 * @param ret  output matrix
+	 * @param leftTranspose  true for t(X)%*%X, false for X%*%t(X)
+	 * @param k  degree of parallelism
+	 * @throws DMLRuntimeException
+	 */
+	private static void matrixMultTransposeSelfLargeDense(MatrixBlock m1, MatrixBlock ret, boolean leftTranspose, int k) 
+		throws DMLRuntimeException
+	{
+		if( leftTranspose && m1.isInLargeDenseFormat() 
+			&& !DenseBlockFactory.isLargeDenseBlock(m1.clen, m1.clen) ) 
+		{
+			final int n = m1.clen;
+			ret.reset(n, n, false);
+			ret.allocateDenseBlock();
+			
+			DenseBlock a = m1.getDenseBlockObject();
+			BinaryOperator plus = new BinaryOperator(Plus.getPlusFnObject());
+			for( int bix=0; bix<a.numBlocks(); bix++ ) {
+				MatrixBlock view = m1.getRowBlockView(bix, true);
+				MatrixBlock part = new MatrixBlock(n, n, false);
+				if( k > 1 )
+					matrixMultTransposeSelf(view, part, true, k);
+				else
+					matrixMultTransposeSelf(view, part, true);
+				ret.binaryOperationsInPlace(plus, part);
+			}
+			ret.examSparsity();
+		}
+		else {
+			MatrixBlock tm1 = new MatrixBlock(m1.clen, m1.rlen, m1.sparse);
+			LibMatrixReorg.transpose(m1, tm1, k);
+			if( leftTranspose )
+				matrixMultLargeDense(tm1, m1, ret, k);
+			else
+				matrixMultLargeDense(m1, tm1, ret, k);
+		}
+	}
+	
 	//////////////////////////////////////////
 	// optimized matrix mult implementation //
 	//////////////////////////////////////////
@@ -1557,8 +1744,6 @@ public class LibMatrixMult
 	private static void matrixMultUltraSparse(MatrixBlock m1, MatrixBlock m2, MatrixBlock ret, int rl, int ru) 
 		throws DMLRuntimeException 
 	{
-		//TODO perf sparse block, consider iterators
-		
 		boolean leftUS = m1.isUltraSparse();
 		final int m  = m1.rlen;
 		final int cd = m1.clen;
@@ -1569,44 +1754,65 @@ public class LibMatrixMult
 			SparseBlock a = m1.sparseBlock;
 			boolean rightSparse = m2.sparse;
 			
-			for( int i=rl; i<ru; i++ )
+			//allocate ultra-sparse output w/o per-row overheads, which is safe 
+			//because output rows are written in row-major order by a single thread;
+			//we write directly into this block because incremental updates via the 
+			//matrix block would convert it back to the default sparse block type
+			SparseBlock c = null;
+			if( ret.sparse && ret.sparseBlock == null && rl == 0 && ru == m
+				&& MatrixBlock.evalUltraSparseFormatInMemory(m, n, m1.nonZeros * n) ) {
+				c = ret.sparseBlock = SparseBlockFactory.createSparseBlock(
+					MatrixBlock.DEFAULT_ULTRASPARSE_SPARSEBLOCK, m);
+			}
+			
+			//iterate over non-empty rows only (w/o scan for DCSR)
+			for( int i=a.nextNonEmptyRow(rl, ru); i<ru; i=a.nextNonEmptyRow(i+1, ru) )
 			{
-				if( !a.isEmpty(i) ) 
+				int apos = a.pos(i);
+				int alen = a.size(i);
+				int[] aixs = a.indexes(i);
+				double[] avals = a.values(i);
+				
+				if( alen==1 && avals[apos]==1 ) //ROW SELECTION (no aggregation)
 				{
-					int apos = a.pos(i);
-					int alen = a.size(i);
-					int[] aixs = a.indexes(i);
-					double[] avals = a.values(i);
-					
-					if( alen==1 && avals[apos]==1 ) //ROW SELECTION (no aggregation)
-					{
-						int aix = aixs[apos];
-						if( rightSparse ) { //sparse right matrix (full row copy)
-							if( !m2.sparseBlock.isEmpty(aix) ) {
-								ret.rlen=m;
+					int aix = aixs[apos];
+					if( rightSparse ) { //sparse right matrix (full row copy)
+						if( !m2.sparseBlock.isEmpty(aix) ) {
+							ret.rlen=m;
+							if( c == null )
 								ret.allocateSparseRowsBlock(false); //allocation on demand
-								ret.sparseBlock.set(i, m2.sparseBlock.get(aix), true); 
-								ret.nonZeros += ret.sparseBlock.size(i);
-							}
+							ret.sparseBlock.set(i, m2.sparseBlock.get(aix), true); 
+							ret.nonZeros += ret.sparseBlock.size(i);
 						}
-						else { //dense right matrix (append all values)
-							for( int j=0; j<n; j++ )
-								ret.appendValue(i, j, m2.quickGetValue(aix, j));
+					}
+					else if( c != null ) { //dense right matrix, ultra-sparse output
+						for( int j=0; j<n; j++ ) {
+							double bval = m2.quickGetValue(aix, j);
+							if( bval != 0 ) {
+								c.append(i, j, bval);
+								ret.nonZeros++;
+							}
 						}
 					}
-					else //GENERAL CASE
+					else { //dense right matrix (append all values)
+						for( int j=0; j<n; j++ )
+							ret.appendValue(i, j, m2.quickGetValue(aix, j));
+					}
+				}
+				else //GENERAL CASE
+				{
+					for( int k=apos; k<apos+alen; k++ )
 					{
-						for( int k=apos; k<apos+alen; k++ )
+						double aval = avals[k];
+						int aix = aixs[k];
+						for( int j=0; j<n; j++ )
 						{
-							double aval = avals[k];
-							int aix = aixs[k];
-							for( int j=0; j<n; j++ )
-							{
-								double cval = ret.quickGetValue(i, j);
-								double cvald = aval*m2.quickGetValue(aix, j);
-								if( cvald != 0 )
-									ret.quickSetValue(i, j, cval+cvald);
-							}
+							double cval = ret.quickGetValue(i, j);
+							double cvald = aval*m2.quickGetValue(aix, j);
+							if( cvald != 0 && c == null )
+								ret.quickSetValue(i, j, cval+cvald);
+							else if( cvald != 0 && c.set(i, j, cval+cvald) )
+								ret.nonZeros += (cval+cvald != 0) ? 1 : -1;
 						}
 					}
 				}
@@ -1616,25 +1822,23 @@ public class LibMatrixMult
 		{
 			SparseBlock b = m2.sparseBlock;
 			
-			for(int k = 0; k < cd; k++ ) 
+			//iterate over non-empty rows only (w/o scan for DCSR)
+			for( int k=b.nextNonEmptyRow(0, cd); k<cd; k=b.nextNonEmptyRow(k+1, cd) ) 
 			{			
-				if( !b.isEmpty(k) ) 
+				int bpos = b.pos(k);
+				int blen = b.size(k);
+				int[] bixs = b.indexes(k);
+				double[] bvals = b.values(k);								
+				for( int j=bpos; j<bpos+blen; j++ )
 				{
-					int bpos = b.pos(k);
-					int blen = b.size(k);
-					int[] bixs = b.indexes(k);
-					double[] bvals = b.values(k);								
-					for( int j=bpos; j<bpos+blen; j++ )
+					double bval = bvals[j];
+					int bix = bixs[j];
+					for( int i=rl; i<ru; i++ )
 					{
-						double bval = bvals[j];
-						int bix = bixs[j];
-						for( int i=rl; i<ru; i++ )
-						{
-							double cvald = bval*m1.quickGetValue(i, k);
-							if( cvald != 0 ){
-								double cval = ret.quickGetValue(i, bix);
-								ret.quickSetValue(i, bix, cval+cvald);
-							}
+						double cvald = bval*m1.quickGetValue(i, k);
+						if( cvald != 0 ){
+							double cval = ret.quickGetValue(i, bix);
+							ret.quickSetValue(i, bix, cval+cvald);
 						}
 					}
 				}
@@ -30,7 +30,6 @@ import java.util.List;
 import java.util.Map.Entry;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import org.apache.sysml.runtime.DMLRuntimeException;
@@ -41,6 +40,7 @@ import org.apache.sysml.runtime.functionobjects.SortIndex;
 import org.apache.sysml.runtime.functionobjects.SwapIndex;
 import org.apache.sysml.runtime.matrix.mapred.IndexedMatrixValue;
 import org.apache.sysml.runtime.matrix.operators.ReorgOperator;
+import org.apache.sysml.runtime.util.CommonThreadPool;
 import org.apache.sysml.runtime.util.DataConverter;
 import org.apache.sysml.runtime.util.SortUtils;
 import org.apache.sysml.runtime.util.UtilFunctions;
@@ -117,7 +117,7 @@ public class LibMatrixReorg
 				return diag(in, out); 
 			case SORT:      
 				SortIndex ix = (SortIndex) op.fn;
-				return sort(in, out, ix.getCol(), ix.getDecreasing(), ix.getIndexReturn());
+				return sort(in, out, ix.getCol(), ix.getDecreasing(), ix.getIndexReturn(), op.getNumThreads());
 			
 			default:        
 				throw new DMLRuntimeException("Unsupported reorg operator: "+op.fn);
@@ -138,6 +138,10 @@ public class LibMatrixReorg
 		if( in.isEmptyBlock(false) )
 			return out;
 	
+		//large dense inputs/outputs (w/o linearized arrays)
+		if( in.isInLargeDenseFormat() || out.isInLargeDenseFormat() )
+			return transposeLargeDense(in, out);
+		
 		//set basic meta data
 		out.nonZeros = in.nonZeros;
 		
@@ -185,7 +189,8 @@ public class LibMatrixReorg
 		throws DMLRuntimeException
 	{
 		//redirect small or special cases to sequential execution
-		if( in.isEmptyBlock(false) || (in.rlen * in.clen < PAR_NUMCELL_THRESHOLD)
+		if( in.isEmptyBlock(false) || in.isInLargeDenseFormat() || out.isInLargeDenseFormat() 
+			|| ((long)in.rlen * in.clen < PAR_NUMCELL_THRESHOLD)
 			|| (SHALLOW_DENSE_VECTOR_TRANSPOSE && !in.sparse && !out.sparse && (in.rlen==1 || in.clen==1) )
 			|| (in.sparse && !out.sparse && in.rlen==1) || out.sparse || !out.isThreadSafe())
 		{
@@ -203,7 +208,7 @@ public class LibMatrixReorg
 		
 		//core multi-threaded transpose
 		try {
-			ExecutorService pool = Executors.newFixedThreadPool( k );
+			ExecutorService pool = CommonThreadPool.get( k );
 			ArrayList<TransposeTask> tasks = new ArrayList<TransposeTask>();
 			boolean row = in.sparse || in.rlen >= in.clen;
 			int len = row ? in.rlen : in.clen;
@@ -357,6 +362,27 @@ public class LibMatrixReorg
 	 */
 	public static MatrixBlock sort(MatrixBlock in, MatrixBlock out, int by, boolean desc, boolean ixret) 
 		throws DMLRuntimeException
+	{
+		return sort(in, out, by, desc, ixret, 1);
+	}
+	
+	/**
+	 * Multi-threaded sort of the input by the given column, where k>1 enables
+	 * a parallel merge sort for large inputs (see SortUtils). For sparse inputs,
+	 * only the non-zero values are sorted and the run of zeros is inserted 
+	 * in row order.
+	 * 
+	 * @param in
+	 * @param out
+	 * @param by
+	 * @param desc
+	 * @param ixret
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException 
+	 */
+	public static MatrixBlock sort(MatrixBlock in, MatrixBlock out, int by, boolean desc, boolean ixret, int k) 
+		throws DMLRuntimeException
 	{
 		//meta data gathering and preparation
 		boolean sparse = in.isInSparseFormat();
@@ -378,7 +404,7 @@ public class LibMatrixReorg
 			if( !sparse && clen == 1 ) { //DENSE COLUMN VECTOR
 				//in-place quicksort, unstable (no indexes needed)
 				out.copy( in ); //dense
-				Arrays.sort(out.denseBlock);
+				SortUtils.sortParallel(out.denseBlock, k);
 				if( desc )
 					sortReverseDense(out);
 				return out;
@@ -399,13 +425,22 @@ public class LibMatrixReorg
 		//create index vector and extract values
 		int[] vix = new int[rlen];
 		double[] values = new double[rlen];
-		for( int i=0; i<rlen; i++ ) {
-			vix[i] = i;
-			values[i] = in.quickGetValue(i, by-1);
+		if( sparse && in.nonZeros < rlen ) {
+			//sort non-zero values only and insert zero run in row order
+			sortSparseColumn(in, by-1, values, vix, k);
+		}
+		else {
+			for( int i=0; i<rlen; i++ ) {
+				vix[i] = i;
+				values[i] = in.quickGetValue(i, by-1);
+			}
+			
+			//sort index vector on extracted data (stable, if multi-threaded)
+			if( k > 1 && rlen >= SortUtils.PAR_SORT_THRESHOLD )
+				SortUtils.sortByValueStable(values, vix, k);
+			else
+				SortUtils.sortByValue(0, rlen, values, vix);
 		}
-		
-		//sort index vector on extracted data (unstable)
-		SortUtils.sortByValue(0, rlen, values, vix);
 
 		//flip order if descending requested (note that this needs to happen
 		//before we ensure stable outputs, hence we also flip values)
@@ -461,6 +496,64 @@ public class LibMatrixReorg
 		return out;
 	}
 	
+	/**
+	 * Extracts the non-zero values of the given column of a sparse block,
+	 * sorts them (ties by row index), and fills values and indexes with the
+	 * ascending order of all rows, where zero rows are placed between the 
+	 * negative and positive values in ascending row order.
+	 * 
+	 * @param in
+	 * @param col
+	 * @param values
+	 * @param vix
+	 * @param k
+	 * @throws DMLRuntimeException
+	 */
+	private static void sortSparseColumn(MatrixBlock in, int col, double[] values, int[] vix, int k) 
+		throws DMLRuntimeException
+	{
+		int rlen = in.rlen;
+		
+		//extract non-zero values of column and their row indexes
+		double[] nzvals = new double[(int)Math.min(in.nonZeros, rlen)];
+		int[] nzix = new int[nzvals.length];
+		boolean[] nzrows = new boolean[rlen];
+		int nnz = 0;
+		if( in.sparseBlock != null ) {
+			SparseBlock a = in.sparseBlock;
+			for( int i=0; i<rlen; i++ ) {
+				if( a.isEmpty(i) ) continue;
+				double val = a.get(i, col);
+				if( val != 0 ) {
+					nzvals[nnz] = val;
+					nzix[nnz++] = i;
+					nzrows[i] = true;
+				}
+			}
+		}
+		
+		//sort non-zero values (stable by row index)
+		double[] svals = Arrays.copyOf(nzvals, nnz);
+		int[] six = Arrays.copyOf(nzix, nnz);
+		SortUtils.sortByValueStable(svals, six, k);
+		
+		//assemble negatives, zeros (in row order), positives
+		int pos = 0, nix = 0;
+		for( ; nix<nnz && svals[nix]<0; nix++, pos++ ) {
+			values[pos] = svals[nix];
+			vix[pos] = six[nix];
+		}
+		for( int i=0; i<rlen; i++ )
+			if( !nzrows[i] ) {
+				values[pos] = 0;
+				vix[pos++] = i;
+			}
+		for( ; nix<nnz; nix++, pos++ ) {
+			values[pos] = svals[nix];
+			vix[pos] = six[nix];
+		}
+	}
+	
 	/**
 	 * CP reshape operation (single input, single output matrix) 
 	 *
@@ -579,6 +672,24 @@ public class LibMatrixReorg
 	 */
 	public static MatrixBlock rmempty(MatrixBlock in, MatrixBlock ret, boolean rows, MatrixBlock select) 
 		throws DMLRuntimeException
+	{
+		return rmempty(in, ret, rows, select, 1);
+	}
+	
+	/**
+	 * CP rmempty operation (single input, single output matrix), multi-threaded 
+	 * over row partitions if k>1 and the input is sufficiently large.
+	 * 
+	 * @param in
+	 * @param ret
+	 * @param rows
+	 * @param select
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock rmempty(MatrixBlock in, MatrixBlock ret, boolean rows, MatrixBlock select, int k) 
+		throws DMLRuntimeException
 	{
 		//check for empty inputs 
 		//(the semantics of removeEmpty are that for an empty m-by-n matrix, the output 
@@ -591,10 +702,18 @@ public class LibMatrixReorg
 			return ret;
 		}
 		
+		//redirect small inputs to sequential execution
+		if( !satisfiesMultiThreadingConstraints(in, k) ) {
+			if( rows )
+				return removeEmptyRows(in, ret, select);
+			else //cols
+				return removeEmptyColumns(in, ret, select);
+		}
+		
 		if( rows )
-			return removeEmptyRows(in, ret, select);
+			return removeEmptyRows(in, ret, select, k);
 		else //cols
-			return removeEmptyColumns(in, ret, select);
+			return removeEmptyColumns(in, ret, select, k);
 	}
 
 	/**
@@ -698,6 +817,26 @@ public class LibMatrixReorg
 	 */
 	public static MatrixBlock rexpand(MatrixBlock in, MatrixBlock ret, double max, boolean rows, boolean cast, boolean ignore) 
 		throws DMLRuntimeException
+	{
+		return rexpand(in, ret, max, rows, cast, ignore, 1);
+	}
+	
+	/**
+	 * CP rexpand operation (single input, single output), multi-threaded 
+	 * over input partitions if k>1 and the input is sufficiently large.
+	 * 
+	 * @param in
+	 * @param ret
+	 * @param max
+	 * @param rows
+	 * @param cast
+	 * @param ignore
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock rexpand(MatrixBlock in, MatrixBlock ret, double max, boolean rows, boolean cast, boolean ignore, int k) 
+		throws DMLRuntimeException
 	{
 		//prepare parameters
 		int lmax = (int)UtilFunctions.toLong(max);
@@ -717,11 +856,69 @@ public class LibMatrixReorg
 		}
 		
 		//execute rexpand operations
-		if( rows )
+		//(multi-threaded rows requires per-thread row counts, hence max is bounded)
+		boolean par = satisfiesMultiThreadingConstraints(in, k);
+		if( rows && par && (long)lmax*k <= in.rlen )
+			return rexpandRows(in, ret, lmax, cast, ignore, k);
+		else if( rows )
 			return rexpandRows(in, ret, lmax, cast, ignore);
+		else if( par )
+			return rexpandColumns(in, ret, lmax, cast, ignore, k);
 		else //cols
 			return rexpandColumns(in, ret, lmax, cast, ignore);
 	}
+	
+	/**
+	 * CP replace operation (single input, single output), multi-threaded over
+	 * row partitions. Small inputs are redirected to the sequential replace.
+	 * 
+	 * @param in
+	 * @param ret
+	 * @param pattern
+	 * @param replacement
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public static MatrixBlock replace(MatrixBlock in, MatrixBlock ret, double pattern, double replacement, int k) 
+		throws DMLRuntimeException
+	{
+		in.examSparsity(); //ensure its in the right format
+		
+		//redirect small inputs or empty blocks to sequential execution
+		if( !satisfiesMultiThreadingConstraints(in, k) || (in.nonZeros == 0 && pattern != 0) )
+			return (MatrixBlock) in.replaceOperations(ret, pattern, replacement);
+		
+		//allocate output once in order to prevent synchronization
+		//(sparse-safe replace w/ sparse output, otherwise dense output)
+		boolean sp = in.sparse && pattern != 0;
+		ret.reset(in.rlen, in.clen, sp);
+		if( sp )
+			ret.allocateSparseRowsBlock();
+		else
+			ret.allocateDenseBlock();
+		
+		try {
+			ExecutorService pool = CommonThreadPool.get(k);
+			ArrayList<ReplaceTask> tasks = new ArrayList<ReplaceTask>();
+			int blklen = (int)(Math.ceil((double)in.rlen/k));
+			for( int i=0; i<k & i*blklen<in.rlen; i++ )
+				tasks.add(new ReplaceTask(in, ret, pattern, replacement, i*blklen, Math.min((i+1)*blklen, in.rlen)));
+			List<Future<Long>> taskret = pool.invokeAll(tasks);
+			pool.shutdown();
+			//aggregate partial nnz
+			long nnz = 0;
+			for( Future<Long> task : taskret )
+				nnz += task.get();
+			ret.nonZeros = nnz;
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		
+		ret.examSparsity();
+		return ret;
+	}
 
 	/**
 	 * MR/Spark rexpand operation (single input, multiple outputs incl empty blocks)
@@ -796,6 +993,72 @@ public class LibMatrixReorg
 		return ReorgType.INVALID;
 	}
 	
+	/**
+	 * Transpose with large dense input or output, where rows are not linearized 
+	 * into a single array. Dense-dense transposes are blocked over tiles of the 
+	 * row blocks, all other combinations append cell by cell.
+	 * 
+	 * @param in  input matrix
+	 * @param out  output matrix
+	 * @return output matrix
+	 * @throws DMLRuntimeException
+	 */
+	private static MatrixBlock transposeLargeDense(MatrixBlock in, MatrixBlock out) 
+		throws DMLRuntimeException
+	{
+		final int m = in.rlen;
+		final int n = in.clen;
+		
+		if( !in.sparse && !out.sparse ) {
+			//blocked dense-dense transpose
+			out.allocateDenseBlock(false);
+			DenseBlock a = in.getDenseBlockObject();
+			DenseBlock c = out.getDenseBlockObject();
+			final int blocksizeI = 128;
+			final int blocksizeJ = 128; 
+			for( int bi = 0; bi<m; bi+=blocksizeI ) {
+				int bimin = Math.min(bi+blocksizeI, m);
+				for( int bj = 0; bj<n; bj+=blocksizeJ ) {
+					int bjmin = Math.min(bj+blocksizeJ, n);
+					for( int j=bj; j<bjmin; j++ ) {
+						double[] cvals = c.values(j);
+						int cix = c.pos(j);
+						for( int i=bi; i<bimin; i++ )
+							cvals[cix+i] = a.values(i)[a.pos(i)+j];
+					}
+				}
+			}
+			out.nonZeros = in.nonZeros;
+		}
+		else if( in.sparse ) {
+			//sparse to large dense (column-wise append into rows)
+			out.reset(n, m, false);
+			SparseBlock a = in.getSparseBlock();
+			for( int i=0; i<m; i++ ) {
+				if( a.isEmpty(i) ) continue;
+				int apos = a.pos(i);
+				int alen = a.size(i);
+				int[] aix = a.indexes(i);
+				double[] avals = a.values(i);
+				for( int j=apos; j<apos+alen; j++ )
+					out.appendValue(aix[j], i, avals[j]);
+			}
+		}
+		else {
+			//large dense to sparse (ordered append into sparse rows)
+			out.reset(n, m, true);
+			DenseBlock a = in.getDenseBlockObject();
+			for( int i=0; i<m; i++ ) {
+				double[] avals = a.values(i);
+				int aix = a.pos(i);
+				for( int j=0; j<n; j++ )
+					out.appendValue(j, i, avals[aix+j]);
+			}
+		}
+		
+		return out;
+	}
+	
 	/**
 	 * 
 	 * @param in
@@ -1927,8 +2190,11 @@ public class LibMatrixReorg
 				}
 		}
 		
-		//check sparsity
-		ret.nonZeros = in.nonZeros;
+		//check sparsity (exact nnz if select vector drops non-zeros)
+		if( select == null )
+			ret.nonZeros = in.nonZeros;
+		else
+			ret.recomputeNonZeros();
 		ret.examSparsity();
 
 		return ret;
@@ -2041,8 +2307,11 @@ public class LibMatrixReorg
 						 ret.appendValue(i, cix[j], a[aix]);	
 		}
 		
-		//check sparsity
-		ret.nonZeros = in.nonZeros;
+		//check sparsity (exact nnz if select vector drops non-zeros)
+		if( select == null )
+			ret.nonZeros = in.nonZeros;
+		else
+			ret.recomputeNonZeros();
 		ret.examSparsity();
 		
 		return ret;
@@ -2173,6 +2442,327 @@ public class LibMatrixReorg
 	}
 	
 
+	/**
+	 * Indicates if the given input is large enough for multi-threaded rmempty,
+	 * rexpand, and replace. Sparse outputs are only written concurrently into 
+	 * disjoint rows of MCSR blocks.
+	 * 
+	 * @param in
+	 * @param k
+	 * @return
+	 */
+	private static boolean satisfiesMultiThreadingConstraints(MatrixBlock in, int k) {
+		return k > 1 && in.rlen > k
+			&& (long)in.rlen*in.clen >= PAR_NUMCELL_THRESHOLD
+			&& MatrixBlock.DEFAULT_SPARSEBLOCK == SparseBlock.Type.MCSR;
+	}
+	
+	/**
+	 * Multi-threaded removeEmpty rows in two passes: (1) parallel computation of 
+	 * the number of non-empty rows per row partition, and (2) parallel copy of 
+	 * the non-empty rows into the output at the prefix-summed partition offsets.
+	 * 
+	 * @param in
+	 * @param ret
+	 * @param select
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static MatrixBlock removeEmptyRows(MatrixBlock in, MatrixBlock ret, MatrixBlock select, int k) 
+		throws DMLRuntimeException 
+	{
+		final int m = in.rlen;
+		final int n = in.clen;
+		
+		try {
+			ExecutorService pool = CommonThreadPool.get(k);
+			
+			//pass 1: determine non-empty rows and counts per partition
+			boolean[] flags = (select != null) ?
+				DataConverter.convertToBooleanVector(select) : new boolean[m];
+			ArrayList<RemoveEmptyRowsTask> tasks = new ArrayList<RemoveEmptyRowsTask>();
+			int blklen = (int)(Math.ceil((double)m/k));
+			for( int i=0; i<k & i*blklen<m; i++ )
+				tasks.add(new RemoveEmptyRowsTask(in, ret, flags, select==null, i*blklen, Math.min((i+1)*blklen, m)));
+			List<Future<Long>> taskret = pool.invokeAll(tasks);
+			
+			//compute output row offsets per partition
+			int rlen2 = 0;
+			for( int i=0; i<tasks.size(); i++ ) {
+				tasks.get(i).setOffset(rlen2);
+				rlen2 += taskret.get(i).get();
+			}
+			
+			//pass 2: reset result and copy rows
+			rlen2 = Math.max(rlen2, 1); //ensure valid output
+			boolean sp = MatrixBlock.evalSparseFormatInMemory(rlen2, n, in.nonZeros);
+			ret.reset(rlen2, n, sp);
+			if( sp )
+				ret.allocateSparseRowsBlock();
+			else
+				ret.allocateDenseBlock();
+			taskret = pool.invokeAll(tasks);
+			pool.shutdown();
+			
+			//aggregate partial nnz
+			long nnz = 0;
+			for( Future<Long> task : taskret )
+				nnz += task.get();
+			ret.nonZeros = nnz;
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		
+		//check sparsity
+		ret.examSparsity();
+		
+		return ret;
+	}
+	
+	/**
+	 * Multi-threaded removeEmpty columns in two passes: (1) parallel computation 
+	 * of partial non-empty column flags per row partition, and (2) parallel copy
+	 * of row partitions with the merged column mapping.
+	 * 
+	 * @param in
+	 * @param ret
+	 * @param select
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static MatrixBlock removeEmptyColumns(MatrixBlock in, MatrixBlock ret, MatrixBlock select, int k) 
+		throws DMLRuntimeException 
+	{
+		final int m = in.rlen;
+		final int n = in.clen;
+		
+		try {
+			ExecutorService pool = CommonThreadPool.get(k);
+			ArrayList<RemoveEmptyColsTask> tasks = new ArrayList<RemoveEmptyColsTask>();
+			int blklen = (int)(Math.ceil((double)m/k));
+			for( int i=0; i<k & i*blklen<m; i++ )
+				tasks.add(new RemoveEmptyColsTask(in, ret, i*blklen, Math.min((i+1)*blklen, m)));
+			
+			//pass 1: determine non-empty columns (partial flags per partition)
+			boolean[] flags = null;
+			if( select == null ) {
+				flags = new boolean[n];
+				for( Future<Long> task : pool.invokeAll(tasks) )
+					task.get();
+				for( RemoveEmptyColsTask task : tasks ) {
+					boolean[] lflags = task.getFlags();
+					for( int j=0; j<n; j++ )
+						flags[j] |= lflags[j];
+				}
+			}
+			else {
+				flags = DataConverter.convertToBooleanVector(select);
+			}
+			
+			//create mapping of flags to target indexes
+			int clen2 = 0;
+			int[] cix = new int[n];
+			for( int j=0; j<n; j++ )
+				if( flags[j] )
+					cix[j] = clen2++;
+			
+			//pass 2: reset result and copy cols
+			clen2 = Math.max(clen2, 1); //ensure valid output
+			boolean sp = MatrixBlock.evalSparseFormatInMemory(m, clen2, in.nonZeros);
+			ret.reset(m, clen2, sp);
+			if( sp )
+				ret.allocateSparseRowsBlock();
+			else
+				ret.allocateDenseBlock();
+			for( RemoveEmptyColsTask task : tasks )
+				task.setMapping(flags, cix);
+			List<Future<Long>> taskret = pool.invokeAll(tasks);
+			pool.shutdown();
+			
+			//aggregate partial nnz
+			long nnz = 0;
+			for( Future<Long> task : taskret )
+				nnz += task.get();
+			ret.nonZeros = nnz;
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		
+		//check sparsity
+		ret.examSparsity();
+		
+		return ret;
+	}
+	
+	/**
+	 * Multi-threaded rexpand rows, which is a counting sort of input positions by 
+	 * target row: (1) parallel computation of target rows and per-partition row counts, 
+	 * (2) parallel scatter of input positions into row segments at prefix-summed 
+	 * offsets, and (3) parallel creation of sparse output rows. For dense outputs, 
+	 * pass 2 directly writes into the output.
+	 * 
+	 * @param in
+	 * @param ret
+	 * @param max
+	 * @param cast
+	 * @param ignore
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static MatrixBlock rexpandRows(MatrixBlock in, MatrixBlock ret, int max, boolean cast, boolean ignore, int k) 
+		throws DMLRuntimeException
+	{
+		//set meta data
+		final int rlen = max;
+		final int clen = in.rlen;
+		final long nnz = in.nonZeros;
+		boolean sp = MatrixBlock.evalSparseFormatInMemory(rlen, clen, nnz);
+		ret.reset(rlen, clen, sp);
+		
+		try {
+			ExecutorService pool = CommonThreadPool.get(k);
+			
+			//pass 1: compute target rows and per-partition row counts
+			int[] tix = new int[clen];
+			ArrayList<RexpandRowsTask> tasks = new ArrayList<RexpandRowsTask>();
+			int blklen = (int)(Math.ceil((double)clen/k));
+			for( int i=0; i<k & i*blklen<clen; i++ )
+				tasks.add(new RexpandRowsTask(in, ret, tix, max, cast, ignore, i*blklen, Math.min((i+1)*blklen, clen)));
+			long lnnz = 0;
+			for( Future<Long> task : pool.invokeAll(tasks) )
+				lnnz += task.get();
+			
+			if( sp ) //SPARSE
+			{
+				//compute row pointers and partition offsets per row
+				int[] rptr = new int[rlen+1];
+				for( int r=0; r<rlen; r++ ) {
+					int pos = rptr[r];
+					for( RexpandRowsTask task : tasks ) {
+						int[] cnt = task.getCounts();
+						int tmp = cnt[r];
+						cnt[r] = pos; //count to offset
+						pos += tmp;
+					}
+					rptr[r+1] = pos;
+				}
+				
+				//pass 2: scatter input positions into row segments
+				int[] cix = new int[(int)lnnz];
+				for( RexpandRowsTask task : tasks )
+					task.setScatter(cix);
+				for( Future<Long> task : pool.invokeAll(tasks) )
+					task.get();
+				
+				//pass 3: create sparse output rows
+				ret.allocateSparseRowsBlock();
+				ArrayList<RexpandRowsAppendTask> tasks2 = new ArrayList<RexpandRowsAppendTask>();
+				int blklen2 = (int)(Math.ceil((double)rlen/k));
+				for( int i=0; i<k & i*blklen2<rlen; i++ )
+					tasks2.add(new RexpandRowsAppendTask(ret, rptr, cix, i*blklen2, Math.min((i+1)*blklen2, rlen)));
+				for( Future<Object> task : pool.invokeAll(tasks2) )
+					task.get();
+			}
+			else //DENSE
+			{
+				//pass 2: scatter ones into disjoint output cells
+				ret.allocateDenseBlock();
+				for( RexpandRowsTask task : tasks )
+					task.setScatter(null);
+				for( Future<Long> task : pool.invokeAll(tasks) )
+					task.get();
+			}
+			pool.shutdown();
+			ret.nonZeros = lnnz;
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * Multi-threaded rexpand columns over partitions of input rows, where 
+	 * each input row maps to at most one value in the same output row.
+	 * 
+	 * @param in
+	 * @param ret
+	 * @param max
+	 * @param cast
+	 * @param ignore
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static MatrixBlock rexpandColumns(MatrixBlock in, MatrixBlock ret, int max, boolean cast, boolean ignore, int k) 
+		throws DMLRuntimeException
+	{
+		//set meta data
+		final int rlen = in.rlen;
+		final int clen = max;
+		final long nnz = in.nonZeros;
+		boolean sp = MatrixBlock.evalSparseFormatInMemory(rlen, clen, nnz);
+		ret.reset(rlen, clen, sp);
+		
+		//allocate output once in order to prevent synchronization
+		if( sp )
+			ret.allocateSparseRowsBlock();
+		else
+			ret.allocateDenseBlock();
+		
+		try {
+			ExecutorService pool = CommonThreadPool.get(k);
+			ArrayList<RexpandColumnsTask> tasks = new ArrayList<RexpandColumnsTask>();
+			int blklen = (int)(Math.ceil((double)rlen/k));
+			for( int i=0; i<k & i*blklen<rlen; i++ )
+				tasks.add(new RexpandColumnsTask(in, ret, max, cast, ignore, i*blklen, Math.min((i+1)*blklen, rlen)));
+			List<Future<Long>> taskret = pool.invokeAll(tasks);
+			pool.shutdown();
+			//aggregate partial nnz
+			long lnnz = 0;
+			for( Future<Long> task : taskret )
+				lnnz += task.get();
+			ret.nonZeros = lnnz;
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		
+		return ret;
+	}
+	
+	/**
+	 * Computes the 0-based target index of an rexpand input value, 
+	 * or -1 if the value is out of range or not an integer.
+	 * 
+	 * @param val
+	 * @param max
+	 * @param cast
+	 * @param ignore
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	private static int rexpandTargetIndex(double val, int max, boolean cast, boolean ignore) 
+		throws DMLRuntimeException
+	{
+		//cast if necessary (table)
+		if( cast )
+			val = UtilFunctions.toLong(val);
+		
+		//handle invalid values if not to be ignored
+		if( !ignore && val<=0 )
+			throw new DMLRuntimeException("Invalid input value <= 0 for ignore=false: "+val);
+		
+		return ( val == Math.floor(val) && val >= 1 && val <= max ) ? (int)(val-1) : -1;
+	}
+	
+
 	/**
 	 * Utility method for in-place transformation of an ascending sorted
 	 * order into a descending sorted order. This method assumes dense
@@ -2363,4 +2953,448 @@ public class LibMatrixReorg
 			return null;
 		}
 	}
+	
+	/**
+	 * Task for multi-threaded removeEmpty rows, where the first call counts the 
+	 * non-empty rows of the partition and the second call (after the output 
+	 * offset is set) copies these rows.
+	 */
+	private static class RemoveEmptyRowsTask implements Callable<Long>
+	{
+		private final MatrixBlock _in;
+		private final MatrixBlock _out;
+		private final boolean[] _flags;
+		private final boolean _computeFlags;
+		private final int _rl;
+		private final int _ru;
+		private int _offset = -1;
+		
+		protected RemoveEmptyRowsTask(MatrixBlock in, MatrixBlock out, boolean[] flags, boolean computeFlags, int rl, int ru) {
+			_in = in;
+			_out = out;
+			_flags = flags;
+			_computeFlags = computeFlags;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		public void setOffset(int offset) {
+			_offset = offset;
+		}
+		
+		@Override
+		public Long call() {
+			return (_offset < 0) ? countRows() : copyRows();
+		}
+		
+		private long countRows() {
+			final int n = _in.clen;
+			long cnt = 0;
+			for( int i=_rl, aix=_rl*n; i<_ru; i++, aix+=n ) {
+				if( _computeFlags ) {
+					if( _in.sparse )
+						_flags[i] = !_in.sparseBlock.isEmpty(i);
+					else {
+						double[] a = _in.denseBlock;
+						for( int j=0; j<n && !_flags[i]; j++ )
+							_flags[i] = (a[aix+j] != 0);
+					}
+				}
+				cnt += _flags[i] ? 1 : 0;
+			}
+			return cnt;
+		}
+		
+		private long copyRows() {
+			final int n = _in.clen;
+			long lnnz = 0;
+			if( _in.sparse ) //* <- SPARSE
+			{
+				SparseBlock a = _in.sparseBlock;
+				for( int i=_rl, cix=_offset; i<_ru; i++ ) {
+					if( !_flags[i] ) 
+						continue;
+					if( !a.isEmpty(i) ) {
+						int apos = a.pos(i);
+						int alen = a.size(i);
+						int[] aix = a.indexes(i);
+						double[] avals = a.values(i);
+						if( _out.sparse ) {
+							SparseBlock c = _out.sparseBlock;
+							c.allocate(cix, alen);
+							for( int j=apos; j<apos+alen; j++ )
+								c.append(cix, aix[j], avals[j]);
+						}
+						else {
+							double[] c = _out.denseBlock;
+							for( int j=apos, cpos=cix*n; j<apos+alen; j++ )
+								c[cpos+aix[j]] = avals[j];
+						}
+						lnnz += alen;
+					}
+					cix++;
+				}
+			}
+			else //* <- DENSE
+			{
+				double[] a = _in.denseBlock;
+				for( int i=_rl, aix=_rl*n, cix=_offset; i<_ru; i++, aix+=n ) {
+					if( !_flags[i] ) 
+						continue;
+					if( _out.sparse ) {
+						SparseBlock c = _out.sparseBlock;
+						for( int j=0; j<n; j++ )
+							if( a[aix+j] != 0 ) {
+								c.append(cix, j, a[aix+j]);
+								lnnz++;
+							}
+					}
+					else {
+						System.arraycopy(a, aix, _out.denseBlock, cix*n, n);
+						for( int j=0; j<n; j++ )
+							lnnz += (a[aix+j] != 0) ? 1 : 0;
+					}
+					cix++;
+				}
+			}
+			return lnnz;
+		}
+	}
+	
+	/**
+	 * Task for multi-threaded removeEmpty columns, where the first call computes
+	 * partial column flags of the partition and the second call (after the column 
+	 * mapping is set) copies the selected columns of the partition rows.
+	 */
+	private static class RemoveEmptyColsTask implements Callable<Long>
+	{
+		private final MatrixBlock _in;
+		private final MatrixBlock _out;
+		private final int _rl;
+		private final int _ru;
+		private boolean[] _flags = null;
+		private int[] _cix = null;
+		
+		protected RemoveEmptyColsTask(MatrixBlock in, MatrixBlock out, int rl, int ru) {
+			_in = in;
+			_out = out;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		public boolean[] getFlags() {
+			return _flags;
+		}
+		
+		public void setMapping(boolean[] flags, int[] cix) {
+			_flags = flags;
+			_cix = cix;
+		}
+		
+		@Override
+		public Long call() {
+			if( _cix == null )
+				computeFlags();
+			return (_cix == null) ? 0 : copyColumns();
+		}
+		
+		private void computeFlags() {
+			final int n = _in.clen;
+			_flags = new boolean[n];
+			if( _in.sparse ) {
+				SparseBlock a = _in.sparseBlock;
+				for( int i=_rl; i<_ru; i++ ) 
+					if ( !a.isEmpty(i) ) {
+						int apos = a.pos(i);
+						int alen = a.size(i);
+						int[] aix = a.indexes(i);
+						for( int j=apos; j<apos+alen; j++ )
+							_flags[ aix[j] ] = true;
+					}
+			}
+			else {
+				double[] a = _in.denseBlock;
+				for( int i=_rl, aix=_rl*n; i<_ru; i++ )
+					for( int j=0; j<n; j++, aix++ )
+						_flags[j] |= (a[aix] != 0);
+			}
+		}
+		
+		private long copyColumns() {
+			final int n = _in.clen;
+			final int clen2 = _out.clen;
+			long lnnz = 0;
+			if( _in.sparse ) //* <- SPARSE
+			{
+				SparseBlock a = _in.sparseBlock;
+				for( int i=_rl; i<_ru; i++ ) {
+					if( a.isEmpty(i) ) 
+						continue;
+					int apos = a.pos(i);
+					int alen = a.size(i);
+					int[] aix = a.indexes(i);
+					double[] avals = a.values(i);
+					for( int j=apos; j<apos+alen; j++ )
+						if( _flags[aix[j]] ) {
+							if( _out.sparse )
+								_out.sparseBlock.append(i, _cix[aix[j]], avals[j]);
+							else
+								_out.denseBlock[i*clen2+_cix[aix[j]]] = avals[j];
+							lnnz++;
+						}
+				}
+			}
+			else //* <- DENSE
+			{
+				double[] a = _in.denseBlock;
+				for( int i=_rl, aix=_rl*n, lcix=_rl*clen2; i<_ru; i++, lcix+=clen2 )
+					for( int j=0; j<n; j++, aix++ )
+						if( _flags[j] && a[aix] != 0 ) {
+							if( _out.sparse )
+								_out.sparseBlock.append(i, _cix[j], a[aix]);
+							else
+								_out.denseBlock[lcix+_cix[j]] = a[aix];
+							lnnz++;
+						}
+			}
+			return lnnz;
+		}
+	}
+	
+	/**
+	 * Task for multi-threaded rexpand rows, where the first call computes target
+	 * rows and (for sparse outputs) row counts of the partition, and the second 
+	 * call scatters the input positions into row segments or the dense output.
+	 */
+	private static class RexpandRowsTask implements Callable<Long>
+	{
+		private final MatrixBlock _in;
+		private final MatrixBlock _out;
+		private final int[] _tix;
+		private final int _max;
+		private final boolean _cast;
+		private final boolean _ignore;
+		private final int _rl;
+		private final int _ru;
+		private int[] _cnt = null;
+		private boolean _scatter = false;
+		private int[] _cix = null;
+		
+		protected RexpandRowsTask(MatrixBlock in, MatrixBlock out, int[] tix, int max, boolean cast, boolean ignore, int rl, int ru) {
+			_in = in;
+			_out = out;
+			_tix = tix;
+			_max = max;
+			_cast = cast;
+			_ignore = ignore;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		public int[] getCounts() {
+			return _cnt;
+		}
+		
+		public void setScatter(int[] cix) {
+			_scatter = true;
+			_cix = cix;
+		}
+		
+		@Override
+		public Long call() throws DMLRuntimeException {
+			if( !_scatter ) {
+				//compute target rows and row counts
+				_cnt = _out.sparse ? new int[_max] : null;
+				long lnnz = 0;
+				for( int i=_rl; i<_ru; i++ ) {
+					int r = rexpandTargetIndex(_in.quickGetValue(i, 0), _max, _cast, _ignore);
+					_tix[i] = r;
+					if( r >= 0 ) {
+						if( _cnt != null )
+							_cnt[r]++;
+						lnnz++;
+					}
+				}
+				return lnnz;
+			}
+			
+			//scatter input positions (counts already converted to offsets)
+			if( _cix != null ) {
+				for( int i=_rl; i<_ru; i++ )
+					if( _tix[i] >= 0 )
+						_cix[_cnt[_tix[i]]++] = i;
+			}
+			else {
+				double[] c = _out.denseBlock;
+				int clen = _out.clen;
+				for( int i=_rl; i<_ru; i++ )
+					if( _tix[i] >= 0 )
+						c[_tix[i]*clen+i] = 1;
+			}
+			return 0L;
+		}
+	}
+	
+	/**
+	 * Task for creating sparse output rows of multi-threaded rexpand rows
+	 * from the row segments of scattered input positions.
+	 */
+	private static class RexpandRowsAppendTask implements Callable<Object>
+	{
+		private final MatrixBlock _out;
+		private final int[] _rptr;
+		private final int[] _cix;
+		private final int _rl;
+		private final int _ru;
+		
+		protected RexpandRowsAppendTask(MatrixBlock out, int[] rptr, int[] cix, int rl, int ru) {
+			_out = out;
+			_rptr = rptr;
+			_cix = cix;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Object call() {
+			SparseBlock c = _out.sparseBlock;
+			for( int r=_rl; r<_ru; r++ ) {
+				int len = _rptr[r+1] - _rptr[r];
+				if( len > 0 ) {
+					c.allocate(r, len);
+					for( int j=_rptr[r]; j<_rptr[r+1]; j++ )
+						c.append(r, _cix[j], 1);
+				}
+			}
+			return null;
+		}
+	}
+	
+	/**
+	 * Task for multi-threaded rexpand columns over a partition of input rows.
+	 */
+	private static class RexpandColumnsTask implements Callable<Long>
+	{
+		private final MatrixBlock _in;
+		private final MatrixBlock _out;
+		private final int _max;
+		private final boolean _cast;
+		private final boolean _ignore;
+		private final int _rl;
+		private final int _ru;
+		
+		protected RexpandColumnsTask(MatrixBlock in, MatrixBlock out, int max, boolean cast, boolean ignore, int rl, int ru) {
+			_in = in;
+			_out = out;
+			_max = max;
+			_cast = cast;
+			_ignore = ignore;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Long call() throws DMLRuntimeException {
+			long lnnz = 0;
+			for( int i=_rl; i<_ru; i++ ) {
+				int c = rexpandTargetIndex(_in.quickGetValue(i, 0), _max, _cast, _ignore);
+				if( c >= 0 ) {
+					if( _out.sparse ) {
+						_out.sparseBlock.allocate(i, 1);
+						_out.sparseBlock.append(i, c, 1);
+					}
+					else
+						_out.denseBlock[i*_max+c] = 1;
+					lnnz++;
+				}
+			}
+			return lnnz;
+		}
+	}
+	
+	/**
+	 * Task for multi-threaded replace over a partition of rows.
+	 */
+	private static class ReplaceTask implements Callable<Long>
+	{
+		private final MatrixBlock _in;
+		private final MatrixBlock _out;
+		private final double _pattern;
+		private final double _replacement;
+		private final int _rl;
+		private final int _ru;
+		
+		protected ReplaceTask(MatrixBlock in, MatrixBlock out, double pattern, double replacement, int rl, int ru) {
+			_in = in;
+			_out = out;
+			_pattern = pattern;
+			_replacement = replacement;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Long call() {
+			final int n = _in.clen;
+			final boolean NaNpattern = Double.isNaN(_pattern);
+			long lnnz = 0;
+			
+			if( _in.sparse && _out.sparse ) //SPARSE <- SPARSE (sparse-safe)
+			{
+				SparseBlock a = _in.sparseBlock;
+				SparseBlock c = _out.sparseBlock;
+				for( int i=_rl; i<_ru; i++ ) {
+					if( a.isEmpty(i) )
+						continue;
+					int apos = a.pos(i);
+					int alen = a.size(i);
+					int[] aix = a.indexes(i);
+					double[] avals = a.values(i);
+					c.allocate(i, alen);
+					for( int j=apos; j<apos+alen; j++ ) {
+						double val = avals[j];
+						if( val == _pattern || (NaNpattern && Double.isNaN(val)) )
+							val = _replacement;
+						c.append(i, aix[j], val);
+						lnnz += (val != 0) ? 1 : 0;
+					}
+				}
+			}
+			else if( _in.sparse ) //DENSE <- SPARSE (pattern 0)
+			{
+				SparseBlock a = _in.sparseBlock;
+				double[] c = _out.denseBlock;
+				
+				//initialize with replacement and overwrite with existing values
+				Arrays.fill(c, _rl*n, _ru*n, _replacement);
+				if( a != null ) //check for empty matrix
+					for( int i=_rl, cix=_rl*n; i<_ru; i++, cix+=n ) {
+						if( a.isEmpty(i) )
+							continue;
+						int apos = a.pos(i);
+						int alen = a.size(i);
+						int[] aix = a.indexes(i);
+						double[] avals = a.values(i);
+						for( int j=apos; j<apos+alen; j++ )
+							if( avals[j] != 0 )
+								c[cix+aix[j]] = avals[j];
+					}
+				for( int i=_rl*n; i<_ru*n; i++ )
+					lnnz += (c[i] != 0) ? 1 : 0;
+			}
+			else //DENSE <- DENSE
+			{
+				double[] a = _in.denseBlock;
+				double[] c = _out.denseBlock;
+				for( int i=_rl*n; i<_ru*n; i++ ) {
+					double val = a[i];
+					if( val == _pattern || (NaNpattern && Double.isNaN(val)) )
+						val = _replacement;
+					c[i] = val;
+					lnnz += (val != 0) ? 1 : 0;
+				}
+			}
+			return lnnz;
+		}
+	}
 }
@@ -33,7 +33,6 @@ import java.util.Iterator;
 
 import org.apache.commons.math3.random.Well1024a;
 import org.apache.hadoop.io.DataInputBuffer;
-import org.apache.sysml.api.DMLScript;
 import org.apache.sysml.conf.ConfigurationManager;
 import org.apache.sysml.hops.Hop.OpOp2;
 import org.apache.sysml.hops.OptimizerUtils;
@@ -43,6 +42,7 @@ import org.apache.sysml.lops.PartialAggregate.CorrectionLocationType;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.controlprogram.caching.CacheBlock;
 import org.apache.sysml.runtime.controlprogram.caching.MatrixObject.UpdateType;
+import org.apache.sysml.runtime.controlprogram.caching.ReusePool;
 import org.apache.sysml.runtime.functionobjects.Builtin;
 import org.apache.sysml.runtime.functionobjects.CM;
 import org.apache.sysml.runtime.functionobjects.CTable;
@@ -83,6 +83,7 @@ import org.apache.sysml.runtime.util.DataConverter;
 import org.apache.sysml.runtime.util.FastBufferedDataInputStream;
 import org.apache.sysml.runtime.util.FastBufferedDataOutputStream;
 import org.apache.sysml.runtime.util.IndexRange;
+import org.apache.sysml.runtime.util.SortUtils;
 import org.apache.sysml.runtime.util.UtilFunctions;
 
 
@@ -99,6 +100,10 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	public static final SparseBlock.Type DEFAULT_SPARSEBLOCK = SparseBlock.Type.MCSR;
 	//default sparse block type for update in place: compressed sparse rows to prevent serialization
 	public static final SparseBlock.Type DEFAULT_INPLACE_SPARSEBLOCK = SparseBlock.Type.CSR;
+	//default sparse block type for ultra-sparse blocks: doubly compressed sparse rows
+	public static final SparseBlock.Type DEFAULT_ULTRASPARSE_SPARSEBLOCK = SparseBlock.Type.DCSR;
+	//growth factor of dense arrays and sparse rows for in-place append (over-allocation)
+	public static final double APPEND_INPLACE_GROWTH = 1.5;
 	//basic header (int rlen, int clen, byte type)
 	public static final int HEADER_SIZE = 9;
 	
@@ -117,7 +122,16 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	
 	//matrix data (sparse or dense)
 	protected double[] denseBlock    = null;
+	protected DenseBlock largeDenseBlock = null; //if >2^31-1 cells, denseBlock null
 	protected SparseBlock sparseBlock = null;
+	
+	//row-range view, i.e., data shared with a parent block (read-only)
+	protected boolean view = false;
+	//dense row-range view at a row offset, i.e., rows [viewOffset, viewOffset+rlen)
+	//of the shared row-major array viewData (materialized on read, because
+	//dense kernels index the dense array from 0)
+	protected double[] viewData = null;
+	protected int viewOffset = 0;
 		
 	//sparse-block-specific attributes (allocation only)
 	protected int estimatedNNzsPerRow = -1; 
@@ -178,6 +192,13 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		this.copy(that);
 	}
 	
+	public MatrixBlock(int rl, int cl, long nnz, SparseBlock sblock)
+	{
+		this(rl, cl, true, nnz);
+		nonZeros = nnz;
+		sparseBlock = sblock;
+	}
+	
 	public MatrixBlock(MatrixBlock that, SparseBlock.Type stype, boolean deep)
 	{
 		//sanity check sparse matrix block
@@ -205,6 +226,9 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	
 	public void reset(long estnnzs)
 	{
+		//drop shared data of views (w/o modifying the parent)
+		detachView();
+		
 		estimatedNNzsPerRow=(int)Math.ceil((double)estnnzs/(double)rlen);
 		if(sparse)
 		{
@@ -214,11 +238,18 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		{
 			if(denseBlock!=null)
 			{
-				if(denseBlock.length<rlen*clen)
+				if(denseBlock.length<(long)rlen*clen)
 					denseBlock=null;
 				else
 					Arrays.fill(denseBlock, 0, rlen*clen, 0);
 			}
+			if(largeDenseBlock!=null)
+			{
+				if( !DenseBlockFactory.isLargeDenseBlock(rlen, clen) )
+					largeDenseBlock=null;
+				else
+					largeDenseBlock.reset(rlen, clen);
+			}
 		}
 		nonZeros=0;
 		
@@ -261,6 +292,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	public void resetDenseWithValue(int rl, int cl, double v) 
 		throws DMLRuntimeException 
 	{	
+		detachView();
 		estimatedNNzsPerRow=-1;
 		rlen=rl;
 		clen=cl;
@@ -275,6 +307,13 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		//allocate dense block
 		allocateDenseBlock();
 		
+		//init large dense block with constant value
+		if( largeDenseBlock != null ) {
+			largeDenseBlock.set(v);
+			nonZeros = (long)rlen * clen;
+			return;
+		}
+		
 		//init with constant value (non-zero, see above)
 		int limit = rlen * clen;
 		Arrays.fill(denseBlock, 0, limit, v);
@@ -295,15 +334,16 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		//input checks 
 		if ( sparse )
 			throw new DMLRuntimeException("MatrixBlockDSM.init() can be invoked only on matrices with dense representation.");
-		if( r*c > rlen*clen )
+		if( (long)r*c > (long)rlen*clen )
 			throw new DMLRuntimeException("MatrixBlockDSM.init() invoked with too large dimensions ("+r+","+c+") vs ("+rlen+","+clen+")");
 		
 		//allocate or resize dense block
 		allocateDenseBlock();
 		
 		//copy and compute nnz
-		for(int i=0, ix=0; i < r; i++, ix+=clen) 
-			System.arraycopy(arr[i], 0, denseBlock, ix, arr[i].length);
+		DenseBlock a = getDenseBlockObject();
+		for(int i=0; i < r; i++) 
+			System.arraycopy(arr[i], 0, a.values(i), a.pos(i), arr[i].length);
 		recomputeNonZeros();
 		
 		maxrow = r;
@@ -351,14 +391,21 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		//input checks 
 		if ( sparse )
 			throw new DMLRuntimeException("MatrixBlockDSM.init() can be invoked only on matrices with dense representation.");
-		if( r*c > rlen*clen )
+		if( (long)r*c > (long)rlen*clen )
 			throw new DMLRuntimeException("MatrixBlockDSM.init() invoked with too large dimensions ("+r+","+c+") vs ("+rlen+","+clen+")");
 		
 		if( val != 0 ) {
 			//allocate or resize dense block
 			allocateDenseBlock();
 			
-			if( r*c == rlen*clen ) { //FULL MATRIX INIT
+			if( largeDenseBlock != null ) { //LARGE DENSE INIT
+				//rowwise memset value
+				for( int i=0; i < r; i++ ) {
+					int ix = largeDenseBlock.pos(i);
+					Arrays.fill(largeDenseBlock.values(i), ix, ix+c, val);
+				}
+			}
+			else if( r*c == rlen*clen ) { //FULL MATRIX INIT
 				//memset value  
 				Arrays.fill(denseBlock, val);
 			}
@@ -369,7 +416,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			}
 			
 			//set non zeros to input dims
-			nonZeros = r*c;
+			nonZeros = (long)r*c;
 		}
 		
 		maxrow = r;
@@ -385,7 +432,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		if( sparse )
 			return (sparseBlock!=null);
 		else
-			return (denseBlock!=null);
+			return (denseBlock!=null || largeDenseBlock!=null);
 	}
 	
 	/**
@@ -408,30 +455,34 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			allocateDenseBlock();
 	}
 	
-	@SuppressWarnings("unused")
 	public void allocateDenseBlock(boolean clearNNZ, boolean zeroOut) 
 			throws RuntimeException 
 	{
 		long limit = (long)rlen * clen;
 		
-		//check max size constraint (16GB dense), since java arrays are limited to 2^(32-1) elements)
-		if( limit > Integer.MAX_VALUE ) {
-			throw new RuntimeException("Dense in-memory matrix block ("+rlen+"x"+clen+") exceeds supported size of "+Integer.MAX_VALUE+" elements (16GB). " +
-					                   "Please, reduce the JVM heapsize to execute this in MR.");
+		//allocate large dense block of row blocks if exceeding the max array size
+		//(16GB dense), since java arrays are limited to 2^(32-1) elements
+		if( DenseBlockFactory.isLargeDenseBlock(rlen, clen) ) {
+			if( largeDenseBlock == null )
+				largeDenseBlock = DenseBlockFactory.createDenseBlock(rlen, clen);
+			else if( largeDenseBlock.numRows()!=rlen || largeDenseBlock.numCols()!=clen )
+				largeDenseBlock.reset(rlen, clen);
+			denseBlock = null;
+			if( clearNNZ )
+				nonZeros = 0;
+			sparse = false;
+			return;
 		}
+		largeDenseBlock = null;
 		
 		//allocate block if non-existing or too small (guaranteed to be 0-initialized),
-		if(!zeroOut && DMLScript.REUSE_NONZEROED_OUTPUT 
-			&& (denseBlock == null || denseBlock.length < limit)
-			&& rlen != 1 && clen != 1 ) // Not a column vector 
-		{
-			denseBlock = LibMatrixDNN.getReuseableData(limit);
-		}
-		if(denseBlock == null || denseBlock.length < limit) {
-			denseBlock = new double[(int)limit];
+		//where we reuse pooled arrays of dead intermediates of the same size if possible
+		if( denseBlock == null || denseBlock.length < limit ) {
+			denseBlock = ReusePool.getDenseBlock(limit, zeroOut);
+			if( denseBlock == null )
+				denseBlock = new double[(int)limit];
 		}
 		
-		
 		//clear nnz if necessary
 		if( clearNNZ ) {
 			nonZeros = 0;
@@ -464,9 +515,18 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	 */
 	public void allocateSparseRowsBlock(boolean clearNNZ)
 	{	
-		//allocate block if non-existing or too small (guaranteed to be 0-initialized)
+		//allocate block if non-existing or too small (guaranteed to be 0-initialized),
+		//where we reuse pooled sparse blocks of dead intermediates if possible
 		if( sparseBlock == null || sparseBlock.numRows()<rlen ) {
-			sparseBlock = SparseBlockFactory.createSparseBlock(DEFAULT_SPARSEBLOCK, rlen);
+			if( DEFAULT_SPARSEBLOCK == SparseBlock.Type.MCSR )
+				sparseBlock = ReusePool.getSparseBlock(rlen);
+			if( sparseBlock == null || sparseBlock.numRows()<rlen )
+				sparseBlock = SparseBlockFactory.createSparseBlock(DEFAULT_SPARSEBLOCK, rlen);
+		}
+		//convert ultra-sparse blocks back to the default type before incremental updates, 
+		//because DCSR inserts and deletes shift all subsequent rows (see examSparsity)
+		else if( SparseBlockFactory.isSparseBlockType(sparseBlock, DEFAULT_ULTRASPARSE_SPARSEBLOCK) ) {
+			sparseBlock = SparseBlockFactory.copySparseBlock(DEFAULT_SPARSEBLOCK, sparseBlock, false);
 		}
 		
 		//clear nnz if necessary
@@ -504,8 +564,11 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	 * 
 	 */
 	public void cleanupBlock( boolean dense, boolean sparse ) {
-		if(dense)
+		if(dense) {
 			denseBlock = null;
+			largeDenseBlock = null;
+			viewData = null;
+		}
 		if(sparse)
 			sparseBlock = null;
 	}
@@ -594,7 +657,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		boolean ret = false;
 		if( sparse && sparseBlock==null )
 			ret = true;
-		else if( !sparse && denseBlock==null ) 	
+		else if( !sparse && denseBlock==null && largeDenseBlock==null && viewData==null ) 	
 			ret = true;
 		if( nonZeros==0 )
 		{
@@ -623,6 +686,224 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		return denseBlock;
 	}
 	
+	/**
+	 * Returns the dense data as dense block abstraction, i.e., the row blocks
+	 * of a large dense block or a single row block over the dense array. For 
+	 * sparse or unallocated blocks, this method returns null.
+	 * 
+	 * @return dense block or null
+	 */
+	public DenseBlock getDenseBlockObject() {
+		if( sparse )
+			return null;
+		if( largeDenseBlock != null )
+			return largeDenseBlock;
+		return (denseBlock != null) ? 
+			new DenseBlockDRB(denseBlock, rlen, clen) : null;
+	}
+	
+	/**
+	 * Indicates if this block is in dense format with more cells than the 
+	 * maximum array size. Such blocks are backed by a large dense block of 
+	 * multiple row blocks, and hence getDenseBlock returns null.
+	 * 
+	 * @return true if in large dense format
+	 */
+	public boolean isInLargeDenseFormat() {
+		return !sparse && DenseBlockFactory.isLargeDenseBlock(rlen, clen);
+	}
+	
+	/**
+	 * Creates a dense matrix block over the row block bix of this large 
+	 * dense block, which shares the underlying array (no copy). Updates 
+	 * of the view need to be finalized via setRowBlockView.
+	 * 
+	 * @param bix  row block index starting at 0
+	 * @param computeNNZ  if true, the view's nnz are computed, otherwise 0
+	 * @return dense matrix block over the row block
+	 */
+	MatrixBlock getRowBlockView(int bix, boolean computeNNZ) {
+		int blen = largeDenseBlock.blockSize(bix);
+		MatrixBlock ret = new MatrixBlock(blen, clen, false);
+		ret.denseBlock = largeDenseBlock.valuesAt(bix);
+		if( computeNNZ && nonZeros == (long)rlen*clen )
+			ret.nonZeros = (long)blen*clen; //fully dense
+		else if( computeNNZ )
+			ret.recomputeNonZeros();
+		return ret;
+	}
+	
+	/**
+	 * Finalizes the updates of a row block view obtained via getRowBlockView, 
+	 * i.e., copies the view's data into row block bix of this large dense
+	 * block if the view was not updated in-place (e.g., on conversions).
+	 * 
+	 * @param bix  row block index starting at 0
+	 * @param view  row block view
+	 * @return number of non-zeros of the row block
+	 * @throws DMLRuntimeException
+	 */
+	long setRowBlockView(int bix, MatrixBlock view) 
+		throws DMLRuntimeException 
+	{
+		double[] a = largeDenseBlock.valuesAt(bix);
+		if( view.sparse || view.denseBlock != a ) {
+			int rl = bix * largeDenseBlock.blockSize();
+			Arrays.fill(a, 0, largeDenseBlock.size(bix), 0);
+			copyLargeDense(rl, rl+view.rlen-1, 0, clen-1, view, false);
+		}
+		return view.nonZeros;
+	}
+	
+	/**
+	 * Obtains the rows [rl,ru) of this matrix block, as zero-copy view if
+	 * the range matches a row block of a large dense block, otherwise as
+	 * sliced copy.
+	 * 
+	 * @param rl  row lower index, inclusive
+	 * @param ru  row upper index, exclusive
+	 * @return matrix block of the rows
+	 * @throws DMLRuntimeException
+	 */
+	MatrixBlock sliceRowBlock(int rl, int ru) 
+		throws DMLRuntimeException 
+	{
+		if( !sparse && largeDenseBlock != null ) {
+			int bix = largeDenseBlock.index(rl);
+			if( rl == bix*largeDenseBlock.blockSize() && ru-rl == largeDenseBlock.blockSize(bix) )
+				return getRowBlockView(bix, true);
+		}
+		return sliceOperations(rl, ru-1, 0, clen-1, new MatrixBlock());
+	}
+	
+	/**
+	 * Obtains the rows [rl,ru] (0-based, inclusive) of this matrix block as 
+	 * read-only view that shares the data of this block, if supported by the 
+	 * representation: sparse MCSR blocks (shared sparse rows), dense row ranges 
+	 * (shared dense array), and row blocks of large dense blocks. Otherwise, 
+	 * the rows are returned as sliced copy.
+	 * 
+	 * Dense row ranges that do not start at row 0 are views at a row offset 
+	 * (see isOffsetView), which only support further row-range views and need 
+	 * to be materialized via materializeView before any other access. 
+	 * 
+	 * Views must not be modified in-place; all in-place update paths first 
+	 * materialize the view into a private copy (copy-on-write). Likewise,
+	 * callers need to ensure that this block is not modified in-place as 
+	 * long as the view is alive.
+	 * 
+	 * @param rl  row lower index, inclusive
+	 * @param ru  row upper index, inclusive
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public MatrixBlock sliceRowsView(int rl, int ru) 
+		throws DMLRuntimeException 
+	{
+		//check for unsupported views (incl validity of bounds)
+		if( rl < 0 || ru < rl || ru >= rlen || isEmptyBlock(false) )
+			return sliceOperations(rl, ru, 0, clen-1, new MatrixBlock());
+		
+		MatrixBlock ret = null;
+		if( sparse && sparseBlock instanceof SparseBlockMCSR ) {
+			//shallow copy of row references
+			SparseRow[] rows = new SparseRow[ru-rl+1];
+			for( int i=rl; i<=ru; i++ )
+				rows[i-rl] = sparseBlock.get(i);
+			ret = new MatrixBlock(ru-rl+1, clen, true);
+			ret.sparseBlock = new SparseBlockMCSR(rows, false);
+			ret.nonZeros = sparseBlock.size(rl, ru+1);
+		}
+		else if( !sparse && (denseBlock != null || viewData != null) ) {
+			//row range of the row-major dense array, either as prefix or at a 
+			//row offset (incl views of views, which refer to the shared array)
+			double[] a = (viewData != null) ? viewData : denseBlock;
+			int off = viewOffset + rl;
+			ret = new MatrixBlock(ru-rl+1, clen, false);
+			if( off == 0 )
+				ret.denseBlock = a;
+			else {
+				ret.viewData = a;
+				ret.viewOffset = off;
+			}
+			if( nonZeros == (long)rlen*clen )
+				ret.nonZeros = (long)(ru-rl+1)*clen; //fully dense
+			else {
+				long nnz = 0;
+				for( int i=off*clen; i<(off+ru-rl+1)*clen; i++ )
+					nnz += (a[i]!=0) ? 1 : 0;
+				ret.nonZeros = nnz;
+			}
+		}
+		else if( !sparse && largeDenseBlock != null ) {
+			int bix = largeDenseBlock.index(rl);
+			if( rl == bix*largeDenseBlock.blockSize() && ru-rl+1 == largeDenseBlock.blockSize(bix) )
+				ret = getRowBlockView(bix, true);
+		}
+		
+		//fallback to sliced copy
+		if( ret == null )
+			return sliceOperations(rl, ru, 0, clen-1, new MatrixBlock());
+		
+		ret.view = true;
+		return ret;
+	}
+	
+	/**
+	 * Indicates if this block is a read-only row-range view that shares 
+	 * its data with a parent block (see sliceRowsView).
+	 * 
+	 * @return
+	 */
+	public boolean isView() {
+		return view;
+	}
+	
+	/**
+	 * Indicates if this block is a dense row-range view at a row offset,
+	 * which needs to be materialized before access by dense kernels.
+	 * 
+	 * @return
+	 */
+	public boolean isOffsetView() {
+		return viewData != null;
+	}
+	
+	/**
+	 * Materializes a row-range view into a private copy of the shared data, 
+	 * which is required before any in-place update (copy-on-write) and before
+	 * any read of a view at a row offset. For blocks that are not views, 
+	 * this call is a no-op.
+	 */
+	public void materializeView() {
+		if( !view )
+			return;
+		if( viewData != null )
+			denseBlock = Arrays.copyOfRange(viewData, viewOffset*clen, (viewOffset+rlen)*clen);
+		else if( sparse && sparseBlock != null )
+			sparseBlock = new SparseBlockMCSR(sparseBlock);
+		else if( !sparse && denseBlock != null )
+			denseBlock = Arrays.copyOf(denseBlock, rlen*clen);
+		viewData = null;
+		viewOffset = 0;
+		view = false;
+	}
+	
+	/**
+	 * Drops the data references of a row-range view (without copy), which
+	 * allows a subsequent reset or re-allocation without modifying the 
+	 * data of the parent block.
+	 */
+	private void detachView() {
+		if( !view )
+			return;
+		denseBlock = null;
+		sparseBlock = null;
+		viewData = null;
+		viewOffset = 0;
+		view = false;
+	}
+	
 	public SparseBlock getSparseBlock() {
 		if( !sparse )
 			return null;
@@ -705,7 +986,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		else
 		{
 			if( denseBlock==null )
-				return 0;
+				return (largeDenseBlock!=null) ? largeDenseBlock.get(r, c) : 0;
 			return denseBlock[r*clen+c]; 
 		}
 	}
@@ -735,12 +1016,20 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		else
 		{
 			//early abort
-			if( denseBlock==null && v==0 )
+			if( denseBlock==null && largeDenseBlock==null && v==0 )
 				return;		
 			
 			//allocate and init dense block (w/o overwriting nnz)
 			allocateDenseBlock(false);
 			
+			//set value and maintain nnz (large dense block)
+			if( largeDenseBlock != null ) {
+				nonZeros -= (largeDenseBlock.get(r, c)!=0) ? 1 : 0;
+				largeDenseBlock.set(r, c, v);
+				nonZeros += (v!=0) ? 1 : 0;
+				return;
+			}
+			
 			//set value and maintain nnz
 			int index=r*clen+c;
 			if( denseBlock[index]==0 )
@@ -754,7 +1043,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	public double getValueDenseUnsafe(int r, int c) 
 	{
 		if(denseBlock==null)
-			return 0;
+			return (largeDenseBlock!=null) ? largeDenseBlock.get(r, c) : 0;
 		return denseBlock[r*clen+c]; 
 	}
 	
@@ -766,7 +1055,10 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	 */	
 	public void setValueDenseUnsafe(int r, int c, double v) 
 	{
-		denseBlock[r*clen+c]=v;		
+		if( denseBlock==null )
+			largeDenseBlock.set(r, c, v);
+		else
+			denseBlock[r*clen+c]=v;		
 	}
 	
 	public double getValueSparseUnsafe(int r, int c) 
@@ -796,7 +1088,10 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			allocateDenseBlock(false);
 			
 			//set value and maintain nnz
-			denseBlock[r*clen+c] = v;
+			if( largeDenseBlock != null )
+				largeDenseBlock.set(r, c, v);
+			else
+				denseBlock[r*clen+c] = v;
 			nonZeros++;
 		}
 		else //SPARSE
@@ -1120,6 +1415,30 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			sparseToDense();
 		else if( !sparse && sparseDst )
 			denseToSparse();
+		
+		//change sparse block type if required (only for default and 
+		//ultra-sparse types in order to keep, e.g., in-place CSR blocks)
+		if( sparse && sparseBlock != null )
+			examSparseBlockType();
+	}
+	
+	/**
+	 * Converts the sparse block into the doubly compressed DCSR format if 
+	 * the block is ultra-sparse, which avoids per-row overheads for empty 
+	 * rows, or back into the default sparse block type otherwise. Since
+	 * this is only done at operation boundaries, incremental updates via
+	 * allocateSparseRowsBlock convert DCSR blocks back to the default type.
+	 */
+	private void examSparseBlockType()
+	{
+		SparseBlock.Type type = evalUltraSparseFormatInMemory(rlen, clen, nonZeros) ?
+			DEFAULT_ULTRASPARSE_SPARSEBLOCK : DEFAULT_SPARSEBLOCK;
+		
+		if( SparseBlockFactory.isSparseBlockType(sparseBlock, DEFAULT_SPARSEBLOCK)
+			|| SparseBlockFactory.isSparseBlockType(sparseBlock, DEFAULT_ULTRASPARSE_SPARSEBLOCK) )
+		{
+			sparseBlock = SparseBlockFactory.copySparseBlock(type, sparseBlock, false);
+		}
 	}
 	
 	/**
@@ -1147,6 +1466,23 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		return lsparse && (sizeSparse<sizeDense);
 	}
 	
+	/**
+	 * Evaluates if a sparse matrix block with the given characteristics should use the 
+	 * ultra-sparse block type in memory, i.e., if it is below the ultra-sparsity turn 
+	 * point and has more rows than non-zeros (and hence, empty rows).
+	 * 
+	 * @param nrows
+	 * @param ncols
+	 * @param nnz
+	 * @return
+	 */
+	public static boolean evalUltraSparseFormatInMemory( final long nrows, final long ncols, final long nnz )
+	{
+		double lsparsity = (double)nnz/nrows/ncols;
+		return lsparsity < ULTRA_SPARSITY_TURN_POINT && nnz < nrows 
+			&& nnz <= Integer.MAX_VALUE;
+	}
+	
 	/**
 	 * Evaluates if a matrix block with the given characteristics should be in sparse format 
 	 * on disk (or in any other serialized representation).
@@ -1178,11 +1514,17 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	 */
 	private void denseToSparse() 
 	{	
-		//set target representation
+		//obtain dense block (single array or large dense block)
+		if( viewData != null )
+			materializeView();
+		DenseBlock a = getDenseBlockObject();
+		
+		//set target representation (data of views only read)
 		sparse = true;
+		view = false;
 		
 		//early abort on empty blocks
-		if(denseBlock==null)
+		if(a==null)
 			return;
 		
 		//allocate sparse target block (reset required to maintain nnz again)
@@ -1190,20 +1532,22 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		reset();
 		
 		//copy dense to sparse
-		double[] a = denseBlock;
 		SparseBlock c = sparseBlock;
 		
-		for( int i=0, aix=0; i<rlen; i++ )
-			for(int j=0; j<clen; j++, aix++)
-				if( a[aix] != 0 ) {
+		for( int i=0; i<rlen; i++ ) {
+			double[] avals = a.values(i);
+			for(int j=0, aix=a.pos(i); j<clen; j++, aix++)
+				if( avals[aix] != 0 ) {
 					//create sparse row only if required
 					c.allocate(i, estimatedNNzsPerRow, clen);
-					c.append(i, j, a[aix]);
+					c.append(i, j, avals[aix]);
 					nonZeros++;
 				}
+		}
 				
 		//cleanup dense block
 		denseBlock = null;
+		largeDenseBlock = null;
 	}
 	
 	/**
@@ -1213,35 +1557,34 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	private void sparseToDense() 
 		throws DMLRuntimeException 
 	{	
-		//set target representation
+		//set target representation (data of views only read)
 		sparse = false;
+		view = false;
 		
 		//early abort on empty blocks
 		if(sparseBlock==null)
 			return;
 		
-		int limit=rlen*clen;
-		if ( limit < 0 ) {
-			throw new DMLRuntimeException("Unexpected error in sparseToDense().. limit < 0: " + rlen + ", " + clen + ", " + limit);
-		}
-		
 		//allocate dense target block, but keep nnz (no need to maintain)
+		//(single array or large dense block of multiple row blocks)
 		allocateDenseBlock(false);
-		Arrays.fill(denseBlock, 0, limit, 0);
+		DenseBlock c = getDenseBlockObject();
+		c.reset();
 		
 		//copy sparse to dense
 		SparseBlock a = sparseBlock;
-		double[] c = denseBlock;
 		
-		for( int i=0, cix=0; i<rlen; i++, cix+=clen)
+		for( int i=0; i<rlen; i++ )
 			if( !a.isEmpty(i) ) {
 				int apos = a.pos(i);
 				int alen = a.size(i);
 				int[] aix = a.indexes(i);
 				double[] avals = a.values(i);
+				double[] cvals = c.values(i);
+				int cix = c.pos(i);
 				for(int j=apos; j<apos+alen; j++)
 					if( avals[j] != 0 )
-						c[ cix+aix[j] ] = avals[j];
+						cvals[ cix+aix[j] ] = avals[j];
 			}
 		
 		//cleanup sparse rows
@@ -1269,6 +1612,10 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 				nnz += (a[i]!=0) ? 1 : 0;
 			nonZeros = nnz;
 		}
+		else if( !sparse && largeDenseBlock!=null ) //DENSE (max long)
+		{
+			nonZeros = largeDenseBlock.countNonZeros();
+		}
 	}
 	
 	/**
@@ -1317,6 +1664,10 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			}
 			return nnz;
 		}
+		else if( !sparse && largeDenseBlock!=null ) //DENSE (max long)
+		{
+			return largeDenseBlock.countNonZeros(rl, ru+1, cl, cu+1);
+		}
 		
 		return 0; //empty block
 	}
@@ -1373,11 +1724,14 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		if( this == that ) //prevent data loss (e.g., on sparse-dense conversion)
 			throw new RuntimeException( "Copy must not overwrite itself!" );
 		
+		detachView();
 		this.rlen=that.rlen;
 		this.clen=that.clen;
 		this.sparse=sp;
 		estimatedNNzsPerRow=(int)Math.ceil((double)thatValue.getNonZeros()/(double)rlen);
-		if(this.sparse && that.sparse)
+		if(this.isInLargeDenseFormat() || that.isInLargeDenseFormat())
+			copyLargeDense(that);
+		else if(this.sparse && that.sparse)
 			copySparseToSparse(that);
 		else if(this.sparse && !that.sparse)
 			copyDenseToSparse(that);
@@ -1387,6 +1741,20 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			copyDenseToDense(that);
 	}
 	
+	private void copyLargeDense(MatrixBlock that)
+	{
+		//clear existing data and copy all rows 
+		reset();
+		try {
+			if( !that.isEmptyBlock(false) )
+				copyLargeDense(0, rlen-1, 0, clen-1, that, false);
+		}
+		catch(DMLRuntimeException ex) {
+			throw new RuntimeException(ex);
+		}
+		nonZeros = that.nonZeros;
+	}
+	
 	private void copySparseToSparse(MatrixBlock that)
 	{
 		this.nonZeros=that.nonZeros;
@@ -1504,7 +1872,9 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	public void copy(int rl, int ru, int cl, int cu, MatrixBlock src, boolean awareDestNZ ) 
 		throws DMLRuntimeException 
 	{	
-		if(sparse && src.sparse)
+		if(isInLargeDenseFormat() || src.isInLargeDenseFormat())
+			copyLargeDense(rl, ru, cl, cu, src, awareDestNZ);
+		else if(sparse && src.sparse)
 			copySparseToSparse(rl, ru, cl, cu, src, awareDestNZ);
 		else if(sparse && !src.sparse)
 			copyDenseToSparse(rl, ru, cl, cu, src, awareDestNZ);
@@ -1514,6 +1884,78 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			copyDenseToDense(rl, ru, cl, cu, src, awareDestNZ);
 	}
 
+	/**
+	 * Copy of matrix src into the index range of the existing current matrix,
+	 * where the source or target is a large dense block. All accesses are done
+	 * row-wise via the dense block abstraction.
+	 */
+	private void copyLargeDense(int rl, int ru, int cl, int cu, MatrixBlock src, boolean awareDestNZ) 
+		throws DMLRuntimeException
+	{
+		//handle empty src and dest
+		if( src.isEmptyBlock(false) ) {
+			if( awareDestNZ && sparse && sparseBlock != null )
+				copyEmptyToSparse(rl, ru, cl, cu, true);
+			else if( awareDestNZ && !sparse && isAllocated() ) {
+				nonZeros -= recomputeNonZeros(rl, ru, cl, cu);
+				copyEmptyToDense(rl, ru, cl, cu);
+			}
+			return;
+		}
+		
+		if( sparse ) //SPARSE <- LARGE DENSE
+		{
+			allocateSparseRowsBlock(false);
+			if( awareDestNZ )
+				copyEmptyToSparse(rl, ru, cl, cu, true);
+			DenseBlock a = src.getDenseBlockObject();
+			SparseBlock c = sparseBlock;
+			for( int i=0; i<src.rlen; i++ ) {
+				double[] avals = a.values(i);
+				int aix = a.pos(i);
+				for( int j=0; j<src.clen; j++ ) {
+					double val = avals[aix+j];
+					if( val != 0 ) {
+						c.allocate(rl+i, estimatedNNzsPerRow, clen);
+						c.set(rl+i, cl+j, val);
+						nonZeros += awareDestNZ ? 1 : 0;
+					}
+				}
+			}
+		}
+		else //DENSE <- SPARSE/DENSE (large target or source)
+		{
+			allocateDenseBlock(false);
+			if( awareDestNZ ) {
+				nonZeros -= recomputeNonZeros(rl, ru, cl, cu);
+				copyEmptyToDense(rl, ru, cl, cu);
+				nonZeros += src.nonZeros;
+			}
+			DenseBlock c = getDenseBlockObject();
+			if( src.sparse ) {
+				SparseBlock a = src.sparseBlock;
+				for( int i=0; i<src.rlen; i++ ) {
+					if( a.isEmpty(i) )
+						continue;
+					int apos = a.pos(i);
+					int alen = a.size(i);
+					int[] aix = a.indexes(i);
+					double[] avals = a.values(i);
+					double[] cvals = c.values(rl+i);
+					int cix = c.pos(rl+i) + cl;
+					for( int j=apos; j<apos+alen; j++ )
+						cvals[cix+aix[j]] = avals[j];
+				}
+			}
+			else {
+				DenseBlock a = src.getDenseBlockObject();
+				for( int i=0; i<src.rlen; i++ )
+					System.arraycopy(a.values(i), a.pos(i), 
+						c.values(rl+i), c.pos(rl+i)+cl, src.clen);
+			}
+		}
+	}
+	
 	private void copySparseToSparse(int rl, int ru, int cl, int cu, MatrixBlock src, boolean awareDestNZ)
 	{	
 		//handle empty src and dest
@@ -1728,7 +2170,12 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	private void copyEmptyToDense(int rl, int ru, int cl, int cu)
 	{
 		int rowLen = cu-cl+1;				
-		if(clen == rowLen) //optimization for equal width
+		if( largeDenseBlock != null ) //large dense block
+			for( int i=rl; i<=ru; i++ ) {
+				int ix2 = largeDenseBlock.pos(i)+cl;
+				Arrays.fill(largeDenseBlock.values(i), ix2, ix2+rowLen, 0);
+			}
+		else if(clen == rowLen) //optimization for equal width
 			Arrays.fill(denseBlock, rl*clen+cl, ru*clen+cu+1, 0);
 		else
 			for( int i=rl, ix2=rl*clen+cl; i<=ru; i++, ix2+=clen )
@@ -1954,28 +2401,34 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	{
 		allocateDenseBlock(true); //allocate block, clear nnz
 		
-		int limit = rlen*clen;
-		
-		if( in instanceof MatrixBlockDataInput ) //fast deserialize
-		{
-			MatrixBlockDataInput mbin = (MatrixBlockDataInput)in;
-			nonZeros = mbin.readDoubleArray(limit, denseBlock);
-		}
-		else if( in instanceof DataInputBuffer && MRJobConfiguration.USE_BINARYBLOCK_SERIALIZATION ) 
-		{
-			//workaround because sequencefile.reader.next(key, value) does not yet support serialization framework
-			DataInputBuffer din = (DataInputBuffer)in;
-			MatrixBlockDataInput mbin = new FastBufferedDataInputStream(din);
-			nonZeros = mbin.readDoubleArray(limit, denseBlock);			
-			((FastBufferedDataInputStream)mbin).close();
-		}
-		else //default deserialize
+		//read row blocks in order (single array if not large dense block)
+		DenseBlock a = getDenseBlockObject();
+		for( int bix=0; bix<a.numBlocks(); bix++ ) 
 		{
-			for( int i=0; i<limit; i++ )
+			double[] avals = a.valuesAt(bix);
+			int limit = a.size(bix);
+			
+			if( in instanceof MatrixBlockDataInput ) //fast deserialize
 			{
-				denseBlock[i]=in.readDouble();
-				if(denseBlock[i]!=0)
-					nonZeros++;
+				MatrixBlockDataInput mbin = (MatrixBlockDataInput)in;
+				nonZeros += mbin.readDoubleArray(limit, avals);
+			}
+			else if( in instanceof DataInputBuffer && MRJobConfiguration.USE_BINARYBLOCK_SERIALIZATION ) 
+			{
+				//workaround because sequencefile.reader.next(key, value) does not yet support serialization framework
+				DataInputBuffer din = (DataInputBuffer)in;
+				MatrixBlockDataInput mbin = new FastBufferedDataInputStream(din);
+				nonZeros += mbin.readDoubleArray(limit, avals);			
+				((FastBufferedDataInputStream)mbin).close();
+			}
+			else //default deserialize
+			{
+				for( int i=0; i<limit; i++ )
+				{
+					avals[i]=in.readDouble();
+					if(avals[i]!=0)
+						nonZeros++;
+				}
 			}
 		}
 	}
@@ -2027,16 +2480,19 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		throws IOException, DMLRuntimeException 
 	{
 		allocateDenseBlock(false); //allocate block
-		Arrays.fill(denseBlock, 0);
+		DenseBlock a = getDenseBlockObject();
+		a.reset();
 		
 		for(int r=0; r<rlen; r++)
 		{
 			int nr = in.readInt();
+			double[] avals = a.values(r);
+			int aix = a.pos(r);
 			for( int j=0; j<nr; j++ )
 			{
 				int c = in.readInt();
 				double val = in.readDouble(); 
-				denseBlock[r*clen+c] = val;
+				avals[aix+c] = val;
 			}
 		}
 	}
@@ -2085,7 +2541,8 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		throws IOException, DMLRuntimeException 
 	{	
 		allocateDenseBlock(false); //allocate block
-		Arrays.fill(denseBlock, 0);
+		DenseBlock a = getDenseBlockObject();
+		a.reset();
 		
 		if( clen > 1 ) //ULTRA-SPARSE BLOCK
 		{ 
@@ -2094,7 +2551,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 				int r = in.readInt();
 				int c = in.readInt();
 				double val = in.readDouble();			
-				denseBlock[r*clen+c] = val;
+				a.set(r, c, val);
 			}
 		}
 		else //ULTRA-SPARSE COL
@@ -2112,9 +2569,9 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	public void write(DataOutput out) 
 		throws IOException 
 	{
-		//determine format
+		//determine format (large dense blocks always written as dense)
 		boolean sparseSrc = sparse;
-		boolean sparseDst = evalSparseFormatOnDisk();
+		boolean sparseDst = evalSparseFormatOnDisk() && largeDenseBlock==null;
 		
 		//write first part of header
 		out.writeInt(rlen);
@@ -2135,7 +2592,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		else
 		{
 			//write dense to *
-			if( denseBlock==null || nonZeros==0 ) 
+			if( !isAllocated() || nonZeros==0 ) 
 				writeEmptyBlock(out);
 			else if( nonZeros<rlen && sparseDst )
 				writeDenseToUltraSparse(out);
@@ -2168,12 +2625,17 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	{
 		out.writeByte( BlockType.DENSE_BLOCK.ordinal() );
 		
-		int limit=rlen*clen;
-		if( out instanceof MatrixBlockDataOutput ) //fast serialize
-			((MatrixBlockDataOutput)out).writeDoubleArray(limit, denseBlock);
-		else //general case (if fast serialize not supported)
-			for(int i=0; i<limit; i++)
-				out.writeDouble(denseBlock[i]);
+		//write row blocks in order (single array if not large dense block)
+		DenseBlock a = getDenseBlockObject();
+		for( int bix=0; bix<a.numBlocks(); bix++ ) {
+			double[] avals = a.valuesAt(bix);
+			int limit = a.size(bix);
+			if( out instanceof MatrixBlockDataOutput ) //fast serialize
+				((MatrixBlockDataOutput)out).writeDoubleArray(limit, avals);
+			else //general case (if fast serialize not supported)
+				for(int i=0; i<limit; i++)
+					out.writeDouble(avals[i]);
+		}
 	}
 	
 	/**
@@ -2482,9 +2944,9 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	 */
 	public long getExactSizeOnDisk()
 	{
-		//determine format
+		//determine format (large dense blocks always written as dense)
 		boolean sparseSrc = sparse;
-		boolean sparseDst = evalSparseFormatOnDisk();
+		boolean sparseDst = evalSparseFormatOnDisk() && largeDenseBlock==null;
 		
 		long lrlen = (long) rlen;
 		long lclen = (long) clen;
@@ -2513,7 +2975,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		else
 		{
 			//write dense to *
-			if(denseBlock==null || lnonZeros==0)
+			if(!isAllocated() || lnonZeros==0)
 				return HEADER_SIZE; //empty block
 			else if( lnonZeros<lrlen && sparseDst )
 				return estimateSizeUltraSparseOnDisk(lrlen, lclen, lnonZeros); //ultra sparse block
@@ -2789,8 +3251,14 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			return 44;
 		//in-memory size of dense/sparse representation
 		double sp = OptimizerUtils.getSparsity(rlen, clen, nonZeros);
-		return sparse ? estimateSizeSparseInMemory(rlen, clen, sp) : 
+		long ret = sparse ? estimateSizeSparseInMemory(rlen, clen, sp) : 
 			estimateSizeDenseInMemory(rlen, clen);
+		//spare capacity of in-place appends (views share the parent data)
+		if( !view && !sparse && denseBlock != null )
+			ret += 8L * Math.max(denseBlock.length - (long)rlen*clen, 0);
+		else if( !view && sparse && sparseBlock instanceof SparseBlockMCSR )
+			ret += 8L * Math.max(sparseBlock.numRows() - rlen, 0);
+		return ret;
 	}
 	
 	@Override
@@ -2835,7 +3303,10 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			ret.reset(rlen, clen, sp, this.nonZeros);
 		
 		//core scalar operations
-		LibMatrixBincell.bincellOp(this, ret, op);
+		if( op.getNumThreads() > 1 )
+			LibMatrixBincell.bincellOp(this, ret, op, op.getNumThreads());
+		else
+			LibMatrixBincell.bincellOp(this, ret, op);
 		
 		return ret;
 	}
@@ -2869,6 +3340,11 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			else
 				LibMatrixAgg.cumaggregateUnaryMatrix(this, ret, op);
 		}
+		else if( isInLargeDenseFormat() || ret.isInLargeDenseFormat() )
+		{
+			//unary operations over row blocks of large dense blocks
+			unaryOperationsLargeDense(op, ret);
+		}
 		else
 		{
 			//default execute unary operations
@@ -2886,6 +3362,37 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		return ret;
 	}
 
+	/**
+	 * Unary operations over large dense inputs or outputs, which are processed
+	 * row block by row block via zero-copy views of the large dense blocks. 
+	 * 
+	 * @param op  unary operator
+	 * @param ret  output matrix
+	 * @throws DMLRuntimeException
+	 */
+	private void unaryOperationsLargeDense(UnaryOperator op, MatrixBlock ret) 
+		throws DMLRuntimeException
+	{
+		//early abort for sparse-safe operations
+		if( op.sparseSafe && isEmptyBlock(false) )
+			return;
+		
+		//allocate dense output (same row blocks as dense input)
+		ret.reset(rlen, clen, false);
+		ret.allocateDenseBlock();
+		DenseBlock c = ret.largeDenseBlock;
+		
+		long nnz = 0;
+		for( int bix=0; bix<c.numBlocks(); bix++ ) {
+			int rl = bix * c.blockSize();
+			MatrixBlock in = sliceRowBlock(rl, rl+c.blockSize(bix));
+			MatrixBlock out = ret.getRowBlockView(bix, false);
+			in.unaryOperations(op, out);
+			nnz += ret.setRowBlockView(bix, out);
+		}
+		ret.nonZeros = nnz;
+	}
+	
 	/**
 	 * 
 	 * @param op
@@ -2974,7 +3481,17 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	public void unaryOperationsInPlace(UnaryOperator op) 
 		throws DMLRuntimeException
 	{
-		if(op.sparseSafe)
+		if( isInLargeDenseFormat() && isAllocated() ) {
+			//in-place updates of all row blocks via views
+			long nnz = 0;
+			for( int bix=0; bix<largeDenseBlock.numBlocks(); bix++ ) {
+				MatrixBlock view = getRowBlockView(bix, true);
+				view.unaryOperationsInPlace(op);
+				nnz += setRowBlockView(bix, view);
+			}
+			nonZeros = nnz;
+		}
+		else if(op.sparseSafe)
 			sparseUnaryOperationsInPlace(op);
 		else
 			denseUnaryOperationsInPlace(op);
@@ -3102,7 +3619,10 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			ret.reset(rows, cols, resultSparse.sparse, resultSparse.estimatedNonZeros);
 		
 		//core binary cell operation
-		LibMatrixBincell.bincellOp( this, that, ret, op );
+		if( op.getNumThreads() > 1 )
+			LibMatrixBincell.bincellOp( this, that, ret, op, op.getNumThreads() );
+		else
+			LibMatrixBincell.bincellOp( this, that, ret, op );
 		
 		return ret;
 	}
@@ -3118,6 +3638,9 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			throw new RuntimeException("block sizes are not matched for binary " +
 					"cell operations: "+this.rlen+"*"+this.clen+" vs "+ that.rlen+"*"+that.clen);
 		}
+		
+		//copy-on-write of views before in-place update
+		materializeView();
 	
 		//estimate output sparsity
 		SparsityEstimate resultSparse = estimateSparsityOnBinary(this, that, op);
@@ -3740,6 +4263,89 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		
 		return result;
 	}
+	
+	/**
+	 * Appends the given block in-place (cbind or rbind) to this block, which
+	 * requires that this block is exclusively owned (update in-place). Dense 
+	 * arrays and the rows of MCSR sparse blocks are over-allocated geometrically, 
+	 * which amortizes the cost of repeated rbind appends to O(size of appended 
+	 * rows) and of sparse cbind appends to O(number of rows). Dense cbind appends
+	 * shift the existing rows inside the array, i.e., avoid any reallocation. 
+	 * Format changes, views, and large dense blocks fall back to copy-based appends.
+	 * 
+	 * @param that
+	 * @param cbind
+	 * @return this block or a new block if not applicable in-place
+	 * @throws DMLRuntimeException
+	 */
+	public MatrixBlock appendOperationsInPlace( MatrixBlock that, boolean cbind ) 
+		throws DMLRuntimeException 
+	{
+		final int m = cbind ? rlen : rlen+that.rlen;
+		final int n = cbind ? clen+that.clen : clen;
+		final long nnz = nonZeros+that.nonZeros;
+		
+		//fallback to copy-based append if not applicable in-place
+		if( that == this || view || sparse != evalSparseFormatInMemory(m, n, nnz)
+			|| largeDenseBlock != null || that.largeDenseBlock != null
+			|| DenseBlockFactory.isLargeDenseBlock(m, n) )
+		{
+			return appendOperations(that, new MatrixBlock(), cbind);
+		}
+		
+		if( !sparse ) //DENSE
+		{
+			//ensure capacity w/ geometric over-allocation
+			long len = (long)m * n;
+			if( denseBlock == null )
+				denseBlock = new double[(int)len];
+			else if( denseBlock.length < len ) {
+				int cap = (int) Math.min(DenseBlockFactory.getMaxDenseArraySize(), 
+					Math.max(len, (long)(APPEND_INPLACE_GROWTH * denseBlock.length)));
+				denseBlock = Arrays.copyOf(denseBlock, cap);
+			}
+			
+			if( cbind ) {
+				//shift rows backwards and clear appended columns
+				for( int i=rlen-1; i>=0; i-- ) {
+					System.arraycopy(denseBlock, i*clen, denseBlock, i*n, clen);
+					Arrays.fill(denseBlock, i*n+clen, (i+1)*n, 0);
+				}
+				int cl = clen;
+				clen = n;
+				copy(0, m-1, cl, n-1, that, false);
+			}
+			else { //rbind
+				int rl = rlen;
+				Arrays.fill(denseBlock, rl*clen, m*clen, 0);
+				rlen = m;
+				copy(rl, m-1, 0, n-1, that, false);
+			}
+		}
+		else //SPARSE
+		{
+			//ensure mcsr block w/ sufficient rows (geometric over-allocation)
+			if( sparseBlock != null && !(sparseBlock instanceof SparseBlockMCSR) )
+				sparseBlock = new SparseBlockMCSR(sparseBlock);
+			if( sparseBlock == null )
+				sparseBlock = new SparseBlockMCSR(m, -1);
+			else if( sparseBlock.numRows() < m ) {
+				int cap = (int) Math.min(DenseBlockFactory.getMaxDenseArraySize(), 
+					Math.max(m, (long)(APPEND_INPLACE_GROWTH * sparseBlock.numRows())));
+				((SparseBlockMCSR)sparseBlock).ensureCapacity(cap);
+			}
+			
+			int rl = rlen, cl = clen;
+			rlen = m;
+			clen = n;
+			appendToSparse(that, cbind ? 0 : rl, cbind ? cl : 0);
+		}
+		
+		//update meta data
+		nonZeros = nnz;
+		
+		return this;
+	}
 
 	/**
 	 * 
@@ -3941,8 +4547,9 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		}
 		else //update in-place
 		{
-			//use current block as in-place result
+			//use current block as in-place result (copy-on-write of views)
 			result = this;
+			result.materializeView();
 			
 			//ensure that the current block adheres to the sparsity estimate
 			//and thus implicitly the memory budget used by the compiler
@@ -4009,8 +4616,9 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		}
 		else //update in-place
 		{
-			//use current block as in-place result
+			//use current block as in-place result (copy-on-write of views)
 			ret = this;
+			ret.materializeView();
 			
 			//ensure right sparse block representation to prevent serialization
 			if( ret.sparse && update != UpdateType.INPLACE_PINNED ) {
@@ -4144,6 +4752,10 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		throws DMLRuntimeException
 	{
 		//ensure allocated input/output blocks
+		if( largeDenseBlock != null ) {
+			sliceLargeDense(rl, ru, cl, cu, dest);
+			return;
+		}
 		if( denseBlock == null )
 			return;
 		dest.allocateDenseBlock();
@@ -4180,6 +4792,34 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		dest.recomputeNonZeros();
 	}
 	
+	/**
+	 * Slice of large dense blocks via row-wise copies of the column 
+	 * range into the dense or large dense output.
+	 * 
+	 * @param rl  row lower index, inclusive
+	 * @param ru  row upper index, inclusive
+	 * @param cl  column lower index, inclusive
+	 * @param cu  column upper index, inclusive
+	 * @param dest  output matrix
+	 * @throws DMLRuntimeException
+	 */
+	private void sliceLargeDense(int rl, int ru, int cl, int cu, MatrixBlock dest) 
+		throws DMLRuntimeException
+	{
+		//note: the output might be a large dense block as well
+		dest.allocateDenseBlock();
+		DenseBlock a = largeDenseBlock;
+		DenseBlock c = dest.getDenseBlockObject();
+		
+		//row-wise copy of column range
+		int len = cu-cl+1;
+		for( int i=rl; i<=ru; i++ )
+			System.arraycopy(a.values(i), a.pos(i)+cl, c.values(i-rl), c.pos(i-rl), len);
+		
+		//compute nnz of output
+		dest.recomputeNonZeros();
+	}
+	
 	public void sliceOperations(ArrayList<IndexedMatrixValue> outlist, IndexRange range, int rowCut, int colCut, 
 			int normalBlockRowFactor, int normalBlockColFactor, int boundaryRlen, int boundaryClen)
 	{
@@ -4942,6 +5582,21 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	}
 
 	public MatrixValue sortOperations(MatrixValue weights, MatrixValue result) throws DMLRuntimeException {
+		return sortOperations(weights, result, 1);
+	}
+	
+	/**
+	 * Sorts the values (and optional weights) of a column vector into a dense 
+	 * two-column output of value/weight pairs, where all zeros are aggregated 
+	 * into a single entry. For k>1 and large inputs, the sort is multi-threaded. 
+	 * 
+	 * @param weights
+	 * @param result
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public MatrixValue sortOperations(MatrixValue weights, MatrixValue result, int k) throws DMLRuntimeException {
 		boolean wtflag = (weights!=null);
 		
 		MatrixBlock wts= (weights == null ? null : checkType(weights));
@@ -4962,6 +5617,38 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		else
 			result.reset(dim1, 2, false);
 		
+		// w/o weights, directly sort the non-zero values and insert the zero entry 
+		// between negative and positive values (no index sort required)
+		if( !wtflag ) {
+			double[] values = new double[dim1-1];
+			int nnz = 0;
+			for( int i=0; i<rlen && nnz<values.length; i++ ) {
+				double d = quickGetValue(i,0);
+				if( d != 0 )
+					values[nnz++] = d;
+			}
+			if( nnz < values.length ) //robustness incorrect nnz
+				values = Arrays.copyOf(values, nnz);
+			SortUtils.sortParallel(values, k);
+			
+			MatrixBlock ret = (MatrixBlock)result;
+			ret.allocateDenseBlock();
+			double[] c = ret.denseBlock;
+			int pos = 0, cix = 0;
+			for( ; pos<nnz && values[pos]<0; pos++, cix+=2 ) {
+				c[cix] = values[pos];
+				c[cix+1] = 1;
+			}
+			c[cix] = 0;
+			c[cix+1] = getNumRows() - getNonZeros(); //num zeros in input
+			for( cix+=2; pos<nnz; pos++, cix+=2 ) {
+				c[cix] = values[pos];
+				c[cix+1] = 1;
+			}
+			ret.recomputeNonZeros();
+			return ret;
+		}
+		
 		// Copy the input elements into a temporary array for sorting
 		// First column is data and second column is weights
 		// (since the inputs are vectors, they are likely dense - hence quickget is sufficient)
@@ -4999,7 +5686,7 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		
 		// Sort td and tw based on values inside td (ascending sort), incl copy into result
 		SortIndex sfn = SortIndex.getSortIndexFnObject(1, false, false);
-		ReorgOperator rop = new ReorgOperator(sfn);
+		ReorgOperator rop = new ReorgOperator(sfn, k);
 		LibMatrixReorg.reorg(tdw, (MatrixBlock)result, rop);
 		
 		return result;
@@ -5126,6 +5813,56 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 		return pickValue(quantile, false);
 	}
 	
+	/**
+	 * Computes the given quantile of an unsorted column vector via selection,
+	 * i.e., without sorting the input. This gives the same result as sorting 
+	 * with sortOperations and picking with pickValue.
+	 * 
+	 * @param quantile
+	 * @param average
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public double pickValueUnsorted(double quantile, boolean average) 
+		throws DMLRuntimeException 
+	{
+		if( getNumColumns() != 1 )
+			throw new DMLRuntimeException("Invalid input dimensions (" + getNumRows() + "x" + getNumColumns() + ") to quantile operation.");
+		
+		int n = getNumRows();
+		average = average && (n%2 == 0);
+		int pos = Math.max((int) Math.ceil(quantile*n), 1);
+		
+		//extract non-zero values and count negatives 
+		double[] values = new double[(int)Math.min(getNonZeros(), n)];
+		int nnz = 0, nneg = 0;
+		for( int i=0; i<n && nnz<values.length; i++ ) {
+			double d = quickGetValue(i, 0);
+			if( d != 0 ) {
+				values[nnz++] = d;
+				nneg += (d < 0) ? 1 : 0;
+			}
+		}
+		
+		double ret = pickValueUnsorted(values, nnz, nneg, n-nnz, pos);
+		if( average && pos < n )
+			ret = (ret + pickValueUnsorted(values, nnz, nneg, n-nnz, pos+1)) / 2;
+		return ret;
+	}
+	
+	/**
+	 * Picks the pos-th smallest value (1-based) of the non-zero values and
+	 * the given number of zeros, which are ordered between negatives and positives.
+	 */
+	private static double pickValueUnsorted(double[] values, int nnz, int nneg, int nzeros, int pos) {
+		if( pos <= nneg )
+			return SortUtils.selectKth(values, 0, nnz, pos-1);
+		else if( pos <= nneg+nzeros )
+			return 0;
+		else
+			return SortUtils.selectKth(values, 0, nnz, pos-nzeros-1);
+	}
+	
 	public double pickValue(double quantile, boolean average) 
 		throws DMLRuntimeException 
 	{
@@ -5263,11 +6000,8 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 			throw new DMLRuntimeException("Unsupported operator for aggregate tertiary operations.");
 		
 		//execute ternary aggregate function
-		double val = -1;
-		if( op.getNumThreads() > 1 )
-			val = LibMatrixAgg.aggregateTernary(m1, m2, m3, op.getNumThreads());
-		else
-			val = LibMatrixAgg.aggregateTernary(m1, m2, m3);
+		//(multi-threaded entry point handles large dense blocks and k=1)
+		double val = LibMatrixAgg.aggregateTernary(m1, m2, m3, op.getNumThreads());
 		
 		//create output
 		return new DoubleObject(val);
@@ -5415,9 +6149,24 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	 */
 	public MatrixBlock removeEmptyOperations( MatrixBlock ret, boolean rows, MatrixBlock select )
 		throws DMLRuntimeException 
+	{	
+		return removeEmptyOperations(ret, rows, select, 1);
+	}
+	
+	/**
+	 * 
+	 * @param ret
+	 * @param rows
+	 * @param select
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public MatrixBlock removeEmptyOperations( MatrixBlock ret, boolean rows, MatrixBlock select, int k )
+		throws DMLRuntimeException 
 	{	
 		MatrixBlock result = checkType(ret);
-		return LibMatrixReorg.rmempty(this, result, rows, select);
+		return LibMatrixReorg.rmempty(this, result, rows, select, k);
 	}
 	
 	/**
@@ -5445,9 +6194,44 @@ public class MatrixBlock extends MatrixValue implements CacheBlock, Externalizab
 	 */
 	public MatrixBlock rexpandOperations( MatrixBlock ret, double max, boolean rows, boolean cast, boolean ignore )
 		throws DMLRuntimeException 
+	{	
+		return rexpandOperations(ret, max, rows, cast, ignore, 1);
+	}
+	
+	/**
+	 * 
+	 * @param ret
+	 * @param max
+	 * @param rows
+	 * @param cast
+	 * @param ignore
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public MatrixBlock rexpandOperations( MatrixBlock ret, double max, boolean rows, boolean cast, boolean ignore, int k )
+		throws DMLRuntimeException 
 	{	
 		MatrixBlock result = checkType(ret);
-		return LibMatrixReorg.rexpand(this, result, max, rows, cast, ignore);
+		return LibMatrixReorg.rexpand(this, result, max, rows, cast, ignore, k);
+	}
+	
+	/**
+	 * 
+	 * @param result
+	 * @param pattern
+	 * @param replacement
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException
+	 */
+	public MatrixValue replaceOperations(MatrixValue result, double pattern, double replacement, int k) 
+		throws DMLRuntimeException
+	{
+		if( k <= 1 )
+			return replaceOperations(result, pattern, replacement);
+		MatrixBlock ret = checkType(result);
+		return LibMatrixReorg.replace(this, ret, pattern, replacement, k);
 	}
 	
 	
@@ -31,7 +31,7 @@ import java.util.Iterator;
  * against this abstraction in order to enable variability/extensibility.
  * 
  * Example sparse format that can be implemented efficiently include
- * CSR, MCSR, and - with performance drawbacks - COO.
+ * CSR, MCSR, DCSR (for ultra-sparse), and - with performance drawbacks - COO.
  * 
  */
 public abstract class SparseBlock implements Serializable
@@ -47,6 +47,7 @@ public abstract class SparseBlock implements Serializable
 		MCSR,
 		CSR,
 		COO,
+		DCSR,
 	}
 	
 	
@@ -229,6 +230,21 @@ public abstract class SparseBlock implements Serializable
 	 */
 	public abstract boolean isEmpty(int r); 
 	
+	/**
+	 * Get the index of the first non-empty row in [r, ru), or ru if all 
+	 * rows in this range are empty. The default implementation scans all 
+	 * rows, override if the format stores non-empty rows explicitly.
+	 * 
+	 * @param r   inclusive lower row index starting at 0
+	 * @param ru  exclusive upper row index starting at 0
+	 * @return
+	 */
+	public int nextNonEmptyRow(int r, int ru) {
+		while( r<ru && isEmpty(r) )
+			r++;
+		return r;
+	}
+	
 	
 	////////////////////////
 	//obtain indexes/values/positions
@@ -128,6 +128,22 @@ public class SparseBlockCSR extends SparseBlock
 		}
 	}
 	
+	/**
+	 * Constructor over given CSR arrays (shallow, without copy). 
+	 * 
+	 * @param rowPtr row pointer array (size: rlen+1)
+	 * @param colInd column index array (size: >=nnz)
+	 * @param values value array (size: >=nnz)
+	 * @param nnz number of non-zeros
+	 */
+	public SparseBlockCSR(int[] rowPtr, int[] colInd, double[] values, int nnz)
+	{
+		_ptr = rowPtr;
+		_indexes = colInd;
+		_values = values;
+		_size = nnz;
+	}
+	
 	/**
 	 * Get the estimated in-memory size of the sparse block in CSR 
 	 * with the given dimensions w/o accounting for overallocation. 
@@ -0,0 +1,804 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.matrix.data;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.apache.sysml.runtime.util.SortUtils;
+
+/**
+ * SparseBlock implementation that realizes a 'doubly compressed sparse row'
+ * representation, where only non-empty rows are represented. The entire sparse 
+ * block is stored as five arrays: rowidx of length nnzr to store the sorted row 
+ * indexes of non-empty rows, rowptr of length nnzr+1 to store offsets per non-empty 
+ * row, and indexes/values of length nnz to store column indexes and values of 
+ * non-zero entries. In contrast to SparseBlockCSR and SparseBlockMCSR, the memory 
+ * requirements are independent of the number of rows, which makes this format 
+ * very memory efficient for ultra-sparse matrices (e.g., with nnz much smaller 
+ * than the number of rows). Row accesses require a binary search over the 
+ * non-empty row indexes, hence operations should iterate over non-empty rows 
+ * via nextNonEmptyRow or the specialized iterator. Similar to SparseBlockCSR, 
+ * this format is slow on incremental construction except for row-major appends,
+ * and the total nnz is limited to INTEGER_MAX.
+ * 	
+ */
+public class SparseBlockDCSR extends SparseBlock 
+{
+	private static final long serialVersionUID = -1734816374587651212L;
+
+	private int _rlen = 0;           //number of logical rows
+	private int[] _rowidx = null;    //row index array of non-empty rows (size: >=nnzr)
+	private int[] _rowptr = null;    //row pointer array (size: >=nnzr+1)
+	private int _nnzr = 0;           //actual number of non-empty rows
+	private int[] _indexes = null;   //column index array (size: >=nnz)
+	private double[] _values = null; //value array (size: >=nnz)
+	private int _size = 0;           //actual number of nnz
+	
+	public SparseBlockDCSR(int rlen) {
+		this(rlen, INIT_CAPACITY);
+	}
+	
+	public SparseBlockDCSR(int rlen, int capacity) {
+		_rlen = rlen;
+		_rowidx = new int[INIT_CAPACITY];
+		_rowptr = new int[INIT_CAPACITY+1]; //ix0=0
+		_nnzr = 0;
+		_indexes = new int[capacity];
+		_values = new double[capacity];
+		_size = 0;
+	}
+	
+	/**
+	 * Copy constructor sparse block abstraction. 
+	 */
+	public SparseBlockDCSR(SparseBlock sblock)
+	{
+		long size = sblock.size();
+		if( size > Integer.MAX_VALUE )
+			throw new RuntimeException("SparseBlockDCSR supports nnz<=Integer.MAX_VALUE but got "+size);
+		
+		//special case SparseBlockDCSR
+		if( sblock instanceof SparseBlockDCSR ) { 
+			SparseBlockDCSR odcsr = (SparseBlockDCSR)sblock;
+			_rlen = odcsr._rlen;
+			_rowidx = Arrays.copyOf(odcsr._rowidx, Math.max(odcsr._nnzr, 1));
+			_rowptr = Arrays.copyOf(odcsr._rowptr, Math.max(odcsr._nnzr, 1)+1);
+			_nnzr = odcsr._nnzr;
+			_indexes = Arrays.copyOf(odcsr._indexes, odcsr._size);
+			_values = Arrays.copyOf(odcsr._values, odcsr._size);
+			_size = odcsr._size;
+		}
+		//general case SparseBlock
+		else {
+			_rlen = sblock.numRows();
+			
+			//count non-empty rows
+			int nnzr = 0;
+			for( int i=sblock.nextNonEmptyRow(0, _rlen); i<_rlen; i=sblock.nextNonEmptyRow(i+1, _rlen) )
+				nnzr++;
+			
+			_rowidx = new int[Math.max(nnzr, 1)];
+			_rowptr = new int[Math.max(nnzr, 1)+1];
+			_nnzr = nnzr;
+			_indexes = new int[(int)size];
+			_values = new double[(int)size];
+			_size = (int)size;
+			
+			int k = 0, pos = 0;
+			for( int i=sblock.nextNonEmptyRow(0, _rlen); i<_rlen; i=sblock.nextNonEmptyRow(i+1, _rlen) ) {
+				int apos = sblock.pos(i);
+				int alen = sblock.size(i);
+				System.arraycopy(sblock.indexes(i), apos, _indexes, pos, alen);
+				System.arraycopy(sblock.values(i), apos, _values, pos, alen);
+				pos += alen;
+				_rowidx[k] = i;
+				_rowptr[++k] = pos;
+			}
+		}
+	}
+	
+	/**
+	 * Get the estimated in-memory size of the sparse block in DCSR 
+	 * with the given dimensions w/o accounting for overallocation. 
+	 * 
+	 * @param nrows
+	 * @param ncols
+	 * @param sparsity
+	 * @return
+	 */
+	public static long estimateMemory(long nrows, long ncols, double sparsity) {
+		double lnnz = Math.max(INIT_CAPACITY, Math.ceil(sparsity*nrows*ncols));
+		double lnnzr = Math.min(nrows, lnnz); //worst-case one nnz per row
+		
+		//32B overhead per array, int arr in nnzr, int/double arr in nnz 
+		double size = 16 + 4*4;        //object + 4 int fields
+		size += 32 + lnnzr * 4d;       //rowidx array (non-empty row indexes)
+		size += 32 + (lnnzr+1) * 4d;   //rowptr array (row pointers)
+		size += 32 + lnnz * 4d;        //indexes array (column indexes)
+		size += 32 + lnnz * 8d;        //values array (non-zero values)
+		
+		//robustness for long overflows
+		return (long) Math.min(size, Long.MAX_VALUE);
+	}
+	
+	/**
+	 * Get the number of non-empty rows.
+	 * 
+	 * @return
+	 */
+	public int numNonEmptyRows() {
+		return _nnzr;
+	}
+	
+	///////////////////
+	//SparseBlock implementation
+
+	@Override
+	public void allocate(int r) {
+		//do nothing everything allocated on demand
+	}
+	
+	@Override
+	public void allocate(int r, int nnz) {
+		//do nothing everything allocated on demand
+	}
+	
+	@Override
+	public void allocate(int r, int ennz, int maxnnz) {
+		//do nothing everything allocated on demand
+	}
+
+	@Override
+	public int numRows() {
+		return _rlen;
+	}
+
+	@Override
+	public boolean isThreadSafe() {
+		return false;
+	}
+	
+	@Override
+	public boolean isContiguous() {
+		return true;
+	}
+	
+	@Override 
+	public void reset() {
+		_size = 0;
+		_nnzr = 0;
+		_rowptr[0] = 0;
+	}
+
+	@Override 
+	public void reset(int ennz, int maxnnz) {
+		reset();
+	}
+	
+	@Override 
+	public void reset(int r, int ennz, int maxnnz) {
+		int k = rowIndex(r);
+		if( k < 0 ) //empty row
+			return;
+		
+		int pos = _rowptr[k];
+		int len = _rowptr[k+1] - pos;
+		
+		//overlapping array copy (shift rhs values left)
+		System.arraycopy(_indexes, pos+len, _indexes, pos, _size-(pos+len));
+		System.arraycopy(_values, pos+len, _values, pos, _size-(pos+len));
+		_size -= len;
+		decrPtr(k+1, len);
+		deleteRow(k);
+	}
+	
+	@Override
+	public long size() {
+		return _size;
+	}
+
+	@Override
+	public int size(int r) {
+		int k = rowIndex(r);
+		return (k >= 0) ? _rowptr[k+1] - _rowptr[k] : 0;
+	}
+	
+	@Override
+	public long size(int rl, int ru) {
+		return _rowptr[lowerRowIndex(ru)] - _rowptr[lowerRowIndex(rl)];
+	}
+
+	@Override
+	public long size(int rl, int ru, int cl, int cu) {
+		long nnz = 0;
+		for( int k=lowerRowIndex(rl); k<_nnzr && _rowidx[k]<ru; k++ ) {
+			int start = posFIndexGTE(_rowidx[k], cl);
+			int end = posFIndexGTE(_rowidx[k], cu);
+			if( start != -1 )
+				nnz += (end!=-1) ? (end-start) : (_rowptr[k+1]-start);
+		}
+		return nnz;
+	}
+	
+	@Override
+	public boolean isEmpty(int r) {
+		return (rowIndex(r) < 0);
+	}
+	
+	@Override
+	public int[] indexes(int r) {
+		return _indexes;
+	}
+
+	@Override
+	public double[] values(int r) {
+		return _values;
+	}
+
+	@Override
+	public int pos(int r) {
+		//position of row r or insertion position if empty
+		return _rowptr[lowerRowIndex(r)];
+	}
+
+	@Override
+	public boolean set(int r, int c, double v) {
+		int k = rowIndex(r);
+		
+		if( k >= 0 ) {
+			int pos = _rowptr[k];
+			int len = _rowptr[k+1] - pos;
+			
+			//search for existing col index
+			int index = Arrays.binarySearch(_indexes, pos, pos+len, c);
+			if( index >= 0 ) {
+				//delete/overwrite existing value (on value delete, we shift 
+				//left for (1) correct nnz maintenance, and (2) smaller size)
+				if( v == 0 ) {
+					shiftLeftAndDelete(index);
+					decrPtr(k+1, 1);
+					if( len == 1 )
+						deleteRow(k);
+					return true; // nnz--
+				}
+				else { 	
+					_values[index] = v;
+					return false;
+				} 
+			}
+		}
+		
+		//early abort on zero (if no overwrite)
+		if( v==0 ) return false;
+		
+		//insert new row if necessary
+		if( k < 0 )
+			k = insertRow(Math.abs(k+1), r);
+		
+		//insert new index-value pair
+		int pos = _rowptr[k];
+		int len = _rowptr[k+1] - pos;
+		int index = Math.abs( Arrays.binarySearch(_indexes, pos, pos+len, c)+1 );
+		if( _size==_values.length )
+			resizeAndInsert(index, c, v);
+		else
+			shiftRightAndInsert(index, c, v);
+		incrPtr(k+1, 1);
+		return true; // nnz++
+	}
+
+	@Override
+	public void set(int r, SparseRow row, boolean deep) {
+		int alen = row.size();
+		int[] aix = row.indexes();
+		double[] avals = row.values();
+		
+		//delete existing values if necessary
+		reset(r, alen, alen);
+		if( alen == 0 )
+			return;
+		
+		//prepare free space (allocate and shift)
+		int k = getOrInsertRow(r);
+		int pos = _rowptr[k];
+		int lsize = _size+alen;
+		if( _values.length < lsize )
+			resize(lsize);
+		shiftRightByN(pos, alen);
+		
+		//copy input row into internal representation
+		System.arraycopy(aix, 0, _indexes, pos, alen);
+		System.arraycopy(avals, 0, _values, pos, alen);
+		incrPtr(k+1, alen);
+	}
+	
+	@Override
+	public void append(int r, int c, double v) {
+		//early abort on zero 
+		if( v==0 ) return;
+		
+		int k = getOrInsertRow(r);
+		int pos = _rowptr[k+1];
+		if( pos == _size ) {
+			//resize and append
+			if( _size==_values.length )
+				resize();
+			insert(_size, c, v);
+		}
+		else {
+			//resize, shift and insert
+			if( _size==_values.length )
+				resizeAndInsert(pos, c, v);
+			else
+				shiftRightAndInsert(pos, c, v);
+		}
+		incrPtr(k+1, 1);
+	}
+
+	@Override
+	public void setIndexRange(int r, int cl, int cu, double[] v, int vix, int vlen) {
+		//delete existing values in range if necessary 
+		deleteIndexRange(r, cl, cu);
+		
+		//determine input nnz
+		int lnnz = 0;
+		for( int i=vix; i<vix+vlen; i++ )
+			lnnz += ( v[i] != 0 ) ? 1 : 0;
+		if( lnnz == 0 )
+			return;
+		
+		//prepare free space (allocate and shift)
+		int k = getOrInsertRow(r);
+		int lsize = _size+lnnz;
+		if( _values.length < lsize )
+			resize(lsize);
+		int pos = _rowptr[k];
+		int len = _rowptr[k+1] - pos;
+		int index = Math.abs( Arrays.binarySearch(_indexes, pos, pos+len, cl)+1 );
+		shiftRightByN(index, lnnz);
+		
+		//insert values
+		for( int i=vix; i<vix+vlen; i++ )
+			if( v[i] != 0 ) {
+				_indexes[ index ] = cl+i-vix;
+				_values[ index ] = v[i];
+				index++;
+			}
+		incrPtr(k+1, lnnz);
+	}
+
+	@Override
+	public void deleteIndexRange(int r, int cl, int cu) {
+		int k = rowIndex(r);
+		if( k < 0 ) //empty row
+			return;
+		
+		int start = posFIndexGTE(r,cl);
+		if( start < 0 ) //nothing to delete 
+			return;
+		
+		int end = posFIndexGTE(r, cu);
+		if( end < 0 ) //delete all remaining
+			end = _rowptr[k+1];
+		
+		//overlapping array copy (shift rhs values left)
+		System.arraycopy(_indexes, end, _indexes, start, _size-end);
+		System.arraycopy(_values, end, _values, start, _size-end);
+		_size -= (end-start);
+		
+		decrPtr(k+1, end-start);
+		if( _rowptr[k+1] == _rowptr[k] )
+			deleteRow(k);
+	}
+
+	@Override
+	public void sort() {
+		for( int k=0; k<_nnzr; k++ )
+			sort(_rowidx[k]);
+	}
+
+	@Override
+	public void sort(int r) {
+		int k = rowIndex(r);
+		if( k < 0 ) //empty row
+			return;
+		
+		int pos = _rowptr[k];
+		int len = _rowptr[k+1] - pos;
+		if( len<=100 || !SortUtils.isSorted(pos, pos+len, _indexes) )
+			SortUtils.sortByIndex(pos, pos+len, _indexes, _values);
+	}
+
+	@Override
+	public double get(int r, int c) {
+		int k = rowIndex(r);
+		if( k < 0 ) //empty row
+			return 0;
+		
+		//search for existing col index in [pos,pos+len)
+		int index = Arrays.binarySearch(_indexes, _rowptr[k], _rowptr[k+1], c);
+		return (index >= 0) ? _values[index] : 0;
+	}
+	
+	@Override 
+	public SparseRow get(int r) {
+		int pos = pos(r);
+		int len = size(r);
+		
+		SparseRow row = new SparseRow(len);
+		System.arraycopy(_indexes, pos, row.indexes(), 0, len);
+		System.arraycopy(_values, pos, row.values(), 0, len);
+		row.setSize(len);
+		
+		return row;
+	}
+	
+	@Override
+	public int posFIndexLTE(int r, int c) {
+		int k = rowIndex(r);
+		if( k < 0 ) //empty row
+			return -1;
+		int pos = _rowptr[k];
+		int len = _rowptr[k+1] - pos;
+		
+		//search for existing col index in [pos,pos+len)
+		int index = Arrays.binarySearch(_indexes, pos, pos+len, c);
+		if( index >= 0  )
+			return (index < pos+len) ? index : -1;
+		
+		//search lt col index (see binary search)
+		index = Math.abs( index+1 );
+		return (index-1 >= pos) ? index-1 : -1;
+	}
+
+	@Override
+	public int posFIndexGTE(int r, int c) {
+		int k = rowIndex(r);
+		if( k < 0 ) //empty row
+			return -1;
+		int pos = _rowptr[k];
+		int len = _rowptr[k+1] - pos;
+		
+		//search for existing col index
+		int index = Arrays.binarySearch(_indexes, pos, pos+len, c);
+		if( index >= 0  )
+			return (index < pos+len) ? index : -1;
+		
+		//search gt col index (see binary search)
+		index = Math.abs( index+1 );
+		return (index < pos+len) ? index : -1;
+	}
+
+	@Override
+	public int posFIndexGT(int r, int c) {
+		int k = rowIndex(r);
+		if( k < 0 ) //empty row
+			return -1;
+		int pos = _rowptr[k];
+		int len = _rowptr[k+1] - pos;
+		
+		//search for existing col index
+		int index = Arrays.binarySearch(_indexes, pos, pos+len, c);
+		if( index >= 0  )
+			return (index+1 < pos+len) ? index+1 : -1;
+		
+		//search gt col index (see binary search)
+		index = Math.abs( index+1 );
+		return (index < pos+len) ? index : -1;
+	}
+	
+	@Override
+	public int nextNonEmptyRow(int r, int ru) {
+		int k = lowerRowIndex(r);
+		return (k < _nnzr && _rowidx[k] < ru) ? _rowidx[k] : ru;
+	}
+	
+	@Override
+	public Iterator<IJV> getIterator() {
+		return new SparseBlockDCSRIterator(0, _rlen);
+	}
+	
+	@Override
+	public Iterator<IJV> getIterator(int ru) {
+		return new SparseBlockDCSRIterator(0, ru);
+	}
+	
+	@Override
+	public Iterator<IJV> getIterator(int rl, int ru) {
+		return new SparseBlockDCSRIterator(rl, Math.min(ru, _rlen));
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("SparseBlockDCSR: rlen=");
+		sb.append(numRows());
+		sb.append(", nnzr=");
+		sb.append(_nnzr);
+		sb.append(", nnz=");
+		sb.append(size());
+		sb.append("\n");
+		for( int k=0; k<_nnzr; k++ ) {
+			sb.append("row +");
+			sb.append(_rowidx[k]);
+			sb.append(": ");
+			//append row
+			for(int j=_rowptr[k]; j<_rowptr[k+1]; j++) {
+				sb.append(_indexes[j]);
+				sb.append(": ");
+				sb.append(_values[j]);
+				sb.append("\t");
+			}
+			sb.append("\n");
+		}		
+		
+		return sb.toString();
+	}
+	
+	///////////////////////////
+	// private helper methods
+	
+	/**
+	 * Get the position of row r in the non-empty row index 
+	 * array, or (-(insertion point)-1) if the row is empty.
+	 * 
+	 * @param r
+	 * @return
+	 */
+	private int rowIndex(int r) {
+		//fast path for row-major appends
+		if( _nnzr > 0 && _rowidx[_nnzr-1] == r )
+			return _nnzr-1;
+		return Arrays.binarySearch(_rowidx, 0, _nnzr, r);
+	}
+	
+	/**
+	 * Get the position of the first non-empty row greater than 
+	 * or equal row r in the non-empty row index array.
+	 * 
+	 * @param r
+	 * @return
+	 */
+	private int lowerRowIndex(int r) {
+		int k = rowIndex(r);
+		return (k >= 0) ? k : Math.abs(k+1);
+	}
+	
+	/**
+	 * 
+	 * @param r
+	 * @return
+	 */
+	private int getOrInsertRow(int r) {
+		//fast path for row-major appends
+		if( _nnzr == 0 || _rowidx[_nnzr-1] < r )
+			return insertRow(_nnzr, r);
+		int k = rowIndex(r);
+		return (k >= 0) ? k : insertRow(Math.abs(k+1), r);
+	}
+	
+	/**
+	 * Inserts a new empty row r at position k of the non-empty 
+	 * row index array.
+	 * 
+	 * @param k
+	 * @param r
+	 * @return
+	 */
+	private int insertRow(int k, int r) {
+		//resize row arrays if necessary
+		if( _nnzr == _rowidx.length ) {
+			int newCap = (int)Math.min(_rowidx.length * RESIZE_FACTOR1, _rlen);
+			_rowidx = Arrays.copyOf(_rowidx, Math.max(newCap, _nnzr+1));
+			_rowptr = Arrays.copyOf(_rowptr, Math.max(newCap, _nnzr+1)+1);
+		}
+		
+		//overlapping array copy (shift rhs rows right by 1)
+		System.arraycopy(_rowidx, k, _rowidx, k+1, _nnzr-k);
+		System.arraycopy(_rowptr, k, _rowptr, k+1, _nnzr-k+1);
+		_rowidx[k] = r;
+		_nnzr++;
+		return k;
+	}
+	
+	/**
+	 * Deletes the empty row at position k of the non-empty 
+	 * row index array.
+	 * 
+	 * @param k
+	 */
+	private void deleteRow(int k) {
+		//overlapping array copy (shift rhs rows left by 1)
+		System.arraycopy(_rowidx, k+1, _rowidx, k, _nnzr-k-1);
+		System.arraycopy(_rowptr, k+1, _rowptr, k, _nnzr-k);
+		_nnzr--;
+	}
+	
+	/**
+	 * 
+	 */
+	private void resize() {
+		//compute new size
+		double tmpCap = _values.length * RESIZE_FACTOR1;
+		int newCap = (int)Math.min(tmpCap, Integer.MAX_VALUE);
+		
+		resizeCopy(Math.max(newCap, INIT_CAPACITY));
+	}
+	
+	/**
+	 * 
+	 * @param minsize
+	 */
+	private void resize(int minsize) {
+		//compute new size until minsize reached
+		double tmpCap = Math.max(_values.length, INIT_CAPACITY);
+		while( tmpCap < minsize )
+			tmpCap *= RESIZE_FACTOR1;
+		int newCap = (int)Math.min(tmpCap, Integer.MAX_VALUE);
+		
+		resizeCopy(newCap);
+	}
+	
+	/**
+	 * 
+	 * @param capacity
+	 */
+	private void resizeCopy(int capacity) {
+		//reallocate arrays and copy old values
+		_indexes = Arrays.copyOf(_indexes, capacity);
+		_values = Arrays.copyOf(_values, capacity);
+	}
+	
+	/**
+	 * 
+	 * @param ix
+	 * @param c
+	 * @param v
+	 */
+	private void resizeAndInsert(int ix, int c, double v) {
+		//compute new size
+		double tmpCap = _values.length * RESIZE_FACTOR1;
+		int newCap = Math.max((int)Math.min(tmpCap, Integer.MAX_VALUE), INIT_CAPACITY);
+		
+		int[] oldindexes = _indexes;
+		double[] oldvalues = _values;
+		_indexes = new int[newCap];
+		_values = new double[newCap];
+		
+		//copy lhs values to new array
+		System.arraycopy(oldindexes, 0, _indexes, 0, ix);
+		System.arraycopy(oldvalues, 0, _values, 0, ix);
+		
+		//copy rhs values to new array
+		System.arraycopy(oldindexes, ix, _indexes, ix+1, _size-ix);
+		System.arraycopy(oldvalues, ix, _values, ix+1, _size-ix);
+		
+		//insert new value
+		insert(ix, c, v);
+	}
+	
+	/**
+	 * 
+	 * @param ix
+	 * @param c
+	 * @param v
+	 */
+	private void shiftRightAndInsert(int ix, int c, double v)  {		
+		//overlapping array copy (shift rhs values right by 1)
+		System.arraycopy(_indexes, ix, _indexes, ix+1, _size-ix);
+		System.arraycopy(_values, ix, _values, ix+1, _size-ix);
+		
+		//insert new value
+		insert(ix, c, v);
+	}
+	
+	/**
+	 * 
+	 * @param ix
+	 */
+	private void shiftLeftAndDelete(int ix) {
+		//overlapping array copy (shift rhs values left by 1)
+		System.arraycopy(_indexes, ix+1, _indexes, ix, _size-ix-1);
+		System.arraycopy(_values, ix+1, _values, ix, _size-ix-1);
+		_size--;
+	}
+
+	/**
+	 * 
+	 * @param ix
+	 * @param n
+	 */
+	private void shiftRightByN(int ix, int n) {		
+		//overlapping array copy (shift rhs values right by n)
+		System.arraycopy(_indexes, ix, _indexes, ix+n, _size-ix);
+		System.arraycopy(_values, ix, _values, ix+n, _size-ix);
+		_size += n;
+	}
+	
+	/**
+	 * 
+	 * @param ix
+	 * @param c
+	 * @param v
+	 */
+	private void insert(int ix, int c, double v) {
+		_indexes[ix] = c;
+		_values[ix] = v;
+		_size++;	
+	}
+	
+	/**
+	 * 
+	 * @param kl
+	 * @param cnt
+	 */
+	private void incrPtr(int kl, int cnt) {
+		for( int k=kl; k<_nnzr+1; k++ )
+			_rowptr[k]+=cnt;
+	}
+	
+	/**
+	 * 
+	 * @param kl
+	 * @param cnt
+	 */
+	private void decrPtr(int kl, int cnt) {
+		for( int k=kl; k<_nnzr+1; k++ )
+			_rowptr[k]-=cnt;
+	}
+	
+	/**
+	 * Sparse block iterator that only visits non-empty rows, which 
+	 * avoids the binary search per row of the default iterator.
+	 */
+	private class SparseBlockDCSRIterator implements Iterator<IJV>
+	{
+		private int _ru = 0;    //row upper
+		private int _curK = -1;  //current non-empty row position
+		private int _curPos = -1; //current col index pos
+		private IJV retijv = new IJV(); //reuse output tuple
+
+		protected SparseBlockDCSRIterator(int rl, int ru) {
+			_ru = ru;
+			_curK = lowerRowIndex(rl);
+			_curPos = (_curK < _nnzr) ? _rowptr[_curK] : -1;
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return _curK < _nnzr && _rowidx[_curK] < _ru;
+		}
+
+		@Override
+		public IJV next( ) {
+			retijv.set(_rowidx[_curK], _indexes[_curPos], _values[_curPos]);
+			if( ++_curPos >= _rowptr[_curK+1] )
+				_curK++;
+			return retijv;
+		}
+
+		@Override
+		public void remove() {
+			throw new RuntimeException("SparseBlockDCSRIterator is unsupported!");			
+		}
+	}
+}
@@ -41,6 +41,7 @@ public abstract class SparseBlockFactory
 			case MCSR: return new SparseBlockMCSR(rlen, -1);
 			case CSR: return new SparseBlockCSR(rlen);
 			case COO: return new SparseBlockCOO(rlen);
+			case DCSR: return new SparseBlockDCSR(rlen);
 			default:
 				throw new RuntimeException("Unexpected sparse block type: "+type.toString());
 		}
@@ -70,11 +71,7 @@ public abstract class SparseBlockFactory
 			return null;
 		
 		//check for existing target type
-		if( !forceCopy && 
-			( (sblock instanceof SparseBlockMCSR && type == SparseBlock.Type.MCSR)
-			||(sblock instanceof SparseBlockCSR && type == SparseBlock.Type.CSR)
-			||(sblock instanceof SparseBlockCOO && type == SparseBlock.Type.COO))  )
-		{
+		if( !forceCopy && isSparseBlockType(sblock, type) ) {
 			return sblock;
 		}
 		
@@ -83,11 +80,25 @@ public abstract class SparseBlockFactory
 			case MCSR: return new SparseBlockMCSR(sblock);
 			case CSR: return new SparseBlockCSR(sblock);
 			case COO: return new SparseBlockCOO(sblock);
+			case DCSR: return new SparseBlockDCSR(sblock);
 			default:
 				throw new RuntimeException("Unexpected sparse block type: "+type.toString());
 		}
 	}
 	
+	/**
+	 * 
+	 * @param sblock
+	 * @param type
+	 * @return
+	 */
+	public static boolean isSparseBlockType( SparseBlock sblock, SparseBlock.Type type ) {
+		return (sblock instanceof SparseBlockMCSR && type == SparseBlock.Type.MCSR)
+			||(sblock instanceof SparseBlockCSR && type == SparseBlock.Type.CSR)
+			||(sblock instanceof SparseBlockCOO && type == SparseBlock.Type.COO)
+			||(sblock instanceof SparseBlockDCSR && type == SparseBlock.Type.DCSR);
+	}
+	
 	/**
 	 * 
 	 * @param type
@@ -101,6 +112,7 @@ public abstract class SparseBlockFactory
 			case MCSR: return SparseBlockMCSR.estimateMemory(nrows, ncols, sparsity);
 			case CSR: return SparseBlockCSR.estimateMemory(nrows, ncols, sparsity);
 			case COO: return SparseBlockCOO.estimateMemory(nrows, ncols, sparsity);
+			case DCSR: return SparseBlockDCSR.estimateMemory(nrows, ncols, sparsity);
 			default:
 				throw new RuntimeException("Unexpected sparse block type: "+type.toString());
 		}
@@ -20,6 +20,8 @@
 
 package org.apache.sysml.runtime.matrix.data;
 
+import java.util.Arrays;
+
 /**
  * SparseBlock implementation that realizes a 'modified compressed sparse row'
  * representation, where each compressed row is stored as a separate SparseRow
@@ -45,20 +47,20 @@ public class SparseBlockMCSR extends SparseBlock
 			SparseRow[] orows = ((SparseBlockMCSR)sblock)._rows;
 			_rows = new SparseRow[orows.length];
 			for( int i=0; i<_rows.length; i++ )
-				_rows[i] = new SparseRow(orows[i]);		
+				if( orows[i] != null )
+					_rows[i] = new SparseRow(orows[i]);
 		}
 		//general case SparseBlock
 		else { 
-			_rows = new SparseRow[sblock.numRows()];
-			for( int i=0; i<_rows.length; i++ ) {
-				if( !sblock.isEmpty(i) ) {
-					int apos = sblock.pos(i);
-					int alen = sblock.size(i);
-					_rows[i] = new SparseRow(alen);
-					_rows[i].setSize(alen);
-					System.arraycopy(sblock.indexes(i), apos, _rows[i].indexes(), 0, alen);
-					System.arraycopy(sblock.values(i), apos, _rows[i].values(), 0, alen);
-				}
+			int rlen = sblock.numRows();
+			_rows = new SparseRow[rlen];
+			for( int i=sblock.nextNonEmptyRow(0, rlen); i<rlen; i=sblock.nextNonEmptyRow(i+1, rlen) ) {
+				int apos = sblock.pos(i);
+				int alen = sblock.size(i);
+				_rows[i] = new SparseRow(alen);
+				_rows[i].setSize(alen);
+				System.arraycopy(sblock.indexes(i), apos, _rows[i].indexes(), 0, alen);
+				System.arraycopy(sblock.values(i), apos, _rows[i].values(), 0, alen);
 			}
 		}
 	}
@@ -81,6 +83,17 @@ public class SparseBlockMCSR extends SparseBlock
 		_rows = new SparseRow[rlen];
 	}
 	
+	/**
+	 * Increases the number of rows to the given capacity (if necessary), 
+	 * where existing rows are retained and new rows are empty.
+	 * 
+	 * @param rlen number of rows
+	 */
+	public void ensureCapacity(int rlen) {
+		if( _rows.length < rlen )
+			_rows = Arrays.copyOf(_rows, rlen);
+	}
+	
 	/**
 	 * Get the estimated in-memory size of the sparse block in MCSR 
 	 * with the given dimensions w/o accounting for overallocation. 
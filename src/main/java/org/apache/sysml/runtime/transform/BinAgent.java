@@ -360,17 +360,27 @@ public class BinAgent extends Encoder
 
 	@Override
 	public MatrixBlock apply(FrameBlock in, MatrixBlock out) {
+		apply(in, out, out, 0, in.getNumRows());
+		return out;
+	}
+	
+	@Override
+	public boolean isApplyPartitionable() {
+		return true;
+	}
+	
+	@Override
+	public void apply(FrameBlock in, MatrixBlock out, MatrixBlock ret, int rl, int ru) {
 		for(int j=0; j<_colList.length; j++) {
 			int colID = _colList[j];
-			for( int i=0; i<in.getNumRows(); i++ ) {
+			for( int i=rl; i<ru; i++ ) {
 				double inVal = UtilFunctions.objectToDouble(
 						in.getSchema().get(colID-1), in.get(i, colID-1));
 				int ix = Arrays.binarySearch(_binMaxs[j], inVal);
 				int binID = ((ix < 0) ? Math.abs(ix+1) : ix) + 1;		
-				out.quickSetValue(i, colID-1, binID);
+				ret.quickSetValue(i, colID-1, binID);
 			}	
 		}
-		return out;
 	}
 
 	@Override
@@ -432,9 +432,45 @@ public class DummycodeAgent extends Encoder
 	@Override
 	public MatrixBlock apply(FrameBlock in, MatrixBlock out) 
 	{
-		MatrixBlock ret = new MatrixBlock(out.getNumRows(), (int)_dummycodedLength, false);
+		MatrixBlock ret = prepareApply(in, out);
+		apply(in, out, ret, 0, out.getNumRows());
+		return ret;
+	}
+	
+	@Override
+	public boolean isApplyPartitionable() {
+		return true;
+	}
+	
+	@Override
+	public MatrixBlock prepareApply(FrameBlock in, MatrixBlock out) {
+		return new MatrixBlock(out.getNumRows(), (int)_dummycodedLength, false);
+	}
+	
+	@Override
+	public void apply(FrameBlock in, MatrixBlock out, MatrixBlock ret, int rl, int ru) 
+	{
+		//prepare value lookups for dictionary-encoded pass-through columns
+		int[][] codes = new int[out.getNumColumns()][];
+		double[][] lookups = new double[out.getNumColumns()][];
+		for( int colID=1, idx=0; colID <= out.getNumColumns(); colID++ ) {
+			if(idx < _colList.length && colID==_colList[idx])
+				idx++;
+			else if( in.isDictionaryEncoded(colID-1) ) {
+				String[] dict = in.getColumnDictionary(colID-1);
+				codes[colID-1] = in.getColumnCodes(colID-1);
+				lookups[colID-1] = new double[dict.length+1];
+				boolean[] used = new boolean[dict.length+1];
+				for( int i=rl; i<ru; i++ )
+					used[codes[colID-1][i]] = true;
+				for( int k=1; k<=dict.length; k++ ) //code 0: null -> 0
+					if( used[k] )
+						lookups[colID-1][k] = UtilFunctions.objectToDouble(
+							in.getSchema().get(colID-1), dict[k-1]);
+			}
+		}
 		
-		for( int i=0; i<out.getNumRows(); i++ ) {
+		for( int i=rl; i<ru; i++ ) {
 			for(int colID=1, idx=0, ncolID=1; colID <= out.getNumColumns(); colID++) {
 				double val = out.quickGetValue(i, colID-1);
 				if(idx < _colList.length && colID==_colList[idx]) {
@@ -443,14 +479,13 @@ public class DummycodeAgent extends Encoder
 					idx++;
 				}
 				else {
-					double ptval = UtilFunctions.objectToDouble(in.getSchema().get(colID-1), in.get(i, colID-1));
+					double ptval = (lookups[colID-1] != null) ? lookups[colID-1][codes[colID-1][i]] :
+						UtilFunctions.objectToDouble(in.getSchema().get(colID-1), in.get(i, colID-1));
 					ret.quickSetValue(i, ncolID-1, ptval);
 					ncolID++;
 				}
 			}
 		}
-		
-		return ret;
 	}
 
 	@Override
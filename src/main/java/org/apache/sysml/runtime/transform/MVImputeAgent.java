@@ -955,20 +955,9 @@ public class MVImputeAgent extends Encoder
 					//compute global column mode (categorical), i.e., most frequent category
 					HashMap<String,Long> hist = _hist.containsKey(colID) ? 
 							_hist.get(colID) : new HashMap<String,Long>();
-					for( int i=0; i<in.getNumRows(); i++ ) {
-						String key = String.valueOf(in.get(i, colID-1));
-						if( key != null && !key.isEmpty() ) {
-							Long val = hist.get(key);
-							hist.put(key, (val!=null) ? val+1 : 1);
-						}	
-					}
+					buildHistogram(in, colID, hist, 0, in.getNumRows());
 					_hist.put(colID, hist);
-					long max = Long.MIN_VALUE; 
-					for( Entry<String, Long> e : hist.entrySet() ) 
-						if( e.getValue() > max  ) {
-							_replacementList[j] = e.getKey();
-							max = e.getValue();
-						}
+					updateMode(j, hist);
 				}
 			}
 		}
@@ -976,6 +965,90 @@ public class MVImputeAgent extends Encoder
 			throw new RuntimeException(ex);
 		}
 	}
+	
+	@Override
+	public boolean isBuildPartitionable() {
+		return true;
+	}
+	
+	@Override
+	public Object buildPartial(FrameBlock in, int j, int rl, int ru) {
+		int colID = _colList[j];
+		if( _mvMethodList[j] == MVMethod.GLOBAL_MEAN ) {
+			//compute partial column mean and count over [rl, ru)
+			CM_COV_Object mean = new CM_COV_Object();
+			for( int i=rl; i<ru; i++ )
+				_meanFn.execute2(mean.mean, UtilFunctions.objectToDouble(
+					in.getSchema().get(colID-1), in.get(i, colID-1)), i-rl+1);
+			mean.w = ru - rl;
+			return mean;
+		}
+		else if( _mvMethodList[j] == MVMethod.GLOBAL_MODE ) {
+			//compute partial column histogram over [rl, ru)
+			HashMap<String,Long> hist = new HashMap<String,Long>();
+			buildHistogram(in, colID, hist, rl, ru);
+			return hist;
+		}
+		return null;
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public void mergeBuild(int j, Object partial) {
+		int colID = _colList[j];
+		if( _mvMethodList[j] == MVMethod.GLOBAL_MEAN ) {
+			//merge partial mean, weighted by the partial count
+			CM_COV_Object pmean = (CM_COV_Object) partial;
+			long pcount = (long) pmean.w;
+			if( pcount > 0 ) {
+				_meanFn.execute2(_meanList[j], pmean.mean._sum, (double)(_countList[j]+pcount)/pcount);
+				_replacementList[j] = String.valueOf(_meanList[j]._sum);
+				_countList[j] += pcount;
+			}
+		}
+		else if( _mvMethodList[j] == MVMethod.GLOBAL_MODE ) {
+			HashMap<String,Long> hist = _hist.containsKey(colID) ? 
+					_hist.get(colID) : new HashMap<String,Long>();
+			for( Entry<String,Long> e : ((HashMap<String,Long>) partial).entrySet() ) {
+				Long val = hist.get(e.getKey());
+				hist.put(e.getKey(), (val!=null) ? val+e.getValue() : e.getValue());
+			}
+			_hist.put(colID, hist);
+			updateMode(j, hist);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param in
+	 * @param colID
+	 * @param hist
+	 * @param rl
+	 * @param ru
+	 */
+	private static void buildHistogram(FrameBlock in, int colID, HashMap<String,Long> hist, int rl, int ru) {
+		for( int i=rl; i<ru; i++ ) {
+			String key = String.valueOf(in.get(i, colID-1));
+			if( key != null && !key.isEmpty() ) {
+				Long val = hist.get(key);
+				hist.put(key, (val!=null) ? val+1 : 1);
+			}	
+		}
+	}
+	
+	/**
+	 * 
+	 * @param j
+	 * @param hist
+	 */
+	private void updateMode(int j, HashMap<String,Long> hist) {
+		long max = Long.MIN_VALUE; 
+		for( Entry<String, Long> e : hist.entrySet() ) 
+			if( e.getValue() > max  ) {
+				_replacementList[j] = e.getKey();
+				max = e.getValue();
+			}
+	}
 
 	@Override
 	public String[] apply(String[] words) 
@@ -1009,14 +1082,24 @@ public class MVImputeAgent extends Encoder
 	
 	@Override
 	public MatrixBlock apply(FrameBlock in, MatrixBlock out) {
-		for(int i=0; i<in.getNumRows(); i++) {
+		apply(in, out, out, 0, in.getNumRows());
+		return out;
+	}
+	
+	@Override
+	public boolean isApplyPartitionable() {
+		return true;
+	}
+	
+	@Override
+	public void apply(FrameBlock in, MatrixBlock out, MatrixBlock ret, int rl, int ru) {
+		for(int i=rl; i<ru; i++) {
 			for(int j=0; j<_colList.length; j++) {
 				int colID = _colList[j];
 				if( Double.isNaN(out.quickGetValue(i, colID-1)) )
-					out.quickSetValue(i, colID-1, Double.parseDouble(_replacementList[j]));
+					ret.quickSetValue(i, colID-1, Double.parseDouble(_replacementList[j]));
 			}
 		}
-		return out;
 	}
 	
 	@Override
@@ -1040,10 +1123,10 @@ public class MVImputeAgent extends Encoder
 			int colID = _colList[j];	
 			String mvVal = UtilFunctions.unquote(meta.getColumnMetadata(colID-1).getMvValue()); 
 			if( _rcList.contains(colID) ) {
-				Long mvVal2 = meta.getRecodeMap(colID-1).get(mvVal);
-				if( mvVal2 == null)
+				long mvVal2 = meta.getStringLongRecodeMap(colID-1).get(mvVal);
+				if( mvVal2 == -1 )
 					throw new RuntimeException("Missing recode value for impute value '"+mvVal+"' (colID="+colID+").");
-				_replacementList[j] = mvVal2.toString();
+				_replacementList[j] = String.valueOf(mvVal2);
 			}
 			else {
 				_replacementList[j] = mvVal;
@@ -29,7 +29,6 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map.Entry;
 
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -44,6 +43,8 @@ import org.apache.sysml.runtime.transform.MVImputeAgent.MVMethod;
 import org.apache.sysml.runtime.transform.decode.DecoderRecode;
 import org.apache.sysml.runtime.transform.encode.Encoder;
 import org.apache.sysml.runtime.transform.meta.TfMetaUtils;
+import org.apache.sysml.runtime.util.StringLongHashMap;
+import org.apache.sysml.runtime.util.StringLongHashMap.StringLongIterator;
 import org.apache.sysml.runtime.util.UtilFunctions;
 import org.apache.wink.json4j.JSONException;
 import org.apache.wink.json4j.JSONObject;
@@ -59,6 +60,9 @@ public class RecodeAgent extends Encoder
 	private HashMap<Integer, HashMap<String, Long>> _rcdMaps  = new HashMap<Integer, HashMap<String, Long>>();
 	private HashMap<Integer, HashMap<String,String>> _finalMaps = null;
 	
+	// HashMap< columnID, StringLongHashMap<distinctValue, code> > (block build/apply)
+	private HashMap<Integer, StringLongHashMap> _codeMaps = new HashMap<Integer, StringLongHashMap>();
+	
 	public RecodeAgent(JSONObject parsedSpec, List<String> colnames, int clen)
 		throws JSONException 
 	{
@@ -96,6 +100,10 @@ public class RecodeAgent extends Encoder
 		return _finalMaps;
 	}
 	
+	public HashMap<Integer, StringLongHashMap> getCodeMaps() {
+		return _codeMaps;
+	}
+	
 	void prepare(String[] words, TfUtils agents) {
 		if ( _colList == null && _mvrcdList == null )
 			return;
@@ -401,23 +409,92 @@ public class RecodeAgent extends Encoder
 		if( !isApplicable() )
 			return;		
 		
-		Iterator<String[]> iter = in.getStringRowIterator();
+		for( int j=0; j<_colList.length; j++ ) {
+			int colID = _colList[j]; //1-based
+			//allocate column map if necessary
+			if( !_codeMaps.containsKey(colID) ) 
+				_codeMaps.put(colID, new StringLongHashMap());
+			
+			//probe and build column map
+			buildColumn(in, colID, _codeMaps.get(colID), 0, in.getNumRows());
+		}
+	}
+	
+	@Override
+	public boolean isBuildPartitionable() {
+		return true;
+	}
+	
+	@Override
+	public Object buildPartial(FrameBlock in, int j, int rl, int ru) {
+		//partial map with codes in order of first occurrence in [rl, ru)
+		StringLongHashMap map = new StringLongHashMap();
+		buildColumn(in, _colList[j], map, rl, ru);
+		return map;
+	}
+	
+	@Override
+	public void mergeBuild(int j, Object partial) {
+		int colID = _colList[j]; //1-based
+		if( !_codeMaps.containsKey(colID) ) 
+			_codeMaps.put(colID, new StringLongHashMap());
+		StringLongHashMap map = _codeMaps.get(colID);
+		
+		//add distinct values in order of their partial codes, which
+		//yields the same codes as a single-threaded build
+		StringLongHashMap pmap = (StringLongHashMap) partial;
+		String[] keys = new String[pmap.size()];
+		StringLongIterator iter = pmap.getIterator();
 		while( iter.hasNext() ) {
-			String[] row = iter.next(); 
-			for( int j=0; j<_colList.length; j++ ) {
-				int colID = _colList[j]; //1-based
-				//allocate column map if necessary
-				if( !_rcdMaps.containsKey(colID) ) 
-					_rcdMaps.put(colID, new HashMap<String,Long>());
-				//probe and build column map
-				HashMap<String,Long> map = _rcdMaps.get(colID);
-				String key = row[colID-1];
-				if( key!=null && !key.isEmpty() && !map.containsKey(key) )
-					map.put(key, new Long(map.size()+1));
+			iter.next();
+			keys[(int)iter.getValue()-1] = iter.getKey();
+		}
+		for( String key : keys )
+			putRecodeMapEntry(map, key);
+	}
+	
+	/**
+	 * Probes and builds the given column map over the rows [rl, ru); for 
+	 * dictionary-encoded columns only once per distinct value in order 
+	 * of first occurrence.
+	 * 
+	 * @param in
+	 * @param colID
+	 * @param map
+	 * @param rl
+	 * @param ru
+	 */
+	private static void buildColumn(FrameBlock in, int colID, StringLongHashMap map, int rl, int ru) {
+		if( in.isDictionaryEncoded(colID-1) ) {
+			String[] dict = in.getColumnDictionary(colID-1);
+			int[] codes = in.getColumnCodes(colID-1);
+			boolean[] probed = new boolean[dict.length+1];
+			for( int i=rl; i<ru; i++ ) {
+				int code = codes[i];
+				if( code > 0 && !probed[code] ) {
+					probed[code] = true;
+					putRecodeMapEntry(map, dict[code-1]);
+				}
+			}
+		}
+		else {
+			for( int i=rl; i<ru; i++ ) {
+				Object okey = in.get(i, colID-1);
+				putRecodeMapEntry(map, (okey!=null) ? okey.toString() : null);
 			}
 		}
 	}
 	
+	/**
+	 * 
+	 * @param map
+	 * @param key
+	 */
+	private static void putRecodeMapEntry(StringLongHashMap map, String key) {
+		if( key!=null && !key.isEmpty() )
+			map.putIfAbsent(key, map.size()+1);
+	}
+	
 	/**
 	 * Method to apply transformations.
 	 * 
@@ -445,19 +522,57 @@ public class RecodeAgent extends Encoder
 	
 	@Override
 	public MatrixBlock apply(FrameBlock in, MatrixBlock out) {
+		apply(in, out, out, 0, in.getNumRows());
+		return out;
+	}
+	
+	@Override
+	public boolean isApplyPartitionable() {
+		return true;
+	}
+	
+	@Override
+	public void apply(FrameBlock in, MatrixBlock out, MatrixBlock ret, int rl, int ru) {
 		//apply recode maps column wise
 		for( int j=0; j<_colList.length; j++ ) {
 			int colID = _colList[j];
-			for( int i=0; i<in.getNumRows(); i++ ) {
+			StringLongHashMap map = _codeMaps.get(colID);
+			
+			//dictionary-encoded column: lookup once per distinct value
+			if( in.isDictionaryEncoded(colID-1) ) {
+				String[] dict = in.getColumnDictionary(colID-1);
+				int[] codes = in.getColumnCodes(colID-1);
+				double[] lookup = new double[dict.length+1];
+				boolean[] probed = new boolean[dict.length+1];
+				for( int i=rl; i<ru; i++ ) {
+					int code = codes[i];
+					if( !probed[code] ) {
+						lookup[code] = lookupCode(map, (code>0) ? dict[code-1] : null);
+						probed[code] = true;
+					}
+					ret.quickSetValue(i, colID-1, lookup[code]);
+				}
+				continue;
+			}
+			
+			for( int i=rl; i<ru; i++ ) {
 				Object okey = in.get(i, colID-1);
 				String key = (okey!=null) ? okey.toString() : null;
-				String val = lookupRCDMap(colID, key);			
-				out.quickSetValue(i, colID-1, (val!=null) ? 
-						Double.parseDouble(val) : Double.NaN);
+				ret.quickSetValue(i, colID-1, lookupCode(map, key));
 			}
 		}
-		
-		return out;
+	}
+
+	/**
+	 * Returns the code of the given key, or NaN for unseen keys.
+	 * 
+	 * @param map
+	 * @param key
+	 * @return
+	 */
+	private static double lookupCode(StringLongHashMap map, String key) {
+		long code = (map != null) ? map.get(key) : -1;
+		return (code > 0) ? code : Double.NaN;
 	}
 
 	@Override
@@ -470,21 +585,24 @@ public class RecodeAgent extends Encoder
 		//allocate output rows
 		int maxDistinct = 0;
 		for( int j=0; j<_colList.length; j++ )
-			if( _rcdMaps.containsKey(_colList[j]) )
-				maxDistinct = Math.max(maxDistinct, _rcdMaps.get(_colList[j]).size());
+			if( _codeMaps.containsKey(_colList[j]) )
+				maxDistinct = Math.max(maxDistinct, _codeMaps.get(_colList[j]).size());
 		meta.ensureAllocatedColumns(maxDistinct);
 		
 		//create compact meta data representation
 		for( int j=0; j<_colList.length; j++ ) {
 			int colID = _colList[j]; //1-based
 			int rowID = 0;
-			if( _rcdMaps.containsKey(_colList[j]) )
-				for( Entry<String, Long> e : _rcdMaps.get(colID).entrySet() ) {
-					String tmp = constructRecodeMapEntry(e.getKey(), e.getValue());
+			if( _codeMaps.containsKey(_colList[j]) ) {
+				StringLongIterator iter = _codeMaps.get(colID).getIterator();
+				while( iter.hasNext() ) {
+					iter.next();
+					String tmp = constructRecodeMapEntry(iter.getKey(), iter.getValue());
 					meta.set(rowID++, colID-1, tmp); 
 				}
+			}
 			meta.getColumnMetadata(colID-1).setNumDistinct(
-					_rcdMaps.get(colID).size());
+					_codeMaps.get(colID).size());
 		}
 		
 		return meta;
@@ -503,7 +621,7 @@ public class RecodeAgent extends Encoder
 		
 		for( int j=0; j<_colList.length; j++ ) {
 			int colID = _colList[j]; //1-based
-			_rcdMaps.put(colID, meta.getRecodeMap(colID-1));
+			_codeMaps.put(colID, meta.getStringLongRecodeMap(colID-1));
 		}
 	}
 	
@@ -516,5 +634,15 @@ public class RecodeAgent extends Encoder
 	public static String constructRecodeMapEntry(String token, Long code) {
 		return token + Lop.DATATYPE_PREFIX + code.toString();
 	}
+	
+	/**
+	 * 
+	 * @param token
+	 * @param code
+	 * @return
+	 */
+	public static String constructRecodeMapEntry(String token, long code) {
+		return token + Lop.DATATYPE_PREFIX + code;
+	}
 }
  
\ No newline at end of file
@@ -19,7 +19,6 @@
 
 package org.apache.sysml.runtime.transform.decode;
 
-import java.util.HashMap;
 import java.util.List;
 
 import org.apache.sysml.lops.Lop;
@@ -39,7 +38,8 @@ public class DecoderRecode extends Decoder
 {
 	private static final long serialVersionUID = -3784249774608228805L;
 
-	private HashMap<Long, Object>[] _rcMaps = null;
+	//inverted recode maps, indexed by code (codes are dense 1..n)
+	private Object[][] _rcMaps = null;
 	private boolean _onOut = false;
 	
 	protected DecoderRecode(List<ValueType> schema, boolean onOut, int[] rcCols) {
@@ -56,7 +56,7 @@ public class DecoderRecode extends Decoder
 					double val = UtilFunctions.objectToDouble(
 							out.getSchema().get(colID-1), out.get(i, colID-1));
 					long key = UtilFunctions.toLong(val);
-					out.set(i, colID-1, _rcMaps[j].get(key));
+					out.set(i, colID-1, lookupToken(_rcMaps[j], key));
 				}
 			}
 		}
@@ -66,27 +66,47 @@ public class DecoderRecode extends Decoder
 				for( int j=0; j<_colList.length; j++ ) {
 					double val = in.quickGetValue(i, _colList[j]-1);
 					long key = UtilFunctions.toLong(val);
-					out.set(i, _colList[j]-1, _rcMaps[j].get(key));
+					out.set(i, _colList[j]-1, lookupToken(_rcMaps[j], key));
 				}
 			}
 		}
 		return out;
 	}
 
+	/**
+	 * Returns the token of the given code, or null for unknown codes.
+	 * 
+	 * @param map
+	 * @param code
+	 * @return
+	 */
+	private static Object lookupToken(Object[] map, long code) {
+		return (code >= 0 && code < map.length) ? map[(int)code] : null;
+	}
+
 	@Override
-	@SuppressWarnings("unchecked")
 	public void initMetaData(FrameBlock meta) {
 		//initialize recode maps according to schema
-		_rcMaps = new HashMap[_colList.length];
+		_rcMaps = new Object[_colList.length][];
 		for( int j=0; j<_colList.length; j++ ) {
-			HashMap<Long, Object> map = new HashMap<Long, Object>();
-			for( int i=0; i<meta.getNumRows(); i++ ) {
-				if( meta.get(i, _colList[j]-1)==null )
-					break; //reached end of recode map
-				String[] tmp = meta.get(i, _colList[j]-1).toString().split(Lop.DATATYPE_PREFIX);				
-				Object obj = UtilFunctions.stringToObject(_schema.get(_colList[j]-1), tmp[0]);
-				map.put(Long.parseLong(tmp[1]), obj);				
+			//parse tokens and codes, and determine max code
+			int len = 0;
+			while( len < meta.getNumRows() && meta.get(len, _colList[j]-1)!=null )
+				len++; //until end of recode map
+			Object[] objs = new Object[len];
+			long[] codes = new long[len];
+			long maxCode = 0;
+			for( int i=0; i<len; i++ ) {
+				String[] tmp = meta.get(i, _colList[j]-1).toString().split(Lop.DATATYPE_PREFIX);
+				objs[i] = UtilFunctions.stringToObject(_schema.get(_colList[j]-1), tmp[0]);
+				codes[i] = Long.parseLong(tmp[1]);
+				maxCode = Math.max(maxCode, codes[i]);
 			}
+			
+			//create inverted map as array indexed by code
+			Object[] map = new Object[(int)maxCode+1];
+			for( int i=0; i<len; i++ )
+				map[(int)codes[i]] = objs[i];
 			_rcMaps[j] = map;
 		}
 	}
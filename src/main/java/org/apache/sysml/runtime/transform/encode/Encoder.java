@@ -29,6 +29,7 @@ import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.IntWritable;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.OutputCollector;
+import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.matrix.data.FrameBlock;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.transform.DistinctValue;
@@ -136,6 +137,129 @@ public abstract class Encoder implements Serializable
 	 */
 	public abstract MatrixBlock apply(FrameBlock in, MatrixBlock out);
 	
+	/**
+	 * Multi-threaded block encode: build and apply (transform encode)
+	 * with up to k threads. By default, encoders fall back to the 
+	 * single-threaded encode.
+	 * 
+	 * @param in
+	 * @param out
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException 
+	 */
+	public MatrixBlock encode(FrameBlock in, MatrixBlock out, int k) 
+		throws DMLRuntimeException 
+	{
+		return encode(in, out);
+	}
+	
+	/**
+	 * Multi-threaded build of the transform meta data with up to k threads.
+	 * By default, encoders fall back to the single-threaded build.
+	 * 
+	 * @param in
+	 * @param k
+	 * @throws DMLRuntimeException 
+	 */
+	public void build(FrameBlock in, int k) 
+		throws DMLRuntimeException 
+	{
+		build(in);
+	}
+	
+	/**
+	 * Multi-threaded encode of the input data according to existing transform 
+	 * meta data (transform apply) with up to k threads. By default, encoders 
+	 * fall back to the single-threaded apply.
+	 * 
+	 * @param in
+	 * @param out
+	 * @param k
+	 * @return
+	 * @throws DMLRuntimeException 
+	 */
+	public MatrixBlock apply(FrameBlock in, MatrixBlock out, int k) 
+		throws DMLRuntimeException 
+	{
+		return apply(in, out);
+	}
+	
+	/**
+	 * Indicates if the build of this encoder can be partitioned by columns
+	 * and row ranges, i.e., if buildPartial and mergeBuild are supported.
+	 * 
+	 * @return
+	 */
+	public boolean isBuildPartitionable() {
+		return false;
+	}
+	
+	/**
+	 * Builds the partial transform meta data of column _colList[j] over the 
+	 * rows [rl, ru) of the given block, without modifying the encoder state.
+	 * This call is thread-safe for disjoint row ranges and columns.
+	 * 
+	 * @param in
+	 * @param j
+	 * @param rl
+	 * @param ru
+	 * @return
+	 */
+	public Object buildPartial(FrameBlock in, int j, int rl, int ru) {
+		throw new RuntimeException("Partitioned build not supported.");
+	}
+	
+	/**
+	 * Merges the partial meta data of column _colList[j] into the encoder state. 
+	 * For a result equivalent to the single-threaded build, partial results of 
+	 * a column need to be merged in order of their row ranges.
+	 * 
+	 * @param j
+	 * @param partial
+	 */
+	public void mergeBuild(int j, Object partial) {
+		throw new RuntimeException("Partitioned build not supported.");
+	}
+	
+	/**
+	 * Indicates if the apply of this encoder can be partitioned by row ranges, 
+	 * i.e., if prepareApply and the row range apply are supported.
+	 * 
+	 * @return
+	 */
+	public boolean isApplyPartitionable() {
+		return false;
+	}
+	
+	/**
+	 * Allocates the output of a row-partitioned apply. Encoders that
+	 * preserve the output shape encode in place and return the input.
+	 * 
+	 * @param in
+	 * @param out
+	 * @return
+	 */
+	public MatrixBlock prepareApply(FrameBlock in, MatrixBlock out) {
+		return out;
+	}
+	
+	/**
+	 * Encode the rows [rl, ru) of the input data, where rows of out are read
+	 * and the same rows of the prepared output ret are written. This call is 
+	 * thread-safe for disjoint row ranges if ret is allocated in dense format; 
+	 * the number of non-zeros of ret needs to be recomputed afterwards.
+	 * 
+	 * @param in
+	 * @param out
+	 * @param ret
+	 * @param rl
+	 * @param ru
+	 */
+	public void apply(FrameBlock in, MatrixBlock out, MatrixBlock ret, int rl, int ru) {
+		throw new RuntimeException("Partitioned apply not supported.");
+	}
+	
 	/**
 	 * Encode input data according to existing transform meta
 	 * data (transform apply).
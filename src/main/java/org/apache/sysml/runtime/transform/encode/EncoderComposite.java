@@ -20,9 +20,13 @@
 package org.apache.sysml.runtime.transform.encode;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -30,10 +34,12 @@ import org.apache.hadoop.io.IntWritable;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.OutputCollector;
 import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.matrix.data.FrameBlock;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.transform.DistinctValue;
 import org.apache.sysml.runtime.transform.TfUtils;
+import org.apache.sysml.runtime.util.CommonThreadPool;
 
 /**
  * Simple composite encoder that applies a list of encoders 
@@ -45,6 +51,10 @@ public class EncoderComposite extends Encoder
 {
 	private static final long serialVersionUID = -8473768154646831882L;
 	
+	//internal configuration of multi-threaded build and apply
+	private static final long PAR_NUMCELL_THRESHOLD = 1024*1024; //Min 1M cells
+	private static final int PAR_MIN_ROWS_PER_TASK = 16*1024;    //Min 16K rows per task
+	
 	private List<Encoder> _encoders = null;
 	private FrameBlock _meta = null;
 	
@@ -90,11 +100,78 @@ public class EncoderComposite extends Encoder
 		return out;
 	}
 
+	@Override
+	public MatrixBlock encode(FrameBlock in, MatrixBlock out, int k) 
+		throws DMLRuntimeException 
+	{
+		//build meta data first (for all encoders)
+		build(in, k);
+		
+		//propagate meta data 
+		_meta = new FrameBlock(in.getNumColumns(), ValueType.STRING);
+		for( Encoder encoder : _encoders )
+			_meta = encoder.getMetaData(_meta);
+		for( Encoder encoder : _encoders )
+			encoder.initMetaData(_meta);
+		
+		//apply meta data
+		return apply(in, out, k);
+	}
+	
 	@Override
 	public void build(FrameBlock in) {
 		for( Encoder encoder : _encoders )
 			encoder.build(in);
 	}
+	
+	@Override
+	public void build(FrameBlock in, int k) 
+		throws DMLRuntimeException 
+	{
+		if( !satisfiesMultiThreadingConstraints(in, k) ) {
+			build(in);
+			return;
+		}
+		
+		//create partial build tasks per encoder, column, and row range, where 
+		//the rows are only partitioned if there are too few columns for k threads
+		int ncol = 0;
+		for( Encoder encoder : _encoders )
+			if( encoder.isBuildPartitionable() && encoder.isApplicable() )
+				ncol += encoder.getColList().length;
+		if( ncol == 0 ) {
+			build(in);
+			return;
+		}
+		int nrow = in.getNumRows();
+		int nblk = Math.min((int)Math.ceil((double)k/ncol), 
+			(int)Math.ceil((double)nrow/PAR_MIN_ROWS_PER_TASK));
+		int blklen = (int)Math.ceil((double)nrow/nblk);
+		ArrayList<BuildTask> tasks = new ArrayList<BuildTask>();
+		for( Encoder encoder : _encoders )
+			if( encoder.isBuildPartitionable() && encoder.isApplicable() )
+				for( int j=0; j<encoder.getColList().length; j++ )
+					for( int i=0; i*blklen<nrow; i++ )
+						tasks.add(new BuildTask(encoder, in, j, i*blklen, Math.min((i+1)*blklen, nrow)));
+		
+		try {
+			ExecutorService pool = CommonThreadPool.get(k);
+			List<Future<Object>> taskret = pool.invokeAll(tasks);
+			pool.shutdown();
+			
+			//merge partial meta data in order of row ranges
+			for( int i=0; i<tasks.size(); i++ )
+				tasks.get(i).getEncoder().mergeBuild(tasks.get(i).getColPos(), taskret.get(i).get());
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		
+		//build remaining encoders single-threaded
+		for( Encoder encoder : _encoders )
+			if( !encoder.isBuildPartitionable() )
+				encoder.build(in);
+	}
 
 
 	@Override
@@ -111,6 +188,70 @@ public class EncoderComposite extends Encoder
 		return out;
 	}
 	
+	@Override 
+	public MatrixBlock apply(FrameBlock in, MatrixBlock out, int k) 
+		throws DMLRuntimeException 
+	{
+		if( !satisfiesMultiThreadingConstraints(in, k) )
+			return apply(in, out);
+		
+		int nrow = in.getNumRows();
+		int nblk = Math.min(k, (int)Math.ceil((double)nrow/PAR_MIN_ROWS_PER_TASK));
+		int blklen = (int)Math.ceil((double)nrow/nblk);
+		boolean recomputeNnz = false;
+		
+		try {
+			ExecutorService pool = CommonThreadPool.get(k);
+			for( Encoder encoder : _encoders ) {
+				MatrixBlock ret = encoder.isApplyPartitionable() ? 
+					encoder.prepareApply(in, out) : null;
+				if( ret == null || ret.isInSparseFormat() ) {
+					//single-threaded apply (e.g., omit, sparse outputs) on valid nnz
+					if( recomputeNnz )
+						out.recomputeNonZeros();
+					out = encoder.apply(in, out);
+					recomputeNnz = false;
+					continue;
+				}
+				
+				//apply over disjoint row ranges into a dense output,
+				//with one barrier per encoder because subsequent encoders
+				//read the outputs of their predecessors
+				ret.allocateDenseBlock(false);
+				ArrayList<ApplyTask> tasks = new ArrayList<ApplyTask>();
+				for( int i=0; i*blklen<nrow; i++ )
+					tasks.add(new ApplyTask(encoder, in, out, ret, i*blklen, Math.min((i+1)*blklen, nrow)));
+				for( Future<Object> task : pool.invokeAll(tasks) )
+					task.get();
+				out = ret;
+				recomputeNnz = true;
+			}
+			pool.shutdown();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+		
+		//concurrent writes do not maintain the nnz
+		if( recomputeNnz )
+			out.recomputeNonZeros();
+		
+		return out;
+	}
+	
+	/**
+	 * Indicates if the given input is large enough for multi-threaded
+	 * transform build and apply.
+	 * 
+	 * @param in
+	 * @param k
+	 * @return
+	 */
+	private static boolean satisfiesMultiThreadingConstraints(FrameBlock in, int k) {
+		return k > 1 && in.getNumRows() >= 2*PAR_MIN_ROWS_PER_TASK
+			&& (long)in.getNumRows()*in.getNumColumns() >= PAR_NUMCELL_THRESHOLD;
+	}
+	
 	@Override
 	public FrameBlock getMetaData(FrameBlock out) {
 		if( _meta != null )
@@ -140,4 +281,65 @@ public class EncoderComposite extends Encoder
 	public void loadTxMtd(JobConf job, FileSystem fs, Path txMtdDir, TfUtils agents) throws IOException {
 		throw new RuntimeException("File-based api not supported.");
 	}
+	
+	/**
+	 * Task for the partial build of a single encoder column over a row range.
+	 */
+	private static class BuildTask implements Callable<Object>
+	{
+		private final Encoder _encoder;
+		private final FrameBlock _in;
+		private final int _j;
+		private final int _rl;
+		private final int _ru;
+		
+		protected BuildTask(Encoder encoder, FrameBlock in, int j, int rl, int ru) {
+			_encoder = encoder;
+			_in = in;
+			_j = j;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		public Encoder getEncoder() {
+			return _encoder;
+		}
+		
+		public int getColPos() {
+			return _j;
+		}
+		
+		@Override
+		public Object call() {
+			return _encoder.buildPartial(_in, _j, _rl, _ru);
+		}
+	}
+	
+	/**
+	 * Task for the apply of a single encoder over a row range.
+	 */
+	private static class ApplyTask implements Callable<Object>
+	{
+		private final Encoder _encoder;
+		private final FrameBlock _in;
+		private final MatrixBlock _out;
+		private final MatrixBlock _ret;
+		private final int _rl;
+		private final int _ru;
+		
+		protected ApplyTask(Encoder encoder, FrameBlock in, MatrixBlock out, MatrixBlock ret, int rl, int ru) {
+			_encoder = encoder;
+			_in = in;
+			_out = out;
+			_ret = ret;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Object call() {
+			_encoder.apply(_in, _out, _ret, _rl, _ru);
+			return null;
+		}
+	}
 }
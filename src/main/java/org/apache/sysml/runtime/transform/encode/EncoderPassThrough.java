@@ -65,18 +65,27 @@ public class EncoderPassThrough extends Encoder
 	
 	@Override 
 	public MatrixBlock apply(FrameBlock in, MatrixBlock out) {
+		apply(in, out, out, 0, in.getNumRows());
+		return out;
+	}
+	
+	@Override
+	public boolean isApplyPartitionable() {
+		return true;
+	}
+	
+	@Override
+	public void apply(FrameBlock in, MatrixBlock out, MatrixBlock ret, int rl, int ru) {
 		for( int j=0; j<_colList.length; j++ ) {
 			int col = _colList[j]-1;
 			ValueType vt = in.getSchema().get(col);
-			for( int i=0; i<in.getNumRows(); i++ ) {
+			for( int i=rl; i<ru; i++ ) {
 				Object val = in.get(i, col);
-				out.quickSetValue(i, col, (val==null||(vt==ValueType.STRING 
+				ret.quickSetValue(i, col, (val==null||(vt==ValueType.STRING 
 						&& val.toString().isEmpty())) ? Double.NaN : 
 						UtilFunctions.objectToDouble(vt, val));
 			}
 		}
-		
-		return out;
 	}
 
 	@Override
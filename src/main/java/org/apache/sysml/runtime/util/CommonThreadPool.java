@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.runtime.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
+import org.apache.sysml.utils.Statistics;
+
+/**
+ * Shared, JVM-wide work-stealing thread pool for all multi-threaded CP
+ * operations (matrix mult, aggregates, reorg, dnn, compressed ops, and
+ * the parallel readers and writers).
+ *
+ * Instead of creating and tearing down a fixed thread pool per operation,
+ * each operation obtains a lightweight handle via {@link #get(int)}, which
+ * implements the {@link java.util.concurrent.ExecutorService} interface and
+ * hence can be used as a drop-in replacement. All handles submit to a single
+ * fork-join pool sized by the local parallelism. Each handle bounds the number
+ * of its concurrently running tasks to the requested degree of parallelism k,
+ * supports per-task cancellation via the returned futures, and its shutdown
+ * does not affect the shared pool or other handles.
+ *
+ * Note that blocking on the futures of a handle from within a worker of the
+ * shared pool (nested parallelism) runs pending tasks of this handle in the
+ * calling thread in order to prevent thread starvation.
+ */
+public class CommonThreadPool extends AbstractExecutorService
+{
+	//shared fork-join pool, lazily created on first use (daemon threads, no explicit cleanup)
+	private static ForkJoinPool _shared = null;
+
+	//per-handle pending tasks and state
+	private final ForkJoinPool _pool;
+	private final int _k;
+	private final ConcurrentLinkedQueue<PoolTask<?>> _queue = new ConcurrentLinkedQueue<PoolTask<?>>();
+	private final AtomicInteger _active = new AtomicInteger(0);
+	private volatile boolean _shutdown = false;
+
+	private CommonThreadPool(ForkJoinPool pool, int k) {
+		_pool = pool;
+		_k = Math.max(k, 1);
+	}
+
+	/**
+	 * Obtains a new handle to the shared thread pool that executes
+	 * at most k tasks concurrently.
+	 *
+	 * @param k degree of parallelism
+	 * @return executor service handle
+	 */
+	public static CommonThreadPool get(int k) {
+		return new CommonThreadPool(getSharedPool(), k);
+	}
+
+	/**
+	 * Gets the parallelism of the shared thread pool.
+	 *
+	 * @return number of worker threads of the shared pool
+	 */
+	public static int getSharedParallelism() {
+		return getSharedPool().getParallelism();
+	}
+
+	private static synchronized ForkJoinPool getSharedPool() {
+		if( _shared == null )
+			_shared = new ForkJoinPool(Math.max(
+				InfrastructureAnalyzer.getLocalParallelism(), 1));
+		return _shared;
+	}
+
+	@Override
+	protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+		return new PoolTask<T>(this, callable);
+	}
+
+	@Override
+	protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+		return new PoolTask<T>(this, runnable, value);
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		if( _shutdown )
+			throw new RejectedExecutionException("Thread pool handle already shut down.");
+		PoolTask<?> task = (command instanceof PoolTask && ((PoolTask<?>)command)._handle == this) ?
+			(PoolTask<?>)command : (PoolTask<?>)newTaskFor(command, null);
+		task._tenqueue = DMLScript.STATISTICS ? System.nanoTime() : 0;
+		_queue.offer(task);
+		if( tryAcquireRunner() )
+			_pool.execute(new TaskRunner());
+	}
+
+	@Override
+	public void shutdown() {
+		//only marks the handle, the shared pool remains active
+		_shutdown = true;
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		_shutdown = true;
+		//cancel all pending tasks of this handle
+		List<Runnable> ret = new ArrayList<Runnable>();
+		PoolTask<?> task = null;
+		while( (task = _queue.poll()) != null ) {
+			task.cancel(true);
+			ret.add(task);
+		}
+		return ret;
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return _shutdown;
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return _shutdown && _queue.isEmpty() && _active.get()==0;
+	}
+
+	@Override
+	public synchronized boolean awaitTermination(long timeout, TimeUnit unit)
+		throws InterruptedException
+	{
+		long tend = System.nanoTime() + unit.toNanos(timeout);
+		while( !isTerminated() ) {
+			long twait = TimeUnit.NANOSECONDS.toMillis(tend - System.nanoTime());
+			if( twait <= 0 )
+				return false;
+			wait(twait);
+		}
+		return true;
+	}
+
+	private boolean tryAcquireRunner() {
+		while( true ) {
+			int active = _active.get();
+			if( active >= _k )
+				return false;
+			if( _active.compareAndSet(active, active+1) )
+				return true;
+		}
+	}
+
+	private void runPending() {
+		PoolTask<?> task = null;
+		while( (task = _queue.poll()) != null ) {
+			if( DMLScript.STATISTICS )
+				Statistics.incrementCPThreadPoolTasks(System.nanoTime() - task._tenqueue);
+			task.run();
+		}
+	}
+
+	private synchronized void notifyTermination() {
+		notifyAll();
+	}
+
+	/**
+	 * Worker-side runner that drains the pending tasks of a handle.
+	 * At most k runners per handle are active at any time.
+	 */
+	private class TaskRunner implements Runnable
+	{
+		@Override
+		public void run() {
+			while( true ) {
+				runPending();
+				_active.decrementAndGet();
+				//re-check for tasks enqueued after the final poll
+				if( _queue.isEmpty() || !tryAcquireRunner() )
+					break;
+			}
+			if( _shutdown )
+				notifyTermination();
+		}
+	}
+
+	/**
+	 * Future of a single task, which can be cancelled individually.
+	 * If a worker of the shared pool blocks on this future, it helps
+	 * executing pending tasks of the same handle.
+	 */
+	private static class PoolTask<T> extends FutureTask<T>
+	{
+		private final CommonThreadPool _handle;
+		private long _tenqueue = 0;
+
+		public PoolTask(CommonThreadPool handle, Callable<T> callable) {
+			super(callable);
+			_handle = handle;
+		}
+
+		public PoolTask(CommonThreadPool handle, Runnable runnable, T value) {
+			super(runnable, value);
+			_handle = handle;
+		}
+
+		@Override
+		public T get() throws InterruptedException, ExecutionException {
+			helpIfNested();
+			return super.get();
+		}
+
+		@Override
+		public T get(long timeout, TimeUnit unit)
+			throws InterruptedException, ExecutionException, TimeoutException
+		{
+			helpIfNested();
+			return super.get(timeout, unit);
+		}
+
+		private void helpIfNested() {
+			if( !isDone() && Thread.currentThread() instanceof ForkJoinWorkerThread
+				&& ((ForkJoinWorkerThread)Thread.currentThread()).getPool() == _handle._pool )
+			{
+				_handle.runPending();
+			}
+		}
+	}
+}
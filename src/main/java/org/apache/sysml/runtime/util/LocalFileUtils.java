@@ -23,11 +23,18 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.HashMap;
 
 import org.apache.hadoop.io.Writable;
@@ -37,14 +44,19 @@ import org.apache.sysml.conf.DMLConfig;
 import org.apache.sysml.lops.Lop;
 import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.controlprogram.caching.CacheBlock;
+import org.apache.sysml.runtime.controlprogram.caching.CacheableData;
 import org.apache.sysml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
 import org.apache.sysml.runtime.controlprogram.parfor.util.IDSequence;
 import org.apache.sysml.runtime.io.IOUtilFunctions;
+import org.apache.sysml.runtime.matrix.data.DenseBlock;
 import org.apache.sysml.runtime.matrix.data.FrameBlock;
+import org.apache.sysml.runtime.matrix.data.LibMatrixFP32;
 import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
 import org.apache.sysml.runtime.matrix.data.MatrixValue;
 import org.apache.sysml.runtime.matrix.data.Pair;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+import org.apache.sysml.runtime.matrix.data.SparseBlockCSR;
 
 public class LocalFileUtils 
 {
@@ -60,8 +72,44 @@ public class LocalFileUtils
 	public static final String CATEGORY_RESULTMERGE  = "resultmerge";
 	public static final String CATEGORY_WORK         = "work";
 	
+	//memory-mapped eviction format: signature (w/ leading byte that is invalid as
+	//first byte of the stream format), header in native byte order, and contiguous 
+	//dense values or CSR arrays (values, row pointers, column indexes)
+	private static final byte[] MMAP_SIGNATURE = new byte[]{(byte)0xFF,'S','Y','S','M','M','A','P'};
+	private static final int MMAP_HEADER_SIZE = 32; 
+	private static final int MMAP_EMPTY  = 0;
+	private static final int MMAP_DENSE  = 1;
+	private static final int MMAP_SPARSE = 2;
+	private static final int MMAP_DENSE_FP32 = 3;
+	private static final long MMAP_WINDOW_SIZE = 256L*1024*1024; //multiple of 8
+	
+	//reflective handles for explicit unmap of mapped buffers 
+	private static Object _unsafe = null;
+	private static Method _invokeCleaner = null;
+	private static Method _cleaner = null;
+	private static Method _clean = null;
+	
 	static {
 		_seq = new IDSequence();
+		
+		//obtain unmap handles (Java 9+ or older JVMs), if available
+		try {
+			Class<?> cla = Class.forName("sun.misc.Unsafe");
+			_invokeCleaner = cla.getMethod("invokeCleaner", ByteBuffer.class);
+			Field f = cla.getDeclaredField("theUnsafe");
+			f.setAccessible(true);
+			_unsafe = f.get(null);
+		}
+		catch(Exception ex) {
+			try {
+				_invokeCleaner = null;
+				_cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+				_clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+			}
+			catch(Exception ex2) {
+				_cleaner = null; //unmap on garbage collection
+			}
+		}
 	}
 	
 	/** Reads a matrix block from local file system. */
@@ -86,6 +134,8 @@ public class LocalFileUtils
 	
 	/** Reads a matrix/frame block from local file system. */
 	public static CacheBlock readCacheBlockFromLocal(String filePathAndName, boolean matrix) throws IOException {
+		if( matrix && isMappedCacheFile(filePathAndName) )
+			return readMappedMatrixBlockFromLocal(filePathAndName);
 		return (CacheBlock) readWritableFromLocal(filePathAndName, matrix?new MatrixBlock():new FrameBlock());
 	}
 	
@@ -125,7 +175,220 @@ public class LocalFileUtils
 	
 	/** Writes a matrix/frame block to local file system. */
 	public static void writeCacheBlockToLocal(String filePathAndName, CacheBlock cb) throws IOException {
-		writeWritableToLocal(filePathAndName, cb);
+		if( CacheableData.CACHING_EVICTION_MMAP && isValidMappedBlock(cb) )
+			writeMappedMatrixBlockToLocal(filePathAndName, (MatrixBlock)cb);
+		else
+			writeWritableToLocal(filePathAndName, cb);
+	}
+	
+	/**
+	 * Writes a matrix block in the memory-mapped eviction format, where dense 
+	 * values and sparse CSR arrays are laid out contiguously in native byte 
+	 * order. This allows for bulk copies on restore instead of deserializing
+	 * the block value by value. With single-precision caching, dense values
+	 * are written as floats, if they are within the float range.
+	 * 
+	 * @param filePathAndName
+	 * @param mb
+	 * @throws IOException
+	 */
+	public static void writeMappedMatrixBlockToLocal(String filePathAndName, MatrixBlock mb)
+		throws IOException
+	{
+		int rlen = mb.getNumRows();
+		int clen = mb.getNumColumns();
+		long nnz = mb.getNonZeros();
+		MappedFile out = null;
+		int type = mb.isEmptyBlock(false) ? MMAP_EMPTY : 
+			mb.isInSparseFormat() ? MMAP_SPARSE : 
+			(CacheableData.isSinglePrecision() && LibMatrixFP32.isInSinglePrecisionRange(mb)) ? 
+			MMAP_DENSE_FP32 : MMAP_DENSE;
+		if( type == MMAP_SPARSE ) //robustness against outdated nnz
+			nnz = mb.getSparseBlock().size();
+		
+		//determine file size
+		long size = MMAP_HEADER_SIZE;
+		if( type == MMAP_DENSE )
+			size += 8L * rlen * clen;
+		else if( type == MMAP_DENSE_FP32 )
+			size += 4L * rlen * clen;
+		else if( type == MMAP_SPARSE )
+			size += 8L * nnz + 4L * (rlen+1) + 4L * nnz;
+		
+		FileChannel channel = null;
+		try {
+			Path path = Paths.get(filePathAndName);
+			channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+			out = new MappedFile(channel, MapMode.READ_WRITE, size);
+			
+			//write header
+			out.putHeader(rlen, clen, type, nnz);
+			
+			//write dense values or sparse csr arrays
+			if( type == MMAP_DENSE ) {
+				DenseBlock a = mb.getDenseBlockObject();
+				for( int bix=0; bix<a.numBlocks(); bix++ )
+					out.putDoubles(a.valuesAt(bix), 0, a.size(bix));
+			}
+			else if( type == MMAP_DENSE_FP32 ) {
+				DenseBlock a = mb.getDenseBlockObject();
+				for( int bix=0; bix<a.numBlocks(); bix++ )
+					out.putDoublesAsFloats(a.valuesAt(bix), 0, a.size(bix));
+			}
+			else if( type == MMAP_SPARSE ) {
+				SparseBlock sblock = mb.getSparseBlock();
+				for( int i=0; i<rlen; i++ )
+					if( !sblock.isEmpty(i) )
+						out.putDoubles(sblock.values(i), sblock.pos(i), sblock.size(i));
+				int[] rptr = new int[rlen+1];
+				for( int i=0; i<rlen; i++ )
+					rptr[i+1] = rptr[i] + (sblock.isEmpty(i) ? 0 : sblock.size(i));
+				out.putInts(rptr, 0, rlen+1);
+				for( int i=0; i<rlen; i++ )
+					if( !sblock.isEmpty(i) )
+						out.putInts(sblock.indexes(i), sblock.pos(i), sblock.size(i));
+			}
+		}
+		finally {
+			if( out != null )
+				out.close();
+			IOUtilFunctions.closeSilently(channel);
+		}
+	}
+	
+	/**
+	 * Writes a dense matrix block given as single-precision float arrays (one
+	 * per row block) in the memory-mapped eviction format.
+	 * 
+	 * @param filePathAndName
+	 * @param data
+	 * @param rlen
+	 * @param clen
+	 * @throws IOException
+	 */
+	public static void writeMappedMatrixBlockToLocal(String filePathAndName, float[][] data, int rlen, int clen)
+		throws IOException
+	{
+		FileChannel channel = null;
+		MappedFile out = null;
+		try {
+			Path path = Paths.get(filePathAndName);
+			channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+			out = new MappedFile(channel, MapMode.READ_WRITE, MMAP_HEADER_SIZE + 4L * rlen * clen);
+			out.putHeader(rlen, clen, MMAP_DENSE_FP32, (long)rlen*clen); //nnz recomputed on read
+			for( float[] block : data )
+				out.putFloats(block, 0, block.length);
+		}
+		finally {
+			if( out != null )
+				out.close();
+			IOUtilFunctions.closeSilently(channel);
+		}
+	}
+	
+	/**
+	 * Reads a matrix block in the memory-mapped eviction format, by mapping
+	 * the file and bulk-copying the contiguous arrays into the heap block.
+	 * 
+	 * @param filePathAndName
+	 * @return
+	 * @throws IOException
+	 */
+	public static MatrixBlock readMappedMatrixBlockFromLocal(String filePathAndName)
+		throws IOException
+	{
+		FileChannel channel = null;
+		MappedFile in = null;
+		try {
+			Path path = Paths.get(filePathAndName);
+			channel = FileChannel.open(path, StandardOpenOption.READ);
+			in = new MappedFile(channel, MapMode.READ_ONLY, channel.size());
+			
+			//read header
+			int[] header = in.getHeader();
+			int rlen = header[0], clen = header[1], type = header[2];
+			long nnz = in.getNnz();
+			
+			//read dense values or sparse csr arrays
+			boolean dense = (type==MMAP_DENSE || type==MMAP_DENSE_FP32);
+			if( type == MMAP_SPARSE && nnz > Integer.MAX_VALUE )
+				throw new IOException("Invalid number of non-zeros for sparse CSR restore: "+nnz);
+			MatrixBlock ret = null;
+			if( type == MMAP_SPARSE ) {
+				//restore csr arrays as sparse block w/o row-wise copies
+				int[] rptr = new int[rlen+1];
+				int[] cix = new int[(int)nnz];
+				double[] vals = new double[(int)nnz];
+				in.getDoubles(vals, 0, (int)nnz);
+				in.getInts(rptr, 0, rlen+1);
+				in.getInts(cix, 0, (int)nnz);
+				ret = new MatrixBlock(rlen, clen, nnz, 
+					new SparseBlockCSR(rptr, cix, vals, (int)nnz));
+			}
+			else
+				ret = new MatrixBlock(rlen, clen, !dense, (type==MMAP_EMPTY)? 0 : nnz);
+			if( dense ) {
+				ret.allocateDenseBlock();
+				DenseBlock a = ret.getDenseBlockObject();
+				for( int bix=0; bix<a.numBlocks(); bix++ ) {
+					if( type == MMAP_DENSE )
+						in.getDoubles(a.valuesAt(bix), 0, a.size(bix));
+					else
+						in.getFloatsAsDoubles(a.valuesAt(bix), 0, a.size(bix));
+				}
+				if( type == MMAP_DENSE_FP32 ) //values might have underflowed to zero
+					ret.recomputeNonZeros();
+			}
+			ret.setNonZeros((type==MMAP_EMPTY)? 0 : nnz);
+			
+			return ret;
+		}
+		finally {
+			if( in != null )
+				in.close();
+			IOUtilFunctions.closeSilently(channel);
+		}
+	}
+	
+	/**
+	 * Indicates if the given file is in the memory-mapped eviction format.
+	 * 
+	 * @param filePathAndName
+	 * @return
+	 * @throws IOException
+	 */
+	private static boolean isMappedCacheFile(String filePathAndName) 
+		throws IOException
+	{
+		FileInputStream fis = new FileInputStream( filePathAndName );
+		try {
+			byte[] sig = new byte[MMAP_SIGNATURE.length];
+			int off = 0, len = 0;
+			while( off < sig.length && (len = fis.read(sig, off, sig.length-off)) > 0 )
+				off += len;
+			return (off == sig.length) && Arrays.equals(sig, MMAP_SIGNATURE);
+		}
+		finally {
+			IOUtilFunctions.closeSilently(fis);
+		}
+	}
+	
+	/**
+	 * Indicates if the given cache block can be written in the memory-mapped 
+	 * eviction format, i.e., an uncompressed matrix block whose dense values 
+	 * are addressable by a single array.
+	 * 
+	 * @param cb
+	 * @return
+	 */
+	private static boolean isValidMappedBlock(CacheBlock cb) {
+		if( cb.getClass() != MatrixBlock.class )
+			return false; //frame or compressed blocks
+		MatrixBlock mb = (MatrixBlock) cb;
+		return (mb.isInSparseFormat() && mb.getNonZeros() <= Integer.MAX_VALUE) || mb.isEmptyBlock(false)
+			|| (long)mb.getNumRows()*mb.getNumColumns() <= Integer.MAX_VALUE;
 	}
 	
 	/**
@@ -550,4 +813,163 @@ public class LocalFileUtils
 		
 		return ret;
 	}
+	
+	/**
+	 * Releases the given mapped buffer explicitly (via Unsafe.invokeCleaner 
+	 * in Java 9+ or the buffer's cleaner in older JVMs), because mapped 
+	 * buffers are otherwise only unmapped on garbage collection, which keeps 
+	 * evicted files mapped and prevents their deletion on some platforms. 
+	 * If neither is available, we fall back to unmap on garbage collection.
+	 * The buffer must not be accessed afterwards.
+	 * 
+	 * @param buff mapped buffer
+	 */
+	private static void unmap(MappedByteBuffer buff) 
+	{
+		try {
+			if( _unsafe != null )
+				_invokeCleaner.invoke(_unsafe, buff);
+			else if( _cleaner != null ) {
+				Object cleaner = _cleaner.invoke(buff);
+				if( cleaner != null )
+					_clean.invoke(cleaner);
+			}
+		}
+		catch(Exception ex) {
+			//ignore, unmapped on garbage collection
+		}
+	}
+	
+	/**
+	 * Sequential reader/writer over a memory-mapped file, which maps the file
+	 * in windows of bounded size (mapped buffers are limited to 2GB) and 
+	 * transfers primitive arrays via bulk get/put of typed buffer views.
+	 */
+	private static class MappedFile
+	{
+		private final FileChannel _channel;
+		private final MapMode _mode;
+		private final long _size;
+		private MappedByteBuffer _buff = null;
+		private long _start = 0; //file offset of current window
+		private long _pos = 0;   //current file offset
+		
+		public MappedFile(FileChannel channel, MapMode mode, long size) {
+			_channel = channel;
+			_mode = mode;
+			_size = size;
+		}
+		
+		public void putHeader(int rlen, int clen, int type, long nnz) throws IOException {
+			ByteBuffer b = getWindow(MMAP_HEADER_SIZE);
+			b.put(MMAP_SIGNATURE);
+			b.putInt(rlen).putInt(clen).putInt(type).putInt(0).putLong(nnz);
+			_pos += MMAP_HEADER_SIZE;
+		}
+		
+		public int[] getHeader() throws IOException {
+			ByteBuffer b = getWindow(MMAP_HEADER_SIZE);
+			b.position(b.position()+MMAP_SIGNATURE.length);
+			return new int[]{b.getInt(), b.getInt(), b.getInt()};
+		}
+		
+		public long getNnz() throws IOException {
+			ByteBuffer b = getWindow(MMAP_HEADER_SIZE);
+			long nnz = b.getLong(b.position()+24);
+			_pos += MMAP_HEADER_SIZE;
+			return nnz;
+		}
+		
+		public void putDoubles(double[] a, int off, int len) throws IOException {
+			while( len > 0 ) {
+				ByteBuffer b = getWindow(8);
+				int n = Math.min(len, b.remaining()/8);
+				b.asDoubleBuffer().put(a, off, n);
+				_pos += 8L*n; off += n; len -= n;
+			}
+		}
+		
+		public void getDoubles(double[] a, int off, int len) throws IOException {
+			while( len > 0 ) {
+				ByteBuffer b = getWindow(8);
+				int n = Math.min(len, b.remaining()/8);
+				b.asDoubleBuffer().get(a, off, n);
+				_pos += 8L*n; off += n; len -= n;
+			}
+		}
+		
+		public void putFloats(float[] a, int off, int len) throws IOException {
+			while( len > 0 ) {
+				ByteBuffer b = getWindow(4);
+				int n = Math.min(len, b.remaining()/4);
+				b.asFloatBuffer().put(a, off, n);
+				_pos += 4L*n; off += n; len -= n;
+			}
+		}
+		
+		public void putDoublesAsFloats(double[] a, int off, int len) throws IOException {
+			while( len > 0 ) {
+				ByteBuffer b = getWindow(4);
+				int n = Math.min(len, b.remaining()/4);
+				FloatBuffer fb = b.asFloatBuffer();
+				for( int i=off; i<off+n; i++ )
+					fb.put((float)a[i]);
+				_pos += 4L*n; off += n; len -= n;
+			}
+		}
+		
+		public void getFloatsAsDoubles(double[] a, int off, int len) throws IOException {
+			while( len > 0 ) {
+				ByteBuffer b = getWindow(4);
+				int n = Math.min(len, b.remaining()/4);
+				FloatBuffer fb = b.asFloatBuffer();
+				for( int i=off; i<off+n; i++ )
+					a[i] = fb.get();
+				_pos += 4L*n; off += n; len -= n;
+			}
+		}
+		
+		public void putInts(int[] a, int off, int len) throws IOException {
+			while( len > 0 ) {
+				ByteBuffer b = getWindow(4);
+				int n = Math.min(len, b.remaining()/4);
+				b.asIntBuffer().put(a, off, n);
+				_pos += 4L*n; off += n; len -= n;
+			}
+		}
+		
+		public void getInts(int[] a, int off, int len) throws IOException {
+			while( len > 0 ) {
+				ByteBuffer b = getWindow(4);
+				int n = Math.min(len, b.remaining()/4);
+				b.asIntBuffer().get(a, off, n);
+				_pos += 4L*n; off += n; len -= n;
+			}
+		}
+		
+		/**
+		 * Releases the current window. Note that the file channel is 
+		 * closed by the caller.
+		 */
+		public void close() {
+			if( _buff != null )
+				unmap(_buff);
+			_buff = null;
+		}
+		
+		/**
+		 * Returns the current window positioned at the current file offset,
+		 * after remapping if less than the requested bytes are available. 
+		 */
+		private ByteBuffer getWindow(int minBytes) throws IOException {
+			if( _buff == null || _pos + minBytes > _start + _buff.capacity() ) {
+				close(); //release previous window
+				_start = _pos;
+				_buff = _channel.map(_mode, _start, Math.min(MMAP_WINDOW_SIZE, _size-_start));
+				_buff.order(ByteOrder.nativeOrder());
+			}
+			_buff.position((int)(_pos - _start));
+			return _buff;
+		}
+	}
 }
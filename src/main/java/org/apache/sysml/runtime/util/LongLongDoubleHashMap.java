@@ -17,9 +17,11 @@
  * under the License.
  */
 
+
 package org.apache.sysml.runtime.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * This native long long - double hashmap is specifically designed for
@@ -27,25 +29,47 @@ import java.util.ArrayList;
  * In contrast to a default hashmap the native representation allows us
  * to be more memory-efficient which is important for large maps in order
  * to keep data in the caches and prevent high-latency random memory access. 
+ * The map uses open addressing with linear probing over parallel arrays 
+ * of keys and values, i.e., it does not allocate objects per entry. 
+ * Since each slot requires 24 bytes, the capacity is not restricted to 
+ * powers of two but grows by a factor of 1.5 (with multiplicative hashing
+ * into the slot range) in order to avoid large overallocation for maps 
+ * just past a resize boundary. Long.MIN_VALUE is reserved to mark empty 
+ * slots and hence not supported as first key.
  * 
  */
 public class LongLongDoubleHashMap 
 {
 	private static final int INIT_CAPACITY = 8;
-	private static final int RESIZE_FACTOR = 2;
-	private static final float LOAD_FACTOR = 0.75f;
+	private static final double RESIZE_FACTOR = 1.5;
+	private static final double LOAD_FACTOR = 0.75;
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+	private static final long EMPTY = Long.MIN_VALUE;
 
-	private LLDoubleEntry[] data = null;
-	private int size = -1;
+	private long[] _keys1 = null;
+	private long[] _keys2 = null;
+	private double[] _values = null;
+	private int _size = -1;
 	
 	public LongLongDoubleHashMap()
 	{
-		data = new LLDoubleEntry[INIT_CAPACITY];
-		size = 0;
+		this(INIT_CAPACITY);
+	}
+	
+	/**
+	 * Creates a map that holds the given number of entries without resizing.
+	 * 
+	 * @param numEntries
+	 */
+	public LongLongDoubleHashMap(int numEntries)
+	{
+		long capacity = (long)Math.ceil(Math.max(numEntries, 1) / LOAD_FACTOR) + 1;
+		allocate((int)Math.max(Math.min(capacity, MAX_CAPACITY), INIT_CAPACITY));
+		_size = 0;
 	}
 
 	public int size() {
-		return size;
+		return _size;
 	}
 	
 	/**
@@ -56,116 +80,165 @@ public class LongLongDoubleHashMap
 	 */
 	public void addValue(long key1, long key2, double value)
 	{
-		//compute entry index position
-		int hash = hash(key1, key2);
-		int ix = indexFor(hash, data.length);
-
-		//find existing entry and add value
-		for( LLDoubleEntry e = data[ix]; e!=null; e = e.next ) {
-			if( e.key1==key1 && e.key2==key2 ) {
-				e.value += value;
+		if( key1 == EMPTY )
+			throw new RuntimeException("Unsupported key: "+key1);
+		
+		//probe for existing entry and add value
+		int ix = slot(key1, key2, _keys1.length);
+		while( _keys1[ix] != EMPTY ) {
+			if( _keys1[ix]==key1 && _keys2[ix]==key2 ) {
+				_values[ix] += value;
 				return; //no need to append or resize
 			}
+			ix = (ix + 1 < _keys1.length) ? ix + 1 : 0;
 		}
 		
-		//add non-existing entry (constant time)
-		LLDoubleEntry enew = new LLDoubleEntry(key1, key2, value);
-		enew.next = data[ix]; //colliding entries / null
-		data[ix] = enew;
-		size++;
+		//add non-existing entry into empty slot
+		_keys1[ix] = key1;
+		_keys2[ix] = key2;
+		_values[ix] = value;
+		_size++;
 		
 		//resize if necessary
-		if( size >= LOAD_FACTOR*data.length )
+		if( _size >= LOAD_FACTOR*_keys1.length )
 			resize();
 	}
 	
 	/**
+	 * Extracts all entries as objects, which is only 
+	 * meant for small maps or infrequent use.
 	 * 
 	 * @return
 	 */
 	public ArrayList<LLDoubleEntry> extractValues()
 	{
-		ArrayList<LLDoubleEntry> ret = new ArrayList<LLDoubleEntry>();
-		for( LLDoubleEntry e : data ) {
-			if( e != null ) {
-				while( e.next!=null ) {
-					ret.add(e);
-					e = e.next;
-				}
-				ret.add(e);	
-			}
-		}
-
+		ArrayList<LLDoubleEntry> ret = new ArrayList<LLDoubleEntry>(_size);
+		for( int i=0; i<_keys1.length; i++ )
+			if( _keys1[i] != EMPTY )
+				ret.add(new LLDoubleEntry(_keys1[i], _keys2[i], _values[i]));
 		return ret;
 	}
 	
+	/**
+	 * Returns an allocation-free iterator over all entries in hash order.
+	 * 
+	 * @return
+	 */
+	public LLDoubleIterator getIterator() {
+		return new LLDoubleIterator();
+	}
+	
+	/**
+	 * 
+	 * @param capacity
+	 */
+	private void allocate(int capacity) {
+		_keys1 = new long[capacity];
+		_keys2 = new long[capacity];
+		_values = new double[capacity];
+		Arrays.fill(_keys1, EMPTY);
+	}
+	
 	/**
 	 * 
 	 */
 	private void resize() {
-		//check for integer overflow on resize
-		if( data.length > Integer.MAX_VALUE/RESIZE_FACTOR )
+		//check for maximum array size on resize
+		if( _keys1.length >= MAX_CAPACITY ) {
+			if( _size >= _keys1.length-1 )
+				throw new RuntimeException("Exceeded maximum hash map capacity: "+_size);
 			return;
+		}
 		
-		//resize data array and copy existing contents
-		LLDoubleEntry[] olddata = data;
-		data = new LLDoubleEntry[data.length*RESIZE_FACTOR];
-		size = 0;
-		
-		//rehash all entries
-		for( LLDoubleEntry e : olddata ) {
-			if( e != null ) {
-				while( e.next!=null ) {
-					addValue(e.key1, e.key2, e.value);
-					e = e.next;
-				}
-				addValue(e.key1, e.key2, e.value);	
-			}
+		//resize data arrays and reinsert existing entries
+		long[] okeys1 = _keys1;
+		long[] okeys2 = _keys2;
+		double[] ovalues = _values;
+		allocate((int)Math.min((long)(okeys1.length*RESIZE_FACTOR), MAX_CAPACITY));
+		int len = _keys1.length;
+		for( int i=0; i<okeys1.length; i++ ) {
+			if( okeys1[i] == EMPTY )
+				continue;
+			int ix = slot(okeys1[i], okeys2[i], len);
+			while( _keys1[ix] != EMPTY )
+				ix = (ix + 1 < len) ? ix + 1 : 0;
+			_keys1[ix] = okeys1[i];
+			_keys2[ix] = okeys2[i];
+			_values[ix] = ovalues[i];
 		}
 	}
 	
 	/**
+	 * Maps the given keys to a slot in [0, capacity), where the 
+	 * multiplicative hash spreads the keys over the upper 32 bits,
+	 * which are then scaled to the (not necessarily power of two) 
+	 * capacity without modulo.
 	 * 
 	 * @param key1
 	 * @param key2
+	 * @param capacity
 	 * @return
 	 */
-	private static int hash(long key1, long key2) {
-		//basic hash mixing of two longs hashes (w/o object creation)
-		int h = (int)(key1 ^ (key1 >>> 32));
-		h = h*31 + (int)(key2 ^ (key2 >>> 32));
-		
-		// This function ensures that hashCodes that differ only by
-		// constant multiples at each bit position have a bounded
-		// number of collisions (approximately 8 at default load factor).
-		h ^= (h >>> 20) ^ (h >>> 12);
-		return h ^ (h >>> 7) ^ (h >>> 4);
-	}
-
-	/**
-	 * 
-	 * @param h
-	 * @param length
-	 * @return
-	 */
-	private static int indexFor(int h, int length) {
-		return h & (length-1);
+	private static int slot(long key1, long key2, int capacity) {
+		//hash mixing of two longs (w/o object creation)
+		long h = (key1 * 0x9E3779B97F4A7C15L + key2) * 0x9E3779B97F4A7C15L;
+		return (int)(((h >>> 32) * capacity) >>> 32);
 	}
 	
 	/**
 	 * 
 	 */
-	public class LLDoubleEntry {
+	public static class LLDoubleEntry {
 		public long key1 = Long.MAX_VALUE;
 		public long key2 = Long.MAX_VALUE;
 		public double value = Double.MAX_VALUE;
-		public LLDoubleEntry next = null;
 		
 		public LLDoubleEntry(long k1, long k2, double val) {
 			key1 = k1;
 			key2 = k2;
 			value = val;
-			next = null;
+		}
+	}
+	
+	/**
+	 * Allocation-free iterator over the map entries, where next
+	 * advances to the next entry that is then accessible via 
+	 * getKey1, getKey2, and getValue. 
+	 */
+	public class LLDoubleIterator 
+	{
+		private int _ix = -1;
+		private int _next = -1;
+		
+		protected LLDoubleIterator() {
+			_next = nextSlot(0);
+		}
+		
+		public boolean hasNext() {
+			return _next < _keys1.length;
+		}
+		
+		public void next() {
+			_ix = _next;
+			_next = nextSlot(_ix+1);
+		}
+		
+		public long getKey1() {
+			return _keys1[_ix];
+		}
+		
+		public long getKey2() {
+			return _keys2[_ix];
+		}
+		
+		public double getValue() {
+			return _values[_ix];
+		}
+		
+		private int nextSlot(int ix) {
+			while( ix < _keys1.length && _keys1[ix] == EMPTY )
+				ix++;
+			return ix;
 		}
 	}
 }
@@ -19,9 +19,14 @@
 
 package org.apache.sysml.runtime.util;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import org.apache.sysml.runtime.DMLRuntimeException;
 import org.apache.sysml.runtime.controlprogram.parfor.stat.Timing;
 
 /**
@@ -30,6 +35,9 @@ import org.apache.sysml.runtime.controlprogram.parfor.stat.Timing;
  */
 public class SortUtils 
 {
+	//min number of values for multi-threaded sorting
+	public static final int PAR_SORT_THRESHOLD = 64*1024;
+	
 	/**
 	 * 
 	 * @param start
@@ -426,11 +434,11 @@ public class SortUtils
     	sortByValue(start, end, values, indexes);
     	
     	// Maintain the stability of the index order.
-		for( int i=0; i<values.length-1; i++ ) {
+		for( int i=start; i<end-1; i++ ) {
 			double tmp = values[i];
 			//determine run of equal values
 			int len = 0;
-			while( i+len+1<values.length && tmp==values[i+len+1] )
+			while( i+len+1<end && tmp==values[i+len+1] )
 				len++;
 			//unstable sort of run indexes (equal value guaranteed)
 			if( len>0 ) {
@@ -442,6 +450,307 @@ public class SortUtils
 
       
     
+	/**
+	 * Multi-threaded in-place sort of the given values (ascending). The array is
+	 * partitioned into k ranges, which are sorted in parallel and subsequently 
+	 * merged in log k rounds of parallel pairwise merges. 
+	 * 
+	 * @param values
+	 * @param k
+	 * @throws DMLRuntimeException
+	 */
+	public static void sortParallel(double[] values, int k) 
+		throws DMLRuntimeException
+	{
+		int len = values.length;
+		if( k <= 1 || len < PAR_SORT_THRESHOLD ) {
+			Arrays.sort(values);
+			return;
+		}
+		
+		try {
+			ExecutorService pool = CommonThreadPool.get(k);
+			int[] bounds = getRangeBounds(len, k);
+			
+			//step 1: parallel sort of ranges
+			ArrayList<SortTask> tasks = new ArrayList<SortTask>();
+			for( int i=0; i<bounds.length-1; i++ )
+				tasks.add(new SortTask(values, null, bounds[i], bounds[i+1]));
+			for( Future<Object> task : pool.invokeAll(tasks) )
+				task.get();
+			
+			//step 2: parallel pairwise merge of sorted ranges
+			mergeRanges(pool, values, null, bounds);
+			pool.shutdown();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * Multi-threaded in-place stable sort of values and indexes, where values are
+	 * used for comparison and ties are ordered by ascending index. For initial 
+	 * indexes of 0..n-1, this gives the stable order of the input positions.
+	 * Consistent with Arrays.sort, NaN values are ordered last.
+	 * 
+	 * @param values
+	 * @param indexes
+	 * @param k
+	 * @throws DMLRuntimeException
+	 */
+	public static void sortByValueStable(double[] values, int[] indexes, int k) 
+		throws DMLRuntimeException
+	{
+		//move NaNs to the end, and sort the remaining values
+		int len = moveNaNsToEnd(values, indexes);
+		if( k <= 1 || len < PAR_SORT_THRESHOLD ) {
+			sortByValueStable(0, len, values, indexes);
+			return;
+		}
+		
+		try {
+			ExecutorService pool = CommonThreadPool.get(k);
+			int[] bounds = getRangeBounds(len, k);
+			
+			//step 1: parallel sort of ranges (stable within ranges)
+			ArrayList<SortTask> tasks = new ArrayList<SortTask>();
+			for( int i=0; i<bounds.length-1; i++ )
+				tasks.add(new SortTask(values, indexes, bounds[i], bounds[i+1]));
+			for( Future<Object> task : pool.invokeAll(tasks) )
+				task.get();
+			
+			//step 2: parallel pairwise merge of sorted ranges
+			mergeRanges(pool, values, indexes, bounds);
+			pool.shutdown();
+		}
+		catch(Exception ex) {
+			throw new DMLRuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * Selects the k-th smallest value (0-based, relative to start) of the given 
+	 * range without sorting it completely (quickselect with median-of-three pivots,
+	 * expected linear time). The range is reordered in-place. Consistent 
+	 * with Arrays.sort, -0.0 is smaller than 0.0 and NaN is the largest value.
+	 * 
+	 * @param values
+	 * @param start
+	 * @param end
+	 * @param k
+	 * @return k-th smallest value
+	 */
+	public static double selectKth(double[] values, int start, int end, int k)
+	{
+		int lo = start, hi = end-1, pos = start+k;
+		while( hi > lo ) {
+			//median-of-three pivot and hoare partitioning
+			double pivot = values[med3(values, lo, (lo+hi)>>>1, hi)];
+			int i = lo, j = hi;
+			while( i <= j ) {
+				while( Double.compare(values[i], pivot) < 0 ) i++;
+				while( Double.compare(values[j], pivot) > 0 ) j--;
+				if( i <= j ) {
+					double tmp = values[i];
+					values[i++] = values[j];
+					values[j--] = tmp;
+				}
+			}
+			//continue with the partition that contains the position
+			if( pos <= j )
+				hi = j;
+			else if( pos >= i )
+				lo = i;
+			else
+				break; //pos between j and i, equal to pivot
+		}
+		return values[pos];
+	}
+	
+	/**
+	 * Moves all NaN values (and their indexes) to the end of the given arrays, 
+	 * where the NaN indexes are kept in ascending order. 
+	 * 
+	 * @param values
+	 * @param indexes
+	 * @return number of non-NaN values
+	 */
+	private static int moveNaNsToEnd(double[] values, int[] indexes) 
+	{
+		int len = values.length;
+		int nnan = 0;
+		for( int i=0; i<len; i++ )
+			nnan += Double.isNaN(values[i]) ? 1 : 0;
+		if( nnan == 0 )
+			return len;
+		
+		//compact non-NaN values, and collect NaN indexes
+		int[] nanix = new int[nnan];
+		int pos = 0, npos = 0;
+		for( int i=0; i<len; i++ ) {
+			if( Double.isNaN(values[i]) )
+				nanix[npos++] = indexes[i];
+			else {
+				values[pos] = values[i];
+				indexes[pos++] = indexes[i];
+			}
+		}
+		
+		//append NaN values w/ ascending indexes
+		Arrays.sort(nanix);
+		Arrays.fill(values, pos, len, Double.NaN);
+		System.arraycopy(nanix, 0, indexes, pos, nnan);
+		return pos;
+	}
+	
+	/**
+	 * 
+	 * @param len
+	 * @param k
+	 * @return
+	 */
+	private static int[] getRangeBounds(int len, int k) 
+	{
+		int blklen = (int)Math.ceil((double)len/k);
+		int numBlks = (int)Math.ceil((double)len/blklen);
+		int[] bounds = new int[numBlks+1];
+		for( int i=0; i<numBlks; i++ )
+			bounds[i] = i*blklen;
+		bounds[numBlks] = len;
+		return bounds;
+	}
+	
+	/**
+	 * 
+	 * @param pool
+	 * @param values
+	 * @param indexes
+	 * @param bounds
+	 * @throws Exception
+	 */
+	private static void mergeRanges(ExecutorService pool, double[] values, int[] indexes, int[] bounds) 
+		throws Exception
+	{
+		//merge rounds alternate between input and temporary arrays
+		//(note: indexes sorts exclude trailing NaNs, see bounds)
+		double[] src = values, dst = new double[values.length];
+		int[] srcix = indexes, dstix = (indexes!=null) ? new int[indexes.length] : null;
+		
+		int numRanges = bounds.length-1;
+		for( int width=1; width<numRanges; width*=2 ) {
+			ArrayList<MergeTask> tasks = new ArrayList<MergeTask>();
+			for( int i=0; i<numRanges; i+=2*width ) {
+				int mid = Math.min(i+width, numRanges);
+				int hi = Math.min(i+2*width, numRanges);
+				tasks.add(new MergeTask(src, srcix, dst, dstix, bounds[i], bounds[mid], bounds[hi]));
+			}
+			for( Future<Object> task : pool.invokeAll(tasks) )
+				task.get();
+			
+			//swap input and output arrays
+			double[] tmp = src; src = dst; dst = tmp;
+			int[] tmpix = srcix; srcix = dstix; dstix = tmpix;
+		}
+		
+		//copy result back if necessary
+		int len = bounds[numRanges];
+		if( src != values ) {
+			System.arraycopy(src, 0, values, 0, len);
+			if( indexes != null )
+				System.arraycopy(srcix, 0, indexes, 0, len);
+		}
+	}
+	
+	/**
+	 * Merges the sorted ranges [lo,mid) and [mid,hi) of src into dst, 
+	 * where ties are resolved by ascending index (if available) or 
+	 * by taking the left range first. Values w/o indexes are compared
+	 * consistent with Arrays.sort (-0.0 before 0.0, NaN last), while 
+	 * values w/ indexes contain no NaNs.
+	 */
+	private static void merge(double[] src, int[] srcix, double[] dst, int[] dstix, int lo, int mid, int hi)
+	{
+		int i = lo, j = mid, pos = lo;
+		if( srcix == null ) {
+			while( i < mid && j < hi )
+				dst[pos++] = (Double.compare(src[j], src[i]) < 0) ? src[j++] : src[i++];
+		}
+		else {
+			while( i < mid && j < hi ) {
+				if( src[j] < src[i] || (src[j] == src[i] && srcix[j] < srcix[i]) ) {
+					dstix[pos] = srcix[j];
+					dst[pos++] = src[j++];
+				}
+				else {
+					dstix[pos] = srcix[i];
+					dst[pos++] = src[i++];
+				}
+			}
+		}
+		
+		//copy remaining tails
+		if( i < mid ) {
+			System.arraycopy(src, i, dst, pos, mid-i);
+			if( srcix != null )
+				System.arraycopy(srcix, i, dstix, pos, mid-i);
+		}
+		else if( j < hi ) {
+			System.arraycopy(src, j, dst, pos, hi-j);
+			if( srcix != null )
+				System.arraycopy(srcix, j, dstix, pos, hi-j);
+		}
+	}
+	
+	/**
+	 * Task for sorting a range of values (and optionally indexes).
+	 */
+	private static class SortTask implements Callable<Object> 
+	{
+		private final double[] _values;
+		private final int[] _indexes;
+		private final int _rl;
+		private final int _ru;
+		
+		protected SortTask(double[] values, int[] indexes, int rl, int ru) {
+			_values = values;
+			_indexes = indexes;
+			_rl = rl;
+			_ru = ru;
+		}
+		
+		@Override
+		public Object call() {
+			if( _indexes == null )
+				Arrays.sort(_values, _rl, _ru);
+			else
+				sortByValueStable(_rl, _ru, _values, _indexes);
+			return null;
+		}
+	}
+	
+	/**
+	 * Task for merging two adjacent sorted ranges.
+	 */
+	private static class MergeTask implements Callable<Object> 
+	{
+		private final double[] _src, _dst;
+		private final int[] _srcix, _dstix;
+		private final int _lo, _mid, _hi;
+		
+		protected MergeTask(double[] src, int[] srcix, double[] dst, int[] dstix, int lo, int mid, int hi) {
+			_src = src; _srcix = srcix;
+			_dst = dst; _dstix = dstix;
+			_lo = lo; _mid = mid; _hi = hi;
+		}
+		
+		@Override
+		public Object call() {
+			merge(_src, _srcix, _dst, _dstix, _lo, _mid, _hi);
+			return null;
+		}
+	}
+	
     /**
      * 
      * @param array
@@ -0,0 +1,303 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.runtime.util;
+
+import java.io.Serializable;
+
+/**
+ * This native string - long hashmap is specifically designed for recode
+ * maps, i.e., mappings from distinct tokens to their codes or counts. In 
+ * contrast to a HashMap<String,Long>, it uses open addressing with linear 
+ * probing over parallel arrays of keys, precomputed key hashes, and primitive
+ * values, which avoids entry objects and boxed values per distinct key.
+ * Keys must not be null, and values must be non-negative because -1 is
+ * returned for non-existing keys.
+ * 
+ */
+public class StringLongHashMap implements Serializable
+{
+	private static final long serialVersionUID = -2853154925436562263L;
+	
+	private static final int INIT_CAPACITY = 8;
+	private static final int RESIZE_FACTOR = 2;
+	private static final float LOAD_FACTOR = 0.75f;
+	
+	private String[] _keys = null;
+	private int[] _hashes = null;
+	private long[] _values = null;
+	private int _size = -1;
+	
+	public StringLongHashMap() {
+		this(INIT_CAPACITY);
+	}
+	
+	public StringLongHashMap(int size) {
+		//allocate power of two capacity w/o resize for the given size
+		int capacity = INIT_CAPACITY;
+		while( capacity < size/LOAD_FACTOR+1 && capacity <= Integer.MAX_VALUE/RESIZE_FACTOR )
+			capacity *= RESIZE_FACTOR;
+		allocate(capacity);
+		_size = 0;
+	}
+	
+	/**
+	 * 
+	 * @return
+	 */
+	public int size() {
+		return _size;
+	}
+	
+	/**
+	 * Returns the value of the given key or -1 if the key does not exist.
+	 * 
+	 * @param key
+	 * @return
+	 */
+	public long get(String key) {
+		if( key == null || _size == 0 )
+			return -1;
+		int ix = lookup(key, hash(key));
+		return (_keys[ix] != null) ? _values[ix] : -1;
+	}
+	
+	/**
+	 * 
+	 * @param key
+	 * @return
+	 */
+	public boolean containsKey(String key) {
+		return get(key) != -1;
+	}
+	
+	/**
+	 * Inserts the given key - value pair or overwrites the value
+	 * of an existing key.
+	 * 
+	 * @param key
+	 * @param value
+	 */
+	public void put(String key, long value) {
+		int hash = hash(key);
+		int ix = lookup(key, hash);
+		if( _keys[ix] != null ) {
+			_values[ix] = value;
+			return;
+		}
+		insert(ix, key, hash, value);
+	}
+	
+	/**
+	 * Inserts the given key - value pair if the key does not exist yet,
+	 * with a single probe for both the lookup and the insert.
+	 * 
+	 * @param key
+	 * @param value
+	 * @return existing value or -1 if the pair was inserted
+	 */
+	public long putIfAbsent(String key, long value) {
+		int hash = hash(key);
+		int ix = lookup(key, hash);
+		if( _keys[ix] != null )
+			return _values[ix];
+		insert(ix, key, hash, value);
+		return -1;
+	}
+	
+	/**
+	 * Returns an iterator over all key - value pairs in hash order.
+	 * 
+	 * @return
+	 */
+	public StringLongIterator getIterator() {
+		return new StringLongIterator();
+	}
+	
+	@Override
+	public boolean equals(Object o) {
+		if( !(o instanceof StringLongHashMap) )
+			return false;
+		StringLongHashMap that = (StringLongHashMap) o;
+		if( _size != that._size )
+			return false;
+		for( int i=0; i<_keys.length; i++ )
+			if( _keys[i] != null && that.get(_keys[i]) != _values[i] )
+				return false;
+		return true;
+	}
+	
+	@Override
+	public int hashCode() {
+		//order-independent hash over all entries
+		int h = 0;
+		for( int i=0; i<_keys.length; i++ )
+			if( _keys[i] != null )
+				h += _hashes[i] ^ (int)(_values[i] ^ (_values[i] >>> 32));
+		return h;
+	}
+	
+	/**
+	 * Returns the slot of the given key, or the empty slot 
+	 * where the key would be inserted.
+	 * 
+	 * @param key
+	 * @param hash
+	 * @return
+	 */
+	private int lookup(String key, int hash) {
+		int mask = _keys.length - 1;
+		int ix = hash & mask;
+		while( _keys[ix] != null ) {
+			if( _hashes[ix] == hash && _keys[ix].equals(key) )
+				return ix;
+			ix = (ix + 1) & mask;
+		}
+		return ix;
+	}
+	
+	/**
+	 * 
+	 * @param ix
+	 * @param key
+	 * @param hash
+	 * @param value
+	 */
+	private void insert(int ix, String key, int hash, long value) {
+		_keys[ix] = key;
+		_hashes[ix] = hash;
+		_values[ix] = value;
+		_size++;
+		
+		//resize if necessary
+		if( _size >= LOAD_FACTOR*_keys.length )
+			resize();
+	}
+	
+	/**
+	 * 
+	 * @param capacity
+	 */
+	private void allocate(int capacity) {
+		_keys = new String[capacity];
+		_hashes = new int[capacity];
+		_values = new long[capacity];
+	}
+	
+	/**
+	 * 
+	 */
+	private void resize() {
+		//check for integer overflow on resize
+		if( _keys.length > Integer.MAX_VALUE/RESIZE_FACTOR ) {
+			if( _size >= _keys.length-1 )
+				throw new RuntimeException("Exceeded maximum hash map capacity: "+_size);
+			return;
+		}
+		
+		//resize data arrays and reinsert existing entries
+		//(w/o recomputing hashes or comparing keys)
+		String[] okeys = _keys;
+		int[] ohashes = _hashes;
+		long[] ovalues = _values;
+		allocate(okeys.length*RESIZE_FACTOR);
+		int mask = _keys.length - 1;
+		for( int i=0; i<okeys.length; i++ ) {
+			if( okeys[i] == null )
+				continue;
+			int ix = ohashes[i] & mask;
+			while( _keys[ix] != null )
+				ix = (ix + 1) & mask;
+			_keys[ix] = okeys[i];
+			_hashes[ix] = ohashes[i];
+			_values[ix] = ovalues[i];
+		}
+	}
+	
+	/**
+	 * 
+	 * @param key
+	 * @return
+	 */
+	private static int hash(String key) {
+		//string hash codes are cached by the string objects
+		int h = key.hashCode();
+		
+		// This function ensures that hashCodes that differ only by
+		// constant multiples at each bit position have a bounded
+		// number of collisions (approximately 8 at default load factor).
+		h ^= (h >>> 20) ^ (h >>> 12);
+		return h ^ (h >>> 7) ^ (h >>> 4);
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("{");
+		StringLongIterator iter = getIterator();
+		while( iter.hasNext() ) {
+			iter.next();
+			sb.append(iter.getKey());
+			sb.append('=');
+			sb.append(iter.getValue());
+			if( iter.hasNext() )
+				sb.append(", ");
+		}
+		sb.append('}');
+		return sb.toString();
+	}
+	
+	/**
+	 * Allocation-free iterator over the key - value pairs, where next
+	 * advances to the next pair that is then accessible via getKey and 
+	 * getValue. 
+	 */
+	public class StringLongIterator 
+	{
+		private int _ix = -1;
+		private int _next = -1;
+		
+		protected StringLongIterator() {
+			_next = nextSlot(0);
+		}
+		
+		public boolean hasNext() {
+			return _next < _keys.length;
+		}
+		
+		public void next() {
+			_ix = _next;
+			_next = nextSlot(_ix+1);
+		}
+		
+		public String getKey() {
+			return _keys[_ix];
+		}
+		
+		public long getValue() {
+			return _values[_ix];
+		}
+		
+		private int nextSlot(int ix) {
+			while( ix < _keys.length && _keys[ix] == null )
+				ix++;
+			return ix;
+		}
+	}
+}
@@ -72,11 +72,23 @@ public class Statistics
 	private static AtomicLong hopRecompileTime = new AtomicLong(0); //in nano sec
 	private static AtomicLong hopRecompilePred = new AtomicLong(0); //count
 	private static AtomicLong hopRecompileSB = new AtomicLong(0);   //count
+	private static AtomicLong hopRecompileCacheHits = new AtomicLong(0);   //count
+	private static AtomicLong hopRecompileCacheMisses = new AtomicLong(0); //count
 
 	//Function recompile stats 
 	private static AtomicLong funRecompileTime = new AtomicLong(0); //in nano sec
 	private static AtomicLong funRecompiles = new AtomicLong(0); //count
 	
+	//CP thread pool stats (potentially high update frequency)
+	private static AtomicLong cpPoolTasks = new AtomicLong(0); //count
+	private static AtomicLong cpPoolWaitTime = new AtomicLong(0); //in nano sec
+	
+	//Codegen compile stats
+	private static AtomicLong codegenPlanCompile = new AtomicLong(0); //count
+	private static AtomicLong codegenClassCompile = new AtomicLong(0); //count
+	private static AtomicLong codegenCompileTime = new AtomicLong(0); //in nano sec
+	private static AtomicLong codegenPlanCacheHits = new AtomicLong(0); //count
+	
 	//Spark-specific stats
 	private static long sparkCtxCreateTime = 0; 
 	private static AtomicLong sparkParallelize = new AtomicLong(0L);
@@ -99,6 +111,10 @@ public class Statistics
 	private static AtomicLong lTotalUIPVar = new AtomicLong(0);
 	private static AtomicLong lTotalLix = new AtomicLong(0);
 	private static AtomicLong lTotalLixUIP = new AtomicLong(0);
+	private static AtomicLong lTotalAppend = new AtomicLong(0);
+	private static AtomicLong lTotalAppendUIP = new AtomicLong(0);
+	private static AtomicLong lTotalRowsViews = new AtomicLong(0);
+	private static AtomicLong lTotalRowsViewsMat = new AtomicLong(0);
 	
 	
 	private static AtomicLong denseBlockAllocationTime = new AtomicLong(0);
@@ -215,6 +231,38 @@ public class Statistics
 	public static void incrementTotalLix() {
 		lTotalLix.incrementAndGet();
 	}
+
+	public static long getTotalAppendUIP() {
+		return lTotalAppendUIP.get();
+	}
+
+	public static void incrementTotalAppendUIP() {
+		lTotalAppendUIP.incrementAndGet();
+	}
+
+	public static long getTotalAppend() {
+		return lTotalAppend.get();
+	}
+
+	public static void incrementTotalAppend() {
+		lTotalAppend.incrementAndGet();
+	}
+
+	public static long getTotalRowsViews() {
+		return lTotalRowsViews.get();
+	}
+
+	public static void incrementTotalRowsViews() {
+		lTotalRowsViews.incrementAndGet();
+	}
+
+	public static long getTotalRowsViewsMaterialized() {
+		return lTotalRowsViewsMat.get();
+	}
+
+	public static void incrementTotalRowsViewsMaterialized() {
+		lTotalRowsViewsMat.incrementAndGet();
+	}
 	
 	/**
 	 * 
@@ -292,6 +340,16 @@ public class Statistics
 		hopRecompileSB.addAndGet(delta);
 	}
 
+	public static void incrementHOPRecompileCacheHits() {
+		//note: not synchronized due to use of atomics
+		hopRecompileCacheHits.incrementAndGet();
+	}
+	
+	public static void incrementHOPRecompileCacheMisses() {
+		//note: not synchronized due to use of atomics
+		hopRecompileCacheMisses.incrementAndGet();
+	}
+
 	public static void incrementFunRecompileTime( long delta ) {
 		//note: not synchronized due to use of atomics
 		funRecompileTime.addAndGet(delta);
@@ -302,6 +360,32 @@ public class Statistics
 		funRecompiles.incrementAndGet();
 	}
 	
+	public static void incrementCPThreadPoolTasks( long waitTime ) {
+		//note: not synchronized due to use of atomics
+		cpPoolTasks.incrementAndGet();
+		cpPoolWaitTime.addAndGet(waitTime);
+	}
+	
+	public static void incrementCodegenPlanCompile(long delta) {
+		//note: not synchronized due to use of atomics
+		codegenPlanCompile.addAndGet(delta);
+	}
+	
+	public static void incrementCodegenClassCompile() {
+		//note: not synchronized due to use of atomics
+		codegenClassCompile.incrementAndGet();
+	}
+	
+	public static void incrementCodegenCompileTime(long delta) {
+		//note: not synchronized due to use of atomics
+		codegenCompileTime.addAndGet(delta);
+	}
+	
+	public static void incrementCodegenPlanCacheHits() {
+		//note: not synchronized due to use of atomics
+		codegenPlanCacheHits.incrementAndGet();
+	}
+	
 	public static synchronized void incrementParForOptimCount(){
 		parforOptCount ++;
 	}
@@ -362,6 +446,16 @@ public class Statistics
 		hopRecompileTime.set(0);
 		hopRecompilePred.set(0);
 		hopRecompileSB.set(0);
+		hopRecompileCacheHits.set(0);
+		hopRecompileCacheMisses.set(0);
+		
+		cpPoolTasks.set(0);
+		cpPoolWaitTime.set(0);
+		
+		codegenPlanCompile.set(0);
+		codegenClassCompile.set(0);
+		codegenCompileTime.set(0);
+		codegenPlanCacheHits.set(0);
 		
 		parforOptCount = 0;
 		parforOptTime = 0;
@@ -371,6 +465,10 @@ public class Statistics
 		lTotalLix.set(0);
 		lTotalLixUIP.set(0);
 		lTotalUIPVar.set(0);
+		lTotalAppend.set(0);
+		lTotalAppendUIP.set(0);
+		lTotalRowsViews.set(0);
+		lTotalRowsViewsMat.set(0);
 		
 		resetJITCompileTime();
 		resetJVMgcTime();
@@ -586,6 +684,14 @@ public class Statistics
 		return hopRecompileSB.get();
 	}
 	
+	public static long getHopRecompileCacheHits(){
+		return hopRecompileCacheHits.get();
+	}
+	
+	public static long getHopRecompileCacheMisses(){
+		return hopRecompileCacheMisses.get();
+	}
+	
 	public static long getFunRecompileTime(){
 		return funRecompileTime.get();
 	}
@@ -594,6 +700,30 @@ public class Statistics
 		return funRecompiles.get();
 	}
 		
+	public static long getCodegenPlanCompile(){
+		return codegenPlanCompile.get();
+	}
+	
+	public static long getCodegenClassCompile(){
+		return codegenClassCompile.get();
+	}
+	
+	public static long getCodegenCompileTime(){
+		return codegenCompileTime.get();
+	}
+	
+	public static long getCodegenPlanCacheHits(){
+		return codegenPlanCacheHits.get();
+	}
+	
+	public static long getCPThreadPoolTasks(){
+		return cpPoolTasks.get();
+	}
+	
+	public static long getCPThreadPoolWaitTime(){
+		return cpPoolWaitTime.get();
+	}
+	
 	public static long getParforOptCount(){
 		return parforOptCount;
 	}
@@ -659,16 +789,34 @@ public class Statistics
 			sb.append("Cache hits (Mem, WB, FS, HDFS):\t" + CacheStatistics.displayHits() + ".\n");
 			sb.append("Cache writes (WB, FS, HDFS):\t" + CacheStatistics.displayWrites() + ".\n");
 			sb.append("Cache times (ACQr/m, RLS, EXP):\t" + CacheStatistics.displayTime() + " sec.\n");
+			sb.append("Cache WB times (LOCK, EVICT):\t" + CacheStatistics.displayBufferTime() + " sec.\n");
+			if( CacheStatistics.getReuseHits()+CacheStatistics.getReuseMisses()>0 )
+				sb.append("Cache reuse pool (hit/miss/put):\t" + CacheStatistics.displayReuse() + ".\n");
+			if( CacheStatistics.getLineageHits()+CacheStatistics.getLineageMisses()>0 ) {
+				sb.append("Lineage cache (inst/fcall/miss):\t" + CacheStatistics.displayLineage() + ".\n");
+				sb.append("Lineage cache saved time:\t" + CacheStatistics.displayLineageTime() + " sec.\n");
+			}
 			if(DMLScript.REUSE_NONZEROED_OUTPUT) {
 				sb.append("Allocation time (Dense/Sparse):\t" + String.format("%.3f", denseBlockAllocationTime.doubleValue()/1000000000) 
 						+ "/" + String.format("%.3f", sparseBlockAllocationTime.doubleValue()/1000000000)  + " sec.\n");
 			}
 			sb.append("HOP DAGs recompiled (PRED, SB):\t" + getHopRecompiledPredDAGs() + "/" + getHopRecompiledSBDAGs() + ".\n");
 			sb.append("HOP DAGs recompile time:\t" + String.format("%.3f", ((double)getHopRecompileTime())/1000000000) + " sec.\n");
+			if( getHopRecompileCacheHits()+getHopRecompileCacheMisses()>0 )
+				sb.append("Recompile plan cache (hit/miss):\t" + getHopRecompileCacheHits() + "/" + getHopRecompileCacheMisses() + ".\n");
 			if( getFunRecompiles()>0 ) {
 				sb.append("Functions recompiled:\t\t" + getFunRecompiles() + ".\n");
 				sb.append("Functions recompile time:\t" + String.format("%.3f", ((double)getFunRecompileTime())/1000000000) + " sec.\n");	
 			}
+			if( getCodegenPlanCompile()>0 ) {
+				sb.append("Codegen compile (DAG, JC):\t" + getCodegenPlanCompile() + "/" + getCodegenClassCompile() + ".\n");
+				sb.append("Codegen compile time (JC):\t" + String.format("%.3f", ((double)getCodegenCompileTime())/1000000000) + " sec.\n");
+				sb.append("Codegen plan cache hits:\t" + getCodegenPlanCacheHits() + ".\n");
+			}
+			if( getCPThreadPoolTasks()>0 ) {
+				sb.append("CP thread pool tasks:\t\t" + getCPThreadPoolTasks() + ".\n");
+				sb.append("CP thread pool queue wait:\t" + String.format("%.3f", ((double)getCPThreadPoolWaitTime())/1000000000) + " sec.\n");
+			}
 			if( OptimizerUtils.isSparkExecutionMode() ){
 				String lazy = SparkExecutionContext.isLazySparkContextCreation() ? "(lazy)" : "(eager)";
 				sb.append("Spark ctx create time "+lazy+":\t"+
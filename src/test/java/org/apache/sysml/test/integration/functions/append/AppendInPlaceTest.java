@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.append;
+
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.instructions.cp.MatrixAppendCPInstruction;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+import org.apache.sysml.utils.Statistics;
+
+/**
+ * Tests amortized in-place rbind/cbind appends, both on block level (in-place
+ * vs copying appends) and for loop-grown matrices, whose results are compared 
+ * against the same script w/o in-place appends.
+ */
+public class AppendInPlaceTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "AppendInPlaceTest";
+	private final static String TEST_DIR = "functions/append/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + AppendInPlaceTest.class.getSimpleName() + "/";
+	
+	private final static int rows = 137;
+	private final static int cols = 43;
+	private final static int blen = 7;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.05;
+	private final static double eps = 1e-8;
+	
+	@Override
+	public void setUp() {
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] {"R"}));
+	}
+	
+	@Test
+	public void testAppendBlockDenseRbind() {
+		runAppendInPlaceBlockTest(false, false);
+	}
+	
+	@Test
+	public void testAppendBlockDenseCbind() {
+		runAppendInPlaceBlockTest(false, true);
+	}
+	
+	@Test
+	public void testAppendBlockSparseRbind() {
+		runAppendInPlaceBlockTest(true, false);
+	}
+	
+	@Test
+	public void testAppendBlockSparseCbind() {
+		runAppendInPlaceBlockTest(true, true);
+	}
+	
+	@Test
+	public void testAppendLoopDenseCP() {
+		runAppendInPlaceLoopTest(false);
+	}
+	
+	@Test
+	public void testAppendLoopSparseCP() {
+		runAppendInPlaceLoopTest(true);
+	}
+	
+	private void runAppendInPlaceBlockTest( boolean sparse, boolean cbind ) 
+	{
+		try
+		{
+			double sparsity = sparse ? sparsity2 : sparsity1;
+			double[][] A = getRandomMatrix(rows, cols, -1, 1, sparsity, 7);
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(A);
+			
+			//grow the result by repeated in-place and copying appends of slices
+			int len = cbind ? cols : rows;
+			MatrixBlock ret1 = slice(mb, 0, blen-1, cbind);
+			MatrixBlock ret2 = slice(mb, 0, blen-1, cbind);
+			for( int i=blen; i<len; i+=blen ) {
+				MatrixBlock tmp = slice(mb, i, Math.min(i+blen, len)-1, cbind);
+				ret1 = ret1.appendOperations(tmp, new MatrixBlock(), cbind);
+				ret2 = ret2.appendOperationsInPlace(tmp, cbind);
+			}
+			
+			//compare results
+			Assert.assertEquals(ret1.getNonZeros(), ret2.getNonZeros());
+			Assert.assertEquals(mb.getNonZeros(), ret2.getNonZeros());
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(ret1), 
+				DataConverter.convertToDoubleMatrix(ret2), rows, cols, eps);
+			TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(ret2), rows, cols, eps);
+			
+			//check accounted spare capacity of over-allocated dense arrays
+			if( !ret2.isInSparseFormat() )
+				Assert.assertTrue(ret2.getInMemorySize() >= 8L*ret2.getDenseBlock().length);
+		}
+		catch(DMLRuntimeException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	private static MatrixBlock slice( MatrixBlock mb, int l, int u, boolean cbind ) 
+		throws DMLRuntimeException
+	{
+		return cbind ? 
+			mb.sliceOperations(0, rows-1, l, u, new MatrixBlock()) :
+			mb.sliceOperations(l, u, 0, cols-1, new MatrixBlock());
+	}
+	
+	private void runAppendInPlaceLoopTest( boolean sparse ) 
+	{
+		RUNTIME_PLATFORM oldPlatform = rtplatform;
+		boolean oldFlag = MatrixAppendCPInstruction.ALLOW_INPLACE_APPEND;
+		boolean oldRewrite = OptimizerUtils.ALLOW_LOOP_UPDATE_IN_PLACE;
+		
+		try
+		{
+			rtplatform = RUNTIME_PLATFORM.SINGLE_NODE;
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			loadTestConfiguration(config);
+			
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+			
+			double sparsity = sparse ? sparsity2 : sparsity1;
+			double[][] X = getRandomMatrix(rows, cols, -1, 1, sparsity, 7);
+			writeInputMatrixWithMTD("X", X, false);
+			
+			//run with copying appends
+			long numAppends = rows-1 + cols-1;
+			MatrixAppendCPInstruction.ALLOW_INPLACE_APPEND = false;
+			programArgs = new String[]{"-stats", "-args", input("X"), output("R1") };
+			runTest(true, false, null, -1); 
+			Assert.assertEquals(numAppends, Statistics.getTotalAppend());
+			Assert.assertEquals(0, Statistics.getTotalAppendUIP());
+			
+			//run with in-place appends, but w/o update-in-place rewrite
+			MatrixAppendCPInstruction.ALLOW_INPLACE_APPEND = true;
+			OptimizerUtils.ALLOW_LOOP_UPDATE_IN_PLACE = false;
+			programArgs = new String[]{"-stats", "-args", input("X"), output("R2") };
+			runTest(true, false, null, -1); 
+			Assert.assertEquals(numAppends, Statistics.getTotalAppend());
+			Assert.assertEquals(0, Statistics.getTotalAppendUIP());
+			
+			//run with in-place appends of update-in-place loop variables
+			OptimizerUtils.ALLOW_LOOP_UPDATE_IN_PLACE = true;
+			programArgs = new String[]{"-stats", "-args", input("X"), output("R3") };
+			runTest(true, false, null, -1); 
+			Assert.assertEquals(numAppends, Statistics.getTotalAppend());
+			if( sparse ) //fallbacks on changing sparse/dense formats
+				Assert.assertTrue(Statistics.getTotalAppendUIP() > 0);
+			else
+				Assert.assertEquals(numAppends, Statistics.getTotalAppendUIP());
+			
+			//compare results
+			HashMap<CellIndex, Double> ret1 = readDMLMatrixFromHDFS("R1");
+			HashMap<CellIndex, Double> ret2 = readDMLMatrixFromHDFS("R2");
+			HashMap<CellIndex, Double> ret3 = readDMLMatrixFromHDFS("R3");
+			TestUtils.compareMatrices(ret1, ret2, eps, "Copy", "NoRewrite");
+			TestUtils.compareMatrices(ret1, ret3, eps, "Copy", "InPlace");
+		}
+		finally {
+			rtplatform = oldPlatform;
+			MatrixAppendCPInstruction.ALLOW_INPLACE_APPEND = oldFlag;
+			OptimizerUtils.ALLOW_LOOP_UPDATE_IN_PLACE = oldRewrite;
+		}
+	}
+}
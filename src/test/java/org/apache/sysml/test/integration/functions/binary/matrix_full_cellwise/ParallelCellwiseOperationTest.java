@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.binary.matrix_full_cellwise;
+
+import org.apache.sysml.runtime.functionobjects.Minus;
+import org.apache.sysml.runtime.functionobjects.Multiply;
+import org.apache.sysml.runtime.functionobjects.Plus;
+import org.apache.sysml.runtime.functionobjects.ValueFunction;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.RightScalarOperator;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Compares multi-threaded against single-threaded binary cellwise
+ * operations for all combinations of dense/sparse inputs.
+ */
+public class ParallelCellwiseOperationTest extends AutomatedTestBase
+{
+	private static final int rows = 2107;
+	private static final int cols = 703;
+	private static final double sparsity1 = 0.7;
+	private static final double sparsity2 = 0.05;
+	private static final int k = 4;
+
+	public enum InputType {
+		MATRIX,
+		COL_VECTOR,
+		ROW_VECTOR,
+		SCALAR,
+	}
+
+	@Override
+	public void setUp() {
+
+	}
+
+	@Test
+	public void testPlusDenseDenseMM() {
+		runParallelCellwiseTest(Plus.getPlusFnObject(), InputType.MATRIX, false, false);
+	}
+
+	@Test
+	public void testPlusSparseSparseMM() {
+		runParallelCellwiseTest(Plus.getPlusFnObject(), InputType.MATRIX, true, true);
+	}
+
+	@Test
+	public void testMultDenseSparseMM() {
+		runParallelCellwiseTest(Multiply.getMultiplyFnObject(), InputType.MATRIX, false, true);
+	}
+
+	@Test
+	public void testMultSparseSparseMM() {
+		runParallelCellwiseTest(Multiply.getMultiplyFnObject(), InputType.MATRIX, true, true);
+	}
+
+	@Test
+	public void testMinusSparseDenseMM() {
+		runParallelCellwiseTest(Minus.getMinusFnObject(), InputType.MATRIX, true, false);
+	}
+
+	@Test
+	public void testMinusDenseColVector() {
+		runParallelCellwiseTest(Minus.getMinusFnObject(), InputType.COL_VECTOR, false, false);
+	}
+
+	@Test
+	public void testMinusSparseRowVector() {
+		runParallelCellwiseTest(Minus.getMinusFnObject(), InputType.ROW_VECTOR, true, false);
+	}
+
+	@Test
+	public void testMultSparseColVector() {
+		runParallelCellwiseTest(Multiply.getMultiplyFnObject(), InputType.COL_VECTOR, true, false);
+	}
+
+	@Test
+	public void testMultSparseRowVector() {
+		runParallelCellwiseTest(Multiply.getMultiplyFnObject(), InputType.ROW_VECTOR, true, false);
+	}
+
+	@Test
+	public void testMultDenseScalar() {
+		runParallelCellwiseTest(Multiply.getMultiplyFnObject(), InputType.SCALAR, false, false);
+	}
+
+	@Test
+	public void testMultSparseScalar() {
+		runParallelCellwiseTest(Multiply.getMultiplyFnObject(), InputType.SCALAR, true, false);
+	}
+
+	@Test
+	public void testPlusSparseScalar() {
+		runParallelCellwiseTest(Plus.getPlusFnObject(), InputType.SCALAR, true, false);
+	}
+
+	/**
+	 *
+	 * @param fn
+	 * @param type
+	 * @param sparse1
+	 * @param sparse2
+	 */
+	private void runParallelCellwiseTest(ValueFunction fn, InputType type, boolean sparse1, boolean sparse2)
+	{
+		try
+		{
+			//generate input data
+			double[][] A = TestUtils.generateTestMatrix(rows, cols, -1, 1, sparse1?sparsity2:sparsity1, 7);
+			MatrixBlock mbA = DataConverter.convertToMatrixBlock(A);
+
+			MatrixBlock ret1 = null, ret2 = null;
+			if( type == InputType.SCALAR ) {
+				ScalarOperator sop1 = new RightScalarOperator(fn, 7);
+				ScalarOperator sop2 = new RightScalarOperator(fn, 7);
+				sop2.setNumThreads(k);
+				ret1 = (MatrixBlock)mbA.scalarOperations(sop1, new MatrixBlock());
+				ret2 = (MatrixBlock)mbA.scalarOperations(sop2, new MatrixBlock());
+			}
+			else {
+				int rows2 = (type == InputType.ROW_VECTOR) ? 1 : rows;
+				int cols2 = (type == InputType.COL_VECTOR) ? 1 : cols;
+				double[][] B = TestUtils.generateTestMatrix(rows2, cols2, -1, 1, sparse2?sparsity2:sparsity1, 3);
+				MatrixBlock mbB = DataConverter.convertToMatrixBlock(B);
+				BinaryOperator bop1 = new BinaryOperator(fn);
+				BinaryOperator bop2 = new BinaryOperator(fn, k);
+				ret1 = (MatrixBlock)mbA.binaryOperations(bop1, mbB, new MatrixBlock());
+				ret2 = (MatrixBlock)mbA.binaryOperations(bop2, mbB, new MatrixBlock());
+			}
+
+			//compare results and maintained nnz
+			Assert.assertEquals(ret1.getNonZeros(), ret2.getNonZeros());
+			double[][] d1 = DataConverter.convertToDoubleMatrix(ret1);
+			double[][] d2 = DataConverter.convertToDoubleMatrix(ret2);
+			TestUtils.compareMatrices(d1, d2, rows, cols, 0);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.caching;
+
+import java.io.File;
+
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.conf.DMLConfig;
+import org.apache.sysml.runtime.controlprogram.caching.ByteBuffer;
+import org.apache.sysml.runtime.controlprogram.caching.LazyWriteBuffer;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.LocalFileUtils;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the eviction order of the write buffer for the cost-based policy 
+ * (victims w/ minimal loop reuse first) in comparison to the default FIFO.
+ */
+public class CostEvictionPolicyTest extends AutomatedTestBase
+{
+	private static final int rows = 100;
+	private static final int cols = 100;
+	
+	//loop reads of blocks in write order
+	private static final int[] loopReads = new int[]{1, 0, 1, 2, 0};
+	
+	@Override
+	public void setUp() {
+		
+	}
+	
+	@Test
+	public void testEvictionOrderFIFO() throws Exception {
+		//A, B evicted in write order
+		runEvictionOrderTest("fifo", new boolean[]{false, false, true, true, true});
+	}
+	
+	@Test
+	public void testEvictionOrderCost() throws Exception {
+		//B (no loop reads), then A (first w/ min score among A, C)
+		runEvictionOrderTest("cost", new boolean[]{false, false, true, true, true});
+	}
+	
+	@Test
+	public void testEvictionOrderCostPartial() throws Exception {
+		//B evicted before the older, but reused A
+		runEvictionOrderTest("cost", new boolean[]{true, false, true, true}, 4);
+	}
+	
+	@Test
+	public void testEvictionOrderFIFOPartial() throws Exception {
+		runEvictionOrderTest("fifo", new boolean[]{false, true, true, true}, 4);
+	}
+	
+	private void runEvictionOrderTest(String policy, boolean[] buffered) throws Exception {
+		runEvictionOrderTest(policy, buffered, loopReads.length);
+	}
+	
+	private void runEvictionOrderTest(String policy, boolean[] buffered, int numBlocks) 
+		throws Exception
+	{
+		File dir = File.createTempFile("wbuff", "");
+		dir.delete();
+		dir.mkdirs();
+		String prefix = dir.getAbsolutePath() + File.separator;
+		DMLConfig oldConf = ConfigurationManager.getDMLConfig();
+		
+		try {
+			//configure replacement policy and a buffer of three blocks
+			DMLConfig conf = new DMLConfig();
+			conf.setTextValue(DMLConfig.CACHING_POLICY, policy);
+			ConfigurationManager.setLocalConfig(conf);
+			long size = ByteBuffer.getBufferSize(createBlock(1));
+			LazyWriteBuffer.setWriteBufferLimit(3 * size + 1);
+			LazyWriteBuffer.init();
+			
+			//write blocks w/ loop reuse hints
+			for( int i=0; i<numBlocks; i++ )
+				LazyWriteBuffer.writeBlock(prefix+i, createBlock(i+1), loopReads[i]);
+			
+			//check buffered and evicted blocks
+			for( int i=0; i<numBlocks; i++ )
+				Assert.assertEquals("Block "+i+" ("+policy+")", 
+					buffered[i], LazyWriteBuffer.isBuffered(prefix+i));
+		}
+		finally {
+			ConfigurationManager.setLocalConfig(oldConf);
+			LazyWriteBuffer.cleanup();
+			LazyWriteBuffer.setWriteBufferLimit(LazyWriteBuffer.getWriteBufferSize());
+			LazyWriteBuffer.init();
+			LocalFileUtils.deleteFileIfExists(dir.getAbsolutePath());
+		}
+	}
+	
+	private static MatrixBlock createBlock(double val) {
+		MatrixBlock mb = new MatrixBlock(rows, cols, false);
+		mb.allocateDenseBlock();
+		for( int i=0; i<rows; i++ )
+			for( int j=0; j<cols; j++ )
+				mb.quickSetValue(i, j, val);
+		return mb;
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.caching;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.sysml.runtime.controlprogram.caching.ByteBuffer;
+import org.apache.sysml.runtime.controlprogram.caching.LazyWriteBuffer;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.LocalFileUtils;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests concurrent reads of buffered blocks while they are evicted by the
+ * background evictor, as well as the deferred free of pinned buffers.
+ */
+public class LazyWriteBufferConcurrencyTest extends AutomatedTestBase
+{
+	private static final int rows = 100;
+	private static final int cols = 100;
+	private static final int numBlocks = 64;
+	private static final int numReaders = 4;
+	private static final int numReads = 500;
+	
+	@Override
+	public void setUp() {
+		
+	}
+	
+	@Test
+	public void testPinnedBufferDeferredFree() throws Exception {
+		MatrixBlock mb = createBlock(7);
+		ByteBuffer bbuff = new ByteBuffer(ByteBuffer.getBufferSize(mb));
+		bbuff.serializeBlock(mb);
+		
+		//free while pinned is deferred until unpin
+		Assert.assertTrue(bbuff.pin());
+		bbuff.freeMemory();
+		Assert.assertFalse(bbuff.pin());
+		checkBlock((MatrixBlock)bbuff.deserializeBlock(), 7);
+		bbuff.unpin();
+		
+		//freed buffers cannot be pinned anymore
+		Assert.assertFalse(bbuff.pin());
+		Assert.assertNull(bbuff.deserializeBlock());
+	}
+	
+	@Test
+	public void testConcurrentReadEvict() throws Exception {
+		File dir = File.createTempFile("wbuff", "");
+		dir.delete();
+		dir.mkdirs();
+		final String prefix = dir.getAbsolutePath() + File.separator;
+		
+		//limit the buffer to a few blocks in order to force evictions
+		long size = ByteBuffer.getBufferSize(createBlock(1));
+		LazyWriteBuffer.setWriteBufferLimit(4 * size);
+		LazyWriteBuffer.init();
+		ExecutorService pool = Executors.newFixedThreadPool(numReaders);
+		try {
+			//concurrent readers of already written blocks
+			final AtomicInteger written = new AtomicInteger(0);
+			ArrayList<Future<Integer>> rtasks = new ArrayList<Future<Integer>>();
+			for( int j=0; j<numReaders; j++ ) {
+				final int seed = j;
+				rtasks.add(pool.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						int count = 0;
+						for( int i=0; i<numReads; i++ ) {
+							int n = written.get();
+							if( n == 0 ) {
+								Thread.yield();
+								continue;
+							}
+							int pos = (seed * 31 + i * 17) % n;
+							MatrixBlock mb = (MatrixBlock) 
+								LazyWriteBuffer.readBlock(prefix+pos, true);
+							checkBlock(mb, pos+1);
+							count++;
+						}
+						return count;
+					}
+				}));
+			}
+			
+			//writer that causes evictions of previously written blocks
+			for( int i=0; i<numBlocks; i++ ) {
+				LazyWriteBuffer.writeBlock(prefix+i, createBlock(i+1));
+				written.incrementAndGet();
+			}
+			
+			//propagate failures of readers
+			for( Future<Integer> task : rtasks )
+				task.get();
+			
+			//all blocks readable after evictions completed
+			for( int i=0; i<numBlocks; i++ )
+				checkBlock((MatrixBlock)LazyWriteBuffer.readBlock(prefix+i, true), i+1);
+		}
+		finally {
+			pool.shutdown();
+			LazyWriteBuffer.cleanup();
+			LazyWriteBuffer.setWriteBufferLimit(LazyWriteBuffer.getWriteBufferSize());
+			LazyWriteBuffer.init();
+			LocalFileUtils.deleteFileIfExists(dir.getAbsolutePath());
+		}
+	}
+	
+	private static MatrixBlock createBlock(double val) {
+		MatrixBlock mb = new MatrixBlock(rows, cols, false);
+		mb.allocateDenseBlock();
+		for( int i=0; i<rows; i++ )
+			for( int j=0; j<cols; j++ )
+				mb.quickSetValue(i, j, val);
+		return mb;
+	}
+	
+	private static void checkBlock(MatrixBlock mb, double val) {
+		Assert.assertNotNull(mb);
+		Assert.assertEquals((long)rows*cols, mb.getNonZeros());
+		Assert.assertEquals(val, mb.quickGetValue(0, 0), 0);
+		Assert.assertEquals(val, mb.quickGetValue(rows-1, cols-1), 0);
+	}
+}
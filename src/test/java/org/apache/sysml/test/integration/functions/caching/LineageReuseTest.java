@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.caching;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
+import org.apache.sysml.runtime.controlprogram.caching.CacheStatistics;
+import org.apache.sysml.runtime.controlprogram.caching.LineageItem;
+import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * Tests the lineage-based reuse cache, both for lineage items (structural 
+ * equality) and for a loop script with repeated operations and function calls,
+ * whose results are compared against the same script w/o lineage cache.
+ */
+public class LineageReuseTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "LineageReuseTest";
+	private final static String TEST_DIR = "functions/caching/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + LineageReuseTest.class.getSimpleName() + "/";
+	
+	private final static int rows = 1000;
+	private final static int cols = 50;
+	private final static int iters = 5;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.05;
+	private final static double eps = 1e-8;
+	
+	@Override
+	public void setUp() {
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] {"R"}));
+	}
+	
+	@Test
+	public void testLineageItemEquals() {
+		LineageItem X = new LineageItem();
+		LineageItem Y = new LineageItem();
+		LineageItem s = new LineageItem("DOUBLE:7.0");
+		
+		//equal structure over same leaves
+		LineageItem a1 = new LineageItem("ba+*", new LineageItem[]{new LineageItem("r'", new LineageItem[]{X}), X});
+		LineageItem a2 = new LineageItem("ba+*", new LineageItem[]{new LineageItem("r'", new LineageItem[]{X}), X});
+		Assert.assertEquals(a1, a2);
+		Assert.assertEquals(a1.hashCode(), a2.hashCode());
+		Assert.assertSame(a1.getInputs()[0], a2.getInputs()[0]);
+		Assert.assertEquals(new LineageItem("*", new LineageItem[]{X, s}), 
+			new LineageItem("*", new LineageItem[]{X, new LineageItem("DOUBLE:7.0")}));
+		
+		//different leaves, opcodes, or scalars
+		Assert.assertNotEquals(X, Y);
+		Assert.assertNotEquals(a1, new LineageItem("ba+*", new LineageItem[]{new LineageItem("r'", new LineageItem[]{Y}), Y}));
+		Assert.assertNotEquals(new LineageItem("+", new LineageItem[]{X, s}), new LineageItem("*", new LineageItem[]{X, s}));
+		Assert.assertNotEquals(new LineageItem("*", new LineageItem[]{X, s}), 
+			new LineageItem("*", new LineageItem[]{X, new LineageItem("DOUBLE:3.0")}));
+		
+		//deep lineage of equal structure (canonical inputs)
+		LineageItem d1 = X, d2 = X;
+		for( int i=0; i<LineageItem.MAX_DEPTH; i++ ) {
+			d1 = new LineageItem("+", new LineageItem[]{d1, s});
+			d2 = new LineageItem("+", new LineageItem[]{d2, s});
+		}
+		Assert.assertEquals(LineageItem.MAX_DEPTH, d1.getDepth());
+		Assert.assertEquals(d1, d2);
+		Assert.assertSame(d1.getInputs()[0], d2.getInputs()[0]);
+		Assert.assertNotEquals(d1, new LineageItem("+", new LineageItem[]{d2.getInputs()[0], X}));
+	}
+	
+	@Test
+	public void testLineageLoopDenseCP() {
+		runLineageLoopTest(false);
+	}
+	
+	@Test
+	public void testLineageLoopSparseCP() {
+		runLineageLoopTest(true);
+	}
+	
+	private void runLineageLoopTest( boolean sparse ) 
+	{
+		RUNTIME_PLATFORM oldPlatform = rtplatform;
+		
+		try
+		{
+			rtplatform = RUNTIME_PLATFORM.SINGLE_NODE;
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			loadTestConfiguration(config);
+			
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+			
+			double sparsity = sparse ? sparsity2 : sparsity1;
+			double[][] X = getRandomMatrix(rows, cols, -1, 1, sparsity, 7);
+			writeInputMatrixWithMTD("X", X, false);
+			
+			//run w/o lineage cache (default config)
+			programArgs = new String[]{"-stats", "-args", input("X"), String.valueOf(iters), output("R1") };
+			runTest(true, false, null, -1); 
+			Assert.assertEquals(0, CacheStatistics.getLineageHits());
+			Assert.assertEquals(0, CacheStatistics.getLineageMisses());
+			
+			//run w/ lineage cache (separate config file of this test)
+			File conf = createLineageConfig(true);
+			programArgs = new String[]{"-stats", "-config="+conf.getPath(), 
+				"-args", input("X"), String.valueOf(iters), output("R2") };
+			runTest(true, false, null, -1); 
+			
+			//check misses in the first and hits in subsequent iterations 
+			//(loop-invariant operations and function call per iteration)
+			Assert.assertTrue(CacheStatistics.getLineageMisses() > 0);
+			Assert.assertTrue(CacheStatistics.getLineageHits() >= 3*(iters-1));
+			
+			//compare results
+			HashMap<CellIndex, Double> ret1 = readDMLMatrixFromHDFS("R1");
+			HashMap<CellIndex, Double> ret2 = readDMLMatrixFromHDFS("R2");
+			TestUtils.compareMatrices(ret1, ret2, eps, "NoLineage", "Lineage");
+		}
+		finally {
+			rtplatform = oldPlatform;
+		}
+	}
+	
+	private File createLineageConfig( boolean flag ) 
+	{
+		try {
+			File file = new File(getCurLocalTempDir(), "SystemML-config-lineage-"+flag+".xml");
+			String conf = FileUtils.readFileToString(getCurConfigFile(), "UTF-8");
+			conf = conf.replace("</root>", "<cache.lineage>"+flag+"</cache.lineage>\n</root>");
+			FileUtils.write(file, conf, "UTF-8");
+			return file;
+		}
+		catch(IOException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+}
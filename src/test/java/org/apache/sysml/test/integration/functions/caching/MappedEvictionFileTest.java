@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.caching;
+
+import java.io.File;
+
+import org.apache.sysml.runtime.controlprogram.caching.ByteBuffer;
+import org.apache.sysml.runtime.matrix.data.LibMatrixFP32;
+import org.apache.sysml.runtime.matrix.data.LibMatrixMult;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.runtime.util.LocalFileUtils;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Round-trip tests of the memory-mapped eviction format for dense, sparse,
+ * and empty matrix blocks, as well as single-precision dense blocks in the
+ * eviction format and the write buffer, and single-precision rounding.
+ */
+public class MappedEvictionFileTest extends AutomatedTestBase
+{
+	private static final int rows = 1071;
+	private static final int cols = 731;
+	private static final double sparsity1 = 0.9;
+	private static final double sparsity2 = 0.05;
+	private static final double sparsity3 = 0.0;
+	
+	@Override
+	public void setUp() {
+		
+	}
+	
+	@Test
+	public void testDenseBlock() {
+		runMappedEvictionFileTest(sparsity1, false);
+	}
+	
+	@Test
+	public void testSparseBlock() {
+		runMappedEvictionFileTest(sparsity2, false);
+	}
+	
+	@Test
+	public void testEmptyBlock() {
+		runMappedEvictionFileTest(sparsity3, false);
+	}
+	
+	@Test
+	public void testDenseBlockSinglePrecision() {
+		runMappedEvictionFileTest(sparsity1, true);
+	}
+	
+	@Test
+	public void testDenseBlockSinglePrecisionOverflow() {
+		//values beyond float range are kept in double precision
+		MatrixBlock mb = DataConverter.convertToMatrixBlock(
+			TestUtils.generateTestMatrix(rows, cols, -1, 1, sparsity1, 7));
+		mb.quickSetValue(7, 3, 1e300);
+		mb.quickSetValue(9, 5, Double.POSITIVE_INFINITY);
+		Assert.assertFalse(LibMatrixFP32.isInSinglePrecisionRange(mb));
+		Assert.assertNull(LibMatrixFP32.toSinglePrecision(mb));
+		
+		MatrixBlock ret = runBufferRoundTrip(mb, null);
+		Assert.assertEquals(1e300, ret.quickGetValue(7, 3), 0);
+		Assert.assertEquals(Double.POSITIVE_INFINITY, ret.quickGetValue(9, 5), 0);
+		TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(mb), 
+			DataConverter.convertToDoubleMatrix(ret), rows, cols, 0);
+	}
+	
+	@Test
+	public void testDenseBlockSinglePrecisionUnderflow() {
+		//values that underflow to zero are removed from nnz
+		MatrixBlock mb = DataConverter.convertToMatrixBlock(
+			TestUtils.generateTestMatrix(rows, cols, 1, 2, 1.0, 7));
+		for( int i=0; i<rows; i++ )
+			mb.quickSetValue(i, 0, 1e-50);
+		Assert.assertTrue(LibMatrixFP32.isInSinglePrecisionRange(mb));
+		
+		MatrixBlock ret = runBufferRoundTrip(mb, LibMatrixFP32.toSinglePrecision(mb));
+		Assert.assertEquals((long)rows*cols - rows, ret.getNonZeros());
+		Assert.assertEquals(0, ret.quickGetValue(3, 0), 0);
+	}
+	
+	@Test
+	public void testSparseBlockSinglePrecision() {
+		//sparse blocks are serialized in double precision (no explicit zeros)
+		MatrixBlock mb = DataConverter.convertToMatrixBlock(
+			TestUtils.generateTestMatrix(rows, cols, -1, 1, sparsity2, 7));
+		mb.examSparsity();
+		mb.quickSetValue(3, 4, 1e-50);
+		Assert.assertTrue(mb.isInSparseFormat());
+		
+		MatrixBlock ret = runBufferRoundTrip(mb, null);
+		Assert.assertTrue(ret.isInSparseFormat());
+		Assert.assertEquals(mb.getNonZeros(), ret.getNonZeros());
+		Assert.assertEquals(mb.getNonZeros(), ret.getSparseBlock().size());
+		Assert.assertEquals(1e-50, ret.quickGetValue(3, 4), 0);
+	}
+	
+	@Test
+	public void testKernelResultSinglePrecision() throws Exception {
+		//results of double kernels are rounded on release, which makes 
+		//the subsequent eviction lossless (independent of eviction)
+		MatrixBlock m1 = DataConverter.convertToMatrixBlock(
+			TestUtils.generateTestMatrix(rows, 37, -1, 1, sparsity1, 7));
+		MatrixBlock m2 = DataConverter.convertToMatrixBlock(
+			TestUtils.generateTestMatrix(37, cols, -1, 1, sparsity1, 3));
+		MatrixBlock mb = new MatrixBlock(rows, cols, false);
+		LibMatrixMult.matrixMult(m1, m2, mb);
+		double[][] A = DataConverter.convertToDoubleMatrix(mb);
+		LibMatrixFP32.roundToSinglePrecision(mb);
+		double[][] A2 = DataConverter.convertToDoubleMatrix(mb);
+		TestUtils.compareMatrices(roundToFloat(A), A2, rows, cols, 0);
+		TestUtils.compareMatrices(A, A2, rows, cols, 1e-5);
+		
+		MatrixBlock ret = runBufferRoundTrip(mb, LibMatrixFP32.toSinglePrecision(mb));
+		double[][] B = DataConverter.convertToDoubleMatrix(ret);
+		TestUtils.compareMatrices(A2, B, rows, cols, 0);
+		Assert.assertEquals(mb.getNonZeros(), ret.getNonZeros());
+	}
+	
+	@Test
+	public void testRoundSparseBlockSinglePrecision() {
+		//values that underflow to zero are removed from sparse rows
+		MatrixBlock mb = DataConverter.convertToMatrixBlock(
+			TestUtils.generateTestMatrix(rows, cols, -1, 1, sparsity2, 7));
+		mb.examSparsity();
+		mb.quickSetValue(3, 4, 1e-50);
+		mb.quickSetValue(5, 0, 1e-60);
+		mb.quickSetValue(5, cols-1, 1e-70);
+		Assert.assertTrue(mb.isInSparseFormat());
+		long nnz = mb.getNonZeros();
+		
+		LibMatrixFP32.roundToSinglePrecision(mb);
+		Assert.assertEquals(nnz-3, mb.getNonZeros());
+		Assert.assertEquals(mb.getNonZeros(), mb.getSparseBlock().size());
+		Assert.assertEquals(0, mb.quickGetValue(3, 4), 0);
+		Assert.assertEquals(0, mb.quickGetValue(5, cols-1), 0);
+		for( int i=0; i<rows; i++ )
+			for( int j=0; j<cols; j++ ) {
+				double v = mb.quickGetValue(i, j);
+				Assert.assertEquals((float)v, v, 0);
+			}
+	}
+	
+	@Test
+	public void testRoundDenseBlockSinglePrecisionOverflow() {
+		//values beyond float range are not rounded, and rounding is idempotent
+		MatrixBlock mb = DataConverter.convertToMatrixBlock(
+			TestUtils.generateTestMatrix(rows, cols, -1, 1, sparsity1, 7));
+		mb.quickSetValue(7, 3, 1e300);
+		mb.quickSetValue(8, 4, 1e-50);
+		long nnz = mb.getNonZeros();
+		
+		LibMatrixFP32.roundToSinglePrecision(mb);
+		double[][] A = DataConverter.convertToDoubleMatrix(mb);
+		Assert.assertEquals(1e300, A[7][3], 0);
+		Assert.assertEquals(0, A[8][4], 0);
+		Assert.assertEquals(nnz-1, mb.getNonZeros());
+		LibMatrixFP32.roundToSinglePrecision(mb);
+		TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(mb), rows, cols, 0);
+	}
+	
+	/**
+	 * 
+	 * @param sparsity
+	 * @param fp32
+	 */
+	private void runMappedEvictionFileTest(double sparsity, boolean fp32)
+	{
+		File tmp = null;
+		try
+		{
+			//generate input data
+			double[][] A = TestUtils.generateTestMatrix(rows, cols, -1, 1, sparsity, 7);
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(A);
+			mb.examSparsity();
+			
+			//write and restore block 
+			tmp = File.createTempFile("mmap", ".dat");
+			if( fp32 )
+				LocalFileUtils.writeMappedMatrixBlockToLocal(tmp.getAbsolutePath(), 
+					LibMatrixFP32.toSinglePrecision(mb), rows, cols);
+			else
+				LocalFileUtils.writeMappedMatrixBlockToLocal(tmp.getAbsolutePath(), mb);
+			MatrixBlock ret = (MatrixBlock) LocalFileUtils
+				.readCacheBlockFromLocal(tmp.getAbsolutePath(), true);
+			
+			//compare meta data and values (w/ expected rounding)
+			Assert.assertEquals(mb.getNonZeros(), ret.getNonZeros());
+			Assert.assertEquals(mb.isInSparseFormat(), ret.isInSparseFormat());
+			double[][] B = DataConverter.convertToDoubleMatrix(ret);
+			TestUtils.compareMatrices(fp32 ? roundToFloat(A) : A, B, rows, cols, 0);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			if( tmp != null )
+				tmp.delete();
+		}
+	}
+	
+	private static MatrixBlock runBufferRoundTrip(MatrixBlock mb, float[][] fdata) {
+		try {
+			ByteBuffer bbuff = new ByteBuffer(ByteBuffer.getBufferSize(mb));
+			bbuff.serializeBlock(mb, fdata);
+			return (MatrixBlock) bbuff.deserializeBlock();
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	private static double[][] roundToFloat(double[][] A) {
+		double[][] ret = new double[A.length][];
+		for( int i=0; i<A.length; i++ ) {
+			ret[i] = new double[A[i].length];
+			for( int j=0; j<A[i].length; j++ )
+				ret[i][j] = (float) A[i][j];
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.caching;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
+import org.apache.sysml.runtime.controlprogram.caching.CacheStatistics;
+import org.apache.sysml.runtime.controlprogram.caching.ReusePool;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.runtime.matrix.data.SparseBlock;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * Tests the reuse pool of dead intermediates, both on block level (reuse of
+ * pooled dense/sparse buffers, memory limit) and for a loop script, whose 
+ * results are compared against the same script w/o reuse pool.
+ */
+public class ReusePoolTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "ReusePoolTest";
+	private final static String TEST_DIR = "functions/caching/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + ReusePoolTest.class.getSimpleName() + "/";
+	
+	private final static int rows = 1000;
+	private final static int cols = 100;
+	private final static int iters = 10;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.05;
+	private final static double eps = 1e-8;
+	
+	@Override
+	public void setUp() {
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] {"R"}));
+	}
+	
+	@Test
+	public void testReuseDenseBlock() {
+		runReusePoolBlockTest(false, Long.MAX_VALUE);
+	}
+	
+	@Test
+	public void testReuseSparseBlock() {
+		runReusePoolBlockTest(true, Long.MAX_VALUE);
+	}
+	
+	@Test
+	public void testReuseDenseBlockLimit() {
+		runReusePoolBlockTest(false, 1024);
+	}
+	
+	@Test
+	public void testReuseLoopDenseCP() {
+		runReusePoolLoopTest(false);
+	}
+	
+	@Test
+	public void testReuseLoopSparseCP() {
+		runReusePoolLoopTest(true);
+	}
+	
+	private void runReusePoolBlockTest( boolean sparse, long limit ) 
+	{
+		boolean oldStats = DMLScript.STATISTICS;
+		
+		try
+		{
+			DMLScript.STATISTICS = true;
+			ReusePool.init(limit);
+			double sparsity = sparse ? sparsity2 : sparsity1;
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(
+				getRandomMatrix(rows, cols, -1, 1, sparsity, 7));
+			Assert.assertEquals(sparse, mb.isInSparseFormat());
+			double[] dense = mb.getDenseBlock();
+			SparseBlock sblock = mb.getSparseBlock();
+			
+			//put buffers of dead block into pool
+			boolean pooled = (limit > 8L*rows*cols);
+			CacheStatistics.reset();
+			ReusePool.putBlock(mb);
+			Assert.assertEquals(pooled, ReusePool.getSize() > 0);
+			Assert.assertEquals(pooled ? 1 : 0, CacheStatistics.getReusePuts());
+			Assert.assertEquals(pooled, mb.getDenseBlock()==null && mb.getSparseBlock()==null);
+			
+			//allocate same-sized output (reused and empty)
+			MatrixBlock out = new MatrixBlock(rows, cols, sparse);
+			if( sparse ) {
+				out.allocateSparseRowsBlock();
+				Assert.assertEquals(pooled, out.getSparseBlock()==sblock);
+				Assert.assertEquals(0, out.getSparseBlock().size());
+			}
+			else {
+				out.allocateDenseBlock();
+				Assert.assertEquals(pooled, out.getDenseBlock()==dense);
+				for( double v : out.getDenseBlock() )
+					Assert.assertEquals(0, v, 0);
+			}
+			Assert.assertEquals(0, ReusePool.getSize());
+			Assert.assertEquals(pooled ? 1 : 0, CacheStatistics.getReuseHits());
+			Assert.assertEquals(pooled ? 0 : 1, CacheStatistics.getReuseMisses());
+		}
+		finally {
+			ReusePool.clear();
+			DMLScript.STATISTICS = oldStats;
+		}
+	}
+	
+	private void runReusePoolLoopTest( boolean sparse ) 
+	{
+		RUNTIME_PLATFORM oldPlatform = rtplatform;
+		
+		try
+		{
+			rtplatform = RUNTIME_PLATFORM.SINGLE_NODE;
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			loadTestConfiguration(config);
+			
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+			
+			double sparsity = sparse ? sparsity2 : sparsity1;
+			double[][] X = getRandomMatrix(rows, cols, -1, 1, sparsity, 7);
+			writeInputMatrixWithMTD("X", X, false);
+			
+			//run w/ reuse pool (separate config file of this test, opt-in)
+			File conf = createReusePoolConfig(true);
+			programArgs = new String[]{"-stats", "-config="+conf.getPath(), 
+				"-args", input("X"), String.valueOf(iters), output("R1") };
+			runTest(true, false, null, -1); 
+			Assert.assertTrue(CacheStatistics.getReusePuts() > 0);
+			Assert.assertTrue(CacheStatistics.getReuseHits() > 0);
+			Assert.assertTrue(CacheStatistics.getReuseHits() <= CacheStatistics.getReusePuts());
+			
+			//run w/o reuse pool (default config)
+			programArgs = new String[]{"-stats", "-args", input("X"), String.valueOf(iters), output("R2") };
+			runTest(true, false, null, -1); 
+			Assert.assertEquals(0, CacheStatistics.getReusePuts());
+			Assert.assertEquals(0, CacheStatistics.getReuseHits());
+			Assert.assertEquals(0, CacheStatistics.getReuseMisses());
+			
+			//compare results
+			HashMap<CellIndex, Double> ret1 = readDMLMatrixFromHDFS("R1");
+			HashMap<CellIndex, Double> ret2 = readDMLMatrixFromHDFS("R2");
+			TestUtils.compareMatrices(ret1, ret2, eps, "Reuse", "NoReuse");
+		}
+		finally {
+			rtplatform = oldPlatform;
+		}
+	}
+	
+	private File createReusePoolConfig( boolean flag ) 
+	{
+		try {
+			File file = new File(getCurLocalTempDir(), "SystemML-config-reuse-"+flag+".xml");
+			String conf = FileUtils.readFileToString(getCurConfigFile(), "UTF-8");
+			conf = conf.replace("</root>", "<cache.reuse.pool>"+flag+"</cache.reuse.pool>\n</root>");
+			FileUtils.write(file, conf, "UTF-8");
+			return file;
+		}
+		catch(IOException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.codegen;
+
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
+import org.apache.sysml.hops.codegen.cplan.CNode;
+import org.apache.sysml.hops.codegen.cplan.CNodeBinary;
+import org.apache.sysml.hops.codegen.cplan.CNodeBinary.BinType;
+import org.apache.sysml.hops.codegen.cplan.CNodeCell;
+import org.apache.sysml.hops.codegen.cplan.CNodeData;
+import org.apache.sysml.hops.codegen.cplan.CNodeData.InputType;
+import org.apache.sysml.lops.Lop;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.codegen.CodegenUtils;
+import org.apache.sysml.runtime.codegen.SpoofCellwise.CellType;
+import org.apache.sysml.runtime.instructions.cp.SpoofCPInstruction;
+import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+import org.apache.sysml.utils.Statistics;
+
+/**
+ * Tests operator fusion end-to-end for DML scripts with cell-wise chains 
+ * (w/o, row, and full aggregation), whose results are compared against the
+ * same scripts w/o code generation, as well as the parsing of spoof 
+ * instructions with shipped source code (as used for remote workers).
+ */
+public class CellwiseFusionTest extends AutomatedTestBase
+{
+	private static final String TEST_NAME1 = "CellwiseFusion1";
+	private static final String TEST_NAME2 = "CellwiseFusion2";
+	private static final String TEST_NAME3 = "CellwiseFusion3";
+	private static final String TEST_DIR = "functions/codegen/";
+	private static final String TEST_CLASS_DIR = TEST_DIR + CellwiseFusionTest.class.getSimpleName() + "/";
+	private static final String TEST_CONF = "SystemML-config-codegen.xml";
+	
+	private static final int rows = 1200;
+	private static final int cols = 300;
+	private static final double sparsity1 = 0.9;
+	private static final double sparsity2 = 0.1;
+	private static final double eps = Math.pow(10, -8);
+
+	@Override
+	public void setUp() {
+		addTestConfiguration(TEST_NAME1, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME1, new String[] {"R"}));
+		addTestConfiguration(TEST_NAME2, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME2, new String[] {"R"}));
+		addTestConfiguration(TEST_NAME3, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME3, new String[] {"R"}));
+	}
+
+	@Test
+	public void testFusionNoAggDense() {
+		runCellwiseFusionTest(TEST_NAME1, false);
+	}
+
+	@Test
+	public void testFusionNoAggSparse() {
+		runCellwiseFusionTest(TEST_NAME1, true);
+	}
+
+	@Test
+	public void testFusionRowAggDense() {
+		runCellwiseFusionTest(TEST_NAME2, false);
+	}
+
+	@Test
+	public void testFusionRowAggSparse() {
+		runCellwiseFusionTest(TEST_NAME2, true);
+	}
+
+	@Test
+	public void testFusionFullAggDense() {
+		runCellwiseFusionTest(TEST_NAME3, false);
+	}
+
+	@Test
+	public void testFusionFullAggSparse() {
+		runCellwiseFusionTest(TEST_NAME3, true);
+	}
+
+	@Test
+	public void testParseShippedSource() throws DMLRuntimeException {
+		//compile operator for X * s + 1
+		CNodeData in1 = new CNodeData(InputType.MAIN);
+		CNodeData in2 = new CNodeData(InputType.SCALAR);
+		in2.setPosition(0);
+		CNode tmp = new CNodeBinary(in1, in2, BinType.MULT);
+		tmp = new CNodeBinary(tmp, new CNodeData(1), BinType.PLUS);
+		CNodeCell cplan = new CNodeCell(tmp, CellType.NO_AGG, false);
+		String name = "TMPTestShipped";
+		CodegenUtils.compileClass(name, cplan.codegen().replace(CNodeCell.CLASSNAME_PLACEHOLDER, name));
+		
+		//create instruction and serialize it with source
+		String str = "CP" + Lop.OPERAND_DELIMITOR + "spoof" + Lop.OPERAND_DELIMITOR + name 
+			+ Lop.OPERAND_DELIMITOR + "_mVar1" + Lop.DATATYPE_PREFIX + "MATRIX" + Lop.VALUETYPE_PREFIX + "DOUBLE"
+			+ Lop.OPERAND_DELIMITOR + "_Var2" + Lop.DATATYPE_PREFIX + "SCALAR" + Lop.VALUETYPE_PREFIX + "DOUBLE"
+			+ Lop.OPERAND_DELIMITOR + "_mVar3" + Lop.DATATYPE_PREFIX + "MATRIX" + Lop.VALUETYPE_PREFIX + "DOUBLE"
+			+ Lop.OPERAND_DELIMITOR + "4";
+		SpoofCPInstruction inst = SpoofCPInstruction.parseInstruction(str);
+		String str2 = inst.getInstructionStringWithSource();
+		Assert.assertTrue(str2.startsWith(str));
+		
+		//parse shipped instruction in a fresh class cache (as in a remote worker)
+		CodegenUtils.clearClassCache();
+		try {
+			SpoofCPInstruction.parseInstruction(str);
+			Assert.fail("Parsing w/o source should fail for unknown classes.");
+		}
+		catch(DMLRuntimeException ex) {
+			//expected
+		}
+		SpoofCPInstruction inst2 = SpoofCPInstruction.parseInstruction(str2);
+		Assert.assertEquals(str, inst2.toString());
+		Assert.assertNotNull(CodegenUtils.getClass(name));
+		CodegenUtils.clearClassCache();
+	}
+
+	private void runCellwiseFusionTest( String testname, boolean sparse )
+	{
+		RUNTIME_PLATFORM oldPlatform = rtplatform;
+		
+		try
+		{
+			rtplatform = RUNTIME_PLATFORM.HYBRID;
+			TestConfiguration config = getTestConfiguration(testname);
+			loadTestConfiguration(config);
+			
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + testname + ".dml";
+			
+			double[][] X = getRandomMatrix(rows, cols, -1, 1, sparse ? sparsity2 : sparsity1, 7);
+			writeInputMatrixWithMTD("X", X, true);
+			
+			//run w/ code generation
+			programArgs = new String[]{"-stats", "-config=" + HOME + TEST_CONF, 
+				"-args", input("X"), output("R1") };
+			runTest(true, false, null, -1);
+			Assert.assertTrue(Statistics.getCPHeavyHitterOpCodes().contains("spoof"));
+			
+			//run w/o code generation (default config)
+			programArgs = new String[]{"-stats", "-args", input("X"), output("R2") };
+			runTest(true, false, null, -1);
+			Assert.assertFalse(Statistics.getCPHeavyHitterOpCodes().contains("spoof"));
+			
+			//compare results
+			HashMap<CellIndex, Double> ret1 = readDMLMatrixFromHDFS("R1");
+			HashMap<CellIndex, Double> ret2 = readDMLMatrixFromHDFS("R2");
+			TestUtils.compareMatrices(ret1, ret2, eps, "Codegen", "NoCodegen");
+		}
+		finally {
+			rtplatform = oldPlatform;
+		}
+	}
+}
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.codegen;
+
+import java.util.ArrayList;
+
+import org.apache.sysml.hops.codegen.cplan.CNode;
+import org.apache.sysml.hops.codegen.cplan.CNodeBinary;
+import org.apache.sysml.hops.codegen.cplan.CNodeBinary.BinType;
+import org.apache.sysml.hops.codegen.cplan.CNodeCell;
+import org.apache.sysml.hops.codegen.cplan.CNodeData;
+import org.apache.sysml.hops.codegen.cplan.CNodeData.InputType;
+import org.apache.sysml.runtime.codegen.CodegenUtils;
+import org.apache.sysml.runtime.codegen.SpoofCellwise.CellType;
+import org.apache.sysml.runtime.codegen.SpoofOperator;
+import org.apache.sysml.runtime.instructions.cp.DoubleObject;
+import org.apache.sysml.runtime.instructions.cp.ScalarObject;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests generated cell-wise operators (w/o, row, and full aggregation)
+ * against reference results, for dense/sparse main inputs and single-
+ * and multi-threaded execution.
+ */
+public class CellwiseTmplTest extends AutomatedTestBase
+{
+	private static final int rows = 1731;
+	private static final int cols = 1123;
+	private static final double sparsity1 = 0.9;
+	private static final double sparsity2 = 0.1;
+	private static final double eps = Math.pow(10, -8);
+
+	@Override
+	public void setUp() {
+
+	}
+
+	@Test
+	public void testNoAggDenseSingleThreaded() {
+		runCellwiseTmplTest(CellType.NO_AGG, false, 1);
+	}
+
+	@Test
+	public void testNoAggSparseSingleThreaded() {
+		runCellwiseTmplTest(CellType.NO_AGG, true, 1);
+	}
+
+	@Test
+	public void testNoAggDenseMultiThreaded() {
+		runCellwiseTmplTest(CellType.NO_AGG, false, 4);
+	}
+
+	@Test
+	public void testNoAggSparseMultiThreaded() {
+		runCellwiseTmplTest(CellType.NO_AGG, true, 4);
+	}
+
+	@Test
+	public void testRowAggDenseSingleThreaded() {
+		runCellwiseTmplTest(CellType.ROW_AGG, false, 1);
+	}
+
+	@Test
+	public void testRowAggSparseSingleThreaded() {
+		runCellwiseTmplTest(CellType.ROW_AGG, true, 1);
+	}
+
+	@Test
+	public void testRowAggDenseMultiThreaded() {
+		runCellwiseTmplTest(CellType.ROW_AGG, false, 4);
+	}
+
+	@Test
+	public void testRowAggSparseMultiThreaded() {
+		runCellwiseTmplTest(CellType.ROW_AGG, true, 4);
+	}
+
+	@Test
+	public void testFullAggDenseSingleThreaded() {
+		runCellwiseTmplTest(CellType.FULL_AGG, false, 1);
+	}
+
+	@Test
+	public void testFullAggSparseSingleThreaded() {
+		runCellwiseTmplTest(CellType.FULL_AGG, true, 1);
+	}
+
+	@Test
+	public void testFullAggDenseMultiThreaded() {
+		runCellwiseTmplTest(CellType.FULL_AGG, false, 4);
+	}
+
+	@Test
+	public void testFullAggSparseMultiThreaded() {
+		runCellwiseTmplTest(CellType.FULL_AGG, true, 4);
+	}
+
+	/**
+	 * Generates and executes the expression (X * v)^2 * s, where X is
+	 * the main input, v a column vector, and s a scalar input.
+	 *
+	 * @param type cell type
+	 * @param sparse sparse main input
+	 * @param k number of threads
+	 */
+	private void runCellwiseTmplTest(CellType type, boolean sparse, int k)
+	{
+		try
+		{
+			//generate input data
+			double sparsity = sparse ? sparsity2 : sparsity1;
+			double[][] X = TestUtils.generateTestMatrix(rows, cols, -1, 1, sparsity, 7);
+			double[][] v = TestUtils.generateTestMatrix(rows, 1, -1, 1, 1.0, 3);
+			double s = 3;
+			MatrixBlock mbX = DataConverter.convertToMatrixBlock(X);
+			MatrixBlock mbv = DataConverter.convertToMatrixBlock(v);
+
+			//construct cplan and compile operator
+			CNodeData in1 = new CNodeData(InputType.MAIN);
+			CNodeData in2 = new CNodeData(InputType.COL_VECTOR);
+			in2.setPosition(0);
+			CNodeData in3 = new CNodeData(InputType.SCALAR);
+			in3.setPosition(0);
+			CNode tmp = new CNodeBinary(in1, in2, BinType.MULT);
+			tmp = new CNodeBinary(tmp, new CNodeData(2), BinType.POW2);
+			tmp = new CNodeBinary(tmp, in3, BinType.MULT);
+			CNodeCell cplan = new CNodeCell(tmp, type, true);
+			String name = "TMPTest" + type.name() + (sparse ? "Sparse" : "Dense") + k;
+			Class<?> cla = CodegenUtils.compileClass(name,
+				cplan.codegen().replace(CNodeCell.CLASSNAME_PLACEHOLDER, name));
+			SpoofOperator op = CodegenUtils.createInstance(cla);
+
+			//execute generated operator
+			ArrayList<MatrixBlock> inputs = new ArrayList<MatrixBlock>();
+			inputs.add(mbX);
+			inputs.add(mbv);
+			ArrayList<ScalarObject> scalars = new ArrayList<ScalarObject>();
+			scalars.add(new DoubleObject(s));
+
+			//compute reference results
+			double[][] R = new double[rows][cols];
+			double[][] Rrow = new double[rows][1];
+			double Rfull = 0;
+			for( int i=0; i<rows; i++ )
+				for( int j=0; j<cols; j++ ) {
+					R[i][j] = Math.pow(X[i][j] * v[i][0], 2) * s;
+					Rrow[i][0] += R[i][j];
+					Rfull += R[i][j];
+				}
+
+			//compare results
+			if( type == CellType.FULL_AGG ) {
+				ScalarObject ret = op.execute(inputs, scalars, k);
+				Assert.assertEquals(Rfull, ret.getDoubleValue(), eps);
+			}
+			else {
+				MatrixBlock ret = op.execute(inputs, scalars, new MatrixBlock(), k);
+				double[][] dret = DataConverter.convertToDoubleMatrix(ret);
+				if( type == CellType.NO_AGG )
+					TestUtils.compareMatrices(R, dret, rows, cols, eps);
+				else
+					TestUtils.compareMatrices(Rrow, dret, rows, 1, eps);
+			}
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+}
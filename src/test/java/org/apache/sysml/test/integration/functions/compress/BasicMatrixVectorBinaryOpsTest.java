@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.compress;
+
+import org.apache.sysml.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysml.runtime.functionobjects.Minus;
+import org.apache.sysml.runtime.functionobjects.Multiply;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+import org.junit.Test;
+
+/**
+ * 
+ */
+public class BasicMatrixVectorBinaryOpsTest extends AutomatedTestBase
+{	
+	private static final int rows = 1321;
+	private static final int cols = 37;
+	private static final double sparsity1 = 0.9;
+	private static final double sparsity2 = 0.1;
+	
+	public enum SparsityType {
+		DENSE,
+		SPARSE,
+	}
+	
+	public enum ValueType {
+		RAND,
+		RAND_ROUND,
+		CONST,
+	}
+	
+	public enum OpType {
+		ROW_MINUS, //sparse-unsafe, e.g., X - colMeans(X)
+		ROW_MULT,  //sparse-safe, e.g., X * colScale
+		COL_MULT,  //sparse-safe, e.g., X * rowScale
+	}
+	
+	@Override
+	public void setUp() {
+		
+	}
+	
+	@Test
+	public void testDenseRoundRandRowMinusCompression() {
+		runMatrixVectorBinaryTest(SparsityType.DENSE, ValueType.RAND_ROUND, OpType.ROW_MINUS, true);
+	}
+	
+	@Test
+	public void testSparseRoundRandRowMinusCompression() {
+		runMatrixVectorBinaryTest(SparsityType.SPARSE, ValueType.RAND_ROUND, OpType.ROW_MINUS, true);
+	}
+	
+	@Test
+	public void testDenseConstRowMinusCompression() {
+		runMatrixVectorBinaryTest(SparsityType.DENSE, ValueType.CONST, OpType.ROW_MINUS, true);
+	}
+	
+	@Test
+	public void testDenseRandRowMinusCompression() {
+		runMatrixVectorBinaryTest(SparsityType.DENSE, ValueType.RAND, OpType.ROW_MINUS, true);
+	}
+	
+	@Test
+	public void testDenseRoundRandRowMultCompression() {
+		runMatrixVectorBinaryTest(SparsityType.DENSE, ValueType.RAND_ROUND, OpType.ROW_MULT, true);
+	}
+	
+	@Test
+	public void testSparseRoundRandRowMultCompression() {
+		runMatrixVectorBinaryTest(SparsityType.SPARSE, ValueType.RAND_ROUND, OpType.ROW_MULT, true);
+	}
+	
+	@Test
+	public void testDenseRoundRandColMultCompression() {
+		runMatrixVectorBinaryTest(SparsityType.DENSE, ValueType.RAND_ROUND, OpType.COL_MULT, true);
+	}
+	
+	@Test
+	public void testSparseRoundRandColMultCompression() {
+		runMatrixVectorBinaryTest(SparsityType.SPARSE, ValueType.RAND_ROUND, OpType.COL_MULT, true);
+	}
+	
+	@Test
+	public void testDenseRoundRandRowMinusNoCompression() {
+		runMatrixVectorBinaryTest(SparsityType.DENSE, ValueType.RAND_ROUND, OpType.ROW_MINUS, false);
+	}
+	
+	@Test
+	public void testDenseRoundRandColMultNoCompression() {
+		runMatrixVectorBinaryTest(SparsityType.DENSE, ValueType.RAND_ROUND, OpType.COL_MULT, false);
+	}
+
+	/**
+	 * 
+	 * @param sptype
+	 * @param vtype
+	 * @param otype
+	 * @param compress
+	 */
+	private void runMatrixVectorBinaryTest(SparsityType sptype, ValueType vtype, OpType otype, boolean compress)
+	{
+		try
+		{
+			//prepare sparsity for input data
+			double sparsity = (sptype==SparsityType.DENSE) ? sparsity1 : sparsity2;
+			
+			//generate input data
+			double min = (vtype==ValueType.CONST)? 10 : -10;
+			double[][] input = TestUtils.generateTestMatrix(rows, cols, min, 10, sparsity, 7);
+			if( vtype==ValueType.RAND_ROUND )
+				input = TestUtils.round(input);
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(input);
+			boolean rowVect = (otype != OpType.COL_MULT);
+			MatrixBlock vector = DataConverter.convertToMatrixBlock(rowVect ?
+					TestUtils.generateTestMatrix(1, cols, -1, 1, 1.0, 3) :
+					TestUtils.generateTestMatrix(rows, 1, -1, 1, 1.0, 3));
+			
+			//compress given matrix block
+			CompressedMatrixBlock cmb = new CompressedMatrixBlock(mb);
+			if( compress )
+				cmb.compress();
+			
+			//matrix-vector uncompressed
+			BinaryOperator bop = new BinaryOperator( (otype==OpType.ROW_MINUS) ?
+					Minus.getMinusFnObject() : Multiply.getMultiplyFnObject());
+			MatrixBlock ret1 = (MatrixBlock)mb.binaryOperations(bop, vector, new MatrixBlock());
+			
+			//matrix-vector compressed
+			MatrixBlock ret2 = (MatrixBlock)cmb.binaryOperations(bop, vector, new MatrixBlock());
+			if( ret2 instanceof CompressedMatrixBlock )
+				ret2 = ((CompressedMatrixBlock)ret2).decompress();
+			
+			//compare result with input
+			double[][] d1 = DataConverter.convertToDoubleMatrix(ret1);
+			double[][] d2 = DataConverter.convertToDoubleMatrix(ret2);
+			TestUtils.compareMatrices(d1, d2, rows, cols, 0.0000001);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+}
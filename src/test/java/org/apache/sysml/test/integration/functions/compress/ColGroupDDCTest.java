@@ -0,0 +1,349 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.compress;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+
+import org.apache.sysml.runtime.compress.BitmapEncoder;
+import org.apache.sysml.runtime.compress.ColGroup;
+import org.apache.sysml.runtime.compress.ColGroupDDC1;
+import org.apache.sysml.runtime.compress.ColGroupDDC2;
+import org.apache.sysml.runtime.compress.CompressedMatrixBlock;
+import org.apache.sysml.runtime.compress.UncompressedBitmap;
+import org.apache.sysml.runtime.functionobjects.Multiply;
+import org.apache.sysml.runtime.functionobjects.Plus;
+import org.apache.sysml.runtime.instructions.InstructionUtils;
+import org.apache.sysml.runtime.matrix.data.LibMatrixReorg;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.operators.AggregateBinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.AggregateOperator;
+import org.apache.sysml.runtime.matrix.operators.AggregateUnaryOperator;
+import org.apache.sysml.runtime.matrix.operators.RightScalarOperator;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the operations of DDC column groups (1-byte codes per column,
+ * 2-byte codes over all columns) against uncompressed matrix blocks.
+ */
+public class ColGroupDDCTest extends AutomatedTestBase
+{	
+	private static final int rows = 1023;
+	private static final int cols = 20;
+	private static final double sparsity1 = 0.9;
+	private static final double sparsity2 = 1.0;
+	
+	public enum DDCType {
+		DDC1, //one group per column
+		DDC2, //one group for all columns
+	}
+	
+	public enum OpType {
+		DECOMPRESS,
+		MATVECT,
+		VECTMAT,
+		SCALAR,
+		SUM,
+		ROWSUMS,
+		COLSUMS,
+		SUMSQ,
+		SERIALIZE,
+	}
+	
+	@Override
+	public void setUp() {
+		
+	}
+	
+	@Test
+	public void testDDC1DecompressZeros() {
+		runDDCColGroupTest(DDCType.DDC1, OpType.DECOMPRESS, true);
+	}
+	
+	@Test
+	public void testDDC1DecompressNoZeros() {
+		runDDCColGroupTest(DDCType.DDC1, OpType.DECOMPRESS, false);
+	}
+	
+	@Test
+	public void testDDC1MatrixVectorMult() {
+		runDDCColGroupTest(DDCType.DDC1, OpType.MATVECT, true);
+	}
+	
+	@Test
+	public void testDDC1VectorMatrixMult() {
+		runDDCColGroupTest(DDCType.DDC1, OpType.VECTMAT, true);
+	}
+	
+	@Test
+	public void testDDC1ScalarSparseUnsafe() {
+		runDDCColGroupTest(DDCType.DDC1, OpType.SCALAR, true);
+	}
+	
+	@Test
+	public void testDDC1Sum() {
+		runDDCColGroupTest(DDCType.DDC1, OpType.SUM, true);
+	}
+	
+	@Test
+	public void testDDC1RowSums() {
+		runDDCColGroupTest(DDCType.DDC1, OpType.ROWSUMS, true);
+	}
+	
+	@Test
+	public void testDDC1ColSums() {
+		runDDCColGroupTest(DDCType.DDC1, OpType.COLSUMS, true);
+	}
+	
+	@Test
+	public void testDDC1SumSq() {
+		runDDCColGroupTest(DDCType.DDC1, OpType.SUMSQ, true);
+	}
+	
+	@Test
+	public void testDDC1Serialize() {
+		runDDCColGroupTest(DDCType.DDC1, OpType.SERIALIZE, true);
+	}
+	
+	@Test
+	public void testDDC2DecompressZeros() {
+		runDDCColGroupTest(DDCType.DDC2, OpType.DECOMPRESS, true);
+	}
+	
+	@Test
+	public void testDDC2DecompressNoZeros() {
+		runDDCColGroupTest(DDCType.DDC2, OpType.DECOMPRESS, false);
+	}
+	
+	@Test
+	public void testDDC2MatrixVectorMult() {
+		runDDCColGroupTest(DDCType.DDC2, OpType.MATVECT, true);
+	}
+	
+	@Test
+	public void testDDC2VectorMatrixMult() {
+		runDDCColGroupTest(DDCType.DDC2, OpType.VECTMAT, true);
+	}
+	
+	@Test
+	public void testDDC2ScalarSparseUnsafe() {
+		runDDCColGroupTest(DDCType.DDC2, OpType.SCALAR, true);
+	}
+	
+	@Test
+	public void testDDC2Sum() {
+		runDDCColGroupTest(DDCType.DDC2, OpType.SUM, true);
+	}
+	
+	@Test
+	public void testDDC2RowSums() {
+		runDDCColGroupTest(DDCType.DDC2, OpType.ROWSUMS, true);
+	}
+	
+	@Test
+	public void testDDC2ColSums() {
+		runDDCColGroupTest(DDCType.DDC2, OpType.COLSUMS, true);
+	}
+	
+	@Test
+	public void testDDC2SumSq() {
+		runDDCColGroupTest(DDCType.DDC2, OpType.SUMSQ, true);
+	}
+	
+	@Test
+	public void testDDC2Serialize() {
+		runDDCColGroupTest(DDCType.DDC2, OpType.SERIALIZE, true);
+	}
+
+	/**
+	 * 
+	 * @param dtype
+	 * @param otype
+	 * @param zeros
+	 */
+	private void runDDCColGroupTest(DDCType dtype, OpType otype, boolean zeros)
+	{
+		try
+		{
+			//generate input data (rounded, i.e., few distinct values)
+			double sparsity = zeros ? sparsity1 : sparsity2;
+			double[][] input = TestUtils.round(TestUtils.generateTestMatrix(rows, cols, -10, 10, sparsity, 7));
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(input);
+			
+			//create DDC column groups from transposed input
+			ArrayList<ColGroup> groups = createColGroups(mb, dtype);
+			
+			MatrixBlock ret1 = null, ret2 = null;
+			switch( otype ) {
+				case DECOMPRESS: {
+					ret1 = mb;
+					ret2 = decompress(groups);
+					break;
+				}
+				case MATVECT: {
+					MatrixBlock vector = DataConverter.convertToMatrixBlock(
+							TestUtils.generateTestMatrix(cols, 1, 1, 1, 1.0, 3));
+					ret1 = (MatrixBlock)mb.aggregateBinaryOperations(mb, vector, new MatrixBlock(), getMatMultOperator());
+					ret2 = new MatrixBlock(rows, 1, false);
+					ret2.allocateDenseBlock();
+					for( ColGroup grp : groups )
+						grp.rightMultByVector(vector, ret2, 0, rows);
+					ret2.recomputeNonZeros();
+					break;
+				}
+				case VECTMAT: {
+					MatrixBlock vector = DataConverter.convertToMatrixBlock(
+							TestUtils.generateTestMatrix(1, rows, 1, 1, 1.0, 3));
+					ret1 = (MatrixBlock)vector.aggregateBinaryOperations(vector, mb, new MatrixBlock(), getMatMultOperator());
+					ret2 = new MatrixBlock(1, cols, false);
+					ret2.allocateDenseBlock();
+					for( ColGroup grp : groups )
+						grp.leftMultByRowVector(vector, ret2);
+					ret2.recomputeNonZeros();
+					break;
+				}
+				case SCALAR: {
+					ScalarOperator sop = new RightScalarOperator(Plus.getPlusFnObject(), 7);
+					ret1 = (MatrixBlock)mb.scalarOperations(sop, new MatrixBlock());
+					ArrayList<ColGroup> groups2 = new ArrayList<ColGroup>();
+					for( ColGroup grp : groups )
+						groups2.add(grp.scalarOperation(sop));
+					ret2 = decompress(groups2);
+					break;
+				}
+				case SUM:
+				case ROWSUMS:
+				case COLSUMS:
+				case SUMSQ: {
+					AggregateUnaryOperator auop = getAggregateOperator(otype);
+					ret1 = (MatrixBlock)mb.aggregateUnaryOperations(auop, new MatrixBlock(), 1000, 1000, null, true);
+					ret2 = aggregate(groups, auop, otype);
+					break;
+				}
+				case SERIALIZE: {
+					ArrayList<ColGroup> groups2 = new ArrayList<ColGroup>();
+					for( ColGroup grp : groups ) {
+						ByteArrayOutputStream bos = new ByteArrayOutputStream();
+						DataOutputStream dos = new DataOutputStream(bos);
+						grp.write(dos);
+						dos.close();
+						Assert.assertEquals(grp.getExactSizeOnDisk(), bos.size());
+						ColGroup grp2 = (dtype==DDCType.DDC1) ? new ColGroupDDC1() : new ColGroupDDC2();
+						grp2.readFields(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+						groups2.add(grp2);
+					}
+					ret1 = mb;
+					ret2 = decompress(groups2);
+					break;
+				}
+			}
+			
+			//compare result with input
+			double[][] d1 = DataConverter.convertToDoubleMatrix(ret1);
+			double[][] d2 = DataConverter.convertToDoubleMatrix(ret2);
+			TestUtils.compareMatrices(d1, d2, ret1.getNumRows(), ret1.getNumColumns(), 0.0000001);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * 
+	 * @param mb
+	 * @param dtype
+	 * @return
+	 */
+	private static ArrayList<ColGroup> createColGroups(MatrixBlock mb, DDCType dtype) 
+		throws Exception
+	{
+		MatrixBlock rawblock = CompressedMatrixBlock.TRANSPOSE_INPUT ?
+				LibMatrixReorg.transpose(mb, new MatrixBlock(cols, rows, mb.isInSparseFormat())) : mb;
+		ArrayList<ColGroup> ret = new ArrayList<ColGroup>();
+		if( dtype == DDCType.DDC1 ) {
+			for( int j=0; j<cols; j++ ) {
+				UncompressedBitmap ubm = BitmapEncoder.extractBitmap(new int[]{j}, rawblock);
+				ret.add(new ColGroupDDC1(new int[]{j}, rows, ubm));
+			}
+		}
+		else {
+			int[] colIndexes = new int[cols];
+			for( int j=0; j<cols; j++ )
+				colIndexes[j] = j;
+			UncompressedBitmap ubm = BitmapEncoder.extractBitmap(colIndexes, rawblock);
+			ret.add(new ColGroupDDC2(colIndexes, rows, ubm));
+		}
+		return ret;
+	}
+	
+	private static MatrixBlock decompress(ArrayList<ColGroup> groups) {
+		MatrixBlock ret = new MatrixBlock(rows, cols, false);
+		ret.allocateDenseBlock();
+		for( ColGroup grp : groups )
+			grp.decompressToBlock(ret);
+		ret.recomputeNonZeros();
+		return ret;
+	}
+	
+	private static MatrixBlock aggregate(ArrayList<ColGroup> groups, AggregateUnaryOperator auop, OpType otype) 
+		throws Exception
+	{
+		//allocate output incl correction
+		MatrixBlock ret = null;
+		switch( otype ) {
+			case ROWSUMS: ret = new MatrixBlock(rows, 2, false); break;
+			case COLSUMS: ret = new MatrixBlock(2, cols, false); break;
+			default:      ret = new MatrixBlock(1, 2, false); break;
+		}
+		ret.allocateDenseBlock();
+		
+		for( ColGroup grp : groups )
+			grp.unaryAggregateOperations(auop, ret);
+		
+		//drop correction
+		ret.dropLastRowsOrColums(auop.aggOp.correctionLocation);
+		ret.recomputeNonZeros();
+		return ret;
+	}
+	
+	private static AggregateUnaryOperator getAggregateOperator(OpType otype) {
+		switch( otype ) {
+			case SUM:     return InstructionUtils.parseBasicAggregateUnaryOperator("uak+");
+			case ROWSUMS: return InstructionUtils.parseBasicAggregateUnaryOperator("uark+");
+			case COLSUMS: return InstructionUtils.parseBasicAggregateUnaryOperator("uack+");
+			case SUMSQ:   return InstructionUtils.parseBasicAggregateUnaryOperator("uasqk+");
+			default:      return null;
+		}
+	}
+	
+	private static AggregateBinaryOperator getMatMultOperator() {
+		AggregateOperator aop = new AggregateOperator(0, Plus.getPlusFnObject());
+		return new AggregateBinaryOperator(Multiply.getMultiplyFnObject(), aop);
+	}
+}
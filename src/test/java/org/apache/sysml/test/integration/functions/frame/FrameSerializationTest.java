@@ -71,6 +71,36 @@ public class FrameSerializationTest extends AutomatedTestBase
 	public void testFrameMixedJava()  {
 		runFrameSerializeTest(schemaMixed, SerType.JAVA_SER);
 	}
+	
+	@Test
+	public void testFrameStringsDictWritable()  {
+		runFrameSerializeTest(schemaStrings, SerType.WRITABLE_SER, true);
+	}
+	
+	@Test
+	public void testFrameMixedDictWritable()  {
+		runFrameSerializeTest(schemaMixed, SerType.WRITABLE_SER, true);
+	}
+	
+	@Test
+	public void testFrameStringsDictJava()  {
+		runFrameSerializeTest(schemaStrings, SerType.JAVA_SER, true);
+	}
+	
+	@Test
+	public void testFrameMixedDictJava()  {
+		runFrameSerializeTest(schemaMixed, SerType.JAVA_SER, true);
+	}
+	
+	@Test
+	public void testFrameStringsDictSlice()  {
+		runFrameDictSliceTest(false);
+	}
+	
+	@Test
+	public void testFrameStringsDictSliceReuse()  {
+		runFrameDictSliceTest(true);
+	}
 
 	
 	/**
@@ -79,12 +109,24 @@ public class FrameSerializationTest extends AutomatedTestBase
 	 * @param sparseM2
 	 * @param instType
 	 */
-	private void runFrameSerializeTest( ValueType[] schema, SerType stype)
+	private void runFrameSerializeTest( ValueType[] schema, SerType stype) {
+		runFrameSerializeTest(schema, stype, false);
+	}
+	
+	/**
+	 * 
+	 * @param schema
+	 * @param stype
+	 * @param dict
+	 */
+	private void runFrameSerializeTest( ValueType[] schema, SerType stype, boolean dict)
 	{
 		try
 		{
-			//data generation
+			//data generation (w/ low cardinality for dictionary encoding)
 			double[][] A = getRandomMatrix(rows, schema.length, -10, 10, 0.9, 8234); 
+			if( dict )
+				A = TestUtils.round(A);
 			
 			//init data frame
 			List<ValueType> lschema = Arrays.asList(schema);
@@ -98,6 +140,8 @@ public class FrameSerializationTest extends AutomatedTestBase
 							row[j] = UtilFunctions.doubleToObject(lschema.get(j), A[i][j]));
 				frame.appendRow(row);
 			}			
+			if( dict )
+				frame.compactStringColumns();
 			
 			//core serialization and deserialization
 			if( stype == SerType.WRITABLE_SER ) {
@@ -127,6 +171,8 @@ public class FrameSerializationTest extends AutomatedTestBase
 			//check basic meta data
 			if( frame.getNumRows() != rows )
 				Assert.fail("Wrong number of rows: "+frame.getNumRows()+", expected: "+rows);
+			if( dict && !frame.isDictionaryEncoded(0) )
+				Assert.fail("Dictionary encoding of string column not preserved.");
 		
 			//check correct values			
 			for( int i=0; i<rows; i++ ) 
@@ -141,4 +187,61 @@ public class FrameSerializationTest extends AutomatedTestBase
 			throw new RuntimeException(ex);
 		}
 	}
+	
+	/**
+	 * 
+	 * @param reuse
+	 */
+	private void runFrameDictSliceTest(boolean reuse)
+	{
+		try
+		{
+			//data generation (100 rows per distinct value)
+			List<ValueType> lschema = Arrays.asList(schemaStrings);
+			FrameBlock frame = new FrameBlock(lschema);
+			for( int i=0; i<rows; i++ )
+				frame.appendRow(new String[]{"a"+(i/100), "b"+(i/100%7), null});
+			frame.compactStringColumns();
+			Assert.assertTrue(frame.isDictionaryEncoded(0));
+			Assert.assertTrue(frame.isDictionaryEncoded(1));
+			
+			//slice row range that covers 3 distinct values (not a prefix)
+			int rl = 1050, ru = 1349;
+			FrameBlock slice = new FrameBlock();
+			if( reuse ) {
+				slice = new FrameBlock(lschema.subList(0, 2));
+				slice.ensureAllocatedColumns(ru-rl+1);
+			}
+			slice = frame.sliceOperations(rl, ru, 0, 1, slice);
+			
+			//check encoding and compacted dictionaries
+			Assert.assertTrue(slice.isDictionaryEncoded(0));
+			Assert.assertEquals(4, slice.getColumnDictionary(0).length);
+			Assert.assertEquals(4, slice.getColumnDictionary(1).length);
+			Assert.assertEquals(Arrays.asList("a10","a11","a12","a13"), 
+				Arrays.asList(slice.getColumnDictionary(0)));
+			
+			//check values after serialization round trip
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			slice.write(new DataOutputStream(bos));
+			FrameBlock slice2 = new FrameBlock();
+			slice2.readFields(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+			Assert.assertTrue(slice2.isDictionaryEncoded(0));
+			for( int i=rl; i<=ru; i++ )
+				for( int j=0; j<2; j++ ) {
+					Assert.assertEquals(frame.get(i, j), slice.get(i-rl, j));
+					Assert.assertEquals(frame.get(i, j), slice2.get(i-rl, j));
+				}
+			
+			//check independent updates of slice and input
+			slice.set(0, 0, "x");
+			Assert.assertEquals("x", slice.get(0, 0));
+			Assert.assertEquals("a10", frame.get(rl, 0));
+			Assert.assertEquals(5, slice.getColumnDictionary(0).length);
+		}
+		catch(Exception ex) {
+			ex.printStackTrace();
+			throw new RuntimeException(ex);
+		}
+	}
 }
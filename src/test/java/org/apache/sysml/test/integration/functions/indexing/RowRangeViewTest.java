@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.indexing;
+
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.controlprogram.caching.MatrixObject.UpdateType;
+import org.apache.sysml.runtime.functionobjects.Plus;
+import org.apache.sysml.runtime.instructions.cp.MatrixIndexingCPInstruction;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+import org.apache.sysml.utils.Statistics;
+
+/**
+ * Tests zero-copy row-range views for right indexing, both on block level 
+ * (views vs sliced copies, copy-on-write) and for a mini-batch loop, whose
+ * results are compared against the same script w/o views.
+ */
+public class RowRangeViewTest extends AutomatedTestBase
+{
+	private final static String TEST_NAME = "RowRangeViewTest";
+	private final static String TEST_DIR = "functions/indexing/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + RowRangeViewTest.class.getSimpleName() + "/";
+	
+	private final static int rows = 1023;
+	private final static int cols = 117;
+	private final static int batch = 100;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.05;
+	private final static double eps = 1e-8;
+	
+	@Override
+	public void setUp() {
+		addTestConfiguration(TEST_NAME, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] {"R"}));
+	}
+	
+	@Test
+	public void testViewDensePrefix() {
+		runRowRangeViewBlockTest(false, 0, 399, true);
+	}
+	
+	@Test
+	public void testViewDenseInterior() {
+		runRowRangeViewBlockTest(false, 100, 399, true);
+	}
+	
+	@Test
+	public void testViewSparsePrefix() {
+		runRowRangeViewBlockTest(true, 0, 399, true);
+	}
+	
+	@Test
+	public void testViewSparseInterior() {
+		runRowRangeViewBlockTest(true, 100, 399, true);
+	}
+	
+	@Test
+	public void testMiniBatchDenseCP() {
+		runMiniBatchTest(false);
+	}
+	
+	@Test
+	public void testMiniBatchSparseCP() {
+		runMiniBatchTest(true);
+	}
+	
+	private void runRowRangeViewBlockTest( boolean sparse, int rl, int ru, boolean expectView ) 
+	{
+		try
+		{
+			double sparsity = sparse ? sparsity2 : sparsity1;
+			double[][] A = getRandomMatrix(rows, cols, -1, 1, sparsity, 7);
+			MatrixBlock mb = DataConverter.convertToMatrixBlock(A);
+			Assert.assertEquals(sparse, mb.isInSparseFormat());
+			
+			//compare view against sliced copy
+			MatrixBlock view = mb.sliceRowsView(rl, ru);
+			MatrixBlock copy = mb.sliceOperations(rl, ru, 0, cols-1, new MatrixBlock());
+			Assert.assertEquals(expectView, view.isView());
+			Assert.assertEquals(!sparse && rl > 0, view.isOffsetView());
+			Assert.assertEquals(copy.getNonZeros(), view.getNonZeros());
+			
+			//compare nested view against sliced copy (view of view)
+			MatrixBlock view2 = view.sliceRowsView(10, 49);
+			MatrixBlock copy2 = copy.sliceOperations(10, 49, 0, cols-1, new MatrixBlock());
+			Assert.assertEquals(expectView, view2.isView());
+			Assert.assertEquals(!sparse, view2.isOffsetView());
+			Assert.assertEquals(copy2.getNonZeros(), view2.getNonZeros());
+			view2.materializeView();
+			Assert.assertFalse(view2.isOffsetView());
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(copy2), 
+				DataConverter.convertToDoubleMatrix(view2), 40, cols, eps);
+			
+			view.materializeView();
+			Assert.assertFalse(view.isOffsetView());
+			TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(copy), 
+				DataConverter.convertToDoubleMatrix(view), ru-rl+1, cols, eps);
+			
+			//copy-on-write on in-place updates of views
+			view.binaryOperationsInPlace(new BinaryOperator(Plus.getPlusFnObject()), copy);
+			view = mb.sliceRowsView(rl, ru);
+			view.leftIndexingOperations(copy, 0, ru-rl, 0, cols-1, null, UpdateType.INPLACE_PINNED);
+			view = mb.sliceRowsView(rl, ru);
+			view.reset();
+			Assert.assertFalse(view.isView());
+			
+			//check unmodified parent
+			TestUtils.compareMatrices(A, DataConverter.convertToDoubleMatrix(mb), rows, cols, eps);
+		}
+		catch(DMLRuntimeException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	private void runMiniBatchTest( boolean sparse ) 
+	{
+		RUNTIME_PLATFORM oldPlatform = rtplatform;
+		boolean oldFlag = MatrixIndexingCPInstruction.ALLOW_ROWS_VIEW;
+		
+		try
+		{
+			rtplatform = RUNTIME_PLATFORM.SINGLE_NODE;
+			TestConfiguration config = getTestConfiguration(TEST_NAME);
+			loadTestConfiguration(config);
+			
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + TEST_NAME + ".dml";
+			
+			double sparsity = sparse ? sparsity2 : sparsity1;
+			double[][] X = getRandomMatrix(rows, cols, -1, 1, sparsity, 7);
+			writeInputMatrixWithMTD("X", X, false);
+			
+			//run with sliced copies and row-range views
+			MatrixIndexingCPInstruction.ALLOW_ROWS_VIEW = false;
+			programArgs = new String[]{"-stats", "-args", input("X"), String.valueOf(batch), output("R1") };
+			runTest(true, false, null, -1); 
+			Assert.assertEquals(0, Statistics.getTotalRowsViews());
+			MatrixIndexingCPInstruction.ALLOW_ROWS_VIEW = true;
+			programArgs = new String[]{"-stats", "-args", input("X"), String.valueOf(batch), output("R2") };
+			runTest(true, false, null, -1); 
+			
+			//check created views (batches and nested slices of batches), where 
+			//dense views at row offsets are materialized on the matrix multiply
+			int iters = (int)Math.ceil((double)rows/batch);
+			Assert.assertEquals(2*iters, Statistics.getTotalRowsViews());
+			if( sparse )
+				Assert.assertEquals(0, Statistics.getTotalRowsViewsMaterialized());
+			else
+				Assert.assertTrue(Statistics.getTotalRowsViewsMaterialized() >= iters-1);
+			
+			//compare results
+			HashMap<CellIndex, Double> ret1 = readDMLMatrixFromHDFS("R1");
+			HashMap<CellIndex, Double> ret2 = readDMLMatrixFromHDFS("R2");
+			TestUtils.compareMatrices(ret1, ret2, eps, "Copy", "View");
+		}
+		finally {
+			rtplatform = oldPlatform;
+			MatrixIndexingCPInstruction.ALLOW_ROWS_VIEW = oldFlag;
+		}
+	}
+}
@@ -0,0 +1,275 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.misc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.runtime.util.CommonThreadPool;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+
+/**
+ * Tests the handles of the shared thread pool wrt bounded parallelism 
+ * (incl sequential execution for k=1), nested submission from workers
+ * of the shared pool, and shutdown semantics of individual handles.
+ */
+public class CommonThreadPoolTest extends AutomatedTestBase
+{
+	private final static int NUM_TASKS = 1000;
+	private final static long TIMEOUT = 60; //in sec
+	
+	@Override
+	public void setUp() {
+		//no test configuration required
+	}
+	
+	@Test
+	public void testSequentialK1() {
+		runBoundedParallelismTest(1);
+	}
+	
+	@Test
+	public void testBoundedParallelismK3() {
+		runBoundedParallelismTest(3);
+	}
+	
+	@Test
+	public void testNestedSubmission() {
+		runNestedSubmissionTest();
+	}
+	
+	@Test
+	public void testShutdown() {
+		runShutdownTest();
+	}
+	
+	@Test
+	public void testShutdownNow() {
+		runShutdownNowTest();
+	}
+	
+	private void runBoundedParallelismTest( final int k ) 
+	{
+		CommonThreadPool pool = CommonThreadPool.get(k);
+		final AtomicInteger active = new AtomicInteger(0);
+		final AtomicInteger maxActive = new AtomicInteger(0);
+		final List<Integer> order = new ArrayList<Integer>();
+		
+		try
+		{
+			ArrayList<Future<Integer>> rtasks = new ArrayList<Future<Integer>>();
+			for( int i=0; i<NUM_TASKS; i++ ) {
+				final int pos = i;
+				rtasks.add(pool.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						int cur = active.incrementAndGet();
+						while( true ) {
+							int max = maxActive.get();
+							if( cur <= max || maxActive.compareAndSet(max, cur) )
+								break;
+						}
+						synchronized( order ) {
+							order.add(pos);
+						}
+						Thread.yield();
+						active.decrementAndGet();
+						return pos;
+					}
+				}));
+			}
+			
+			//check results, degree of parallelism, and order for k=1
+			for( int i=0; i<NUM_TASKS; i++ )
+				Assert.assertEquals(i, (int)rtasks.get(i).get(TIMEOUT, TimeUnit.SECONDS));
+			Assert.assertTrue("Exceeded parallelism: "+maxActive.get(), maxActive.get() <= k);
+			Assert.assertEquals(NUM_TASKS, order.size());
+			if( k == 1 )
+				for( int i=0; i<NUM_TASKS; i++ )
+					Assert.assertEquals(i, (int)order.get(i));
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+	
+	private void runNestedSubmissionTest() 
+	{
+		//occupy all workers of the shared pool with blocking outer tasks
+		final int k = CommonThreadPool.getSharedParallelism();
+		CommonThreadPool pool = CommonThreadPool.get(k);
+		
+		try
+		{
+			ArrayList<Future<Long>> rtasks = new ArrayList<Future<Long>>();
+			for( int i=0; i<2*k; i++ ) {
+				final int pos = i;
+				rtasks.add(pool.submit(new Callable<Long>() {
+					@Override
+					public Long call() throws Exception {
+						CommonThreadPool pool2 = CommonThreadPool.get(k);
+						try {
+							ArrayList<Future<Long>> rtasks2 = new ArrayList<Future<Long>>();
+							for( int j=0; j<100; j++ ) {
+								final long val = pos * 100 + j;
+								rtasks2.add(pool2.submit(new Callable<Long>() {
+									@Override
+									public Long call() {
+										return val;
+									}
+								}));
+							}
+							long sum = 0;
+							for( Future<Long> f : rtasks2 )
+								sum += f.get();
+							return sum;
+						}
+						finally {
+							pool2.shutdown();
+						}
+					}
+				}));
+			}
+			
+			//check results w/o deadlock (bounded wait)
+			for( int i=0; i<2*k; i++ )
+				Assert.assertEquals(100L*100*i + 99*100/2, 
+					(long)rtasks.get(i).get(TIMEOUT, TimeUnit.SECONDS));
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+	
+	private void runShutdownTest() 
+	{
+		CommonThreadPool pool = CommonThreadPool.get(2);
+		CommonThreadPool pool2 = CommonThreadPool.get(2);
+		final AtomicInteger count = new AtomicInteger(0);
+		
+		try
+		{
+			for( int i=0; i<NUM_TASKS; i++ )
+				pool.submit(new Runnable() {
+					@Override
+					public void run() {
+						count.incrementAndGet();
+					}
+				});
+			
+			//pending tasks are completed after shutdown
+			pool.shutdown();
+			Assert.assertTrue(pool.isShutdown());
+			Assert.assertTrue(pool.awaitTermination(TIMEOUT, TimeUnit.SECONDS));
+			Assert.assertTrue(pool.isTerminated());
+			Assert.assertEquals(NUM_TASKS, count.get());
+			
+			//new tasks are rejected
+			try {
+				pool.submit(new Runnable() {
+					@Override
+					public void run() {}
+				});
+				Assert.fail("Task submitted to shut down handle.");
+			}
+			catch(RejectedExecutionException ex) {
+				//expected
+			}
+			
+			//other handles of the shared pool remain usable
+			Future<Integer> f = pool2.submit(new Callable<Integer>() {
+				@Override
+				public Integer call() {
+					return 7;
+				}
+			});
+			Assert.assertEquals(7, (int)f.get(TIMEOUT, TimeUnit.SECONDS));
+			Assert.assertFalse(pool2.isShutdown());
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			pool2.shutdown();
+		}
+	}
+	
+	private void runShutdownNowTest() 
+	{
+		CommonThreadPool pool = CommonThreadPool.get(1);
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch blocker = new CountDownLatch(1);
+		
+		try
+		{
+			//block the single runner of the handle
+			Future<Integer> first = pool.submit(new Callable<Integer>() {
+				@Override
+				public Integer call() throws Exception {
+					started.countDown();
+					blocker.await();
+					return 1;
+				}
+			});
+			started.await(TIMEOUT, TimeUnit.SECONDS);
+			
+			//enqueue tasks behind the blocked task
+			ArrayList<Future<Integer>> rtasks = new ArrayList<Future<Integer>>();
+			for( int i=0; i<10; i++ )
+				rtasks.add(pool.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() {
+						return 2;
+					}
+				}));
+			
+			//cancel all pending tasks, but complete the running task
+			List<Runnable> pending = pool.shutdownNow();
+			Assert.assertEquals(10, pending.size());
+			for( Future<Integer> f : rtasks )
+				Assert.assertTrue(f.isCancelled());
+			blocker.countDown();
+			Assert.assertEquals(1, (int)first.get(TIMEOUT, TimeUnit.SECONDS));
+			Assert.assertTrue(pool.awaitTermination(TIMEOUT, TimeUnit.SECONDS));
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			blocker.countDown();
+		}
+	}
+}
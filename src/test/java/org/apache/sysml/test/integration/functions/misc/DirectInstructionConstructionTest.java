@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.misc;
+
+import java.lang.reflect.Field;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.hops.Hop.FileFormatTypes;
+import org.apache.sysml.lops.Binary;
+import org.apache.sysml.lops.BinaryScalar;
+import org.apache.sysml.lops.Data;
+import org.apache.sysml.lops.Lop;
+import org.apache.sysml.lops.LopProperties.ExecType;
+import org.apache.sysml.lops.LopsException;
+import org.apache.sysml.lops.Unary;
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.instructions.Instruction;
+import org.apache.sysml.runtime.instructions.InstructionParser;
+import org.apache.sysml.runtime.instructions.cp.CPInstruction;
+import org.apache.sysml.runtime.instructions.cp.CPOperand;
+import org.apache.sysml.runtime.instructions.cp.ComputationCPInstruction;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.Operator;
+import org.apache.sysml.runtime.matrix.operators.ScalarOperator;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+
+/**
+ * Tests that CP instructions constructed directly from lops are equivalent
+ * to the instructions parsed from the generated instruction strings.
+ */
+public class DirectInstructionConstructionTest extends AutomatedTestBase
+{
+	@Override
+	public void setUp() {
+		
+	}
+	
+	@Test
+	public void testBinaryMatrixMatrixArithmetic() throws Exception {
+		for( Binary.OperationTypes op : new Binary.OperationTypes[]{Binary.OperationTypes.ADD, 
+			Binary.OperationTypes.MULTIPLY, Binary.OperationTypes.DIVIDE, Binary.OperationTypes.POW} ) 
+			runBinaryTest(op, 4);
+	}
+	
+	@Test
+	public void testBinaryMatrixMatrixRelational() throws Exception {
+		for( Binary.OperationTypes op : new Binary.OperationTypes[]{Binary.OperationTypes.LESS_THAN, 
+			Binary.OperationTypes.GREATER_THAN_OR_EQUALS, Binary.OperationTypes.NOT_EQUALS} ) 
+			runBinaryTest(op, 1);
+	}
+	
+	@Test
+	public void testBinaryScalarScalar() throws Exception {
+		for( BinaryScalar.OperationTypes op : new BinaryScalar.OperationTypes[]{BinaryScalar.OperationTypes.ADD, 
+			BinaryScalar.OperationTypes.SUBTRACT, BinaryScalar.OperationTypes.MULTIPLY, 
+			BinaryScalar.OperationTypes.LESS_THAN, BinaryScalar.OperationTypes.EQUALS} )
+			runBinaryScalarTest(op);
+	}
+	
+	@Test
+	public void testUnaryScalarMatrix() throws Exception {
+		for( Unary.OperationTypes op : new Unary.OperationTypes[]{Unary.OperationTypes.ADD, 
+			Unary.OperationTypes.MULTIPLY, Unary.OperationTypes.SUBTRACTRIGHT, 
+			Unary.OperationTypes.GREATER_THAN, Unary.OperationTypes.LESS_THAN_OR_EQUALS} ) {
+			runUnaryTest(op, true, 4);
+			runUnaryTest(op, false, 4);
+		}
+	}
+	
+	private void runBinaryTest(Binary.OperationTypes op, int k) throws Exception {
+		Lop in1 = createMatrixRead("A");
+		Lop in2 = createMatrixRead("B");
+		Binary lop = new Binary(in1, in2, op, DataType.MATRIX, ValueType.DOUBLE, ExecType.CP, k);
+		lop.getOutputParameters().setLabel("_mVar3");
+		compareInstructions(lop, lop.getInstructions("A", "B", "_mVar3"));
+	}
+	
+	private void runBinaryScalarTest(BinaryScalar.OperationTypes op) throws Exception {
+		Lop in1 = createScalarRead("s");
+		Lop in2 = Data.createLiteralLop(ValueType.DOUBLE, "7.0");
+		BinaryScalar lop = new BinaryScalar(in1, in2, op, DataType.SCALAR, 
+			(op.ordinal() >= BinaryScalar.OperationTypes.LESS_THAN.ordinal()) ? ValueType.BOOLEAN : ValueType.DOUBLE, ExecType.CP);
+		lop.getOutputParameters().setLabel("_Var3");
+		compareInstructions(lop, lop.getInstructions("s", "7.0", "_Var3"));
+	}
+	
+	private void runUnaryTest(Unary.OperationTypes op, boolean literal, int k) throws Exception {
+		Lop in1 = createMatrixRead("A");
+		Lop in2 = literal ? Data.createLiteralLop(ValueType.DOUBLE, "3.0") : createScalarRead("s");
+		Unary lop = new Unary(in1, in2, op, DataType.MATRIX, ValueType.DOUBLE, ExecType.CP, k);
+		lop.getOutputParameters().setLabel("_mVar3");
+		String label = in2.getOutputParameters().getLabel();
+		compareInstructions(lop, lop.getInstructions("A", label, "_mVar3"));
+	}
+	
+	private static Lop createMatrixRead(String name) throws LopsException {
+		return new Data(Data.OperationTypes.READ, null, null, name, null, 
+			DataType.MATRIX, ValueType.DOUBLE, true, FileFormatTypes.BINARY);
+	}
+	
+	private static Lop createScalarRead(String name) throws LopsException {
+		return new Data(Data.OperationTypes.READ, null, null, name, null, 
+			DataType.SCALAR, ValueType.DOUBLE, true, FileFormatTypes.BINARY);
+	}
+	
+	private static void compareInstructions(Lop lop, String str) throws Exception {
+		Instruction inst1 = lop.getInstruction(str);
+		Instruction inst2 = InstructionParser.parseSingleInstruction(str);
+		Assert.assertNotNull("Missing direct construction: "+str, inst1);
+		Assert.assertEquals(inst2.getClass(), inst1.getClass());
+		Assert.assertEquals(inst2.toString(), inst1.toString());
+		Assert.assertEquals(inst2.getOpcode(), inst1.getOpcode());
+		Assert.assertEquals(((CPInstruction)inst2).getCPInstructionType(), 
+			((CPInstruction)inst1).getCPInstructionType());
+		
+		//compare operands
+		ComputationCPInstruction cinst1 = (ComputationCPInstruction) inst1;
+		ComputationCPInstruction cinst2 = (ComputationCPInstruction) inst2;
+		compareOperands(cinst2.input1, cinst1.input1);
+		compareOperands(cinst2.input2, cinst1.input2);
+		compareOperands(cinst2.output, cinst1.output);
+		
+		//compare operators (incl num threads and scalar constants)
+		Operator op1 = getOperator(inst1);
+		Operator op2 = getOperator(inst2);
+		Assert.assertEquals(op2.getClass(), op1.getClass());
+		if( op2 instanceof BinaryOperator ) {
+			Assert.assertEquals(((BinaryOperator)op2).fn.getClass(), ((BinaryOperator)op1).fn.getClass());
+			Assert.assertEquals(((BinaryOperator)op2).getNumThreads(), ((BinaryOperator)op1).getNumThreads());
+		}
+		else if( op2 instanceof ScalarOperator ) {
+			Assert.assertEquals(((ScalarOperator)op2).fn.getClass(), ((ScalarOperator)op1).fn.getClass());
+			Assert.assertEquals(((ScalarOperator)op2).getNumThreads(), ((ScalarOperator)op1).getNumThreads());
+			Assert.assertEquals(((ScalarOperator)op2).getConstant(), ((ScalarOperator)op1).getConstant(), 0);
+		}
+	}
+	
+	private static void compareOperands(CPOperand expected, CPOperand actual) {
+		Assert.assertEquals(expected.getName(), actual.getName());
+		Assert.assertEquals(expected.getDataType(), actual.getDataType());
+		Assert.assertEquals(expected.getValueType(), actual.getValueType());
+		Assert.assertEquals(expected.isLiteral(), actual.isLiteral());
+	}
+	
+	private static Operator getOperator(Instruction inst) throws Exception {
+		Field f = CPInstruction.class.getDeclaredField("_optr");
+		f.setAccessible(true);
+		return (Operator) f.get(inst);
+	}
+}
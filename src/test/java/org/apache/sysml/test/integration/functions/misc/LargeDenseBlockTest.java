@@ -0,0 +1,355 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.misc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
+import org.apache.sysml.hops.AggUnaryOp;
+import org.apache.sysml.hops.DataOp;
+import org.apache.sysml.hops.Hop;
+import org.apache.sysml.hops.Hop.AggOp;
+import org.apache.sysml.hops.Hop.DataOpTypes;
+import org.apache.sysml.hops.Hop.Direction;
+import org.apache.sysml.hops.HopsException;
+import org.apache.sysml.hops.MemoTable;
+import org.apache.sysml.hops.rewrite.HopRewriteUtils;
+import org.apache.sysml.lops.LopProperties.ExecType;
+import org.apache.sysml.lops.LopsException;
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.controlprogram.parfor.stat.InfrastructureAnalyzer;
+import org.apache.sysml.runtime.functionobjects.Multiply;
+import org.apache.sysml.runtime.functionobjects.Plus;
+import org.apache.sysml.runtime.instructions.InstructionUtils;
+import org.apache.sysml.runtime.matrix.data.DenseBlockFactory;
+import org.apache.sysml.runtime.matrix.data.LibMatrixDatagen;
+import org.apache.sysml.runtime.matrix.data.LibMatrixMult;
+import org.apache.sysml.runtime.matrix.data.LibMatrixReorg;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixIndexes;
+import org.apache.sysml.runtime.matrix.operators.BinaryOperator;
+import org.apache.sysml.runtime.matrix.operators.RightScalarOperator;
+import org.apache.sysml.runtime.util.LocalFileUtils;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * Tests matrix operations over large dense blocks (i.e., dense blocks split 
+ * into multiple row blocks) against the same operations over regular dense 
+ * blocks, by temporarily lowering the max size of a single dense array.
+ */
+public class LargeDenseBlockTest extends AutomatedTestBase
+{
+	private final static int rows = 1234;
+	private final static int cols = 73;
+	private final static long maxSize = 10000; //~10 row blocks
+	private final static double eps = 1e-8;
+	
+	@Override
+	public void setUp() {
+		//no test configuration required
+	}
+	
+	@Test
+	public void testMatrixMultLeft() {
+		runLargeDenseTest(OpType.MM_LEFT);
+	}
+	
+	@Test
+	public void testMatrixMultRight() {
+		runLargeDenseTest(OpType.MM_RIGHT);
+	}
+	
+	@Test
+	public void testTransposeSelf() {
+		runLargeDenseTest(OpType.TSMM);
+	}
+	
+	@Test
+	public void testTranspose() {
+		runLargeDenseTest(OpType.TRANSPOSE);
+	}
+	
+	@Test
+	public void testBinary() {
+		runLargeDenseTest(OpType.BINARY);
+	}
+	
+	@Test
+	public void testScalar() {
+		runLargeDenseTest(OpType.SCALAR);
+	}
+	
+	@Test
+	public void testRowSums() {
+		runLargeDenseTest(OpType.ROWSUMS);
+	}
+	
+	@Test
+	public void testColSums() {
+		runLargeDenseTest(OpType.COLSUMS);
+	}
+	
+	@Test
+	public void testOuterProduct() {
+		runLargeDenseTest(OpType.OUTER);
+	}
+	
+	@Test
+	public void testTransposeSelfRightOutput() {
+		runLargeDenseTest(OpType.TSMM_RIGHT_OUT);
+	}
+	
+	@Test
+	public void testTransposeSelfLeftOutput() {
+		runLargeDenseTest(OpType.TSMM_LEFT_OUT);
+	}
+	
+	@Test
+	public void testSerialization() {
+		runLargeDenseTest(OpType.SERIALIZE);
+	}
+	
+	@Test
+	public void testEviction() {
+		runLargeDenseTest(OpType.EVICT);
+	}
+	
+	@Test
+	public void testEvictionMapped() {
+		runLargeDenseTest(OpType.EVICT_MAPPED);
+	}
+	
+	@Test
+	public void testSparseDenseConversion() {
+		runLargeDenseTest(OpType.SPARSE_DENSE);
+	}
+	
+	@Test
+	public void testRand() {
+		runLargeDenseTest(OpType.RAND);
+	}
+	
+	@Test
+	public void testHopPlacement() 
+	{
+		RUNTIME_PLATFORM oldPlatform = DMLScript.rtplatform;
+		long oldMem = InfrastructureAnalyzer.getLocalMaxMemory();
+		
+		try
+		{
+			//dense 60K x 60K input (>2^31 cells), fits into the local memory budget
+			DMLScript.rtplatform = RUNTIME_PLATFORM.HYBRID;
+			InfrastructureAnalyzer.setLocalMaxMemory(4L * 1024 * 1024 * 1024 * 1024);
+			Hop X = new DataOp("X", DataType.MATRIX, ValueType.DOUBLE, 
+				DataOpTypes.TRANSIENTREAD, "X", 60000, 60000, 3600000000L, 1000, 1000);
+			AggUnaryOp colSums = HopRewriteUtils.createAggUnaryOp(X, AggOp.SUM, Direction.Col);
+			AggUnaryOp trace = HopRewriteUtils.createAggUnaryOp(X, AggOp.TRACE, Direction.RowCol);
+			colSums.refreshMemEstimates(new MemoTable());
+			trace.refreshMemEstimates(new MemoTable());
+			colSums.constructLops();
+			trace.constructLops();
+			
+			//column aggregates over row blocks in CP, trace remote
+			Assert.assertEquals(ExecType.CP, colSums.getExecType());
+			Assert.assertEquals(ExecType.MR, trace.getExecType());
+		}
+		catch(HopsException ex) {
+			throw new RuntimeException(ex);
+		}
+		catch(LopsException ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			DMLScript.rtplatform = oldPlatform;
+			InfrastructureAnalyzer.setLocalMaxMemory(oldMem);
+		}
+	}
+	
+	private enum OpType {
+		MM_LEFT, MM_RIGHT, TSMM, TRANSPOSE, BINARY, SCALAR, ROWSUMS, COLSUMS,
+		OUTER, TSMM_RIGHT_OUT, TSMM_LEFT_OUT, SERIALIZE, EVICT, EVICT_MAPPED,
+		SPARSE_DENSE, RAND
+	}
+	
+	private void runLargeDenseTest( OpType type )
+	{
+		try
+		{
+			double[][] A = TestUtils.generateTestMatrix(rows, cols, -1, 1, 1.0, 7);
+			double[][] B = TestUtils.generateTestMatrix(cols, 11, -1, 1, 1.0, 3);
+			double[][] C = TestUtils.generateTestMatrix(13, rows, -1, 1, 1.0, 9);
+			
+			//compute reference with regular dense blocks
+			double[][] expected = toArray(execute(type, A, B, C));
+			
+			//compute result with large dense blocks
+			DenseBlockFactory.setMaxDenseArraySize(maxSize);
+			double[][] actual = toArray(execute(type, A, B, C));
+			
+			TestUtils.compareMatrices(expected, actual, expected.length, expected[0].length, eps);
+		}
+		catch(DMLRuntimeException ex) {
+			throw new RuntimeException(ex);
+		}
+		catch(IOException ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			DenseBlockFactory.resetMaxDenseArraySize();
+		}
+	}
+	
+	private static MatrixBlock execute( OpType type, double[][] A, double[][] B, double[][] C ) 
+		throws DMLRuntimeException, IOException
+	{
+		MatrixBlock mA = toMatrixBlock(A);
+		MatrixBlock ret = null;
+		boolean large = DenseBlockFactory.getMaxDenseArraySize() < (long)rows*cols;
+		
+		switch( type ) {
+			case MM_LEFT:
+				ret = new MatrixBlock(rows, B[0].length, false);
+				LibMatrixMult.matrixMult(mA, toMatrixBlock(B), ret);
+				break;
+			case MM_RIGHT:
+				ret = new MatrixBlock(C.length, cols, false);
+				LibMatrixMult.matrixMult(toMatrixBlock(C), mA, ret);
+				break;
+			case TSMM:
+				ret = new MatrixBlock(cols, cols, false);
+				LibMatrixMult.matrixMultTransposeSelf(mA, ret, true);
+				break;
+			case TRANSPOSE:
+				ret = LibMatrixReorg.transpose(mA, new MatrixBlock(cols, rows, false));
+				break;
+			case BINARY:
+				ret = (MatrixBlock) mA.binaryOperations(new BinaryOperator(
+					Multiply.getMultiplyFnObject()), mA, new MatrixBlock());
+				break;
+			case SCALAR:
+				ret = (MatrixBlock) mA.scalarOperations(new RightScalarOperator(
+					Plus.getPlusFnObject(), 7), new MatrixBlock());
+				break;
+			case ROWSUMS:
+			case COLSUMS:
+				String opcode = (type==OpType.ROWSUMS) ? "uark+" : "uack+";
+				ret = (MatrixBlock) mA.aggregateUnaryOperations(
+					InstructionUtils.parseBasicAggregateUnaryOperator(opcode), 
+					new MatrixBlock(), rows, cols, new MatrixIndexes(1, 1), true);
+				break;
+			case OUTER: {
+				//small inputs, large output
+				MatrixBlock u = mA.sliceOperations(0, rows-1, 0, 0, new MatrixBlock());
+				MatrixBlock v = LibMatrixReorg.transpose(u, new MatrixBlock(1, rows, false));
+				ret = new MatrixBlock(rows, rows, false);
+				LibMatrixMult.matrixMult(u, v, ret, 4);
+				break;
+			}
+			case TSMM_RIGHT_OUT:
+			case TSMM_LEFT_OUT: {
+				//small input, large output
+				MatrixBlock D = mA.sliceOperations(0, rows-1, 0, 2, new MatrixBlock());
+				ret = new MatrixBlock(rows, rows, false);
+				if( type == OpType.TSMM_RIGHT_OUT )
+					LibMatrixMult.matrixMultTransposeSelf(D, ret, false);
+				else
+					LibMatrixMult.matrixMultTransposeSelf(LibMatrixReorg.transpose(
+						D, new MatrixBlock(3, rows, false)), ret, true, 4);
+				break;
+			}
+			case SERIALIZE: {
+				ByteArrayOutputStream bos = new ByteArrayOutputStream();
+				mA.write(new DataOutputStream(bos));
+				Assert.assertEquals(mA.getExactSizeOnDisk(), bos.size());
+				ret = new MatrixBlock();
+				ret.readFields(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+				break;
+			}
+			case EVICT:
+			case EVICT_MAPPED: {
+				File f = File.createTempFile("largeDense", ".bin");
+				try {
+					if( type == OpType.EVICT ) {
+						LocalFileUtils.writeMatrixBlockToLocal(f.getAbsolutePath(), mA);
+						ret = LocalFileUtils.readMatrixBlockFromLocal(f.getAbsolutePath());
+					}
+					else {
+						LocalFileUtils.writeMappedMatrixBlockToLocal(f.getAbsolutePath(), mA);
+						ret = LocalFileUtils.readMappedMatrixBlockFromLocal(f.getAbsolutePath());
+					}
+				}
+				finally {
+					LocalFileUtils.deleteFileIfExists(f.getAbsolutePath(), true);
+				}
+				break;
+			}
+			case SPARSE_DENSE: {
+				//dense to sparse (via sparsity exam) and back (via copy)
+				MatrixBlock mS = toMatrixBlock(TestUtils.generateTestMatrix(rows, cols, -1, 1, 0.05, 7));
+				Assert.assertEquals(large, mS.isInLargeDenseFormat());
+				mS.examSparsity();
+				Assert.assertTrue(mS.isInSparseFormat());
+				ret = new MatrixBlock();
+				ret.copy(mS, false);
+				break;
+			}
+			case RAND:
+				ret = MatrixBlock.randOperations(LibMatrixDatagen.createRandomMatrixGenerator(
+					"uniform", rows, cols, 1000, 1000, 1.0, 0, 1, null), 7, 1);
+				break;
+		}
+		
+		//check representation of large input and large dense outputs
+		Assert.assertEquals(large, mA.isInLargeDenseFormat());
+		if( !ret.isInSparseFormat() && (long)ret.getNumRows()*ret.getNumColumns() > maxSize )
+			Assert.assertEquals(large, ret.isInLargeDenseFormat());
+		
+		return ret;
+	}
+	
+	private static MatrixBlock toMatrixBlock( double[][] A ) 
+		throws DMLRuntimeException
+	{
+		MatrixBlock ret = new MatrixBlock(A.length, A[0].length, false);
+		ret.init(A, A.length, A[0].length);
+		return ret;
+	}
+	
+	private static double[][] toArray( MatrixBlock mb ) {
+		double[][] ret = new double[mb.getNumRows()][mb.getNumColumns()];
+		for( int i=0; i<mb.getNumRows(); i++ )
+			for( int j=0; j<mb.getNumColumns(); j++ )
+				ret[i][j] = mb.quickGetValue(i, j);
+		return ret;
+	}
+}
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.misc;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.runtime.compress.utils.DoubleIntListHashMap;
+import org.apache.sysml.runtime.compress.utils.DoubleIntListHashMap.DIListIterator;
+import org.apache.sysml.runtime.compress.utils.IntArrayList;
+import org.apache.sysml.runtime.util.LongLongDoubleHashMap;
+import org.apache.sysml.runtime.util.LongLongDoubleHashMap.LLDoubleIterator;
+import org.apache.sysml.runtime.util.StringLongHashMap;
+import org.apache.sysml.runtime.util.StringLongHashMap.StringLongIterator;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+
+/**
+ * Tests the open-addressing primitive hash maps used for recoding, ctable,
+ * and compression against java.util.HashMap, including resizing and 
+ * collisions due to skewed key distributions.
+ */
+public class PrimitiveHashMapTest extends AutomatedTestBase
+{
+	private final static int n = 100000;
+	private final static int distinctSmall = 37;
+	private final static int distinctLarge = 20011;
+	
+	@Override
+	public void setUp() {
+		//no test configuration required
+	}
+	
+	@Test
+	public void testStringLongSmall() {
+		runStringLongTest(distinctSmall);
+	}
+	
+	@Test
+	public void testStringLongLarge() {
+		runStringLongTest(distinctLarge);
+	}
+	
+	@Test
+	public void testLongLongDoubleSmall() {
+		runLongLongDoubleTest(distinctSmall, false);
+	}
+	
+	@Test
+	public void testLongLongDoubleLarge() {
+		runLongLongDoubleTest(distinctLarge, false);
+	}
+	
+	@Test
+	public void testLongLongDoubleLargePresized() {
+		runLongLongDoubleTest(distinctLarge, true);
+	}
+	
+	@Test
+	public void testDoubleIntListSmall() {
+		runDoubleIntListTest(distinctSmall);
+	}
+	
+	@Test
+	public void testDoubleIntListLarge() {
+		runDoubleIntListTest(distinctLarge);
+	}
+	
+	private void runStringLongTest( int distinct ) 
+	{
+		Random rand = new Random(7);
+		StringLongHashMap map = new StringLongHashMap();
+		HashMap<String,Long> ref = new HashMap<String,Long>();
+		
+		//recode-like build (first occurrence defines the code)
+		for( int i=0; i<n; i++ ) {
+			String key = "v" + rand.nextInt(distinct);
+			long old = map.putIfAbsent(key, map.size()+1);
+			if( !ref.containsKey(key) ) {
+				Assert.assertEquals(-1, old);
+				ref.put(key, (long)ref.size()+1);
+			}
+			else
+				Assert.assertEquals(ref.get(key).longValue(), old);
+		}
+		
+		//compare probes, including unseen keys
+		Assert.assertEquals(ref.size(), map.size());
+		for( int i=0; i<distinct+10; i++ ) {
+			String key = "v" + i;
+			Assert.assertEquals(ref.containsKey(key), map.containsKey(key));
+			Assert.assertEquals(ref.containsKey(key) ? ref.get(key) : -1, map.get(key));
+		}
+		
+		//compare iterator
+		int count = 0;
+		StringLongIterator iter = map.getIterator();
+		while( iter.hasNext() ) {
+			iter.next();
+			Assert.assertEquals(ref.get(iter.getKey()).longValue(), iter.getValue());
+			count++;
+		}
+		Assert.assertEquals(ref.size(), count);
+		
+		//compare equals after overwrite
+		StringLongHashMap map2 = new StringLongHashMap(ref.size());
+		for( String key : ref.keySet() )
+			map2.put(key, 7);
+		for( String key : ref.keySet() )
+			map2.put(key, ref.get(key));
+		Assert.assertEquals(map, map2);
+		Assert.assertEquals(map.hashCode(), map2.hashCode());
+	}
+	
+	private void runLongLongDoubleTest( int distinct, boolean presized ) 
+	{
+		Random rand = new Random(7);
+		LongLongDoubleHashMap map = presized ? 
+			new LongLongDoubleHashMap(3*distinct) : new LongLongDoubleHashMap();
+		HashMap<String,Double> ref = new HashMap<String,Double>();
+		
+		//ctable-like aggregation (with negative keys)
+		for( int i=0; i<n; i++ ) {
+			long k1 = rand.nextInt(distinct) - distinct/2;
+			long k2 = rand.nextInt(3);
+			double v = rand.nextDouble();
+			map.addValue(k1, k2, v);
+			String key = k1 + "," + k2;
+			ref.put(key, (ref.containsKey(key) ? ref.get(key) : 0) + v);
+		}
+		
+		//compare iterator and extracted entries
+		Assert.assertEquals(ref.size(), map.size());
+		int count = 0;
+		LLDoubleIterator iter = map.getIterator();
+		while( iter.hasNext() ) {
+			iter.next();
+			String key = iter.getKey1() + "," + iter.getKey2();
+			Assert.assertEquals(ref.get(key), iter.getValue(), 1e-10);
+			count++;
+		}
+		Assert.assertEquals(ref.size(), count);
+		Assert.assertEquals(ref.size(), map.extractValues().size());
+	}
+	
+	private void runDoubleIntListTest( int distinct ) 
+	{
+		Random rand = new Random(7);
+		DoubleIntListHashMap map = new DoubleIntListHashMap();
+		HashMap<Double,ArrayList<Integer>> ref = new HashMap<Double,ArrayList<Integer>>();
+		
+		//bitmap-like build of offset lists
+		for( int i=0; i<n; i++ ) {
+			double key = rand.nextInt(distinct) * 0.5;
+			IntArrayList lstPtr = map.get(key);
+			if( lstPtr == null ) {
+				lstPtr = new IntArrayList();
+				map.appendValue(key, lstPtr);
+			}
+			lstPtr.appendValue(i);
+			if( !ref.containsKey(key) )
+				ref.put(key, new ArrayList<Integer>());
+			ref.get(key).add(i);
+		}
+		
+		//compare iterator incl offset lists
+		Assert.assertEquals(ref.size(), map.size());
+		int count = 0;
+		DIListIterator iter = map.getIterator();
+		while( iter.hasNext() ) {
+			iter.next();
+			ArrayList<Integer> list = ref.get(iter.getKey());
+			int[] offsets = iter.getValue().extractValues();
+			Assert.assertEquals(list.size(), iter.getValue().size());
+			for( int i=0; i<list.size(); i++ )
+				Assert.assertEquals(list.get(i).intValue(), offsets[i]);
+			count++;
+		}
+		Assert.assertEquals(ref.size(), count);
+		Assert.assertNull(map.get(-1.5));
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.misc;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.controlprogram.LocalVariableMap;
+import org.apache.sysml.runtime.controlprogram.caching.MatrixObject;
+import org.apache.sysml.runtime.instructions.cp.IntObject;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+
+/**
+ * Tests the reference counts maintained by the local variable map for 
+ * put, overwrite, remove, putAll, copy, and removeAll, with enabled 
+ * consistency checks against full scans of the map.
+ */
+public class VariableMapReferenceCountTest extends AutomatedTestBase
+{
+	@Override
+	public void setUp() {
+		//no test configuration required
+	}
+	
+	@Test
+	public void testPutRemove() {
+		runReferenceCountTest(false);
+	}
+	
+	@Test
+	public void testPutAllCopy() {
+		runReferenceCountTest(true);
+	}
+	
+	private void runReferenceCountTest( boolean copy )
+	{
+		boolean oldFlag = LocalVariableMap.CHECK_REFERENCE_COUNTS;
+		LocalVariableMap.CHECK_REFERENCE_COUNTS = true;
+		
+		try
+		{
+			MatrixObject mo1 = new MatrixObject(ValueType.DOUBLE, "./tmp/A");
+			MatrixObject mo2 = new MatrixObject(ValueType.DOUBLE, "./tmp/B");
+			
+			LocalVariableMap vars = new LocalVariableMap();
+			vars.put("A", mo1);
+			vars.put("B", mo1);
+			vars.put("C", mo2);
+			vars.put("i", new IntObject(7));
+			Assert.assertEquals(2, vars.getNumReferences(mo1, false));
+			Assert.assertEquals(1, vars.getNumReferences(mo2, false));
+			
+			if( copy ) {
+				LocalVariableMap vars2 = new LocalVariableMap();
+				vars2.putAll(vars);
+				vars2.put("D", mo2);
+				vars = (LocalVariableMap) vars2.clone();
+				Assert.assertEquals(2, vars.getNumReferences(mo2, false));
+				vars.remove("D");
+			}
+			
+			//overwrite and re-put of the same object
+			vars.put("B", mo2);
+			vars.put("B", mo2);
+			Assert.assertEquals(1, vars.getNumReferences(mo1, false));
+			Assert.assertEquals(2, vars.getNumReferences(mo2, false));
+			
+			//remove of all references
+			vars.remove("A");
+			Assert.assertFalse(vars.hasReferences(mo1));
+			Assert.assertTrue(vars.hasReferences(mo2));
+			vars.remove("B");
+			vars.remove("C");
+			Assert.assertFalse(vars.hasReferences(mo2));
+			
+			//remove all 
+			vars.put("A", mo1);
+			vars.removeAll();
+			Assert.assertFalse(vars.hasReferences(mo1));
+			Assert.assertEquals(0, vars.getNumReferences(mo1, false));
+		}
+		finally {
+			LocalVariableMap.CHECK_REFERENCE_COUNTS = oldFlag;
+		}
+	}
+}
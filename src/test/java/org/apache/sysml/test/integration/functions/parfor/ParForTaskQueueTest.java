@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.parfor;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.runtime.controlprogram.parfor.LocalTaskQueue;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+
+/**
+ * Concurrency tests for the local parfor task queue, which check that every
+ * task is read by exactly one reader for multiple writers and readers as well 
+ * as single and batched reads.
+ */
+public class ParForTaskQueueTest extends AutomatedTestBase
+{
+	private final static int NUM_TASKS = 200000; //exceeds max queue size
+	private final static int NUM_READERS = 8;
+	
+	@Override
+	public void setUp() {
+		//no test configuration required
+	}
+	
+	@Test
+	public void testSingleWriterSingleReads() {
+		runTaskQueueTest(1, 1);
+	}
+	
+	@Test
+	public void testSingleWriterBatchReads() {
+		runTaskQueueTest(1, 8);
+	}
+	
+	@Test
+	public void testMultiWriterSingleReads() {
+		runTaskQueueTest(4, 1);
+	}
+	
+	@Test
+	public void testMultiWriterBatchReads() {
+		runTaskQueueTest(4, 8);
+	}
+	
+	private void runTaskQueueTest( final int numWriters, final int batchSize )
+	{
+		final LocalTaskQueue<Integer> queue = new LocalTaskQueue<Integer>();
+		final AtomicIntegerArray counts = new AtomicIntegerArray(NUM_TASKS);
+		ExecutorService pool = Executors.newFixedThreadPool(numWriters + NUM_READERS);
+		
+		try
+		{
+			//start readers (blocking on empty queue)
+			ArrayList<Future<Integer>> readers = new ArrayList<Future<Integer>>();
+			for( int i=0; i<NUM_READERS; i++ )
+				readers.add(pool.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						int count = 0;
+						ArrayList<Integer> tasks = new ArrayList<Integer>();
+						while( queue.dequeueTasks(tasks, batchSize) > 0 ) {
+							for( Integer t : tasks )
+								counts.incrementAndGet(t);
+							count += tasks.size();
+							tasks.clear();
+						}
+						return count;
+					}
+				}));
+			
+			//start writers and close input once all tasks are written
+			ArrayList<Future<Integer>> writers = new ArrayList<Future<Integer>>();
+			for( int i=0; i<numWriters; i++ ) {
+				final int pos = i;
+				writers.add(pool.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						for( int t=pos; t<NUM_TASKS; t+=numWriters )
+							queue.enqueueTask(t);
+						return 0;
+					}
+				}));
+			}
+			for( Future<Integer> f : writers )
+				f.get();
+			queue.closeInput();
+			
+			//check that all tasks have been read exactly once
+			int total = 0;
+			for( Future<Integer> f : readers )
+				total += f.get();
+			Assert.assertEquals(NUM_TASKS, total);
+			for( int i=0; i<NUM_TASKS; i++ )
+				Assert.assertEquals("Wrong read count of task "+i, 1, counts.get(i));
+			Assert.assertEquals(0, queue.size());
+			Assert.assertEquals(LocalTaskQueue.NO_MORE_TASKS, queue.dequeueTask());
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.parfor;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.controlprogram.parfor.LocalParWorker;
+import org.apache.sysml.runtime.controlprogram.parfor.LocalTaskQueue;
+import org.apache.sysml.runtime.controlprogram.parfor.Task;
+import org.apache.sysml.runtime.controlprogram.parfor.Task.TaskType;
+import org.apache.sysml.runtime.instructions.cp.IntObject;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+
+/**
+ * Tests for work stealing of local parfor workers with uneven task costs, 
+ * which check that all workers terminate and every iteration is executed 
+ * exactly once, including tasks stolen from other workers' deques.
+ */
+public class ParForWorkStealingTest extends AutomatedTestBase
+{
+	private final static int NUM_TASKS = 256;
+	private final static int NUM_ITERS = 2; //iterations per task
+	private final static int NUM_WORKERS = 4;
+	private final static int BATCH_SIZE = 8;
+	private final static long TIMEOUT = 60000; //ms
+	
+	@Override
+	public void setUp() {
+		//no test configuration required
+	}
+	
+	@Test
+	public void testUniformTaskCosts() {
+		runWorkStealingTest(true, 0);
+	}
+	
+	@Test
+	public void testSkewedTaskCosts() {
+		runWorkStealingTest(true, 2*BATCH_SIZE);
+	}
+	
+	@Test
+	public void testSkewedTaskCostsNoStealing() {
+		runWorkStealingTest(false, 2*BATCH_SIZE);
+	}
+	
+	/**
+	 * 
+	 * @param stealing indicator for enabling work stealing
+	 * @param numHeavy number of leading expensive tasks
+	 */
+	private void runWorkStealingTest( boolean stealing, int numHeavy )
+	{
+		final AtomicIntegerArray counts = new AtomicIntegerArray(NUM_TASKS*NUM_ITERS);
+		LocalTaskQueue<Task> queue = new LocalTaskQueue<Task>();
+		
+		try
+		{
+			//write tasks (expensive ones first) and close input, such that
+			//workers read full batches and expensive tasks are not spread
+			for( int t=0; t<NUM_TASKS; t++ ) {
+				Task task = new Task(TaskType.SET);
+				for( int j=0; j<NUM_ITERS; j++ )
+					task.addIteration(new IntObject("i", t*NUM_ITERS+j));
+				queue.enqueueTask(task);
+			}
+			queue.closeInput();
+			
+			//create and start workers
+			TestParWorker[] workers = new TestParWorker[NUM_WORKERS];
+			Thread[] threads = new Thread[NUM_WORKERS];
+			for( int i=0; i<NUM_WORKERS; i++ )
+				workers[i] = new TestParWorker(i, queue, counts, numHeavy);
+			for( int i=0; i<NUM_WORKERS; i++ ) {
+				if( stealing )
+					workers[i].setWorkStealing(workers, BATCH_SIZE);
+				threads[i] = new Thread(workers[i]);
+				threads[i].start();
+			}
+			
+			//check worker termination
+			long numSteals = 0, numIters = 0;
+			for( int i=0; i<NUM_WORKERS; i++ ) {
+				threads[i].join(TIMEOUT);
+				Assert.assertFalse("Worker "+i+" did not terminate.", threads[i].isAlive());
+				numSteals += workers[i].getNumStolenTasks();
+				numIters += workers[i].getExecutedIterations();
+			}
+			
+			//check that all iterations have been executed exactly once
+			Assert.assertEquals(NUM_TASKS*NUM_ITERS, numIters);
+			for( int i=0; i<NUM_TASKS*NUM_ITERS; i++ )
+				Assert.assertEquals("Wrong execution count of iteration "+i, 1, counts.get(i));
+			Assert.assertEquals(0, queue.size());
+			//check stolen tasks (expensive tasks in two workers' deques,
+			//while the other workers finish the remaining cheap tasks)
+			if( stealing && numHeavy > 0 )
+				Assert.assertTrue("No tasks stolen.", numSteals > 0);
+			else if( !stealing )
+				Assert.assertEquals(0, numSteals);
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	/**
+	 * Local parfor worker that records executed iterations instead of 
+	 * executing a parfor body, where leading tasks are expensive.
+	 */
+	private static class TestParWorker extends LocalParWorker
+	{
+		private final AtomicIntegerArray _counts;
+		private final int _numHeavy;
+		
+		public TestParWorker(long ID, LocalTaskQueue<Task> q, AtomicIntegerArray counts, int numHeavy) {
+			super(ID, q, null, null, 0, false);
+			_counts = counts;
+			_numHeavy = numHeavy;
+		}
+		
+		@Override
+		protected void executeTask( Task task ) 
+			throws DMLRuntimeException 
+		{
+			for( IntObject iter : task.getIterations() ) {
+				int pos = (int)iter.getLongValue();
+				_counts.incrementAndGet(pos);
+				//uneven task costs (expensive leading tasks)
+				if( pos < _numHeavy*NUM_ITERS ) {
+					try { Thread.sleep(10); }
+					catch(InterruptedException ex) {}
+				}
+			}
+			_numTasks++;
+			_numIters += task.size();
+		}
+	}
+}
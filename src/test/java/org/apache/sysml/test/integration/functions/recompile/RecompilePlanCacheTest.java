@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.sysml.test.integration.functions.recompile;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.apache.sysml.hops.DataOp;
+import org.apache.sysml.hops.Hop;
+import org.apache.sysml.hops.Hop.DataOpTypes;
+import org.apache.sysml.hops.Hop.OpOp2;
+import org.apache.sysml.hops.HopsException;
+import org.apache.sysml.hops.LiteralOp;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.hops.ReorgOp;
+import org.apache.sysml.hops.recompile.RecompilePlanCache;
+import org.apache.sysml.hops.rewrite.HopRewriteUtils;
+import org.apache.sysml.lops.LopProperties.ExecType;
+import org.apache.sysml.parser.Expression.DataType;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.controlprogram.LocalVariableMap;
+import org.apache.sysml.runtime.instructions.cp.DoubleObject;
+import org.apache.sysml.runtime.instructions.cp.IntObject;
+import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+import org.apache.sysml.utils.Statistics;
+
+public class RecompilePlanCacheTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME = "recompile_plan_cache";
+	private final static String TEST_NAME2 = "recompile_plan_cache_while";
+	private final static String TEST_DIR = "functions/recompile/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + RecompilePlanCacheTest.class.getSimpleName() + "/";
+	
+	private final static int rows = 200;
+	private final static int cols = 15;
+	private final static int iters = 10;
+	private final static double sparsity = 0.3;
+	private final static double eps = 1e-8;
+	
+	@Override
+	public void setUp() 
+	{
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME, 
+			new TestConfiguration(TEST_CLASS_DIR, TEST_NAME, new String[] { "S" }) );
+		addTestConfiguration(TEST_NAME2, 
+			new TestConfiguration(TEST_CLASS_DIR, TEST_NAME2, new String[] { "S" }) );
+	}
+
+	@Test
+	public void testRecompilePlanCache() 
+	{
+		runRecompilePlanCacheTest(TEST_NAME, true);
+	}
+	
+	@Test
+	public void testRecompileNoPlanCache() 
+	{
+		runRecompilePlanCacheTest(TEST_NAME, false);
+	}
+	
+	@Test
+	public void testRecompilePlanCacheWhileScalars() 
+	{
+		runRecompilePlanCacheTest(TEST_NAME2, true);
+	}
+	
+	@Test
+	public void testRecompileNoPlanCacheWhileScalars() 
+	{
+		runRecompilePlanCacheTest(TEST_NAME2, false);
+	}
+	
+	@Test
+	public void testPlanCacheSignatureHopConfig() 
+	{
+		Hop X = new DataOp("X", DataType.MATRIX, ValueType.DOUBLE, 
+			DataOpTypes.TRANSIENTREAD, "X", rows, cols, 1000, 1000, 1000);
+		ReorgOp T = HopRewriteUtils.createTranspose(X);
+		ArrayList<Hop> hops = new ArrayList<Hop>();
+		hops.add(T);
+		LocalVariableMap vars = new LocalVariableMap();
+		RecompilePlanCache cache = new RecompilePlanCache();
+		
+		//signatures differ by hop-level num threads and forced exec types
+		String sig1 = cache.getSignature(hops, vars);
+		T.setMaxNumThreads(1);
+		String sig2 = cache.getSignature(hops, vars);
+		T.setForcedExecType(ExecType.CP);
+		String sig3 = cache.getSignature(hops, vars);
+		Assert.assertNotNull(sig1);
+		Assert.assertFalse(sig1.equals(sig2));
+		Assert.assertFalse(sig2.equals(sig3));
+		Assert.assertEquals(sig3, cache.getSignature(hops, vars));
+	}
+	
+	@Test
+	public void testPlanCacheSignatureScalars() 
+		throws HopsException
+	{
+		Hop X = new DataOp("X", DataType.MATRIX, ValueType.DOUBLE, 
+			DataOpTypes.TRANSIENTREAD, "X", rows, cols, 1000, 1000, 1000);
+		Hop s = new DataOp("s", DataType.SCALAR, ValueType.DOUBLE, 
+			DataOpTypes.TRANSIENTREAD, "s", 0, 0, 0, -1, -1);
+		Hop n = new DataOp("n", DataType.SCALAR, ValueType.INT, 
+			DataOpTypes.TRANSIENTREAD, "n", 0, 0, 0, -1, -1);
+		ArrayList<Hop> hops = new ArrayList<Hop>();
+		hops.add(HopRewriteUtils.createBinary(X, s, OpOp2.MULT));
+		hops.add(HopRewriteUtils.createDataGenOpByVal(n, new LiteralOp(1), 0));
+		LocalVariableMap vars = new LocalVariableMap();
+		vars.put("s", new DoubleObject(1));
+		vars.put("n", new IntObject(10));
+		RecompilePlanCache cache = new RecompilePlanCache();
+		
+		//signatures independent of runtime operands (matrix-scalar ops), 
+		//but dependent on scalars that determine sizes (data generation)
+		String sig1 = cache.getSignature(hops, vars);
+		vars.put("s", new DoubleObject(2));
+		String sig2 = cache.getSignature(hops, vars);
+		vars.put("n", new IntObject(20));
+		String sig3 = cache.getSignature(hops, vars);
+		Assert.assertNotNull(sig1);
+		Assert.assertEquals(sig1, sig2);
+		Assert.assertFalse(sig2.equals(sig3));
+		
+		//literal replacement only for scalars of the signature
+		LocalVariableMap lvars = cache.getLiteralReplacementVars(vars);
+		Assert.assertNull(lvars.get("s"));
+		Assert.assertNotNull(lvars.get("n"));
+	}
+	
+	private void runRecompilePlanCacheTest( String testname, boolean planCache )
+	{	
+		boolean oldFlag = OptimizerUtils.ALLOW_RECOMPILE_PLAN_CACHE;
+		
+		try
+		{
+			getAndLoadTestConfiguration(testname);
+			
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + testname + ".dml";
+			programArgs = new String[]{"-stats", "-args", 
+				input("X"), String.valueOf(iters), output("S") };
+			
+			OptimizerUtils.ALLOW_RECOMPILE_PLAN_CACHE = planCache;
+			
+			double[][] X = getRandomMatrix(rows, cols, 0, 1, sparsity, 7);
+			writeInputMatrixWithMTD("X", X, true);
+			
+			runTest(true, false, null, -1); 
+			
+			//compare result with expected column sums (incl sum of
+			//changing step sizes for the while loop)
+			HashMap<CellIndex, Double> dmlfile = readDMLMatrixFromHDFS("S");
+			double steps = 0;
+			for( int k=1; k<=iters; k++ )
+				steps += Math.pow(0.5, k);
+			for( int j=0; j<cols; j++ ) {
+				double expected = testname.equals(TEST_NAME2) ? steps : 0;
+				for( int i=0; i<rows; i++ )
+					expected += 2 * iters * X[i][j];
+				Double val = dmlfile.get(new CellIndex(1, j+1));
+				Assert.assertEquals(expected, (val!=null) ? val : 0, eps);
+			}
+			
+			//check plan cache hits of the loop body (first two iterations
+			//differ due to the initially empty accumulator, while scalars 
+			//that change in every iteration are not part of the signature)
+			if( planCache )
+				Assert.assertTrue("Missing plan cache hits.", Statistics.getHopRecompileCacheHits() > 0);
+			else
+				Assert.assertEquals(0, Statistics.getHopRecompileCacheHits());
+		}
+		finally
+		{
+			OptimizerUtils.ALLOW_RECOMPILE_PLAN_CACHE = oldFlag;
+		}
+	}
+}
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.reorg;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.lops.Lop;
+import org.apache.sysml.lops.SortKeys;
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.instructions.cp.QuantileSortCPInstruction;
+import org.apache.sysml.runtime.matrix.data.LibMatrixReorg;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.runtime.util.SortUtils;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * Tests the multi-threaded sort of values and indexes (incl stability of ties
+ * and sparse zero runs) as well as the selection-based quantiles against the
+ * sort-based quantiles. NaN values are expected in the order of Arrays.sort.
+ */
+public class ParallelSortTest extends AutomatedTestBase
+{
+	private final static int rows = 2*SortUtils.PAR_SORT_THRESHOLD+7;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.1;
+	private final static int k = 4;
+	
+	@Override
+	public void setUp() {
+		//no test configuration required
+	}
+	
+	@Test
+	public void testSortValuesDense() {
+		runSortTest(false, false, false);
+	}
+	
+	@Test
+	public void testSortValuesSparse() {
+		runSortTest(true, false, false);
+	}
+	
+	@Test
+	public void testSortIndexesAscDense() {
+		runSortTest(false, false, true);
+	}
+	
+	@Test
+	public void testSortIndexesAscSparse() {
+		runSortTest(true, false, true);
+	}
+	
+	@Test
+	public void testSortIndexesDescDense() {
+		runSortTest(false, true, true);
+	}
+	
+	@Test
+	public void testSortIndexesDescSparse() {
+		runSortTest(true, true, true);
+	}
+	
+	@Test
+	public void testQuantilesDense() {
+		runQuantileTest(false);
+	}
+	
+	@Test
+	public void testQuantilesSparse() {
+		runQuantileTest(true);
+	}
+	
+	@Test
+	public void testSortValuesNaN() throws DMLRuntimeException {
+		double[] A = createInputNaN(true);
+		double[] B = Arrays.copyOf(A, A.length);
+		Arrays.sort(A);
+		SortUtils.sortParallel(B, k);
+		for( int i=0; i<rows; i++ )
+			Assert.assertEquals("Wrong result at position "+i, 
+				Double.doubleToLongBits(A[i]), Double.doubleToLongBits(B[i]));
+	}
+	
+	@Test
+	public void testSortIndexesNaN() throws DMLRuntimeException {
+		final double[] A = createInputNaN(false);
+		
+		//reference stable order (NaN last)
+		Integer[] ix = new Integer[rows];
+		for( int i=0; i<rows; i++ )
+			ix[i] = i;
+		Arrays.sort(ix, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				return Double.compare(A[o1], A[o2]);
+			}
+		});
+		
+		//multi-threaded sort of values and indexes
+		double[] values = Arrays.copyOf(A, A.length);
+		int[] vix = new int[rows];
+		for( int i=0; i<rows; i++ )
+			vix[i] = i;
+		SortUtils.sortByValueStable(values, vix, k);
+		for( int i=0; i<rows; i++ ) {
+			Assert.assertEquals("Wrong index at position "+i, (int)ix[i], vix[i]);
+			Assert.assertEquals("Wrong value at position "+i, A[ix[i]], values[i], 0);
+		}
+	}
+	
+	@Test
+	public void testParseQSortOptionalNumThreads() throws DMLRuntimeException {
+		String in = "_mVar1" + Lop.DATATYPE_PREFIX + "MATRIX" + Lop.VALUETYPE_PREFIX + "DOUBLE";
+		String w = "_mVar2" + Lop.DATATYPE_PREFIX + "MATRIX" + Lop.VALUETYPE_PREFIX + "DOUBLE";
+		String out = "_mVar3" + Lop.DATATYPE_PREFIX + "MATRIX" + Lop.VALUETYPE_PREFIX + "DOUBLE";
+		String prefix = "CP" + Lop.OPERAND_DELIMITOR + SortKeys.OPCODE + Lop.OPERAND_DELIMITOR;
+		
+		//unweighted and weighted, w/ and w/o num threads
+		Assert.assertEquals(1, QuantileSortCPInstruction.parseInstruction(
+			prefix + in + Lop.OPERAND_DELIMITOR + out).getNumThreads());
+		Assert.assertEquals(k, QuantileSortCPInstruction.parseInstruction(
+			prefix + in + Lop.OPERAND_DELIMITOR + out + Lop.OPERAND_DELIMITOR + k).getNumThreads());
+		Assert.assertEquals(1, QuantileSortCPInstruction.parseInstruction(
+			prefix + in + Lop.OPERAND_DELIMITOR + w + Lop.OPERAND_DELIMITOR + out).getNumThreads());
+		Assert.assertEquals(k, QuantileSortCPInstruction.parseInstruction(
+			prefix + in + Lop.OPERAND_DELIMITOR + w + Lop.OPERAND_DELIMITOR + out 
+			+ Lop.OPERAND_DELIMITOR + k).getNumThreads());
+	}
+	
+	private void runSortTest( boolean sparse, final boolean desc, boolean ixret ) 
+	{
+		try
+		{
+			//generate input with many ties
+			final double[] A = createInput(sparse);
+			MatrixBlock in = DataConverter.convertToMatrixBlock(A, true);
+			in.examSparsity();
+			
+			//reference stable order
+			Integer[] ix = new Integer[rows];
+			for( int i=0; i<rows; i++ )
+				ix[i] = i;
+			Arrays.sort(ix, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer o1, Integer o2) {
+					int cmp = Double.compare(A[o1], A[o2]);
+					return desc ? -cmp : cmp;
+				}
+			});
+			
+			//multi-threaded sort
+			MatrixBlock out = LibMatrixReorg.sort(in, new MatrixBlock(), 1, desc, ixret, k);
+			for( int i=0; i<rows; i++ ) {
+				double expected = ixret ? ix[i]+1 : A[ix[i]];
+				Assert.assertEquals("Wrong result at position "+i, expected, out.quickGetValue(i, 0), 0);
+			}
+		}
+		catch(DMLRuntimeException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	private void runQuantileTest( boolean sparse ) 
+	{
+		try
+		{
+			MatrixBlock in = DataConverter.convertToMatrixBlock(createInput(sparse), true);
+			in.examSparsity();
+			
+			//sort-based quantiles vs selection-based quantiles
+			MatrixBlock sorted = (MatrixBlock) in.sortOperations(null, new MatrixBlock(), k);
+			Assert.assertEquals(sorted.median(), in.pickValueUnsorted(0.5, true), 0);
+			for( double q : new double[]{0, 0.01, 0.25, 0.5, 0.75, 0.99, 1} )
+				Assert.assertEquals("Wrong quantile "+q, sorted.pickValue(q), in.pickValueUnsorted(q, false), 0);
+		}
+		catch(DMLRuntimeException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	private static double[] createInputNaN(boolean negZeros) {
+		double[] ret = createInput(false);
+		for( int i=0; i<rows; i+=13 )
+			ret[i] = Double.NaN;
+		for( int i=5; negZeros && i<rows; i+=17 )
+			ret[i] = -0.0;
+		return ret;
+	}
+	
+	private static double[] createInput(boolean sparse) {
+		double[][] A = TestUtils.round(TestUtils.generateTestMatrix(
+			rows, 1, -10, 10, sparse?sparsity2:sparsity1, 7));
+		double[] ret = new double[rows];
+		for( int i=0; i<rows; i++ )
+			ret[i] = A[i][0];
+		return ret;
+	}
+}
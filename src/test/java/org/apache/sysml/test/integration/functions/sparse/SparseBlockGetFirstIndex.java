@@ -25,6 +25,7 @@ import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.data.SparseBlock;
 import org.apache.sysml.runtime.matrix.data.SparseBlockCOO;
 import org.apache.sysml.runtime.matrix.data.SparseBlockCSR;
+import org.apache.sysml.runtime.matrix.data.SparseBlockDCSR;
 import org.apache.sysml.runtime.matrix.data.SparseBlockMCSR;
 import org.apache.sysml.runtime.util.DataConverter;
 import org.apache.sysml.test.integration.AutomatedTestBase;
@@ -190,6 +191,51 @@ public class SparseBlockGetFirstIndex extends AutomatedTestBase
 		runSparseBlockGetFirstIndexTest(SparseBlock.Type.COO, sparsity3, IndexType.LTE);
 	}
 	
+	@Test
+	public void testSparseBlockDCSR1GT()  {
+		runSparseBlockGetFirstIndexTest(SparseBlock.Type.DCSR, sparsity1, IndexType.GT);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR2GT()  {
+		runSparseBlockGetFirstIndexTest(SparseBlock.Type.DCSR, sparsity2, IndexType.GT);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR3GT()  {
+		runSparseBlockGetFirstIndexTest(SparseBlock.Type.DCSR, sparsity3, IndexType.GT);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR1GTE()  {
+		runSparseBlockGetFirstIndexTest(SparseBlock.Type.DCSR, sparsity1, IndexType.GTE);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR2GTE()  {
+		runSparseBlockGetFirstIndexTest(SparseBlock.Type.DCSR, sparsity2, IndexType.GTE);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR3GTE()  {
+		runSparseBlockGetFirstIndexTest(SparseBlock.Type.DCSR, sparsity3, IndexType.GTE);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR1LTE()  {
+		runSparseBlockGetFirstIndexTest(SparseBlock.Type.DCSR, sparsity1, IndexType.LTE);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR2LTE()  {
+		runSparseBlockGetFirstIndexTest(SparseBlock.Type.DCSR, sparsity2, IndexType.LTE);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR3LTE()  {
+		runSparseBlockGetFirstIndexTest(SparseBlock.Type.DCSR, sparsity3, IndexType.LTE);
+	}
+	
 	/**
 	 * 
 	 * @param sparseM1
@@ -211,6 +257,7 @@ public class SparseBlockGetFirstIndex extends AutomatedTestBase
 				case MCSR: sblock = new SparseBlockMCSR(srtmp); break;
 				case CSR: sblock = new SparseBlockCSR(srtmp); break;
 				case COO: sblock = new SparseBlockCOO(srtmp); break;
+				case DCSR: sblock = new SparseBlockDCSR(srtmp); break;
 			}
 			
 			//check for correct number of non-zeros
@@ -25,6 +25,7 @@ import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.data.SparseBlock;
 import org.apache.sysml.runtime.matrix.data.SparseBlockCOO;
 import org.apache.sysml.runtime.matrix.data.SparseBlockCSR;
+import org.apache.sysml.runtime.matrix.data.SparseBlockDCSR;
 import org.apache.sysml.runtime.matrix.data.SparseBlockMCSR;
 import org.apache.sysml.runtime.util.DataConverter;
 import org.apache.sysml.runtime.util.LongLongDoubleHashMap;
@@ -192,6 +193,72 @@ public class SparseBlockGetSet extends AutomatedTestBase
 		runSparseBlockGetSetTest(SparseBlock.Type.COO, sparsity3, InitType.RAND_SET);
 	}
 	
+	@Test
+	public void testSparseBlockDCSR1Bulk()  {
+		runSparseBlockGetSetTest(SparseBlock.Type.DCSR, sparsity1, InitType.BULK);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR2Bulk()  {
+		runSparseBlockGetSetTest(SparseBlock.Type.DCSR, sparsity2, InitType.BULK);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR3Bulk()  {
+		runSparseBlockGetSetTest(SparseBlock.Type.DCSR, sparsity3, InitType.BULK);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR1Seq()  {
+		runSparseBlockGetSetTest(SparseBlock.Type.DCSR, sparsity1, InitType.SEQ_SET);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR2Seq()  {
+		runSparseBlockGetSetTest(SparseBlock.Type.DCSR, sparsity2, InitType.SEQ_SET);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR3Seq()  {
+		runSparseBlockGetSetTest(SparseBlock.Type.DCSR, sparsity3, InitType.SEQ_SET);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR1Rand()  {
+		runSparseBlockGetSetTest(SparseBlock.Type.DCSR, sparsity1, InitType.RAND_SET);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR2Rand()  {
+		runSparseBlockGetSetTest(SparseBlock.Type.DCSR, sparsity2, InitType.RAND_SET);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR3Rand()  {
+		runSparseBlockGetSetTest(SparseBlock.Type.DCSR, sparsity3, InitType.RAND_SET);
+	}
+	
+	@Test
+	public void testMatrixBlockUltraSparseUpdates() throws Exception {
+		//ultra-sparse blocks are DCSR after examSparsity but converted
+		//back to MCSR on incremental updates via the matrix block
+		MatrixBlock mb = new MatrixBlock(100000, 10, true);
+		for( int i=0; i<20; i++ )
+			mb.appendValue(i*5000, i%10, i+1);
+		mb.examSparsity();
+		Assert.assertTrue(mb.getSparseBlock() instanceof SparseBlockDCSR);
+		
+		mb.quickSetValue(7, 3, 7);
+		mb.quickSetValue(0, 0, 0);
+		Assert.assertTrue(mb.getSparseBlock() instanceof SparseBlockMCSR);
+		Assert.assertEquals(20, mb.getNonZeros());
+		Assert.assertEquals(20, mb.getSparseBlock().size());
+		Assert.assertEquals(7, mb.quickGetValue(7, 3), 0);
+		Assert.assertEquals(20, mb.quickGetValue(19*5000, 9), 0);
+		mb.examSparsity();
+		Assert.assertTrue(mb.getSparseBlock() instanceof SparseBlockDCSR);
+	}
+	
 	/**
 	 * 
 	 * @param sparseM1
@@ -214,6 +281,7 @@ public class SparseBlockGetSet extends AutomatedTestBase
 					case MCSR: sblock = new SparseBlockMCSR(srtmp); break;
 					case CSR: sblock = new SparseBlockCSR(srtmp); break;
 					case COO: sblock = new SparseBlockCOO(srtmp); break;
+					case DCSR: sblock = new SparseBlockDCSR(srtmp); break;
 				}
 			}
 			else if( itype == InitType.SEQ_SET || itype == InitType.RAND_SET ) {
@@ -221,6 +289,7 @@ public class SparseBlockGetSet extends AutomatedTestBase
 					case MCSR: sblock = new SparseBlockMCSR(rows, cols); break;
 					case CSR: sblock = new SparseBlockCSR(rows, cols); break;
 					case COO: sblock = new SparseBlockCOO(rows, cols); break;
+					case DCSR: sblock = new SparseBlockDCSR(rows, cols); break;
 				}
 				
 				if(itype == InitType.SEQ_SET) {
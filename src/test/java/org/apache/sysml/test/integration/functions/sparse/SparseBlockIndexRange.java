@@ -29,6 +29,7 @@ import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.data.SparseBlock;
 import org.apache.sysml.runtime.matrix.data.SparseBlockCOO;
 import org.apache.sysml.runtime.matrix.data.SparseBlockCSR;
+import org.apache.sysml.runtime.matrix.data.SparseBlockDCSR;
 import org.apache.sysml.runtime.matrix.data.SparseBlockMCSR;
 import org.apache.sysml.runtime.util.DataConverter;
 import org.apache.sysml.test.integration.AutomatedTestBase;
@@ -149,6 +150,36 @@ public class SparseBlockIndexRange extends AutomatedTestBase
 	public void testSparseBlockCOO3Insert()  {
 		runSparseBlockIndexRangeTest(SparseBlock.Type.COO, sparsity3, UpdateType.INSERT);
 	}
+	
+	@Test
+	public void testSparseBlockDCSR1Delete()  {
+		runSparseBlockIndexRangeTest(SparseBlock.Type.DCSR, sparsity1, UpdateType.DELETE);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR2Delete()  {
+		runSparseBlockIndexRangeTest(SparseBlock.Type.DCSR, sparsity2, UpdateType.DELETE);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR3Delete()  {
+		runSparseBlockIndexRangeTest(SparseBlock.Type.DCSR, sparsity3, UpdateType.DELETE);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR1Insert()  {
+		runSparseBlockIndexRangeTest(SparseBlock.Type.DCSR, sparsity1, UpdateType.INSERT);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR2Insert()  {
+		runSparseBlockIndexRangeTest(SparseBlock.Type.DCSR, sparsity2, UpdateType.INSERT);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR3Insert()  {
+		runSparseBlockIndexRangeTest(SparseBlock.Type.DCSR, sparsity3, UpdateType.INSERT);
+	}
 		
 	/**
 	 * 
@@ -170,6 +201,7 @@ public class SparseBlockIndexRange extends AutomatedTestBase
 				case MCSR: sblock = new SparseBlockMCSR(srtmp); break;
 				case CSR: sblock = new SparseBlockCSR(srtmp); break;
 				case COO: sblock = new SparseBlockCOO(srtmp); break;
+				case DCSR: sblock = new SparseBlockDCSR(srtmp); break;
 			}
 			
 			//delete range per row via set
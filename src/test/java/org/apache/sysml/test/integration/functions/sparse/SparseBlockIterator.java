@@ -28,6 +28,7 @@ import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.data.SparseBlock;
 import org.apache.sysml.runtime.matrix.data.SparseBlockCOO;
 import org.apache.sysml.runtime.matrix.data.SparseBlockCSR;
+import org.apache.sysml.runtime.matrix.data.SparseBlockDCSR;
 import org.apache.sysml.runtime.matrix.data.SparseBlockMCSR;
 import org.apache.sysml.runtime.util.DataConverter;
 import org.apache.sysml.test.integration.AutomatedTestBase;
@@ -143,6 +144,36 @@ public class SparseBlockIterator extends AutomatedTestBase
 		runSparseBlockIteratorTest(SparseBlock.Type.COO, sparsity3, true);
 	}
 	
+	@Test
+	public void testSparseBlockDCSR1Full()  {
+		runSparseBlockIteratorTest(SparseBlock.Type.DCSR, sparsity1, false);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR2Full()  {
+		runSparseBlockIteratorTest(SparseBlock.Type.DCSR, sparsity2, false);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR3Full()  {
+		runSparseBlockIteratorTest(SparseBlock.Type.DCSR, sparsity3, false);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR1Partial()  {
+		runSparseBlockIteratorTest(SparseBlock.Type.DCSR, sparsity1, true);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR2Partial()  {
+		runSparseBlockIteratorTest(SparseBlock.Type.DCSR, sparsity2, true);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR3Partial()  {
+		runSparseBlockIteratorTest(SparseBlock.Type.DCSR, sparsity3, true);
+	}
+	
 	
 	/**
 	 * 
@@ -165,6 +196,7 @@ public class SparseBlockIterator extends AutomatedTestBase
 				case MCSR: sblock = new SparseBlockMCSR(srtmp); break;
 				case CSR: sblock = new SparseBlockCSR(srtmp); break;
 				case COO: sblock = new SparseBlockCOO(srtmp); break;
+				case DCSR: sblock = new SparseBlockDCSR(srtmp); break;
 			}
 			
 			//check for correct number of non-zeros
@@ -25,6 +25,7 @@ import org.apache.sysml.runtime.matrix.data.MatrixBlock;
 import org.apache.sysml.runtime.matrix.data.SparseBlock;
 import org.apache.sysml.runtime.matrix.data.SparseBlockCOO;
 import org.apache.sysml.runtime.matrix.data.SparseBlockCSR;
+import org.apache.sysml.runtime.matrix.data.SparseBlockDCSR;
 import org.apache.sysml.runtime.matrix.data.SparseBlockMCSR;
 import org.apache.sysml.runtime.util.DataConverter;
 import org.apache.sysml.test.integration.AutomatedTestBase;
@@ -94,6 +95,21 @@ public class SparseBlockScan extends AutomatedTestBase
 		runSparseBlockScanTest(SparseBlock.Type.COO, sparsity3);
 	}
 	
+	@Test
+	public void testSparseBlockDCSR1Full()  {
+		runSparseBlockScanTest(SparseBlock.Type.DCSR, sparsity1);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR2Full()  {
+		runSparseBlockScanTest(SparseBlock.Type.DCSR, sparsity2);
+	}
+	
+	@Test
+	public void testSparseBlockDCSR3Full()  {
+		runSparseBlockScanTest(SparseBlock.Type.DCSR, sparsity3);
+	}
+	
 	/**
 	 * 
 	 * @param sparseM1
@@ -115,6 +131,7 @@ public class SparseBlockScan extends AutomatedTestBase
 				case MCSR: sblock = new SparseBlockMCSR(srtmp); break;
 				case CSR: sblock = new SparseBlockCSR(srtmp); break;
 				case COO: sblock = new SparseBlockCOO(srtmp); break;
+				case DCSR: sblock = new SparseBlockDCSR(srtmp); break;
 			}
 			
 			//check for correct number of non-zeros
@@ -0,0 +1,311 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.transform;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.api.DMLScript;
+import org.apache.sysml.api.DMLScript.RUNTIME_PLATFORM;
+import org.apache.sysml.conf.ConfigurationManager;
+import org.apache.sysml.conf.DMLConfig;
+import org.apache.sysml.hops.OptimizerUtils;
+import org.apache.sysml.lops.Lop;
+import org.apache.sysml.parser.AParserWrapper;
+import org.apache.sysml.parser.DMLProgram;
+import org.apache.sysml.parser.DMLTranslator;
+import org.apache.sysml.parser.Expression.ValueType;
+import org.apache.sysml.runtime.controlprogram.ParForProgramBlock;
+import org.apache.sysml.runtime.controlprogram.Program;
+import org.apache.sysml.runtime.controlprogram.ProgramBlock;
+import org.apache.sysml.runtime.instructions.Instruction;
+import org.apache.sysml.runtime.matrix.data.FrameBlock;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.transform.encode.Encoder;
+import org.apache.sysml.runtime.transform.encode.EncoderFactory;
+import org.apache.sysml.runtime.matrix.data.MatrixValue.CellIndex;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.integration.TestConfiguration;
+import org.apache.sysml.test.utils.TestUtils;
+import org.apache.sysml.utils.Statistics;
+
+/**
+ * Tests the multi-threaded transform encode (build and apply) and transform 
+ * apply over frame blocks against their single-threaded counterparts, for 
+ * plain and dictionary-encoded string columns, as well as the degree of 
+ * parallelism passed from DML scripts to the CP instructions.
+ */
+public class TransformFrameEncodeParallelTest extends AutomatedTestBase 
+{
+	private final static String TEST_NAME1 = "TransformFrameEncodeParallel";
+	private final static String TEST_DIR = "functions/transform/";
+	private final static String TEST_CLASS_DIR = TEST_DIR + TransformFrameEncodeParallelTest.class.getSimpleName() + "/";
+	
+	private final static int rows = 100000;
+	private final static int cols = 10;
+	private final static int k = 4;
+	private final static double eps = 1e-8;
+	
+	private final static String SPEC_RECODE = "{\"ids\": true, \"recode\": [1, 2]}";
+	private final static String SPEC_DUMMY  = "{\"ids\": true, \"dummycode\": [1, 2]}";
+	private final static String SPEC_IMPUTE = "{\"ids\": true, \"recode\": [2], \"impute\": ["
+		+ "{\"id\": 2, \"method\": \"global_mode\"}, {\"id\": 4, \"method\": \"global_mean\"}]}";
+	private final static String SPEC_OMIT   = "{\"ids\": true, \"recode\": [2], \"omit\": [2, 4]}";
+	
+	private final static String[] DISTRICTS = new String[]{"north", "south", "east", "west"};
+	
+	@Override
+	public void setUp() {
+		TestUtils.clearAssertionInformation();
+		addTestConfiguration(TEST_NAME1, new TestConfiguration(TEST_CLASS_DIR, TEST_NAME1, new String[] { "R" }) );
+	}
+	
+	@Test
+	public void testRecode() {
+		runTransformEncodeTest(SPEC_RECODE, false);
+	}
+	
+	@Test
+	public void testRecodeDict() {
+		runTransformEncodeTest(SPEC_RECODE, true);
+	}
+	
+	@Test
+	public void testDummycode() {
+		runTransformEncodeTest(SPEC_DUMMY, false);
+	}
+	
+	@Test
+	public void testDummycodeDict() {
+		runTransformEncodeTest(SPEC_DUMMY, true);
+	}
+	
+	@Test
+	public void testImpute() {
+		runTransformEncodeTest(SPEC_IMPUTE, false);
+	}
+	
+	@Test
+	public void testImputeDict() {
+		runTransformEncodeTest(SPEC_IMPUTE, true);
+	}
+	
+	@Test
+	public void testOmit() {
+		runTransformEncodeTest(SPEC_OMIT, false);
+	}
+	
+	@Test
+	public void testOmitDict() {
+		runTransformEncodeTest(SPEC_OMIT, true);
+	}
+	
+	@Test
+	public void testEncodeApplyDMLNumThreads() {
+		runTransformEncodeDMLTest();
+	}
+	
+	private void runTransformEncodeTest( String spec, boolean dict )
+	{
+		try
+		{
+			FrameBlock in = generateInputFrame();
+			FrameBlock plain = new FrameBlock(in);
+			if( dict ) {
+				in.compactStringColumns();
+				Assert.assertTrue(in.isDictionaryEncoded(1));
+			}
+			List<String> colnames = in.getColumnNames();
+			
+			//transform encode: single-threaded vs multi-threaded
+			Encoder encoder1 = EncoderFactory.createEncoder(spec, colnames, cols, null);
+			MatrixBlock out1 = encoder1.encode(in, new MatrixBlock(rows, cols, false));
+			FrameBlock meta1 = encoder1.getMetaData(new FrameBlock(cols, ValueType.STRING));
+			Encoder encoder2 = EncoderFactory.createEncoder(spec, colnames, cols, null);
+			MatrixBlock out2 = encoder2.encode(in, new MatrixBlock(rows, cols, false), k);
+			FrameBlock meta2 = encoder2.getMetaData(new FrameBlock(cols, ValueType.STRING));
+			
+			//compare encoded data and recode maps (incl assigned codes)
+			compareMatrixBlocks(out1, out2);
+			for( int j=0; j<2; j++ )
+				if( meta1.getColumnMetadata(j).getNumDistinct() > 0 )
+					Assert.assertEquals(meta1.getRecodeMap(j), meta2.getRecodeMap(j));
+			
+			//transform apply: single-threaded vs multi-threaded
+			Encoder encoder3 = EncoderFactory.createEncoder(spec, colnames, cols, meta1);
+			MatrixBlock out3 = encoder3.apply(in, new MatrixBlock(rows, cols, false));
+			Encoder encoder4 = EncoderFactory.createEncoder(spec, colnames, cols, meta1);
+			MatrixBlock out4 = encoder4.apply(in, new MatrixBlock(rows, cols, false), k);
+			compareMatrixBlocks(out3, out4);
+			
+			//dictionary-encoded vs plain string columns (encode and apply)
+			if( dict ) {
+				Encoder encoder5 = EncoderFactory.createEncoder(spec, colnames, cols, null);
+				MatrixBlock out5 = encoder5.encode(plain, new MatrixBlock(rows, cols, false));
+				FrameBlock meta5 = encoder5.getMetaData(new FrameBlock(cols, ValueType.STRING));
+				compareMatrixBlocks(out1, out5);
+				for( int j=0; j<2; j++ )
+					if( meta1.getColumnMetadata(j).getNumDistinct() > 0 )
+						Assert.assertEquals(meta1.getRecodeMap(j), meta5.getRecodeMap(j));
+				Encoder encoder6 = EncoderFactory.createEncoder(spec, colnames, cols, meta1);
+				MatrixBlock out6 = encoder6.apply(plain, new MatrixBlock(rows, cols, false));
+				compareMatrixBlocks(out3, out6);
+			}
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	private void runTransformEncodeDMLTest()
+	{
+		RUNTIME_PLATFORM platformOld = rtplatform;
+		RUNTIME_PLATFORM dmlPlatformOld = DMLScript.rtplatform;
+		rtplatform = RUNTIME_PLATFORM.SINGLE_NODE;
+		
+		try
+		{
+			getAndLoadTestConfiguration(TEST_NAME1);
+			String HOME = SCRIPT_DIR + TEST_DIR;
+			fullDMLScriptName = HOME + TEST_NAME1 + ".dml";
+			programArgs = new String[]{"-stats", "-nvargs", "rows="+rows, 
+				"cols="+cols, "R="+output("R")};
+			
+			//check degree of parallelism of compiled top-level instructions
+			int k = compileAndGetNumThreads(fullDMLScriptName);
+			Assert.assertEquals(OptimizerUtils.getConstrainedNumThreads(-1), k);
+			
+			//run encode/apply at top level and within parfor (with constrained k)
+			runTest(true, false, null, -1);
+			Assert.assertTrue(Statistics.getCPHeavyHitterOpCodes().contains("transformencode"));
+			Assert.assertTrue(Statistics.getCPHeavyHitterOpCodes().contains("transformapply"));
+			
+			//compare encoded data of all configurations with top-level encode
+			HashMap<CellIndex, Double> dmlfile = readDMLMatrixFromHDFS("R");
+			for( int i=1; i<=3; i++ )
+				for( int j=1; j<=2; j++ ) {
+					Double val = dmlfile.get(new CellIndex(i,j));
+					Assert.assertEquals((i==3 && j==2) ? 4 : 0, (val!=null) ? val : 0, eps);
+				}
+		}
+		catch(Exception ex) {
+			throw new RuntimeException(ex);
+		}
+		finally {
+			rtplatform = platformOld;
+			DMLScript.rtplatform = dmlPlatformOld;
+		}
+	}
+	
+	/**
+	 * Compiles the given script and returns the degree of parallelism of 
+	 * the top-level transformencode instruction, after checking that the
+	 * top-level transformapply instruction carries the same degree.
+	 * 
+	 * @param fname
+	 * @return
+	 * @throws Exception
+	 */
+	private int compileAndGetNumThreads(String fname) 
+		throws Exception
+	{
+		DMLConfig conf = new DMLConfig(getCurConfigFile().getPath());
+		ConfigurationManager.setLocalConfig(conf);
+		DMLScript.rtplatform = RUNTIME_PLATFORM.SINGLE_NODE;
+		
+		//read script and arguments
+		StringBuilder script = new StringBuilder();
+		BufferedReader in = new BufferedReader(new FileReader(fname));
+		String line = null;
+		while( (line = in.readLine()) != null )
+			script.append(line + "\n");
+		in.close();
+		HashMap<String, String> argVals = new HashMap<String,String>();
+		argVals.put("$rows", String.valueOf(rows));
+		argVals.put("$cols", String.valueOf(cols));
+		argVals.put("$R", output("R"));
+		
+		//compile runtime program
+		AParserWrapper parser = AParserWrapper.createParser(false);
+		DMLProgram prog = parser.parse(DMLScript.DML_FILE_PATH_ANTLR_PARSER, script.toString(), argVals);
+		DMLTranslator dmlt = new DMLTranslator(prog);
+		dmlt.liveVariableAnalysis(prog);
+		dmlt.validateParseTree(prog);
+		dmlt.constructHops(prog);
+		dmlt.rewriteHopsDAG(prog);
+		dmlt.constructLops(prog);
+		Program rtprog = prog.getRuntimeProgram(conf);
+		
+		//probe top-level instructions (k as trailing operand or param)
+		int kEncode = -1, kApply = -1;
+		for( ProgramBlock pb : rtprog.getProgramBlocks() ) {
+			if( pb instanceof ParForProgramBlock )
+				continue;
+			for( Instruction inst : pb.getInstructions() ) {
+				String[] parts = inst.toString().split(Lop.OPERAND_DELIMITOR);
+				if( inst.getOpcode().equals("transformencode") )
+					kEncode = Integer.parseInt(parts[parts.length-1]);
+				else if( inst.getOpcode().equals("transformapply") )
+					for( String part : parts )
+						if( part.startsWith("k"+Lop.NAME_VALUE_SEPARATOR) )
+							kApply = Integer.parseInt(part.substring(2));
+			}
+		}
+		Assert.assertEquals(kEncode, kApply);
+		return kEncode;
+	}
+	
+	private static void compareMatrixBlocks(MatrixBlock mb1, MatrixBlock mb2) {
+		Assert.assertEquals(mb1.getNumRows(), mb2.getNumRows());
+		Assert.assertEquals(mb1.getNumColumns(), mb2.getNumColumns());
+		Assert.assertEquals(mb1.getNonZeros(), mb2.getNonZeros());
+		TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(mb1), 
+			DataConverter.convertToDoubleMatrix(mb2), mb1.getNumRows(), mb1.getNumColumns(), eps);
+	}
+	
+	/**
+	 * Generates a homes-like string frame with categorical columns 1 (zipcode)
+	 * and 2 (district), and a numeric column 4 with missing values.
+	 * 
+	 * @return
+	 */
+	private static FrameBlock generateInputFrame() {
+		Random rand = new Random(7);
+		String[][] data = new String[rows][cols];
+		for( int i=0; i<rows; i++ ) {
+			data[i][0] = String.valueOf(90000 + rand.nextInt(500));
+			data[i][1] = (rand.nextDouble() < 0.01) ? null : DISTRICTS[rand.nextInt(3)+(i%2)];
+			for( int j=2; j<cols; j++ )
+				data[i][j] = String.valueOf(rand.nextInt(1000));
+			if( rand.nextDouble() < 0.05 )
+				data[i][3] = null;
+		}
+		return new FrameBlock(Collections.nCopies(cols, ValueType.STRING), data);
+	}
+}
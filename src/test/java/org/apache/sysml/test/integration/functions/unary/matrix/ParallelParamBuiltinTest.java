@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.sysml.test.integration.functions.unary.matrix;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.apache.sysml.runtime.DMLRuntimeException;
+import org.apache.sysml.runtime.matrix.data.MatrixBlock;
+import org.apache.sysml.runtime.util.DataConverter;
+import org.apache.sysml.test.integration.AutomatedTestBase;
+import org.apache.sysml.test.utils.TestUtils;
+
+/**
+ * Tests the multi-threaded removeEmpty (rows/cols, w/ and w/o select), 
+ * rexpand (rows/cols, sparse/dense outputs), and replace operations 
+ * against their single-threaded counterparts.
+ */
+public class ParallelParamBuiltinTest extends AutomatedTestBase
+{
+	private final static int rows = 1523;
+	private final static int cols = 1011;
+	private final static double sparsity1 = 0.7;
+	private final static double sparsity2 = 0.01;
+	private final static int k = 4;
+	
+	@Override
+	public void setUp() {
+		//no test configuration required
+	}
+	
+	@Test
+	public void testRemoveEmptyRowsDense() {
+		runRemoveEmptyTest(false, true, false);
+	}
+	
+	@Test
+	public void testRemoveEmptyRowsSparse() {
+		runRemoveEmptyTest(true, true, false);
+	}
+	
+	@Test
+	public void testRemoveEmptyRowsSelectDense() {
+		runRemoveEmptyTest(false, true, true);
+	}
+	
+	@Test
+	public void testRemoveEmptyColsDense() {
+		runRemoveEmptyTest(false, false, false);
+	}
+	
+	@Test
+	public void testRemoveEmptyColsSparse() {
+		runRemoveEmptyTest(true, false, false);
+	}
+	
+	@Test
+	public void testRemoveEmptyColsSelectSparse() {
+		runRemoveEmptyTest(true, false, true);
+	}
+	
+	@Test
+	public void testRexpandRowsDenseOut() {
+		runRexpandTest(true, 2);
+	}
+	
+	@Test
+	public void testRexpandRowsSparseOut() {
+		runRexpandTest(true, 100);
+	}
+	
+	@Test
+	public void testRexpandColsDenseOut() {
+		runRexpandTest(false, 2);
+	}
+	
+	@Test
+	public void testRexpandColsSparseOut() {
+		runRexpandTest(false, 100);
+	}
+	
+	@Test
+	public void testReplaceZeroSparse() {
+		runReplaceTest(true, 0);
+	}
+	
+	@Test
+	public void testReplaceNonZeroSparse() {
+		runReplaceTest(true, 1);
+	}
+	
+	@Test
+	public void testReplaceNaNDense() {
+		runReplaceTest(false, Double.NaN);
+	}
+	
+	private void runRemoveEmptyTest( boolean sparse, boolean rowsMargin, boolean select )
+	{
+		try
+		{
+			//generate input with empty rows and columns
+			double[][] A = getRandomMatrix(rows, cols, -1, 1, sparse?sparsity2:sparsity1, 7);
+			for( int i=0; i<rows; i++ )
+				for( int j=0; j<cols; j++ )
+					if( i%3==0 || j%5==0 )
+						A[i][j] = 0;
+			MatrixBlock in = DataConverter.convertToMatrixBlock(A);
+			in.examSparsity();
+			MatrixBlock sel = !select ? null : DataConverter.convertToMatrixBlock(
+				getRandomMatrix(rowsMargin?rows:1, rowsMargin?1:cols, 0, 1, 0.5, 3));
+			
+			MatrixBlock ret1 = in.removeEmptyOperations(new MatrixBlock(), rowsMargin, sel, 1);
+			MatrixBlock ret2 = in.removeEmptyOperations(new MatrixBlock(), rowsMargin, sel, k);
+			compareResults(ret1, ret2);
+		}
+		catch(DMLRuntimeException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	private void runRexpandTest( boolean rowsDir, int max )
+	{
+		try
+		{
+			//generate input vector w/ values in [0, max+1] (incl ignored values)
+			int len = rows*cols;
+			double[][] A = TestUtils.round(getRandomMatrix(len, 1, 0, max+1, 1.0, 7));
+			MatrixBlock in = DataConverter.convertToMatrixBlock(A);
+			
+			MatrixBlock ret1 = in.rexpandOperations(new MatrixBlock(), max, rowsDir, true, true, 1);
+			MatrixBlock ret2 = in.rexpandOperations(new MatrixBlock(), max, rowsDir, true, true, k);
+			Assert.assertEquals(ret1.isInSparseFormat(), ret2.isInSparseFormat());
+			compareResults(ret1, ret2);
+		}
+		catch(DMLRuntimeException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	private void runReplaceTest( boolean sparse, double pattern )
+	{
+		try
+		{
+			double[][] A = TestUtils.round(getRandomMatrix(rows, cols, 0, 3, sparse?sparsity2:sparsity1, 7));
+			if( Double.isNaN(pattern) )
+				for( int i=0; i<rows; i+=7 )
+					A[i][i%cols] = Double.NaN;
+			MatrixBlock in = DataConverter.convertToMatrixBlock(A);
+			in.examSparsity();
+			
+			MatrixBlock ret1 = (MatrixBlock) in.replaceOperations(new MatrixBlock(), pattern, 7, 1);
+			MatrixBlock ret2 = (MatrixBlock) in.replaceOperations(new MatrixBlock(), pattern, 7, k);
+			compareResults(ret1, ret2);
+		}
+		catch(DMLRuntimeException ex) {
+			throw new RuntimeException(ex);
+		}
+	}
+	
+	private static void compareResults(MatrixBlock ret1, MatrixBlock ret2) {
+		Assert.assertEquals(ret1.getNumRows(), ret2.getNumRows());
+		Assert.assertEquals(ret1.getNumColumns(), ret2.getNumColumns());
+		Assert.assertEquals(ret1.getNonZeros(), ret2.getNonZeros());
+		TestUtils.compareMatrices(DataConverter.convertToDoubleMatrix(ret1), 
+			DataConverter.convertToDoubleMatrix(ret2), ret1.getNumRows(), ret1.getNumColumns(), 0);
+	}
+}
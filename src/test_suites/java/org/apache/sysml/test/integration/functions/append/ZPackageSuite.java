@@ -30,7 +30,8 @@ import org.junit.runners.Suite;
   StringAppendTest.class,
   RBindCBindMatrixTest.class,
   AppendChainTest.class,
-  AppendMatrixTest.class
+  AppendMatrixTest.class,
+  AppendInPlaceTest.class
 })
 
 
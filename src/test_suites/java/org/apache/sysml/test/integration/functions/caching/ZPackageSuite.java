@@ -26,7 +26,12 @@ import org.junit.runners.Suite;
  *  won't run two of them at once. */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
-	CachingPWriteExportTest.class
+	CachingPWriteExportTest.class,
+	CostEvictionPolicyTest.class,
+	LazyWriteBufferConcurrencyTest.class,
+	LineageReuseTest.class,
+	MappedEvictionFileTest.class,
+	ReusePoolTest.class,
 })
 
 
@@ -30,12 +30,14 @@ import org.junit.runners.Suite;
 	BasicMatrixAppendTest.class,
 	BasicMatrixMultChainTest.class,
 	BasicMatrixTransposeSelfMultTest.class,
+	BasicMatrixVectorBinaryOpsTest.class,
 	BasicMatrixVectorMultTest.class,
 	BasicScalarOperationsSparseUnsafeTest.class,
 	BasicScalarOperationsTest.class,
 	BasicTransposeSelfLeftMatrixMultTest.class,
 	BasicUnaryAggregateTest.class,
 	BasicVectorMatrixMultTest.class,
+	ColGroupDDCTest.class,
 	CompressedLinregCG.class,
 	CompressedSerializationTest.class,
 	LargeCompressionTest.class,
@@ -32,6 +32,7 @@ import org.junit.runners.Suite;
 	LeftIndexingTest.class,
 	RightIndexingMatrixTest.class,
 	RightIndexingVectorTest.class,
+	RowRangeViewTest.class,
 	
 	Jdk7IssueRightIndexingTest.class,
 	UnboundedScalarRightIndexingTest.class,
@@ -26,9 +26,11 @@ import org.junit.runners.Suite;
  *  won't run two of them at once. */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
+	CommonThreadPoolTest.class,
 	ConditionalValidateTest.class,
 	DataTypeCastingTest.class,
 	DataTypeChangeTest.class,
+	DirectInstructionConstructionTest.class,
 	FunctionInliningTest.class,
 	FunctionNamespaceTest.class,
 	IfTest.class,
@@ -38,12 +40,14 @@ import org.junit.runners.Suite;
 	IPAScalarRecursionTest.class,
 	IPAScalarVariablePropagationTest.class,
 	IPAUnknownRecursionTest.class,
+	LargeDenseBlockTest.class,
 	LongOverflowTest.class,
 	NegativeLoopIncrementsTest.class,
 	NrowNcolStringTest.class,
 	NrowNcolUnknownCSVReadTest.class,
 	OuterTableExpandTest.class,
 	PrintExpressionTest.class,
+	PrimitiveHashMapTest.class,
 	PrintMatrixTest.class,
 	ReadAfterWriteTest.class,
 	RewriteFusedRandTest.class,
@@ -60,7 +64,8 @@ import org.junit.runners.Suite;
 	SetWorkingDirTest.class,
 	ToStringTest.class,
 	ValueTypeAutoCastingTest.class,
-	ValueTypeCastingTest.class
+	ValueTypeCastingTest.class,
+	VariableMapReferenceCountTest.class
 })
 
 
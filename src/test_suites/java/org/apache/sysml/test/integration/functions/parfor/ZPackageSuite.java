@@ -39,6 +39,8 @@ import org.junit.runners.Suite;
 	
 	ParForParallelRemoteResultMergeTest.class,
 	ParForSerialRemoteResultMergeTest.class,
+	ParForTaskQueueTest.class,
+	ParForWorkStealingTest.class,
 	ParForRepeatedOptimizationTest.class,
 	ParForRulebasedOptimizerTest.class
 })
@@ -33,6 +33,7 @@ import org.junit.runners.Suite;
 	TransformFrameApplyTest.class,
 	TransformFrameEncodeApplyTest.class,
 	TransformFrameEncodeDecodeTest.class,
+	TransformFrameEncodeParallelTest.class,
 	TransformReadMetaTest.class,
 	TransformTest.class,
 })
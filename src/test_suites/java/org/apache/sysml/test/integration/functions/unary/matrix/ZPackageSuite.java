@@ -46,6 +46,7 @@ import org.junit.runners.Suite;
 	MinusTest.class,
 	MLUnaryBuiltinTest.class,
 	NegationTest.class,
+	ParallelParamBuiltinTest.class,
 	PrintTest.class,
 	QRSolverTest.class,
 	RemoveEmptyTest.class,